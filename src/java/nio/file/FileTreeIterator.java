@@ -29,9 +29,13 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.nio.file.FileTreeWalker.Event;
 
 /**
@@ -51,6 +55,9 @@ import java.nio.file.FileTreeWalker.Event;
 class FileTreeIterator implements Iterator<Event>, Closeable {
     private final FileTreeWalker walker;
     private Event next;
+    // unfinished walkers split off by spliterators, closed with this iterator
+    private final HashSet<FileTreeWalker> splits = new HashSet<>();
+    private boolean closed;
 
     /**
      * Creates a new iterator to walk the file tree starting at the given file.
@@ -79,22 +86,28 @@ class FileTreeIterator implements Iterator<Event>, Closeable {
             throw ioe;
     }
 
-    private void fetchNextIfNeeded() {
-        if (next == null) {
-            FileTreeWalker.Event ev = walker.next();
-            while (ev != null) {
-                IOException ioe = ev.ioeException();
-                if (ioe != null)
-                    throw new UncheckedIOException(ioe);
-
-                // END_DIRECTORY events are ignored
-                if (ev.type() != FileTreeWalker.EventType.END_DIRECTORY) {
-                    next = ev;
-                    return;
-                }
-                ev = walker.next();
-            }
+    /**
+     * Returns the next event from the given walker, ignoring END_DIRECTORY
+     * events, or {@code null} if there are no more events.
+     */
+    private static Event fetchNext(FileTreeWalker walker) {
+        FileTreeWalker.Event ev = walker.next();
+        while (ev != null) {
+            IOException ioe = ev.ioeException();
+            if (ioe != null)
+                throw new UncheckedIOException(ioe);
+
+            // END_DIRECTORY events are ignored
+            if (ev.type() != FileTreeWalker.EventType.END_DIRECTORY)
+                return ev;
+            ev = walker.next();
         }
+        return null;
+    }
+
+    private void fetchNextIfNeeded() {
+        if (next == null)
+            next = fetchNext(walker);
     }
 
     @Override
@@ -117,8 +130,139 @@ class FileTreeIterator implements Iterator<Event>, Closeable {
         return result;
     }
 
+    /**
+     * Returns a {@code Spliterator} over the events of this iterator. When
+     * walking with the {@code PARALLEL} option, the spliterator splits by
+     * handing part of the unvisited entries of a directory to a walker of
+     * its own; otherwise it cannot split. This iterator must not be used
+     * after this method is invoked, other than to close it.
+     */
+    Spliterator<Event> spliterator() {
+        if (!walker.isParallel())
+            return Spliterators.spliteratorUnknownSize(this, Spliterator.DISTINCT);
+        int characteristics = Spliterator.DISTINCT | Spliterator.NONNULL;
+        if (walker.isOrdered())
+            characteristics |= Spliterator.ORDERED;
+        Event ev = next;
+        next = null;
+        return new EventSpliterator(this, walker, ev, characteristics);
+    }
+
+    /**
+     * Registers a walker split off from this iterator's walker, to be closed
+     * when this iterator is closed.
+     */
+    private void register(FileTreeWalker w) {
+        synchronized (splits) {
+            if (closed)
+                w.close();
+            else
+                splits.add(w);
+        }
+    }
+
+    /**
+     * Forgets a walker split off from this iterator's walker that has
+     * returned its last event. Such a walker has popped all its directories
+     * and cancelled its reads, so it holds nothing that close would release.
+     */
+    private void finished(FileTreeWalker w) {
+        if (w != walker) {
+            synchronized (splits) {
+                splits.remove(w);
+            }
+        }
+    }
+
     @Override
     public void close() {
         walker.close();
+        synchronized (splits) {
+            closed = true;
+            for (FileTreeWalker w: splits)
+                w.close();
+            splits.clear();
+        }
+    }
+
+    /**
+     * A Spliterator over the events of a walker in parallel mode. Splitting
+     * returns a spliterator taking over the current walker, and the events
+     * yet to come from it, while this spliterator continues with a walker
+     * split off from it, so that the encounter order is the walker's order.
+     * If the walker cannot be split, one event is read ahead, which may
+     * enter a directory that can.
+     */
+    static final class EventSpliterator implements Spliterator<Event> {
+        private final FileTreeIterator owner;
+        private final int characteristics;
+        private FileTreeWalker walker;
+        private Event pending;   // event read ahead of the walker
+
+        EventSpliterator(FileTreeIterator owner, FileTreeWalker walker,
+                         Event pending, int characteristics) {
+            this.owner = owner;
+            this.walker = walker;
+            this.pending = pending;
+            this.characteristics = characteristics;
+        }
+
+        public Spliterator<Event> trySplit() {
+            FileTreeWalker w = walker.split();
+            if (w == null && pending == null && walker.isOpen() &&
+                (pending = fetchNext(walker)) != null)
+                w = walker.split();
+            if (w == null)
+                return null;
+            owner.register(w);
+            EventSpliterator prefix =
+                new EventSpliterator(owner, walker, pending, characteristics);
+            walker = w;
+            pending = null;
+            return prefix;
+        }
+
+        public boolean tryAdvance(Consumer<? super Event> action) {
+            if (action == null)
+                throw new NullPointerException();
+            if (!walker.isOpen())
+                throw new IllegalStateException();
+            Event ev = pending;
+            if (ev != null)
+                pending = null;
+            else if ((ev = fetchNext(walker)) == null) {
+                owner.finished(walker);
+                return false;
+            }
+            action.accept(ev);
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super Event> action) {
+            if (action == null)
+                throw new NullPointerException();
+            if (!walker.isOpen())
+                throw new IllegalStateException();
+            Event ev = pending;
+            pending = null;
+            if (ev != null)
+                action.accept(ev);
+            while ((ev = fetchNext(walker)) != null)
+                action.accept(ev);
+            owner.finished(walker);
+        }
+
+        /**
+         * Returns the walker's estimate of its remaining events, which
+         * follows the directories still to be visited rather than halving
+         * a fixed guess at each split.
+         */
+        public long estimateSize() {
+            return walker.estimateSize() + ((pending != null) ? 1L : 0L);
+        }
+
+        public int characteristics() {
+            return characteristics;
+        }
     }
 }
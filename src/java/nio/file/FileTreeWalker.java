@@ -25,12 +25,17 @@
 
 package java.nio.file;
 
+import java.nio.file.attribute.BasicFileAttributeView;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
 import sun.nio.fs.BasicFileAttributesHolder;
 
 /**
@@ -51,18 +56,42 @@ import sun.nio.fs.BasicFileAttributesHolder;
  *     }
  * }</pre>
  *
+ * <p> With the {@link FileVisitOption#PARALLEL PARALLEL} option, each
+ * directory is read in one pass into a {@code Listing} holding its entries
+ * and their attributes, and the walker keeps up to {@code MAX_PREFETCH}
+ * listings of directories it is about to enter being read by tasks in a
+ * {@code ForkJoinPool}. The walker itself remains single-threaded; {@link
+ * #split} hands part of the unvisited entries to a new walker that may be
+ * used by another thread.
+ *
  * @see Files#walkFileTree
  */
 
 class FileTreeWalker implements Closeable {
+    /**
+     * The maximum number of directory reads a walker has in progress
+     * ahead of the walk in parallel mode.
+     */
+    private static final int MAX_PREFETCH = 32;
+
     private final boolean followLinks;
     private final LinkOption[] linkOptions;
     private final int maxDepth;
+    private final boolean parallel;
+    private final boolean ordered;
     private final ArrayDeque<DirectoryNode> stack = new ArrayDeque<>();
+    // for a walker created by split, the directories above its stack
+    private final DirectoryNode[] ancestors;
+    private final int baseDepth;
+    private int inFlight;
     private boolean closed;
+    // entries and directories in the listings pushed so far, for estimateSize
+    private long listedEntries, listedDirectories;
 
     /**
      * The element on the walking stack corresponding to a directory node.
+     * In parallel mode the node iterates over a range of a listing, rather
+     * than over a directory stream.
      */
     private static class DirectoryNode {
         private final Path dir;
@@ -71,11 +100,79 @@ class FileTreeWalker implements Closeable {
         private final Iterator<Path> iterator;
         private boolean skipped;
 
+        // parallel mode only
+        private final Listing listing;
+        private final ReadTask[] reads;   // reads of subdirectories, by index
+        private final int start;          // first index of the range
+        private final boolean partial;    // no END_DIRECTORY for split nodes
+        private int index;                // next index to visit
+        private int limit;                // end of range
+        private int prefetchIndex;        // next index to consider reading
+        private int[] deferred;           // indexes of postponed entries
+        private int deferredHead, deferredTail;
+
         DirectoryNode(Path dir, Object key, DirectoryStream<Path> stream) {
             this.dir = dir;
             this.key = key;
             this.stream = stream;
             this.iterator = stream.iterator();
+            this.listing = null;
+            this.reads = null;
+            this.start = 0;
+            this.partial = false;
+        }
+
+        DirectoryNode(Path dir, Object key, Listing listing) {
+            this.dir = dir;
+            this.key = key;
+            this.stream = null;
+            this.iterator = null;
+            this.listing = listing;
+            this.reads = new ReadTask[listing.size];
+            this.start = 0;
+            this.partial = false;
+            this.limit = listing.size;
+        }
+
+        /**
+         * Creates a node for the entries of the given node from index
+         * {@code start} to its limit, sharing its listing and reads.
+         */
+        DirectoryNode(DirectoryNode node, int start) {
+            this.dir = node.dir;
+            this.key = node.key;
+            this.stream = null;
+            this.iterator = null;
+            this.listing = node.listing;
+            this.reads = node.reads;
+            this.start = start;
+            this.partial = true;
+            this.index = start;
+            this.limit = node.limit;
+            this.prefetchIndex = Math.max(start, node.prefetchIndex);
+        }
+
+        void defer(int i) {
+            int[] d = deferred;
+            if (d == null)
+                deferred = d = new int[8];
+            else if (deferredTail == d.length)
+                deferred = d = Arrays.copyOf(d, d.length << 1);
+            d[deferredTail++] = i;
+        }
+
+        /**
+         * Returns the next postponed index, or -1 if there is none.
+         */
+        int nextDeferred() {
+            return (deferredHead < deferredTail) ? deferred[deferredHead++] : -1;
+        }
+
+        /**
+         * Returns the number of postponed entries not yet visited.
+         */
+        int deferredCount() {
+            return deferredTail - deferredHead;
         }
 
         Path directory() {
@@ -162,6 +259,84 @@ class FileTreeWalker implements Closeable {
         }
     }
 
+    /**
+     * The entries of a directory and the attributes of each, or the
+     * {@code IOException} thrown reading them, as read in one pass in
+     * parallel mode. Entries whose attributes cannot be read due to a
+     * {@code SecurityException} are omitted.
+     */
+    private static class Listing {
+        Path[] entries = new Path[8];
+        Object[] results = new Object[8];
+        // directoriesBefore[i] is the number of directories among entries[0..i)
+        int[] directoriesBefore = new int[9];
+        int size;
+        IOException openException;     // directory could not be opened
+        SecurityException securityException;
+        IOException endException;      // iterating or closing failed
+
+        void add(Path entry, Object result) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size << 1);
+                results = Arrays.copyOf(results, size << 1);
+                directoriesBefore = Arrays.copyOf(directoriesBefore,
+                                                  (size << 1) + 1);
+            }
+            boolean isDirectory = result instanceof BasicFileAttributes &&
+                ((BasicFileAttributes)result).isDirectory();
+            directoriesBefore[size + 1] =
+                directoriesBefore[size] + (isDirectory ? 1 : 0);
+            entries[size] = entry;
+            results[size++] = result;
+        }
+
+        /**
+         * Returns the number of directories among the entries from index
+         * {@code from} to {@code to}.
+         */
+        int directories(int from, int to) {
+            return directoriesBefore[to] - directoriesBefore[from];
+        }
+    }
+
+    /**
+     * Reads the listing of a directory. The read blocks on I/O so it is
+     * done as a ManagedBlocker, letting the pool activate a spare thread
+     * while a worker waits on it.
+     */
+    @SuppressWarnings("serial")
+    private final class ReadTask extends RecursiveTask<Listing>
+        implements ForkJoinPool.ManagedBlocker {
+        final Path dir;
+        Listing listing;
+
+        ReadTask(Path dir) {
+            this.dir = dir;
+        }
+
+        protected Listing compute() {
+            try {
+                ForkJoinPool.managedBlock(this);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            } catch (RejectedExecutionException ignore) {
+                // too many spare threads; read without compensation
+            }
+            block();
+            return listing;
+        }
+
+        public boolean block() {
+            if (listing == null)
+                listing = read(dir);
+            return true;
+        }
+
+        public boolean isReleasable() {
+            return listing != null;
+        }
+    }
+
     /**
      * Creates a {@code FileTreeWalker}.
      *
@@ -175,11 +350,13 @@ class FileTreeWalker implements Closeable {
      *          array contains a {@code null} element
      */
     FileTreeWalker(Collection<FileVisitOption> options, int maxDepth) {
-        boolean fl = false;
+        boolean fl = false, par = false, po = false;
         for (FileVisitOption option: options) {
             // will throw NPE if options contains null
             switch (option) {
                 case FOLLOW_LINKS : fl = true; break;
+                case PARALLEL : par = true; break;
+                case PRESERVE_ORDER : po = true; break;
                 default:
                     throw new AssertionError("Should not get here");
             }
@@ -191,6 +368,41 @@ class FileTreeWalker implements Closeable {
         this.linkOptions = (fl) ? new LinkOption[0] :
             new LinkOption[] { LinkOption.NOFOLLOW_LINKS };
         this.maxDepth = maxDepth;
+        this.parallel = par;
+        this.ordered = !par || po;
+        this.ancestors = null;
+        this.baseDepth = 0;
+    }
+
+    /**
+     * Creates a walker with the options of the given walker, for entries
+     * at a depth greater than {@code baseDepth} below the given ancestors.
+     */
+    private FileTreeWalker(FileTreeWalker walker,
+                           DirectoryNode[] ancestors, int baseDepth) {
+        this.followLinks = walker.followLinks;
+        this.linkOptions = walker.linkOptions;
+        this.maxDepth = walker.maxDepth;
+        this.parallel = walker.parallel;
+        this.ordered = walker.ordered;
+        this.ancestors = ancestors;
+        this.baseDepth = baseDepth;
+        this.listedEntries = walker.listedEntries;
+        this.listedDirectories = walker.listedDirectories;
+    }
+
+    /**
+     * Returns {@code true} if walking with the {@code PARALLEL} option.
+     */
+    boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Returns {@code true} if entries are visited in directory stream order.
+     */
+    boolean isOrdered() {
+        return ordered;
     }
 
     /**
@@ -229,29 +441,113 @@ class FileTreeWalker implements Closeable {
         return attrs;
     }
 
+    /**
+     * Returns the attributes of the given entry of a directory opened as
+     * the given stream. Where the stream is a {@code SecureDirectoryStream}
+     * the attributes are read relative to the open directory, sparing the
+     * provider a lookup of the full path.
+     */
+    private BasicFileAttributes getAttributes(Path entry, DirectoryStream<Path> stream)
+        throws IOException
+    {
+        if (!(stream instanceof SecureDirectoryStream) ||
+            (entry instanceof BasicFileAttributesHolder))
+            return getAttributes(entry, true);
+
+        SecureDirectoryStream<Path> sds = (SecureDirectoryStream<Path>)stream;
+        Path name = entry.getFileName();
+        try {
+            return sds.getFileAttributeView(name, BasicFileAttributeView.class,
+                                            linkOptions).readAttributes();
+        } catch (IOException ioe) {
+            if (!followLinks)
+                throw ioe;
+            return sds.getFileAttributeView(name, BasicFileAttributeView.class,
+                                            LinkOption.NOFOLLOW_LINKS).readAttributes();
+        }
+    }
+
+    /**
+     * Reads the listing of the given directory.
+     */
+    private Listing read(Path dir) {
+        Listing listing = new Listing();
+        DirectoryStream<Path> stream;
+        try {
+            stream = Files.newDirectoryStream(dir);
+        } catch (IOException ioe) {
+            listing.openException = ioe;
+            return listing;
+        } catch (SecurityException se) {
+            listing.securityException = se;
+            return listing;
+        }
+
+        IOException ioe = null;
+        try {
+            for (Path entry: stream) {
+                Object result;
+                try {
+                    result = getAttributes(entry, stream);
+                } catch (IOException x) {
+                    result = x;
+                } catch (SecurityException x) {
+                    continue;
+                }
+                listing.add(entry, result);
+            }
+        } catch (DirectoryIteratorException x) {
+            ioe = x.getCause();
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            if (ioe == null) {
+                ioe = e;
+            } else {
+                ioe.addSuppressed(e);
+            }
+        }
+        listing.endException = ioe;
+        return listing;
+    }
+
     /**
      * Returns true if walking into the given directory would result in a
      * file system loop/cycle.
      */
     private boolean wouldLoop(Path dir, Object key) {
+        for (DirectoryNode ancestor: stack) {
+            if (isSameDirectory(dir, key, ancestor))
+                return true;
+        }
+        if (ancestors != null) {
+            for (DirectoryNode ancestor: ancestors) {
+                if (isSameDirectory(dir, key, ancestor))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSameDirectory(Path dir, Object key,
+                                           DirectoryNode ancestor) {
         // if this directory and ancestor has a file key then we compare
         // them; otherwise we use less efficient isSameFile test.
-        for (DirectoryNode ancestor: stack) {
-            Object ancestorKey = ancestor.key();
-            if (key != null && ancestorKey != null) {
-                if (key.equals(ancestorKey)) {
+        Object ancestorKey = ancestor.key();
+        if (key != null && ancestorKey != null) {
+            if (key.equals(ancestorKey)) {
+                // cycle detected
+                return true;
+            }
+        } else {
+            try {
+                if (Files.isSameFile(dir, ancestor.directory())) {
                     // cycle detected
                     return true;
                 }
-            } else {
-                try {
-                    if (Files.isSameFile(dir, ancestor.directory())) {
-                        // cycle detected
-                        return true;
-                    }
-                } catch (IOException | SecurityException x) {
-                    // ignore
-                }
+            } catch (IOException | SecurityException x) {
+                // ignore
             }
         }
         return false;
@@ -294,6 +590,11 @@ class FileTreeWalker implements Closeable {
                              new FileSystemLoopException(entry.toString()));
         }
 
+        // in parallel mode read the whole directory now
+        if (parallel)
+            return push(entry, attrs, new ReadTask(entry).invoke(),
+                        ignoreSecurityException);
+
         // file is a directory, attempt to open it
         DirectoryStream<Path> stream = null;
         try {
@@ -311,6 +612,243 @@ class FileTreeWalker implements Closeable {
         return new Event(EventType.START_DIRECTORY, entry, attrs);
     }
 
+    /**
+     * Pushes a directory node for the given listing to the stack, returning
+     * the {@code Event} corresponding to the visit to the directory, or
+     * {@code null} if a SecurityException opening it is ignored.
+     */
+    private Event push(Path dir, BasicFileAttributes attrs, Listing listing,
+                       boolean ignoreSecurityException) {
+        SecurityException se = listing.securityException;
+        if (se != null) {
+            if (ignoreSecurityException)
+                return null;
+            throw se;
+        }
+        if (listing.openException != null)
+            return new Event(EventType.ENTRY, dir, listing.openException);
+
+        stack.push(new DirectoryNode(dir, attrs.fileKey(), listing));
+        listedEntries += listing.size;
+        ++listedDirectories;
+        prefetch();
+        return new Event(EventType.START_DIRECTORY, dir, attrs);
+    }
+
+    /**
+     * Visits the entry at the given index of the node at the top of the
+     * stack, in parallel mode.
+     */
+    private Event visit(DirectoryNode top, int i) {
+        Path entry = top.listing.entries[i];
+        Object result = top.listing.results[i];
+        ReadTask read = top.reads[i];
+        if (read != null) {
+            top.reads[i] = null;
+            --inFlight;
+        }
+        if (result instanceof IOException)
+            return new Event(EventType.ENTRY, entry, (IOException)result);
+
+        // at maximum depth or file is not a directory
+        BasicFileAttributes attrs = (BasicFileAttributes)result;
+        int depth = baseDepth + stack.size();
+        if (depth >= maxDepth || !attrs.isDirectory()) {
+            return new Event(EventType.ENTRY, entry, attrs);
+        }
+
+        // check for cycles when following links
+        if (followLinks && wouldLoop(entry, attrs.fileKey())) {
+            if (read != null) {
+                read.cancel(false);
+                prefetch();
+            }
+            return new Event(EventType.ENTRY, entry,
+                             new FileSystemLoopException(entry.toString()));
+        }
+
+        Listing listing = (read != null) ? read.join() : new ReadTask(entry).invoke();
+        return push(entry, attrs, listing, true);
+    }
+
+    /**
+     * Starts reads of the subdirectories the walk is about to enter, nearest
+     * first, until MAX_PREFETCH reads are in progress.
+     */
+    private void prefetch() {
+        if (closed)
+            return;
+        int depth = baseDepth + stack.size();
+        for (DirectoryNode node: stack) {
+            if (inFlight >= MAX_PREFETCH)
+                return;
+            // entries of the node are at depth, and are entered only below maxDepth
+            if (depth-- >= maxDepth || node.skipped())
+                continue;
+            Listing listing = node.listing;
+            ReadTask[] reads = node.reads;
+            int j = Math.max(node.prefetchIndex, node.index), n = node.limit;
+            for (; j < n && inFlight < MAX_PREFETCH; ++j) {
+                Object result = listing.results[j];
+                if (reads[j] == null &&
+                    result instanceof BasicFileAttributes &&
+                    ((BasicFileAttributes)result).isDirectory()) {
+                    (reads[j] = new ReadTask(listing.entries[j])).fork();
+                    ++inFlight;
+                }
+            }
+            node.prefetchIndex = j;
+        }
+    }
+
+    /**
+     * Cancels the reads in progress for the entries of the given node.
+     */
+    private void cancelReads(DirectoryNode node) {
+        ReadTask[] reads = node.reads;
+        for (int j = node.start, n = node.limit; j < n; ++j) {
+            ReadTask read = reads[j];
+            if (read != null) {
+                reads[j] = null;
+                read.cancel(false);
+                --inFlight;
+            }
+        }
+    }
+
+    /**
+     * Returns the next Event for the node at the top of the stack in
+     * parallel mode, or {@code null} if there are no more events.
+     */
+    private Event nextListed(DirectoryNode top) {
+        for (;;) {
+            int i;
+            if (top.skipped()) {
+                i = -1;
+            } else if (top.index < top.limit) {
+                i = top.index++;
+                // unless ordered, postpone directories that are not read yet
+                ReadTask read = top.reads[i];
+                if (!ordered && read != null && !read.isDone() &&
+                    top.index < top.limit) {
+                    top.defer(i);
+                    continue;
+                }
+            } else {
+                i = top.nextDeferred();
+            }
+
+            // no next entry so pop directory, creating corresponding event
+            if (i < 0) {
+                stack.pop();
+                cancelReads(top);
+                if (top.partial) {
+                    // no events for directories handed over by split
+                    if ((top = stack.peek()) == null)
+                        return null;    // bottom of a split walker
+                    prefetch();
+                    continue;
+                }
+                prefetch();
+                return new Event(EventType.END_DIRECTORY, top.directory(),
+                                 top.listing.endException);
+            }
+
+            // visit the entry
+            Event ev = visit(top, i);
+            if (ev != null)
+                return ev;
+        }
+    }
+
+    /**
+     * Splits off the second half of the unvisited entries of the directory
+     * nearest the bottom of the stack that has at least two, returning a new
+     * walker over them, or {@code null} if there is no such directory or the
+     * walker is not in parallel mode. The unvisited entries of the
+     * directories below that one come after the split-off entries in the
+     * walk, so they are handed to the new walker too, and this walker is
+     * left with a prefix of the walk. The new walker generates no
+     * {@code END_DIRECTORY} events for the directories it takes entries of.
+     */
+    FileTreeWalker split() {
+        if (!parallel || closed)
+            return null;
+        int n = stack.size(), s = -1, b = -1;
+        DirectoryNode[] nodes = new DirectoryNode[n];   // bottom first
+        Iterator<DirectoryNode> it = stack.descendingIterator();
+        for (int k = 0; k < n; ++k) {
+            DirectoryNode node = nodes[k] = it.next();
+            int remaining = node.skipped() ? 0 : node.limit - node.index;
+            if (remaining >= 2) {
+                s = k;
+                break;
+            }
+            if (remaining > 0 && b < 0)
+                b = k;
+        }
+        if (s < 0)
+            return null;
+        if (b < 0)
+            b = s;
+
+        // the new walker's ancestors are ours and those below nodes[b]
+        int na = (ancestors == null) ? 0 : ancestors.length;
+        DirectoryNode[] as = new DirectoryNode[na + b];
+        if (na > 0)
+            System.arraycopy(ancestors, 0, as, 0, na);
+        System.arraycopy(nodes, 0, as, na, b);
+
+        // hand over the rest of nodes[b..s-1] and half of nodes[s]
+        FileTreeWalker w = new FileTreeWalker(this, as, baseDepth + b);
+        for (int k = b; k <= s; ++k) {
+            DirectoryNode node = nodes[k];
+            int lo = node.skipped() ? node.limit : node.index, hi = node.limit;
+            int mid = (k < s) ? lo : (lo + hi) >>> 1;
+            for (int j = mid; j < hi; ++j) {
+                if (node.reads[j] != null) {
+                    --inFlight;
+                    ++w.inFlight;
+                }
+            }
+            w.stack.push(new DirectoryNode(node, mid));
+            node.limit = mid;
+        }
+        w.prefetch();
+        prefetch();
+        return w;
+    }
+
+    /**
+     * Returns an estimate of the number of events still to come in parallel
+     * mode: the unvisited entries of the directories on the stack, plus, for
+     * each of the subdirectories among them that the walk will enter, the
+     * mean number of entries of the directories listed so far. Only the
+     * first level of each pending subdirectory is accounted for, so the
+     * estimate is low for deep trees, but it shrinks as the walk proceeds
+     * and splits divide it between walkers.
+     */
+    long estimateSize() {
+        if (!parallel || closed)
+            return 0L;
+        long entries = 0L, directories = 0L;
+        int depth = baseDepth + stack.size();
+        for (DirectoryNode node: stack) {
+            // entries of the node are at depth, and are entered only below maxDepth
+            if (node.listing != null && !node.skipped()) {
+                int deferred = node.deferredCount();  // all directories
+                entries += node.limit - node.index + deferred;
+                if (depth < maxDepth)
+                    directories += node.listing.directories(node.index,
+                                                            node.limit) +
+                        deferred;
+            }
+            --depth;
+        }
+        long mean = (listedDirectories == 0L) ? 1L :
+            Math.max(1L, listedEntries / listedDirectories);
+        return entries + directories * mean;
+    }
 
     /**
      * Start walking from the given file.
@@ -334,6 +872,8 @@ class FileTreeWalker implements Closeable {
         DirectoryNode top = stack.peek();
         if (top == null)
             return null;      // stack is empty, we are done
+        if (top.listing != null)
+            return nextListed(top);
 
         // continue iteration of the directory at the top of the stack
         Event ev;
@@ -387,6 +927,11 @@ class FileTreeWalker implements Closeable {
     void pop() {
         if (!stack.isEmpty()) {
             DirectoryNode node = stack.pop();
+            if (node.listing != null) {
+                cancelReads(node);
+                prefetch();
+                return;
+            }
             try {
                 node.stream().close();
             } catch (IOException ignore) { }
@@ -416,10 +961,10 @@ class FileTreeWalker implements Closeable {
     @Override
     public void close() {
         if (!closed) {
+            closed = true;
             while (!stack.isEmpty()) {
                 pop();
             }
-            closed = true;
         }
     }
 }
@@ -37,5 +37,35 @@ public enum FileVisitOption {
     /**
      * Follow symbolic links.
      */
-    FOLLOW_LINKS;
+    FOLLOW_LINKS,
+
+    /**
+     * Read directories ahead of the traversal, in parallel. Directory
+     * listings, together with the basic file attributes of their entries,
+     * are read by tasks running in a {@link
+     * java.util.concurrent.ForkJoinPool}, so that the latency of reading
+     * them is overlapped. Where the traversal is done by a {@link
+     * java.util.stream.Stream}, the stream's {@code Spliterator} splits by
+     * directory entries, so that the stream may be processed in parallel.
+     *
+     * <p> Unless {@link #PRESERVE_ORDER PRESERVE_ORDER} is also specified,
+     * the entries of a directory may be visited in a different order than
+     * its {@link DirectoryStream} returns them: a directory that has not
+     * been read yet may be visited after its siblings that are ready.
+     *
+     * @since 1.8
+     */
+    PARALLEL,
+
+    /**
+     * Visit the entries of each directory in the order in which its
+     * {@link DirectoryStream} returns them, as a sequential traversal
+     * would, when traversing with the {@link #PARALLEL PARALLEL} option.
+     * Streams traversing with both options are {@link
+     * java.util.Spliterator#ORDERED ordered}. This option has no effect
+     * without the {@code PARALLEL} option.
+     *
+     * @since 1.8
+     */
+    PRESERVE_ORDER;
 }
@@ -2620,6 +2620,15 @@ public final class Files {
      * basic file attributes cannot be read, in which case the {@code
      * visitFileFailed} method is invoked.
      *
+     * <p> If the {@code options} parameter contains the {@link
+     * FileVisitOption#PARALLEL PARALLEL} option then directories are read,
+     * together with the attributes of their entries, ahead of the traversal
+     * by tasks running in a {@link java.util.concurrent.ForkJoinPool}. The
+     * visitor is still invoked by the thread invoking this method, one file
+     * at a time. Unless the {@link FileVisitOption#PRESERVE_ORDER
+     * PRESERVE_ORDER} option is also present, a directory that is not yet
+     * read may be visited after its siblings that follow it.
+     *
      * <p> If a visitor returns a result of {@code null} then {@code
      * NullPointerException} is thrown.
      *
@@ -3531,6 +3540,15 @@ public final class Files {
      * {@link Integer#MAX_VALUE MAX_VALUE} may be used to indicate that all
      * levels should be visited.
      *
+     * <p> If the {@code options} parameter contains the {@link
+     * FileVisitOption#PARALLEL PARALLEL} option then directories are read,
+     * together with the attributes of their entries, ahead of the traversal
+     * by tasks running in a {@link java.util.concurrent.ForkJoinPool}, and
+     * the stream may be processed in {@link Stream#parallel parallel} by
+     * dividing the entries of directories between threads. Unless the
+     * {@link FileVisitOption#PRESERVE_ORDER PRESERVE_ORDER} option is also
+     * present, the stream is not ordered.
+     *
      * <p> When a security manager is installed and it denies access to a file
      * (or directory), then it is ignored and not included in the stream.
      *
@@ -3573,7 +3591,7 @@ public final class Files {
     {
         FileTreeIterator iterator = new FileTreeIterator(start, maxDepth, options);
         try {
-            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.DISTINCT), false)
+            return StreamSupport.stream(iterator.spliterator(), false)
                                 .onClose(iterator::close)
                                 .map(entry -> entry.file());
         } catch (Error|RuntimeException e) {
@@ -3686,7 +3704,7 @@ public final class Files {
     {
         FileTreeIterator iterator = new FileTreeIterator(start, maxDepth, options);
         try {
-            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.DISTINCT), false)
+            return StreamSupport.stream(iterator.spliterator(), false)
                                 .onClose(iterator::close)
                                 .filter(entry -> matcher.test(entry.file(), entry.attributes()))
                                 .map(entry -> entry.file());
@@ -0,0 +1,924 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Hash table based implementation of the {@code Map} interface that keeps
+ * its mappings in flat arrays instead of linked nodes, and that grows
+ * without a stop-the-world rehash.  It permits {@code null} values and the
+ * {@code null} key, and otherwise behaves like {@link HashMap}.
+ *
+ * <p>Mappings live in three parallel arrays - hashes, keys and values -
+ * searched by <em>Robin Hood</em> linear probing: on insertion a key
+ * displaces any resident key that is closer to its home slot, which keeps
+ * the variance of probe lengths small, and a lookup stops as soon as it
+ * reaches a key closer to home than the one sought.  Comparing the
+ * stored hash first means {@code equals} is only called on keys whose
+ * full hash matches, and a probe sequence walks consecutive array
+ * elements rather than chasing {@code next} pointers across the heap.
+ * Removal uses backward-shift deletion, so no tombstones accumulate.
+ *
+ * <p>When the table reaches its threshold, {@link HashMap#resize} rehashes
+ * every bin before the triggering {@code put} returns.  This class
+ * instead allocates the doubled table and leaves the old one in place;
+ * each later insertion of a new key moves a few slots of the old table
+ * into the new one, so the cost of a resize is spread over the insertions
+ * that follow it.  Until migration completes, lookups consult both tables
+ * (the new one first) and removals may leave tombstones in the old one,
+ * which is discarded as a whole once it has been drained.
+ *
+ * <p>An instance has a <i>capacity</i> and a <i>load factor</i> with the
+ * same meaning as for {@code HashMap}.  Because the table is open
+ * addressed the load factor must be less than one; the default of .75
+ * matches {@code HashMap}'s.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterators returned by all of this class's "collection view methods"
+ * are <em>fail-fast</em>: if the map is structurally modified at any time
+ * after the iterator is created, in any way except through the iterator's
+ * own {@code remove} method, the iterator will throw a
+ * {@link ConcurrentModificationException}.  As with {@code HashMap}, a
+ * structural modification is one that adds or deletes a mapping; setting
+ * the value of an existing key is not, and never moves entries.  Iteration
+ * order is unspecified and may change as the map grows.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ *
+ * @see     HashMap
+ * @see     IntObjectHashMap
+ * @since 1.8
+ */
+public class CompactHashMap<K,V> extends AbstractMap<K,V>
+    implements Map<K,V>, Cloneable, Serializable {
+
+    private static final long serialVersionUID = 6083912795741823546L;
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    /**
+     * The maximum capacity, used if a higher value is implicitly specified
+     * by either of the constructors with arguments.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * The number of old-table slots migrated by each insertion of a new
+     * key while a resize is in progress.  A doubled table reaches its own
+     * threshold only after loadFactor * oldCapacity further insertions, so
+     * any step above 1 / loadFactor finishes migration in time; if it
+     * does not, the next resize completes the previous one first.
+     */
+    static final int MIGRATION_STEP = 8;
+
+    /**
+     * Marker bit set in every stored hash, so that 0 denotes an empty
+     * slot.
+     */
+    static final int OCCUPIED = 0x80000000;
+
+    /** Stands in for the null key in the key arrays. */
+    static final Object NULL_KEY = new Object();
+
+    /** Marks migrated or removed slots of the old table. */
+    static final Object TOMBSTONE = new Object();
+
+    /* ---------------- Fields -------------- */
+
+    /** Stored hashes of the current table, 0 for empty slots. */
+    transient int[] hashes;
+
+    /** Keys of the current table, with null masked as NULL_KEY. */
+    transient Object[] keys;
+
+    /** Values of the current table. */
+    transient Object[] vals;
+
+    /**
+     * The table being migrated, or null if no resize is in progress.
+     * Slots below migrateIndex, and slots holding TOMBSTONE keys, no
+     * longer hold live mappings.
+     */
+    transient int[] oldHashes;
+    transient Object[] oldKeys;
+    transient Object[] oldVals;
+    transient int migrateIndex;
+
+    /**
+     * The number of key-value mappings contained in this map, in both
+     * tables.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     * This field is used to make iterators on Collection-views of the
+     * map fail-fast.
+     */
+    transient int modCount;
+
+    /**
+     * The next size value at which to resize (capacity * load factor).
+     * Before the table is allocated, holds the initial capacity.
+     *
+     * @serial
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     *
+     * @serial
+     */
+    final float loadFactor;
+
+    transient Set<Map.Entry<K,V>> entrySet;
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Constructs an empty {@code CompactHashMap} with the specified initial
+     * capacity and load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in the interval (0, 1)
+     */
+    public CompactHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        this.threshold = capacityFor(initialCapacity, loadFactor);
+    }
+
+    /**
+     * Constructs an empty {@code CompactHashMap} with the specified initial
+     * capacity and the default load factor (0.75).
+     *
+     * @param  initialCapacity the initial capacity.
+     * @throws IllegalArgumentException if the initial capacity is negative.
+     */
+    public CompactHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code CompactHashMap} with the default initial
+     * capacity (16) and the default load factor (0.75).
+     */
+    public CompactHashMap() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        this.threshold = DEFAULT_INITIAL_CAPACITY;
+    }
+
+    /**
+     * Constructs a new {@code CompactHashMap} with the same mappings as the
+     * specified {@code Map}, sized to hold them without resizing.
+     *
+     * @param   m the map whose mappings are to be placed in this map
+     * @throws  NullPointerException if the specified map is null
+     */
+    public CompactHashMap(Map<? extends K, ? extends V> m) {
+        this(m.size(), DEFAULT_LOAD_FACTOR);
+        for (Map.Entry<? extends K, ? extends V> e : m.entrySet())
+            put(e.getKey(), e.getValue());
+    }
+
+    /**
+     * Returns the smallest power of two table length that holds the
+     * given number of mappings at the given load factor.
+     */
+    static int capacityFor(int expected, float loadFactor) {
+        double c = Math.ceil(expected / (double)loadFactor) + 1;
+        return (c >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY :
+            Math.max(HashMap.tableSizeFor((int)c), 2);
+    }
+
+    /**
+     * Computes the stored hash of a key: {@link HashMap#hash} with the
+     * occupied bit set.
+     */
+    static int hash(Object key) {
+        return HashMap.hash(key) | OCCUPIED;
+    }
+
+    static Object maskNull(Object key) {
+        return (key == null) ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K> K unmaskNull(Object key) {
+        return (key == NULL_KEY) ? null : (K)key;
+    }
+
+    /**
+     * Returns the slot of the given masked key in the given table, or -1.
+     */
+    static int find(int[] hs, Object[] ks, Object k, int h) {
+        int mask = hs.length - 1;
+        for (int i = h & mask, d = 0; ; i = (i + 1) & mask, ++d) {
+            int sh = hs[i];
+            if (sh == 0 || ((i - sh) & mask) < d)
+                return -1;      // empty, or richer than the key sought
+            Object sk;
+            if (sh == h && ((sk = ks[i]) == k ||
+                            (sk != TOMBSTONE && k.equals(sk))))
+                return i;
+        }
+    }
+
+    /**
+     * Inserts a masked key known to be absent into the given table,
+     * displacing keys that are closer to their home slots.
+     */
+    static void place(int[] hs, Object[] ks, Object[] vs,
+                      int h, Object k, Object v) {
+        int mask = hs.length - 1;
+        for (int i = h & mask, d = 0; ; i = (i + 1) & mask, ++d) {
+            int sh = hs[i];
+            if (sh == 0) {
+                hs[i] = h;
+                ks[i] = k;
+                vs[i] = v;
+                return;
+            }
+            int sd = (i - sh) & mask;
+            if (sd < d) {
+                Object sk = ks[i], sv = vs[i];
+                hs[i] = h;
+                ks[i] = k;
+                vs[i] = v;
+                h = sh;
+                k = sk;
+                v = sv;
+                d = sd;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @see #put(Object, Object)
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Object k = maskNull(key);
+        int h = hash(key), i;
+        if (hashes != null && (i = find(hashes, keys, k, h)) >= 0)
+            return (V)vals[i];
+        if (oldHashes != null && (i = find(oldHashes, oldKeys, k, h)) >= 0)
+            return (V)oldVals[i];
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        Object k = maskNull(key);
+        int h = hash(key), i;
+        if (hashes != null && (i = find(hashes, keys, k, h)) >= 0)
+            return (V)vals[i];
+        if (oldHashes != null && (i = find(oldHashes, oldKeys, k, h)) >= 0)
+            return (V)oldVals[i];
+        return defaultValue;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param   key   The key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     * key.
+     */
+    public boolean containsKey(Object key) {
+        Object k = maskNull(key);
+        int h = hash(key);
+        return (hashes != null && find(hashes, keys, k, h) >= 0) ||
+            (oldHashes != null && find(oldHashes, oldKeys, k, h) >= 0);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        Object k = maskNull(key);
+        int h = hash(key), i;
+        if (hashes == null)
+            inflateTable();
+        else if ((i = find(hashes, keys, k, h)) >= 0) {
+            V oldValue = (V)vals[i];
+            if (!onlyIfAbsent || oldValue == null)
+                vals[i] = value;
+            return oldValue;
+        }
+        if (oldHashes != null && (i = find(oldHashes, oldKeys, k, h)) >= 0) {
+            V oldValue = (V)oldVals[i];
+            if (!onlyIfAbsent || oldValue == null)
+                oldVals[i] = value;
+            return oldValue;
+        }
+        ++modCount;
+        if (size >= threshold)
+            grow();
+        place(hashes, keys, vals, h, k, value);
+        ++size;
+        if (oldHashes != null)
+            migrate(MIGRATION_STEP);
+        return null;
+    }
+
+    /**
+     * Allocates the initial table.
+     */
+    final void inflateTable() {
+        int cap = threshold;
+        hashes = new int[cap];
+        keys = new Object[cap];
+        vals = new Object[cap];
+        threshold = thresholdFor(cap);
+    }
+
+    final int thresholdFor(int cap) {
+        return (cap == MAXIMUM_CAPACITY) ? Integer.MAX_VALUE :
+            Math.min((int)(cap * loadFactor), cap - 1);
+    }
+
+    /**
+     * Starts a resize: the current table becomes the old table and an
+     * empty table of twice the length replaces it.  Finishes any resize
+     * still in progress first.
+     */
+    final void grow() {
+        if (oldHashes != null)
+            migrate(Integer.MAX_VALUE);
+        int oldCap = hashes.length;
+        if (oldCap >= MAXIMUM_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+        int newCap = oldCap << 1;
+        oldHashes = hashes;
+        oldKeys = keys;
+        oldVals = vals;
+        migrateIndex = 0;
+        hashes = new int[newCap];
+        keys = new Object[newCap];
+        vals = new Object[newCap];
+        threshold = thresholdFor(newCap);
+    }
+
+    /**
+     * Moves up to the given number of old-table slots into the current
+     * table, dropping the old table once it is drained.  Migrated slots
+     * keep their hashes, so that probe sequences through them in the old
+     * table remain intact.
+     */
+    final void migrate(int slots) {
+        int[] ohs = oldHashes; Object[] oks = oldKeys, ovs = oldVals;
+        int n = ohs.length, i = migrateIndex;
+        int end = (slots >= n - i) ? n : i + slots;
+        int[] hs = hashes; Object[] ks = keys, vs = vals;
+        for (; i < end; ++i) {
+            Object k;
+            if (ohs[i] != 0 && (k = oks[i]) != TOMBSTONE) {
+                place(hs, ks, vs, ohs[i], k, ovs[i]);
+                oks[i] = TOMBSTONE;
+                ovs[i] = null;
+            }
+        }
+        if ((migrateIndex = i) == n) {
+            oldHashes = null;
+            oldKeys = oldVals = null;
+            migrateIndex = 0;
+        }
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        Object k = maskNull(key);
+        int h = hash(key), i;
+        if (hashes != null && (i = find(hashes, keys, k, h)) >= 0) {
+            V oldValue = (V)vals[i];
+            shiftKeys(i);
+            ++modCount;
+            --size;
+            return oldValue;
+        }
+        if (oldHashes != null && (i = find(oldHashes, oldKeys, k, h)) >= 0) {
+            V oldValue = (V)oldVals[i];
+            oldKeys[i] = TOMBSTONE;
+            oldVals[i] = null;
+            ++modCount;
+            --size;
+            return oldValue;
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping at the given slot of the current table by
+     * shifting the following keys of its cluster back one slot, until an
+     * empty slot or a key at its home slot is reached.
+     */
+    final void shiftKeys(int pos) {
+        int[] hs = hashes; Object[] ks = keys, vs = vals;
+        int mask = hs.length - 1;
+        for (int next; ; pos = next) {
+            next = (pos + 1) & mask;
+            int sh = hs[next];
+            if (sh == 0 || ((next - sh) & mask) == 0) {
+                hs[pos] = 0;
+                ks[pos] = null;
+                vs[pos] = null;
+                return;
+            }
+            hs[pos] = sh;
+            ks[pos] = ks[next];
+            vs[pos] = vs[next];
+        }
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        modCount++;
+        if (hashes != null && size > 0) {
+            Arrays.fill(hashes, 0);
+            Arrays.fill(keys, null);
+            Arrays.fill(vals, null);
+        }
+        oldHashes = null;
+        oldKeys = oldVals = null;
+        migrateIndex = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(Object value) {
+        return containsValue(hashes, keys, vals, value) ||
+            containsValue(oldHashes, oldKeys, oldVals, value);
+    }
+
+    static boolean containsValue(int[] hs, Object[] ks, Object[] vs,
+                                 Object value) {
+        if (hs != null) {
+            for (int i = 0; i < hs.length; ++i) {
+                Object v;
+                if (hs[i] != 0 && ks[i] != TOMBSTONE &&
+                    ((v = vs[i]) == value || (value != null && value.equals(v))))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (action == null)
+            throw new NullPointerException();
+        int mc = modCount;
+        forEach(oldHashes, oldKeys, oldVals, migrateIndex, action);
+        forEach(hashes, keys, vals, 0, action);
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void forEach(int[] hs, Object[] ks, Object[] vs, int from,
+                         BiConsumer<? super K, ? super V> action) {
+        if (hs != null) {
+            int mc = modCount;
+            for (int i = from; i < hs.length && modCount == mc; ++i) {
+                Object k;
+                if (hs[i] != 0 && (k = ks[i]) != TOMBSTONE)
+                    action.accept(unmaskNull(k), (V)vs[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns a shallow copy of this {@code CompactHashMap} instance: the
+     * keys and values themselves are not cloned.
+     *
+     * @return a shallow copy of this map
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object clone() {
+        CompactHashMap<K,V> result;
+        try {
+            result = (CompactHashMap<K,V>)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        result.entrySet = null;
+        result.modCount = 0;
+        if (hashes != null) {
+            result.hashes = hashes.clone();
+            result.keys = keys.clone();
+            result.vals = vals.clone();
+        }
+        if (oldHashes != null) {
+            result.oldHashes = oldHashes.clone();
+            result.oldKeys = oldKeys.clone();
+            result.oldVals = oldVals.clone();
+        }
+        return result;
+    }
+
+    /* ---------------- Views and iterators -------------- */
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set is backed by the map, so changes to the map are
+     * reflected in the set, and vice-versa.  The entries' {@code setValue}
+     * writes through to the map.  The set supports element removal, but
+     * not {@code add} or {@code addAll}.
+     *
+     * @return a set view of the mappings contained in this map
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        Set<Map.Entry<K,V>> es;
+        return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<K,V>> {
+        public final int size()                 { return size; }
+        public final void clear()               { CompactHashMap.this.clear(); }
+        public final Iterator<Map.Entry<K,V>> iterator() {
+            return new EntryIterator();
+        }
+        public final boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            Object key = e.getKey();
+            return containsKey(key) && Objects.equals(get(key), e.getValue());
+        }
+        public final boolean remove(Object o) {
+            if (contains(o)) {
+                CompactHashMap.this.remove(((Map.Entry<?,?>) o).getKey());
+                return true;
+            }
+            return false;
+        }
+    }
+
+    public Set<K> keySet() {
+        Set<K> ks;
+        return (ks = keySet) == null ? (keySet = new KeySet()) : ks;
+    }
+
+    final class KeySet extends AbstractSet<K> {
+        public final int size()                 { return size; }
+        public final void clear()               { CompactHashMap.this.clear(); }
+        public final Iterator<K> iterator()     { return new KeyIterator(); }
+        public final boolean contains(Object o) { return containsKey(o); }
+        public final boolean remove(Object key) {
+            int mc = modCount;
+            CompactHashMap.this.remove(key);
+            return modCount != mc;
+        }
+        public final void forEach(Consumer<? super K> action) {
+            if (action == null)
+                throw new NullPointerException();
+            CompactHashMap.this.forEach((k, v) -> action.accept(k));
+        }
+    }
+
+    public Collection<V> values() {
+        Collection<V> vs;
+        return (vs = values) == null ? (values = new Values()) : vs;
+    }
+
+    final class Values extends AbstractCollection<V> {
+        public final int size()                 { return size; }
+        public final void clear()               { CompactHashMap.this.clear(); }
+        public final Iterator<V> iterator()     { return new ValueIterator(); }
+        public final boolean contains(Object o) { return containsValue(o); }
+        public final void forEach(Consumer<? super V> action) {
+            if (action == null)
+                throw new NullPointerException();
+            CompactHashMap.this.forEach((k, v) -> action.accept(v));
+        }
+    }
+
+    /**
+     * A map entry handed out by iterators.  Since slots move as keys are
+     * inserted and removed, {@code setValue} locates the key again.
+     */
+    final class Entry extends SimpleEntry<K,V> {
+        private static final long serialVersionUID = 1L;
+        Entry(K key, V value) { super(key, value); }
+        public V setValue(V value) {
+            putVal(getKey(), value, false);
+            return super.setValue(value);
+        }
+    }
+
+    /**
+     * Iterates first over the unmigrated part of the old table, if any,
+     * and then over the current table from its last slot down.  Removal
+     * through the iterator tombstones old-table slots and backward-shifts
+     * current-table slots; a shift that carries a key from the unvisited
+     * start of the table into its visited end records the key so that it
+     * is still returned, as in {@link IntObjectHashMap}.
+     */
+    abstract class HashIterator {
+        final int[] ohs; final Object[] oks, ovs;
+        int oldPos;             // next old slot to examine, counting up
+        int pos;                // next current slot to examine, counting down
+        int last = -1;          // slot of last returned mapping, or -1
+        boolean lastInOld;
+        int remaining;          // mappings still to be returned
+        Object[] wrapped;       // keys moved across the wrap point
+        int wrappedCount;
+        Object lastKey;         // last returned masked key
+        Object lastValue;
+        int expectedModCount;
+
+        HashIterator() {
+            expectedModCount = modCount;
+            remaining = size;
+            ohs = oldHashes;
+            oks = oldKeys;
+            ovs = oldVals;
+            oldPos = migrateIndex;
+            pos = (hashes == null) ? 0 : hashes.length;
+        }
+
+        public final boolean hasNext() {
+            return remaining != 0;
+        }
+
+        final void nextMapping() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            remaining--;
+            if (ohs != null) {
+                while (oldPos < ohs.length) {
+                    int i = oldPos++;
+                    Object k;
+                    if (ohs[i] != 0 && (k = oks[i]) != TOMBSTONE) {
+                        lastInOld = true;
+                        lastKey = k;
+                        lastValue = ovs[i];
+                        last = i;
+                        return;
+                    }
+                }
+            }
+            lastInOld = false;
+            int[] hs = hashes;
+            for (;;) {
+                if (--pos < 0) {
+                    // Table exhausted: hand out keys that wrapped
+                    Object k = wrapped[-pos - 1];
+                    last = Integer.MIN_VALUE;
+                    lastKey = k;
+                    lastValue = vals[find(hashes, keys, k, hash(unmaskNull(k)))];
+                    return;
+                }
+                if (hs[pos] != 0) {
+                    lastKey = keys[pos];
+                    lastValue = vals[pos];
+                    last = pos;
+                    return;
+                }
+            }
+        }
+
+        public final void remove() {
+            if (last == -1)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (lastInOld) {
+                oks[last] = TOMBSTONE;
+                ovs[last] = null;
+                --size;
+                ++modCount;
+            }
+            else if (pos >= 0) {
+                shiftKeysTracked(last);
+                --size;
+                ++modCount;
+            }
+            else
+                CompactHashMap.this.remove(unmaskNull(lastKey));
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Version of shiftKeys that records a key moved from slot 0,
+         * which is not yet visited, into the last slot, which is.
+         */
+        private void shiftKeysTracked(int pos) {
+            int[] hs = hashes; Object[] ks = keys, vs = vals;
+            int mask = hs.length - 1;
+            for (int next; ; pos = next) {
+                next = (pos + 1) & mask;
+                int sh = hs[next];
+                if (sh == 0 || ((next - sh) & mask) == 0) {
+                    hs[pos] = 0;
+                    ks[pos] = null;
+                    vs[pos] = null;
+                    return;
+                }
+                if (next < pos)
+                    addWrapped(ks[next]);
+                hs[pos] = sh;
+                ks[pos] = ks[next];
+                vs[pos] = vs[next];
+            }
+        }
+
+        private void addWrapped(Object k) {
+            if (wrapped == null)
+                wrapped = new Object[2];
+            else if (wrappedCount == wrapped.length)
+                wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+            wrapped[wrappedCount++] = k;
+        }
+    }
+
+    final class KeyIterator extends HashIterator implements Iterator<K> {
+        public final K next() {
+            nextMapping();
+            return unmaskNull(lastKey);
+        }
+    }
+
+    final class ValueIterator extends HashIterator implements Iterator<V> {
+        @SuppressWarnings("unchecked")
+        public final V next() {
+            nextMapping();
+            return (V)lastValue;
+        }
+    }
+
+    final class EntryIterator extends HashIterator
+        implements Iterator<Map.Entry<K,V>> {
+        @SuppressWarnings("unchecked")
+        public final Map.Entry<K,V> next() {
+            nextMapping();
+            return new Entry(unmaskNull(lastKey), (V)lastValue);
+        }
+    }
+
+    /* ---------------- Serialization -------------- */
+
+    /**
+     * Save the state of the {@code CompactHashMap} instance to a stream
+     * (i.e., serialize it).
+     *
+     * @serialData The <i>size</i> of the map (the number of key-value
+     *             mappings) is emitted (int), followed by the key (Object)
+     *             and value (Object) for each key-value mapping.  The
+     *             key-value mappings are emitted in no particular order.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(size);
+        writeMappings(s, oldHashes, oldKeys, oldVals, migrateIndex);
+        writeMappings(s, hashes, keys, vals, 0);
+    }
+
+    private static void writeMappings(java.io.ObjectOutputStream s, int[] hs,
+                                      Object[] ks, Object[] vs, int from)
+        throws IOException {
+        if (hs != null) {
+            for (int i = from; i < hs.length; ++i) {
+                Object k;
+                if (hs[i] != 0 && (k = ks[i]) != TOMBSTONE) {
+                    s.writeObject(unmaskNull(k));
+                    s.writeObject(vs[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the {@code CompactHashMap} instance from a stream (i.e.,
+     * deserialize it).
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(java.io.ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new InvalidObjectException("Illegal load factor: " +
+                                             loadFactor);
+        int mappings = s.readInt();
+        if (mappings < 0)
+            throw new InvalidObjectException("Illegal mappings count: " +
+                                             mappings);
+        threshold = capacityFor(mappings, loadFactor);
+        for (int i = 0; i < mappings; i++) {
+            K key = (K) s.readObject();
+            V value = (V) s.readObject();
+            putVal(key, value, false);
+        }
+    }
+}
@@ -0,0 +1,898 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.Serializable;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Hash table based map from primitive {@code int} keys to object values.
+ * Unlike {@code HashMap<Integer,V>} this class neither boxes its keys nor
+ * allocates a node per mapping: keys and values live in two parallel
+ * arrays that are searched by linear probing, so a mapping costs one
+ * {@code int} slot plus one reference slot.
+ *
+ * <p>The table is sized exactly the way {@link HashMap} sizes its bucket
+ * array (a power of two obtained from {@link HashMap#tableSizeFor}) and the
+ * home slot of a key is chosen by the same spreading function that
+ * {@link HashMap#hash} applies to an {@link Integer} key.  Because probing
+ * is linear, the default load factor is lower than {@code HashMap}'s: .5
+ * keeps expected probe lengths short for both hits and misses.  Removal uses
+ * backward-shift deletion, so no tombstones accumulate.
+ *
+ * <p>Null values are permitted; the key {@code 0} is held outside the
+ * table and may be used like any other key.  {@link #asMap} returns a
+ * {@link Map} view for code that must see a {@code Map<Integer,V>}; the
+ * view boxes keys on access but shares storage with this map.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterators returned by {@link #keyIterator} and by the collection
+ * views of {@link #asMap} are <em>fail-fast</em> in the same sense as
+ * those of {@link HashMap}.
+ *
+ * @param <V> the type of mapped values
+ *
+ * @see     HashMap
+ * @see     LongObjectHashMap
+ * @since   1.8
+ */
+public class IntObjectHashMap<V> implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = 3245089374158362771L;
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    /**
+     * The maximum capacity, same bound as {@link HashMap#MAXIMUM_CAPACITY}.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.  Linear
+     * probing degrades quickly past two thirds full, so this is lower
+     * than {@code HashMap}'s.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    /**
+     * The key table, allocated on first use; length is always a power
+     * of two.  A zero entry marks a free slot.
+     */
+    int[] keys;
+
+    /**
+     * The value table, parallel to {@link #keys}.
+     */
+    Object[] vals;
+
+    /**
+     * Whether the key 0 is present; its value is held in zeroValue.
+     */
+    boolean hasZeroKey;
+
+    V zeroValue;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    int size;
+
+    /**
+     * The largest size the current table may hold before it is doubled.
+     * Before the table is allocated this holds the initial capacity.
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     */
+    final float loadFactor;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * Lazily created {@link Map} view.
+     */
+    transient Map<Integer,V> mapView;
+
+    /**
+     * Spreads the bits of a key the way {@link HashMap#hash} does for an
+     * {@code Integer} key, so that tables of the same capacity see the
+     * same distribution.
+     */
+    static int spread(int key) {
+        return key ^ (key >>> 16);
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Constructs an empty map with the specified initial capacity and
+     * load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor, strictly between 0 and 1
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not strictly between 0 and 1
+     */
+    public IntObjectHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        if (initialCapacity > MAXIMUM_CAPACITY)
+            initialCapacity = MAXIMUM_CAPACITY;
+        this.loadFactor = loadFactor;
+        this.threshold = HashMap.tableSizeFor(initialCapacity);
+    }
+
+    /**
+     * Constructs an empty map able to hold the specified number of
+     * mappings without resizing, with the default load factor (.5).
+     *
+     * @param  expectedSize the expected number of mappings
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public IntObjectHashMap(int expectedSize) {
+        this(capacityFor(expectedSize, DEFAULT_LOAD_FACTOR),
+             DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty map with the default initial capacity (16) and
+     * the default load factor (.5).
+     */
+    public IntObjectHashMap() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        this.threshold = DEFAULT_INITIAL_CAPACITY;
+    }
+
+    /**
+     * Returns the table capacity needed to hold the given number of
+     * mappings below the given load factor.
+     */
+    static int capacityFor(int expectedSize, float loadFactor) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Illegal expected size: " +
+                                               expectedSize);
+        float fc = (float)expectedSize / loadFactor + 1.0f;
+        return (fc < (float)MAXIMUM_CAPACITY) ? (int)fc : MAXIMUM_CAPACITY;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the table slot holding the given non-zero key, or -1.
+     */
+    final int slotOf(int key) {
+        int[] ks; int k;
+        if ((ks = keys) != null) {
+            int mask = ks.length - 1, i = spread(key) & mask;
+            while ((k = ks[i]) != 0) {
+                if (k == key)
+                    return i;
+                i = (i + 1) & mask;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value mapped to the key, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key == 0)
+            return zeroValue;
+        int i = slotOf(key);
+        return (i < 0) ? null : (V)vals[i];
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value mapped to the key, or {@code defaultValue}
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(int key, V defaultValue) {
+        if (key == 0)
+            return hasZeroKey ? zeroValue : defaultValue;
+        int i = slotOf(key);
+        return (i < 0) ? defaultValue : (V)vals[i];
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key the key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the key
+     */
+    public boolean containsKey(int key) {
+        return (key == 0) ? hasZeroKey : slotOf(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This requires a scan of the whole table.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the value
+     */
+    public boolean containsValue(Object value) {
+        if (hasZeroKey && Objects.equals(zeroValue, value))
+            return true;
+        int[] ks; Object[] vs;
+        if ((ks = keys) != null) {
+            vs = vals;
+            for (int i = 0; i < ks.length; ++i) {
+                if (ks[i] != 0 && Objects.equals(vs[i], value))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws IllegalStateException if the map is at maximum capacity
+     */
+    public V put(int key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is
+     * mapped to {@code null}) associates it with the given value and
+     * returns {@code null}, else returns the current value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key, or {@code null}
+     * @throws IllegalStateException if the map is at maximum capacity
+     */
+    public V putIfAbsent(int key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /**
+     * Implements put and putIfAbsent.
+     */
+    @SuppressWarnings("unchecked")
+    final V putVal(int key, V value, boolean onlyIfAbsent) {
+        if (key == 0) {
+            V oldValue = zeroValue;
+            if (!hasZeroKey) {
+                if (size >= MAXIMUM_CAPACITY - 1)
+                    throw new IllegalStateException("Map is full");
+                hasZeroKey = true;
+                ++size;
+                ++modCount;
+            }
+            if (!onlyIfAbsent || oldValue == null)
+                zeroValue = value;
+            return oldValue;
+        }
+        int[] ks; int k;
+        if ((ks = keys) == null)
+            ks = resize();
+        int mask = ks.length - 1, i = spread(key) & mask;
+        while ((k = ks[i]) != 0) {
+            if (k == key) {
+                V oldValue = (V)vals[i];
+                if (!onlyIfAbsent || oldValue == null)
+                    vals[i] = value;
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+        insertAt(ks, i, key, value);
+        return null;
+    }
+
+    /**
+     * Stores a key known to be absent into free slot i of table ks,
+     * first growing the table if the map is at its threshold.
+     */
+    private void insertAt(int[] ks, int i, int key, Object value) {
+        if (size >= threshold) {
+            int mask = (ks = resize()).length - 1;
+            i = spread(key) & mask;
+            while (ks[i] != 0)
+                i = (i + 1) & mask;
+        }
+        ks[i] = key;
+        vals[i] = value;
+        ++size;
+        ++modCount;
+    }
+
+    /**
+     * If the specified key is not already associated with a non-null
+     * value, attempts to compute its value using the given mapping
+     * function and enters it into this map unless {@code null}.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int key,
+                             IntFunction<? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        V v;
+        if (key == 0) {
+            if ((v = zeroValue) == null) {
+                int mc = modCount;
+                v = mappingFunction.apply(key);
+                if (mc != modCount)
+                    throw new ConcurrentModificationException();
+                if (v != null)
+                    putVal(0, v, false);
+            }
+            return v;
+        }
+        int[] ks; int k;
+        if ((ks = keys) == null)
+            ks = resize();
+        int mask = ks.length - 1, i = spread(key) & mask;
+        while ((k = ks[i]) != 0) {
+            if (k == key) {
+                if ((v = (V)vals[i]) == null) {
+                    int mc = modCount;
+                    v = mappingFunction.apply(key);
+                    if (mc != modCount)
+                        throw new ConcurrentModificationException();
+                    vals[i] = v;
+                }
+                return v;
+            }
+            i = (i + 1) & mask;
+        }
+        int mc = modCount;
+        v = mappingFunction.apply(key);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        if (v != null)
+            insertAt(ks, i, key, v);
+        return v;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key == 0) {
+            V oldValue = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = null;
+                --size;
+                ++modCount;
+            }
+            return oldValue;
+        }
+        int i = slotOf(key);
+        if (i < 0)
+            return null;
+        V oldValue = (V)vals[i];
+        removeAt(i);
+        return oldValue;
+    }
+
+    /**
+     * Removes the mapping in slot i.
+     */
+    final void removeAt(int i) {
+        shiftKeys(i);
+        --size;
+        ++modCount;
+    }
+
+    /**
+     * Backward-shift deletion: empties slot pos, then moves each
+     * following member of the probe run into the hole if doing so does
+     * not carry it before its home slot.
+     */
+    private void shiftKeys(int pos) {
+        int[] ks = keys; Object[] vs = vals;
+        int mask = ks.length - 1, last, slot, k;
+        for (;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = ks[pos]) == 0) {
+                    ks[last] = 0;
+                    vs[last] = null;
+                    return;
+                }
+                slot = spread(k) & mask;
+                if (last <= pos ? (last >= slot || slot > pos)
+                                : (last >= slot && slot > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+            vs[last] = vs[pos];
+        }
+    }
+
+    /**
+     * Removes all of the mappings from this map.  The table keeps its
+     * capacity.
+     */
+    public void clear() {
+        int[] ks;
+        ++modCount;
+        if ((ks = keys) != null && size > 0) {
+            Arrays.fill(ks, 0);
+            Arrays.fill(vals, null);
+        }
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    /**
+     * Initializes or doubles the table.
+     *
+     * @return the table
+     */
+    final int[] resize() {
+        int[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int oldCap = (oldKeys == null) ? 0 : oldKeys.length;
+        int newCap;
+        if (oldCap > 0) {
+            if (oldCap >= MAXIMUM_CAPACITY)
+                throw new IllegalStateException("Map is full");
+            newCap = oldCap << 1;
+        }
+        else if (threshold > 0)          // initial capacity was placed in threshold
+            newCap = threshold;
+        else
+            newCap = 1;
+        threshold = (newCap < MAXIMUM_CAPACITY) ?
+            (int)(newCap * loadFactor) : MAXIMUM_CAPACITY - 1;
+        int[] ks = new int[newCap];
+        Object[] vs = new Object[newCap];
+        if (oldKeys != null) {
+            int mask = newCap - 1;
+            for (int j = 0; j < oldCap; ++j) {
+                int k;
+                if ((k = oldKeys[j]) != 0) {
+                    int i = spread(k) & mask;
+                    while (ks[i] != 0)
+                        i = (i + 1) & mask;
+                    ks[i] = k;
+                    vs[i] = oldVals[j];
+                }
+            }
+        }
+        keys = ks;
+        vals = vs;
+        return ks;
+    }
+
+    /**
+     * Performs the given action on each key of this map.
+     *
+     * @param action The action to be performed for each key
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if the map is modified
+     *         while the keys are being visited
+     */
+    public void forEachKey(IntConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        int mc = modCount;
+        if (hasZeroKey)
+            action.accept(0);
+        int[] ks;
+        if ((ks = keys) != null && size > 0) {
+            for (int i = 0; i < ks.length && modCount == mc; ++i) {
+                int k;
+                if ((k = ks[i]) != 0)
+                    action.accept(k);
+            }
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an iterator over the keys of this map.  The iterator
+     * supports removal.
+     *
+     * @return an iterator over the keys of this map
+     */
+    public PrimitiveIterator.OfInt keyIterator() {
+        return new KeyIterator();
+    }
+
+    /**
+     * Returns a {@link Map} view of this map.  Keys are boxed on the way
+     * in and out; all operations write through to this map.
+     *
+     * @return a {@code Map} view of this map
+     */
+    public Map<Integer,V> asMap() {
+        Map<Integer,V> m;
+        return (m = mapView) == null ? (mapView = new MapView()) : m;
+    }
+
+    /**
+     * Returns a shallow copy of this map: the keys and values themselves
+     * are not cloned.
+     *
+     * @return a shallow copy of this map
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public IntObjectHashMap<V> clone() {
+        IntObjectHashMap<V> result;
+        try {
+            result = (IntObjectHashMap<V>)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        if (keys != null) {
+            result.keys = keys.clone();
+            result.vals = vals.clone();
+        }
+        result.modCount = 0;
+        result.mapView = null;
+        return result;
+    }
+
+    /**
+     * Compares the specified object with this map for equality.  Returns
+     * {@code true} if the given object is also an {@code IntObjectHashMap}
+     * holding the same mappings.
+     *
+     * @param o object to be compared for equality with this map
+     * @return {@code true} if the specified object is equal to this map
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof IntObjectHashMap))
+            return false;
+        IntObjectHashMap<?> m = (IntObjectHashMap<?>)o;
+        if (m.size != size)
+            return false;
+        if (hasZeroKey &&
+            (!m.hasZeroKey || !Objects.equals(zeroValue, m.zeroValue)))
+            return false;
+        int[] ks;
+        if ((ks = keys) != null) {
+            for (int i = 0; i < ks.length; ++i) {
+                int k, j;
+                if ((k = ks[i]) != 0 &&
+                    ((j = m.slotOf(k)) < 0 ||
+                     !Objects.equals(vals[i], m.vals[j])))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this map, defined as for
+     * {@link Map#hashCode} so that it equals the hash code of
+     * {@link #asMap}.
+     *
+     * @return the hash code value for this map
+     */
+    @Override
+    public int hashCode() {
+        int h = hasZeroKey ? Objects.hashCode(zeroValue) : 0;
+        int[] ks;
+        if ((ks = keys) != null) {
+            for (int i = 0; i < ks.length; ++i) {
+                int k;
+                if ((k = ks[i]) != 0)
+                    h += k ^ Objects.hashCode(vals[i]);
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this map in the same format as
+     * {@link AbstractMap#toString}.
+     *
+     * @return a string representation of this map
+     */
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    /* ------------------------------------------------------------ */
+    // iterators
+
+    /**
+     * Base iterator.  Slots are visited from the end of the table towards
+     * the start, after the zero key.  Removing through the iterator shifts
+     * later members of a probe run backwards; since those have already
+     * been visited this is harmless, except for runs that wrap past the
+     * end of the table, whose moved keys are remembered in {@code wrapped}
+     * and returned once the table has been exhausted.
+     */
+    abstract class HashIterator {
+        int pos;                // next slot to examine, counting down
+        int last = -1;          // slot of last returned key, -2 for zero key
+        int remaining;          // keys still to be returned
+        boolean mustReturnZero;
+        int[] wrapped;          // keys moved across the wrap point
+        int wrappedCount;
+        int lastKey;            // last returned key
+        int expectedModCount;
+
+        HashIterator() {
+            expectedModCount = modCount;
+            pos = (keys == null) ? 0 : keys.length;
+            remaining = size;
+            mustReturnZero = hasZeroKey;
+        }
+
+        public final boolean hasNext() {
+            return remaining != 0;
+        }
+
+        /**
+         * Advances and returns the slot of the next key, or -2 for the
+         * zero key.
+         */
+        final int nextSlot() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            remaining--;
+            if (mustReturnZero) {
+                mustReturnZero = false;
+                lastKey = 0;
+                return last = -2;
+            }
+            int[] ks = keys;
+            for (;;) {
+                if (--pos < 0) {
+                    // Table exhausted: hand out keys that wrapped
+                    int k = wrapped[-pos - 1];
+                    last = Integer.MIN_VALUE;
+                    lastKey = k;
+                    return slotOf(k);
+                }
+                int k;
+                if ((k = ks[pos]) != 0) {
+                    lastKey = k;
+                    return last = pos;
+                }
+            }
+        }
+
+        public final void remove() {
+            if (last == -1)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (last == -2)
+                IntObjectHashMap.this.remove(0);
+            else if (pos >= 0) {
+                shiftKeysTracked(last);
+                --size;
+                ++modCount;
+            }
+            else
+                IntObjectHashMap.this.remove(lastKey);
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Version of shiftKeys that records keys moved from the
+         * unvisited start of the table into the visited end.
+         */
+        private void shiftKeysTracked(int pos) {
+            int[] ks = keys; Object[] vs = vals;
+            int mask = ks.length - 1, last, slot, k;
+            for (;;) {
+                pos = ((last = pos) + 1) & mask;
+                for (;;) {
+                    if ((k = ks[pos]) == 0) {
+                        ks[last] = 0;
+                        vs[last] = null;
+                        return;
+                    }
+                    slot = spread(k) & mask;
+                    if (last <= pos ? (last >= slot || slot > pos)
+                                    : (last >= slot && slot > pos))
+                        break;
+                    pos = (pos + 1) & mask;
+                }
+                if (pos < last) {
+                    if (wrapped == null)
+                        wrapped = new int[2];
+                    else if (wrappedCount == wrapped.length)
+                        wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+                    wrapped[wrappedCount++] = k;
+                }
+                ks[last] = k;
+                vs[last] = vs[pos];
+            }
+        }
+    }
+
+    final class KeyIterator extends HashIterator
+        implements PrimitiveIterator.OfInt {
+        public int nextInt() { nextSlot(); return lastKey; }
+    }
+
+    final class EntryIterator extends HashIterator
+        implements Iterator<Map.Entry<Integer,V>> {
+        public Map.Entry<Integer,V> next() {
+            nextSlot();
+            return new MapEntry(lastKey);
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // Map view
+
+    /**
+     * Entry of the map view; reads and writes go through to the map.
+     */
+    final class MapEntry implements Map.Entry<Integer,V> {
+        final int key;
+        MapEntry(int key) { this.key = key; }
+        public Integer getKey() { return key; }
+        public V getValue() { return get(key); }
+        public V setValue(V value) { return put(key, value); }
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            return Integer.valueOf(key).equals(e.getKey()) &&
+                Objects.equals(getValue(), e.getValue());
+        }
+        public int hashCode() { return key ^ Objects.hashCode(getValue()); }
+        public String toString() { return key + "=" + getValue(); }
+    }
+
+    final class MapView extends AbstractMap<Integer,V> {
+        transient Set<Map.Entry<Integer,V>> entrySet;
+
+        public int size()                 { return size; }
+        public void clear()               { IntObjectHashMap.this.clear(); }
+        public boolean containsValue(Object value) {
+            return IntObjectHashMap.this.containsValue(value);
+        }
+        public boolean containsKey(Object key) {
+            return (key instanceof Integer) &&
+                IntObjectHashMap.this.containsKey((Integer)key);
+        }
+        public V get(Object key) {
+            return (key instanceof Integer) ?
+                IntObjectHashMap.this.get((Integer)key) : null;
+        }
+        public V getOrDefault(Object key, V defaultValue) {
+            return (key instanceof Integer) ?
+                IntObjectHashMap.this.getOrDefault((Integer)key, defaultValue) :
+                defaultValue;
+        }
+        public V put(Integer key, V value) {
+            return IntObjectHashMap.this.put(key, value);
+        }
+        public V putIfAbsent(Integer key, V value) {
+            return IntObjectHashMap.this.putIfAbsent(key, value);
+        }
+        public V remove(Object key) {
+            return (key instanceof Integer) ?
+                IntObjectHashMap.this.remove((Integer)key) : null;
+        }
+        public Set<Map.Entry<Integer,V>> entrySet() {
+            Set<Map.Entry<Integer,V>> es;
+            return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+        }
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<Integer,V>> {
+        public int size()                 { return size; }
+        public void clear()               { IntObjectHashMap.this.clear(); }
+        public Iterator<Map.Entry<Integer,V>> iterator() {
+            return new EntryIterator();
+        }
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Object key = e.getKey();
+            if (!(key instanceof Integer))
+                return false;
+            int k = (Integer)key;
+            return containsKey(k) && Objects.equals(get(k), e.getValue());
+        }
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                IntObjectHashMap.this.remove((Integer)((Map.Entry<?,?>)o).getKey());
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,658 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Resizable-array double-ended queue of primitive {@code long} values: the
+ * unboxed counterpart of {@code ArrayDeque<Long>}.  Elements may be added
+ * and removed at either end in amortized constant time, and accessed by
+ * index in constant time.
+ *
+ * <p>A small deque is a single circular array that doubles as needed,
+ * exactly as in {@link ArrayDeque}.  Once that array reaches 1024 elements
+ * the deque switches to a <em>block map</em>: a circular array of
+ * references to fixed-length blocks of elements.  Growing then doubles
+ * only the map and allocates new blocks; existing blocks are kept in
+ * place, so apart from at most one partial block no elements are copied,
+ * and no allocation is larger than a block or the map itself.
+ *
+ * <p>{@link #addAll(long[])} and {@link #toArray} copy block segments
+ * with {@link System#arraycopy}.  The {@link #spliterator} is a
+ * {@link Spliterator.OfLong} that splits by index.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * Its iterators and spliterators are <em>fail-fast</em>.
+ *
+ * @see     ArrayDeque
+ * @see     LongArrayList
+ * @since   1.8
+ */
+public class LongArrayDeque implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = 6141269311658130954L;
+
+    /*
+     * Element i lives at ring position p = (head + i) & (capacity - 1),
+     * in block map[p >>> shift] at offset p & ((1 << shift) - 1).  While
+     * the map has length one, its only block doubles in the manner of
+     * ArrayDeque.doubleCapacity.  Once the block has BLOCK_SHIFT bits,
+     * the map itself doubles instead: the blocks are re-laid in head
+     * order starting at map index zero, which leaves the ring positions
+     * from head onwards unchanged, and the elements that had wrapped to
+     * the front of the head block are copied into the first block past
+     * the old capacity.
+     */
+
+    /** log2 of the initial (small mode) array length */
+    static final int MIN_SHIFT = 4;
+
+    /** log2 of the length of a block once the deque uses a block map */
+    static final int BLOCK_SHIFT = 10;
+
+    /** The maximum number of elements */
+    static final int MAX_SIZE = 1 << 30;
+
+    /** The blocks; the length is a power of two. */
+    transient long[][] map;
+
+    /** log2 of the block length */
+    transient int shift;
+
+    /** The ring position of the first element */
+    transient int head;
+
+    /** The number of elements */
+    transient int size;
+
+    /** The number of times this deque has been structurally modified */
+    transient int modCount;
+
+    /**
+     * Constructs an empty deque.
+     */
+    public LongArrayDeque() {
+        map = new long[1][1 << MIN_SHIFT];
+        shift = MIN_SHIFT;
+    }
+
+    /**
+     * Constructs an empty deque with capacity for at least the specified
+     * number of elements.
+     *
+     * @param numElements lower bound on initial capacity of the deque
+     */
+    public LongArrayDeque(int numElements) {
+        this();
+        ensureCapacity(numElements);
+    }
+
+    /**
+     * Constructs a deque containing the given elements, first element
+     * first.
+     *
+     * @param elements the elements to place in the deque
+     * @throws NullPointerException if the specified array is null
+     */
+    public LongArrayDeque(long[] elements) {
+        this(elements.length);
+        addAll(elements);
+    }
+
+    /** Returns the number of ring positions. */
+    private int capacity() {
+        return map.length << shift;
+    }
+
+    /**
+     * Doubles the capacity of this deque, keeping each element at its
+     * index.
+     */
+    private void doubleCapacity() {
+        long[][] m = map;
+        int cap = m.length << shift;
+        if (cap >= MAX_SIZE)
+            throw new IllegalStateException("Sorry, deque too big");
+        if (m.length == 1 && shift < BLOCK_SHIFT) {
+            long[] a = m[0], b = new long[cap << 1];
+            int p = head, r = cap - p;
+            System.arraycopy(a, p, b, 0, r);
+            System.arraycopy(a, 0, b, r, p);
+            m[0] = b;
+            shift++;
+            head = 0;
+            return;
+        }
+        int n = m.length, blen = 1 << shift;
+        int hb = head >>> shift, ho = head & (blen - 1);
+        long[][] nm = new long[n << 1][];
+        for (int j = 0; j < n; ++j)
+            nm[j] = m[(hb + j) & (n - 1)];
+        long[] wrapped = new long[blen];
+        if (ho != 0)
+            System.arraycopy(nm[0], 0, wrapped, 0, ho);
+        nm[n] = wrapped;
+        for (int j = n + 1; j < nm.length; ++j)
+            nm[j] = new long[blen];
+        map = nm;
+        head = ho;
+    }
+
+    /**
+     * Increases the capacity of this deque, if necessary, to hold at
+     * least the specified number of elements.
+     *
+     * @param minCapacity the desired minimum capacity
+     * @throws IllegalStateException if minCapacity is too large
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > MAX_SIZE)
+            throw new IllegalStateException("Sorry, deque too big");
+        while (capacity() < minCapacity)
+            doubleCapacity();
+    }
+
+    /** Returns the element at ring position p. */
+    private long load(int p) {
+        return map[p >>> shift][p & ((1 << shift) - 1)];
+    }
+
+    /** Stores e at ring position p. */
+    private void store(int p, long e) {
+        map[p >>> shift][p & ((1 << shift) - 1)] = e;
+    }
+
+    /** Returns the ring position of the element at index i. */
+    private int position(int i) {
+        return (head + i) & (capacity() - 1);
+    }
+
+    // The main insertion and extraction methods are addFirst,
+    // addLast, removeFirst, removeLast.  All other methods are defined
+    // in terms of these.
+
+    /**
+     * Inserts the specified element at the front of this deque.
+     *
+     * @param e the element to add
+     */
+    public void addFirst(long e) {
+        if (size == capacity())
+            doubleCapacity();
+        modCount++;
+        int p = head = (head - 1) & (capacity() - 1);
+        store(p, e);
+        size++;
+    }
+
+    /**
+     * Inserts the specified element at the end of this deque.
+     *
+     * @param e the element to add
+     */
+    public void addLast(long e) {
+        if (size == capacity())
+            doubleCapacity();
+        modCount++;
+        store(position(size), e);
+        size++;
+    }
+
+    /**
+     * Inserts the specified element at the front of this deque.
+     *
+     * @param e the element to add
+     * @return {@code true} (as specified by {@link Deque#offerFirst})
+     */
+    public boolean offerFirst(long e) {
+        addFirst(e);
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the end of this deque.
+     *
+     * @param e the element to add
+     * @return {@code true} (as specified by {@link Deque#offerLast})
+     */
+    public boolean offerLast(long e) {
+        addLast(e);
+        return true;
+    }
+
+    /**
+     * Removes and returns the first element of this deque.
+     *
+     * @return the head of this deque
+     * @throws NoSuchElementException if this deque is empty
+     */
+    public long removeFirst() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        modCount++;
+        int p = head;
+        head = (p + 1) & (capacity() - 1);
+        size--;
+        return load(p);
+    }
+
+    /**
+     * Removes and returns the last element of this deque.
+     *
+     * @return the tail of this deque
+     * @throws NoSuchElementException if this deque is empty
+     */
+    public long removeLast() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        modCount++;
+        return load(position(--size));
+    }
+
+    /**
+     * Retrieves, but does not remove, the first element of this deque.
+     *
+     * @return the head of this deque
+     * @throws NoSuchElementException if this deque is empty
+     */
+    public long getFirst() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return load(head);
+    }
+
+    /**
+     * Retrieves, but does not remove, the last element of this deque.
+     *
+     * @return the tail of this deque
+     * @throws NoSuchElementException if this deque is empty
+     */
+    public long getLast() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return load(position(size - 1));
+    }
+
+    /**
+     * Returns the element at the specified index, counting from the head
+     * of this deque.
+     *
+     * @param index the index of the element to return
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+        return load(position(index));
+    }
+
+    /**
+     * Replaces the element at the specified index, counting from the head
+     * of this deque.
+     *
+     * @param index the index of the element to replace
+     * @param e the element to be stored
+     * @return the element previously at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long set(int index, long e) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+        int p = position(index);
+        long old = load(p);
+        store(p, e);
+        return old;
+    }
+
+    /**
+     * Returns the number of elements in this deque.
+     *
+     * @return the number of elements in this deque
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this deque contains no elements.
+     *
+     * @return {@code true} if this deque contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this deque contains the specified element.
+     *
+     * @param o element whose presence in this deque is to be tested
+     * @return {@code true} if this deque contains the specified element
+     */
+    public boolean contains(long o) {
+        for (int i = 0, p = head, mask = capacity() - 1; i < size;
+             ++i, p = (p + 1) & mask) {
+            if (load(p) == o)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes all of the elements from this deque.  Capacity is retained.
+     */
+    public void clear() {
+        modCount++;
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Copies len elements between an array and this deque, starting at
+     * index i, in segments that each lie within a single block.
+     */
+    private void copy(int i, long[] a, int off, int len, boolean toDeque) {
+        int blen = 1 << shift, mask = capacity() - 1;
+        for (int p = position(i); len > 0; ) {
+            int o = p & (blen - 1), n = Math.min(blen - o, len);
+            long[] b = map[p >>> shift];
+            if (toDeque)
+                System.arraycopy(a, off, b, o, n);
+            else
+                System.arraycopy(b, o, a, off, n);
+            off += n;
+            len -= n;
+            p = (p + n) & mask;
+        }
+    }
+
+    /**
+     * Appends all of the elements in the specified array to the end of
+     * this deque, in order.
+     *
+     * @param elements the elements to be added
+     * @return {@code true} if this deque changed as a result of the call
+     * @throws NullPointerException if the specified array is null
+     */
+    public boolean addAll(long[] elements) {
+        int len = elements.length, s = size;
+        ensureCapacity(s + len);
+        modCount++;
+        copy(s, elements, 0, len, true);
+        size = s + len;
+        return len != 0;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this deque in
+     * proper sequence (from first to last element).
+     *
+     * @return an array containing all of the elements in this deque
+     */
+    public long[] toArray() {
+        long[] a = new long[size];
+        copy(0, a, 0, size, false);
+        return a;
+    }
+
+    /**
+     * Performs the given action for each element of this deque, from
+     * first to last.
+     *
+     * @param action the action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if the deque is
+     *         structurally modified by the action
+     */
+    public void forEach(LongConsumer action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        forEachInRange(0, size, action);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    final void forEachInRange(int from, int to, LongConsumer action) {
+        int blen = 1 << shift, mask = capacity() - 1;
+        long[][] m = map;
+        for (int p = position(from), left = to - from; left > 0; ) {
+            int o = p & (blen - 1), n = Math.min(blen - o, left);
+            long[] b = m[p >>> shift];
+            for (int j = o, end = o + n; j < end; ++j)
+                action.accept(b[j]);
+            left -= n;
+            p = (p + n) & mask;
+        }
+    }
+
+    /**
+     * Returns an iterator over the elements in this deque, from first
+     * (head) to last (tail).
+     *
+     * @return an iterator over the elements in this deque
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new DeqIterator(false);
+    }
+
+    /**
+     * Returns an iterator over the elements in this deque in reverse
+     * sequential order, from last (tail) to first (head).
+     *
+     * @return an iterator over the elements in this deque in reverse order
+     */
+    public PrimitiveIterator.OfLong descendingIterator() {
+        return new DeqIterator(true);
+    }
+
+    final class DeqIterator implements PrimitiveIterator.OfLong {
+        final boolean descending;
+        int remaining = size;
+        int cursor;
+        int expectedModCount = modCount;
+
+        DeqIterator(boolean descending) {
+            this.descending = descending;
+            this.cursor = descending ? size - 1 : 0;
+        }
+
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        public long nextLong() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining <= 0)
+                throw new NoSuchElementException();
+            int i = cursor;
+            cursor = descending ? i - 1 : i + 1;
+            remaining--;
+            return load(position(i));
+        }
+    }
+
+    /**
+     * Creates a <em><a href="Spliterator.html#binding">late-binding</a></em>
+     * and <em>fail-fast</em> {@link Spliterator.OfLong} over the elements
+     * in this deque.
+     *
+     * <p>The {@code Spliterator} reports {@link Spliterator#SIZED},
+     * {@link Spliterator#SUBSIZED}, and {@link Spliterator#ORDERED}.
+     *
+     * @return a {@code Spliterator} over the elements in this deque
+     */
+    public Spliterator.OfLong spliterator() {
+        return new DeqSpliterator(this, 0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential {@code LongStream} with this deque as its
+     * source.
+     *
+     * @return a sequential {@code LongStream} over the elements in this
+     *         deque
+     */
+    public LongStream stream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    static final class DeqSpliterator implements Spliterator.OfLong {
+        private final LongArrayDeque deq;
+        private int index; // current index, modified on advance/split
+        private int fence; // -1 until first use
+        private int expectedModCount;
+
+        DeqSpliterator(LongArrayDeque deq, int origin, int fence,
+                       int expectedModCount) {
+            this.deq = deq;
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() { // force initialization
+            int hi;
+            if ((hi = fence) < 0) {
+                expectedModCount = deq.modCount;
+                hi = fence = deq.size;
+            }
+            return hi;
+        }
+
+        public DeqSpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new DeqSpliterator(deq, lo, index = mid, expectedModCount);
+        }
+
+        public boolean tryAdvance(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i = index;
+            if (i < hi) {
+                index = i + 1;
+                long e = deq.load(deq.position(i));
+                action.accept(e);
+                if (deq.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i = index;
+            index = hi;
+            if (i < hi)
+                deq.forEachInRange(i, hi, action);
+            if (deq.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return (long) (getFence() - index);
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * Returns a copy of this deque.
+     *
+     * @return a copy of this deque
+     */
+    public LongArrayDeque clone() {
+        LongArrayDeque d = new LongArrayDeque(size);
+        long[] buf = new long[Math.min(size, 8192)];
+        for (int i = 0; i < size; i += buf.length) {
+            int n = Math.min(buf.length, size - i);
+            copy(i, buf, 0, n, false);
+            d.copy(i, buf, 0, n, true);
+        }
+        d.size = size;
+        return d;
+    }
+
+    /**
+     * Returns a string representation of this deque, from first to last
+     * element, in the format of {@link AbstractCollection#toString}.
+     *
+     * @return a string representation of this deque
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach(e -> {
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(e);
+        });
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Saves this deque to a stream (that is, serializes it).
+     *
+     * @serialData The current size ({@code int}) of the deque,
+     * followed by all of its elements (each a {@code long}) in
+     * first-to-last order.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+            throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(size);
+        for (int i = 0, p = head, mask = capacity() - 1; i < size;
+             ++i, p = (p + 1) & mask)
+            s.writeLong(load(p));
+    }
+
+    /**
+     * Reconstitutes this deque from a stream (that is, deserializes it).
+     */
+    private void readObject(java.io.ObjectInputStream s)
+            throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        int n = s.readInt();
+        if (n < 0 || n > MAX_SIZE)
+            throw new InvalidObjectException("Illegal size: " + n);
+        map = new long[1][1 << MIN_SHIFT];
+        shift = MIN_SHIFT;
+        ensureCapacity(n);
+        for (int i = 0; i < n; ++i)
+            store(i, s.readLong());
+        size = n;
+    }
+}
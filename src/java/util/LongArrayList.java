@@ -0,0 +1,989 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Resizable list of primitive {@code long} values.  This is the unboxed
+ * counterpart of {@code ArrayList<Long>}: an element costs eight bytes
+ * rather than a reference to a {@code Long}.
+ *
+ * <p>Unlike {@link ArrayList}, which copies its whole element array into
+ * one half again as large whenever it fills, this list stores its elements
+ * in a sequence of <em>chunks</em> and grows by appending a chunk.
+ * Chunks double in length, starting at 16 elements, until they reach
+ * 2<sup>20</sup> elements (8MB); further chunks all have that length.
+ * Growing therefore never copies elements, the memory wasted on unused
+ * capacity is bounded by the length of the last chunk, and no single
+ * allocation exceeds 8MB however large the list becomes.  Locating an
+ * element takes a leading-zero count and two array loads.
+ *
+ * <p>Bulk operations such as {@link #addAll(long[])}, {@link #toArray} and
+ * {@link #getElements} copy whole chunk segments with
+ * {@link System#arraycopy}.  The {@link #spliterator} is a
+ * {@link Spliterator.OfLong} that splits by index, so {@code
+ * list.stream().parallel()} partitions the list without boxing.
+ *
+ * <p>A list created by {@link #newOffHeap} keeps its chunks outside the
+ * Java heap, in direct memory allocated as by
+ * {@link ByteBuffer#allocateDirect} (and so limited by
+ * {@code -XX:MaxDirectMemorySize}).  Such a list adds nothing to the
+ * heap that the garbage collector must scan or copy beyond a table of
+ * chunk addresses, which suits lists of several gigabytes.  Its memory is
+ * released only after the garbage collector finds it unreachable:
+ * {@link #trimToSize} gives up the chunks a shrunken list no longer
+ * needs, but their memory is returned when the collector next notices
+ * them, not by the call itself.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterators and spliterators returned by this class and by
+ * {@link #asList} are <em>fail-fast</em> in the same sense as those of
+ * {@link ArrayList}.
+ *
+ * @see     ArrayList
+ * @see     IntArrayList
+ * @since   1.8
+ */
+public class LongArrayList implements RandomAccess, Cloneable, Serializable {
+
+    private static final long serialVersionUID = -4419608145287390567L;
+
+    /*
+     * Element i lives at position p = i + MIN_CHUNK in a position space
+     * in which chunk c (c <= DOUBLINGS) covers [MIN_CHUNK << c,
+     * MIN_CHUNK << (c + 1)), and the fixed-length chunks that follow
+     * cover successive runs of MAX_CHUNK positions.  The chunk of a
+     * position is thus given by its highest one bit while chunks double,
+     * and by a shift afterwards; its offset is p masked by the chunk
+     * length in both cases.
+     */
+
+    /** log2 of the length of the first chunk */
+    static final int MIN_CHUNK_SHIFT = 4;
+
+    /** log2 of the length of the largest chunks */
+    static final int MAX_CHUNK_SHIFT = 20;
+
+    static final int MIN_CHUNK = 1 << MIN_CHUNK_SHIFT;
+
+    static final int MAX_CHUNK = 1 << MAX_CHUNK_SHIFT;
+
+    /** Index of the first chunk of length MAX_CHUNK */
+    static final int DOUBLINGS = MAX_CHUNK_SHIFT - MIN_CHUNK_SHIFT;
+
+    /** The maximum number of elements */
+    static final int MAX_SIZE = Integer.MAX_VALUE - MIN_CHUNK;
+
+    /** Shift converting an element count to a byte count */
+    static final int ELEMENT_SHIFT = 3;
+
+    /**
+     * The heap chunks, or null for an off-heap list.  Slots at and
+     * beyond chunkCount are null.
+     */
+    transient long[][] chunks;
+
+    /** The base addresses of the off-heap chunks, or null */
+    transient long[] addresses;
+
+    /** The direct buffers owning the off-heap chunks, or null */
+    transient ByteBuffer[] buffers;
+
+    /** The number of allocated chunks */
+    transient int chunkCount;
+
+    /** The number of elements in this list */
+    int size;
+
+    /**
+     * Whether the chunks are kept off-heap.
+     *
+     * @serial
+     */
+    final boolean offHeap;
+
+    /**
+     * The number of times this list has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     *
+     * @param  initialCapacity  the initial capacity of the list
+     * @throws IllegalArgumentException if the specified initial capacity
+     *         is negative
+     */
+    public LongArrayList(int initialCapacity) {
+        this(initialCapacity, false);
+    }
+
+    /**
+     * Constructs an empty list.  No storage is allocated until the first
+     * element is added.
+     */
+    public LongArrayList() {
+        this(0, false);
+    }
+
+    /**
+     * Constructs a list containing the given elements.
+     *
+     * @param elements the elements to place in this list
+     * @throws NullPointerException if the specified array is null
+     */
+    public LongArrayList(long[] elements) {
+        this(elements.length, false);
+        addAll(elements);
+    }
+
+    LongArrayList(int initialCapacity, boolean offHeap) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal Capacity: "+
+                                               initialCapacity);
+        this.offHeap = offHeap;
+        if (offHeap) {
+            addresses = new long[4];
+            buffers = new ByteBuffer[4];
+        }
+        else
+            chunks = new long[4][];
+        ensureCapacity(initialCapacity);
+    }
+
+    /**
+     * Creates an empty list whose elements are stored in direct memory
+     * rather than on the Java heap.
+     *
+     * @param initialCapacity the initial capacity of the list
+     * @return a new off-heap list
+     * @throws IllegalArgumentException if the specified initial capacity
+     *         is negative
+     * @throws OutOfMemoryError if direct memory is exhausted
+     */
+    public static LongArrayList newOffHeap(int initialCapacity) {
+        return new LongArrayList(initialCapacity, true);
+    }
+
+    /**
+     * Returns {@code true} if the elements of this list are stored off
+     * the Java heap.
+     *
+     * @return {@code true} if this list is off-heap
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /* ---------------- Chunk arithmetic -------------- */
+
+    /** Returns the chunk holding position p. */
+    static int chunkOf(int p) {
+        int hb = 31 - Integer.numberOfLeadingZeros(p);
+        return (hb <= MAX_CHUNK_SHIFT) ? hb - MIN_CHUNK_SHIFT :
+            (p >>> MAX_CHUNK_SHIFT) + (DOUBLINGS - 1);
+    }
+
+    /** Returns the length of chunk c. */
+    static int chunkLength(int c) {
+        return MIN_CHUNK << Math.min(c, DOUBLINGS);
+    }
+
+    /** Returns the number of elements held by the first n chunks. */
+    static long capacityOf(int n) {
+        long start = (n <= DOUBLINGS + 1) ? (long)MIN_CHUNK << n :
+            (long)(n - (DOUBLINGS - 1)) << MAX_CHUNK_SHIFT;
+        return start - MIN_CHUNK;
+    }
+
+    /**
+     * Increases the capacity of this list, if necessary, to hold at least
+     * the number of elements specified by the minimum capacity argument.
+     * Existing elements are never moved.
+     *
+     * @param   minCapacity   the desired minimum capacity
+     * @throws OutOfMemoryError if minCapacity exceeds the maximum size
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > MAX_SIZE)
+            throw new OutOfMemoryError();
+        while (capacityOf(chunkCount) < minCapacity)
+            addChunk();
+    }
+
+    private void addChunk() {
+        int c = chunkCount, len = chunkLength(c);
+        if (chunks != null) {
+            if (c == chunks.length)
+                chunks = Arrays.copyOf(chunks, c << 1);
+            chunks[c] = new long[len];
+        }
+        else {
+            if (c == addresses.length) {
+                addresses = Arrays.copyOf(addresses, c << 1);
+                buffers = Arrays.copyOf(buffers, c << 1);
+            }
+            ByteBuffer b = ByteBuffer.allocateDirect(len << ELEMENT_SHIFT);
+            buffers[c] = b;
+            addresses[c] = ((sun.nio.ch.DirectBuffer)b).address();
+        }
+        chunkCount = c + 1;
+    }
+
+    /**
+     * Releases chunks beyond those needed to hold the current elements.
+     */
+    public void trimToSize() {
+        modCount++;
+        int keep = (size == 0) ? 0 : chunkOf(size - 1 + MIN_CHUNK) + 1;
+        for (int c = keep; c < chunkCount; ++c) {
+            if (chunks != null)
+                chunks[c] = null;
+            else {
+                addresses[c] = 0L;
+                buffers[c] = null;  // freed once its cleaner runs
+            }
+        }
+        chunkCount = keep;
+    }
+
+    /* ---------------- Element access -------------- */
+
+    private static String outOfBoundsMsg(int index, int size) {
+        return "Index: "+index+", Size: "+size;
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index, size));
+    }
+
+    /** Returns the element at index, which must be within capacity. */
+    final long elementAt(int index) {
+        int p = index + MIN_CHUNK, c = chunkOf(p);
+        long[][] cs;
+        if ((cs = chunks) != null) {
+            long[] a = cs[c];
+            return a[p & (a.length - 1)];
+        }
+        return U.getLong(addresses[c] +
+                        ((long)(p & (chunkLength(c) - 1)) << ELEMENT_SHIFT));
+    }
+
+    /** Sets the element at index, which must be within capacity. */
+    final void setElementAt(int index, long e) {
+        int p = index + MIN_CHUNK, c = chunkOf(p);
+        long[][] cs;
+        if ((cs = chunks) != null) {
+            long[] a = cs[c];
+            a[p & (a.length - 1)] = e;
+        }
+        else
+            U.putLong(addresses[c] +
+                     ((long)(p & (chunkLength(c) - 1)) << ELEMENT_SHIFT), e);
+    }
+
+    /**
+     * Returns the number of elements in this list.
+     *
+     * @return the number of elements in this list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this list contains no elements.
+     *
+     * @return {@code true} if this list contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the element at the specified position in this list.
+     *
+     * @param  index index of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long get(int index) {
+        rangeCheck(index);
+        return elementAt(index);
+    }
+
+    /**
+     * Replaces the element at the specified position in this list with
+     * the specified element.
+     *
+     * @param index index of the element to replace
+     * @param element element to be stored at the specified position
+     * @return the element previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long set(int index, long element) {
+        rangeCheck(index);
+        long oldValue = elementAt(index);
+        setElementAt(index, element);
+        return oldValue;
+    }
+
+    /**
+     * Appends the specified element to the end of this list.
+     *
+     * @param e element to be appended to this list
+     * @return {@code true}
+     */
+    public boolean add(long e) {
+        int s = size;
+        if (s == capacityOf(chunkCount))
+            ensureCapacity(s + 1);
+        modCount++;
+        setElementAt(s, e);
+        size = s + 1;
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the specified position in this
+     * list, shifting the element currently at that position (if any)
+     * and any subsequent elements to the right.
+     *
+     * @param index index at which the specified element is to be inserted
+     * @param element element to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void add(int index, long element) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index, size));
+        int s = size;
+        ensureCapacity(s + 1);
+        modCount++;
+        moveElements(index, index + 1, s - index);
+        setElementAt(index, element);
+        size = s + 1;
+    }
+
+    /**
+     * Removes the element at the specified position in this list,
+     * shifting any subsequent elements to the left.
+     *
+     * @param index the index of the element to be removed
+     * @return the element that was removed from the list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long removeAt(int index) {
+        rangeCheck(index);
+        modCount++;
+        long oldValue = elementAt(index);
+        moveElements(index + 1, index, size - index - 1);
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * Removes from this list all of the elements whose index is between
+     * {@code fromIndex}, inclusive, and {@code toIndex}, exclusive.
+     *
+     * @param fromIndex index of first element to be removed
+     * @param toIndex index after last element to be removed
+     * @throws IndexOutOfBoundsException if {@code fromIndex} or
+     *         {@code toIndex} is out of range, or
+     *         {@code fromIndex > toIndex}
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+            throw new IndexOutOfBoundsException(
+                "fromIndex: " + fromIndex + ", toIndex: " + toIndex +
+                ", Size: " + size);
+        modCount++;
+        moveElements(toIndex, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+    }
+
+    /**
+     * Removes all of the elements from this list.  Capacity is retained;
+     * see {@link #trimToSize}.
+     */
+    public void clear() {
+        modCount++;
+        size = 0;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element
+     * in this list, or -1 if this list does not contain the element.
+     *
+     * @param o element to search for
+     * @return the index of the first occurrence, or -1
+     */
+    public int indexOf(long o) {
+        int s = size;
+        for (int i = 0; i < s; ) {
+            int p = i + MIN_CHUNK, c = chunkOf(p);
+            int off = p & (chunkLength(c) - 1);
+            int n = Math.min(chunkLength(c) - off, s - i);
+            if (chunks != null) {
+                long[] a = chunks[c];
+                for (int j = off, end = off + n; j < end; ++j) {
+                    if (a[j] == o)
+                        return i + j - off;
+                }
+            }
+            else {
+                long base = addresses[c];
+                for (int j = off, end = off + n; j < end; ++j) {
+                    if (U.getLong(base + ((long)j << ELEMENT_SHIFT)) == o)
+                        return i + j - off;
+                }
+            }
+            i += n;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if this list contains the specified element.
+     *
+     * @param o element whose presence in this list is to be tested
+     * @return {@code true} if this list contains the specified element
+     */
+    public boolean contains(long o) {
+        return indexOf(o) >= 0;
+    }
+
+    /* ---------------- Bulk operations -------------- */
+
+    /**
+     * Copies len elements between a long array and this list's chunks,
+     * in segments that each lie within a single chunk.
+     *
+     * @param index the first list index
+     * @param a the array
+     * @param off the first array index
+     * @param toList true to copy from the array into the list
+     */
+    private void copy(int index, long[] a, int off, int len, boolean toList) {
+        while (len > 0) {
+            int p = index + MIN_CHUNK, c = chunkOf(p);
+            int clen = chunkLength(c), coff = p & (clen - 1);
+            int n = Math.min(clen - coff, len);
+            if (chunks != null) {
+                if (toList)
+                    System.arraycopy(a, off, chunks[c], coff, n);
+                else
+                    System.arraycopy(chunks[c], coff, a, off, n);
+            }
+            else {
+                long addr = addresses[c] + ((long)coff << ELEMENT_SHIFT);
+                long aoff = ABASE + ((long)off << ELEMENT_SHIFT);
+                long bytes = (long)n << ELEMENT_SHIFT;
+                if (toList)
+                    U.copyMemory(a, aoff, null, addr, bytes);
+                else
+                    U.copyMemory(null, addr, a, aoff, bytes);
+            }
+            index += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Moves len elements from index from to index to, as
+     * System.arraycopy does within one array.
+     */
+    private void moveElements(int from, int to, int len) {
+        if (len <= 0 || from == to)
+            return;
+        long[] buf = new long[Math.min(len, 8192)];
+        if (from > to) {
+            for (int done = 0; done < len; ) {
+                int n = Math.min(buf.length, len - done);
+                copy(from + done, buf, 0, n, false);
+                copy(to + done, buf, 0, n, true);
+                done += n;
+            }
+        }
+        else {
+            for (int left = len; left > 0; ) {
+                int n = Math.min(buf.length, left);
+                left -= n;
+                copy(from + left, buf, 0, n, false);
+                copy(to + left, buf, 0, n, true);
+            }
+        }
+    }
+
+    /**
+     * Appends all of the elements in the specified array to the end of
+     * this list, in order.
+     *
+     * @param elements the elements to be added
+     * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the specified array is null
+     */
+    public boolean addAll(long[] elements) {
+        return addAll(elements, 0, elements.length);
+    }
+
+    /**
+     * Appends {@code len} elements of the specified array, starting at
+     * {@code off}, to the end of this list.
+     *
+     * @param elements the array holding the elements to be added
+     * @param off the index of the first element to add
+     * @param len the number of elements to add
+     * @return {@code true} if this list changed as a result of the call
+     * @throws IndexOutOfBoundsException if the range is outside the array
+     * @throws NullPointerException if the specified array is null
+     */
+    public boolean addAll(long[] elements, int off, int len) {
+        if (off < 0 || len < 0 || off > elements.length - len)
+            throw new IndexOutOfBoundsException();
+        int s = size;
+        if (len > MAX_SIZE - s)
+            throw new OutOfMemoryError();
+        ensureCapacity(s + len);
+        modCount++;
+        copy(s, elements, off, len, true);
+        size = s + len;
+        return len != 0;
+    }
+
+    /**
+     * Appends all of the elements of the specified list to the end of this
+     * list, in order.
+     *
+     * @param list the list whose elements are to be added
+     * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the specified list is null
+     */
+    public boolean addAll(LongArrayList list) {
+        int n = list.size;
+        long[] buf = new long[Math.min(n, 8192)];
+        ensureCapacity(size + n);
+        for (int i = 0; i < n; i += buf.length) {
+            int len = Math.min(buf.length, n - i);
+            list.getElements(i, buf, 0, len);
+            addAll(buf, 0, len);
+        }
+        return n != 0;
+    }
+
+    /**
+     * Copies {@code len} elements of this list, starting at
+     * {@code index}, into the specified array starting at {@code off}.
+     *
+     * @param index the index of the first element to copy
+     * @param dst the destination array
+     * @param off the first index of the destination array to write
+     * @param len the number of elements to copy
+     * @throws IndexOutOfBoundsException if either range is out of bounds
+     * @throws NullPointerException if the destination array is null
+     */
+    public void getElements(int index, long[] dst, int off, int len) {
+        if (index < 0 || len < 0 || index > size - len ||
+            off < 0 || off > dst.length - len)
+            throw new IndexOutOfBoundsException();
+        copy(index, dst, off, len, false);
+    }
+
+    /**
+     * Overwrites {@code len} elements of this list, starting at
+     * {@code index}, with elements of the specified array.
+     *
+     * @param index the index of the first element to overwrite
+     * @param src the source array
+     * @param off the first index of the source array to read
+     * @param len the number of elements to copy
+     * @throws IndexOutOfBoundsException if either range is out of bounds
+     * @throws NullPointerException if the source array is null
+     */
+    public void setElements(int index, long[] src, int off, int len) {
+        if (index < 0 || len < 0 || index > size - len ||
+            off < 0 || off > src.length - len)
+            throw new IndexOutOfBoundsException();
+        copy(index, src, off, len, true);
+    }
+
+    /**
+     * Returns an array containing all of the elements in this list in
+     * proper sequence (from first to last element).
+     *
+     * @return an array containing all of the elements in this list
+     */
+    public long[] toArray() {
+        long[] a = new long[size];
+        copy(0, a, 0, size, false);
+        return a;
+    }
+
+    /**
+     * Performs the given action for each element of this list, in order.
+     *
+     * @param action the action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if the list is structurally
+     *         modified by the action
+     */
+    public void forEach(LongConsumer action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        forEachInRange(0, size, action);
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    final void forEachInRange(int from, int to, LongConsumer action) {
+        for (int i = from; i < to; ) {
+            int p = i + MIN_CHUNK, c = chunkOf(p);
+            int clen = chunkLength(c), off = p & (clen - 1);
+            int n = Math.min(clen - off, to - i);
+            if (chunks != null) {
+                long[] a = chunks[c];
+                for (int j = off, end = off + n; j < end; ++j)
+                    action.accept(a[j]);
+            }
+            else {
+                long base = addresses[c];
+                for (int j = off, end = off + n; j < end; ++j)
+                    action.accept(U.getLong(base + ((long)j << ELEMENT_SHIFT)));
+            }
+            i += n;
+        }
+    }
+
+    /* ---------------- Iteration -------------- */
+
+    /**
+     * Returns an iterator over the elements in this list in proper
+     * sequence.  The iterator supports {@code remove}.
+     *
+     * @return an iterator over the elements in this list
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new Itr();
+    }
+
+    final class Itr implements PrimitiveIterator.OfLong {
+        int cursor;       // index of next element to return
+        int lastRet = -1; // index of last element returned; -1 if no such
+        int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return cursor != size;
+        }
+
+        public long nextLong() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            int i = cursor;
+            if (i >= size)
+                throw new NoSuchElementException();
+            cursor = i + 1;
+            return elementAt(lastRet = i);
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            removeAt(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * Creates a <em><a href="Spliterator.html#binding">late-binding</a></em>
+     * and <em>fail-fast</em> {@link Spliterator.OfLong} over the elements in
+     * this list.
+     *
+     * <p>The {@code Spliterator} reports {@link Spliterator#SIZED},
+     * {@link Spliterator#SUBSIZED}, and {@link Spliterator#ORDERED}.
+     *
+     * @return a {@code Spliterator} over the elements in this list
+     */
+    public Spliterator.OfLong spliterator() {
+        return new LongListSpliterator(this, 0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential {@code LongStream} with this list as its
+     * source; call {@code parallel()} on it for a parallel stream.
+     *
+     * @return a sequential {@code LongStream} over the elements in this list
+     */
+    public LongStream stream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    /** Index-based split-by-two, lazily initialized Spliterator */
+    static final class LongListSpliterator implements Spliterator.OfLong {
+        private final LongArrayList list;
+        private int index; // current index, modified on advance/split
+        private int fence; // -1 until used; then one past last index
+        private int expectedModCount; // initialized when fence set
+
+        LongListSpliterator(LongArrayList list, int origin, int fence,
+                           int expectedModCount) {
+            this.list = list;
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() { // initialize fence to size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                expectedModCount = list.modCount;
+                hi = fence = list.size;
+            }
+            return hi;
+        }
+
+        public LongListSpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null : // divide range in half unless too small
+                new LongListSpliterator(list, lo, index = mid,
+                                       expectedModCount);
+        }
+
+        public boolean tryAdvance(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i = index;
+            if (i < hi) {
+                index = i + 1;
+                action.accept(list.elementAt(i));
+                if (list.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence(), i = index;
+            if (i < hi) {
+                index = hi;
+                list.forEachInRange(i, hi, action);
+                if (list.modCount == expectedModCount)
+                    return;
+            }
+            else if (list.modCount == expectedModCount)
+                return;
+            throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return (long) (getFence() - index);
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * Returns a {@link List} view of this list, boxing elements on access.
+     * The view is backed by this list and supports all optional
+     * operations except storing {@code null}.
+     *
+     * @return a list view of this list
+     */
+    public List<Long> asList() {
+        return new ListView();
+    }
+
+    final class ListView extends AbstractList<Long> implements RandomAccess {
+        ListView() { modCount = LongArrayList.this.modCount; }
+        public int size()                   { return size; }
+        public Long get(int index)       { return LongArrayList.this.get(index); }
+        public Long set(int index, Long e) {
+            return LongArrayList.this.set(index, e);
+        }
+        public void add(int index, Long e) {
+            LongArrayList.this.add(index, e.longValue());
+            modCount = LongArrayList.this.modCount;
+        }
+        public Long remove(int index) {
+            long e = LongArrayList.this.removeAt(index);
+            modCount = LongArrayList.this.modCount;
+            return e;
+        }
+        protected void removeRange(int fromIndex, int toIndex) {
+            LongArrayList.this.removeRange(fromIndex, toIndex);
+            modCount = LongArrayList.this.modCount;
+        }
+        public void clear() {
+            LongArrayList.this.clear();
+            modCount = LongArrayList.this.modCount;
+        }
+        public boolean contains(Object o) {
+            return (o instanceof Long) && LongArrayList.this.contains((Long)o);
+        }
+        public int indexOf(Object o) {
+            return (o instanceof Long) ? LongArrayList.this.indexOf((Long)o) : -1;
+        }
+    }
+
+    /* ---------------- Object methods -------------- */
+
+    /**
+     * Returns a copy of this list, stored on or off the heap as this list
+     * is.
+     *
+     * @return a clone of this list
+     */
+    public LongArrayList clone() {
+        LongArrayList l = new LongArrayList(size, offHeap);
+        l.addAll(this);
+        return l;
+    }
+
+    /**
+     * Compares the specified object with this list for equality: returns
+     * {@code true} if it is a {@code LongArrayList} holding the same
+     * elements in the same order, or a {@link List} equal to
+     * {@link #asList}.
+     *
+     * @param o the object to be compared for equality with this list
+     * @return {@code true} if the specified object is equal to this list
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (o instanceof LongArrayList) {
+            LongArrayList l = (LongArrayList)o;
+            int n = size;
+            if (l.size != n)
+                return false;
+            for (int i = 0; i < n; ++i) {
+                if (elementAt(i) != l.elementAt(i))
+                    return false;
+            }
+            return true;
+        }
+        return (o instanceof List) && asList().equals(o);
+    }
+
+    /**
+     * Returns the hash code value for this list, which is the same as
+     * that of {@link #asList}.
+     *
+     * @return the hash code value for this list
+     */
+    public int hashCode() {
+        int[] h = { 1 };
+        forEach(e -> h[0] = 31 * h[0] + Long.hashCode(e));
+        return h[0];
+    }
+
+    /**
+     * Returns a string representation of this list in the format of
+     * {@link AbstractCollection#toString}.
+     *
+     * @return a string representation of this list
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach(e -> {
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(e);
+        });
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Save the state of the {@code LongArrayList} instance to a stream.
+     *
+     * @serialData The size (int) followed by all of its elements (each a
+     *             {@code long}) in the proper order.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws IOException {
+        int expectedModCount = modCount;
+        s.defaultWriteObject();
+        long[] buf = new long[Math.min(size, 8192)];
+        for (int i = 0; i < size; i += buf.length) {
+            int n = Math.min(buf.length, size - i);
+            getElements(i, buf, 0, n);
+            for (int j = 0; j < n; ++j)
+                s.writeLong(buf[j]);
+        }
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Reconstitute the {@code LongArrayList} instance from a stream.
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        int n = size;
+        if (n < 0 || n > MAX_SIZE)
+            throw new InvalidObjectException("Illegal size: " + n);
+        size = 0;
+        if (offHeap) {
+            addresses = new long[4];
+            buffers = new ByteBuffer[4];
+        }
+        else
+            chunks = new long[4][];
+        ensureCapacity(n);
+        for (int i = 0; i < n; ++i)
+            setElementAt(i, s.readLong());
+        size = n;
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long ABASE;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            ABASE = U.arrayBaseOffset(long[].class);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -0,0 +1,612 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.Serializable;
+import java.util.function.LongConsumer;
+
+/**
+ * Hash set of primitive {@code long} values.  This is the set counterpart of
+ * {@link LongObjectHashMap}: elements are stored unboxed in a single
+ * power-of-two sized array that is searched by linear probing, so an
+ * element costs one {@code long} slot rather than the {@code Long} and
+ * {@code HashMap.Node} behind a {@code HashSet<Long>}.
+ *
+ * <p>Sizing, probing and removal are identical to {@code LongObjectHashMap};
+ * see that class for details.  {@link #asSet} returns a {@link Set} view
+ * for code that must see a {@code Set<Long>}.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterators returned by {@link #iterator} and by {@link #asSet} are
+ * <em>fail-fast</em> in the same sense as those of {@link HashSet}.
+ *
+ * @see     HashSet
+ * @see     LongObjectHashMap
+ * @since   1.8
+ */
+public class LongHashSet implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = 3392615024138816572L;
+
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    /**
+     * The element table, allocated on first use; length is always a power
+     * of two.  A zero entry marks a free slot.
+     */
+    long[] keys;
+
+    /**
+     * Whether the element 0 is present.
+     */
+    boolean hasZeroKey;
+
+    /**
+     * The number of elements in this set.
+     */
+    int size;
+
+    /**
+     * The largest size the current table may hold before it is doubled.
+     * Before the table is allocated this holds the initial capacity.
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     */
+    final float loadFactor;
+
+    /**
+     * The number of times this set has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * Lazily created {@link Set} view.
+     */
+    transient Set<Long> setView;
+
+    /**
+     * Constructs an empty set with the specified initial capacity and
+     * load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor, strictly between 0 and 1
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not strictly between 0 and 1
+     */
+    public LongHashSet(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        if (initialCapacity > MAXIMUM_CAPACITY)
+            initialCapacity = MAXIMUM_CAPACITY;
+        this.loadFactor = loadFactor;
+        this.threshold = HashMap.tableSizeFor(initialCapacity);
+    }
+
+    /**
+     * Constructs an empty set able to hold the specified number of
+     * elements without resizing, with the default load factor (.5).
+     *
+     * @param  expectedSize the expected number of elements
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public LongHashSet(int expectedSize) {
+        this(LongObjectHashMap.capacityFor(expectedSize, DEFAULT_LOAD_FACTOR),
+             DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty set with the default initial capacity (16) and
+     * the default load factor (.5).
+     */
+    public LongHashSet() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        this.threshold = DEFAULT_INITIAL_CAPACITY;
+    }
+
+    /**
+     * Constructs a set containing the given elements.
+     *
+     * @param elements the elements to be placed into this set
+     * @throws NullPointerException if the array is null
+     */
+    public LongHashSet(long[] elements) {
+        this(elements.length);
+        for (long e : elements)
+            add(e);
+    }
+
+    /**
+     * Returns the number of elements in this set.
+     *
+     * @return the number of elements in this set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this set contains no elements.
+     *
+     * @return {@code true} if this set contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the table slot holding the given non-zero element, or -1.
+     */
+    final int slotOf(long e) {
+        long[] ks; long k;
+        if ((ks = keys) != null) {
+            int mask = ks.length - 1, i = LongObjectHashMap.spread(e) & mask;
+            while ((k = ks[i]) != 0) {
+                if (k == e)
+                    return i;
+                i = (i + 1) & mask;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     *
+     * @param e element whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified element
+     */
+    public boolean contains(long e) {
+        return (e == 0) ? hasZeroKey : slotOf(e) >= 0;
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     *
+     * @param e element to be added to this set
+     * @return {@code true} if this set did not already contain the element
+     * @throws IllegalStateException if the set is at maximum capacity
+     */
+    public boolean add(long e) {
+        if (e == 0) {
+            if (hasZeroKey)
+                return false;
+            if (size >= MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Set is full");
+            hasZeroKey = true;
+            ++size;
+            ++modCount;
+            return true;
+        }
+        long[] ks; long k;
+        if ((ks = keys) == null)
+            ks = resize();
+        int mask = ks.length - 1, i = LongObjectHashMap.spread(e) & mask;
+        while ((k = ks[i]) != 0) {
+            if (k == e)
+                return false;
+            i = (i + 1) & mask;
+        }
+        if (size >= threshold) {
+            mask = (ks = resize()).length - 1;
+            i = LongObjectHashMap.spread(e) & mask;
+            while (ks[i] != 0)
+                i = (i + 1) & mask;
+        }
+        ks[i] = e;
+        ++size;
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Adds all of the given elements to this set, growing the table at
+     * most once.
+     *
+     * @param elements elements to be added to this set
+     * @return {@code true} if this set changed as a result of the call
+     * @throws NullPointerException if the array is null
+     */
+    public boolean addAll(long[] elements) {
+        int n = elements.length;
+        if (n > threshold - size && keys != null) {
+            int cap = HashMap.tableSizeFor(LongObjectHashMap.capacityFor(
+                (int)Math.min((long)size + n, MAXIMUM_CAPACITY), loadFactor));
+            if (cap > keys.length)
+                rehash(cap);
+        }
+        boolean modified = false;
+        for (long e : elements)
+            modified |= add(e);
+        return modified;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     *
+     * @param e element to be removed from this set, if present
+     * @return {@code true} if the set contained the specified element
+     */
+    public boolean remove(long e) {
+        if (e == 0) {
+            if (!hasZeroKey)
+                return false;
+            hasZeroKey = false;
+        } else {
+            int i = slotOf(e);
+            if (i < 0)
+                return false;
+            shiftKeys(i);
+        }
+        --size;
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Backward-shift deletion, as in {@link LongObjectHashMap}.
+     */
+    private void shiftKeys(int pos) {
+        long[] ks = keys;
+        int mask = ks.length - 1, last, slot;
+        long k;
+        for (;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = ks[pos]) == 0) {
+                    ks[last] = 0;
+                    return;
+                }
+                slot = LongObjectHashMap.spread(k) & mask;
+                if (last <= pos ? (last >= slot || slot > pos)
+                                : (last >= slot && slot > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+        }
+    }
+
+    /**
+     * Removes all of the elements from this set.  The table keeps its
+     * capacity.
+     */
+    public void clear() {
+        long[] ks;
+        ++modCount;
+        if ((ks = keys) != null && size > 0)
+            Arrays.fill(ks, 0);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    /**
+     * Initializes or doubles the table.
+     *
+     * @return the table
+     */
+    final long[] resize() {
+        long[] oldKeys = keys;
+        int oldCap = (oldKeys == null) ? 0 : oldKeys.length;
+        int newCap;
+        if (oldCap > 0) {
+            if (oldCap >= MAXIMUM_CAPACITY)
+                throw new IllegalStateException("Set is full");
+            newCap = oldCap << 1;
+        }
+        else if (threshold > 0)          // initial capacity was placed in threshold
+            newCap = threshold;
+        else
+            newCap = 1;
+        return rehash(newCap);
+    }
+
+    /**
+     * Moves all elements into a new table of the given power-of-two
+     * capacity.
+     */
+    private long[] rehash(int newCap) {
+        long[] oldKeys = keys;
+        int oldCap = (oldKeys == null) ? 0 : oldKeys.length;
+        threshold = (newCap < MAXIMUM_CAPACITY) ?
+            (int)(newCap * loadFactor) : MAXIMUM_CAPACITY - 1;
+        long[] ks = new long[newCap];
+        if (oldKeys != null) {
+            int mask = newCap - 1;
+            for (int j = 0; j < oldCap; ++j) {
+                long k;
+                if ((k = oldKeys[j]) != 0) {
+                    int i = LongObjectHashMap.spread(k) & mask;
+                    while (ks[i] != 0)
+                        i = (i + 1) & mask;
+                    ks[i] = k;
+                }
+            }
+        }
+        return keys = ks;
+    }
+
+    /**
+     * Performs the given action on each element of this set.
+     *
+     * @param action The action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if the set is modified
+     *         while the elements are being visited
+     */
+    public void forEach(LongConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        int mc = modCount;
+        if (hasZeroKey)
+            action.accept(0);
+        long[] ks;
+        if ((ks = keys) != null && size > 0) {
+            for (int i = 0; i < ks.length && modCount == mc; ++i) {
+                long k;
+                if ((k = ks[i]) != 0)
+                    action.accept(k);
+            }
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set, in no
+     * particular order.
+     *
+     * @return an array containing all of the elements in this set
+     */
+    public long[] toArray() {
+        long[] a = new long[size];
+        int j = 0;
+        if (hasZeroKey)
+            j++;                        // a[0] is already 0
+        long[] ks;
+        if ((ks = keys) != null) {
+            for (int i = 0; i < ks.length && j < a.length; ++i) {
+                long k;
+                if ((k = ks[i]) != 0)
+                    a[j++] = k;
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Returns an iterator over the elements in this set.  The iterator
+     * supports removal.
+     *
+     * @return an iterator over the elements in this set
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new SetIterator();
+    }
+
+    /**
+     * Returns a {@link Set} view of this set.  Elements are boxed on the
+     * way in and out; all operations write through to this set.
+     *
+     * @return a {@code Set} view of this set
+     */
+    public Set<Long> asSet() {
+        Set<Long> s;
+        return (s = setView) == null ? (setView = new SetView()) : s;
+    }
+
+    /**
+     * Returns a shallow copy of this set.
+     *
+     * @return a copy of this set
+     */
+    @Override
+    public LongHashSet clone() {
+        LongHashSet result;
+        try {
+            result = (LongHashSet)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        if (keys != null)
+            result.keys = keys.clone();
+        result.modCount = 0;
+        result.setView = null;
+        return result;
+    }
+
+    /**
+     * Compares the specified object with this set for equality.  Returns
+     * {@code true} if the given object is also an {@code LongHashSet}
+     * holding the same elements.
+     *
+     * @param o object to be compared for equality with this set
+     * @return {@code true} if the specified object is equal to this set
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof LongHashSet))
+            return false;
+        LongHashSet s = (LongHashSet)o;
+        if (s.size != size || s.hasZeroKey != hasZeroKey)
+            return false;
+        long[] ks;
+        if ((ks = keys) != null) {
+            for (int i = 0; i < ks.length; ++i) {
+                long k;
+                if ((k = ks[i]) != 0 && s.slotOf(k) < 0)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this set, defined as for
+     * {@link Set#hashCode}.
+     *
+     * @return the hash code value for this set
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        long[] ks;
+        if ((ks = keys) != null) {
+            for (int i = 0; i < ks.length; ++i)
+                h += Long.hashCode(ks[i]); // free slots contribute zero
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this set in the same format as
+     * {@link AbstractCollection#toString}.
+     *
+     * @return a string representation of this set
+     */
+    @Override
+    public String toString() {
+        return asSet().toString();
+    }
+
+    /**
+     * Iterator over the elements; see {@code LongObjectHashMap.HashIterator}
+     * for the visiting order and the handling of wrapped probe runs.
+     */
+    final class SetIterator implements PrimitiveIterator.OfLong {
+        int pos;                // next slot to examine, counting down
+        int last = -1;          // slot of last returned element, -2 for zero
+        int remaining;          // elements still to be returned
+        boolean mustReturnZero;
+        long[] wrapped;          // elements moved across the wrap point
+        long lastKey;            // last returned element
+        int expectedModCount;
+
+        SetIterator() {
+            expectedModCount = modCount;
+            pos = (keys == null) ? 0 : keys.length;
+            remaining = size;
+            mustReturnZero = hasZeroKey;
+        }
+
+        public boolean hasNext() {
+            return remaining != 0;
+        }
+
+        public long nextLong() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            remaining--;
+            if (mustReturnZero) {
+                mustReturnZero = false;
+                last = -2;
+                return lastKey = 0;
+            }
+            long[] ks = keys;
+            for (;;) {
+                if (--pos < 0) {
+                    last = Integer.MIN_VALUE;
+                    return lastKey = wrapped[-pos - 1];
+                }
+                long k;
+                if ((k = ks[pos]) != 0) {
+                    last = pos;
+                    return lastKey = k;
+                }
+            }
+        }
+
+        public void remove() {
+            if (last == -1)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (last >= 0 && pos >= 0) {
+                shiftKeysTracked(last);
+                --size;
+                ++modCount;
+            }
+            else
+                LongHashSet.this.remove(lastKey);
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        private void shiftKeysTracked(int pos) {
+            long[] ks = keys;
+            int mask = ks.length - 1, last, slot;
+            long k;
+            for (;;) {
+                pos = ((last = pos) + 1) & mask;
+                for (;;) {
+                    if ((k = ks[pos]) == 0) {
+                        ks[last] = 0;
+                        return;
+                    }
+                    slot = LongObjectHashMap.spread(k) & mask;
+                    if (last <= pos ? (last >= slot || slot > pos)
+                                    : (last >= slot && slot > pos))
+                        break;
+                    pos = (pos + 1) & mask;
+                }
+                if (pos < last) {
+                    int n = (wrapped == null) ? 0 : wrapped.length;
+                    wrapped = (n == 0) ? new long[1] : Arrays.copyOf(wrapped, n + 1);
+                    wrapped[n] = k;
+                }
+                ks[last] = k;
+            }
+        }
+    }
+
+    final class SetView extends AbstractSet<Long> {
+        public int size()                 { return size; }
+        public void clear()               { LongHashSet.this.clear(); }
+        public Iterator<Long> iterator() { return new SetIterator(); }
+        public boolean contains(Object o) {
+            return (o instanceof Long) && LongHashSet.this.contains((Long)o);
+        }
+        public boolean add(Long e)     { return LongHashSet.this.add(e); }
+        public boolean remove(Object o) {
+            return (o instanceof Long) && LongHashSet.this.remove((Long)o);
+        }
+    }
+}
@@ -0,0 +1,917 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.Serializable;
+import java.util.function.LongConsumer;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Hash table based map from primitive {@code long} keys to primitive
+ * {@code long} values.  Unlike {@code HashMap<Long,Long>} this class boxes
+ * neither keys nor values and allocates no node per mapping: keys and
+ * values live in two parallel {@code long} arrays that are searched by
+ * linear probing, so a mapping costs sixteen bytes of table.
+ *
+ * <p>The table is sized and probed exactly like that of
+ * {@link LongObjectHashMap}.  Since values are primitive, lookups of
+ * absent keys return {@code 0L}; use {@link #containsKey} or
+ * {@link #getOrDefault} where zero is a legitimate value.  The
+ * {@link #addTo} operation supports the common counter idiom without a
+ * second probe.
+ *
+ * <p>{@link #asMap} returns a {@link Map} view for code that must see a
+ * {@code Map<Long,Long>}; the view boxes keys and values on access but
+ * shares storage with this map.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterators returned by {@link #keyIterator} and by the collection
+ * views of {@link #asMap} are <em>fail-fast</em> in the same sense as
+ * those of {@link HashMap}.
+ *
+ * @see     HashMap
+ * @see     LongObjectHashMap
+ * @since   1.8
+ */
+public class LongLongHashMap implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = 1408370128743960627L;
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    /**
+     * The maximum capacity, same bound as {@link HashMap#MAXIMUM_CAPACITY}.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.  Linear
+     * probing degrades quickly past two thirds full, so this is lower
+     * than {@code HashMap}'s.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    /**
+     * The key table, allocated on first use; length is always a power
+     * of two.  A zero entry marks a free slot.
+     */
+    long[] keys;
+
+    /**
+     * The value table, parallel to {@link #keys}.
+     */
+    long[] vals;
+
+    /**
+     * Whether the key 0 is present; its value is held in zeroValue.
+     */
+    boolean hasZeroKey;
+
+    long zeroValue;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    int size;
+
+    /**
+     * The largest size the current table may hold before it is doubled.
+     * Before the table is allocated this holds the initial capacity.
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     */
+    final float loadFactor;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * Lazily created {@link Map} view.
+     */
+    transient Map<Long,Long> mapView;
+
+    /**
+     * Spreads the bits of a key into a table index.  {@link HashMap#hash}
+     * first folds a {@code Long} to its 32-bit {@link Long#hashCode},
+     * so that 2^32 keys share every hash; HashMap survives such collisions
+     * by treeifying the bin, but a probing table would degrade to a linear
+     * scan.  So all 64 bits are mixed in with a golden-ratio multiply
+     * before applying the same high-to-low fold as {@code HashMap}.
+     */
+    static int spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        int i = (int)(h ^ (h >>> 32));
+        return i ^ (i >>> 16);
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Constructs an empty map with the specified initial capacity and
+     * load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor, strictly between 0 and 1
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not strictly between 0 and 1
+     */
+    public LongLongHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        if (initialCapacity > MAXIMUM_CAPACITY)
+            initialCapacity = MAXIMUM_CAPACITY;
+        this.loadFactor = loadFactor;
+        this.threshold = HashMap.tableSizeFor(initialCapacity);
+    }
+
+    /**
+     * Constructs an empty map able to hold the specified number of
+     * mappings without resizing, with the default load factor (.5).
+     *
+     * @param  expectedSize the expected number of mappings
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public LongLongHashMap(int expectedSize) {
+        this(capacityFor(expectedSize, DEFAULT_LOAD_FACTOR),
+             DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty map with the default initial capacity (16) and
+     * the default load factor (.5).
+     */
+    public LongLongHashMap() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        this.threshold = DEFAULT_INITIAL_CAPACITY;
+    }
+
+    /**
+     * Returns the table capacity needed to hold the given number of
+     * mappings below the given load factor.
+     */
+    static int capacityFor(int expectedSize, float loadFactor) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Illegal expected size: " +
+                                               expectedSize);
+        float fc = (float)expectedSize / loadFactor + 1.0f;
+        return (fc < (float)MAXIMUM_CAPACITY) ? (int)fc : MAXIMUM_CAPACITY;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the table slot holding the given non-zero key, or -1.
+     */
+    final int slotOf(long key) {
+        long[] ks; long k;
+        if ((ks = keys) != null) {
+            int mask = ks.length - 1, i = spread(key) & mask;
+            while ((k = ks[i]) != 0) {
+                if (k == key)
+                    return i;
+                i = (i + 1) & mask;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code 0L} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value mapped to the key, or {@code 0L}
+     */
+    public long get(long key) {
+        if (key == 0)
+            return zeroValue;
+        int i = slotOf(key);
+        return (i < 0) ? 0L : vals[i];
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value mapped to the key, or {@code defaultValue}
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0)
+            return hasZeroKey ? zeroValue : defaultValue;
+        int i = slotOf(key);
+        return (i < 0) ? defaultValue : vals[i];
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key the key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the key
+     */
+    public boolean containsKey(long key) {
+        return (key == 0) ? hasZeroKey : slotOf(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This requires a scan of the whole table.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the value
+     */
+    public boolean containsValue(long value) {
+        if (hasZeroKey && zeroValue == value)
+            return true;
+        long[] ks; long[] vs;
+        if ((ks = keys) != null) {
+            vs = vals;
+            for (int i = 0; i < ks.length; ++i) {
+                if (ks[i] != 0 && vs[i] == value)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code 0L} if there was no mapping for {@code key}
+     * @throws IllegalStateException if the map is at maximum capacity
+     */
+    public long put(long key, long value) {
+        if (key == 0) {
+            long oldValue = zeroValue;
+            addZeroKey();
+            zeroValue = value;
+            return oldValue;
+        }
+        long[] ks; long k;
+        if ((ks = keys) == null)
+            ks = resize();
+        int mask = ks.length - 1, i = spread(key) & mask;
+        while ((k = ks[i]) != 0) {
+            if (k == key) {
+                long oldValue = vals[i];
+                vals[i] = value;
+                return oldValue;
+            }
+            i = (i + 1) & mask;
+        }
+        insertAt(ks, i, key, value);
+        return 0L;
+    }
+
+    /**
+     * If the specified key is not already associated with a value
+     * associates it with the given value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return {@code true} if the mapping was added
+     * @throws IllegalStateException if the map is at maximum capacity
+     */
+    public boolean putIfAbsent(long key, long value) {
+        if (key == 0) {
+            if (hasZeroKey)
+                return false;
+            addZeroKey();
+            zeroValue = value;
+            return true;
+        }
+        long[] ks; long k;
+        if ((ks = keys) == null)
+            ks = resize();
+        int mask = ks.length - 1, i = spread(key) & mask;
+        while ((k = ks[i]) != 0) {
+            if (k == key)
+                return false;
+            i = (i + 1) & mask;
+        }
+        insertAt(ks, i, key, value);
+        return true;
+    }
+
+    /**
+     * Adds {@code delta} to the value mapped to the key, treating an
+     * absent mapping as {@code 0L}.
+     *
+     * @param key key whose value is to be incremented
+     * @param delta the value to add
+     * @return the updated value
+     * @throws IllegalStateException if the map is at maximum capacity
+     */
+    public long addTo(long key, long delta) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                addZeroKey();
+                zeroValue = 0L;
+            }
+            return zeroValue += delta;
+        }
+        long[] ks; long k;
+        if ((ks = keys) == null)
+            ks = resize();
+        int mask = ks.length - 1, i = spread(key) & mask;
+        while ((k = ks[i]) != 0) {
+            if (k == key)
+                return vals[i] += delta;
+            i = (i + 1) & mask;
+        }
+        insertAt(ks, i, key, delta);
+        return delta;
+    }
+
+    /**
+     * Records the presence of the zero key.
+     */
+    private void addZeroKey() {
+        if (!hasZeroKey) {
+            if (size >= MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Map is full");
+            hasZeroKey = true;
+            ++size;
+            ++modCount;
+        }
+    }
+
+    /**
+     * Stores a key known to be absent into free slot i of table ks,
+     * first growing the table if the map is at its threshold.
+     */
+    private void insertAt(long[] ks, int i, long key, long value) {
+        if (size >= threshold) {
+            int mask = (ks = resize()).length - 1;
+            i = spread(key) & mask;
+            while (ks[i] != 0)
+                i = (i + 1) & mask;
+        }
+        ks[i] = key;
+        vals[i] = value;
+        ++size;
+        ++modCount;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * computes its value using the given mapping function and enters it
+     * into this map.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    public long computeIfAbsent(long key, LongUnaryOperator mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        if (key == 0) {
+            if (hasZeroKey)
+                return zeroValue;
+        } else {
+            int i = slotOf(key);
+            if (i >= 0)
+                return vals[i];
+        }
+        int mc = modCount;
+        long v = mappingFunction.applyAsLong(key);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        put(key, v);
+        return v;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with {@code key}, or
+     *         {@code 0L} if there was no mapping for {@code key}
+     */
+    public long remove(long key) {
+        if (key == 0) {
+            long oldValue = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = 0L;
+                --size;
+                ++modCount;
+            }
+            return oldValue;
+        }
+        int i = slotOf(key);
+        if (i < 0)
+            return 0L;
+        long oldValue = vals[i];
+        removeAt(i);
+        return oldValue;
+    }
+
+    /**
+     * Removes the mapping in slot i.
+     */
+    final void removeAt(int i) {
+        shiftKeys(i);
+        --size;
+        ++modCount;
+    }
+
+    /**
+     * Backward-shift deletion: empties slot pos, then moves each
+     * following member of the probe run into the hole if doing so does
+     * not carry it before its home slot.
+     */
+    private void shiftKeys(int pos) {
+        long[] ks = keys; long[] vs = vals;
+        int mask = ks.length - 1, last, slot; long k;
+        for (;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = ks[pos]) == 0) {
+                    ks[last] = 0;
+                    vs[last] = 0L;
+                    return;
+                }
+                slot = spread(k) & mask;
+                if (last <= pos ? (last >= slot || slot > pos)
+                                : (last >= slot && slot > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+            vs[last] = vs[pos];
+        }
+    }
+
+    /**
+     * Removes all of the mappings from this map.  The table keeps its
+     * capacity.
+     */
+    public void clear() {
+        long[] ks;
+        ++modCount;
+        if ((ks = keys) != null && size > 0) {
+            Arrays.fill(ks, 0);
+            Arrays.fill(vals, 0L);
+        }
+        hasZeroKey = false;
+        zeroValue = 0L;
+        size = 0;
+    }
+
+    /**
+     * Initializes or doubles the table.
+     *
+     * @return the table
+     */
+    final long[] resize() {
+        long[] oldKeys = keys;
+        long[] oldVals = vals;
+        int oldCap = (oldKeys == null) ? 0 : oldKeys.length;
+        int newCap;
+        if (oldCap > 0) {
+            if (oldCap >= MAXIMUM_CAPACITY)
+                throw new IllegalStateException("Map is full");
+            newCap = oldCap << 1;
+        }
+        else if (threshold > 0)          // initial capacity was placed in threshold
+            newCap = threshold;
+        else
+            newCap = 1;
+        threshold = (newCap < MAXIMUM_CAPACITY) ?
+            (int)(newCap * loadFactor) : MAXIMUM_CAPACITY - 1;
+        long[] ks = new long[newCap];
+        long[] vs = new long[newCap];
+        if (oldKeys != null) {
+            int mask = newCap - 1;
+            for (int j = 0; j < oldCap; ++j) {
+                long k;
+                if ((k = oldKeys[j]) != 0) {
+                    int i = spread(k) & mask;
+                    while (ks[i] != 0)
+                        i = (i + 1) & mask;
+                    ks[i] = k;
+                    vs[i] = oldVals[j];
+                }
+            }
+        }
+        keys = ks;
+        vals = vs;
+        return ks;
+    }
+
+    /**
+     * Performs the given action on each key of this map.
+     *
+     * @param action The action to be performed for each key
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if the map is modified
+     *         while the keys are being visited
+     */
+    public void forEachKey(LongConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        int mc = modCount;
+        if (hasZeroKey)
+            action.accept(0);
+        long[] ks;
+        if ((ks = keys) != null && size > 0) {
+            for (int i = 0; i < ks.length && modCount == mc; ++i) {
+                long k;
+                if ((k = ks[i]) != 0)
+                    action.accept(k);
+            }
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an iterator over the keys of this map.  The iterator
+     * supports removal.
+     *
+     * @return an iterator over the keys of this map
+     */
+    public PrimitiveIterator.OfLong keyIterator() {
+        return new KeyIterator();
+    }
+
+    /**
+     * Returns a {@link Map} view of this map.  Keys are boxed on the way
+     * in and out; all operations write through to this map.
+     *
+     * @return a {@code Map} view of this map
+     */
+    public Map<Long,Long> asMap() {
+        Map<Long,Long> m;
+        return (m = mapView) == null ? (mapView = new MapView()) : m;
+    }
+
+    /**
+     * Returns a shallow copy of this map: the keys and values themselves
+     * are not cloned.
+     *
+     * @return a shallow copy of this map
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public LongLongHashMap clone() {
+        LongLongHashMap result;
+        try {
+            result = (LongLongHashMap)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        if (keys != null) {
+            result.keys = keys.clone();
+            result.vals = vals.clone();
+        }
+        result.modCount = 0;
+        result.mapView = null;
+        return result;
+    }
+
+    /**
+     * Compares the specified object with this map for equality.  Returns
+     * {@code true} if the given object is also an {@code LongLongHashMap}
+     * holding the same mappings.
+     *
+     * @param o object to be compared for equality with this map
+     * @return {@code true} if the specified object is equal to this map
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof LongLongHashMap))
+            return false;
+        LongLongHashMap m = (LongLongHashMap)o;
+        if (m.size != size)
+            return false;
+        if (hasZeroKey &&
+            (!m.hasZeroKey || zeroValue != m.zeroValue))
+            return false;
+        long[] ks;
+        if ((ks = keys) != null) {
+            for (int i = 0; i < ks.length; ++i) {
+                long k; int j;
+                if ((k = ks[i]) != 0 &&
+                    ((j = m.slotOf(k)) < 0 ||
+                     vals[i] != m.vals[j]))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this map, defined as for
+     * {@link Map#hashCode} so that it equals the hash code of
+     * {@link #asMap}.
+     *
+     * @return the hash code value for this map
+     */
+    @Override
+    public int hashCode() {
+        int h = hasZeroKey ? Long.hashCode(zeroValue) : 0;
+        long[] ks;
+        if ((ks = keys) != null) {
+            for (int i = 0; i < ks.length; ++i) {
+                long k;
+                if ((k = ks[i]) != 0)
+                    h += Long.hashCode(k) ^ Long.hashCode(vals[i]);
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this map in the same format as
+     * {@link AbstractMap#toString}.
+     *
+     * @return a string representation of this map
+     */
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    /* ------------------------------------------------------------ */
+    // iterators
+
+    /**
+     * Base iterator.  Slots are visited from the end of the table towards
+     * the start, after the zero key.  Removing through the iterator shifts
+     * later members of a probe run backwards; since those have already
+     * been visited this is harmless, except for runs that wrap past the
+     * end of the table, whose moved keys are remembered in {@code wrapped}
+     * and returned once the table has been exhausted.
+     */
+    abstract class HashIterator {
+        int pos;                // next slot to examine, counting down
+        int last = -1;          // slot of last returned key, -2 for zero key
+        int remaining;          // keys still to be returned
+        boolean mustReturnZero;
+        long[] wrapped;          // keys moved across the wrap point
+        int wrappedCount;
+        long lastKey;            // last returned key
+        int expectedModCount;
+
+        HashIterator() {
+            expectedModCount = modCount;
+            pos = (keys == null) ? 0 : keys.length;
+            remaining = size;
+            mustReturnZero = hasZeroKey;
+        }
+
+        public final boolean hasNext() {
+            return remaining != 0;
+        }
+
+        /**
+         * Advances and returns the slot of the next key, or -2 for the
+         * zero key.
+         */
+        final int nextSlot() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            remaining--;
+            if (mustReturnZero) {
+                mustReturnZero = false;
+                lastKey = 0;
+                return last = -2;
+            }
+            long[] ks = keys;
+            for (;;) {
+                if (--pos < 0) {
+                    // Table exhausted: hand out keys that wrapped
+                    long k = wrapped[-pos - 1];
+                    last = Integer.MIN_VALUE;
+                    lastKey = k;
+                    return slotOf(k);
+                }
+                long k;
+                if ((k = ks[pos]) != 0) {
+                    lastKey = k;
+                    return last = pos;
+                }
+            }
+        }
+
+        public final void remove() {
+            if (last == -1)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (last == -2)
+                LongLongHashMap.this.remove(0);
+            else if (pos >= 0) {
+                shiftKeysTracked(last);
+                --size;
+                ++modCount;
+            }
+            else
+                LongLongHashMap.this.remove(lastKey);
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Version of shiftKeys that records keys moved from the
+         * unvisited start of the table into the visited end.
+         */
+        private void shiftKeysTracked(int pos) {
+            long[] ks = keys; long[] vs = vals;
+            int mask = ks.length - 1, last, slot; long k;
+            for (;;) {
+                pos = ((last = pos) + 1) & mask;
+                for (;;) {
+                    if ((k = ks[pos]) == 0) {
+                        ks[last] = 0;
+                        vs[last] = 0L;
+                        return;
+                    }
+                    slot = spread(k) & mask;
+                    if (last <= pos ? (last >= slot || slot > pos)
+                                    : (last >= slot && slot > pos))
+                        break;
+                    pos = (pos + 1) & mask;
+                }
+                if (pos < last) {
+                    if (wrapped == null)
+                        wrapped = new long[2];
+                    else if (wrappedCount == wrapped.length)
+                        wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+                    wrapped[wrappedCount++] = k;
+                }
+                ks[last] = k;
+                vs[last] = vs[pos];
+            }
+        }
+    }
+
+    final class KeyIterator extends HashIterator
+        implements PrimitiveIterator.OfLong {
+        public long nextLong() { nextSlot(); return lastKey; }
+    }
+
+    final class EntryIterator extends HashIterator
+        implements Iterator<Map.Entry<Long,Long>> {
+        public Map.Entry<Long,Long> next() {
+            nextSlot();
+            return new MapEntry(lastKey);
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // Map view
+
+    /**
+     * Entry of the map view; reads and writes go through to the map.
+     */
+    final class MapEntry implements Map.Entry<Long,Long> {
+        final long key;
+        MapEntry(long key) { this.key = key; }
+        public Long getKey() { return key; }
+        public Long getValue() { return get(key); }
+        public Long setValue(Long value) { return put(key, value); }
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            return Long.valueOf(key).equals(e.getKey()) &&
+                getValue().equals(e.getValue());
+        }
+        public int hashCode() {
+            return Long.hashCode(key) ^ Long.hashCode(get(key));
+        }
+        public String toString() { return key + "=" + get(key); }
+    }
+
+    final class MapView extends AbstractMap<Long,Long> {
+        transient Set<Map.Entry<Long,Long>> entrySet;
+
+        public int size()                 { return size; }
+        public void clear()               { LongLongHashMap.this.clear(); }
+        public boolean containsValue(Object value) {
+            return (value instanceof Long) &&
+                LongLongHashMap.this.containsValue((Long)value);
+        }
+        public boolean containsKey(Object key) {
+            return (key instanceof Long) &&
+                LongLongHashMap.this.containsKey((Long)key);
+        }
+        public Long get(Object key) {
+            long k;
+            return (key instanceof Long &&
+                    LongLongHashMap.this.containsKey(k = (Long)key)) ?
+                LongLongHashMap.this.get(k) : null;
+        }
+        public Long put(Long key, Long value) {
+            long k = key, v = value;
+            boolean present = LongLongHashMap.this.containsKey(k);
+            long oldValue = LongLongHashMap.this.put(k, v);
+            return present ? oldValue : null;
+        }
+        public Long remove(Object key) {
+            Long oldValue = get(key);
+            if (oldValue != null)
+                LongLongHashMap.this.remove((Long)key);
+            return oldValue;
+        }
+        public Set<Map.Entry<Long,Long>> entrySet() {
+            Set<Map.Entry<Long,Long>> es;
+            return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+        }
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<Long,Long>> {
+        public int size()                 { return size; }
+        public void clear()               { LongLongHashMap.this.clear(); }
+        public Iterator<Map.Entry<Long,Long>> iterator() {
+            return new EntryIterator();
+        }
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Object key = e.getKey(), value = e.getValue();
+            if (!(key instanceof Long) || !(value instanceof Long))
+                return false;
+            long k = (Long)key;
+            return containsKey(k) && get(k) == (Long)value;
+        }
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                LongLongHashMap.this.remove((Long)((Map.Entry<?,?>)o).getKey());
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -599,6 +599,283 @@ class Random implements java.io.Serializable {
         }
     }
 
+    // bulk methods
+
+    /*
+     * For an exact Random, the bulk methods below read the seed once,
+     * generate into the array from a local copy, and install the final
+     * seed with a single CAS, regenerating if another thread advanced
+     * the seed meanwhile.  The array thus receives exactly the values
+     * that successive calls would have returned, atomically with
+     * respect to other uses of this Random.  The LCG is advanced on
+     * two interleaved chains, each stepping twice at a time with
+     * multiplier2 and addend2, so that successive multiplications do
+     * not wait on each other.  Subclasses, which may override next,
+     * get plain loops over the corresponding single-value methods.
+     */
+
+    /** Multiplier and addend for two steps of the generator */
+    private static final long multiplier2 = (multiplier * multiplier) & mask;
+    private static final long addend2 = ((multiplier + 1) * addend) & mask;
+
+    /**
+     * Checks that {@code fromIndex} and {@code toIndex} are in
+     * the range of an array of the given length.
+     */
+    static void checkFillRange(int length, int fromIndex, int toIndex) {
+        if (fromIndex > toIndex)
+            throw new IllegalArgumentException(
+                "fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        if (fromIndex < 0)
+            throw new ArrayIndexOutOfBoundsException(fromIndex);
+        if (toIndex > length)
+            throw new ArrayIndexOutOfBoundsException(toIndex);
+    }
+
+    /**
+     * Fills the given array with pseudorandom {@code int} values, as if
+     * by assigning each element the result of {@link #nextInt()}.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextInts(int[] a) {
+        nextInts(a, 0, a.length);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code int} values, as if by assigning each element, in
+     * ascending index order, the result of {@link #nextInt()}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextInts(int[] a, int fromIndex, int toIndex) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        if (getClass() != Random.class) {
+            for (int i = fromIndex; i < toIndex; ++i)
+                a[i] = nextInt();
+            return;
+        }
+        AtomicLong seed = this.seed;
+        long oldseed, s;
+        do {
+            s = oldseed = seed.get();
+            int i = fromIndex;
+            if (toIndex - i >= 2) {
+                long x = (s * multiplier + addend) & mask;
+                long y = (x * multiplier + addend) & mask;
+                for (;;) {
+                    a[i] = (int)(x >>> 16);
+                    a[i + 1] = (int)(y >>> 16);
+                    if ((i += 2) >= toIndex - 1)
+                        break;
+                    x = (x * multiplier2 + addend2) & mask;
+                    y = (y * multiplier2 + addend2) & mask;
+                }
+                s = y;
+            }
+            if (i < toIndex) {
+                s = (s * multiplier + addend) & mask;
+                a[i] = (int)(s >>> 16);
+            }
+        } while (!seed.compareAndSet(oldseed, s));
+    }
+
+    /**
+     * Fills the given array with pseudorandom {@code long} values, as
+     * if by assigning each element the result of {@link #nextLong()}.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextLongs(long[] a) {
+        nextLongs(a, 0, a.length);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code long} values, as if by assigning each element, in
+     * ascending index order, the result of {@link #nextLong()}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextLongs(long[] a, int fromIndex, int toIndex) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        if (getClass() != Random.class) {
+            for (int i = fromIndex; i < toIndex; ++i)
+                a[i] = nextLong();
+            return;
+        }
+        AtomicLong seed = this.seed;
+        long oldseed, s;
+        do {
+            s = oldseed = seed.get();
+            if (fromIndex < toIndex) {
+                long x = (s * multiplier + addend) & mask;
+                long y = (x * multiplier + addend) & mask;
+                for (int i = fromIndex;;) {
+                    a[i] = ((long)(int)(x >>> 16) << 32) + (int)(y >>> 16);
+                    if (++i >= toIndex)
+                        break;
+                    x = (x * multiplier2 + addend2) & mask;
+                    y = (y * multiplier2 + addend2) & mask;
+                }
+                s = y;
+            }
+        } while (!seed.compareAndSet(oldseed, s));
+    }
+
+    /**
+     * Fills the given array with pseudorandom {@code double} values
+     * between zero (inclusive) and one (exclusive), as if by assigning
+     * each element the result of {@link #nextDouble()}.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextDoubles(double[] a) {
+        nextDoubles(a, 0, a.length);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code double} values between zero (inclusive) and one
+     * (exclusive), as if by assigning each element, in ascending index
+     * order, the result of {@link #nextDouble()}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextDoubles(double[] a, int fromIndex, int toIndex) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        if (getClass() != Random.class) {
+            for (int i = fromIndex; i < toIndex; ++i)
+                a[i] = nextDouble();
+            return;
+        }
+        AtomicLong seed = this.seed;
+        long oldseed, s;
+        do {
+            s = oldseed = seed.get();
+            if (fromIndex < toIndex) {
+                long x = (s * multiplier + addend) & mask;
+                long y = (x * multiplier + addend) & mask;
+                for (int i = fromIndex;;) {
+                    a[i] = (((x >>> 22) << 27) + (y >>> 21)) * DOUBLE_UNIT;
+                    if (++i >= toIndex)
+                        break;
+                    x = (x * multiplier2 + addend2) & mask;
+                    y = (y * multiplier2 + addend2) & mask;
+                }
+                s = y;
+            }
+        } while (!seed.compareAndSet(oldseed, s));
+    }
+
+    /**
+     * Fills the given array with pseudorandom Gaussian ("normally")
+     * distributed {@code double} values with mean {@code 0.0} and
+     * standard deviation {@code 1.0}, as if by assigning each element
+     * the result of {@link #nextGaussian()}.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextGaussians(double[] a) {
+        nextGaussians(a, 0, a.length);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * Gaussian ("normally") distributed {@code double} values with
+     * mean {@code 0.0} and standard deviation {@code 1.0}, as if by
+     * assigning each element, in ascending index order, the result of
+     * {@link #nextGaussian()}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    synchronized public void nextGaussians(double[] a,
+                                           int fromIndex, int toIndex) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        if (getClass() != Random.class) {
+            for (int i = fromIndex; i < toIndex; ++i)
+                a[i] = nextGaussian();
+            return;
+        }
+        AtomicLong seed = this.seed;
+        for (;;) {
+            long oldseed = seed.get(), s = oldseed;
+            boolean haveNext = haveNextNextGaussian;
+            double next = nextNextGaussian;
+            int i = fromIndex;
+            if (haveNext && i < toIndex) {
+                a[i++] = next;
+                haveNext = false;
+            }
+            while (i < toIndex) {
+                // As in nextGaussian, with nextDouble inlined
+                double v1, v2, q;
+                do {
+                    long h;
+                    s = (s * multiplier + addend) & mask;
+                    h = s >>> 22;
+                    s = (s * multiplier + addend) & mask;
+                    v1 = 2 * (((h << 27) + (s >>> 21)) * DOUBLE_UNIT) - 1;
+                    s = (s * multiplier + addend) & mask;
+                    h = s >>> 22;
+                    s = (s * multiplier + addend) & mask;
+                    v2 = 2 * (((h << 27) + (s >>> 21)) * DOUBLE_UNIT) - 1;
+                    q = v1 * v1 + v2 * v2;
+                } while (q >= 1 || q == 0);
+                double scale = StrictMath.sqrt(-2 * StrictMath.log(q)/q);
+                a[i++] = v1 * scale;
+                if (i < toIndex)
+                    a[i++] = v2 * scale;
+                else {
+                    next = v2 * scale;
+                    haveNext = true;
+                }
+            }
+            if (seed.compareAndSet(oldseed, s)) {
+                haveNextNextGaussian = haveNext;
+                nextNextGaussian = next;
+                return;
+            }
+        }
+    }
+
     // stream methods, coded in a way intended to better isolate for
     // maintenance purposes the small differences across forms.
 
@@ -25,6 +25,7 @@
 
 package java.util;
 
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.IntConsumer;
 import java.util.function.LongConsumer;
@@ -554,6 +555,394 @@ public final class SplittableRandom {
         return mix32(nextSeed()) < 0;
     }
 
+    // bulk methods
+
+    /*
+     * The sequential bulk methods fill an array exactly as the
+     * corresponding single-value methods would in ascending index
+     * order, producing elements four at a time from the independent
+     * seeds seed + k * gamma.  The parallel forms fill the two halves
+     * of a range from this generator and from one split off it,
+     * recursively, down to ranges of at most FILL_THRESHOLD elements.
+     * The split tree depends only on the range length, so the results
+     * are the same for a given initial state regardless of the number
+     * of threads taking part.
+     */
+
+    /**
+     * The largest range filled sequentially by the parallel bulk
+     * methods.
+     */
+    private static final int FILL_THRESHOLD = 1 << 14;
+
+    /**
+     * Fills the given array with pseudorandom {@code int} values, as if
+     * by assigning each element the result of {@link #nextInt()}.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextInts(int[] a) {
+        fillInts(a, 0, a.length);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code int} values, as if by assigning each element, in
+     * ascending index order, the result of {@link #nextInt()}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextInts(int[] a, int fromIndex, int toIndex) {
+        Random.checkFillRange(a.length, fromIndex, toIndex);
+        fillInts(a, fromIndex, toIndex);
+    }
+
+    /**
+     * Fills the given array with pseudorandom {@code long} values, as
+     * if by assigning each element the result of {@link #nextLong()}.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextLongs(long[] a) {
+        fillLongs(a, 0, a.length);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code long} values, as if by assigning each element, in
+     * ascending index order, the result of {@link #nextLong()}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextLongs(long[] a, int fromIndex, int toIndex) {
+        Random.checkFillRange(a.length, fromIndex, toIndex);
+        fillLongs(a, fromIndex, toIndex);
+    }
+
+    /**
+     * Fills the given array with pseudorandom {@code double} values
+     * between zero (inclusive) and one (exclusive), as if by assigning
+     * each element the result of {@link #nextDouble()}.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextDoubles(double[] a) {
+        fillDoubles(a, 0, a.length);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code double} values between zero (inclusive) and one
+     * (exclusive), as if by assigning each element, in ascending index
+     * order, the result of {@link #nextDouble()}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextDoubles(double[] a, int fromIndex, int toIndex) {
+        Random.checkFillRange(a.length, fromIndex, toIndex);
+        fillDoubles(a, fromIndex, toIndex);
+    }
+
+    /**
+     * Fills the given array with pseudorandom Gaussian ("normally")
+     * distributed {@code double} values with mean {@code 0.0} and
+     * standard deviation {@code 1.0}, generated in pairs by the polar
+     * method.  If the array has odd length, the second value of the
+     * last pair is discarded.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextGaussians(double[] a) {
+        fillGaussians(a, 0, a.length);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * Gaussian ("normally") distributed {@code double} values with
+     * mean {@code 0.0} and standard deviation {@code 1.0}, generated
+     * in pairs by the polar method.  If the range has odd length, the
+     * second value of the last pair is discarded.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextGaussians(double[] a, int fromIndex, int toIndex) {
+        Random.checkFillRange(a.length, fromIndex, toIndex);
+        fillGaussians(a, fromIndex, toIndex);
+    }
+
+    /**
+     * Fills the given array with pseudorandom {@code int} values,
+     * using this generator and generators split from it to fill
+     * disjoint ranges in parallel.  The result depends only on the
+     * state of this generator and the length of the array.  This
+     * generator must not be used by other threads while the method
+     * runs.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void parallelNextInts(int[] a) {
+        new FillTask(this, a, FillTask.INTS, 0, a.length).invoke();
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code int} values, as by {@link #parallelNextInts(int[])}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void parallelNextInts(int[] a, int fromIndex, int toIndex) {
+        Random.checkFillRange(a.length, fromIndex, toIndex);
+        new FillTask(this, a, FillTask.INTS, fromIndex, toIndex).invoke();
+    }
+
+    /**
+     * Fills the given array with pseudorandom {@code long} values,
+     * using this generator and generators split from it to fill
+     * disjoint ranges in parallel.  The result depends only on the
+     * state of this generator and the length of the array.  This
+     * generator must not be used by other threads while the method
+     * runs.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void parallelNextLongs(long[] a) {
+        new FillTask(this, a, FillTask.LONGS, 0, a.length).invoke();
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code long} values, as by {@link #parallelNextLongs(long[])}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void parallelNextLongs(long[] a, int fromIndex, int toIndex) {
+        Random.checkFillRange(a.length, fromIndex, toIndex);
+        new FillTask(this, a, FillTask.LONGS, fromIndex, toIndex).invoke();
+    }
+
+    /**
+     * Fills the given array with pseudorandom {@code double} values
+     * between zero (inclusive) and one (exclusive), using this
+     * generator and generators split from it to fill disjoint ranges
+     * in parallel.  The result depends only on the state of this
+     * generator and the length of the array.  This generator must not
+     * be used by other threads while the method runs.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void parallelNextDoubles(double[] a) {
+        new FillTask(this, a, FillTask.DOUBLES, 0, a.length).invoke();
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code double} values between zero (inclusive) and one
+     * (exclusive), as by {@link #parallelNextDoubles(double[])}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void parallelNextDoubles(double[] a, int fromIndex, int toIndex) {
+        Random.checkFillRange(a.length, fromIndex, toIndex);
+        new FillTask(this, a, FillTask.DOUBLES, fromIndex, toIndex).invoke();
+    }
+
+    /**
+     * Fills the given array with pseudorandom Gaussian ("normally")
+     * distributed {@code double} values with mean {@code 0.0} and
+     * standard deviation {@code 1.0}, using this generator and
+     * generators split from it to fill disjoint ranges in parallel.
+     * The result depends only on the state of this generator and the
+     * length of the array.  This generator must not be used by other
+     * threads while the method runs.
+     *
+     * @param a the array to fill
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void parallelNextGaussians(double[] a) {
+        new FillTask(this, a, FillTask.GAUSSIANS, 0, a.length).invoke();
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * Gaussian ("normally") distributed {@code double} values with
+     * mean {@code 0.0} and standard deviation {@code 1.0}, as by
+     * {@link #parallelNextGaussians(double[])}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void parallelNextGaussians(double[] a, int fromIndex, int toIndex) {
+        Random.checkFillRange(a.length, fromIndex, toIndex);
+        new FillTask(this, a, FillTask.GAUSSIANS, fromIndex, toIndex).invoke();
+    }
+
+    private void fillInts(int[] a, int fromIndex, int toIndex) {
+        long s = seed, g = gamma;
+        int i = fromIndex;
+        for (int e = toIndex - 3; i < e; i += 4, s += 4 * g) {
+            a[i] = mix32(s + g);
+            a[i + 1] = mix32(s + 2 * g);
+            a[i + 2] = mix32(s + 3 * g);
+            a[i + 3] = mix32(s + 4 * g);
+        }
+        for (; i < toIndex; ++i)
+            a[i] = mix32(s += g);
+        seed = s;
+    }
+
+    private void fillLongs(long[] a, int fromIndex, int toIndex) {
+        long s = seed, g = gamma;
+        int i = fromIndex;
+        for (int e = toIndex - 3; i < e; i += 4, s += 4 * g) {
+            a[i] = mix64(s + g);
+            a[i + 1] = mix64(s + 2 * g);
+            a[i + 2] = mix64(s + 3 * g);
+            a[i + 3] = mix64(s + 4 * g);
+        }
+        for (; i < toIndex; ++i)
+            a[i] = mix64(s += g);
+        seed = s;
+    }
+
+    private void fillDoubles(double[] a, int fromIndex, int toIndex) {
+        long s = seed, g = gamma;
+        int i = fromIndex;
+        for (int e = toIndex - 3; i < e; i += 4, s += 4 * g) {
+            a[i] = (mix64(s + g) >>> 11) * DOUBLE_UNIT;
+            a[i + 1] = (mix64(s + 2 * g) >>> 11) * DOUBLE_UNIT;
+            a[i + 2] = (mix64(s + 3 * g) >>> 11) * DOUBLE_UNIT;
+            a[i + 3] = (mix64(s + 4 * g) >>> 11) * DOUBLE_UNIT;
+        }
+        for (; i < toIndex; ++i)
+            a[i] = (mix64(s += g) >>> 11) * DOUBLE_UNIT;
+        seed = s;
+    }
+
+    private void fillGaussians(double[] a, int fromIndex, int toIndex) {
+        long s = seed, g = gamma;
+        for (int i = fromIndex; i < toIndex; ) {
+            double v1, v2, q;
+            do {
+                v1 = 2 * ((mix64(s += g) >>> 11) * DOUBLE_UNIT) - 1;
+                v2 = 2 * ((mix64(s += g) >>> 11) * DOUBLE_UNIT) - 1;
+                q = v1 * v1 + v2 * v2;
+            } while (q >= 1 || q == 0);
+            double scale = StrictMath.sqrt(-2 * StrictMath.log(q)/q);
+            a[i++] = v1 * scale;
+            if (i < toIndex)
+                a[i++] = v2 * scale;
+        }
+        seed = s;
+    }
+
+    /**
+     * Task filling a range of an array from a given generator,
+     * splitting off a new generator for the upper half of ranges
+     * larger than FILL_THRESHOLD.
+     */
+    @SuppressWarnings("serial")
+    static final class FillTask extends RecursiveAction {
+        static final int INTS = 0, LONGS = 1, DOUBLES = 2, GAUSSIANS = 3;
+        final SplittableRandom rng;
+        final Object array;
+        final int kind, lo, hi;
+        FillTask(SplittableRandom rng, Object array, int kind, int lo, int hi) {
+            this.rng = rng; this.array = array; this.kind = kind;
+            this.lo = lo; this.hi = hi;
+        }
+        public void compute() {
+            int l = lo, h = hi;
+            if (h - l > FILL_THRESHOLD) {
+                int m = (l + h) >>> 1;
+                SplittableRandom r = rng.split();
+                invokeAll(new FillTask(rng, array, kind, l, m),
+                          new FillTask(r, array, kind, m, h));
+            }
+            else {
+                switch (kind) {
+                case INTS:
+                    rng.fillInts((int[])array, l, h); break;
+                case LONGS:
+                    rng.fillLongs((long[])array, l, h); break;
+                case DOUBLES:
+                    rng.fillDoubles((double[])array, l, h); break;
+                default:
+                    rng.fillGaussians((double[])array, l, h); break;
+                }
+            }
+        }
+    }
+
     // stream methods, coded in a way intended to better isolate for
     // maintenance purposes the small differences across forms.
 
@@ -337,6 +337,28 @@ public class ArrayBlockingQueue<E> extends AbstractQueue<E>
         }
     }
 
+    /**
+     * Inserts elements {@code from} (inclusive) to {@code to}
+     * (exclusive) of the given array at the tail of this queue, in
+     * order, for as many as fit, taking the lock once.  Used by
+     * ThreadPoolExecutor.executeAll.  The elements must be non-null.
+     *
+     * @return the number of elements inserted
+     */
+    @SuppressWarnings("unchecked")
+    int offerAll(Object[] a, int from, int to) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int n = Math.min(items.length - count, to - from);
+            for (int i = from; i < from + n; ++i)
+                enqueue((E)a[i]);
+            return Math.max(n, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Inserts the specified element at the tail of this queue, waiting
      * for space to become available if the queue is full.
@@ -34,6 +34,8 @@
  */
 
 package java.util.concurrent;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.function.Supplier;
 import java.util.function.Consumer;
 import java.util.function.BiConsumer;
@@ -213,10 +215,38 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
      * Completion fields need not be declared as final or volatile
      * because they are only visible to other threads upon safe
      * publication.
+     *
+     * A future may be pinned to an Executor (see method pinnedTo).
+     * Field "pinned" is then used in place of null (for non-async
+     * methods) and asyncPool (for async methods without an explicit
+     * executor) when creating dependents, and is copied into each
+     * dependent by newDependent, so the whole downstream graph runs
+     * on that executor.  Completions are themselves Runnables, so
+     * each hop costs one execute call and no extra task object.  The
+     * field is written only before the future is published, and
+     * fits in alignment padding on common JVMs.
+     *
+     * Long linear chains of one-input stages can be collapsed into a
+     * single UniChain completion (see class Chain) holding an array
+     * of actions, which are run back to back against a locally held
+     * encoded result that is encoded exactly as the intermediate
+     * futures would have been.  Only the final dependent is ever
+     * created or published.
+     *
+     * Methods completeAll and completeAllExceptionally make one pass
+     * that CASes in a shared encoded result for all given futures and
+     * detaches the whole stack of each future they completed, then
+     * fire all detached dependents in one sweep, so that no dependent
+     * action this thread runs sees a later result still missing.
+     * Other threads are not held back: a waiter woken in between, or
+     * a dependent pushed onto a completed future before its stack is
+     * detached, may run postComplete or fire itself mid-pass, as they
+     * do after complete.
      */
 
     volatile Object result;       // Either the result or boxed AltResult
     volatile Completion stack;    // Top of Treiber stack of dependent actions
+    Executor pinned;              // Default executor for dependents, or null
 
     final boolean internalComplete(Object r) { // CAS from null to r
         return UNSAFE.compareAndSwapObject(this, RESULT, null, r);
@@ -238,6 +268,14 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         do {} while (!tryPushStack(c));
     }
 
+    /** Detaches and returns the whole stack, or null if empty. */
+    final Completion popStack() {
+        Completion h;
+        while ((h = stack) != null && !casStack(h, null))
+            ;
+        return h;
+    }
+
     /* ------------- Encoding and decoding outcomes -------------- */
 
     static final class AltResult { // See above
@@ -416,6 +454,29 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return e;
     }
 
+    /**
+     * Returns the executor used by async methods without an explicit
+     * executor argument: the pinned executor if any, else asyncPool.
+     */
+    final Executor defaultExecutor() {
+        Executor e;
+        return ((e = pinned) != null) ? e : asyncPool;
+    }
+
+    /** Returns a new incomplete dependent inheriting any pinning. */
+    final <U> CompletableFuture<U> newDependent() {
+        CompletableFuture<U> d = new CompletableFuture<U>();
+        d.pinned = pinned;
+        return d;
+    }
+
+    /** Returns a new dependent with given encoded result. */
+    final <U> CompletableFuture<U> newDependent(Object r) {
+        CompletableFuture<U> d = new CompletableFuture<U>(r);
+        d.pinned = pinned;
+        return d;
+    }
+
     // Modes for Completion.tryFire. Signedness matters.
     static final int SYNC   =  0;
     static final int ASYNC  =  1;
@@ -610,7 +671,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     private <V> CompletableFuture<V> uniApplyStage(
         Executor e, Function<? super T,? extends V> f) {
         if (f == null) throw new NullPointerException();
-        CompletableFuture<V> d =  new CompletableFuture<V>();
+        CompletableFuture<V> d = newDependent();
         if (e != null || !d.uniApply(this, f, null)) {
             UniApply<T,V> c = new UniApply<T,V>(e, d, this, f);
             push(c);
@@ -665,7 +726,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     private CompletableFuture<Void> uniAcceptStage(Executor e,
                                                    Consumer<? super T> f) {
         if (f == null) throw new NullPointerException();
-        CompletableFuture<Void> d = new CompletableFuture<Void>();
+        CompletableFuture<Void> d = newDependent();
         if (e != null || !d.uniAccept(this, f, null)) {
             UniAccept<T> c = new UniAccept<T>(e, d, this, f);
             push(c);
@@ -713,7 +774,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
 
     private CompletableFuture<Void> uniRunStage(Executor e, Runnable f) {
         if (f == null) throw new NullPointerException();
-        CompletableFuture<Void> d = new CompletableFuture<Void>();
+        CompletableFuture<Void> d = newDependent();
         if (e != null || !d.uniRun(this, f, null)) {
             UniRun<T> c = new UniRun<T>(e, d, this, f);
             push(c);
@@ -774,7 +835,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     private CompletableFuture<T> uniWhenCompleteStage(
         Executor e, BiConsumer<? super T, ? super Throwable> f) {
         if (f == null) throw new NullPointerException();
-        CompletableFuture<T> d = new CompletableFuture<T>();
+        CompletableFuture<T> d = newDependent();
         if (e != null || !d.uniWhenComplete(this, f, null)) {
             UniWhenComplete<T> c = new UniWhenComplete<T>(e, d, this, f);
             push(c);
@@ -830,7 +891,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     private <V> CompletableFuture<V> uniHandleStage(
         Executor e, BiFunction<? super T, Throwable, ? extends V> f) {
         if (f == null) throw new NullPointerException();
-        CompletableFuture<V> d = new CompletableFuture<V>();
+        CompletableFuture<V> d = newDependent();
         if (e != null || !d.uniHandle(this, f, null)) {
             UniHandle<T,V> c = new UniHandle<T,V>(e, d, this, f);
             push(c);
@@ -880,7 +941,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     private CompletableFuture<T> uniExceptionallyStage(
         Function<Throwable, ? extends T> f) {
         if (f == null) throw new NullPointerException();
-        CompletableFuture<T> d = new CompletableFuture<T>();
+        CompletableFuture<T> d = newDependent();
         if (!d.uniExceptionally(this, f, null)) {
             UniExceptionally<T> c = new UniExceptionally<T>(d, this, f);
             push(c);
@@ -972,7 +1033,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
             // try to return function result directly
             if (r instanceof AltResult) {
                 if ((x = ((AltResult)r).ex) != null) {
-                    return new CompletableFuture<V>(encodeThrowable(x, r));
+                    return newDependent(encodeThrowable(x, r));
                 }
                 r = null;
             }
@@ -981,23 +1042,140 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
                 CompletableFuture<V> g = f.apply(t).toCompletableFuture();
                 Object s = g.result;
                 if (s != null)
-                    return new CompletableFuture<V>(encodeRelay(s));
-                CompletableFuture<V> d = new CompletableFuture<V>();
+                    return newDependent(encodeRelay(s));
+                CompletableFuture<V> d = newDependent();
                 UniRelay<V> copy = new UniRelay<V>(d, g);
                 g.push(copy);
                 copy.tryFire(SYNC);
                 return d;
             } catch (Throwable ex) {
-                return new CompletableFuture<V>(encodeThrowable(ex));
+                return newDependent(encodeThrowable(ex));
             }
         }
-        CompletableFuture<V> d = new CompletableFuture<V>();
+        CompletableFuture<V> d = newDependent();
         UniCompose<T,V> c = new UniCompose<T,V>(e, d, this, f);
         push(c);
         c.tryFire(SYNC);
         return d;
     }
 
+    @SuppressWarnings("serial")
+    static final class UniChain<T,V> extends UniCompletion<T,V> {
+        Object[] fns; byte[] kinds; int n; // actions, see class Chain
+        UniChain(Executor executor, CompletableFuture<V> dep,
+                 CompletableFuture<T> src,
+                 Object[] fns, byte[] kinds, int n) {
+            super(executor, dep, src);
+            this.fns = fns; this.kinds = kinds; this.n = n;
+        }
+        final CompletableFuture<V> tryFire(int mode) {
+            CompletableFuture<V> d; CompletableFuture<T> a;
+            if ((d = dep) == null ||
+                !d.uniChain(a = src, fns, kinds, n, mode > 0 ? null : this))
+                return null;
+            dep = null; src = null; fns = null; kinds = null;
+            return d.postFire(a, mode);
+        }
+    }
+
+    final <S> boolean uniChain(CompletableFuture<S> a, Object[] fns,
+                               byte[] kinds, int n, UniChain<S,T> c) {
+        Object r;
+        if (a == null || (r = a.result) == null || fns == null)
+            return false;
+        if (result == null) {
+            if (c != null && !c.claim())
+                return false;
+            internalComplete(runChain(r, fns, kinds, n));
+        }
+        return true;
+    }
+
+    /**
+     * Runs the first n actions of a Chain starting from encoded
+     * result r, returning the encoded result of the last one.
+     */
+    static Object runChain(Object r, Object[] fns, byte[] kinds, int n) {
+        for (int i = 0; i < n; ++i)
+            r = runAction(r, fns[i], kinds[i]);
+        return r;
+    }
+
+    /**
+     * Runs Chain action f of kind k on encoded result r, returning
+     * the encoded outcome exactly as the corresponding uniX method
+     * would complete an intermediate dependent.
+     */
+    @SuppressWarnings("unchecked")
+    static Object runAction(Object r, Object f, int k) {
+        Object s; Throwable x;
+        if (r instanceof AltResult) {
+            x = ((AltResult)r).ex;
+            s = null;
+        } else {
+            x = null;
+            s = r;
+        }
+        try {
+            switch (k) {
+            case Chain.APPLY:
+                if (x != null)
+                    r = encodeThrowable(x, r);
+                else if ((s = ((Function<Object,Object>)f).apply(s)) == null)
+                    r = NIL;
+                else
+                    r = s;
+                break;
+            case Chain.ACCEPT:
+                if (x != null)
+                    r = encodeThrowable(x, r);
+                else {
+                    ((Consumer<Object>)f).accept(s);
+                    r = NIL;
+                }
+                break;
+            case Chain.RUN:
+                if (x != null)
+                    r = encodeThrowable(x, r);
+                else {
+                    ((Runnable)f).run();
+                    r = NIL;
+                }
+                break;
+            case Chain.HANDLE:
+                s = ((BiFunction<Object,Throwable,Object>)f).apply(s, x);
+                r = (s == null) ? NIL : s;
+                break;
+            case Chain.WHEN_COMPLETE:
+                ((BiConsumer<Object,Throwable>)f).accept(s, x);
+                if (x != null)
+                    r = encodeThrowable(x, r);
+                break;
+            default: // Chain.EXCEPTIONALLY
+                if (x != null) {
+                    s = ((Function<Throwable,Object>)f).apply(x);
+                    r = (s == null) ? NIL : s;
+                }
+                break;
+            }
+        } catch (Throwable ex) {
+            r = (k == Chain.WHEN_COMPLETE && x != null) ?
+                encodeThrowable(x, r) : encodeThrowable(ex);
+        }
+        return r;
+    }
+
+    private <V> CompletableFuture<V> uniChainStage(
+        Executor e, Object[] fns, byte[] kinds, int n) {
+        CompletableFuture<V> d = newDependent();
+        if (e != null || !d.uniChain(this, fns, kinds, n, null)) {
+            UniChain<T,V> c = new UniChain<T,V>(e, d, this, fns, kinds, n);
+            push(c);
+            c.tryFire(SYNC);
+        }
+        return d;
+    }
+
     /* ------------- Two-input Completions -------------- */
 
     /** A Completion for an action with two sources */
@@ -1116,7 +1294,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         CompletableFuture<U> b;
         if (f == null || (b = o.toCompletableFuture()) == null)
             throw new NullPointerException();
-        CompletableFuture<V> d = new CompletableFuture<V>();
+        CompletableFuture<V> d = newDependent();
         if (e != null || !d.biApply(this, b, f, null)) {
             BiApply<T,U,V> c = new BiApply<T,U,V>(e, d, this, b, f);
             bipush(b, c);
@@ -1188,7 +1366,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         CompletableFuture<U> b;
         if (f == null || (b = o.toCompletableFuture()) == null)
             throw new NullPointerException();
-        CompletableFuture<Void> d = new CompletableFuture<Void>();
+        CompletableFuture<Void> d = newDependent();
         if (e != null || !d.biAccept(this, b, f, null)) {
             BiAccept<T,U> c = new BiAccept<T,U>(e, d, this, b, f);
             bipush(b, c);
@@ -1247,7 +1425,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         CompletableFuture<?> b;
         if (f == null || (b = o.toCompletableFuture()) == null)
             throw new NullPointerException();
-        CompletableFuture<Void> d = new CompletableFuture<Void>();
+        CompletableFuture<Void> d = newDependent();
         if (e != null || !d.biRun(this, b, f, null)) {
             BiRun<T,?> c = new BiRun<>(e, d, this, b, f);
             bipush(b, c);
@@ -1388,7 +1566,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         CompletableFuture<U> b;
         if (f == null || (b = o.toCompletableFuture()) == null)
             throw new NullPointerException();
-        CompletableFuture<V> d = new CompletableFuture<V>();
+        CompletableFuture<V> d = newDependent();
         if (e != null || !d.orApply(this, b, f, null)) {
             OrApply<T,U,V> c = new OrApply<T,U,V>(e, d, this, b, f);
             orpush(b, c);
@@ -1452,7 +1630,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         CompletableFuture<U> b;
         if (f == null || (b = o.toCompletableFuture()) == null)
             throw new NullPointerException();
-        CompletableFuture<Void> d = new CompletableFuture<Void>();
+        CompletableFuture<Void> d = newDependent();
         if (e != null || !d.orAccept(this, b, f, null)) {
             OrAccept<T,U> c = new OrAccept<T,U>(e, d, this, b, f);
             orpush(b, c);
@@ -1510,7 +1688,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         CompletableFuture<?> b;
         if (f == null || (b = o.toCompletableFuture()) == null)
             throw new NullPointerException();
-        CompletableFuture<Void> d = new CompletableFuture<Void>();
+        CompletableFuture<Void> d = newDependent();
         if (e != null || !d.orRun(this, b, f, null)) {
             OrRun<T,?> c = new OrRun<>(e, d, this, b, f);
             orpush(b, c);
@@ -1978,14 +2156,98 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return triggered;
     }
 
+    /**
+     * Completes each of the given CompletableFutures that is not
+     * already completed with the given value, and then triggers their
+     * dependent actions.  Unlike invoking {@link #complete} on each in
+     * turn, the value is published to all of the given
+     * CompletableFutures before this invocation performs any of their
+     * dependent actions, so that the actions it performs never observe
+     * a later one as still incomplete.  This is not a guarantee of
+     * atomicity: other threads, for example ones waiting in {@link
+     * #join} or adding dependent actions concurrently, may perform
+     * dependent actions of a CompletableFuture as soon as it is
+     * completed, while later ones are still incomplete.
+     *
+     * @param cfs the CompletableFutures
+     * @param value the result value
+     * @param <T> the type of the value
+     * @return the number of CompletableFutures that this invocation
+     * caused to transition to a completed state
+     * @throws NullPointerException if the collection or any of its
+     * elements are {@code null}, in which case none are completed
+     * @since 1.8
+     */
+    public static <T> int completeAll(
+        Collection<? extends CompletableFuture<? super T>> cfs, T value) {
+        return completeAllWith(cfs, (value == null) ? NIL : value);
+    }
+
+    /**
+     * Completes each of the given CompletableFutures that is not
+     * already completed exceptionally with the given exception, and
+     * then triggers their dependent actions, as in {@link
+     * #completeAll}.
+     *
+     * @param cfs the CompletableFutures
+     * @param ex the exception
+     * @return the number of CompletableFutures that this invocation
+     * caused to transition to a completed state
+     * @throws NullPointerException if the exception, the collection
+     * or any of its elements are {@code null}, in which case none are
+     * completed
+     * @since 1.8
+     */
+    public static int completeAllExceptionally(
+        Collection<? extends CompletableFuture<?>> cfs, Throwable ex) {
+        if (ex == null) throw new NullPointerException();
+        return completeAllWith(cfs, new AltResult(ex));
+    }
+
+    /**
+     * Installs the shared encoded result r in each of cfs, detaching
+     * the whole stack of each future it completed in the same pass,
+     * then fires all detached dependents in a single sweep.
+     */
+    private static int completeAllWith(
+        Collection<? extends CompletableFuture<?>> cfs, Object r) {
+        Object[] a = cfs.toArray();
+        int n = a.length, count = 0, stacks = 0;
+        for (int i = 0; i < n; ++i) {
+            if (a[i] == null)
+                throw new NullPointerException();
+        }
+        for (int i = 0; i < n; ++i) {
+            CompletableFuture<?> f = (CompletableFuture<?>)a[i];
+            if (f.internalComplete(r)) {
+                ++count;
+                Completion h;
+                if ((h = f.popStack()) != null)
+                    a[stacks++] = h;    // compact stacks in place
+            }
+        }
+        for (int i = 0; i < stacks; ++i) {
+            Completion h = (Completion)a[i], t;
+            a[i] = null;
+            do {
+                CompletableFuture<?> d;
+                t = h.next;
+                lazySetNext(h, null);    // detach
+                if ((d = h.tryFire(NESTED)) != null)
+                    d.postComplete();
+            } while ((h = t) != null);
+        }
+        return count;
+    }
+
     public <U> CompletableFuture<U> thenApply(
         Function<? super T,? extends U> fn) {
-        return uniApplyStage(null, fn);
+        return uniApplyStage(pinned, fn);
     }
 
     public <U> CompletableFuture<U> thenApplyAsync(
         Function<? super T,? extends U> fn) {
-        return uniApplyStage(asyncPool, fn);
+        return uniApplyStage(defaultExecutor(), fn);
     }
 
     public <U> CompletableFuture<U> thenApplyAsync(
@@ -1994,11 +2256,11 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     }
 
     public CompletableFuture<Void> thenAccept(Consumer<? super T> action) {
-        return uniAcceptStage(null, action);
+        return uniAcceptStage(pinned, action);
     }
 
     public CompletableFuture<Void> thenAcceptAsync(Consumer<? super T> action) {
-        return uniAcceptStage(asyncPool, action);
+        return uniAcceptStage(defaultExecutor(), action);
     }
 
     public CompletableFuture<Void> thenAcceptAsync(Consumer<? super T> action,
@@ -2007,11 +2269,11 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     }
 
     public CompletableFuture<Void> thenRun(Runnable action) {
-        return uniRunStage(null, action);
+        return uniRunStage(pinned, action);
     }
 
     public CompletableFuture<Void> thenRunAsync(Runnable action) {
-        return uniRunStage(asyncPool, action);
+        return uniRunStage(defaultExecutor(), action);
     }
 
     public CompletableFuture<Void> thenRunAsync(Runnable action,
@@ -2022,13 +2284,13 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     public <U,V> CompletableFuture<V> thenCombine(
         CompletionStage<? extends U> other,
         BiFunction<? super T,? super U,? extends V> fn) {
-        return biApplyStage(null, other, fn);
+        return biApplyStage(pinned, other, fn);
     }
 
     public <U,V> CompletableFuture<V> thenCombineAsync(
         CompletionStage<? extends U> other,
         BiFunction<? super T,? super U,? extends V> fn) {
-        return biApplyStage(asyncPool, other, fn);
+        return biApplyStage(defaultExecutor(), other, fn);
     }
 
     public <U,V> CompletableFuture<V> thenCombineAsync(
@@ -2040,13 +2302,13 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     public <U> CompletableFuture<Void> thenAcceptBoth(
         CompletionStage<? extends U> other,
         BiConsumer<? super T, ? super U> action) {
-        return biAcceptStage(null, other, action);
+        return biAcceptStage(pinned, other, action);
     }
 
     public <U> CompletableFuture<Void> thenAcceptBothAsync(
         CompletionStage<? extends U> other,
         BiConsumer<? super T, ? super U> action) {
-        return biAcceptStage(asyncPool, other, action);
+        return biAcceptStage(defaultExecutor(), other, action);
     }
 
     public <U> CompletableFuture<Void> thenAcceptBothAsync(
@@ -2057,12 +2319,12 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
 
     public CompletableFuture<Void> runAfterBoth(CompletionStage<?> other,
                                                 Runnable action) {
-        return biRunStage(null, other, action);
+        return biRunStage(pinned, other, action);
     }
 
     public CompletableFuture<Void> runAfterBothAsync(CompletionStage<?> other,
                                                      Runnable action) {
-        return biRunStage(asyncPool, other, action);
+        return biRunStage(defaultExecutor(), other, action);
     }
 
     public CompletableFuture<Void> runAfterBothAsync(CompletionStage<?> other,
@@ -2073,12 +2335,12 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
 
     public <U> CompletableFuture<U> applyToEither(
         CompletionStage<? extends T> other, Function<? super T, U> fn) {
-        return orApplyStage(null, other, fn);
+        return orApplyStage(pinned, other, fn);
     }
 
     public <U> CompletableFuture<U> applyToEitherAsync(
         CompletionStage<? extends T> other, Function<? super T, U> fn) {
-        return orApplyStage(asyncPool, other, fn);
+        return orApplyStage(defaultExecutor(), other, fn);
     }
 
     public <U> CompletableFuture<U> applyToEitherAsync(
@@ -2089,12 +2351,12 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
 
     public CompletableFuture<Void> acceptEither(
         CompletionStage<? extends T> other, Consumer<? super T> action) {
-        return orAcceptStage(null, other, action);
+        return orAcceptStage(pinned, other, action);
     }
 
     public CompletableFuture<Void> acceptEitherAsync(
         CompletionStage<? extends T> other, Consumer<? super T> action) {
-        return orAcceptStage(asyncPool, other, action);
+        return orAcceptStage(defaultExecutor(), other, action);
     }
 
     public CompletableFuture<Void> acceptEitherAsync(
@@ -2105,12 +2367,12 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
 
     public CompletableFuture<Void> runAfterEither(CompletionStage<?> other,
                                                   Runnable action) {
-        return orRunStage(null, other, action);
+        return orRunStage(pinned, other, action);
     }
 
     public CompletableFuture<Void> runAfterEitherAsync(CompletionStage<?> other,
                                                        Runnable action) {
-        return orRunStage(asyncPool, other, action);
+        return orRunStage(defaultExecutor(), other, action);
     }
 
     public CompletableFuture<Void> runAfterEitherAsync(CompletionStage<?> other,
@@ -2121,12 +2383,12 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
 
     public <U> CompletableFuture<U> thenCompose(
         Function<? super T, ? extends CompletionStage<U>> fn) {
-        return uniComposeStage(null, fn);
+        return uniComposeStage(pinned, fn);
     }
 
     public <U> CompletableFuture<U> thenComposeAsync(
         Function<? super T, ? extends CompletionStage<U>> fn) {
-        return uniComposeStage(asyncPool, fn);
+        return uniComposeStage(defaultExecutor(), fn);
     }
 
     public <U> CompletableFuture<U> thenComposeAsync(
@@ -2137,12 +2399,12 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
 
     public CompletableFuture<T> whenComplete(
         BiConsumer<? super T, ? super Throwable> action) {
-        return uniWhenCompleteStage(null, action);
+        return uniWhenCompleteStage(pinned, action);
     }
 
     public CompletableFuture<T> whenCompleteAsync(
         BiConsumer<? super T, ? super Throwable> action) {
-        return uniWhenCompleteStage(asyncPool, action);
+        return uniWhenCompleteStage(defaultExecutor(), action);
     }
 
     public CompletableFuture<T> whenCompleteAsync(
@@ -2152,12 +2414,12 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
 
     public <U> CompletableFuture<U> handle(
         BiFunction<? super T, Throwable, ? extends U> fn) {
-        return uniHandleStage(null, fn);
+        return uniHandleStage(pinned, fn);
     }
 
     public <U> CompletableFuture<U> handleAsync(
         BiFunction<? super T, Throwable, ? extends U> fn) {
-        return uniHandleStage(asyncPool, fn);
+        return uniHandleStage(defaultExecutor(), fn);
     }
 
     public <U> CompletableFuture<U> handleAsync(
@@ -2196,6 +2458,252 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return uniExceptionallyStage(fn);
     }
 
+    /**
+     * Returns a new CompletableFuture that is completed with the same
+     * result as this CompletableFuture, and whose dependent actions
+     * are, unless otherwise specified, executed using the given
+     * Executor.  Non-async methods such as {@link #thenApply} invoked
+     * on the returned CompletableFuture, and async methods without an
+     * explicit Executor argument, use the given Executor for their
+     * actions, and the CompletableFutures they return are pinned to
+     * the same Executor in turn.  Methods with an explicit Executor
+     * argument, and {@link #exceptionally}, are not affected.
+     *
+     * <p>Each action is submitted to the Executor directly, without
+     * the intermediate task otherwise needed to hop between stages,
+     * as in {@code thenCompose(x -> supplyAsync(() -> f(x), executor))}.
+     *
+     * @param executor the executor to use for dependent actions
+     * @return the new CompletableFuture
+     * @throws NullPointerException if the executor is null
+     * @since 1.8
+     */
+    public CompletableFuture<T> pinnedTo(Executor executor) {
+        Executor e = screenExecutor(executor);
+        CompletableFuture<T> d = new CompletableFuture<T>();
+        d.pinned = e;
+        if (!d.uniRelay(this)) {
+            UniRelay<T> c = new UniRelay<T>(d, this);
+            push(c);
+            c.tryFire(SYNC);
+        }
+        return d;
+    }
+
+    /**
+     * Returns a new {@link Chain} of actions to be performed, in
+     * order, once this CompletableFuture completes.  The actions are
+     * performed by the thread that completes this CompletableFuture,
+     * or, if it is already complete, by the caller as each action is
+     * added, unless this CompletableFuture is {@linkplain #pinnedTo
+     * pinned} to an executor, in which case that executor is used.
+     *
+     * @return the new Chain
+     * @since 1.8
+     */
+    public Chain<T> chain() {
+        return new Chain<T>(this, pinned);
+    }
+
+    /**
+     * Returns a new {@link Chain} of actions to be performed, in
+     * order, in a single task using this CompletableFuture's default
+     * asynchronous execution facility once this CompletableFuture
+     * completes.
+     *
+     * @return the new Chain
+     * @since 1.8
+     */
+    public Chain<T> chainAsync() {
+        return new Chain<T>(this, defaultExecutor());
+    }
+
+    /**
+     * Returns a new {@link Chain} of actions to be performed, in
+     * order, in a single task using the given Executor once this
+     * CompletableFuture completes.
+     *
+     * @param executor the executor to use for asynchronous execution
+     * @return the new Chain
+     * @throws NullPointerException if the executor is null
+     * @since 1.8
+     */
+    public Chain<T> chainAsync(Executor executor) {
+        return new Chain<T>(this, screenExecutor(executor));
+    }
+
+    /**
+     * A builder for a linear sequence of one-input stages that are
+     * performed as a single dependent action.  Method calls on a
+     * Chain have the same meaning as the corresponding methods of
+     * {@link CompletableFuture}, but the intermediate stages are not
+     * materialized: however long the sequence, {@link
+     * #toCompletableFuture} registers one completion with the source
+     * and creates one CompletableFuture holding the outcome of the
+     * last action.  For example, instead of
+     *
+     * <pre> {@code
+     * f.thenApply(this::parse).thenApply(this::validate)
+     *  .exceptionally(this::fallback).thenAccept(this::send);}</pre>
+     *
+     * which allocates four completions and four futures, use
+     *
+     * <pre> {@code
+     * f.chain().thenApply(this::parse).thenApply(this::validate)
+     *  .exceptionally(this::fallback).thenAccept(this::send)
+     *  .toCompletableFuture();}</pre>
+     *
+     * <p>Because intermediate stages do not exist, other actions
+     * cannot be attached to them, and if the chain is performed
+     * asynchronously, all of its actions run in the same task.
+     * Chains are not thread-safe, and each may be converted only
+     * once.
+     *
+     * @param <T> the type of the result of the last action so far
+     * @since 1.8
+     */
+    public static final class Chain<T> {
+        // Action kinds
+        static final byte APPLY         = 0;
+        static final byte ACCEPT        = 1;
+        static final byte RUN           = 2;
+        static final byte HANDLE        = 3;
+        static final byte WHEN_COMPLETE = 4;
+        static final byte EXCEPTIONALLY = 5;
+
+        private CompletableFuture<?> src; // null after conversion
+        private final Executor executor;
+        private Object outcome;           // encoded result if run eagerly
+        private Object[] fns;             // else deferred actions
+        private byte[] kinds;
+        private int n;
+
+        /*
+         * If the source is already complete and no executor is used,
+         * each action is run as soon as it is added, exactly as the
+         * corresponding CompletableFuture method would do, and only
+         * the encoded outcome so far is kept.
+         */
+        Chain(CompletableFuture<?> src, Executor executor) {
+            this.src = src;
+            this.executor = executor;
+            if (executor == null && (outcome = src.result) != null)
+                return;
+            this.fns = new Object[8];
+            this.kinds = new byte[8];
+        }
+
+        @SuppressWarnings("unchecked")
+        private <U> Chain<U> add(byte kind, Object fn) {
+            if (fn == null) throw new NullPointerException();
+            if (src == null) throw new IllegalStateException();
+            Object r;
+            if ((r = outcome) != null)
+                outcome = runAction(r, fn, kind);
+            else {
+                int i = n;
+                if (i == fns.length) {
+                    fns = Arrays.copyOf(fns, i << 1);
+                    kinds = Arrays.copyOf(kinds, i << 1);
+                }
+                fns[i] = fn;
+                kinds[i] = kind;
+                n = i + 1;
+            }
+            return (Chain<U>)this;
+        }
+
+        /**
+         * Appends an action with the effect of {@link
+         * CompletableFuture#thenApply}.
+         *
+         * @param fn the function to use to compute the next value
+         * @param <U> the function's return type
+         * @return this Chain
+         */
+        public <U> Chain<U> thenApply(Function<? super T,? extends U> fn) {
+            return add(APPLY, fn);
+        }
+
+        /**
+         * Appends an action with the effect of {@link
+         * CompletableFuture#thenAccept}.
+         *
+         * @param action the action to perform
+         * @return this Chain
+         */
+        public Chain<Void> thenAccept(Consumer<? super T> action) {
+            return add(ACCEPT, action);
+        }
+
+        /**
+         * Appends an action with the effect of {@link
+         * CompletableFuture#thenRun}.
+         *
+         * @param action the action to perform
+         * @return this Chain
+         */
+        public Chain<Void> thenRun(Runnable action) {
+            return add(RUN, action);
+        }
+
+        /**
+         * Appends an action with the effect of {@link
+         * CompletableFuture#handle}.
+         *
+         * @param fn the function to use to compute the next value
+         * @param <U> the function's return type
+         * @return this Chain
+         */
+        public <U> Chain<U> handle(
+            BiFunction<? super T, Throwable, ? extends U> fn) {
+            return add(HANDLE, fn);
+        }
+
+        /**
+         * Appends an action with the effect of {@link
+         * CompletableFuture#whenComplete}.
+         *
+         * @param action the action to perform
+         * @return this Chain
+         */
+        public Chain<T> whenComplete(
+            BiConsumer<? super T, ? super Throwable> action) {
+            return add(WHEN_COMPLETE, action);
+        }
+
+        /**
+         * Appends an action with the effect of {@link
+         * CompletableFuture#exceptionally}.
+         *
+         * @param fn the function to use to compute the next value if
+         * the previous action completed exceptionally
+         * @return this Chain
+         */
+        public Chain<T> exceptionally(Function<Throwable, ? extends T> fn) {
+            return add(EXCEPTIONALLY, fn);
+        }
+
+        /**
+         * Registers the actions of this Chain with its source and
+         * returns a new CompletableFuture that is completed with the
+         * outcome of the last action.  The returned CompletableFuture
+         * is pinned to the same executor as the source, if any.
+         *
+         * @return the new CompletableFuture
+         * @throws IllegalStateException if already converted
+         */
+        public CompletableFuture<T> toCompletableFuture() {
+            CompletableFuture<?> a;
+            if ((a = src) == null) throw new IllegalStateException();
+            src = null;
+            Object r;
+            if ((r = outcome) != null)
+                return a.newDependent(r);
+            return a.uniChainStage(executor, fns, kinds, n);
+        }
+    }
+
     /* ------------- Arbitrary-arity constructions -------------- */
 
     /**
@@ -0,0 +1,1088 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} backed by an
+ * array, in which insertion and removal are lock-free.  This queue
+ * orders elements FIFO (first-in-first-out), as {@link
+ * ArrayBlockingQueue} does, and supports all of its operations.
+ *
+ * <p>{@code ArrayBlockingQueue} guards every operation with one lock,
+ * so producers and consumers all serialize on it.  In this class each
+ * array slot instead carries a sequence number recording whether it
+ * is ready to be filled or emptied on the current pass around the
+ * array.  A producer claims a slot by advancing the tail counter with
+ * a single compare-and-set, and publishes its element with an ordered
+ * write of the slot's sequence.  Consumers do the same with the head
+ * counter.  Producers and consumers therefore only contend with each
+ * other on a slot when the queue is nearly empty or nearly full.  The
+ * head and tail counters sit in separate cache lines.
+ *
+ * <p>Threads block only when the queue is empty (for {@code take}) or
+ * full (for {@code put}).  They spin briefly, then park with {@link
+ * LockSupport}.  A successful insertion or removal wakes one parked
+ * thread of the other kind, and costs a single volatile read when no
+ * thread is parked.
+ *
+ * <p>A queue may be created for a single producer, a single consumer,
+ * or both, using {@link #ConcurrentArrayBlockingQueue(int, boolean,
+ * boolean)}.  The single side then updates its counter with a plain
+ * ordered write instead of a compare-and-set.  The caller guarantees
+ * that at most one thread at a time performs operations of that kind.
+ * For the consumer side these are all operations that remove
+ * elements, including {@link #remove(Object)}, {@link #drainTo}, {@link
+ * #clear} and {@link Iterator#remove}.  The queue's behavior is
+ * undefined if the guarantee is broken.
+ *
+ * <p>{@link #drainTo(Collection, int)} claims runs of up to 256 ready
+ * elements with a single update of the head counter.
+ *
+ * <p>Removing an element from the interior of the queue, with {@link
+ * #remove(Object)} or an iterator, moves the elements ahead of it one
+ * slot towards the tail, so its slot is immediately available to
+ * producers.  Iterators are <a href="package-summary.html#Weakly"><i>weakly
+ * consistent</i></a>.
+ *
+ * <p>This class and its iterator implement all of the
+ * <em>optional</em> methods of the {@link Collection} and {@link
+ * Iterator} interfaces.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @see ArrayBlockingQueue
+ * @since 1.8
+ * @param <E> the type of elements held in this collection
+ */
+public class ConcurrentArrayBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E>, java.io.Serializable {
+    private static final long serialVersionUID = -6903933977591709196L;
+
+    /*
+     * The ring follows Vyukov's bounded MPMC queue.  Positions are
+     * unbounded longs; position p maps to slot index(p).  Slot i holds
+     * a sequence that is
+     *
+     *   2p      when the slot is empty and may be filled at position p,
+     *   2p + 1  when it holds the element inserted at position p,
+     *   ~(2p+1) (negative) while a remover holds it locked.
+     *
+     * (Doubling keeps "full at p" distinct from "empty at p + 1" when
+     * the capacity is one.)  A producer reads tail t; if the slot's
+     * sequence is 2t it claims the position by CASing tail to t + 1,
+     * stores the element, then writes the sequence 2t + 1.  A smaller
+     * sequence means the slot is still full from the previous pass, so
+     * the queue is full.  A consumer reads head h; if the sequence is
+     * 2h + 1 it CASes head, takes the element, and writes the sequence
+     * 2(h + capacity), freeing the slot for the next pass.  A single
+     * producer or consumer skips the CAS and writes its counter
+     * directly.
+     *
+     * Interior removal must not race with a consumer that has already
+     * claimed the same position.  A remover locks the slot by CASing
+     * its sequence from 2p + 1 to ~(2p + 1), and only then reads head: if
+     * head has passed p the slot belongs to a consumer and is left
+     * alone.  A multi-consumer, after CASing head, rereads the sequence
+     * and waits while it is locked.  The CAS on each side precedes the
+     * read of the other's variable, so at least one side sees the
+     * other.  A single consumer performs all removals itself and needs
+     * no such check.
+     *
+     * The removed element leaves a hole, which the remover moves down
+     * to the head so that the slot can be reused at once: holding the
+     * hole locked, it locks the slot below in the same way, moves that
+     * element up into the hole and unlocks the hole, continuing until
+     * the slot below has been claimed by a consumer.  Locks are only
+     * ever waited for while holding another in descending order of
+     * position, so removers cannot deadlock.  At the head, the remover
+     * advances head past the hole itself, freeing the slot as a
+     * consumer would.  If a consumer has already claimed the hole, the
+     * remover instead leaves the REMOVED marker there for it to
+     * discard; the removed count keeps size() exact meanwhile.  Each
+     * removal increments the shifts count, telling iterators that
+     * elements may have moved up.
+     *
+     * Blocked threads wait on one of two Treiber stacks of WaitNodes.
+     * A waiting taker pushes its node, then rereads head and tail, and
+     * parks only if they are equal.  A producer CASes tail (or, for a
+     * single producer, writes it with a volatile write) before it
+     * checks the stack of takers.  Whichever side goes second sees the
+     * other, so no wakeup is lost.  Rereading the counters rather than
+     * the slot sequences handles a producer that has claimed a
+     * position but not yet published its element.  Signallers pop one
+     * node and claim it by CASing its thread field to null; a waiter
+     * cancels by doing the same.  A waiter whose node was claimed
+     * passes the signal on if it leaves without using it.  Cancelled
+     * nodes are unlinked as in SynchronousQueue.TransferStack.clean.
+     * Putters wait symmetrically for head to move.
+     */
+
+    /** Marker left in the slot of an element removed from the interior */
+    static final Object REMOVED = new Object();
+
+    /** The number of CPUs, for spin control */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** Number of polls to make before enqueuing a waiter and parking */
+    static final int SPINS = (NCPU > 1) ? 128 : 0;
+
+    /** The maximum number of elements claimed in one drainTo step */
+    static final int DRAIN_BATCH = 256;
+
+    /**
+     * The capacity of the queue.
+     * @serial
+     */
+    final int capacity;
+
+    /**
+     * Whether at most one thread inserts at a time.
+     * @serial
+     */
+    final boolean singleProducer;
+
+    /**
+     * Whether at most one thread removes at a time.
+     * @serial
+     */
+    final boolean singleConsumer;
+
+    /** The queued items */
+    transient Object[] items;
+
+    /** The slot sequences */
+    transient long[] sequences;
+
+    /** capacity - 1 if capacity is a power of two, else -1 */
+    transient int mask;
+
+    /** The position of the next element to remove */
+    @sun.misc.Contended("head") transient volatile long head;
+
+    /** The position of the next element to insert */
+    @sun.misc.Contended("tail") transient volatile long tail;
+
+    /** The number of REMOVED markers in the queue */
+    transient volatile long removed;
+
+    /** The number of interior removals, which move elements up */
+    transient volatile long shifts;
+
+    /** Stack of threads waiting to take */
+    @sun.misc.Contended("takers") transient volatile WaitNode takers;
+
+    /** Stack of threads waiting to put */
+    @sun.misc.Contended("putters") transient volatile WaitNode putters;
+
+    /** A parked thread. */
+    static final class WaitNode {
+        volatile Thread thread;
+        volatile WaitNode next;
+        WaitNode(Thread thread) { this.thread = thread; }
+
+        /** Claims this node for a signaller or for cancellation. */
+        boolean tryClaim() {
+            Thread t = thread;
+            return t != null && U.compareAndSwapObject(this, THREAD, t, null);
+        }
+
+        boolean casNext(WaitNode cmp, WaitNode val) {
+            return U.compareAndSwapObject(this, NEXT, cmp, val);
+        }
+
+        private static final sun.misc.Unsafe U;
+        private static final long THREAD;
+        private static final long NEXT;
+        static {
+            try {
+                U = sun.misc.Unsafe.getUnsafe();
+                Class<?> k = WaitNode.class;
+                THREAD = U.objectFieldOffset(k.getDeclaredField("thread"));
+                NEXT = U.objectFieldOffset(k.getDeclaredField("next"));
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    /**
+     * Creates a {@code ConcurrentArrayBlockingQueue} with the given
+     * (fixed) capacity, for any number of producers and consumers.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity < 1}
+     */
+    public ConcurrentArrayBlockingQueue(int capacity) {
+        this(capacity, false, false);
+    }
+
+    /**
+     * Creates a {@code ConcurrentArrayBlockingQueue} with the given
+     * (fixed) capacity, specialized for a single producer, a single
+     * consumer, or both.
+     *
+     * @param capacity the capacity of this queue
+     * @param singleProducer if {@code true}, at most one thread at a
+     *        time inserts elements
+     * @param singleConsumer if {@code true}, at most one thread at a
+     *        time removes elements
+     * @throws IllegalArgumentException if {@code capacity < 1}
+     */
+    public ConcurrentArrayBlockingQueue(int capacity, boolean singleProducer,
+                                        boolean singleConsumer) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException();
+        this.capacity = capacity;
+        this.singleProducer = singleProducer;
+        this.singleConsumer = singleConsumer;
+        initSlots();
+    }
+
+    /**
+     * Creates a {@code ConcurrentArrayBlockingQueue} with the given
+     * (fixed) capacity, initially containing the elements of the given
+     * collection, added in traversal order of the collection's
+     * iterator.
+     *
+     * @param capacity the capacity of this queue
+     * @param c the collection of elements to initially contain
+     * @throws IllegalArgumentException if {@code capacity} is less than
+     *         {@code c.size()}, or less than 1.
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements are null
+     */
+    public ConcurrentArrayBlockingQueue(int capacity,
+                                        Collection<? extends E> c) {
+        this(capacity, false, false);
+        for (E e : c) {
+            if (!offer(e))
+                throw new IllegalArgumentException();
+        }
+    }
+
+    private void initSlots() {
+        int n = capacity;
+        items = new Object[n];
+        long[] seqs = new long[n];
+        for (int i = 0; i < n; ++i)
+            seqs[i] = (long)i << 1;
+        sequences = seqs;
+        mask = ((n & (n - 1)) == 0) ? n - 1 : -1;
+    }
+
+    /** Returns the slot index of position p. */
+    final int index(long p) {
+        int m = mask;
+        return (m >= 0) ? (int)p & m : (int)(p % capacity);
+    }
+
+    private static long seqOffset(int i) {
+        return ((long)i << SSHIFT) + SBASE;
+    }
+
+    /* ---------------- Insertion and removal -------------- */
+
+    /**
+     * Inserts e if there is room.  Returns false if the queue is full.
+     */
+    private boolean enqueue(Object e) {
+        long[] seqs = sequences;
+        if (singleProducer) {
+            long t = tail;
+            int i = index(t);
+            long off = seqOffset(i);
+            long s;
+            while ((s = U.getLongVolatile(seqs, off)) < 0L)
+                Thread.yield();         // locked by a remover
+            if (s != t << 1)
+                return false;
+            items[i] = e;
+            U.putOrderedLong(seqs, off, (t << 1) + 1L);
+            tail = t + 1L;              // volatile write; see above
+            return true;
+        }
+        for (;;) {
+            long t = tail;
+            int i = index(t);
+            long off = seqOffset(i);
+            long s = U.getLongVolatile(seqs, off);
+            if (s == t << 1) {
+                if (U.compareAndSwapLong(this, TAIL, t, t + 1L)) {
+                    items[i] = e;
+                    U.putOrderedLong(seqs, off, (t << 1) + 1L);
+                    return true;
+                }
+            }
+            else if (s < 0L)
+                Thread.yield();         // locked by a remover
+            else if (s < t << 1)
+                return false;           // full from the previous pass
+        }
+    }
+
+    /**
+     * Removes and returns the head element, or null if the queue is
+     * empty or its head element is not yet published.
+     */
+    private Object dequeue() {
+        long[] seqs = sequences;
+        Object[] a = items;
+        int n = capacity;
+        if (singleConsumer) {
+            for (;;) {
+                long h = head;
+                int i = index(h);
+                long off = seqOffset(i);
+                if (U.getLongVolatile(seqs, off) != (h << 1) + 1L)
+                    return null;
+                Object x = a[i];
+                a[i] = null;
+                U.putOrderedLong(seqs, off, (h + n) << 1);
+                head = h + 1L;          // volatile write; see above
+                if (x != REMOVED)
+                    return x;
+                U.getAndAddLong(this, REMOVEDCOUNT, -1L);
+            }
+        }
+        for (;;) {
+            long h = head;
+            int i = index(h);
+            long off = seqOffset(i);
+            long s = U.getLongVolatile(seqs, off);
+            if (s == (h << 1) + 1L) {
+                if (U.compareAndSwapLong(this, HEAD, h, h + 1L)) {
+                    while (U.getLongVolatile(seqs, off) < 0L)
+                        Thread.yield(); // wait out a concurrent remover
+                    Object x = a[i];
+                    a[i] = null;
+                    U.putOrderedLong(seqs, off, (h + n) << 1);
+                    if (x != REMOVED)
+                        return x;
+                    U.getAndAddLong(this, REMOVEDCOUNT, -1L);
+                }
+            }
+            else if (s < 0L)
+                Thread.yield();
+            else if (s < (h << 1) + 1L)
+                return null;
+        }
+    }
+
+    /**
+     * Returns the element at position p, or null if the slot does not
+     * currently hold position p.  Does not remove it.
+     */
+    final Object itemAt(long p) {
+        long[] seqs = sequences;
+        int i = index(p);
+        long off = seqOffset(i);
+        long s;
+        while ((s = U.getLongVolatile(seqs, off)) < 0L)
+            Thread.yield();
+        if (s != (p << 1) + 1L)
+            return null;
+        Object x = U.getObjectVolatile(items, ((long)i << ASHIFT) + ABASE);
+        return (U.getLongVolatile(seqs, off) == (p << 1) + 1L) ? x : null;
+    }
+
+    /**
+     * Removes the element at position p if it is still there and is o
+     * (if identity) or equals o, moving the elements ahead of it one
+     * position up and freeing the slot at the head.
+     */
+    final boolean removeAt(long p, Object o, boolean identity) {
+        long[] seqs = sequences;
+        Object[] a = items;
+        int i = index(p);
+        long off = seqOffset(i);
+        long s = (p << 1) + 1L;
+        if (!U.compareAndSwapLong(seqs, off, s, ~s))
+            return false;
+        Object x;
+        if (head > p || (x = a[i]) == null || x == REMOVED ||
+            (x != o && (identity || !o.equals(x)))) {
+            U.putLongVolatile(seqs, off, s);
+            return false;
+        }
+        U.getAndAddLong(this, SHIFTS, 1L);
+        for (long q; (q = p - 1L) >= head; ) {
+            int j = index(q);
+            long qoff = seqOffset(j);
+            long qs = (q << 1) + 1L;
+            if (!U.compareAndSwapLong(seqs, qoff, qs, ~qs)) {
+                long cs = U.getLongVolatile(seqs, qoff);
+                if (cs < 0L || cs == q << 1) {
+                    Thread.yield();     // locked, or not yet published
+                    continue;
+                }
+                break;                  // taken by a consumer
+            }
+            if (head > q) {             // claimed by a consumer
+                U.putLongVolatile(seqs, qoff, qs);
+                break;
+            }
+            a[i] = a[j];
+            U.putLongVolatile(seqs, off, s);
+            p = q;
+            i = j;
+            off = qoff;
+            s = qs;
+        }
+        if (singleConsumer ||
+            (head == p && U.compareAndSwapLong(this, HEAD, p, p + 1L))) {
+            a[i] = null;
+            U.putOrderedLong(seqs, off, (p + capacity) << 1);
+            if (singleConsumer)
+                head = p + 1L;
+            signalPutters();
+        } else {
+            a[i] = REMOVED;             // a consumer has claimed the hole
+            U.getAndAddLong(this, REMOVEDCOUNT, 1L);
+            U.putLongVolatile(seqs, off, s);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the first position at or after p holding x, or -1.
+     */
+    final long positionOf(long p, Object x) {
+        long h = head;
+        if (p < h)
+            p = h;
+        for (long t = tail; p < t; ++p) {
+            if (itemAt(p) == x)
+                return p;
+        }
+        return -1L;
+    }
+
+    /* ---------------- Waiting -------------- */
+
+    /**
+     * Pops and wakes one live waiter from the stack at the given
+     * offset.
+     */
+    private void signal(long stackOffset) {
+        WaitNode h;
+        while ((h = (WaitNode)U.getObjectVolatile(this, stackOffset)) != null) {
+            if (U.compareAndSwapObject(this, stackOffset, h, h.next)) {
+                Thread t = h.thread;
+                if (h.tryClaim()) {
+                    LockSupport.unpark(t);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void signalTakers() {
+        if (takers != null)
+            signal(TAKERS);
+    }
+
+    private void signalPutters() {
+        if (putters != null)
+            signal(PUTTERS);
+    }
+
+    /**
+     * Unlinks cancelled nodes from the top of the stack through node s,
+     * which has been cancelled.
+     */
+    private void clean(long stackOffset, WaitNode s) {
+        WaitNode past = s.next;
+        if (past != null && past.thread == null)
+            past = past.next;
+        WaitNode p;
+        while ((p = (WaitNode)U.getObjectVolatile(this, stackOffset)) != null &&
+               p != past && p.thread == null)
+            U.compareAndSwapObject(this, stackOffset, p, p.next);
+        while (p != null && p != past) {
+            WaitNode n = p.next;
+            if (n != null && n.thread == null)
+                p.casNext(n, n.next);
+            else
+                p = n;
+        }
+    }
+
+    private void push(long stackOffset, WaitNode node) {
+        WaitNode h;
+        do {
+            h = (WaitNode)U.getObjectVolatile(this, stackOffset);
+            node.next = h;
+        } while (!U.compareAndSwapObject(this, stackOffset, h, node));
+    }
+
+    /**
+     * Leaves a wait: cancels the node if it is still live, or passes
+     * a consumed signal on if the queue can still satisfy another
+     * waiter of the same kind.
+     */
+    private void leave(WaitNode node, boolean taker) {
+        if (node == null)
+            return;
+        if (node.tryClaim())
+            clean(taker ? TAKERS : PUTTERS, node);
+        else if (taker ? head != tail : tail - head < capacity)
+            signal(taker ? TAKERS : PUTTERS);
+    }
+
+    /**
+     * Slow path of take and timed poll.
+     *
+     * @return the element, or null on timeout
+     */
+    private Object awaitTake(boolean timed, long nanos)
+        throws InterruptedException {
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        int spins = SPINS;
+        WaitNode node = null;
+        try {
+            for (;;) {
+                Object x = dequeue();
+                if (x != null) {
+                    signalPutters();
+                    if (head != tail)
+                        signalTakers(); // pass on a possibly consumed signal
+                    return x;
+                }
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                if (timed && (nanos = deadline - System.nanoTime()) <= 0L)
+                    return null;
+                if (spins > 0)
+                    --spins;
+                else if (node == null)
+                    push(TAKERS, node = new WaitNode(Thread.currentThread()));
+                else if (node.thread == null)
+                    node = null;        // signalled; retry, then requeue
+                else if (head != tail)
+                    Thread.yield();     // an insertion is in progress
+                else if (timed)
+                    LockSupport.parkNanos(this, nanos);
+                else
+                    LockSupport.park(this);
+            }
+        } finally {
+            leave(node, true);
+        }
+    }
+
+    /**
+     * Slow path of put and timed offer.
+     *
+     * @return true if inserted, false on timeout
+     */
+    private boolean awaitPut(Object e, boolean timed, long nanos)
+        throws InterruptedException {
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        int spins = SPINS;
+        WaitNode node = null;
+        try {
+            for (;;) {
+                if (enqueue(e)) {
+                    signalTakers();
+                    if (tail - head < capacity)
+                        signalPutters();
+                    return true;
+                }
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                if (timed && (nanos = deadline - System.nanoTime()) <= 0L)
+                    return false;
+                if (spins > 0)
+                    --spins;
+                else if (node == null)
+                    push(PUTTERS, node = new WaitNode(Thread.currentThread()));
+                else if (node.thread == null)
+                    node = null;
+                else if (tail - head < capacity)
+                    Thread.yield();     // a removal is in progress
+                else if (timed)
+                    LockSupport.parkNanos(this, nanos);
+                else
+                    LockSupport.park(this);
+            }
+        } finally {
+            leave(node, false);
+        }
+    }
+
+    /* ---------------- Queue operations -------------- */
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so immediately without exceeding the queue's capacity,
+     * returning {@code true} upon success and throwing an
+     * {@code IllegalStateException} if this queue is full.
+     *
+     * @param e the element to add
+     * @return {@code true} (as specified by {@link Collection#add})
+     * @throws IllegalStateException if this queue is full
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean add(E e) {
+        return super.add(e);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so immediately without exceeding the queue's capacity,
+     * returning {@code true} upon success and {@code false} if this queue
+     * is full.  This method is generally preferable to method {@link #add},
+     * which can fail to insert an element only by throwing an exception.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null) throw new NullPointerException();
+        if (!enqueue(e))
+            return false;
+        signalTakers();
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * for space to become available if the queue is full.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        if (e == null) throw new NullPointerException();
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        if (enqueue(e))
+            signalTakers();
+        else
+            awaitPut(e, false, 0L);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * up to the specified wait time for space to become available if
+     * the queue is full.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (e == null) throw new NullPointerException();
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        if (enqueue(e)) {
+            signalTakers();
+            return true;
+        }
+        return awaitPut(e, true, unit.toNanos(timeout));
+    }
+
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        Object x = dequeue();
+        if (x != null)
+            signalPutters();
+        return (E)x;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E take() throws InterruptedException {
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        Object x = dequeue();
+        if (x != null) {
+            signalPutters();
+            return (E)x;
+        }
+        return (E)awaitTake(false, 0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        Object x = dequeue();
+        if (x != null) {
+            signalPutters();
+            return (E)x;
+        }
+        return (E)awaitTake(true, unit.toNanos(timeout));
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        for (;;) {
+            long h = head, t = tail;
+            long p = h;
+            Object x = null;
+            for (; p < t; ++p) {
+                if ((x = itemAt(p)) != REMOVED)
+                    break;
+            }
+            if (p >= t)
+                return null;
+            if (x != null)
+                return (E)x;
+            if (head == h)
+                return null;            // not yet published
+        }
+    }
+
+    // this doc comment is overridden to remove the reference to collections
+    // greater in size than Integer.MAX_VALUE
+    /**
+     * Returns the number of elements in this queue.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        for (;;) {
+            long h = head, t = tail, r = removed;
+            if (head == h) {
+                long n = t - h - r;
+                return (n <= 0L) ? 0 : (n >= capacity) ? capacity : (int)n;
+            }
+        }
+    }
+
+    // this doc comment is a modified copy of the inherited doc comment,
+    // without the reference to unlimited queues.
+    /**
+     * Returns the number of additional elements that this queue can ideally
+     * (in the absence of memory or resource constraints) accept without
+     * blocking.  This is always equal to the initial capacity of this queue
+     * less the current {@code size} of this queue.
+     *
+     * <p>Note that you <em>cannot</em> always tell if an attempt to insert
+     * an element will succeed by inspecting {@code remainingCapacity}
+     * because it may be the case that another thread is about to
+     * insert or remove an element.
+     */
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    /**
+     * Returns the capacity this queue was created with.
+     *
+     * @return the capacity of this queue
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes a single instance of the specified element from this queue,
+     * if it is present.  More formally, removes an element {@code e} such
+     * that {@code o.equals(e)}, if this queue contains one or more such
+     * elements.
+     * Returns {@code true} if this queue contained the specified element
+     * (or equivalently, if this queue changed as a result of the call).
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        if (o == null) return false;
+        for (long p = head, t = tail; p < t; ++p) {
+            Object x = itemAt(p);
+            if (x != null && x != REMOVED && o.equals(x) &&
+                removeAt(p, x, true))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if this queue contains the specified element.
+     * More formally, returns {@code true} if and only if this queue contains
+     * at least one element {@code e} such that {@code o.equals(e)}.
+     *
+     * @param o object to be checked for containment in this queue
+     * @return {@code true} if this queue contains the specified element
+     */
+    public boolean contains(Object o) {
+        if (o == null) return false;
+        for (long p = head, t = tail; p < t; ++p) {
+            Object x = itemAt(p);
+            if (x != null && x != REMOVED && o.equals(x))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Atomically removes all of the elements from this queue.
+     * The queue will be empty after this call returns, unless elements
+     * are inserted concurrently.
+     */
+    public void clear() {
+        while (dequeue() != null)
+            ;
+        signalPutters();
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes at most the given number of available elements from this
+     * queue and adds them to the given collection.  Runs of ready
+     * elements are claimed with a single update of the head counter.
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        if (maxElements <= 0)
+            return 0;
+        long[] seqs = sequences;
+        Object[] a = items;
+        int n = capacity, drained = 0;
+        Object[] buf = null;
+        while (drained < maxElements) {
+            long h = head;
+            int limit = Math.min(maxElements - drained, DRAIN_BATCH), k = 0;
+            while (k < limit &&
+                   U.getLongVolatile(seqs, seqOffset(index(h + k))) ==
+                   ((h + k) << 1) + 1L)
+                ++k;
+            if (k == 0) {
+                long s = U.getLongVolatile(seqs, seqOffset(index(h)));
+                if (s < 0L) {
+                    Thread.yield();
+                    continue;
+                }
+                if (s == (h << 1) + 1L || head != h)
+                    continue;
+                break;
+            }
+            if (!singleConsumer &&
+                !U.compareAndSwapLong(this, HEAD, h, h + k))
+                continue;
+            if (buf == null)
+                buf = new Object[Math.min(maxElements, DRAIN_BATCH)];
+            int m = 0;
+            long r = 0L;
+            for (int j = 0; j < k; ++j) {
+                int i = index(h + j);
+                long off = seqOffset(i);
+                if (!singleConsumer) {
+                    while (U.getLongVolatile(seqs, off) < 0L)
+                        Thread.yield();
+                }
+                Object x = a[i];
+                a[i] = null;
+                U.putOrderedLong(seqs, off, (h + j + n) << 1);
+                if (x == REMOVED)
+                    --r;
+                else
+                    buf[m++] = x;
+            }
+            if (singleConsumer)
+                head = h + k;
+            if (r != 0L)
+                U.getAndAddLong(this, REMOVEDCOUNT, r);
+            signalPutters();
+            for (int j = 0; j < m; ++j) {
+                Object x = buf[j];
+                buf[j] = null;
+                c.add((E)x);
+                ++drained;
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Returns an iterator over the elements in this queue in proper sequence.
+     * The elements will be returned in order from first (head) to last (tail).
+     *
+     * <p>The returned iterator is
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return an iterator over the elements in this queue in proper sequence
+     */
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    final class Itr implements Iterator<E> {
+        /** Position of the next element to return, if nextItem != null */
+        private long nextPos;
+        private Object nextItem;
+        /** Position and element last returned, for remove */
+        private long lastPos = -1L;
+        private Object lastItem;
+        /** The shifts count when nextPos was found */
+        private long expectedShifts;
+
+        Itr() {
+            advance(head);
+        }
+
+        /** Finds the first present element at or after position p. */
+        private void advance(long p) {
+            expectedShifts = shifts;
+            long h = head;
+            if (p < h)
+                p = h;
+            for (long t = tail; p < t; ++p) {
+                Object x = itemAt(p);
+                if (x != null && x != REMOVED) {
+                    nextPos = p;
+                    nextItem = x;
+                    return;
+                }
+            }
+            nextItem = null;
+        }
+
+        public boolean hasNext() {
+            return nextItem != null;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            Object x = nextItem;
+            if (x == null)
+                throw new NoSuchElementException();
+            long p = nextPos;
+            if (shifts != expectedShifts) {
+                // removals may have moved x up; continue after it
+                long q = positionOf(p, x);
+                if (q >= 0L)
+                    p = q;
+            }
+            lastPos = p;
+            lastItem = x;
+            advance(p + 1L);
+            return (E)x;
+        }
+
+        public void remove() {
+            Object x = lastItem;
+            if (x == null)
+                throw new IllegalStateException();
+            lastItem = null;
+            long p = lastPos;
+            if (!removeAt(p, x, true) && (p = positionOf(p, x)) >= 0L)
+                removeAt(p, x, true);
+        }
+    }
+
+    /**
+     * Saves this queue to a stream (that is, serializes it).
+     *
+     * @serialData The capacity and specialization flags, followed by
+     * the elements in order (each an {@code Object}), followed by null
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException {
+        s.defaultWriteObject();
+        for (E e : this)
+            s.writeObject(e);
+        s.writeObject(null);
+    }
+
+    /**
+     * Reconstitutes this queue from a stream (that is, deserializes it).
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (capacity <= 0)
+            throw new java.io.InvalidObjectException("Illegal capacity");
+        initSlots();
+        for (Object e; (e = s.readObject()) != null; ) {
+            if (!enqueue(e))
+                throw new java.io.InvalidObjectException("Too many elements");
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long HEAD;
+    private static final long TAIL;
+    private static final long REMOVEDCOUNT;
+    private static final long SHIFTS;
+    private static final long TAKERS;
+    private static final long PUTTERS;
+    private static final long SBASE;
+    private static final int SSHIFT;
+    private static final long ABASE;
+    private static final int ASHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = ConcurrentArrayBlockingQueue.class;
+            HEAD = U.objectFieldOffset(k.getDeclaredField("head"));
+            TAIL = U.objectFieldOffset(k.getDeclaredField("tail"));
+            REMOVEDCOUNT = U.objectFieldOffset(k.getDeclaredField("removed"));
+            SHIFTS = U.objectFieldOffset(k.getDeclaredField("shifts"));
+            TAKERS = U.objectFieldOffset(k.getDeclaredField("takers"));
+            PUTTERS = U.objectFieldOffset(k.getDeclaredField("putters"));
+            SBASE = U.arrayBaseOffset(long[].class);
+            int scale = U.arrayIndexScale(long[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            SSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            ABASE = U.arrayBaseOffset(Object[].class);
+            scale = U.arrayIndexScale(Object[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
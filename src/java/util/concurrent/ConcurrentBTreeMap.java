@@ -0,0 +1,2079 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent {@link ConcurrentNavigableMap} implemented as a B+tree with
+ * wide nodes.  The map is sorted according to the {@linkplain Comparable
+ * natural ordering} of its keys, or by a {@link Comparator} provided at map
+ * creation time, depending on which constructor is used.
+ *
+ * <p>Where {@link ConcurrentSkipListMap} allocates a node, and on average
+ * a third of an index node, per mapping, this class stores up to 64
+ * mappings per leaf in a pair of key and value arrays, and searches them
+ * by binary search.  The tree is rarely more than four or five levels
+ * deep, so a lookup touches a handful of contiguous arrays, and a range
+ * scan reads whole leaves at a time.  This makes it considerably more
+ * compact than a skip list and faster for {@code subMap} iteration, at the
+ * cost of occasional contention when many threads insert into the same
+ * leaf.
+ *
+ * <p>Concurrency control uses <em>optimistic lock coupling</em>.  Every
+ * node carries a version that writers increment when they lock and
+ * unlock it, in the manner of a {@link java.util.concurrent.locks.StampedLock}
+ * write lock.  Readers never write shared memory: they descend from the
+ * root reading each node optimistically and validate its version before
+ * trusting what they read, restarting from the root if validation fails.
+ * Writers descend the same way and lock only the leaf they modify, plus
+ * its parent when the leaf must be split.  Inner nodes are split eagerly
+ * on the way down, so a split never propagates upwards.  Leaves that
+ * become empty are unlinked from their parents; nodes are otherwise not
+ * merged.
+ *
+ * <p>Retrieval and update operations on a single key are atomic.
+ * Navigation methods such as {@code higherEntry} that must move past an
+ * empty leaf, and iterators, are <a
+ * href="package-summary.html#Weakly"><i>weakly consistent</i></a>: each
+ * leaf is read atomically, but mappings added to or removed from other
+ * leaves during the operation may or may not be reflected.  Iterators
+ * never throw {@link java.util.ConcurrentModificationException}.
+ * Beware that, unlike in most collections, the {@code size} method is
+ * only an estimate while the map is being modified.
+ *
+ * <p>Like most other concurrent collections, this class does <em>not</em>
+ * permit the use of {@code null} keys or values.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * @see ConcurrentSkipListMap
+ * @since 1.8
+ */
+public class ConcurrentBTreeMap<K,V> extends AbstractMap<K,V>
+    implements ConcurrentNavigableMap<K,V>, Cloneable, Serializable {
+
+    private static final long serialVersionUID = -5215493860213839423L;
+
+    /*
+     * Node layout: an Inner node with count children c[0..count-1] holds
+     * count-1 separator keys s[0..count-2]; child i holds keys k with
+     * s[i-1] <= k < s[i].  Separators are copies of the first key of the
+     * right node at the time of a split; removing keys never changes
+     * them, so a separator need not be present in the map.  These
+     * bounds are the "fences" of a child: navigation that finds nothing
+     * suitable in a leaf resumes the search from the leaf's low or high
+     * fence, instead of following sibling links, which a B-tree that
+     * unlinks leaves would have to keep consistent.
+     *
+     * Versions: bit 0 is the write lock, bit 1 marks a node that has
+     * been unlinked from the tree ("obsolete"), and the remaining bits
+     * count lock releases.  An obsolete node stays locked forever, so
+     * every reader or writer that reaches it restarts.  A reader reads
+     * a node's version, reads the fields it needs, then re-reads the
+     * version after a load fence; when descending, it reads the child's
+     * version before re-validating the parent, so that a split of the
+     * child that completed after the parent was read is detected by the
+     * parent's version, and one that started later by the child's.
+     *
+     * Reads of a node that is being modified may see inconsistent
+     * arrays.  Arrays are never replaced and counts are clamped before
+     * use, so such reads at worst see stale or null keys, which may make
+     * a comparator throw; exceptions are rethrown only if the node
+     * validates, and otherwise cause a restart.
+     *
+     * Writers (Leis et al., "The ART of Practical Synchronization")
+     * upgrade the optimistic version they read to a lock by CAS; if it
+     * has changed they restart.  A full inner node encountered while
+     * descending to insert is split by locking it and its parent, so a
+     * parent always has room for a new separator.  A leaf that becomes
+     * empty is unlinked afterwards by a separate descent (prune), which
+     * locks the deepest ancestor that has other children and the chain
+     * of single-child nodes below it, and marks that chain obsolete.
+     */
+
+    /** Maximum number of mappings in a leaf */
+    static final int LEAF_CAPACITY = 64;
+
+    /** Maximum number of children of an inner node */
+    static final int INNER_CAPACITY = 64;
+
+    /** Number of restarts after which a thread yields before retrying */
+    static final int MAX_SPINS = 64;
+
+    /** Version bits */
+    static final long LOCKED = 1L, OBSOLETE = 2L, UNLOCK = 3L;
+
+    /** Routes taken by a descent */
+    static final int FIRST = 0, LAST = 1, LE = 2, LT = 3;
+
+    /** Relations for findNear, as in ConcurrentSkipListMap */
+    static final int EQ = 1, BELOW = 2, ABOVE = 0;
+
+    /** Kinds of update performed by doWrite */
+    static final int PUT = 0, PUT_IF_ABSENT = 1, REPLACE = 2, REMOVE = 3;
+
+    /**
+     * The comparator used to maintain order in this map, or null if
+     * using natural ordering.
+     * @serial
+     */
+    final Comparator<? super K> comparator;
+
+    /** The root of the tree */
+    private transient volatile Node root;
+
+    /** The number of mappings */
+    private transient LongAdder counter;
+
+    /** Lazily initialized key set */
+    private transient KeySet<K> keySet;
+    /** Lazily initialized entry set */
+    private transient EntrySet<K,V> entrySet;
+    /** Lazily initialized values collection */
+    private transient Values<V> values;
+    /** Lazily initialized descending key set */
+    private transient ConcurrentNavigableMap<K,V> descendingMap;
+
+    /* ---------------- Nodes -------------- */
+
+    abstract static class Node {
+        volatile long version;
+        int count;
+        final Object[] keys;
+        Node(int keyCapacity) { keys = new Object[keyCapacity]; }
+    }
+
+    static final class Leaf extends Node {
+        final Object[] vals = new Object[LEAF_CAPACITY];
+        Leaf() { super(LEAF_CAPACITY); }
+    }
+
+    static final class Inner extends Node {
+        final Node[] children = new Node[INNER_CAPACITY];
+        Inner() { super(INNER_CAPACITY - 1); }
+    }
+
+    /**
+     * A copy of the contents of a leaf, with the fences of the path by
+     * which it was reached.  Null fences are unbounded.
+     */
+    static final class Snapshot {
+        final Object[] keys = new Object[LEAF_CAPACITY];
+        final Object[] vals = new Object[LEAF_CAPACITY];
+        int count;
+        Object low, high;
+    }
+
+    /* ---------------- Versions -------------- */
+
+    static boolean validate(Node n, long v) {
+        U.loadFence();
+        return n.version == v;
+    }
+
+    static boolean tryUpgrade(Node n, long v) {
+        return U.compareAndSwapLong(n, VERSION, v, v | LOCKED);
+    }
+
+    static void writeUnlock(Node n) {
+        n.version = n.version + UNLOCK;
+    }
+
+    static void writeUnlockObsolete(Node n) {
+        n.version = n.version | OBSOLETE;
+    }
+
+    static void backoff(int restarts) {
+        if (restarts > MAX_SPINS)
+            Thread.yield();
+    }
+
+    /* ---------------- Searching -------------- */
+
+    /**
+     * Returns the index of the child of an inner node to descend to:
+     * the number of separators at most key, or, if strict, less than key.
+     */
+    static int childIndex(Object[] keys, int nkeys, Object key, boolean strict,
+                          Comparator<?> cmp) {
+        int lo = 0, hi = nkeys;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = ConcurrentSkipListMap.cpr(cmp, keys[mid], key);
+            if (c < 0 || (c == 0 && !strict))
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Binary search of the first n keys, returning the index of key if
+     * present, else (-(insertion point) - 1).
+     */
+    static int search(Object[] keys, int n, Object key, Comparator<?> cmp) {
+        int lo = 0, hi = n - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = ConcurrentSkipListMap.cpr(cmp, keys[mid], key);
+            if (c < 0)
+                lo = mid + 1;
+            else if (c > 0)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Copies into s the leaf reached by the given route, which for LE is
+     * the leaf whose range contains key, and for LT the leaf whose range
+     * contains the keys just below key.
+     */
+    final void snapshotLeaf(Object key, int route, Snapshot s) {
+        Comparator<? super K> cmp = comparator;
+        restart: for (int restarts = 0; ; backoff(++restarts)) {
+            Node n = root;
+            long v = n.version;
+            if ((v & LOCKED) != 0L || n != root)
+                continue;
+            Object low = null, high = null;
+            try {
+                while (n instanceof Inner) {
+                    Inner in = (Inner)n;
+                    int c = in.count, i;
+                    if (c < 1 || c > INNER_CAPACITY)
+                        continue restart;
+                    if (route == FIRST)
+                        i = 0;
+                    else if (route == LAST)
+                        i = c - 1;
+                    else
+                        i = childIndex(in.keys, c - 1, key, route == LT, cmp);
+                    if (i > 0)
+                        low = in.keys[i - 1];
+                    if (i < c - 1)
+                        high = in.keys[i];
+                    Node child = in.children[i];
+                    if (child == null)
+                        continue restart;
+                    long cv = child.version;
+                    if ((cv & LOCKED) != 0L || !validate(in, v))
+                        continue restart;
+                    n = child;
+                    v = cv;
+                }
+                Leaf l = (Leaf)n;
+                int c = l.count;
+                if (c < 0 || c > LEAF_CAPACITY)
+                    continue;
+                System.arraycopy(l.keys, 0, s.keys, 0, c);
+                System.arraycopy(l.vals, 0, s.vals, 0, c);
+                if (!validate(l, v))
+                    continue;
+                s.count = c;
+                s.low = low;
+                s.high = high;
+                return;
+            } catch (RuntimeException ex) {
+                if (validate(n, v))
+                    throw ex;
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the mapping nearest to key satisfying rel
+     * (ABOVE or BELOW, optionally with EQ), or if key is null the first
+     * (ABOVE) or last (BELOW) mapping; or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    final Map.Entry<K,V> findNear(Object key, int rel) {
+        Comparator<? super K> cmp = comparator;
+        Snapshot s = new Snapshot();
+        boolean inclusive = (rel & EQ) != 0;
+        if ((rel & BELOW) == 0) {
+            int route = (key == null) ? FIRST : LE;
+            for (;;) {
+                snapshotLeaf(key, route, s);
+                int i;
+                if (key == null)
+                    i = 0;
+                else if ((i = search(s.keys, s.count, key, cmp)) >= 0) {
+                    if (!inclusive)
+                        ++i;
+                }
+                else
+                    i = -i - 1;
+                if (i < s.count)
+                    return new AbstractMap.SimpleImmutableEntry<K,V>
+                        ((K)s.keys[i], (V)s.vals[i]);
+                if ((key = s.high) == null)
+                    return null;
+                route = LE;
+                inclusive = true;
+            }
+        }
+        else {
+            int route = (key == null) ? LAST : inclusive ? LE : LT;
+            for (;;) {
+                snapshotLeaf(key, route, s);
+                int i;
+                if (key == null)
+                    i = s.count - 1;
+                else if ((i = search(s.keys, s.count, key, cmp)) >= 0) {
+                    if (!inclusive)
+                        --i;
+                }
+                else
+                    i = -i - 2;
+                if (i >= 0)
+                    return new AbstractMap.SimpleImmutableEntry<K,V>
+                        ((K)s.keys[i], (V)s.vals[i]);
+                if ((key = s.low) == null)
+                    return null;
+                route = LT;
+                inclusive = false;
+            }
+        }
+    }
+
+    /* ---------------- Updates -------------- */
+
+    /**
+     * Main update method for put, putIfAbsent, replace and remove.
+     *
+     * @param key the key
+     * @param value the new value, or null for REMOVE
+     * @param expect if non-null, the value the mapping must currently
+     *        have for REPLACE or REMOVE to take effect
+     * @param mode one of PUT, PUT_IF_ABSENT, REPLACE, REMOVE
+     * @return the old value, or null if there was none or, for REPLACE
+     *         and REMOVE, if the expected value did not match
+     */
+    @SuppressWarnings("unchecked")
+    final V doWrite(Object key, V value, Object expect, int mode) {
+        if (key == null)
+            throw new NullPointerException();
+        Comparator<? super K> cmp = comparator;
+        boolean inserting = (mode == PUT || mode == PUT_IF_ABSENT);
+        restart: for (int restarts = 0; ; backoff(++restarts)) {
+            Node n = root;
+            long v = n.version;
+            if ((v & LOCKED) != 0L || n != root)
+                continue;
+            Inner p = null;
+            long pv = 0L;
+            try {
+                while (n instanceof Inner) {
+                    Inner in = (Inner)n;
+                    int c = in.count;
+                    if (c < 1 || c > INNER_CAPACITY)
+                        continue restart;
+                    if (c == INNER_CAPACITY && inserting) {
+                        if (lockForSplit(p, pv, in, v)) {
+                            splitInner(p, in);
+                            writeUnlock(in);
+                            if (p != null)
+                                writeUnlock(p);
+                        }
+                        continue restart;
+                    }
+                    Node child = in.children[childIndex(in.keys, c - 1, key,
+                                                        false, cmp)];
+                    if (child == null)
+                        continue restart;
+                    long cv = child.version;
+                    if ((cv & LOCKED) != 0L || !validate(in, v))
+                        continue restart;
+                    p = in;
+                    pv = v;
+                    n = child;
+                    v = cv;
+                }
+                Leaf l = (Leaf)n;
+                int c = l.count;
+                if (c < 0 || c > LEAF_CAPACITY)
+                    continue;
+                int i = search(l.keys, c, key, cmp);
+                if (i >= 0) {
+                    Object old = l.vals[i];
+                    if (mode == PUT_IF_ABSENT ||
+                        (expect != null && !expect.equals(old))) {
+                        if (!validate(l, v))
+                            continue;
+                        return (mode == PUT_IF_ABSENT) ? (V)old : null;
+                    }
+                    if (!tryUpgrade(l, v))
+                        continue;
+                    if (mode != REMOVE) {
+                        l.vals[i] = value;
+                        writeUnlock(l);
+                    }
+                    else {
+                        int moved = c - i - 1;
+                        System.arraycopy(l.keys, i + 1, l.keys, i, moved);
+                        System.arraycopy(l.vals, i + 1, l.vals, i, moved);
+                        l.keys[c - 1] = null;
+                        l.vals[c - 1] = null;
+                        l.count = c - 1;
+                        writeUnlock(l);
+                        counter.decrement();
+                        if (c == 1 && p != null)
+                            prune(key);
+                    }
+                    return (V)old;
+                }
+                if (!inserting) {
+                    if (!validate(l, v))
+                        continue;
+                    return null;
+                }
+                if (c == LEAF_CAPACITY) {
+                    if (lockForSplit(p, pv, l, v)) {
+                        splitLeaf(p, l);
+                        writeUnlock(l);
+                        if (p != null)
+                            writeUnlock(p);
+                    }
+                    continue;
+                }
+                if (!tryUpgrade(l, v))
+                    continue;
+                int ins = -i - 1, moved = c - ins;
+                System.arraycopy(l.keys, ins, l.keys, ins + 1, moved);
+                System.arraycopy(l.vals, ins, l.vals, ins + 1, moved);
+                l.keys[ins] = key;
+                l.vals[ins] = value;
+                l.count = c + 1;
+                writeUnlock(l);
+                counter.increment();
+                return null;
+            } catch (RuntimeException ex) {
+                if (validate(n, v))
+                    throw ex;
+            }
+        }
+    }
+
+    /**
+     * Locks a full node and its parent (if any) for a split, returning
+     * false if either has changed since it was read.  A node without a
+     * parent must still be the root.
+     */
+    final boolean lockForSplit(Inner p, long pv, Node n, long v) {
+        if (p != null && !tryUpgrade(p, pv))
+            return false;
+        if (!tryUpgrade(n, v)) {
+            if (p != null)
+                writeUnlock(p);
+            return false;
+        }
+        if (p == null && n != root) {
+            writeUnlock(n);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Moves the upper half of locked leaf l to a new right sibling.
+     */
+    final void splitLeaf(Inner p, Leaf l) {
+        Leaf r = new Leaf();
+        int c = l.count, mid = c >>> 1, moved = c - mid;
+        System.arraycopy(l.keys, mid, r.keys, 0, moved);
+        System.arraycopy(l.vals, mid, r.vals, 0, moved);
+        r.count = moved;
+        Arrays.fill(l.keys, mid, c, null);
+        Arrays.fill(l.vals, mid, c, null);
+        l.count = mid;
+        addChild(p, l, r.keys[0], r);
+    }
+
+    /**
+     * Moves the upper half of locked inner node n to a new right
+     * sibling, promoting the middle separator.
+     */
+    final void splitInner(Inner p, Inner n) {
+        Inner r = new Inner();
+        int c = n.count, mid = c >>> 1;
+        Object sep = n.keys[mid - 1];
+        System.arraycopy(n.children, mid, r.children, 0, c - mid);
+        System.arraycopy(n.keys, mid, r.keys, 0, c - 1 - mid);
+        r.count = c - mid;
+        Arrays.fill(n.children, mid, c, null);
+        Arrays.fill(n.keys, mid - 1, c - 1, null);
+        n.count = mid;
+        addChild(p, n, sep, r);
+    }
+
+    /**
+     * Inserts right after left in locked parent p, separated by sep, or
+     * if p is null installs a new root over left and right.
+     */
+    final void addChild(Inner p, Node left, Object sep, Node right) {
+        if (p == null) {
+            Inner nr = new Inner();
+            nr.keys[0] = sep;
+            nr.children[0] = left;
+            nr.children[1] = right;
+            nr.count = 2;
+            root = nr;
+            return;
+        }
+        int c = p.count, i = 0;
+        while (p.children[i] != left)
+            ++i;
+        System.arraycopy(p.children, i + 1, p.children, i + 2, c - i - 1);
+        System.arraycopy(p.keys, i, p.keys, i + 1, c - 1 - i);
+        p.keys[i] = sep;
+        p.children[i + 1] = right;
+        p.count = c + 1;
+    }
+
+    /**
+     * Removes child from locked parent p, together with one of the
+     * separators bounding it, so that a neighbour absorbs its range.
+     */
+    static void removeChild(Inner p, Node child) {
+        int c = p.count, i = 0;
+        while (p.children[i] != child)
+            ++i;
+        int k = (i > 0) ? i - 1 : 0;
+        System.arraycopy(p.children, i + 1, p.children, i, c - i - 1);
+        System.arraycopy(p.keys, k + 1, p.keys, k, c - 2 - k);
+        p.children[c - 1] = null;
+        p.keys[c - 2] = null;
+        p.count = c - 1;
+    }
+
+    /**
+     * Unlinks the leaf whose range contains key if it is empty, along
+     * with any chain of ancestors left with no other children.  The
+     * root, and a chain below a root with a single child, are kept.
+     */
+    final void prune(Object key) {
+        Comparator<? super K> cmp = comparator;
+        Node[] path = new Node[8];
+        long[] versions = new long[8];
+        restart: for (int restarts = 0; ; backoff(++restarts)) {
+            Node n = root;
+            long v = n.version;
+            if ((v & LOCKED) != 0L || n != root)
+                continue;
+            int depth = 0;
+            try {
+                while (n instanceof Inner) {
+                    Inner in = (Inner)n;
+                    int c = in.count;
+                    if (c < 1 || c > INNER_CAPACITY)
+                        continue restart;
+                    if (depth == path.length) {
+                        path = Arrays.copyOf(path, depth << 1);
+                        versions = Arrays.copyOf(versions, depth << 1);
+                    }
+                    path[depth] = in;
+                    versions[depth++] = v;
+                    Node child = in.children[childIndex(in.keys, c - 1, key,
+                                                        false, cmp)];
+                    if (child == null)
+                        continue restart;
+                    long cv = child.version;
+                    if ((cv & LOCKED) != 0L || !validate(in, v))
+                        continue restart;
+                    n = child;
+                    v = cv;
+                }
+            } catch (RuntimeException ex) {
+                if (validate(n, v))
+                    throw ex;
+                continue;
+            }
+            if (depth == 0 || n.count != 0)
+                return;                 // refilled, or the root
+            int top = depth - 1;
+            while (top >= 0 && path[top].count <= 1)
+                --top;
+            if (top < 0)
+                return;
+            int locked = top;
+            while (locked < depth && tryUpgrade(path[locked], versions[locked]))
+                ++locked;
+            if (locked < depth || !tryUpgrade(n, v)) {
+                while (--locked >= top)
+                    writeUnlock(path[locked]);
+                continue;
+            }
+            removeChild((Inner)path[top], (top + 1 < depth) ? path[top + 1] : n);
+            for (int j = top + 1; j < depth; ++j)
+                writeUnlockObsolete(path[j]);
+            writeUnlockObsolete(n);
+            writeUnlock(path[top]);
+            return;
+        }
+    }
+
+    /* ---------------- Constructors -------------- */
+
+    /**
+     * Constructs a new, empty map, sorted according to the
+     * {@linkplain Comparable natural ordering} of the keys.
+     */
+    public ConcurrentBTreeMap() {
+        this.comparator = null;
+        initialize();
+    }
+
+    /**
+     * Constructs a new, empty map, sorted according to the specified
+     * comparator.
+     *
+     * @param comparator the comparator that will be used to order this map.
+     *        If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the keys will be used.
+     */
+    public ConcurrentBTreeMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+        initialize();
+    }
+
+    /**
+     * Constructs a new map containing the same mappings as the given map,
+     * sorted according to the {@linkplain Comparable natural ordering} of
+     * the keys.
+     *
+     * @param  m the map whose mappings are to be placed in this map
+     * @throws ClassCastException if the keys in {@code m} are not
+     *         {@link Comparable}, or are not mutually comparable
+     * @throws NullPointerException if the specified map or any of its keys
+     *         or values are null
+     */
+    public ConcurrentBTreeMap(Map<? extends K, ? extends V> m) {
+        this.comparator = null;
+        initialize();
+        putAll(m);
+    }
+
+    /**
+     * Constructs a new map containing the same mappings and using the
+     * same ordering as the specified sorted map.
+     *
+     * @param m the sorted map whose mappings are to be placed in this
+     *        map, and whose comparator is to be used to sort this map
+     * @throws NullPointerException if the specified sorted map or any of
+     *         its keys or values are null
+     */
+    public ConcurrentBTreeMap(SortedMap<K, ? extends V> m) {
+        this.comparator = m.comparator();
+        initialize();
+        putAll(m);
+    }
+
+    final void initialize() {
+        keySet = null;
+        entrySet = null;
+        values = null;
+        descendingMap = null;
+        counter = new LongAdder();
+        root = new Leaf();
+    }
+
+    /**
+     * Returns a shallow copy of this {@code ConcurrentBTreeMap}
+     * instance. (The keys and values themselves are not cloned.)
+     *
+     * @return a shallow copy of this map
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentBTreeMap<K,V> clone() {
+        try {
+            ConcurrentBTreeMap<K,V> clone =
+                (ConcurrentBTreeMap<K,V>) super.clone();
+            clone.initialize();
+            for (Map.Entry<K,V> e : entrySet())
+                clone.put(e.getKey(), e.getValue());
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError();
+        }
+    }
+
+    /* ---------------- Serialization -------------- */
+
+    /**
+     * Saves this map to a stream (that is, serializes it).
+     *
+     * @param s the stream
+     * @throws java.io.IOException if an I/O error occurs
+     * @serialData The key (Object) and value (Object) for each
+     * key-value mapping represented by the map, followed by
+     * {@code null}. The key-value mappings are emitted in key-order
+     * (as determined by the Comparator, or by the keys' natural
+     * ordering if no Comparator).
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException {
+        s.defaultWriteObject();
+        for (Map.Entry<K,V> e : entrySet()) {
+            s.writeObject(e.getKey());
+            s.writeObject(e.getValue());
+        }
+        s.writeObject(null);
+    }
+
+    /**
+     * Reconstitutes this map from a stream (that is, deserializes it).
+     * @param s the stream
+     * @throws ClassNotFoundException if the class of a serialized object
+     *         could not be found
+     * @throws java.io.IOException if an I/O error occurs
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(final java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        initialize();
+        for (;;) {
+            Object k = s.readObject();
+            if (k == null)
+                break;
+            Object v = s.readObject();
+            if (v == null)
+                throw new NullPointerException();
+            put((K)k, (V)v);
+        }
+    }
+
+    /* ------ Map API methods ------ */
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        Comparator<? super K> cmp = comparator;
+        restart: for (int restarts = 0; ; backoff(++restarts)) {
+            Node n = root;
+            long v = n.version;
+            if ((v & LOCKED) != 0L || n != root)
+                continue;
+            try {
+                while (n instanceof Inner) {
+                    Inner in = (Inner)n;
+                    int c = in.count;
+                    if (c < 1 || c > INNER_CAPACITY)
+                        continue restart;
+                    Node child = in.children[childIndex(in.keys, c - 1, key,
+                                                        false, cmp)];
+                    if (child == null)
+                        continue restart;
+                    long cv = child.version;
+                    if ((cv & LOCKED) != 0L || !validate(in, v))
+                        continue restart;
+                    n = child;
+                    v = cv;
+                }
+                Leaf l = (Leaf)n;
+                int c = l.count;
+                if (c < 0 || c > LEAF_CAPACITY)
+                    continue;
+                int i = search(l.keys, c, key, cmp);
+                Object val = (i >= 0) ? l.vals[i] : null;
+                if (!validate(l, v))
+                    continue;
+                return (V)val;
+            } catch (RuntimeException ex) {
+                if (validate(n, v))
+                    throw ex;
+            }
+        }
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or the given defaultValue if this map contains no mapping for the key.
+     *
+     * @param key the key
+     * @param defaultValue the value to return if this map contains
+     * no mapping for the given key
+     * @return the mapping for the key, if present; else the defaultValue
+     * @throws NullPointerException if the specified key is null
+     */
+    public V getOrDefault(Object key, V defaultValue) {
+        V v;
+        return (v = get(key)) == null ? defaultValue : v;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V put(K key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        return doWrite(key, value, null, PUT);
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key for which mapping should be removed
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        return doWrite(key, null, null, REMOVE);
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This operation requires time linear in the
+     * map size.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if a mapping to {@code value} exists;
+     *         {@code false} otherwise
+     * @throws NullPointerException if the specified value is null
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+        for (Iterator<V> it = valueIterator(); it.hasNext(); ) {
+            if (value.equals(it.next()))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.  If this map
+     * contains more than {@code Integer.MAX_VALUE} elements, it
+     * returns {@code Integer.MAX_VALUE}.  The count is maintained in a
+     * {@link LongAdder}, so the value returned while the map is being
+     * modified reflects only those updates that have completed.
+     *
+     * @return the number of elements in this map
+     */
+    public int size() {
+        long n = counter.sum();
+        return (n < 0L) ? 0 : (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE :
+            (int)n;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return findNear(null, ABOVE) == null;
+    }
+
+    /**
+     * Removes all of the mappings from this map.  Each leaf is emptied
+     * atomically, but mappings added concurrently may remain.
+     */
+    public void clear() {
+        Comparator<? super K> cmp = comparator;
+        Snapshot s = new Snapshot();
+        Object key = null;
+        for (;;) {
+            snapshotLeaf(key, (key == null) ? FIRST : LE, s);
+            int i = (key == null) ? 0 : search(s.keys, s.count, key, cmp);
+            for (i = (i < 0) ? -i - 1 : i; i < s.count; ++i)
+                remove(s.keys[i]);
+            if ((key = s.high) == null)
+                break;
+        }
+    }
+
+    /* ---------------- View methods -------------- */
+
+    /**
+     * Returns a {@link NavigableSet} view of the keys contained in this map.
+     *
+     * <p>The set's iterator returns the keys in ascending order.
+     * The set is backed by the map, so changes to the map are
+     * reflected in the set, and vice-versa.  The set supports element
+     * removal, which removes the corresponding mapping from the map,
+     * via the {@code Iterator.remove}, {@code Set.remove},
+     * {@code removeAll}, {@code retainAll}, and {@code clear}
+     * operations.  It does not support the {@code add} or {@code addAll}
+     * operations.
+     *
+     * <p>The view's iterators are
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return a navigable set view of the keys in this map
+     */
+    public NavigableSet<K> keySet() {
+        KeySet<K> ks = keySet;
+        return (ks != null) ? ks : (keySet = new KeySet<K>(this));
+    }
+
+    public NavigableSet<K> navigableKeySet() {
+        KeySet<K> ks = keySet;
+        return (ks != null) ? ks : (keySet = new KeySet<K>(this));
+    }
+
+    /**
+     * Returns a {@link Collection} view of the values contained in this map.
+     * The collection's iterator returns the values in ascending order
+     * of the corresponding keys.  The collection supports element
+     * removal but not addition.  The view's iterators are
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     */
+    public Collection<V> values() {
+        Values<V> vs = values;
+        return (vs != null) ? vs : (values = new Values<V>(this));
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set's iterator returns the entries in ascending key order.
+     * The {@code Map.Entry} elements it returns are snapshots of
+     * mappings as they were when produced, and do not support the
+     * {@code setValue} method.  The view's iterators are
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return a set view of the mappings contained in this map,
+     *         sorted in ascending key order
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySet<K,V> es = entrySet;
+        return (es != null) ? es : (entrySet = new EntrySet<K,V>(this));
+    }
+
+    public ConcurrentNavigableMap<K,V> descendingMap() {
+        ConcurrentNavigableMap<K,V> dm = descendingMap;
+        return (dm != null) ? dm : (descendingMap = new SubMap<K,V>
+                                    (this, null, false, null, false, true));
+    }
+
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    /* ------ ConcurrentMap API methods ------ */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        return doWrite(key, value, null, PUT_IF_ABSENT);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        return value != null && doWrite(key, null, value, REMOVE) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (oldValue == null || newValue == null)
+            throw new NullPointerException();
+        return doWrite(key, newValue, oldValue, REPLACE) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        return doWrite(key, value, null, REPLACE);
+    }
+
+    /* ------ SortedMap API methods ------ */
+
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K firstKey() {
+        Map.Entry<K,V> e = findNear(null, ABOVE);
+        if (e == null)
+            throw new NoSuchElementException();
+        return e.getKey();
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K lastKey() {
+        Map.Entry<K,V> e = findNear(null, BELOW);
+        if (e == null)
+            throw new NoSuchElementException();
+        return e.getKey();
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> subMap(K fromKey,
+                                              boolean fromInclusive,
+                                              K toKey,
+                                              boolean toInclusive) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, fromKey, fromInclusive, toKey, toInclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> headMap(K toKey,
+                                               boolean inclusive) {
+        if (toKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, null, false, toKey, inclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> tailMap(K fromKey,
+                                               boolean inclusive) {
+        if (fromKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, fromKey, inclusive, null, false, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    /* ---------------- Relational operations -------------- */
+
+    /**
+     * Returns a key-value mapping associated with the greatest key
+     * strictly less than the given key, or {@code null} if there is
+     * no such key. The returned entry does <em>not</em> support the
+     * {@code Entry.setValue} method.
+     *
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> lowerEntry(K key) {
+        return findNear(nonNull(key), BELOW);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K lowerKey(K key) {
+        return keyOrNull(findNear(nonNull(key), BELOW));
+    }
+
+    /**
+     * Returns a key-value mapping associated with the greatest key
+     * less than or equal to the given key, or {@code null} if there
+     * is no such key. The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     *
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> floorEntry(K key) {
+        return findNear(nonNull(key), BELOW|EQ);
+    }
+
+    /**
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K floorKey(K key) {
+        return keyOrNull(findNear(nonNull(key), BELOW|EQ));
+    }
+
+    /**
+     * Returns a key-value mapping associated with the least key
+     * greater than or equal to the given key, or {@code null} if
+     * there is no such entry. The returned entry does <em>not</em>
+     * support the {@code Entry.setValue} method.
+     *
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> ceilingEntry(K key) {
+        return findNear(nonNull(key), ABOVE|EQ);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K ceilingKey(K key) {
+        return keyOrNull(findNear(nonNull(key), ABOVE|EQ));
+    }
+
+    /**
+     * Returns a key-value mapping associated with the least key
+     * strictly greater than the given key, or {@code null} if there
+     * is no such key. The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     *
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> higherEntry(K key) {
+        return findNear(nonNull(key), ABOVE);
+    }
+
+    /**
+     * @param key the key
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K higherKey(K key) {
+        return keyOrNull(findNear(nonNull(key), ABOVE));
+    }
+
+    /**
+     * Returns a key-value mapping associated with the least
+     * key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> firstEntry() {
+        return findNear(null, ABOVE);
+    }
+
+    /**
+     * Returns a key-value mapping associated with the greatest
+     * key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> lastEntry() {
+        return findNear(null, BELOW);
+    }
+
+    /**
+     * Removes and returns a key-value mapping associated with
+     * the least key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> pollFirstEntry() {
+        return pollEntry(ABOVE);
+    }
+
+    /**
+     * Removes and returns a key-value mapping associated with
+     * the greatest key in this map, or {@code null} if the map is empty.
+     * The returned entry does <em>not</em> support
+     * the {@code Entry.setValue} method.
+     */
+    public Map.Entry<K,V> pollLastEntry() {
+        return pollEntry(BELOW);
+    }
+
+    final Map.Entry<K,V> pollEntry(int rel) {
+        for (Map.Entry<K,V> e; (e = findNear(null, rel)) != null; ) {
+            if (remove(e.getKey(), e.getValue()))
+                return e;
+        }
+        return null;
+    }
+
+    static Object nonNull(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        return key;
+    }
+
+    static <K> K keyOrNull(Map.Entry<K,?> e) {
+        return (e == null) ? null : e.getKey();
+    }
+
+    /* ---------------- Iterators -------------- */
+
+    /**
+     * Base of iterator classes.  Reads one leaf at a time into a
+     * snapshot and steps through it, continuing from the leaf's fence
+     * when it is exhausted.
+     */
+    abstract class Iter<T> implements Iterator<T> {
+        final Object lo, hi;
+        final boolean loInclusive, hiInclusive, descending;
+        final Snapshot s = new Snapshot();
+        /** index in s of the next entry */
+        int index;
+        /** the next key to return, or null if none */
+        Object nextKey;
+        /** the value cached with nextKey */
+        Object nextValue;
+        /** the last key returned by next() */
+        Object lastReturned;
+
+        Iter(Object lo, boolean loInclusive, Object hi, boolean hiInclusive,
+             boolean descending) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+            if (!descending)
+                load(lo, (lo == null) ? FIRST : LE, loInclusive);
+            else
+                load(hi, (hi == null) ? LAST : hiInclusive ? LE : LT,
+                     hiInclusive);
+            findNext();
+        }
+
+        /**
+         * Loads the leaf reached by route from key, positioning index at
+         * the first entry in iteration order that lies beyond key.
+         */
+        private void load(Object key, int route, boolean inclusive) {
+            snapshotLeaf(key, route, s);
+            if (key == null)
+                index = descending ? s.count - 1 : 0;
+            else {
+                int i = search(s.keys, s.count, key, comparator);
+                if (!descending)
+                    index = (i < 0) ? -i - 1 : inclusive ? i : i + 1;
+                else
+                    index = (i < 0) ? -i - 2 : inclusive ? i : i - 1;
+            }
+        }
+
+        private void findNext() {
+            Comparator<? super K> cmp = comparator;
+            for (;;) {
+                if (!descending ? index < s.count : index >= 0) {
+                    Object k = s.keys[index];
+                    int c;
+                    if (!descending ?
+                        (hi != null && ((c = ConcurrentSkipListMap.cpr(cmp, k, hi)) > 0 ||
+                                        (c == 0 && !hiInclusive))) :
+                        (lo != null && ((c = ConcurrentSkipListMap.cpr(cmp, k, lo)) < 0 ||
+                                        (c == 0 && !loInclusive))))
+                        break;
+                    nextKey = k;
+                    nextValue = s.vals[index];
+                    if (descending)
+                        --index;
+                    else
+                        ++index;
+                    return;
+                }
+                Object fence = descending ? s.low : s.high;
+                if (fence == null)
+                    break;
+                if (descending)
+                    load(fence, LT, false);
+                else
+                    load(fence, LE, true);
+            }
+            nextKey = null;
+            nextValue = null;
+        }
+
+        public final boolean hasNext() {
+            return nextKey != null;
+        }
+
+        final void advance() {
+            if (nextKey == null)
+                throw new NoSuchElementException();
+            lastReturned = nextKey;
+            findNext();
+        }
+
+        public final void remove() {
+            Object k = lastReturned;
+            if (k == null)
+                throw new IllegalStateException();
+            ConcurrentBTreeMap.this.remove(k);
+            lastReturned = null;
+        }
+    }
+
+    final class ValueIterator extends Iter<V> {
+        ValueIterator(Object lo, boolean loInclusive, Object hi,
+                      boolean hiInclusive, boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public V next() {
+            V v = (V)nextValue;
+            advance();
+            return v;
+        }
+    }
+
+    final class KeyIterator extends Iter<K> {
+        KeyIterator(Object lo, boolean loInclusive, Object hi,
+                    boolean hiInclusive, boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public K next() {
+            K k = (K)nextKey;
+            advance();
+            return k;
+        }
+    }
+
+    final class EntryIterator extends Iter<Map.Entry<K,V>> {
+        EntryIterator(Object lo, boolean loInclusive, Object hi,
+                      boolean hiInclusive, boolean descending) {
+            super(lo, loInclusive, hi, hiInclusive, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K,V> next() {
+            K k = (K)nextKey;
+            V v = (V)nextValue;
+            advance();
+            return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+        }
+    }
+
+    // Factory methods for iterators needed by KeySet, Values and EntrySet
+
+    Iterator<K> keyIterator() {
+        return new KeyIterator(null, false, null, false, false);
+    }
+
+    Iterator<V> valueIterator() {
+        return new ValueIterator(null, false, null, false, false);
+    }
+
+    Iterator<Map.Entry<K,V>> entryIterator() {
+        return new EntryIterator(null, false, null, false, false);
+    }
+
+    /* ---------------- View Classes -------------- */
+
+    /*
+     * View classes are static, delegating to a ConcurrentNavigableMap
+     * to allow use by SubMaps, as in ConcurrentSkipListMap.
+     */
+
+    static final <E> List<E> toList(Collection<E> c) {
+        // Using size() here would be a pessimization.
+        ArrayList<E> list = new ArrayList<E>();
+        for (E e : c)
+            list.add(e);
+        return list;
+    }
+
+    static final class KeySet<E>
+            extends AbstractSet<E> implements NavigableSet<E> {
+        final ConcurrentNavigableMap<E,?> m;
+        KeySet(ConcurrentNavigableMap<E,?> map) { m = map; }
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public boolean contains(Object o) { return m.containsKey(o); }
+        public boolean remove(Object o) { return m.remove(o) != null; }
+        public void clear() { m.clear(); }
+        public E lower(E e) { return m.lowerKey(e); }
+        public E floor(E e) { return m.floorKey(e); }
+        public E ceiling(E e) { return m.ceilingKey(e); }
+        public E higher(E e) { return m.higherKey(e); }
+        public Comparator<? super E> comparator() { return m.comparator(); }
+        public E first() { return m.firstKey(); }
+        public E last() { return m.lastKey(); }
+        public E pollFirst() {
+            Map.Entry<E,?> e = m.pollFirstEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        public E pollLast() {
+            Map.Entry<E,?> e = m.pollLastEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<E,Object>)m).keyIterator();
+            else
+                return ((SubMap<E,Object>)m).keyIterator();
+        }
+        public boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (!(o instanceof Set))
+                return false;
+            Collection<?> c = (Collection<?>) o;
+            try {
+                return containsAll(c) && c.containsAll(this);
+            } catch (ClassCastException unused) {
+                return false;
+            } catch (NullPointerException unused) {
+                return false;
+            }
+        }
+        public Object[] toArray()     { return toList(this).toArray();  }
+        public <T> T[] toArray(T[] a) { return toList(this).toArray(a); }
+        public Iterator<E> descendingIterator() {
+            return descendingSet().iterator();
+        }
+        public NavigableSet<E> subSet(E fromElement,
+                                      boolean fromInclusive,
+                                      E toElement,
+                                      boolean toInclusive) {
+            return new KeySet<E>(m.subMap(fromElement, fromInclusive,
+                                          toElement,   toInclusive));
+        }
+        public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+            return new KeySet<E>(m.headMap(toElement, inclusive));
+        }
+        public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+            return new KeySet<E>(m.tailMap(fromElement, inclusive));
+        }
+        public NavigableSet<E> subSet(E fromElement, E toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+        public NavigableSet<E> headSet(E toElement) {
+            return headSet(toElement, false);
+        }
+        public NavigableSet<E> tailSet(E fromElement) {
+            return tailSet(fromElement, true);
+        }
+        public NavigableSet<E> descendingSet() {
+            return new KeySet<E>(m.descendingMap());
+        }
+    }
+
+    static final class Values<E> extends AbstractCollection<E> {
+        final ConcurrentNavigableMap<?, E> m;
+        Values(ConcurrentNavigableMap<?, E> map) {
+            m = map;
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<?,E>)m).valueIterator();
+            else
+                return ((SubMap<?,E>)m).valueIterator();
+        }
+        public boolean isEmpty() {
+            return m.isEmpty();
+        }
+        public int size() {
+            return m.size();
+        }
+        public boolean contains(Object o) {
+            return m.containsValue(o);
+        }
+        public void clear() {
+            m.clear();
+        }
+        public Object[] toArray()     { return toList(this).toArray();  }
+        public <T> T[] toArray(T[] a) { return toList(this).toArray(a); }
+    }
+
+    static final class EntrySet<K1,V1> extends AbstractSet<Map.Entry<K1,V1>> {
+        final ConcurrentNavigableMap<K1, V1> m;
+        EntrySet(ConcurrentNavigableMap<K1, V1> map) {
+            m = map;
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<Map.Entry<K1,V1>> iterator() {
+            if (m instanceof ConcurrentBTreeMap)
+                return ((ConcurrentBTreeMap<K1,V1>)m).entryIterator();
+            else
+                return ((SubMap<K1,V1>)m).entryIterator();
+        }
+
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            V1 v = m.get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            return m.remove(e.getKey(),
+                            e.getValue());
+        }
+        public boolean isEmpty() {
+            return m.isEmpty();
+        }
+        public int size() {
+            return m.size();
+        }
+        public void clear() {
+            m.clear();
+        }
+        public boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (!(o instanceof Set))
+                return false;
+            Collection<?> c = (Collection<?>) o;
+            try {
+                return containsAll(c) && c.containsAll(this);
+            } catch (ClassCastException unused) {
+                return false;
+            } catch (NullPointerException unused) {
+                return false;
+            }
+        }
+        public Object[] toArray()     { return toList(this).toArray();  }
+        public <T> T[] toArray(T[] a) { return toList(this).toArray(a); }
+    }
+
+    /**
+     * Submaps returned by {@link ConcurrentBTreeMap} submap operations
+     * represent a subrange of mappings of their underlying maps.
+     * Instances of this class support all methods of their underlying
+     * maps, differing in that mappings outside their range are ignored,
+     * and attempts to add mappings outside their ranges result in
+     * {@link IllegalArgumentException}.  Instances of this class are
+     * constructed only using the {@code subMap}, {@code headMap}, and
+     * {@code tailMap} methods of their underlying maps.
+     *
+     * @serial include
+     */
+    static final class SubMap<K,V> extends AbstractMap<K,V>
+        implements ConcurrentNavigableMap<K,V>, Cloneable, Serializable {
+        private static final long serialVersionUID = 2361620893713062340L;
+
+        /** Underlying map */
+        private final ConcurrentBTreeMap<K,V> m;
+        /** lower bound key, or null if from start */
+        private final K lo;
+        /** upper bound key, or null if to end */
+        private final K hi;
+        /** inclusion flag for lo */
+        private final boolean loInclusive;
+        /** inclusion flag for hi */
+        private final boolean hiInclusive;
+        /** direction */
+        private final boolean isDescending;
+
+        // Lazily initialized view holders
+        private transient KeySet<K> keySetView;
+        private transient Set<Map.Entry<K,V>> entrySetView;
+        private transient Collection<V> valuesView;
+
+        /**
+         * Creates a new submap, initializing all fields.
+         */
+        SubMap(ConcurrentBTreeMap<K,V> map,
+               K fromKey, boolean fromInclusive,
+               K toKey, boolean toInclusive,
+               boolean isDescending) {
+            Comparator<? super K> cmp = map.comparator;
+            if (fromKey != null && toKey != null &&
+                ConcurrentSkipListMap.cpr(cmp, fromKey, toKey) > 0)
+                throw new IllegalArgumentException("inconsistent range");
+            this.m = map;
+            this.lo = fromKey;
+            this.hi = toKey;
+            this.loInclusive = fromInclusive;
+            this.hiInclusive = toInclusive;
+            this.isDescending = isDescending;
+        }
+
+        /* ----------------  Utilities -------------- */
+
+        boolean tooLow(Object key, Comparator<? super K> cmp) {
+            int c;
+            return (lo != null && ((c = ConcurrentSkipListMap.cpr(cmp, key, lo)) < 0 ||
+                                   (c == 0 && !loInclusive)));
+        }
+
+        boolean tooHigh(Object key, Comparator<? super K> cmp) {
+            int c;
+            return (hi != null && ((c = ConcurrentSkipListMap.cpr(cmp, key, hi)) > 0 ||
+                                   (c == 0 && !hiInclusive)));
+        }
+
+        boolean inBounds(Object key, Comparator<? super K> cmp) {
+            return !tooLow(key, cmp) && !tooHigh(key, cmp);
+        }
+
+        void checkKeyBounds(K key, Comparator<? super K> cmp) {
+            if (key == null)
+                throw new NullPointerException();
+            if (!inBounds(key, cmp))
+                throw new IllegalArgumentException("key out of range");
+        }
+
+        /**
+         * Returns lowest entry in range, ignoring directionality.
+         */
+        Map.Entry<K,V> lowestEntry() {
+            Comparator<? super K> cmp = m.comparator;
+            Map.Entry<K,V> e = (lo == null) ? m.findNear(null, ABOVE) :
+                m.findNear(lo, loInclusive ? ABOVE|EQ : ABOVE);
+            return (e == null || tooHigh(e.getKey(), cmp)) ? null : e;
+        }
+
+        /**
+         * Returns highest entry in range, ignoring directionality.
+         */
+        Map.Entry<K,V> highestEntry() {
+            Comparator<? super K> cmp = m.comparator;
+            Map.Entry<K,V> e = (hi == null) ? m.findNear(null, BELOW) :
+                m.findNear(hi, hiInclusive ? BELOW|EQ : BELOW);
+            return (e == null || tooLow(e.getKey(), cmp)) ? null : e;
+        }
+
+        K lowestKey() {
+            Map.Entry<K,V> e = lowestEntry();
+            if (e == null)
+                throw new NoSuchElementException();
+            return e.getKey();
+        }
+
+        K highestKey() {
+            Map.Entry<K,V> e = highestEntry();
+            if (e == null)
+                throw new NoSuchElementException();
+            return e.getKey();
+        }
+
+        Map.Entry<K,V> removeLowest() {
+            for (Map.Entry<K,V> e; (e = lowestEntry()) != null; ) {
+                if (m.remove(e.getKey(), e.getValue()))
+                    return e;
+            }
+            return null;
+        }
+
+        Map.Entry<K,V> removeHighest() {
+            for (Map.Entry<K,V> e; (e = highestEntry()) != null; ) {
+                if (m.remove(e.getKey(), e.getValue()))
+                    return e;
+            }
+            return null;
+        }
+
+        /**
+         * Submap version of ConcurrentBTreeMap.findNear
+         */
+        Map.Entry<K,V> getNearEntry(K key, int rel) {
+            Comparator<? super K> cmp = m.comparator;
+            if (key == null)
+                throw new NullPointerException();
+            if (isDescending) // adjust relation for direction
+                rel ^= BELOW;
+            if (tooLow(key, cmp))
+                return ((rel & BELOW) != 0) ? null : lowestEntry();
+            if (tooHigh(key, cmp))
+                return ((rel & BELOW) != 0) ? highestEntry() : null;
+            Map.Entry<K,V> e = m.findNear(key, rel);
+            return (e == null || !inBounds(e.getKey(), cmp)) ? null : e;
+        }
+
+        /* ----------------  Map API methods -------------- */
+
+        public boolean containsKey(Object key) {
+            if (key == null) throw new NullPointerException();
+            return inBounds(key, m.comparator) && m.containsKey(key);
+        }
+
+        public V get(Object key) {
+            if (key == null) throw new NullPointerException();
+            return (!inBounds(key, m.comparator)) ? null : m.get(key);
+        }
+
+        public V put(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.put(key, value);
+        }
+
+        public V remove(Object key) {
+            return (!inBounds(key, m.comparator)) ? null : m.remove(key);
+        }
+
+        public int size() {
+            long count = 0;
+            for (Iterator<K> it = keyIterator(); it.hasNext(); it.next())
+                ++count;
+            return count >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)count;
+        }
+
+        public boolean isEmpty() {
+            return lowestEntry() == null;
+        }
+
+        public boolean containsValue(Object value) {
+            if (value == null)
+                throw new NullPointerException();
+            for (Iterator<V> it = valueIterator(); it.hasNext(); ) {
+                if (value.equals(it.next()))
+                    return true;
+            }
+            return false;
+        }
+
+        public void clear() {
+            for (Iterator<K> it = keyIterator(); it.hasNext(); ) {
+                it.next();
+                it.remove();
+            }
+        }
+
+        /* ----------------  ConcurrentMap API methods -------------- */
+
+        public V putIfAbsent(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.putIfAbsent(key, value);
+        }
+
+        public boolean remove(Object key, Object value) {
+            return inBounds(key, m.comparator) && m.remove(key, value);
+        }
+
+        public boolean replace(K key, V oldValue, V newValue) {
+            checkKeyBounds(key, m.comparator);
+            return m.replace(key, oldValue, newValue);
+        }
+
+        public V replace(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.replace(key, value);
+        }
+
+        /* ----------------  SortedMap API methods -------------- */
+
+        public Comparator<? super K> comparator() {
+            Comparator<? super K> cmp = m.comparator();
+            if (isDescending)
+                return Collections.reverseOrder(cmp);
+            else
+                return cmp;
+        }
+
+        /**
+         * Utility to create submaps, where given bounds override
+         * unbounded(null) ones and/or are checked against bounded ones.
+         */
+        SubMap<K,V> newSubMap(K fromKey, boolean fromInclusive,
+                              K toKey, boolean toInclusive) {
+            Comparator<? super K> cmp = m.comparator;
+            if (isDescending) { // flip senses
+                K tk = fromKey;
+                fromKey = toKey;
+                toKey = tk;
+                boolean ti = fromInclusive;
+                fromInclusive = toInclusive;
+                toInclusive = ti;
+            }
+            if (lo != null) {
+                if (fromKey == null) {
+                    fromKey = lo;
+                    fromInclusive = loInclusive;
+                }
+                else {
+                    int c = ConcurrentSkipListMap.cpr(cmp, fromKey, lo);
+                    if (c < 0 || (c == 0 && !loInclusive && fromInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            if (hi != null) {
+                if (toKey == null) {
+                    toKey = hi;
+                    toInclusive = hiInclusive;
+                }
+                else {
+                    int c = ConcurrentSkipListMap.cpr(cmp, toKey, hi);
+                    if (c > 0 || (c == 0 && !hiInclusive && toInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            return new SubMap<K,V>(m, fromKey, fromInclusive,
+                                   toKey, toInclusive, isDescending);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                  K toKey, boolean toInclusive) {
+            if (fromKey == null || toKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, fromInclusive, toKey, toInclusive);
+        }
+
+        public SubMap<K,V> headMap(K toKey, boolean inclusive) {
+            if (toKey == null)
+                throw new NullPointerException();
+            return newSubMap(null, false, toKey, inclusive);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey, boolean inclusive) {
+            if (fromKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, inclusive, null, false);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, K toKey) {
+            return subMap(fromKey, true, toKey, false);
+        }
+
+        public SubMap<K,V> headMap(K toKey) {
+            return headMap(toKey, false);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey) {
+            return tailMap(fromKey, true);
+        }
+
+        public SubMap<K,V> descendingMap() {
+            return new SubMap<K,V>(m, lo, loInclusive,
+                                   hi, hiInclusive, !isDescending);
+        }
+
+        /* ----------------  Relational methods -------------- */
+
+        public Map.Entry<K,V> ceilingEntry(K key) {
+            return getNearEntry(key, ABOVE|EQ);
+        }
+
+        public K ceilingKey(K key) {
+            return keyOrNull(getNearEntry(key, ABOVE|EQ));
+        }
+
+        public Map.Entry<K,V> lowerEntry(K key) {
+            return getNearEntry(key, BELOW);
+        }
+
+        public K lowerKey(K key) {
+            return keyOrNull(getNearEntry(key, BELOW));
+        }
+
+        public Map.Entry<K,V> floorEntry(K key) {
+            return getNearEntry(key, BELOW|EQ);
+        }
+
+        public K floorKey(K key) {
+            return keyOrNull(getNearEntry(key, BELOW|EQ));
+        }
+
+        public Map.Entry<K,V> higherEntry(K key) {
+            return getNearEntry(key, ABOVE);
+        }
+
+        public K higherKey(K key) {
+            return keyOrNull(getNearEntry(key, ABOVE));
+        }
+
+        public K firstKey() {
+            return isDescending ? highestKey() : lowestKey();
+        }
+
+        public K lastKey() {
+            return isDescending ? lowestKey() : highestKey();
+        }
+
+        public Map.Entry<K,V> firstEntry() {
+            return isDescending ? highestEntry() : lowestEntry();
+        }
+
+        public Map.Entry<K,V> lastEntry() {
+            return isDescending ? lowestEntry() : highestEntry();
+        }
+
+        public Map.Entry<K,V> pollFirstEntry() {
+            return isDescending ? removeHighest() : removeLowest();
+        }
+
+        public Map.Entry<K,V> pollLastEntry() {
+            return isDescending ? removeLowest() : removeHighest();
+        }
+
+        /* ---------------- Submap Views -------------- */
+
+        public NavigableSet<K> keySet() {
+            KeySet<K> ks = keySetView;
+            return (ks != null) ? ks : (keySetView = new KeySet<K>(this));
+        }
+
+        public NavigableSet<K> navigableKeySet() {
+            KeySet<K> ks = keySetView;
+            return (ks != null) ? ks : (keySetView = new KeySet<K>(this));
+        }
+
+        public Collection<V> values() {
+            Collection<V> vs = valuesView;
+            return (vs != null) ? vs : (valuesView = new Values<V>(this));
+        }
+
+        public Set<Map.Entry<K,V>> entrySet() {
+            Set<Map.Entry<K,V>> es = entrySetView;
+            return (es != null) ? es : (entrySetView = new EntrySet<K,V>(this));
+        }
+
+        public NavigableSet<K> descendingKeySet() {
+            return descendingMap().navigableKeySet();
+        }
+
+        Iterator<K> keyIterator() {
+            return m.new KeyIterator(lo, loInclusive, hi, hiInclusive,
+                                     isDescending);
+        }
+
+        Iterator<V> valueIterator() {
+            return m.new ValueIterator(lo, loInclusive, hi, hiInclusive,
+                                       isDescending);
+        }
+
+        Iterator<Map.Entry<K,V>> entryIterator() {
+            return m.new EntryIterator(lo, loInclusive, hi, hiInclusive,
+                                       isDescending);
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long VERSION;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = Node.class;
+            VERSION = U.objectFieldOffset
+                (k.getDeclaredField("version"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
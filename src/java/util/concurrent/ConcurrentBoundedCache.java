@@ -0,0 +1,1448 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A concurrent map that bounds its contents by entry count or total
+ * weight and that may expire entries a fixed time after they were
+ * written or last accessed.  Mappings are held in a
+ * {@link ConcurrentHashMap}, so retrievals are as concurrent as they are
+ * there; the bookkeeping needed to choose eviction victims is deferred
+ * and performed in batches on an {@link Executor}.
+ *
+ * <p>Victims are chosen by the W-TinyLFU policy.  New entries enter a
+ * small LRU <em>window</em> (one percent of the bound); entries leaving
+ * the window compete for a place in the <em>main</em> space, a
+ * segmented LRU whose <em>probation</em> segment supplies the victim.
+ * A candidate is admitted only if a compact frequency sketch, which
+ * counts recent accesses to both resident and recently evicted keys,
+ * estimates it to be more popular than the victim.  Entries accessed
+ * again while on probation are promoted to the <em>protected</em>
+ * segment.  This retains frequently used entries through scans that
+ * flush a plain LRU cache, while the window lets bursts of new entries
+ * build up frequency before they are judged.
+ *
+ * <p>Retrieval operations never block.  A read records the entry in a
+ * lossy, striped read buffer and returns; buffers are drained under a
+ * lock by a maintenance task that the read schedules once they fill.
+ * Writes are recorded in an unbounded write buffer that is never lossy;
+ * a writer that finds that buffer excessively backed up performs the
+ * maintenance itself.  Until maintenance runs, the size of the map may
+ * exceed its bound and expired entries may remain present, although
+ * they are never returned by retrieval operations.  {@link #cleanUp}
+ * forces maintenance to run on the calling thread.
+ *
+ * <p>Instances are created with a {@link Builder}:
+ *
+ * <pre> {@code
+ * ConcurrentBoundedCache<String, Graph> graphs =
+ *     ConcurrentBoundedCache.<String, Graph>newBuilder()
+ *         .maximumSize(10_000)
+ *         .expireAfterWrite(10, TimeUnit.MINUTES)
+ *         .build();}</pre>
+ *
+ * <p>Like {@link ConcurrentHashMap}, this class does <em>not</em> allow
+ * {@code null} to be used as a key or value, and its views and iterators
+ * are weakly consistent.  {@link #stats} reports hit, miss, eviction and
+ * expiration counts.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ * @see ConcurrentHashMap
+ * @see java.util.LinkedHashMap#removeEldestEntry
+ * @since 1.8
+ */
+public class ConcurrentBoundedCache<K,V> extends AbstractMap<K,V>
+    implements ConcurrentMap<K,V> {
+
+    /*
+     * Implementation overview:
+     *
+     * Each mapping is a Node stored as the value of the backing
+     * ConcurrentHashMap.  Writers mutate a node's value under the
+     * node's monitor; a node that has been removed from the map is
+     * "retired" under the same monitor, so writers that raced with a
+     * removal retry against the map.  The policy state - which queue a
+     * node is in, its place there, and the weight accounted for it - is
+     * touched only by the maintenance thread while it holds
+     * evictionLock.
+     *
+     * Reads and writes communicate with maintenance through buffers, as
+     * in the design of Caffeine and ConcurrentLinkedHashMap.  The read
+     * buffer is striped like Striped64's cells: each stripe is a small
+     * ring buffer chosen by the thread's probe, and the stripe table
+     * grows (up to MAX_STRIPES, four times the number of CPUs rounded
+     * up to a power of two) when threads collide.  Offers
+     * that find a stripe full are dropped, which costs only some
+     * accuracy in recency ordering.  Write tasks (add, update, remove)
+     * go to a ConcurrentLinkedQueue and are never dropped, since they
+     * carry the weight accounting.  Tasks may be processed out of order
+     * with respect to the map (a removal can be drained before the add
+     * it races with), so tasks check node state and the policy weight
+     * is recomputed rather than adjusted by deltas.
+     *
+     * drainStatus decides when maintenance must be scheduled: IDLE
+     * (nothing pending beyond what reads may lose), REQUIRED (a write is
+     * pending or a read stripe filled) and two PROCESSING states that
+     * record whether more work arrived while a task was running.
+     */
+
+    /* ---------------- Constants -------------- */
+
+    /** Number of CPUS, to place bounds on some sizings */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** Percentage of the maximum given to the window */
+    static final double PERCENT_WINDOW = 0.01d;
+
+    /** Percentage of the main space given to the protected segment */
+    static final double PERCENT_MAIN_PROTECTED = 0.80d;
+
+    /**
+     * Number of pending write tasks beyond which a writer performs
+     * maintenance itself instead of waiting for the executor.
+     */
+    static final int WRITE_BUFFER_MAX = 128 * ceilingPowerOfTwo(NCPU);
+
+    /** Maximum number of read stripes */
+    static final int MAX_STRIPES = 4 * ceilingPowerOfTwo(NCPU);
+
+    /** Candidate frequency above which admission may be randomized */
+    static final int ADMIT_HASHDOS_THRESHOLD = 6;
+
+    /** Drain status values */
+    static final int IDLE = 0;
+    static final int REQUIRED = 1;
+    static final int PROCESSING_TO_IDLE = 2;
+    static final int PROCESSING_TO_REQUIRED = 3;
+
+    /** Node queue values */
+    static final int WINDOW = 0, PROBATION = 1, PROTECTED = 2;
+
+    /** Node states */
+    static final int ALIVE = 0, RETIRED = 1, DEAD = 2;
+
+    static int ceilingPowerOfTwo(int x) {
+        return 1 << -Integer.numberOfLeadingZeros(x - 1);
+    }
+
+    /* ---------------- Nodes -------------- */
+
+    /**
+     * A mapping, linked into the policy's access-order and write-order
+     * deques.  Fields other than value, weight, the times and state are
+     * guarded by evictionLock.
+     */
+    static final class Node<K,V> {
+        final K key;
+        volatile V value;       // written under the node's monitor
+        volatile int weight;    // written under the node's monitor
+        volatile long accessTime;
+        volatile long writeTime;
+        volatile int state;     // written under the node's monitor
+
+        int queue;              // WINDOW, PROBATION or PROTECTED
+        int policyWeight;       // weight accounted in weightedSize
+        boolean linked;         // in the access-order deques
+        Node<K,V> prevInAccess, nextInAccess;
+        Node<K,V> prevInWrite, nextInWrite;
+
+        Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.accessTime = now;
+            this.writeTime = now;
+        }
+
+        boolean isAlive() { return state == ALIVE; }
+    }
+
+    /**
+     * An intrusive doubly-linked deque of nodes, threaded through either
+     * the access-order or the write-order links.  Accessed only under
+     * evictionLock.
+     */
+    static final class NodeDeque<K,V> {
+        final boolean writeOrder;
+        Node<K,V> first, last;
+
+        NodeDeque(boolean writeOrder) {
+            this.writeOrder = writeOrder;
+        }
+
+        Node<K,V> prev(Node<K,V> e) {
+            return writeOrder ? e.prevInWrite : e.prevInAccess;
+        }
+
+        Node<K,V> next(Node<K,V> e) {
+            return writeOrder ? e.nextInWrite : e.nextInAccess;
+        }
+
+        void setPrev(Node<K,V> e, Node<K,V> p) {
+            if (writeOrder) e.prevInWrite = p; else e.prevInAccess = p;
+        }
+
+        void setNext(Node<K,V> e, Node<K,V> n) {
+            if (writeOrder) e.nextInWrite = n; else e.nextInAccess = n;
+        }
+
+        boolean contains(Node<K,V> e) {
+            return prev(e) != null || next(e) != null || first == e;
+        }
+
+        void addLast(Node<K,V> e) {
+            Node<K,V> l = last;
+            last = e;
+            if (l == null)
+                first = e;
+            else {
+                setNext(l, e);
+                setPrev(e, l);
+            }
+        }
+
+        void remove(Node<K,V> e) {
+            Node<K,V> p = prev(e), n = next(e);
+            if (p == null)
+                first = n;
+            else {
+                setNext(p, n);
+                setPrev(e, null);
+            }
+            if (n == null)
+                last = p;
+            else {
+                setPrev(n, p);
+                setNext(e, null);
+            }
+        }
+
+        void moveToBack(Node<K,V> e) {
+            if (e != last) {
+                remove(e);
+                addLast(e);
+            }
+        }
+    }
+
+    /* ---------------- Read buffer -------------- */
+
+    /**
+     * A bounded multiple-producer, single-consumer ring buffer.
+     * Producers claim a slot by CAS on the write counter; the consumer,
+     * which holds evictionLock, trails behind on the read counter.
+     */
+    @sun.misc.Contended static final class RingBuffer<E> {
+        static final int SIZE = 16, MASK = SIZE - 1;
+        final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<E>(SIZE);
+        final AtomicLong writeCounter = new AtomicLong();
+        volatile long readCounter;
+
+        /** Returns 0 on success, 1 if full, -1 if the CAS was contended */
+        int offer(E e) {
+            long head = readCounter, tail = writeCounter.get();
+            if (tail - head >= SIZE)
+                return 1;
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int)tail & MASK, e);
+                return 0;
+            }
+            return -1;
+        }
+
+        void drainTo(Consumer<E> consumer) {
+            long head = readCounter, tail = writeCounter.get();
+            for (; head != tail; ++head) {
+                int i = (int)head & MASK;
+                E e = buffer.get(i);
+                if (e == null)
+                    break;      // not yet published by its producer
+                buffer.lazySet(i, null);
+                consumer.accept(e);
+            }
+            readCounter = head;
+        }
+    }
+
+    /**
+     * A table of ring buffers striped by thread probe, expanded on
+     * contention in the manner of Striped64.
+     */
+    static final class ReadBuffer<E> {
+        volatile RingBuffer<E>[] stripes;
+        final AtomicInteger stripesBusy = new AtomicInteger();
+
+        /** Returns true if the element was recorded, false if full */
+        boolean offer(E e) {
+            int h;
+            if ((h = ThreadLocalRandom.getProbe()) == 0) {
+                ThreadLocalRandom.localInit();
+                h = ThreadLocalRandom.getProbe();
+            }
+            boolean collided = false;
+            for (int attempt = 0; attempt < 3; ++attempt) {
+                RingBuffer<E>[] rs; RingBuffer<E> r; int n;
+                if ((rs = stripes) == null || (n = rs.length) == 0 ||
+                    (r = rs[h & (n - 1)]) == null) {
+                    expand(rs, h);
+                    continue;
+                }
+                int result = r.offer(e);
+                if (result >= 0)
+                    return result == 0;
+                if (collided && n < MAX_STRIPES)
+                    expand(rs, h);
+                collided = true;
+                h = ThreadLocalRandom.advanceProbe(h);
+            }
+            return true;        // dropped under contention; not "full"
+        }
+
+        @SuppressWarnings("unchecked")
+        void expand(RingBuffer<E>[] rs, int h) {
+            if (stripesBusy.get() == 0 && stripesBusy.compareAndSet(0, 1)) {
+                try {
+                    if (stripes == rs) {
+                        int n = (rs == null) ? 0 : rs.length;
+                        RingBuffer<E>[] nrs;
+                        if (n == 0)
+                            nrs = (RingBuffer<E>[])new RingBuffer<?>[1];
+                        else if (rs[h & (n - 1)] == null)
+                            nrs = rs;
+                        else
+                            nrs = java.util.Arrays.copyOf(rs, n << 1);
+                        for (int i = 0; i < nrs.length; ++i) {
+                            if (nrs[i] == null)
+                                nrs[i] = new RingBuffer<E>();
+                        }
+                        stripes = nrs;
+                    }
+                } finally {
+                    stripesBusy.set(0);
+                }
+            }
+        }
+
+        void drainTo(Consumer<E> consumer) {
+            RingBuffer<E>[] rs = stripes;
+            if (rs != null) {
+                for (RingBuffer<E> r : rs) {
+                    if (r != null)
+                        r.drainTo(consumer);
+                }
+            }
+        }
+    }
+
+    /* ---------------- Frequency sketch -------------- */
+
+    /**
+     * A count-min sketch of four-bit counters estimating how often each
+     * key has been accessed recently.  All counters are halved once the
+     * number of increments reaches ten times the maximum, so that the
+     * history ages.  Accessed only under evictionLock.
+     */
+    static final class FrequencySketch {
+        static final long[] SEED = { // a mixture of seeds from FNV-1a, CityHash, and Murmur3
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        static final long RESET_MASK = 0x7777777777777777L;
+        static final long ONE_MASK = 0x1111111111111111L;
+
+        final long[] table;
+        final int tableMask;
+        final int sampleSize;
+        int size;
+
+        FrequencySketch(long maximum) {
+            int cap = (int)Math.min(Math.max(maximum, 1L), 1 << 26);
+            table = new long[ceilingPowerOfTwo(cap)];
+            tableMask = table.length - 1;
+            sampleSize = (int)Math.min(10L * Math.max(maximum, 1L),
+                                       Integer.MAX_VALUE);
+        }
+
+        static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+
+        int indexOf(int item, int i) {
+            long hash = (item + SEED[i]) * SEED[i];
+            hash += hash >>> 32;
+            return ((int)hash) & tableMask;
+        }
+
+        int frequency(Object e) {
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; ++i) {
+                long word = table[indexOf(hash, i)];
+                int count = (int)((word >>> ((start + i) << 2)) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(Object e) {
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; ++i) {
+                int index = indexOf(hash, i), offset = (start + i) << 2;
+                long mask = 0xfL << offset;
+                if ((table[index] & mask) != mask) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++size == sampleSize)
+                reset();
+        }
+
+        void reset() {
+            int count = 0;
+            for (int i = 0; i < table.length; ++i) {
+                count += Long.bitCount(table[i] & ONE_MASK);
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            size = (size >>> 1) - (count >>> 2);
+        }
+    }
+
+    /* ---------------- Statistics -------------- */
+
+    /**
+     * An immutable snapshot of a cache's statistics.
+     */
+    public static final class Stats {
+        private final long hitCount, missCount, evictionCount,
+            evictionWeight, expirationCount;
+
+        Stats(long hitCount, long missCount, long evictionCount,
+              long evictionWeight, long expirationCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.evictionWeight = evictionWeight;
+            this.expirationCount = expirationCount;
+        }
+
+        /** @return the number of lookups that found a live mapping */
+        public long hitCount()        { return hitCount; }
+        /** @return the number of lookups that found no live mapping */
+        public long missCount()       { return missCount; }
+        /** @return the number of entries evicted to respect the bound */
+        public long evictionCount()   { return evictionCount; }
+        /** @return the total weight of entries evicted for the bound */
+        public long evictionWeight()  { return evictionWeight; }
+        /** @return the number of entries removed because they expired */
+        public long expirationCount() { return expirationCount; }
+        /** @return the number of lookups */
+        public long requestCount()    { return hitCount + missCount; }
+
+        /**
+         * Returns the ratio of hits to lookups, or 1.0 if there have
+         * been no lookups.
+         *
+         * @return the hit rate
+         */
+        public double hitRate() {
+            long requests = requestCount();
+            return (requests == 0L) ? 1.0d : (double)hitCount / requests;
+        }
+
+        public String toString() {
+            return "Stats[hits=" + hitCount + ", misses=" + missCount +
+                ", evictions=" + evictionCount + ", evictionWeight=" +
+                evictionWeight + ", expirations=" + expirationCount + "]";
+        }
+    }
+
+    /* ---------------- Fields -------------- */
+
+    final ConcurrentHashMap<K,Node<K,V>> data;
+    final ToIntBiFunction<? super K, ? super V> weigher;
+    final long maximum;                 // -1 if unbounded
+    final long expireAfterWriteNanos;   // -1 if not expiring
+    final long expireAfterAccessNanos;  // -1 if not expiring
+    final Executor executor;
+    final LongSupplier ticker;
+
+    final ReentrantLock evictionLock = new ReentrantLock();
+    final ReadBuffer<Node<K,V>> readBuffer = new ReadBuffer<Node<K,V>>();
+    final ConcurrentLinkedQueue<Runnable> writeBuffer =
+        new ConcurrentLinkedQueue<Runnable>();
+    final AtomicInteger pendingWrites = new AtomicInteger();
+    final AtomicInteger drainStatus = new AtomicInteger();
+    final Runnable drainBuffersTask = new Runnable() {
+        public void run() { performCleanUp(); }
+    };
+
+    // Policy state, guarded by evictionLock
+    final NodeDeque<K,V> window = new NodeDeque<K,V>(false);
+    final NodeDeque<K,V> probation = new NodeDeque<K,V>(false);
+    final NodeDeque<K,V> protectedDeque = new NodeDeque<K,V>(false);
+    final NodeDeque<K,V> writeOrder = new NodeDeque<K,V>(true);
+    final FrequencySketch sketch;
+    final long windowMaximum, protectedMaximum;
+    long weightedSize, windowWeightedSize, protectedWeightedSize;
+
+    final LongAdder hits = new LongAdder(), misses = new LongAdder();
+    final LongAdder evictions = new LongAdder(), evictedWeight = new LongAdder();
+    final LongAdder expirations = new LongAdder();
+
+    // views
+    transient EntrySetView entrySet;
+
+    ConcurrentBoundedCache(Builder<K,V> b) {
+        this.data = new ConcurrentHashMap<K,Node<K,V>>(b.initialCapacity);
+        this.weigher = b.weigher;
+        this.maximum = (b.maximumWeight >= 0L) ? b.maximumWeight : b.maximumSize;
+        this.expireAfterWriteNanos = b.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = b.expireAfterAccessNanos;
+        this.executor = (b.executor != null) ? b.executor :
+            ForkJoinPool.commonPool();
+        this.ticker = (b.ticker != null) ? b.ticker : System::nanoTime;
+        if (maximum >= 0L) {
+            windowMaximum = Math.max(maximum == 0L ? 0L : 1L,
+                                     (long)(maximum * PERCENT_WINDOW));
+            protectedMaximum =
+                (long)((maximum - windowMaximum) * PERCENT_MAIN_PROTECTED);
+            sketch = new FrequencySketch(maximum);
+        } else {
+            windowMaximum = protectedMaximum = Long.MAX_VALUE;
+            sketch = null;
+        }
+    }
+
+    /**
+     * Returns a new builder with default settings: no bound, no
+     * expiration, unit weights, maintenance on
+     * {@link ForkJoinPool#commonPool()}.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @return a new builder
+     */
+    public static <K,V> Builder<K,V> newBuilder() {
+        return new Builder<K,V>();
+    }
+
+    /**
+     * A builder of {@link ConcurrentBoundedCache} instances.  A cache may
+     * be bounded by size or by weight, but not both.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     */
+    public static final class Builder<K,V> {
+        long maximumSize = -1L, maximumWeight = -1L;
+        ToIntBiFunction<? super K, ? super V> weigher;
+        long expireAfterWriteNanos = -1L, expireAfterAccessNanos = -1L;
+        Executor executor;
+        LongSupplier ticker;
+        int initialCapacity = 16;
+
+        Builder() {}
+
+        /**
+         * Bounds the number of entries.
+         *
+         * @param maximumSize the maximum number of entries
+         * @return this builder
+         * @throws IllegalArgumentException if negative
+         * @throws IllegalStateException if a bound was already set
+         */
+        public Builder<K,V> maximumSize(long maximumSize) {
+            if (maximumSize < 0L)
+                throw new IllegalArgumentException();
+            if (this.maximumSize >= 0L || maximumWeight >= 0L)
+                throw new IllegalStateException("bound already set");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Bounds the total weight of entries, as computed by the weigher
+         * when each value is written.
+         *
+         * @param maximumWeight the maximum total weight
+         * @param weigher computes a non-negative weight for a mapping
+         * @return this builder
+         * @throws IllegalArgumentException if the maximum is negative
+         * @throws IllegalStateException if a bound was already set
+         * @throws NullPointerException if the weigher is null
+         */
+        public Builder<K,V> maximumWeight(long maximumWeight,
+                ToIntBiFunction<? super K, ? super V> weigher) {
+            if (weigher == null)
+                throw new NullPointerException();
+            if (maximumWeight < 0L)
+                throw new IllegalArgumentException();
+            if (maximumSize >= 0L || this.maximumWeight >= 0L)
+                throw new IllegalStateException("bound already set");
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Expires each entry the given duration after its value was last
+         * written.
+         *
+         * @param duration the length of time after a write
+         * @param unit the unit of duration
+         * @return this builder
+         * @throws IllegalArgumentException if the duration is negative
+         */
+        public Builder<K,V> expireAfterWrite(long duration, TimeUnit unit) {
+            if (duration < 0L)
+                throw new IllegalArgumentException();
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Expires each entry the given duration after it was last read
+         * or written.
+         *
+         * @param duration the length of time after an access
+         * @param unit the unit of duration
+         * @return this builder
+         * @throws IllegalArgumentException if the duration is negative
+         */
+        public Builder<K,V> expireAfterAccess(long duration, TimeUnit unit) {
+            if (duration < 0L)
+                throw new IllegalArgumentException();
+            this.expireAfterAccessNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets the executor on which maintenance runs.  A
+         * {@code Runnable::run} executor performs it on the thread that
+         * triggers it.
+         *
+         * @param executor the executor
+         * @return this builder
+         * @throws NullPointerException if the executor is null
+         */
+        public Builder<K,V> executor(Executor executor) {
+            if (executor == null)
+                throw new NullPointerException();
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the nanosecond time source used for expiration, by default
+         * {@link System#nanoTime}.
+         *
+         * @param ticker the time source
+         * @return this builder
+         * @throws NullPointerException if the ticker is null
+         */
+        public Builder<K,V> ticker(LongSupplier ticker) {
+            if (ticker == null)
+                throw new NullPointerException();
+            this.ticker = ticker;
+            return this;
+        }
+
+        /**
+         * Sets the initial capacity of the backing map.
+         *
+         * @param initialCapacity the initial capacity
+         * @return this builder
+         * @throws IllegalArgumentException if negative
+         */
+        public Builder<K,V> initialCapacity(int initialCapacity) {
+            if (initialCapacity < 0)
+                throw new IllegalArgumentException();
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        /**
+         * Builds a cache with the current settings.
+         *
+         * @param <K1> the type of keys
+         * @param <V1> the type of values
+         * @return a new, empty cache
+         */
+        @SuppressWarnings("unchecked")
+        public <K1 extends K, V1 extends V> ConcurrentBoundedCache<K1,V1> build() {
+            return new ConcurrentBoundedCache<K1,V1>((Builder<K1,V1>)this);
+        }
+    }
+
+    /* ---------------- Expiration and weights -------------- */
+
+    final boolean expiresAfterWrite()  { return expireAfterWriteNanos >= 0L; }
+    final boolean expiresAfterAccess() { return expireAfterAccessNanos >= 0L; }
+    final boolean evicts()             { return maximum >= 0L; }
+
+    final boolean hasExpired(Node<K,V> node, long now) {
+        return (expiresAfterAccess() &&
+                now - node.accessTime >= expireAfterAccessNanos) ||
+            (expiresAfterWrite() &&
+             now - node.writeTime >= expireAfterWriteNanos);
+    }
+
+    final int weigh(K key, V value) {
+        if (weigher == null)
+            return 1;
+        int w = weigher.applyAsInt(key, value);
+        if (w < 0)
+            throw new IllegalArgumentException("negative weight");
+        return w;
+    }
+
+    final long now() {
+        return (expiresAfterWrite() || expiresAfterAccess()) ?
+            ticker.getAsLong() : 0L;
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this cache contains no live mapping for the key.
+     * This method never blocks.
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public V get(Object key) {
+        Node<K,V> node = data.get(key);
+        if (node == null || !node.isAlive()) {
+            misses.increment();
+            return null;
+        }
+        long now = now();
+        if (hasExpired(node, now)) {
+            misses.increment();
+            scheduleAfterWrite();
+            return null;
+        }
+        V value = node.value;
+        if (expiresAfterAccess())
+            node.accessTime = now;
+        afterRead(node);
+        hits.increment();
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        Node<K,V> node = data.get(key);
+        return node != null && node.isAlive() && !hasExpired(node, now());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified value is null
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+        long now = now();
+        for (Node<K,V> node : data.values()) {
+            if (node.isAlive() && value.equals(node.value) &&
+                !hasExpired(node, now))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of mappings in the backing map.  Until
+     * maintenance has run this may include expired mappings and exceed
+     * the bound.
+     *
+     * @return the number of mappings
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    /**
+     * Returns the total weight of the entries accounted for by the last
+     * maintenance run.
+     *
+     * @return the weighted size
+     */
+    public long weightedSize() {
+        evictionLock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Maps the specified key to the specified value, possibly evicting
+     * other entries once maintenance runs.
+     *
+     * @return the previous live value associated with {@code key}, or
+     *         {@code null} if there was none
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous live value associated with the specified key,
+     *         or {@code null} if there was none
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    final V put(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        int weight = weigh(key, value);
+        long now = now();
+        Node<K,V> node = null;
+        V oldValue;
+        for (;;) {
+            Node<K,V> prior = data.get(key);
+            if (prior == null) {
+                if (node == null)
+                    node = new Node<K,V>(key, value, weight, now);
+                if ((prior = data.putIfAbsent(key, node)) == null) {
+                    afterWrite(new AddTask(node));
+                    return null;
+                }
+            }
+            boolean expired;
+            synchronized (prior) {
+                if (!prior.isAlive())
+                    continue;           // removed concurrently; retry
+                oldValue = prior.value;
+                expired = hasExpired(prior, now);
+                if (onlyIfAbsent && !expired) {
+                    if (expiresAfterAccess())
+                        prior.accessTime = now;
+                    node = prior;
+                    break;
+                }
+                prior.value = value;
+                prior.weight = weight;
+                prior.writeTime = now;
+                prior.accessTime = now;
+            }
+            afterWrite(new UpdateTask(prior));
+            return expired ? null : oldValue;
+        }
+        afterRead(node);
+        return oldValue;
+    }
+
+    /**
+     * Removes the mapping for a key from this cache if it is present.
+     *
+     * @return the previous live value associated with {@code key}, or
+     *         {@code null} if there was none
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        Node<K,V> node = data.remove(key);
+        if (node == null)
+            return null;
+        V oldValue;
+        synchronized (node) {
+            oldValue = node.value;
+            node.state = RETIRED;
+        }
+        afterWrite(new RemovalTask(node));
+        return hasExpired(node, now()) ? null : oldValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        if (value == null)
+            return false;
+        long now = now();
+        @SuppressWarnings("unchecked")
+        Node<K,V>[] removed = (Node<K,V>[])new Node<?,?>[1];
+        data.computeIfPresent(castKey(key), (k, n) -> {
+            synchronized (n) {
+                if (n.isAlive() && value.equals(n.value) &&
+                    !hasExpired(n, now)) {
+                    n.state = RETIRED;
+                    removed[0] = n;
+                    return null;
+                }
+            }
+            return n;
+        });
+        if (removed[0] == null)
+            return false;
+        afterWrite(new RemovalTask(removed[0]));
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K> K castKey(Object key) {
+        return (K)key;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null)
+            throw new NullPointerException();
+        Node<K,V> node = data.get(key);
+        if (node == null)
+            return false;
+        int weight = weigh(key, newValue);
+        long now = now();
+        synchronized (node) {
+            if (!node.isAlive() || !oldValue.equals(node.value) ||
+                hasExpired(node, now))
+                return false;
+            node.value = newValue;
+            node.weight = weight;
+            node.writeTime = now;
+            node.accessTime = now;
+        }
+        afterWrite(new UpdateTask(node));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous live value associated with the specified key,
+     *         or {@code null} if there was none
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        Node<K,V> node = data.get(key);
+        if (node == null)
+            return null;
+        int weight = weigh(key, value);
+        long now = now();
+        V oldValue;
+        synchronized (node) {
+            if (!node.isAlive() || hasExpired(node, now))
+                return null;
+            oldValue = node.value;
+            node.value = value;
+            node.weight = weight;
+            node.writeTime = now;
+            node.accessTime = now;
+        }
+        afterWrite(new UpdateTask(node));
+        return oldValue;
+    }
+
+    /**
+     * Removes all of the mappings from this cache.
+     */
+    public void clear() {
+        evictionLock.lock();
+        try {
+            for (K key : data.keySet())
+                remove(key);
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Performs any pending maintenance - draining the buffers, expiring
+     * entries and evicting entries over the bound - on the calling
+     * thread.
+     */
+    public void cleanUp() {
+        performCleanUp();
+    }
+
+    /**
+     * Returns a snapshot of this cache's cumulative statistics.
+     *
+     * @return the statistics
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(),
+                         evictedWeight.sum(), expirations.sum());
+    }
+
+    /**
+     * Returns a {@link Set} view of the live mappings contained in this
+     * cache.  Reading entries through the view does not count as access
+     * and does not affect statistics; {@code setValue} writes through
+     * with {@link #put}.
+     *
+     * @return the set view
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySetView es;
+        return (es = entrySet) != null ? es : (entrySet = new EntrySetView());
+    }
+
+    final class EntrySetView extends AbstractSet<Map.Entry<K,V>> {
+        public int size()        { return ConcurrentBoundedCache.this.size(); }
+        public boolean isEmpty() { return ConcurrentBoundedCache.this.isEmpty(); }
+        public void clear()      { ConcurrentBoundedCache.this.clear(); }
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Node<K,V> node; Object k = e.getKey(), v = e.getValue();
+            return k != null && v != null &&
+                (node = data.get(k)) != null && node.isAlive() &&
+                v.equals(node.value) && !hasExpired(node, now());
+        }
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            return ConcurrentBoundedCache.this.remove(e.getKey(), e.getValue());
+        }
+        public Iterator<Map.Entry<K,V>> iterator() {
+            return new EntryIterator();
+        }
+    }
+
+    final class EntryIterator implements Iterator<Map.Entry<K,V>> {
+        final Iterator<Node<K,V>> it = data.values().iterator();
+        final long now = now();
+        Node<K,V> next;
+        V nextValue;
+        K lastKey;
+
+        public boolean hasNext() {
+            while (next == null && it.hasNext()) {
+                Node<K,V> n = it.next();
+                V v = n.value;
+                if (n.isAlive() && !hasExpired(n, now)) {
+                    next = n;
+                    nextValue = v;
+                }
+            }
+            return next != null;
+        }
+
+        public Map.Entry<K,V> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            K k = lastKey = next.key;
+            V v = nextValue;
+            next = null;
+            nextValue = null;
+            return new AbstractMap.SimpleEntry<K,V>(k, v) {
+                private static final long serialVersionUID = 1L;
+                public V setValue(V value) {
+                    ConcurrentBoundedCache.this.put(k, value);
+                    return super.setValue(value);
+                }
+            };
+        }
+
+        public void remove() {
+            K k;
+            if ((k = lastKey) == null)
+                throw new IllegalStateException();
+            lastKey = null;
+            ConcurrentBoundedCache.this.remove(k);
+        }
+    }
+
+    /* ---------------- Buffer draining -------------- */
+
+    /**
+     * Records a read and schedules maintenance if the read buffer stripe
+     * was full.  Never blocks.
+     */
+    final void afterRead(Node<K,V> node) {
+        if (node == null)
+            return;
+        boolean delayable = readBuffer.offer(node);
+        int status = drainStatus.get();
+        if (status == REQUIRED || (status == IDLE && !delayable))
+            scheduleDrainBuffers();
+    }
+
+    /**
+     * Records a write task and schedules maintenance, performing it on
+     * the calling thread if the write buffer is backed up.
+     */
+    final void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        if (pendingWrites.incrementAndGet() > WRITE_BUFFER_MAX)
+            performCleanUp();
+        else
+            scheduleAfterWrite();
+    }
+
+    /**
+     * Marks maintenance as required and schedules it unless a running
+     * task will pick up the new work.
+     */
+    final void scheduleAfterWrite() {
+        for (;;) {
+            int status = drainStatus.get();
+            switch (status) {
+            case IDLE:
+                drainStatus.compareAndSet(IDLE, REQUIRED);
+                scheduleDrainBuffers();
+                return;
+            case REQUIRED:
+                scheduleDrainBuffers();
+                return;
+            case PROCESSING_TO_IDLE:
+                if (drainStatus.compareAndSet(PROCESSING_TO_IDLE,
+                                              PROCESSING_TO_REQUIRED))
+                    return;
+                continue;
+            default:                    // PROCESSING_TO_REQUIRED
+                return;
+            }
+        }
+    }
+
+    /**
+     * Submits the maintenance task if none is pending.  Does not block:
+     * if the eviction lock is held, its holder will see the work.
+     */
+    final void scheduleDrainBuffers() {
+        if (drainStatus.get() >= PROCESSING_TO_IDLE)
+            return;
+        if (evictionLock.tryLock()) {
+            try {
+                if (drainStatus.get() >= PROCESSING_TO_IDLE)
+                    return;
+                drainStatus.lazySet(PROCESSING_TO_IDLE);
+                executor.execute(drainBuffersTask);
+            } catch (Throwable t) {
+                maintenance();          // executor refused; run inline
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Runs maintenance under the eviction lock, rescheduling if more
+     * work arrived while it ran.
+     */
+    final void performCleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+        if (drainStatus.get() == REQUIRED)
+            scheduleDrainBuffers();
+    }
+
+    /**
+     * Drains the buffers and applies the expiration and size policies.
+     * Requires evictionLock.
+     */
+    final void maintenance() {
+        drainStatus.lazySet(PROCESSING_TO_IDLE);
+        try {
+            readBuffer.drainTo(this::onAccess);
+            Runnable task;
+            while ((task = writeBuffer.poll()) != null) {
+                pendingWrites.decrementAndGet();
+                task.run();
+            }
+            expireEntries();
+            evictEntries();
+        } finally {
+            if (drainStatus.get() != PROCESSING_TO_IDLE ||
+                !drainStatus.compareAndSet(PROCESSING_TO_IDLE, IDLE))
+                drainStatus.lazySet(REQUIRED);
+        }
+    }
+
+    /* ---------------- Policy (requires evictionLock) -------------- */
+
+    final NodeDeque<K,V> accessOrderDeque(Node<K,V> node) {
+        return (node.queue == WINDOW) ? window :
+            (node.queue == PROBATION) ? probation : protectedDeque;
+    }
+
+    /**
+     * Updates recency and frequency for a node that was read.
+     */
+    final void onAccess(Node<K,V> node) {
+        if (sketch != null)
+            sketch.increment(node.key);
+        if (!node.linked)
+            return;
+        if (node.queue == PROBATION && evicts()) {
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedDeque.addLast(node);
+            protectedWeightedSize += node.policyWeight;
+            demoteFromProtected();
+        }
+        else
+            accessOrderDeque(node).moveToBack(node);
+    }
+
+    /**
+     * Moves the least recent protected entries to probation while the
+     * protected segment is over its share.
+     */
+    final void demoteFromProtected() {
+        Node<K,V> node;
+        while (protectedWeightedSize > protectedMaximum &&
+               (node = protectedDeque.first) != null) {
+            protectedDeque.remove(node);
+            node.queue = PROBATION;
+            probation.addLast(node);
+            protectedWeightedSize -= node.policyWeight;
+        }
+    }
+
+    final class AddTask implements Runnable {
+        final Node<K,V> node;
+        AddTask(Node<K,V> node) { this.node = node; }
+        public void run() {
+            if (!node.isAlive())
+                return;         // removed before its addition was drained
+            int w = node.weight;
+            node.policyWeight = w;
+            node.queue = WINDOW;
+            node.linked = true;
+            window.addLast(node);
+            weightedSize += w;
+            windowWeightedSize += w;
+            if (expiresAfterWrite())
+                writeOrder.addLast(node);
+            if (sketch != null)
+                sketch.increment(node.key);
+        }
+    }
+
+    final class UpdateTask implements Runnable {
+        final Node<K,V> node;
+        UpdateTask(Node<K,V> node) { this.node = node; }
+        public void run() {
+            if (!node.linked)
+                return;         // its AddTask will account the weight
+            int w = node.weight, delta = w - node.policyWeight;
+            node.policyWeight = w;
+            weightedSize += delta;
+            if (node.queue == WINDOW)
+                windowWeightedSize += delta;
+            else if (node.queue == PROTECTED)
+                protectedWeightedSize += delta;
+            if (expiresAfterWrite())
+                writeOrder.moveToBack(node);
+            onAccess(node);
+        }
+    }
+
+    final class RemovalTask implements Runnable {
+        final Node<K,V> node;
+        RemovalTask(Node<K,V> node) { this.node = node; }
+        public void run() {
+            unlink(node);
+        }
+    }
+
+    /**
+     * Removes a node from the policy structures and marks it dead.
+     */
+    final void unlink(Node<K,V> node) {
+        if (node.linked) {
+            accessOrderDeque(node).remove(node);
+            if (expiresAfterWrite())
+                writeOrder.remove(node);
+            int w = node.policyWeight;
+            weightedSize -= w;
+            if (node.queue == WINDOW)
+                windowWeightedSize -= w;
+            else if (node.queue == PROTECTED)
+                protectedWeightedSize -= w;
+            node.linked = false;
+        }
+        node.state = DEAD;
+    }
+
+    /**
+     * Removes a node from the map, if it is still mapped, and from the
+     * policy.  Returns false if a writer removed it first.
+     */
+    final boolean evict(Node<K,V> node) {
+        boolean[] removed = new boolean[1];
+        data.computeIfPresent(node.key, (k, n) -> {
+            if (n != node)
+                return n;
+            synchronized (n) {
+                n.state = RETIRED;
+            }
+            removed[0] = true;
+            return null;
+        });
+        unlink(node);           // a pending RemovalTask will find it unlinked
+        return removed[0];
+    }
+
+    /**
+     * Removes entries whose time has passed from the heads of the
+     * access-order and write-order deques.
+     */
+    final void expireEntries() {
+        if (!expiresAfterAccess() && !expiresAfterWrite())
+            return;
+        long now = ticker.getAsLong();
+        if (expiresAfterAccess()) {
+            expireFrom(window, now);
+            expireFrom(probation, now);
+            expireFrom(protectedDeque, now);
+        }
+        if (expiresAfterWrite())
+            expireFrom(writeOrder, now);
+    }
+
+    final void expireFrom(NodeDeque<K,V> deque, long now) {
+        Node<K,V> node;
+        while ((node = deque.first) != null && hasExpired(node, now)) {
+            if (evict(node))
+                expirations.increment();
+        }
+    }
+
+    /**
+     * Moves entries from the window to probation while the window is
+     * over its share, then evicts from the main space until the cache
+     * is within its bound, admitting window candidates only if the
+     * sketch rates them more frequent than the probation victims.
+     */
+    final void evictEntries() {
+        if (!evicts())
+            return;
+        int candidates = 0;
+        Node<K,V> node;
+        while (windowWeightedSize > windowMaximum &&
+               (node = window.first) != null) {
+            window.remove(node);
+            node.queue = PROBATION;
+            probation.addLast(node);
+            windowWeightedSize -= node.policyWeight;
+            ++candidates;
+        }
+        while (weightedSize > maximum) {
+            Node<K,V> victim = probation.first;
+            Node<K,V> candidate = (candidates > 0) ? probation.last : null;
+            Node<K,V> evictee;
+            if (victim == null) {
+                if ((evictee = protectedDeque.first) == null &&
+                    (evictee = window.first) == null)
+                    break;
+            }
+            else if (candidate == null || candidate == victim) {
+                evictee = victim;
+                if (candidate != null)
+                    --candidates;
+            }
+            else {
+                evictee = admit(candidate.key, victim.key) ? victim : candidate;
+                --candidates;
+            }
+            int w = evictee.policyWeight;
+            if (evict(evictee)) {
+                evictions.increment();
+                evictedWeight.add(w);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the candidate should replace the victim, per the
+     * TinyLFU frequency estimates.  Warm candidates are occasionally
+     * admitted at random so that an attacker cannot pin a victim by
+     * forging hash collisions.
+     */
+    final boolean admit(K candidateKey, K victimKey) {
+        int victimFreq = sketch.frequency(victimKey);
+        int candidateFreq = sketch.frequency(candidateKey);
+        if (candidateFreq > victimFreq)
+            return true;
+        if (candidateFreq < ADMIT_HASHDOS_THRESHOLD)
+            return false;
+        return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+}
@@ -128,6 +128,45 @@ public class Executors {
              null, true);
     }
 
+    /**
+     * Creates an executor that runs each task as if in its own
+     * lightweight thread, for workloads of many concurrent tasks that
+     * spend most of their time blocked.  Tasks are scheduled in FIFO
+     * order on a work-stealing pool in async mode, targeting all
+     * {@link Runtime#availableProcessors available processors}, whose
+     * carrier threads are created with a small stack.
+     *
+     * <p>When a task blocks via {@link
+     * java.util.concurrent.locks.LockSupport#park LockSupport.park},
+     * as do all locks, synchronizers, blocking queues and futures in
+     * this package and {@code java.util.concurrent.locks}, the pool
+     * treats the block as a {@link ForkJoinPool#managedBlock managed
+     * block}: it activates an idle carrier, or creates a spare one, so
+     * that the targeted parallelism remains available to other tasks.
+     * The number of carriers therefore grows with the number of
+     * simultaneously blocked tasks, up to the pool's thread limit,
+     * after which further blocked tasks park without compensation.
+     * Blocking that does not go through {@code LockSupport}, such as
+     * stream or socket I/O, {@code Object.wait} or {@code
+     * Thread.sleep}, should be wrapped by the task in a {@link
+     * ForkJoinPool.ManagedBlocker} to obtain the same effect.
+     *
+     * <p>A blocked task keeps its carrier thread until it resumes, so
+     * every simultaneously blocked task still occupies one OS thread;
+     * this executor limits the number of runnable carriers and their
+     * stack size, not the number of threads needed by blocked tasks.
+     *
+     * @return the newly created executor
+     * @see #newWorkStealingPool()
+     * @since 1.8
+     */
+    public static ExecutorService newLightweightThreadPerTaskExecutor() {
+        return new ForkJoinPool
+            (Runtime.getRuntime().availableProcessors(),
+             new LightweightCarrierFactory(LIGHTWEIGHT_STACK_SIZE),
+             null, true);
+    }
+
     /**
      * Creates a thread pool that reuses a fixed number of threads
      * operating off a shared unbounded queue, using the provided
@@ -590,6 +629,28 @@ public class Executors {
         }
     }
 
+    /**
+     * The requested stack size, in bytes, of the carrier threads of
+     * newLightweightThreadPerTaskExecutor.
+     */
+    static final long LIGHTWEIGHT_STACK_SIZE = 256L * 1024L;
+
+    /**
+     * Factory for the carrier threads of
+     * newLightweightThreadPerTaskExecutor: small-stack workers whose
+     * parks are routed through ForkJoinPool.managedBlock.
+     */
+    static final class LightweightCarrierFactory
+        implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final long stackSize;
+        LightweightCarrierFactory(long stackSize) {
+            this.stackSize = stackSize;
+        }
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            return new ForkJoinWorkerThread(pool, stackSize);
+        }
+    }
+
     /**
      * The default thread factory
      */
@@ -50,6 +50,7 @@ import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.security.AccessControlContext;
 import java.security.ProtectionDomain;
 import java.security.Permissions;
@@ -95,7 +96,17 @@ import java.security.Permissions;
  * {@link #getStealCount}) that are intended to aid in developing,
  * tuning, and monitoring fork/join applications. Also, method
  * {@link #toString} returns indications of pool state in a
- * convenient form for informal monitoring.
+ * convenient form for informal monitoring.  For diagnosing stalls,
+ * method {@link #getStatistics} returns a snapshot of internal
+ * counters: per-worker steal attempts, steals, fruitless scans and
+ * parks, together with pool-wide wakeups, contention among external
+ * submitters, and blocking compensation.  The counters are maintained
+ * only if the system property {@code
+ * java.util.concurrent.ForkJoinPool.statistics} is {@code true} when
+ * this class is initialized, and otherwise remain zero.  When enabled,
+ * each worker's are written only by that worker, and the shared ones
+ * are updated only on paths that already park, unpark, retry or
+ * create threads.  {@link #getMXBean} exposes the same totals for JMX.
  *
  * <p>As is the case with other ExecutorServices, there are three
  * main task execution methods summarized in the following table.
@@ -765,6 +776,27 @@ public class ForkJoinPool extends AbstractExecutorService {
     static final int FIFO_QUEUE   = 1 << 16;
     static final int SHARED_QUEUE = 1 << 31;       // must be negative
 
+    /**
+     * Instrumentation counters for one worker, written only by the
+     * owning worker and read racily by getStatistics.  Kept out of
+     * the WorkQueue itself so that these writes do not disturb
+     * stealers reading base and top.
+     */
+    @sun.misc.Contended
+    static final class WorkerCounters {
+        long stealAttempts;        // CASes at other queues' bases in scan
+        long steals;               // successful ones
+        long scanMisses;           // scans returning no task
+        long parks;                // parks in awaitWork
+
+        void add(WorkerCounters c) {
+            stealAttempts += c.stealAttempts;
+            steals += c.steals;
+            scanMisses += c.scanMisses;
+            parks += c.parks;
+        }
+    }
+
     /**
      * Queues supporting work-stealing as well as external task
      * submission. See above for descriptions and algorithms.
@@ -812,10 +844,13 @@ public class ForkJoinPool extends AbstractExecutorService {
         volatile Thread parker;    // == owner during call to park; else null
         volatile ForkJoinTask<?> currentJoin;  // task being joined in awaitJoin
         volatile ForkJoinTask<?> currentSteal; // mainly used by helpStealer
+        final WorkerCounters counters;  // null if shared or disabled
 
         WorkQueue(ForkJoinPool pool, ForkJoinWorkerThread owner) {
             this.pool = pool;
             this.owner = owner;
+            this.counters = (owner == null || !statisticsEnabled) ? null :
+                new WorkerCounters();
             // Place indices in the center of array (that is not yet allocated)
             base = top = INITIAL_QUEUE_CAPACITY >>> 1;
         }
@@ -1276,6 +1311,13 @@ public class ForkJoinPool extends AbstractExecutorService {
      */
     static final int commonParallelism;
 
+    /**
+     * Whether the instrumentation counters reported by getStatistics
+     * are maintained.  Being static final, the checks guarding each
+     * update fold away when disabled.
+     */
+    static final boolean statisticsEnabled;
+
     /**
      * Limit on spare thread construction in tryCompensate.
      */
@@ -1397,6 +1439,15 @@ public class ForkJoinPool extends AbstractExecutorService {
     final String workerNamePrefix;       // to create worker name string
     volatile AtomicLong stealCounter;    // also used as sync monitor
 
+    // Instrumentation; see getStatistics
+    final LongAdder unparkCount = new LongAdder();      // signalWork etc
+    final LongAdder submitSlowCount = new LongAdder();  // externalSubmit calls
+    final LongAdder submitMoveCount = new LongAdder();  // contended submits
+    final LongAdder spareCount = new LongAdder();       // tryCompensate adds
+    final LongAdder releaseCount = new LongAdder();     // tryCompensate wakes
+    final LongAdder uncompensatedCount = new LongAdder(); // blocks w/o spare
+    final WorkerCounters retiredCounters = new WorkerCounters(); // sync on it
+
     /**
      * Acquires the runState lock; returns current (locked) runState.
      */
@@ -1593,6 +1644,12 @@ public class ForkJoinPool extends AbstractExecutorService {
         if (w != null) {
             w.qlock = -1;                             // ensure set
             w.transferStealCount(this);
+            WorkerCounters wc = w.counters, rc = retiredCounters;
+            if (wc != null) {
+                synchronized (rc) {
+                    rc.add(wc);
+                }
+            }
             w.cancelAll();                            // cancel remaining tasks
         }
         for (;;) {                                    // possibly replace
@@ -1609,6 +1666,19 @@ public class ForkJoinPool extends AbstractExecutorService {
                 tryAddWorker(c);                      // create replacement
                 break;
             }
+            else if (c < 0L) {                        // too few active workers
+                // An idle worker may exit while all others are blocked in
+                // managedBlock, having missed tasks queued since its last
+                // scan; ADD_WORKER is then clear, so no signal replaces it
+                boolean queued = false;
+                for (int i = 0; i <= m && !queued; ++i) {
+                    WorkQueue q;
+                    queued = (q = ws[i]) != null && !q.isEmpty();
+                }
+                if (queued)
+                    tryAddWorker(c);
+                break;
+            }
             else                                      // don't need replacement
                 break;
         }
@@ -1645,8 +1715,11 @@ public class ForkJoinPool extends AbstractExecutorService {
             long nc = (UC_MASK & (c + AC_UNIT)) | (SP_MASK & v.stackPred);
             if (d == 0 && U.compareAndSwapLong(this, CTL, c, nc)) {
                 v.scanState = vs;                      // activate v
-                if ((p = v.parker) != null)
+                if ((p = v.parker) != null) {
                     U.unpark(p);
+                    if (statisticsEnabled)
+                        unparkCount.increment();
+                }
                 break;
             }
             if (q != null && q.base == q.top)          // no more work
@@ -1670,8 +1743,11 @@ public class ForkJoinPool extends AbstractExecutorService {
             long nc = (UC_MASK & (c + inc)) | (SP_MASK & v.stackPred);
             if (U.compareAndSwapLong(this, CTL, c, nc)) {
                 v.scanState = vs;
-                if ((p = v.parker) != null)
+                if ((p = v.parker) != null) {
                     U.unpark(p);
+                    if (statisticsEnabled)
+                        unparkCount.increment();
+                }
                 return true;
             }
         }
@@ -1715,6 +1791,7 @@ public class ForkJoinPool extends AbstractExecutorService {
     private ForkJoinTask<?> scan(WorkQueue w, int r) {
         WorkQueue[] ws; int m;
         if ((ws = workQueues) != null && (m = ws.length - 1) > 0 && w != null) {
+            WorkerCounters wc = w.counters;
             int ss = w.scanState;                     // initially non-negative
             for (int origin = r & m, k = origin, oldSum = 0, checkSum = 0;;) {
                 WorkQueue q; ForkJoinTask<?>[] a; ForkJoinTask<?> t;
@@ -1727,8 +1804,12 @@ public class ForkJoinPool extends AbstractExecutorService {
                                   U.getObjectVolatile(a, i))) != null &&
                             q.base == b) {
                             if (ss >= 0) {
+                                if (statisticsEnabled)
+                                    ++wc.stealAttempts;
                                 if (U.compareAndSwapObject(a, i, t, null)) {
                                     q.base = b + 1;
+                                    if (statisticsEnabled)
+                                        ++wc.steals;
                                     if (n < -1)       // signal others
                                         signalWork(ws, q);
                                     return t;
@@ -1750,8 +1831,11 @@ public class ForkJoinPool extends AbstractExecutorService {
                 if ((k = (k + 1) & m) == origin) {    // continue until stable
                     if ((ss >= 0 || (ss == (ss = w.scanState))) &&
                         oldSum == (oldSum = checkSum)) {
-                        if (ss < 0 || w.qlock < 0)    // already inactive
+                        if (ss < 0 || w.qlock < 0) {  // already inactive
+                            if (statisticsEnabled)
+                                ++wc.scanMisses;
                             break;
+                        }
                         int ns = ss | INACTIVE;       // try to inactivate
                         long nc = ((SP_MASK & ns) |
                                    (UC_MASK & ((c = ctl) - AC_UNIT)));
@@ -1807,10 +1891,16 @@ public class ForkJoinPool extends AbstractExecutorService {
                 if ((ac <= 0 && tryTerminate(false, false)) ||
                     (runState & STOP) != 0)           // pool terminating
                     return false;
-                if (ac <= 0 && ss == (int)c) {        // is last waiter
+                int t = (short)(c >>> TC_SHIFT);
+                // Unless others are idle too, exiting is safe only if it
+                // lets signalWork add a worker: with more workers than
+                // parallelism, the others are blocked (for example in
+                // managedBlock), and this is the only one left to wake
+                if (ac <= 0 && ss == (int)c &&        // is last waiter
+                    ((SP_MASK & pred) != 0L || t <= 0)) {
                     prevctl = (UC_MASK & (c + AC_UNIT)) | (SP_MASK & pred);
-                    int t = (short)(c >>> TC_SHIFT);  // shrink excess spares
-                    if (t > 2 && U.compareAndSwapLong(this, CTL, c, prevctl))
+                    if (t > 2 &&                      // shrink excess spares
+                        U.compareAndSwapLong(this, CTL, c, prevctl))
                         return false;                 // else use timed wait
                     parkTime = IDLE_TIMEOUT * ((t >= 0) ? 1 : 1 - t);
                     deadline = System.nanoTime() + parkTime - TIMEOUT_SLOP;
@@ -1820,8 +1910,11 @@ public class ForkJoinPool extends AbstractExecutorService {
                 Thread wt = Thread.currentThread();
                 U.putObject(wt, PARKBLOCKER, this);   // emulate LockSupport
                 w.parker = wt;
-                if (w.scanState < 0 && ctl == c)      // recheck before park
+                if (w.scanState < 0 && ctl == c) {    // recheck before park
+                    if (statisticsEnabled)
+                        ++w.counters.parks;
                     U.park(false, parkTime);
+                }
                 U.putOrderedObject(w, QPARKER, null);
                 U.putObject(wt, PARKBLOCKER, null);
                 if (w.scanState >= 0)
@@ -1985,8 +2078,11 @@ public class ForkJoinPool extends AbstractExecutorService {
             (ws = workQueues) == null || (m = ws.length - 1) <= 0 ||
             (pc = config & SMASK) == 0)           // parallelism disabled
             canBlock = false;
-        else if ((sp = (int)(c = ctl)) != 0)      // release idle worker
-            canBlock = tryRelease(c, ws[sp & m], 0L);
+        else if ((sp = (int)(c = ctl)) != 0) {    // release idle worker
+            if ((canBlock = tryRelease(c, ws[sp & m], 0L)) &&
+                statisticsEnabled)
+                releaseCount.increment();
+        }
         else {
             int ac = (int)(c >> AC_SHIFT) + pc;
             int tc = (short)(c >> TC_SHIFT) + pc;
@@ -2004,7 +2100,9 @@ public class ForkJoinPool extends AbstractExecutorService {
             else if (tc >= pc && ac > 1 && w.isEmpty()) {
                 long nc = ((AC_MASK & (c - AC_UNIT)) |
                            (~AC_MASK & c));       // uncompensated
-                canBlock = U.compareAndSwapLong(this, CTL, c, nc);
+                if ((canBlock = U.compareAndSwapLong(this, CTL, c, nc)) &&
+                    statisticsEnabled)
+                    uncompensatedCount.increment();
             }
             else if (tc >= MAX_CAP ||
                      (this == common && tc >= pc + commonMaxSpares))
@@ -2017,7 +2115,9 @@ public class ForkJoinPool extends AbstractExecutorService {
                 if (((rs = lockRunState()) & STOP) == 0)
                     add = U.compareAndSwapLong(this, CTL, c, nc);
                 unlockRunState(rs, rs & ~RSLOCK);
-                canBlock = add && createWorker(); // throws on exception
+                if ((canBlock = add && createWorker()) && // throws on exception
+                    statisticsEnabled)
+                    spareCount.increment();
             }
         }
         return canBlock;
@@ -2315,6 +2415,8 @@ public class ForkJoinPool extends AbstractExecutorService {
      * @param task the task. Caller must ensure non-null.
      */
     private void externalSubmit(ForkJoinTask<?> task) {
+        if (statisticsEnabled)
+            submitSlowCount.increment();
         int r;                                    // initialize caller's probe
         if ((r = ThreadLocalRandom.getProbe()) == 0) {
             ThreadLocalRandom.localInit();
@@ -2383,8 +2485,11 @@ public class ForkJoinPool extends AbstractExecutorService {
             }
             else
                 move = true;                   // move if busy
-            if (move)
+            if (move) {
+                if (statisticsEnabled)
+                    submitMoveCount.increment();
                 r = ThreadLocalRandom.advanceProbe(r);
+            }
         }
     }
 
@@ -2973,6 +3078,72 @@ public class ForkJoinPool extends AbstractExecutorService {
         return count;
     }
 
+    /**
+     * Returns a snapshot of this pool's instrumentation counters and of
+     * those of each of its current workers.  The counters are read
+     * without synchronization, so the snapshot is not atomic, and it
+     * may miss increments in progress.  Counts of workers that have
+     * terminated are retained in the pool-wide totals.  Unless enabled
+     * by the system property described in the class documentation,
+     * all counters are zero.
+     *
+     * @return a snapshot of this pool's statistics
+     * @since 1.8
+     */
+    public Statistics getStatistics() {
+        return statistics(true);
+    }
+
+    /**
+     * Implementation for getStatistics and the MXBean, which reports
+     * only totals and so skips building per-worker entries.
+     */
+    final Statistics statistics(boolean perWorker) {
+        ArrayList<WorkerStatistics> workers = new ArrayList<WorkerStatistics>();
+        WorkerCounters sum = new WorkerCounters();
+        WorkerCounters rc = retiredCounters;
+        synchronized (rc) {
+            sum.add(rc);
+        }
+        WorkQueue[] ws; WorkQueue w; WorkerCounters wc;
+        if ((ws = workQueues) != null) {
+            for (int i = 1; i < ws.length; i += 2) {
+                if ((w = ws[i]) != null) {
+                    wc = w.counters;
+                    if (perWorker) {        // sum what the entry reports
+                        WorkerStatistics s = new WorkerStatistics(w, wc);
+                        workers.add(s);
+                        sum.stealAttempts += s.stealAttempts;
+                        sum.steals += s.steals;
+                        sum.scanMisses += s.scanMisses;
+                        sum.parks += s.parks;
+                    }
+                    else if (wc != null)
+                        sum.add(wc);
+                }
+            }
+        }
+        return new Statistics(this, sum, workers);
+    }
+
+    /**
+     * Returns a management interface for this pool, which reports the
+     * totals of {@link #getStatistics}.  Its attributes are read from
+     * one snapshot, retaken when it is older than a short interval, so
+     * that the attributes fetched together by a management client are
+     * mutually consistent and cost a single pass over the workers.
+     * The returned object may be
+     * registered with an {@code MBeanServer} under a name of the
+     * caller's choosing; while registered, it keeps this pool
+     * reachable.
+     *
+     * @return a management interface for this pool
+     * @since 1.8
+     */
+    public ForkJoinPoolMXBean getMXBean() {
+        return new PoolMXBean(this);
+    }
+
     /**
      * Returns a string identifying this pool, as well as its state,
      * including indications of run state, parallelism level, and
@@ -3024,6 +3195,220 @@ public class ForkJoinPool extends AbstractExecutorService {
             "]";
     }
 
+    /**
+     * A snapshot of the instrumentation counters of a {@link
+     * ForkJoinPool}, as returned by {@link ForkJoinPool#getStatistics}.
+     * All counts are cumulative since the pool was created.
+     *
+     * @since 1.8
+     */
+    public static final class Statistics {
+        private final int parallelism, poolSize, activeThreads, runningThreads;
+        private final long queuedTasks;
+        private final int queuedSubmissions;
+        private final long stealCount, stealAttempts, steals, scanMisses;
+        private final long parks, unparks, submitSlow, submitMoves;
+        private final long spares, releases, uncompensated;
+        private final List<WorkerStatistics> workers;
+
+        Statistics(ForkJoinPool p, WorkerCounters sum,
+                   List<WorkerStatistics> workers) {
+            this.parallelism = p.getParallelism();
+            this.poolSize = p.getPoolSize();
+            this.activeThreads = p.getActiveThreadCount();
+            this.runningThreads = p.getRunningThreadCount();
+            this.queuedTasks = p.getQueuedTaskCount();
+            this.queuedSubmissions = p.getQueuedSubmissionCount();
+            this.stealCount = p.getStealCount();
+            this.stealAttempts = sum.stealAttempts;
+            this.steals = sum.steals;
+            this.scanMisses = sum.scanMisses;
+            this.parks = sum.parks;
+            this.unparks = p.unparkCount.sum();
+            this.submitSlow = p.submitSlowCount.sum();
+            this.submitMoves = p.submitMoveCount.sum();
+            this.spares = p.spareCount.sum();
+            this.releases = p.releaseCount.sum();
+            this.uncompensated = p.uncompensatedCount.sum();
+            this.workers = Collections.unmodifiableList(workers);
+        }
+
+        /** @return the pool's targeted parallelism level */
+        public int getParallelism() { return parallelism; }
+        /** @return the number of worker threads started but not terminated */
+        public int getPoolSize() { return poolSize; }
+        /** @return an estimate of the number of active threads */
+        public int getActiveThreadCount() { return activeThreads; }
+        /** @return an estimate of the number of threads not blocked in joins */
+        public int getRunningThreadCount() { return runningThreads; }
+        /** @return an estimate of the tasks held in worker queues */
+        public long getQueuedTaskCount() { return queuedTasks; }
+        /** @return an estimate of the external submissions not yet started */
+        public int getQueuedSubmissionCount() { return queuedSubmissions; }
+        /**
+         * @return the number of top-level tasks run by workers, as
+         * reported by {@link ForkJoinPool#getStealCount}
+         */
+        public long getStealCount() { return stealCount; }
+        /** @return the number of attempts by workers to take a task from a queue base */
+        public long getStealAttemptCount() { return stealAttempts; }
+        /** @return the number of those attempts that succeeded */
+        public long getStealSuccessCount() { return steals; }
+        /** @return the number of full scans in which a worker found no task */
+        public long getScanMissCount() { return scanMisses; }
+        /** @return the number of times idle workers parked */
+        public long getParkCount() { return parks; }
+        /** @return the number of times a parked worker was woken to take work */
+        public long getUnparkCount() { return unparks; }
+        /**
+         * @return the number of external submissions that took the
+         * slow path, because the submitter's queue was missing, locked,
+         * or full
+         */
+        public long getExternalSubmitSlowPathCount() { return submitSlow; }
+        /**
+         * @return the number of times an external submitter moved to
+         * another queue because its own was locked or busy
+         */
+        public long getExternalSubmitContentionCount() { return submitMoves; }
+        /** @return the number of spare threads created to compensate for blocked joins */
+        public long getCompensationSpareCount() { return spares; }
+        /** @return the number of idle workers woken to compensate for blocked joins */
+        public long getCompensationReleaseCount() { return releases; }
+        /** @return the number of joins that blocked without compensation */
+        public long getUncompensatedBlockCount() { return uncompensated; }
+        /** @return unmodifiable statistics for each current worker */
+        public List<WorkerStatistics> getWorkers() { return workers; }
+
+        /**
+         * Returns a string summarizing these statistics.
+         *
+         * @return a string summarizing these statistics
+         */
+        public String toString() {
+            return "[parallelism = " + parallelism +
+                ", size = " + poolSize +
+                ", active = " + activeThreads +
+                ", running = " + runningThreads +
+                ", tasks = " + queuedTasks +
+                ", submissions = " + queuedSubmissions +
+                ", steals = " + steals + "/" + stealAttempts +
+                ", scan misses = " + scanMisses +
+                ", parks = " + parks +
+                ", unparks = " + unparks +
+                ", slow submits = " + submitSlow +
+                ", contended submits = " + submitMoves +
+                ", spares = " + spares +
+                ", releases = " + releases +
+                ", uncompensated = " + uncompensated +
+                "]";
+        }
+    }
+
+    /**
+     * A snapshot of the instrumentation counters of one worker thread
+     * of a {@link ForkJoinPool}.
+     *
+     * @since 1.8
+     */
+    public static final class WorkerStatistics {
+        private final int poolIndex;
+        private final String threadName;
+        private final int queuedTasks;
+        final long stealAttempts, steals, scanMisses, parks;
+
+        WorkerStatistics(WorkQueue w, WorkerCounters c) {
+            ForkJoinWorkerThread t = w.owner;
+            this.poolIndex = w.getPoolIndex();
+            this.threadName = (t == null) ? null : t.getName();
+            this.queuedTasks = w.queueSize();
+            if (c == null)      // statistics disabled
+                this.stealAttempts = this.steals = this.scanMisses =
+                    this.parks = 0L;
+            else {
+                this.stealAttempts = c.stealAttempts;
+                this.steals = c.steals;
+                this.scanMisses = c.scanMisses;
+                this.parks = c.parks;
+            }
+        }
+
+        /** @return the worker's index, as by {@link ForkJoinWorkerThread#getPoolIndex} */
+        public int getPoolIndex() { return poolIndex; }
+        /** @return the name of the worker's thread */
+        public String getThreadName() { return threadName; }
+        /** @return an estimate of the tasks in the worker's queue */
+        public int getQueuedTaskCount() { return queuedTasks; }
+        /** @return the number of attempts to take a task from a queue base */
+        public long getStealAttemptCount() { return stealAttempts; }
+        /** @return the number of those attempts that succeeded */
+        public long getStealSuccessCount() { return steals; }
+        /** @return the number of full scans that found no task */
+        public long getScanMissCount() { return scanMisses; }
+        /** @return the number of times the worker parked while idle */
+        public long getParkCount() { return parks; }
+
+        /**
+         * Returns a string summarizing these statistics.
+         *
+         * @return a string summarizing these statistics
+         */
+        public String toString() {
+            return threadName + "[index = " + poolIndex +
+                ", tasks = " + queuedTasks +
+                ", steals = " + steals + "/" + stealAttempts +
+                ", scan misses = " + scanMisses +
+                ", parks = " + parks +
+                "]";
+        }
+    }
+
+    /**
+     * The ForkJoinPoolMXBean returned by getMXBean.  A management
+     * client reads attributes one getter at a time, so rather than
+     * sweeping the workers per getter, all of them are answered from a
+     * totals-only snapshot kept for SNAPSHOT_NANOS.  Races in replacing
+     * it are harmless: each snapshot is immutable.
+     */
+    static final class PoolMXBean implements ForkJoinPoolMXBean {
+        static final long SNAPSHOT_NANOS = 100L * 1000L * 1000L; // 100ms
+        final ForkJoinPool pool;
+        volatile Statistics snapshot;
+        volatile long snapshotTime;
+        PoolMXBean(ForkJoinPool pool) { this.pool = pool; }
+
+        Statistics snapshot() {
+            Statistics s = snapshot;
+            long now = System.nanoTime();
+            if (s == null || now - snapshotTime >= SNAPSHOT_NANOS) {
+                s = pool.statistics(false);
+                snapshotTime = now;
+                snapshot = s;
+            }
+            return s;
+        }
+
+        public int getParallelism() { return snapshot().getParallelism(); }
+        public int getPoolSize() { return snapshot().getPoolSize(); }
+        public int getActiveThreadCount() { return snapshot().getActiveThreadCount(); }
+        public int getRunningThreadCount() { return snapshot().getRunningThreadCount(); }
+        public long getQueuedTaskCount() { return snapshot().getQueuedTaskCount(); }
+        public int getQueuedSubmissionCount() { return snapshot().getQueuedSubmissionCount(); }
+        public long getStealCount() { return snapshot().getStealCount(); }
+        public long getStealAttemptCount() { return snapshot().getStealAttemptCount(); }
+        public long getStealSuccessCount() { return snapshot().getStealSuccessCount(); }
+        public long getScanMissCount() { return snapshot().getScanMissCount(); }
+        public long getParkCount() { return snapshot().getParkCount(); }
+        public long getUnparkCount() { return snapshot().getUnparkCount(); }
+        public long getExternalSubmitSlowPathCount() { return snapshot().getExternalSubmitSlowPathCount(); }
+        public long getExternalSubmitContentionCount() { return snapshot().getExternalSubmitContentionCount(); }
+        public long getCompensationSpareCount() { return snapshot().getCompensationSpareCount(); }
+        public long getCompensationReleaseCount() { return snapshot().getCompensationReleaseCount(); }
+        public long getUncompensatedBlockCount() { return snapshot().getUncompensatedBlockCount(); }
+        public boolean isShutdown() { return pool.isShutdown(); }
+        public boolean isTerminated() { return pool.isTerminated(); }
+    }
+
     /**
      * Possibly initiates an orderly shutdown in which previously
      * submitted tasks are executed, but no new tasks will be
@@ -3306,16 +3691,22 @@ public class ForkJoinPool extends AbstractExecutorService {
         if ((t instanceof ForkJoinWorkerThread) &&
             (p = (wt = (ForkJoinWorkerThread)t).pool) != null) {
             WorkQueue w = wt.workQueue;
-            while (!blocker.isReleasable()) {
-                if (p.tryCompensate(w)) {
-                    try {
-                        do {} while (!blocker.isReleasable() &&
-                                     !blocker.block());
-                    } finally {
-                        U.getAndAddLong(p, CTL, AC_UNIT);
+            boolean mp = wt.managedParking;
+            wt.managedParking = false; // blocker parks are already managed
+            try {
+                while (!blocker.isReleasable()) {
+                    if (p.tryCompensate(w)) {
+                        try {
+                            do {} while (!blocker.isReleasable() &&
+                                         !blocker.block());
+                        } finally {
+                            U.getAndAddLong(p, CTL, AC_UNIT);
+                        }
+                        break;
                     }
-                    break;
                 }
+            } finally {
+                wt.managedParking = mp;
             }
         }
         else {
@@ -3389,6 +3780,9 @@ public class ForkJoinPool extends AbstractExecutorService {
         }
 
         commonMaxSpares = DEFAULT_COMMON_MAX_SPARES;
+        statisticsEnabled = java.security.AccessController.doPrivileged(
+            new sun.security.action.GetBooleanAction(
+                "java.util.concurrent.ForkJoinPool.statistics")).booleanValue();
         defaultForkJoinWorkerThreadFactory =
             new DefaultForkJoinWorkerThreadFactory();
         modifyThreadPermission = new RuntimePermission("modifyThread");
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+/**
+ * The management interface of a {@link ForkJoinPool}, obtained from
+ * {@link ForkJoinPool#getMXBean}.  Each attribute corresponds to the
+ * accessor of the same name on {@link ForkJoinPool} or {@link
+ * ForkJoinPool.Statistics}; see those classes for their meaning.  All
+ * counts are cumulative since the pool was created, and the
+ * instrumentation counts stay zero unless enabled as described in
+ * {@link ForkJoinPool}.  Except for {@code Shutdown} and {@code
+ * Terminated}, attributes are read from a snapshot of the pool that is
+ * retaken only once it is older than a fraction of a second, so that
+ * the attributes of one request are consistent with one another.
+ *
+ * <p>An instance may be registered with the platform {@code
+ * MBeanServer}, for example:
+ *
+ * <pre> {@code
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(
+ *     ForkJoinPool.commonPool().getMXBean(),
+ *     new ObjectName("java.util.concurrent:type=ForkJoinPool,name=common"));
+ * }</pre>
+ *
+ * @see ForkJoinPool#getStatistics
+ * @since 1.8
+ */
+public interface ForkJoinPoolMXBean {
+
+    /**
+     * @return the pool's targeted parallelism level
+     * @see ForkJoinPool#getParallelism
+     */
+    int getParallelism();
+
+    /**
+     * @return the number of worker threads started but not terminated
+     * @see ForkJoinPool#getPoolSize
+     */
+    int getPoolSize();
+
+    /**
+     * @return an estimate of the number of active threads
+     * @see ForkJoinPool#getActiveThreadCount
+     */
+    int getActiveThreadCount();
+
+    /**
+     * @return an estimate of the number of threads not blocked in joins
+     * @see ForkJoinPool#getRunningThreadCount
+     */
+    int getRunningThreadCount();
+
+    /**
+     * @return an estimate of the tasks held in worker queues
+     * @see ForkJoinPool#getQueuedTaskCount
+     */
+    long getQueuedTaskCount();
+
+    /**
+     * @return an estimate of the external submissions not yet started
+     * @see ForkJoinPool#getQueuedSubmissionCount
+     */
+    int getQueuedSubmissionCount();
+
+    /**
+     * @return the number of top-level tasks run by workers
+     * @see ForkJoinPool#getStealCount
+     */
+    long getStealCount();
+
+    /**
+     * @return the number of attempts by workers to take a task from a
+     *         queue base
+     * @see ForkJoinPool.Statistics#getStealAttemptCount
+     */
+    long getStealAttemptCount();
+
+    /**
+     * @return the number of those attempts that succeeded
+     * @see ForkJoinPool.Statistics#getStealSuccessCount
+     */
+    long getStealSuccessCount();
+
+    /**
+     * @return the number of full scans in which a worker found no task
+     * @see ForkJoinPool.Statistics#getScanMissCount
+     */
+    long getScanMissCount();
+
+    /**
+     * @return the number of times idle workers parked
+     * @see ForkJoinPool.Statistics#getParkCount
+     */
+    long getParkCount();
+
+    /**
+     * @return the number of times a parked worker was woken to take work
+     * @see ForkJoinPool.Statistics#getUnparkCount
+     */
+    long getUnparkCount();
+
+    /**
+     * @return the number of external submissions that took the slow path
+     * @see ForkJoinPool.Statistics#getExternalSubmitSlowPathCount
+     */
+    long getExternalSubmitSlowPathCount();
+
+    /**
+     * @return the number of times an external submitter moved to another
+     *         queue because of contention
+     * @see ForkJoinPool.Statistics#getExternalSubmitContentionCount
+     */
+    long getExternalSubmitContentionCount();
+
+    /**
+     * @return the number of spare threads created to compensate for
+     *         blocked joins
+     * @see ForkJoinPool.Statistics#getCompensationSpareCount
+     */
+    long getCompensationSpareCount();
+
+    /**
+     * @return the number of idle workers woken to compensate for
+     *         blocked joins
+     * @see ForkJoinPool.Statistics#getCompensationReleaseCount
+     */
+    long getCompensationReleaseCount();
+
+    /**
+     * @return the number of joins that blocked without compensation
+     * @see ForkJoinPool.Statistics#getUncompensatedBlockCount
+     */
+    long getUncompensatedBlockCount();
+
+    /**
+     * @return {@code true} if the pool has been shut down
+     * @see ForkJoinPool#isShutdown
+     */
+    boolean isShutdown();
+
+    /**
+     * @return {@code true} if all tasks have completed following shut down
+     * @see ForkJoinPool#isTerminated
+     */
+    boolean isTerminated();
+}
@@ -73,6 +73,17 @@ public class ForkJoinWorkerThread extends Thread {
     final ForkJoinPool pool;                // the pool this thread works in
     final ForkJoinPool.WorkQueue workQueue; // work-stealing mechanics
 
+    /**
+     * True if LockSupport.park by this thread should be routed
+     * through ForkJoinPool.managedBlock, so that the pool compensates
+     * while the task running on this thread is blocked.  Set only for
+     * the carrier threads of Executors.newLightweightThreadPerTaskExecutor,
+     * and cleared by managedBlock for the duration of a managed block
+     * to avoid compensating twice.  Read and written only by the
+     * owning thread (LockSupport reads it via Unsafe).
+     */
+    boolean managedParking;
+
     /**
      * Creates a ForkJoinWorkerThread operating in the given pool.
      *
@@ -98,6 +109,18 @@ public class ForkJoinWorkerThread extends Thread {
         this.workQueue = pool.registerWorker(this);
     }
 
+    /**
+     * Version for lightweight carrier threads, with the given stack
+     * size (which, as for Thread, may be ignored by the platform) and
+     * with parks routed through managedBlock.
+     */
+    ForkJoinWorkerThread(ForkJoinPool pool, long stackSize) {
+        super(null, null, "aForkJoinWorkerThread", stackSize);
+        this.managedParking = true;
+        this.pool = pool;
+        this.workQueue = pool.registerWorker(this);
+    }
+
     /**
      * Returns the pool hosting this thread.
      *
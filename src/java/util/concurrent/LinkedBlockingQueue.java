@@ -431,6 +431,50 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E>
         return c >= 0;
     }
 
+    /**
+     * Inserts elements {@code from} (inclusive) to {@code to}
+     * (exclusive) of the given array at the tail of this queue, in
+     * order, for as many as fit, taking the put lock once.  Used by
+     * ThreadPoolExecutor.executeAll.  The elements must be non-null.
+     *
+     * @return the number of elements inserted
+     */
+    @SuppressWarnings("unchecked")
+    int offerAll(Object[] a, int from, int to) {
+        final AtomicInteger count = this.count;
+        int room = capacity - count.get();
+        if (room <= 0 || from >= to)
+            return 0;
+        int n = Math.min(room, to - from);
+        Node<E> first = new Node<E>((E)a[from]), end = first;
+        for (int i = from + 1; i < from + n; ++i)
+            end = end.next = new Node<E>((E)a[i]);
+        int c = -1, k = 0;
+        final ReentrantLock putLock = this.putLock;
+        putLock.lock();
+        try {
+            k = Math.min(n, capacity - count.get());
+            if (k > 0) {
+                if (k < n) {            // lost room to other producers
+                    end = first;
+                    for (int i = 1; i < k; ++i)
+                        end = end.next;
+                    end.next = null;
+                }
+                last.next = first;
+                last = end;
+                c = count.getAndAdd(k);
+                if (c + k < capacity)
+                    notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (c == 0)
+            signalNotEmpty();
+        return k;
+    }
+
     public E take() throws InterruptedException {
         E x;
         int c = -1;
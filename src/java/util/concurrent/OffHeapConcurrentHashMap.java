@@ -0,0 +1,1637 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A hash table supporting full concurrency of retrievals and high
+ * expected concurrency for updates, whose mappings are stored outside the
+ * Java heap.  Keys and values are serialized by caller-supplied
+ * {@link Codec}s into records carved from direct-memory slabs, so a map
+ * holding many gigabytes of data contributes only its bin array - a
+ * {@code long[]} that the garbage collector never needs to scan - to
+ * heap size and GC work.
+ *
+ * <p>The table follows the design of {@link ConcurrentHashMap}: there
+ * are no segments, empty bins are populated by a single CAS, other
+ * updates lock only their bin, the element count is maintained with
+ * {@code CounterCell}s in the manner of {@code LongAdder}, and resizing
+ * is performed cooperatively by all threads that encounter a bin being
+ * moved, each claiming strides of at least {@code MIN_TRANSFER_STRIDE}
+ * bins.  Retrievals do not lock; see the implementation overview for how
+ * they stay safe in the absence of garbage collection.
+ *
+ * <p>Keys are compared by their encoded form: two keys are the same key
+ * exactly when their codec produces identical bytes for them, and hash
+ * codes are likewise computed from the encoded bytes.  Codecs must
+ * therefore be deterministic.  Values returned by retrieval operations
+ * are freshly decoded copies; modifying them does not affect the map.
+ * Like {@code ConcurrentHashMap}, this class does <em>not</em> allow
+ * {@code null} to be used as a key or value.
+ *
+ * <p>Iterators and views are weakly consistent, as for
+ * {@code ConcurrentHashMap}.  Native memory is reserved in slabs of at
+ * least one megabyte that are recycled internally as records are removed
+ * and released only when the map itself becomes unreachable; it counts
+ * against {@code -XX:MaxDirectMemorySize}.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * @see ConcurrentHashMap
+ * @since 1.8
+ */
+public class OffHeapConcurrentHashMap<K,V> extends AbstractMap<K,V>
+    implements ConcurrentMap<K,V> {
+
+    /*
+     * Overview:
+     *
+     * The bin array is a long[] of twice the table size.  Slot 2i holds
+     * the address of the first record in bin i (0 when empty, MOVED
+     * once the bin has been transferred to the next table), and slot
+     * 2i+1 holds a sequence number that doubles as the bin lock: it is
+     * odd while a thread holds the lock.  All updates to a non-empty
+     * bin, including relinking records during transfer, are made under
+     * this lock, which also takes the place of synchronizing on the
+     * first node in ConcurrentHashMap.
+     *
+     * A record is laid out as
+     *
+     *   0   long  next record address
+     *   8   long  key length << 32 | value length
+     *   16  int   hash
+     *   20  int   payload capacity of the block
+     *   24        key bytes, followed by value bytes
+     *
+     * Without a garbage collector, a reader can reach a record that a
+     * concurrent writer has already unlinked and freed.  Two properties
+     * make that harmless.  First, memory is never returned to the system
+     * while the map is reachable, and every slab is dedicated to a single
+     * block size, so any address read from a next field (or from a free
+     * list link, which reuses that field) designates the start of a
+     * block of known size; and since both lengths are written with a
+     * single long store, any pair of lengths a reader sees fits its
+     * block.  Second, readers validate: they read the bin's sequence
+     * number before traversing and again after copying out the bytes
+     * they need, and retry if it changed.  Records are only freed under
+     * the lock of a bin they were reachable from, so a reader that
+     * touched a reclaimed record always sees a changed sequence.  Long
+     * traversals recheck periodically so that a cycle through recycled
+     * blocks cannot trap a reader.  Only bytes that passed validation
+     * are handed to the value codec.
+     *
+     * Unlike ConcurrentHashMap there are no TreeBins: hashes are
+     * computed from the encoded keys, so colliding keys must also have
+     * colliding bytes, and bins stay short at the 0.75 resize threshold.
+     *
+     * Resizing mirrors ConcurrentHashMap.transfer.  Because records
+     * cannot be cheaply copied, the lo and hi lists are formed by
+     * relinking the existing records under the bin lock; readers caught
+     * mid-traversal fail validation and retry through the forwarding
+     * table, which each Table records in its forward field before any
+     * of its bins is marked MOVED.
+     */
+
+    /* ---------------- Codecs -------------- */
+
+    /**
+     * Converts keys or values to and from the byte form in which they are
+     * stored off-heap.  Implementations must be deterministic: equal
+     * objects must always encode to identical bytes, since the map
+     * compares and hashes keys in encoded form.  Codecs are invoked
+     * concurrently and outside of any lock, and so must be thread-safe.
+     *
+     * @param <T> the type of objects converted
+     */
+    public interface Codec<T> {
+        /**
+         * Returns the number of bytes {@link #encode} will write for the
+         * given object.
+         *
+         * @param value a non-null object
+         * @return the encoded size in bytes
+         */
+        int encodedSize(T value);
+
+        /**
+         * Writes exactly {@code encodedSize(value)} bytes representing
+         * the given object, starting at the buffer's position.
+         *
+         * @param value a non-null object
+         * @param dst the buffer to write to
+         */
+        void encode(T value, ByteBuffer dst);
+
+        /**
+         * Reconstructs an object from the bytes between the buffer's
+         * position and limit.
+         *
+         * @param src the buffer to read from
+         * @return the decoded object
+         */
+        T decode(ByteBuffer src);
+    }
+
+    /**
+     * Returns a codec that stores each {@code String} as its UTF-16 code
+     * units.
+     *
+     * @return a codec for strings
+     */
+    public static Codec<String> stringCodec() {
+        return StringCodec.INSTANCE;
+    }
+
+    /**
+     * Returns a codec that stores each {@code Long} in eight bytes.
+     *
+     * @return a codec for longs
+     */
+    public static Codec<Long> longCodec() {
+        return LongCodec.INSTANCE;
+    }
+
+    /**
+     * Returns a codec that stores byte arrays as-is, for keys and values
+     * that the caller has already serialized.  Arrays are compared by
+     * content.
+     *
+     * @return a codec for byte arrays
+     */
+    public static Codec<byte[]> byteArrayCodec() {
+        return ByteArrayCodec.INSTANCE;
+    }
+
+    static final class StringCodec implements Codec<String> {
+        static final StringCodec INSTANCE = new StringCodec();
+        public int encodedSize(String s) { return s.length() << 1; }
+        public void encode(String s, ByteBuffer dst) {
+            for (int i = 0, n = s.length(); i < n; ++i)
+                dst.putChar(s.charAt(i));
+        }
+        public String decode(ByteBuffer src) {
+            char[] cs = new char[src.remaining() >> 1];
+            src.asCharBuffer().get(cs);
+            return new String(cs);
+        }
+    }
+
+    static final class LongCodec implements Codec<Long> {
+        static final LongCodec INSTANCE = new LongCodec();
+        public int encodedSize(Long v) { return 8; }
+        public void encode(Long v, ByteBuffer dst) { dst.putLong(v); }
+        public Long decode(ByteBuffer src) { return src.getLong(); }
+    }
+
+    static final class ByteArrayCodec implements Codec<byte[]> {
+        static final ByteArrayCodec INSTANCE = new ByteArrayCodec();
+        public int encodedSize(byte[] b) { return b.length; }
+        public void encode(byte[] b, ByteBuffer dst) { dst.put(b); }
+        public byte[] decode(ByteBuffer src) {
+            byte[] b = new byte[src.remaining()];
+            src.get(b);
+            return b;
+        }
+    }
+
+    /* ---------------- Constants -------------- */
+
+    /**
+     * The largest possible table capacity.  The bin array holds two
+     * longs per bin, so this is half ConcurrentHashMap's bound.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 29;
+
+    /**
+     * The default initial table capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Minimum number of rebinnings per transfer step, as in
+     * ConcurrentHashMap.
+     */
+    private static final int MIN_TRANSFER_STRIDE = 16;
+
+    private static final int RESIZE_STAMP_BITS = 16;
+
+    private static final int MAX_RESIZERS = (1 << (32 - RESIZE_STAMP_BITS)) - 1;
+
+    private static final int RESIZE_STAMP_SHIFT = 32 - RESIZE_STAMP_BITS;
+
+    /**
+     * Head value of a bin whose records have been moved to the next
+     * table.  Record addresses are block aligned, so this never clashes
+     * with one.
+     */
+    static final long MOVED = -1L;
+
+    /** Number of CPUS, to place bounds on some sizings */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** Record field offsets; see overview */
+    static final int NEXT = 0, LENGTHS = 8, HASH = 16, CAPACITY = 20;
+    static final int DATA = 24;
+
+    /**
+     * The largest encoded key plus value a record can hold.
+     */
+    static final int MAX_PAYLOAD = (1 << 30) - DATA;
+
+    /**
+     * Number of records a reader traverses between sequence checks.
+     */
+    static final int VALIDATE_STEPS = 64;
+
+    /* ---------------- Tables -------------- */
+
+    /**
+     * A bin array together with the table its bins are being moved to.
+     */
+    static final class Table {
+        final long[] bins;      // [2i] first record, [2i+1] sequence/lock
+        final int n;            // number of bins
+        volatile Table forward; // set before any bin is marked MOVED
+        Table(int n) {
+            this.n = n;
+            this.bins = new long[n << 1];
+        }
+    }
+
+    static final long tabAt(long[] bins, int i) {
+        return U.getLongVolatile(bins, ((long)i << BSHIFT) + ABASE);
+    }
+
+    static final boolean casTabAt(long[] bins, int i, long c, long v) {
+        return U.compareAndSwapLong(bins, ((long)i << BSHIFT) + ABASE, c, v);
+    }
+
+    static final void setTabAt(long[] bins, int i, long v) {
+        U.putLongVolatile(bins, ((long)i << BSHIFT) + ABASE, v);
+    }
+
+    static final long seqAt(long[] bins, int i) {
+        return U.getLongVolatile(bins, ((long)i << BSHIFT) + SEQBASE);
+    }
+
+    /**
+     * Acquires the lock of bin i by making its sequence odd.
+     */
+    static final void lockBin(long[] bins, int i) {
+        long off = ((long)i << BSHIFT) + SEQBASE, s;
+        for (int spins = 0;;) {
+            if (((s = U.getLongVolatile(bins, off)) & 1L) == 0L &&
+                U.compareAndSwapLong(bins, off, s, s + 1L))
+                return;
+            if (++spins >= 64) {
+                spins = 0;
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Releases the lock of bin i, publishing the new sequence.
+     */
+    static final void unlockBin(long[] bins, int i) {
+        long off = ((long)i << BSHIFT) + SEQBASE;
+        U.putLongVolatile(bins, off, U.getLong(bins, off) + 1L);
+    }
+
+    /* ---------------- Records -------------- */
+
+    static final long nextOf(long e) {
+        return U.getLongVolatile(null, e + NEXT);
+    }
+
+    static final void setNext(long e, long next) {
+        U.putLongVolatile(null, e + NEXT, next);
+    }
+
+    /**
+     * Copies len bytes at the given address to a new heap array.
+     */
+    static final byte[] copyOut(long address, int len) {
+        byte[] b = new byte[len];
+        U.copyMemory(null, address, b, BYTE_ARRAY_BASE, len);
+        return b;
+    }
+
+    /**
+     * Returns true if record e has the given hash and key bytes.
+     * Returns the lengths word so the caller can use it to locate the
+     * value consistently, or -1 on mismatch.
+     */
+    static final long match(long e, int h, byte[] kb) {
+        if (U.getInt(e + HASH) != h)
+            return -1L;
+        long lens = U.getLongVolatile(null, e + LENGTHS);
+        int klen = (int)(lens >>> 32);
+        if (klen != kb.length)
+            return -1L;
+        long p = e + DATA;
+        int j = 0;
+        for (; j + 8 <= klen; j += 8) {
+            if (U.getLong(p + j) != U.getLong(kb, BYTE_ARRAY_BASE + j))
+                return -1L;
+        }
+        for (; j < klen; ++j) {
+            if (U.getByte(p + j) != kb[j])
+                return -1L;
+        }
+        return lens;
+    }
+
+    static final byte[] valueBytes(long e, long lens) {
+        return copyOut(e + DATA + (int)(lens >>> 32), (int)lens);
+    }
+
+    /**
+     * Allocates and fills a record with next field zero.
+     */
+    final long newRecord(int h, byte[] kb, byte[] vb) {
+        int payload = kb.length + vb.length;
+        if (payload > MAX_PAYLOAD || payload < 0)
+            throw new IllegalArgumentException("Encoded entry too large");
+        long e = slabs.allocate(DATA + payload);
+        U.putLong(e + NEXT, 0L);
+        U.putInt(e + HASH, h);
+        U.copyMemory(kb, BYTE_ARRAY_BASE, null, e + DATA, kb.length);
+        U.copyMemory(vb, BYTE_ARRAY_BASE, null, e + DATA + kb.length,
+                     vb.length);
+        U.putLongVolatile(null, e + LENGTHS,
+                          ((long)kb.length << 32) | (vb.length & 0xffffffffL));
+        return e;
+    }
+
+    /**
+     * Returns true if value bytes vb fit in place in record e.
+     */
+    static final boolean fitsValue(long e, byte[] vb) {
+        int klen = (int)(U.getLong(e + LENGTHS) >>> 32);
+        return klen + vb.length <= U.getInt(e + CAPACITY);
+    }
+
+    /**
+     * Replaces the value of record e, linked after pred (or first in
+     * bin i if pred is 0), in place if it fits and otherwise by record
+     * r, which the caller allocated with e's key and the new value
+     * before taking the bin lock, since allocation may reserve a new
+     * slab.  Returns true if r was linked in.  Called with the bin
+     * lock held, and with r nonzero unless fitsValue(e, vb).
+     */
+    final boolean replaceValue(long[] bins, int i, long pred, long e,
+                               byte[] vb, long r) {
+        if (fitsValue(e, vb)) {
+            int klen = (int)(U.getLong(e + LENGTHS) >>> 32);
+            U.copyMemory(vb, BYTE_ARRAY_BASE, null, e + DATA + klen,
+                         vb.length);
+            U.putLongVolatile(null, e + LENGTHS,
+                              ((long)klen << 32) | (vb.length & 0xffffffffL));
+            return false;
+        }
+        setNext(r, nextOf(e));
+        if (pred == 0L)
+            setTabAt(bins, i, r);
+        else
+            setNext(pred, r);
+        slabs.free(e);
+        return true;
+    }
+
+    /* ---------------- Slab allocation -------------- */
+
+    /**
+     * Segregated-fit allocator over direct-memory slabs.  Each size class
+     * (a power of two from 32 bytes up) carves its own slabs, so a block
+     * address always denotes a block of the same size, which is what
+     * makes optimistic reads of freed records safe.  Allocation and
+     * freeing take only the size class's monitor.
+     */
+    static final class Slabs {
+        static final int MIN_BLOCK_SHIFT = 5;
+        static final int SLAB_SIZE = 1 << 20;
+
+        final SizeClass[] classes = new SizeClass[31 - MIN_BLOCK_SHIFT];
+        final AtomicLong reserved = new AtomicLong();
+
+        Slabs() {
+            for (int c = 0; c < classes.length; ++c)
+                classes[c] = new SizeClass(1 << (c + MIN_BLOCK_SHIFT));
+        }
+
+        static int classFor(int size) {
+            int c = 32 - Integer.numberOfLeadingZeros(size - 1) -
+                MIN_BLOCK_SHIFT;
+            return (c < 0) ? 0 : c;
+        }
+
+        long allocate(int size) {
+            return classes[classFor(size)].allocate(reserved);
+        }
+
+        void free(long e) {
+            classes[classFor(U.getInt(e + CAPACITY) + DATA)].free(e);
+        }
+    }
+
+    static final class SizeClass {
+        final int blockSize;
+        final ArrayList<ByteBuffer> slabs = new ArrayList<ByteBuffer>();
+        long freeList;          // blocks linked through their next field
+        long top, end;          // unused part of the newest slab
+
+        SizeClass(int blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        synchronized long allocate(AtomicLong reserved) {
+            long e;
+            if ((e = freeList) != 0L) {
+                freeList = U.getLong(e + NEXT);
+                return e;
+            }
+            if (end - top < blockSize) {
+                ByteBuffer slab = ByteBuffer.allocateDirect
+                    (Math.max(Slabs.SLAB_SIZE, blockSize));
+                slabs.add(slab);
+                top = ((sun.nio.ch.DirectBuffer)slab).address();
+                end = top + slab.capacity();
+                reserved.addAndGet(slab.capacity());
+            }
+            e = top;
+            top += blockSize;
+            U.putInt(e + CAPACITY, blockSize - DATA);
+            return e;
+        }
+
+        synchronized void free(long e) {
+            U.putLongVolatile(null, e + NEXT, freeList);
+            freeList = e;
+        }
+    }
+
+    /* ---------------- Fields -------------- */
+
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final Slabs slabs = new Slabs();
+
+    /**
+     * The array of bins. Lazily initialized upon first insertion.
+     */
+    transient volatile Table table;
+
+    /**
+     * The next table to use; non-null only while resizing.
+     */
+    private transient volatile Table nextTable;
+
+    /**
+     * Base counter value, used mainly when there is no contention,
+     * but also as a fallback during table initialization
+     * races. Updated via CAS.
+     */
+    private transient volatile long baseCount;
+
+    /**
+     * Table initialization and resizing control, with the same encoding
+     * as ConcurrentHashMap.sizeCtl.
+     */
+    private transient volatile int sizeCtl;
+
+    /**
+     * The next table index (plus one) to split while resizing.
+     */
+    private transient volatile int transferIndex;
+
+    /**
+     * Spinlock (locked via CAS) used when resizing and/or creating
+     * CounterCells.
+     */
+    private transient volatile int cellsBusy;
+
+    /**
+     * Table of counter cells. When non-null, size is a power of 2.
+     */
+    private transient volatile CounterCell[] counterCells;
+
+    // views
+    private transient KeySetView<K,V> keySet;
+    private transient ValuesView<K,V> values;
+    private transient EntrySetView<K,V> entrySet;
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Creates a new, empty map with the default initial table size (16).
+     *
+     * @param keyCodec the codec for keys
+     * @param valueCodec the codec for values
+     * @throws NullPointerException if either codec is null
+     */
+    public OffHeapConcurrentHashMap(Codec<K> keyCodec, Codec<V> valueCodec) {
+        if (keyCodec == null || valueCodec == null)
+            throw new NullPointerException();
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+    }
+
+    /**
+     * Creates a new, empty map with an initial table size accommodating
+     * the specified number of elements without the need to dynamically
+     * resize.
+     *
+     * @param keyCodec the codec for keys
+     * @param valueCodec the codec for values
+     * @param initialCapacity the implementation performs internal
+     * sizing to accommodate this many elements.
+     * @throws IllegalArgumentException if the initial capacity of
+     * elements is negative
+     * @throws NullPointerException if either codec is null
+     */
+    public OffHeapConcurrentHashMap(Codec<K> keyCodec, Codec<V> valueCodec,
+                                    int initialCapacity) {
+        this(keyCodec, valueCodec);
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException();
+        this.sizeCtl = ((initialCapacity >= (MAXIMUM_CAPACITY >>> 1)) ?
+                        MAXIMUM_CAPACITY :
+                        tableSizeFor(initialCapacity + (initialCapacity >>> 1) + 1));
+    }
+
+    /**
+     * Returns a power of two table size for the given desired capacity.
+     */
+    private static final int tableSizeFor(int c) {
+        int n = c - 1;
+        n |= n >>> 1;
+        n |= n >>> 2;
+        n |= n >>> 4;
+        n |= n >>> 8;
+        n |= n >>> 16;
+        return (n < 0) ? 1 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    /**
+     * Spreads a hash of the encoded bytes the way ConcurrentHashMap.spread
+     * spreads a hashCode.
+     */
+    static final int hashOf(byte[] b) {
+        int h = 1;
+        for (byte x : b)
+            h = 31 * h + x;
+        return h ^ (h >>> 16);
+    }
+
+    static <T> byte[] encode(Codec<T> codec, T value) {
+        int len = codec.encodedSize(value);
+        byte[] b = new byte[len];
+        ByteBuffer dst = ByteBuffer.wrap(b);
+        codec.encode(value, dst);
+        if (dst.position() != len)
+            throw new IllegalStateException("Codec wrote " + dst.position() +
+                                            " bytes, expected " + len);
+        return b;
+    }
+
+    @SuppressWarnings("unchecked")
+    final byte[] encodeKey(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        return encode(keyCodec, (K)key);
+    }
+
+    final K decodeKey(byte[] b) {
+        return keyCodec.decode(ByteBuffer.wrap(b));
+    }
+
+    final V decodeValue(byte[] b) {
+        return valueCodec.decode(ByteBuffer.wrap(b));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int size() {
+        long n = sumCount();
+        return ((n < 0L) ? 0 :
+                (n > (long)Integer.MAX_VALUE) ? Integer.MAX_VALUE :
+                (int)n);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isEmpty() {
+        return sumCount() <= 0L; // ignore transient negative values
+    }
+
+    /**
+     * Returns the number of mappings.  This method should be used
+     * instead of {@link #size} because the map may contain more
+     * mappings than can be represented as an int.
+     *
+     * @return the number of mappings
+     */
+    public long mappingCount() {
+        long n = sumCount();
+        return (n < 0L) ? 0L : n; // ignore transient negative values
+    }
+
+    /**
+     * Returns the number of bytes of direct memory reserved for records.
+     * This includes blocks that have been freed and are awaiting reuse.
+     *
+     * @return the number of bytes of native memory held by this map
+     */
+    public long offHeapMemory() {
+        return slabs.reserved.get();
+    }
+
+    /**
+     * Searches for the encoded key and returns a heap copy of its value
+     * bytes, or null if absent.
+     */
+    final byte[] find(byte[] kb, int h) {
+        Table t = table;
+        outer: while (t != null) {
+            long[] bins = t.bins;
+            int i = (t.n - 1) & h;
+            for (;;) {
+                long s = seqAt(bins, i);
+                if ((s & 1L) != 0L) {
+                    Thread.yield();
+                    continue;
+                }
+                long e = tabAt(bins, i);
+                if (e == MOVED) {
+                    t = t.forward;
+                    continue outer;
+                }
+                byte[] v = null;
+                boolean stale = false;
+                for (int steps = 0; e != 0L; e = nextOf(e)) {
+                    long lens;
+                    if ((lens = match(e, h, kb)) != -1L) {
+                        v = valueBytes(e, lens);
+                        break;
+                    }
+                    if (++steps % VALIDATE_STEPS == 0 && seqAt(bins, i) != s) {
+                        stale = true;
+                        break;
+                    }
+                }
+                U.loadFence();
+                if (!stale && seqAt(bins, i) == s)
+                    return v;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @throws NullPointerException if the specified key is null
+     * @throws ClassCastException if the key cannot be encoded by the
+     *         key codec
+     */
+    public V get(Object key) {
+        byte[] kb = encodeKey(key), v;
+        return ((v = find(kb, hashOf(kb))) == null) ? null : decodeValue(v);
+    }
+
+    /**
+     * Tests if the specified object is a key in this table.
+     *
+     * @throws NullPointerException if the specified key is null
+     * @throws ClassCastException if the key cannot be encoded by the
+     *         key codec
+     */
+    public boolean containsKey(Object key) {
+        byte[] kb = encodeKey(key);
+        return find(kb, hashOf(kb)) != null;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value, compared in encoded form.  Note: This method
+     * requires a full traversal of the map.
+     *
+     * @throws NullPointerException if the specified value is null
+     */
+    @SuppressWarnings("unchecked")
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+        byte[] vb = encode(valueCodec, (V)value);
+        for (Traverser it = new Traverser(table); it.advance(); ) {
+            if (Arrays.equals(it.value, vb))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Maps the specified key to the specified value in this table.
+     * Neither the key nor the value can be null.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the encoded key and value
+     *         exceed the maximum record size
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /** Implementation for put and putIfAbsent */
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null) throw new NullPointerException();
+        byte[] kb = encode(keyCodec, key), vb = encode(valueCodec, value);
+        int hash = hashOf(kb);
+        int binCount = 0;
+        long rec = 0L;          // allocated record, if any
+        boolean linked = false;
+        byte[] oldVal = null;
+        for (Table tab = table;;) {
+            long f; int i;
+            if (tab == null)
+                tab = initTable();
+            else if ((f = tabAt(tab.bins, i = (tab.n - 1) & hash)) == 0L) {
+                if (rec == 0L)
+                    rec = newRecord(hash, kb, vb);
+                if (casTabAt(tab.bins, i, 0L, rec)) {
+                    linked = true;
+                    break;              // no lock when adding to empty bin
+                }
+            }
+            else if (f == MOVED)
+                tab = helpTransfer(tab);
+            else {
+                long[] bins = tab.bins;
+                boolean needRecord = false;
+                lockBin(bins, i);
+                try {
+                    if (tabAt(bins, i) == f) {
+                        binCount = 1;
+                        for (long e = f, pred = 0L;; ++binCount) {
+                            long lens, next;
+                            if ((lens = match(e, hash, kb)) != -1L) {
+                                if (!onlyIfAbsent && rec == 0L &&
+                                    !fitsValue(e, vb)) {
+                                    needRecord = true;
+                                    break;
+                                }
+                                oldVal = valueBytes(e, lens);
+                                if (!onlyIfAbsent &&
+                                    replaceValue(bins, i, pred, e, vb, rec))
+                                    rec = 0L;
+                                break;
+                            }
+                            if ((next = nextOf(e)) == 0L) {
+                                if (rec == 0L) {
+                                    needRecord = true;
+                                    break;
+                                }
+                                setNext(e, rec);
+                                linked = true;
+                                break;
+                            }
+                            pred = e;
+                            e = next;
+                        }
+                    }
+                } finally {
+                    unlockBin(bins, i);
+                }
+                if (needRecord) {       // allocate outside the lock; retry
+                    rec = newRecord(hash, kb, vb);
+                    binCount = 0;
+                }
+                else if (binCount != 0)
+                    break;
+            }
+        }
+        if (!linked) {
+            if (rec != 0L)
+                slabs.free(rec);
+            return decodeValue(oldVal);
+        }
+        addCount(1L, binCount);
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /**
+     * Removes the key (and its corresponding value) from this map.
+     * This method does nothing if the key is not in the map.
+     *
+     * @param  key the key that needs to be removed
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        byte[] kb = encodeKey(key), v;
+        return ((v = replaceNode(kb, null, null)) == null) ? null :
+            decodeValue(v);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object key, Object value) {
+        byte[] kb = encodeKey(key);
+        return value != null &&
+            replaceNode(kb, null, encode(valueCodec, (V)value)) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null)
+            throw new NullPointerException();
+        return replaceNode(encode(keyCodec, key),
+                           encode(valueCodec, newValue),
+                           encode(valueCodec, oldValue)) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        byte[] v = replaceNode(encode(keyCodec, key),
+                               encode(valueCodec, value), null);
+        return (v == null) ? null : decodeValue(v);
+    }
+
+    /**
+     * Implementation for the four public remove/replace methods:
+     * Replaces record value with vb, conditional upon match of cvb if
+     * non-null.  If resulting value is null, delete.  Returns the old
+     * value bytes, or null if nothing was changed.
+     */
+    final byte[] replaceNode(byte[] kb, byte[] vb, byte[] cvb) {
+        int hash = hashOf(kb);
+        long rec = 0L;          // replacement record, if allocated
+        byte[] result = null;
+        for (Table tab = table;;) {
+            long f; int i;
+            if (tab == null ||
+                (f = tabAt(tab.bins, i = (tab.n - 1) & hash)) == 0L)
+                break;
+            else if (f == MOVED)
+                tab = helpTransfer(tab);
+            else {
+                long[] bins = tab.bins;
+                byte[] oldVal = null;
+                boolean validated = false, needRecord = false;
+                lockBin(bins, i);
+                try {
+                    if (tabAt(bins, i) == f) {
+                        validated = true;
+                        for (long e = f, pred = 0L; e != 0L;
+                             pred = e, e = nextOf(e)) {
+                            long lens;
+                            if ((lens = match(e, hash, kb)) != -1L) {
+                                byte[] ev = valueBytes(e, lens);
+                                if (cvb == null || Arrays.equals(cvb, ev)) {
+                                    if (vb != null && rec == 0L &&
+                                        !fitsValue(e, vb)) {
+                                        validated = false;
+                                        needRecord = true;
+                                        break;
+                                    }
+                                    oldVal = ev;
+                                    if (vb != null) {
+                                        if (replaceValue(bins, i, pred, e,
+                                                         vb, rec))
+                                            rec = 0L;
+                                    }
+                                    else {
+                                        if (pred == 0L)
+                                            setTabAt(bins, i, nextOf(e));
+                                        else
+                                            setNext(pred, nextOf(e));
+                                        slabs.free(e);
+                                    }
+                                }
+                                break;
+                            }
+                        }
+                    }
+                } finally {
+                    unlockBin(bins, i);
+                }
+                if (needRecord)         // allocate outside the lock; retry
+                    rec = newRecord(hash, kb, vb);
+                else if (validated) {
+                    if (oldVal != null && vb == null)
+                        addCount(-1L, -1);
+                    result = oldVal;
+                    break;
+                }
+            }
+        }
+        if (rec != 0L)
+            slabs.free(rec);
+        return result;
+    }
+
+    /**
+     * Removes all of the mappings from this map and recycles their
+     * records.  Direct memory remains reserved for reuse.
+     */
+    public void clear() {
+        long delta = 0L; // negative number of deletions
+        int i = 0;
+        Table tab = table;
+        while (tab != null && i < tab.n) {
+            long[] bins = tab.bins;
+            long f = tabAt(bins, i);
+            if (f == 0L)
+                ++i;
+            else if (f == MOVED) {
+                tab = helpTransfer(tab);
+                i = 0; // restart
+            }
+            else {
+                lockBin(bins, i);
+                try {
+                    if (tabAt(bins, i) == f) {
+                        setTabAt(bins, i, 0L);
+                        for (long e = f, next; e != 0L; e = next) {
+                            next = nextOf(e);
+                            slabs.free(e);
+                            --delta;
+                        }
+                    }
+                } finally {
+                    unlockBin(bins, i);
+                }
+            }
+        }
+        if (delta != 0L)
+            addCount(delta, -1);
+    }
+
+    /**
+     * Returns a {@link Set} view of the keys contained in this map.
+     * The set is backed by the map and supports removal.  Its iterators
+     * are weakly consistent and return freshly decoded keys.
+     *
+     * @return the set view
+     */
+    public Set<K> keySet() {
+        KeySetView<K,V> ks;
+        return (ks = keySet) != null ? ks : (keySet = new KeySetView<K,V>(this));
+    }
+
+    /**
+     * Returns a {@link Collection} view of the values contained in this
+     * map.  The collection is backed by the map and supports removal.
+     *
+     * @return the collection view
+     */
+    public Collection<V> values() {
+        ValuesView<K,V> vs;
+        return (vs = values) != null ? vs : (values = new ValuesView<K,V>(this));
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * Entries are snapshots; {@code setValue} writes through with
+     * {@link #put}.
+     *
+     * @return the set view
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySetView<K,V> es;
+        return (es = entrySet) != null ? es : (entrySet = new EntrySetView<K,V>(this));
+    }
+
+    /* ---------------- Table Initialization and Resizing -------------- */
+
+    /**
+     * Returns the stamp bits for resizing a table of size n.
+     * Must be negative when shifted left by RESIZE_STAMP_SHIFT.
+     */
+    static final int resizeStamp(int n) {
+        return Integer.numberOfLeadingZeros(n) | (1 << (RESIZE_STAMP_BITS - 1));
+    }
+
+    /**
+     * Initializes table, using the size recorded in sizeCtl.
+     */
+    private final Table initTable() {
+        Table tab; int sc;
+        while ((tab = table) == null) {
+            if ((sc = sizeCtl) < 0)
+                Thread.yield(); // lost initialization race; just spin
+            else if (U.compareAndSwapInt(this, SIZECTL, sc, -1)) {
+                try {
+                    if ((tab = table) == null) {
+                        int n = (sc > 0) ? sc : DEFAULT_CAPACITY;
+                        table = tab = new Table(n);
+                        sc = n - (n >>> 2);
+                    }
+                } finally {
+                    sizeCtl = sc;
+                }
+                break;
+            }
+        }
+        return tab;
+    }
+
+    /**
+     * Adds to count, and if table is too small and not already
+     * resizing, initiates transfer. If already resizing, helps
+     * perform transfer if work is available.  As in ConcurrentHashMap.
+     *
+     * @param x the count to add
+     * @param check if <0, don't check resize, if <= 1 only check if uncontended
+     */
+    private final void addCount(long x, int check) {
+        CounterCell[] as; long b, s;
+        if ((as = counterCells) != null ||
+            !U.compareAndSwapLong(this, BASECOUNT, b = baseCount, s = b + x)) {
+            CounterCell a; long v; int m;
+            boolean uncontended = true;
+            if (as == null || (m = as.length - 1) < 0 ||
+                (a = as[ThreadLocalRandom.getProbe() & m]) == null ||
+                !(uncontended =
+                  U.compareAndSwapLong(a, CELLVALUE, v = a.value, v + x))) {
+                fullAddCount(x, uncontended);
+                return;
+            }
+            if (check <= 1)
+                return;
+            s = sumCount();
+        }
+        if (check >= 0) {
+            Table tab, nt; int n, sc;
+            while (s >= (long)(sc = sizeCtl) && (tab = table) != null &&
+                   (n = tab.n) < MAXIMUM_CAPACITY) {
+                int rs = resizeStamp(n);
+                if (sc < 0) {
+                    if ((sc >>> RESIZE_STAMP_SHIFT) != rs || sc == rs + 1 ||
+                        sc == rs + MAX_RESIZERS || (nt = nextTable) == null ||
+                        transferIndex <= 0)
+                        break;
+                    if (U.compareAndSwapInt(this, SIZECTL, sc, sc + 1))
+                        transfer(tab, nt);
+                }
+                else if (U.compareAndSwapInt(this, SIZECTL, sc,
+                                             (rs << RESIZE_STAMP_SHIFT) + 2))
+                    transfer(tab, null);
+                s = sumCount();
+            }
+        }
+    }
+
+    /**
+     * Helps transfer if a resize is in progress.
+     */
+    final Table helpTransfer(Table tab) {
+        Table nextTab; int sc;
+        if (tab != null && (nextTab = tab.forward) != null) {
+            int rs = resizeStamp(tab.n);
+            while (nextTab == nextTable && table == tab &&
+                   (sc = sizeCtl) < 0) {
+                if ((sc >>> RESIZE_STAMP_SHIFT) != rs || sc == rs + 1 ||
+                    sc == rs + MAX_RESIZERS || transferIndex <= 0)
+                    break;
+                if (U.compareAndSwapInt(this, SIZECTL, sc, sc + 1)) {
+                    transfer(tab, nextTab);
+                    break;
+                }
+            }
+            return nextTab;
+        }
+        return table;
+    }
+
+    /**
+     * Moves the records in each bin to the new table, splitting each
+     * bin into the lo and hi lists by relinking in place under the bin
+     * lock.
+     */
+    private final void transfer(Table tab, Table nextTab) {
+        int n = tab.n, stride;
+        if ((stride = (NCPU > 1) ? (n >>> 3) / NCPU : n) < MIN_TRANSFER_STRIDE)
+            stride = MIN_TRANSFER_STRIDE; // subdivide range
+        if (nextTab == null) {            // initiating
+            try {
+                nextTab = new Table(n << 1);
+            } catch (Throwable ex) {      // try to cope with OOME
+                sizeCtl = Integer.MAX_VALUE;
+                return;
+            }
+            tab.forward = nextTab;        // before any bin is MOVED
+            nextTable = nextTab;
+            transferIndex = n;
+        }
+        int nextn = nextTab.n;
+        long[] bins = tab.bins, nextBins = nextTab.bins;
+        boolean advance = true;
+        boolean finishing = false; // to ensure sweep before committing nextTab
+        for (int i = 0, bound = 0;;) {
+            long f;
+            while (advance) {
+                int nextIndex, nextBound;
+                if (--i >= bound || finishing)
+                    advance = false;
+                else if ((nextIndex = transferIndex) <= 0) {
+                    i = -1;
+                    advance = false;
+                }
+                else if (U.compareAndSwapInt
+                         (this, TRANSFERINDEX, nextIndex,
+                          nextBound = (nextIndex > stride ?
+                                       nextIndex - stride : 0))) {
+                    bound = nextBound;
+                    i = nextIndex - 1;
+                    advance = false;
+                }
+            }
+            if (i < 0 || i >= n || i + n >= nextn) {
+                int sc;
+                if (finishing) {
+                    nextTable = null;
+                    table = nextTab;
+                    sizeCtl = (n << 1) - (n >>> 1);
+                    return;
+                }
+                if (U.compareAndSwapInt(this, SIZECTL, sc = sizeCtl, sc - 1)) {
+                    if ((sc - 2) != resizeStamp(n) << RESIZE_STAMP_SHIFT)
+                        return;
+                    finishing = advance = true;
+                    i = n; // recheck before commit
+                }
+            }
+            else if ((f = tabAt(bins, i)) == 0L)
+                advance = casTabAt(bins, i, 0L, MOVED);
+            else if (f == MOVED)
+                advance = true; // already processed
+            else {
+                lockBin(bins, i);
+                try {
+                    if (tabAt(bins, i) == f) {
+                        long lo = 0L, loTail = 0L, hi = 0L, hiTail = 0L;
+                        for (long e = f, next; e != 0L; e = next) {
+                            next = nextOf(e);
+                            if ((U.getInt(e + HASH) & n) == 0) {
+                                if (loTail == 0L)
+                                    lo = e;
+                                else
+                                    setNext(loTail, e);
+                                loTail = e;
+                            }
+                            else {
+                                if (hiTail == 0L)
+                                    hi = e;
+                                else
+                                    setNext(hiTail, e);
+                                hiTail = e;
+                            }
+                        }
+                        if (loTail != 0L)
+                            setNext(loTail, 0L);
+                        if (hiTail != 0L)
+                            setNext(hiTail, 0L);
+                        setTabAt(nextBins, i, lo);
+                        setTabAt(nextBins, i + n, hi);
+                        setTabAt(bins, i, MOVED);
+                        advance = true;
+                    }
+                } finally {
+                    unlockBin(bins, i);
+                }
+            }
+        }
+    }
+
+    /* ---------------- Counter support -------------- */
+
+    /**
+     * A padded cell for distributing counts.  Adapted from LongAdder
+     * and Striped64.  See their internal docs for explanation.
+     */
+    @sun.misc.Contended static final class CounterCell {
+        volatile long value;
+        CounterCell(long x) { value = x; }
+    }
+
+    final long sumCount() {
+        CounterCell[] as = counterCells; CounterCell a;
+        long sum = baseCount;
+        if (as != null) {
+            for (int i = 0; i < as.length; ++i) {
+                if ((a = as[i]) != null)
+                    sum += a.value;
+            }
+        }
+        return sum;
+    }
+
+    // See LongAdder version for explanation
+    private final void fullAddCount(long x, boolean wasUncontended) {
+        int h;
+        if ((h = ThreadLocalRandom.getProbe()) == 0) {
+            ThreadLocalRandom.localInit();      // force initialization
+            h = ThreadLocalRandom.getProbe();
+            wasUncontended = true;
+        }
+        boolean collide = false;                // True if last slot nonempty
+        for (;;) {
+            CounterCell[] as; CounterCell a; int n; long v;
+            if ((as = counterCells) != null && (n = as.length) > 0) {
+                if ((a = as[(n - 1) & h]) == null) {
+                    if (cellsBusy == 0) {            // Try to attach new Cell
+                        CounterCell r = new CounterCell(x); // Optimistic create
+                        if (cellsBusy == 0 &&
+                            U.compareAndSwapInt(this, CELLSBUSY, 0, 1)) {
+                            boolean created = false;
+                            try {               // Recheck under lock
+                                CounterCell[] rs; int m, j;
+                                if ((rs = counterCells) != null &&
+                                    (m = rs.length) > 0 &&
+                                    rs[j = (m - 1) & h] == null) {
+                                    rs[j] = r;
+                                    created = true;
+                                }
+                            } finally {
+                                cellsBusy = 0;
+                            }
+                            if (created)
+                                break;
+                            continue;           // Slot is now non-empty
+                        }
+                    }
+                    collide = false;
+                }
+                else if (!wasUncontended)       // CAS already known to fail
+                    wasUncontended = true;      // Continue after rehash
+                else if (U.compareAndSwapLong(a, CELLVALUE, v = a.value, v + x))
+                    break;
+                else if (counterCells != as || n >= NCPU)
+                    collide = false;            // At max size or stale
+                else if (!collide)
+                    collide = true;
+                else if (cellsBusy == 0 &&
+                         U.compareAndSwapInt(this, CELLSBUSY, 0, 1)) {
+                    try {
+                        if (counterCells == as) {// Expand table unless stale
+                            CounterCell[] rs = new CounterCell[n << 1];
+                            for (int i = 0; i < n; ++i)
+                                rs[i] = as[i];
+                            counterCells = rs;
+                        }
+                    } finally {
+                        cellsBusy = 0;
+                    }
+                    collide = false;
+                    continue;                   // Retry with expanded table
+                }
+                h = ThreadLocalRandom.advanceProbe(h);
+            }
+            else if (cellsBusy == 0 && counterCells == as &&
+                     U.compareAndSwapInt(this, CELLSBUSY, 0, 1)) {
+                boolean init = false;
+                try {                           // Initialize table
+                    if (counterCells == as) {
+                        CounterCell[] rs = new CounterCell[2];
+                        rs[h & 1] = new CounterCell(x);
+                        counterCells = rs;
+                        init = true;
+                    }
+                } finally {
+                    cellsBusy = 0;
+                }
+                if (init)
+                    break;
+            }
+            else if (U.compareAndSwapLong(this, BASECOUNT, v = baseCount, v + x))
+                break;                          // Fall back on using base
+        }
+    }
+
+    /* ---------------- Traversal -------------- */
+
+    /**
+     * Visits the bins of a table in index order, descending into the
+     * forwarding table for bins that have been moved, and copies out the
+     * key and value bytes of one bin at a time under sequence validation.
+     */
+    static class Traverser {
+        final Table base;
+        int index;
+        final ArrayList<byte[]> pending = new ArrayList<byte[]>();
+        int pos;
+        byte[] key, value;
+
+        Traverser(Table base) {
+            this.base = base;
+        }
+
+        /**
+         * Advances to the next mapping, returning false when done.
+         */
+        final boolean advance() {
+            while (pos >= pending.size()) {
+                if (base == null || index >= base.n)
+                    return false;
+                pending.clear();
+                pos = 0;
+                collect(base, index++, pending);
+            }
+            key = pending.get(pos++);
+            value = pending.get(pos++);
+            return true;
+        }
+
+        static void collect(Table t, int i, ArrayList<byte[]> out) {
+            long[] bins = t.bins;
+            for (;;) {
+                long s = seqAt(bins, i);
+                if ((s & 1L) != 0L) {
+                    Thread.yield();
+                    continue;
+                }
+                long e = tabAt(bins, i);
+                if (e == MOVED) {
+                    Table nt = t.forward;
+                    collect(nt, i, out);
+                    collect(nt, i + t.n, out);
+                    return;
+                }
+                int mark = out.size();
+                boolean stale = false;
+                for (int steps = 0; e != 0L; e = nextOf(e)) {
+                    long lens = U.getLongVolatile(null, e + LENGTHS);
+                    int klen = (int)(lens >>> 32);
+                    out.add(copyOut(e + DATA, klen));
+                    out.add(copyOut(e + DATA + klen, (int)lens));
+                    if (++steps % VALIDATE_STEPS == 0 && seqAt(bins, i) != s) {
+                        stale = true;
+                        break;
+                    }
+                }
+                U.loadFence();
+                if (!stale && seqAt(bins, i) == s)
+                    return;
+                while (out.size() > mark)
+                    out.remove(out.size() - 1);
+            }
+        }
+    }
+
+    static class BaseIterator<K,V> extends Traverser {
+        final OffHeapConcurrentHashMap<K,V> map;
+        K lastKey;
+        boolean ready;
+
+        BaseIterator(OffHeapConcurrentHashMap<K,V> map) {
+            super(map.table);
+            this.map = map;
+        }
+
+        public final boolean hasNext() {
+            return ready || (ready = advance());
+        }
+
+        final void nextMapping() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            ready = false;
+            lastKey = map.decodeKey(key);
+        }
+
+        public final void remove() {
+            K k;
+            if ((k = lastKey) == null)
+                throw new IllegalStateException();
+            lastKey = null;
+            map.remove(k);
+        }
+    }
+
+    static final class KeyIterator<K,V> extends BaseIterator<K,V>
+        implements Iterator<K> {
+        KeyIterator(OffHeapConcurrentHashMap<K,V> map) { super(map); }
+        public K next() {
+            nextMapping();
+            return lastKey;
+        }
+    }
+
+    static final class ValueIterator<K,V> extends BaseIterator<K,V>
+        implements Iterator<V> {
+        ValueIterator(OffHeapConcurrentHashMap<K,V> map) { super(map); }
+        public V next() {
+            nextMapping();
+            return map.decodeValue(value);
+        }
+    }
+
+    static final class EntryIterator<K,V> extends BaseIterator<K,V>
+        implements Iterator<Map.Entry<K,V>> {
+        EntryIterator(OffHeapConcurrentHashMap<K,V> map) { super(map); }
+        public Map.Entry<K,V> next() {
+            nextMapping();
+            return new MapEntry<K,V>(lastKey, map.decodeValue(value), map);
+        }
+    }
+
+    /**
+     * Exported Entry for EntryIterator
+     */
+    static final class MapEntry<K,V> implements Map.Entry<K,V> {
+        final K key; // non-null
+        V val;       // non-null
+        final OffHeapConcurrentHashMap<K,V> map;
+        MapEntry(K key, V val, OffHeapConcurrentHashMap<K,V> map) {
+            this.key = key;
+            this.val = val;
+            this.map = map;
+        }
+        public K getKey()        { return key; }
+        public V getValue()      { return val; }
+        public int hashCode()    { return key.hashCode() ^ val.hashCode(); }
+        public String toString() { return key + "=" + val; }
+
+        public boolean equals(Object o) {
+            Object k, v; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    (k == key || k.equals(key)) &&
+                    (v == val || v.equals(val)));
+        }
+
+        /**
+         * Sets our entry's value and writes through to the map.
+         */
+        public V setValue(V value) {
+            if (value == null) throw new NullPointerException();
+            V v = val;
+            val = value;
+            map.put(key, value);
+            return v;
+        }
+    }
+
+    /* ---------------- Views -------------- */
+
+    static final class KeySetView<K,V> extends AbstractSet<K> {
+        final OffHeapConcurrentHashMap<K,V> map;
+        KeySetView(OffHeapConcurrentHashMap<K,V> map) { this.map = map; }
+        public int size()                 { return map.size(); }
+        public boolean isEmpty()          { return map.isEmpty(); }
+        public void clear()               { map.clear(); }
+        public boolean contains(Object o) { return map.containsKey(o); }
+        public boolean remove(Object o)   { return map.remove(o) != null; }
+        public Iterator<K> iterator()     { return new KeyIterator<K,V>(map); }
+    }
+
+    static final class ValuesView<K,V> extends AbstractCollection<V> {
+        final OffHeapConcurrentHashMap<K,V> map;
+        ValuesView(OffHeapConcurrentHashMap<K,V> map) { this.map = map; }
+        public int size()                 { return map.size(); }
+        public boolean isEmpty()          { return map.isEmpty(); }
+        public void clear()               { map.clear(); }
+        public boolean contains(Object o) { return map.containsValue(o); }
+        public Iterator<V> iterator()     { return new ValueIterator<K,V>(map); }
+    }
+
+    static final class EntrySetView<K,V> extends AbstractSet<Map.Entry<K,V>> {
+        final OffHeapConcurrentHashMap<K,V> map;
+        EntrySetView(OffHeapConcurrentHashMap<K,V> map) { this.map = map; }
+        public int size()                 { return map.size(); }
+        public boolean isEmpty()          { return map.isEmpty(); }
+        public void clear()               { map.clear(); }
+        public Iterator<Map.Entry<K,V>> iterator() {
+            return new EntryIterator<K,V>(map);
+        }
+        public boolean contains(Object o) {
+            Object k, v, r; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (r = map.get(k)) != null &&
+                    (v = e.getValue()) != null &&
+                    (v == r || v.equals(r)));
+        }
+        public boolean remove(Object o) {
+            Object k, v; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    map.remove(k, v));
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long SIZECTL;
+    private static final long TRANSFERINDEX;
+    private static final long BASECOUNT;
+    private static final long CELLSBUSY;
+    private static final long CELLVALUE;
+    private static final long ABASE;
+    private static final long SEQBASE;
+    private static final int BSHIFT;
+    private static final long BYTE_ARRAY_BASE;
+
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = OffHeapConcurrentHashMap.class;
+            SIZECTL = U.objectFieldOffset
+                (k.getDeclaredField("sizeCtl"));
+            TRANSFERINDEX = U.objectFieldOffset
+                (k.getDeclaredField("transferIndex"));
+            BASECOUNT = U.objectFieldOffset
+                (k.getDeclaredField("baseCount"));
+            CELLSBUSY = U.objectFieldOffset
+                (k.getDeclaredField("cellsBusy"));
+            Class<?> ck = CounterCell.class;
+            CELLVALUE = U.objectFieldOffset
+                (ck.getDeclaredField("value"));
+            ABASE = U.arrayBaseOffset(long[].class);
+            int scale = U.arrayIndexScale(long[].class);
+            if (scale != 8)
+                throw new Error("data type scale not eight");
+            BSHIFT = 4;                 // two longs per bin
+            SEQBASE = ABASE + scale;
+            BYTE_ARRAY_BASE = U.arrayBaseOffset(byte[].class);
+            if (U.arrayIndexScale(byte[].class) != 1)
+                throw new Error("data type scale not one");
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
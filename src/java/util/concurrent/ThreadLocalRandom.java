@@ -513,6 +513,162 @@ public class ThreadLocalRandom extends Random {
         return v1 * multiplier;
     }
 
+    // bulk methods
+
+    /*
+     * The bulk methods read the thread's seed once, fill the array
+     * from a local copy, and write the seed back once, so that the
+     * array receives exactly the values successive single-value calls
+     * would have produced.  Since the k-th next seed is just seed +
+     * k * GAMMA, elements are produced four at a time from independent
+     * offsets, leaving the mixing steps free to overlap.
+     */
+
+    /**
+     * Checks that {@code fromIndex} and {@code toIndex} are in
+     * the range of an array of the given length.
+     */
+    private static void checkFillRange(int length, int fromIndex, int toIndex) {
+        if (fromIndex > toIndex)
+            throw new IllegalArgumentException(
+                "fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        if (fromIndex < 0)
+            throw new ArrayIndexOutOfBoundsException(fromIndex);
+        if (toIndex > length)
+            throw new ArrayIndexOutOfBoundsException(toIndex);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code int} values.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextInts(int[] a, int fromIndex, int toIndex) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        Thread t = Thread.currentThread();
+        long s = UNSAFE.getLong(t, SEED);
+        int i = fromIndex;
+        for (int e = toIndex - 3; i < e; i += 4, s += 4 * GAMMA) {
+            a[i] = mix32(s + GAMMA);
+            a[i + 1] = mix32(s + 2 * GAMMA);
+            a[i + 2] = mix32(s + 3 * GAMMA);
+            a[i + 3] = mix32(s + 4 * GAMMA);
+        }
+        for (; i < toIndex; ++i)
+            a[i] = mix32(s += GAMMA);
+        UNSAFE.putLong(t, SEED, s);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code long} values.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextLongs(long[] a, int fromIndex, int toIndex) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        Thread t = Thread.currentThread();
+        long s = UNSAFE.getLong(t, SEED);
+        int i = fromIndex;
+        for (int e = toIndex - 3; i < e; i += 4, s += 4 * GAMMA) {
+            a[i] = mix64(s + GAMMA);
+            a[i + 1] = mix64(s + 2 * GAMMA);
+            a[i + 2] = mix64(s + 3 * GAMMA);
+            a[i + 3] = mix64(s + 4 * GAMMA);
+        }
+        for (; i < toIndex; ++i)
+            a[i] = mix64(s += GAMMA);
+        UNSAFE.putLong(t, SEED, s);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * {@code double} values between zero (inclusive) and one
+     * (exclusive).
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextDoubles(double[] a, int fromIndex, int toIndex) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        Thread t = Thread.currentThread();
+        long s = UNSAFE.getLong(t, SEED);
+        int i = fromIndex;
+        for (int e = toIndex - 3; i < e; i += 4, s += 4 * GAMMA) {
+            a[i] = (mix64(s + GAMMA) >>> 11) * DOUBLE_UNIT;
+            a[i + 1] = (mix64(s + 2 * GAMMA) >>> 11) * DOUBLE_UNIT;
+            a[i + 2] = (mix64(s + 3 * GAMMA) >>> 11) * DOUBLE_UNIT;
+            a[i + 3] = (mix64(s + 4 * GAMMA) >>> 11) * DOUBLE_UNIT;
+        }
+        for (; i < toIndex; ++i)
+            a[i] = (mix64(s += GAMMA) >>> 11) * DOUBLE_UNIT;
+        UNSAFE.putLong(t, SEED, s);
+    }
+
+    /**
+     * Fills the given range of the given array with pseudorandom
+     * Gaussian ("normally") distributed {@code double} values with
+     * mean {@code 0.0} and standard deviation {@code 1.0}.
+     *
+     * @param a the array to fill
+     * @param fromIndex the index of the first element (inclusive) to fill
+     * @param toIndex the index of the last element (exclusive) to fill
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException if {@code fromIndex < 0} or
+     *         {@code toIndex > a.length}
+     * @throws NullPointerException if the array is null
+     * @since 1.8
+     */
+    public void nextGaussians(double[] a, int fromIndex, int toIndex) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        int i = fromIndex;
+        if (i == toIndex)
+            return;
+        Double d = nextLocalGaussian.get();
+        if (d != null) {
+            nextLocalGaussian.set(null);
+            a[i++] = d.doubleValue();
+        }
+        Thread t = Thread.currentThread();
+        long s = UNSAFE.getLong(t, SEED);
+        while (i < toIndex) {
+            double v1, v2, q;
+            do {
+                v1 = 2 * ((mix64(s += GAMMA) >>> 11) * DOUBLE_UNIT) - 1;
+                v2 = 2 * ((mix64(s += GAMMA) >>> 11) * DOUBLE_UNIT) - 1;
+                q = v1 * v1 + v2 * v2;
+            } while (q >= 1 || q == 0);
+            double scale = StrictMath.sqrt(-2 * StrictMath.log(q)/q);
+            a[i++] = v1 * scale;
+            if (i < toIndex)
+                a[i++] = v2 * scale;
+            else
+                nextLocalGaussian.set(new Double(v2 * scale));
+        }
+        UNSAFE.putLong(t, SEED, s);
+    }
+
     // stream methods, coded in a way intended to better isolate for
     // maintenance purposes the small differences across forms.
 
@@ -42,6 +42,8 @@ import java.util.concurrent.locks.AbstractQueuedSynchronizer;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.*;
 
 /**
@@ -261,6 +263,29 @@ import java.util.*;
  * assist in storage reclamation when large numbers of queued tasks
  * become cancelled.</dd>
  *
+ * <dt>Batched submission</dt>
+ *
+ * <dd>Method {@link #executeAll} submits a collection of tasks at
+ * once: it starts any core threads the batch can use, then enqueues
+ * the remaining tasks with a single queue operation when the queue is
+ * a {@link LinkedBlockingQueue} or {@link ArrayBlockingQueue}, rather
+ * than synchronizing once per task.  {@link #invokeAllAsync} does the
+ * same for {@link Callable}s, returning their {@link Future}s without
+ * waiting.  Independently, {@link #setWorkerBatchSize} lets each worker
+ * take several queued tasks per wakeup using {@link
+ * BlockingQueue#drainTo}.  Tasks a worker has taken but not yet started
+ * are no longer in the queue, so {@link #remove(Runnable)} and {@link
+ * #purge} do not see them, but {@link #shutdownNow} still returns
+ * them.</dd>
+ *
+ * <dt>Task timing</dt>
+ *
+ * <dd>When {@linkplain #setTaskTimingEnabled enabled}, the pool
+ * accumulates the time tasks spend running and, for tasks it creates
+ * itself via {@code submit}, {@code invokeAll}, {@code invokeAny} and
+ * {@code invokeAllAsync}, the time they spend waiting in the queue.
+ * See {@link #getTotalRunTime} and {@link #getTotalQueueWaitTime}.</dd>
+ *
  * <dt>Finalization</dt>
  *
  * <dd>A pool that is no longer referenced in a program <em>AND</em>
@@ -581,6 +606,30 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
     // 最大线程数（注意与largestPoolSize的区别）
     private volatile int maximumPoolSize;
 
+    /**
+     * The maximum number of tasks a worker takes from the queue per
+     * wakeup: the task it waited for plus up to workerBatchSize - 1
+     * more, taken with drainTo into the worker's batch.
+     */
+    private volatile int workerBatchSize = 1;
+
+    /**
+     * Whether task run and queue wait times are being recorded.
+     */
+    private volatile boolean taskTiming;
+
+    /*
+     * Task timing statistics.  Run times are recorded for every task
+     * run while taskTiming is set.  Queue wait times are recorded only
+     * for TimedFutureTasks, which newTaskFor creates while taskTiming
+     * is set and which carry their creation time.
+     */
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAdder runCount = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
     /**
      * The default rejected execution handler
      */
@@ -650,6 +699,12 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         Runnable firstTask;
         /** Per-thread task counter */
         volatile long completedTasks;
+        /**
+         * Tasks taken from the queue but not yet started, when the
+         * worker batch size exceeds one.  Guarded by its own monitor,
+         * since shutdownNow empties it from another thread.
+         */
+        final ArrayDeque<Runnable> batch = new ArrayDeque<Runnable>();
 
         /**
          * Creates with given first task and thread from ThreadFactory.
@@ -698,6 +753,22 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         public void unlock()      { release(1); }
         public boolean isLocked() { return isHeldExclusively(); }
 
+        /** Removes and returns the next batched task, or null. */
+        Runnable pollBatch() {
+            ArrayDeque<Runnable> b = batch;
+            synchronized (b) {
+                return b.pollFirst();
+            }
+        }
+
+        /** Returns the number of batched tasks. */
+        int batchSize() {
+            ArrayDeque<Runnable> b = batch;
+            synchronized (b) {
+                return b.size();
+            }
+        }
+
         //被调用来中断当前工作线程的方法
         void interruptIfStarted() {
             Thread t;
@@ -1081,9 +1152,22 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         if (completedAbruptly) // If abrupt, then workerCount wasn't adjusted
             decrementWorkerCount();
 
+        // Return batched but unstarted tasks (left only by an abrupt
+        // exit) to the queue; reject any that no longer fit once the
+        // bookkeeping below is done.  This is done under mainLock so
+        // that shutdownNow finds each task either in the queue or in
+        // the batch.
+        ArrayList<Runnable> unqueued = null;
         final ReentrantLock mainLock = this.mainLock;
         mainLock.lock();
         try {
+            for (Runnable r; (r = w.pollBatch()) != null; ) {
+                if (!workQueue.offer(r)) {
+                    if (unqueued == null)
+                        unqueued = new ArrayList<Runnable>();
+                    unqueued.add(r);
+                }
+            }
             completedTaskCount += w.completedTasks;
             workers.remove(w);
         } finally {
@@ -1103,6 +1187,10 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
             }
             addWorker(null, false);
         }
+        if (unqueued != null) {
+            for (Runnable r : unqueued)
+                reject(r);
+        }
     }
 
     /**
@@ -1179,6 +1267,32 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         }
     }
 
+    /**
+     * Returns the worker's next batched task if any, else waits for one
+     * with getTask and, if batching is enabled, moves up to
+     * workerBatchSize - 1 further queued tasks into the worker's batch.
+     * Once the pool is stopping, batched tasks are left for shutdownNow
+     * to return and no more are batched, so a drain racing with
+     * shutdownNow either completes before shutdownNow empties the
+     * batch or takes nothing.
+     *
+     * @return task, or null if the worker must exit
+     */
+    private Runnable nextTask(Worker w) {
+        Runnable r = runStateLessThan(ctl.get(), STOP) ? w.pollBatch() : null;
+        if (r == null && (r = getTask()) != null) {
+            int extra = workerBatchSize - 1;
+            if (extra > 0 && !workQueue.isEmpty()) {
+                ArrayDeque<Runnable> b = w.batch;
+                synchronized (b) {
+                    if (runStateLessThan(ctl.get(), STOP))
+                        workQueue.drainTo(b, extra);
+                }
+            }
+        }
+        return r;
+    }
+
     /**
      * Main worker run loop.  Repeatedly gets tasks from queue and
      * executes them, while coping with a number of issues:
@@ -1230,7 +1344,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         boolean completedAbruptly = true;
         try {
             //当前线程处理完构造方法中的第一个task后，不断去阻塞队列中获取任务，每当获取一个任务，就先加锁然后进行处理
-            while (task != null || (task = getTask()) != null) {
+            while (task != null || (task = nextTask(w)) != null) {
                 w.lock();
                 // If pool is stopping, ensure thread is interrupted;
                 // if not, ensure thread is not interrupted.  This
@@ -1247,6 +1361,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                     // 那么可以override这两个方法来实现一些切面化的操作。
                     beforeExecute(wt, task); // 1
                     Throwable thrown = null;
+                    boolean timed = taskTiming;
+                    long start = timed ? System.nanoTime() : 0L;
                     try {
                         task.run();
                     } catch (RuntimeException x) {
@@ -1256,6 +1372,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                     } catch (Throwable x) {
                         thrown = x; throw new Error(x);
                     } finally {
+                        if (timed)
+                            recordTiming(task, start);
                         afterExecute(task, thrown); //2
                     }
                 } finally {
@@ -1495,6 +1613,117 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
             reject(command);
     }
 
+    /**
+     * Executes the given tasks sometime in the future, as if by calling
+     * {@link #execute} on each in iteration order, but with less
+     * per-task overhead.  While fewer than corePoolSize threads are
+     * running, each new core thread takes one of the tasks as its first
+     * task.  The tasks that remain are then enqueued in order with a
+     * single queue operation if the work queue is exactly a {@link
+     * LinkedBlockingQueue} or {@link ArrayBlockingQueue}, or otherwise
+     * one at a time.  Any that do not fit in the queue are handled as
+     * {@code execute} handles them, possibly by the current {@code
+     * RejectedExecutionHandler}.
+     *
+     * @param commands the tasks to execute
+     * @throws RejectedExecutionException at discretion of
+     *         {@code RejectedExecutionHandler}, if a task
+     *         cannot be accepted for execution; the tasks preceding it
+     *         have been accepted
+     * @throws NullPointerException if commands or any of its elements
+     *         are null, in which case no task is accepted
+     */
+    public void executeAll(Collection<? extends Runnable> commands) {
+        Runnable[] tasks = commands.toArray(new Runnable[0]);
+        for (Runnable r : tasks)
+            if (r == null)
+                throw new NullPointerException();
+        int n = tasks.length, i = 0;
+        // Steps as in execute, with step 2 applied to the whole rest
+        while (i < n && workerCountOf(ctl.get()) < corePoolSize &&
+               addWorker(tasks[i], true))
+            ++i;
+        if (i < n && isRunning(ctl.get())) {
+            int from = i;
+            i += offerAll(tasks, from, n);
+            if (i > from) {
+                int recheck = ctl.get();
+                if (!isRunning(recheck)) {
+                    for (int j = from; j < i; ++j)
+                        if (remove(tasks[j]))
+                            reject(tasks[j]);
+                }
+                else if (workerCountOf(recheck) == 0)
+                    addWorker(null, false);
+            }
+        }
+        for (; i < n; ++i)
+            execute(tasks[i]);
+    }
+
+    /**
+     * Enqueues tasks[from, to) in order, as many as the queue accepts,
+     * using a bulk insertion when the queue class supports one.  Only
+     * the exact classes are special-cased, since subclasses may
+     * override offer to influence thread creation.
+     *
+     * @return the number of tasks enqueued
+     */
+    @SuppressWarnings("unchecked")
+    private int offerAll(Runnable[] tasks, int from, int to) {
+        BlockingQueue<Runnable> q = workQueue;
+        Class<?> qc = q.getClass();
+        if (qc == LinkedBlockingQueue.class)
+            return ((LinkedBlockingQueue<Runnable>)q).offerAll(tasks, from, to);
+        if (qc == ArrayBlockingQueue.class)
+            return ((ArrayBlockingQueue<Runnable>)q).offerAll(tasks, from, to);
+        int i = from;
+        while (i < to && q.offer(tasks[i]))
+            ++i;
+        return i - from;
+    }
+
+    /**
+     * Submits the given tasks for execution as a batch, as by {@link
+     * #executeAll}, and returns a list of Futures holding their status
+     * and results without waiting for any of them to complete.  The
+     * list is in the same sequential order as produced by the iterator
+     * for the given task list.
+     *
+     * @param tasks the collection of tasks
+     * @param <T> the type of the values returned from the tasks
+     * @return a list of Futures representing the tasks, in the same
+     *         sequential order as produced by the iterator for the
+     *         given task list
+     * @throws NullPointerException if tasks or any of its elements are
+     *         {@code null}
+     * @throws RejectedExecutionException if any task cannot be
+     *         scheduled for execution, in which case all of the tasks
+     *         are cancelled
+     */
+    public <T> List<Future<T>> invokeAllAsync(
+        Collection<? extends Callable<T>> tasks) {
+        if (tasks == null)
+            throw new NullPointerException();
+        ArrayList<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+        ArrayList<Runnable> runnables = new ArrayList<Runnable>(tasks.size());
+        for (Callable<T> t : tasks) {
+            RunnableFuture<T> f = newTaskFor(t);
+            futures.add(f);
+            runnables.add(f);
+        }
+        boolean done = false;
+        try {
+            executeAll(runnables);
+            done = true;
+        } finally {
+            if (!done)
+                for (int i = 0, size = futures.size(); i < size; i++)
+                    futures.get(i).cancel(true);
+        }
+        return futures;
+    }
+
     /**
      * Initiates an orderly shutdown in which previously submitted
      * tasks are executed, but no new tasks will be accepted.
@@ -1546,6 +1775,13 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
             advanceRunState(STOP);
             interruptWorkers();
             tasks = drainQueue();
+            for (Worker w : workers) {
+                ArrayDeque<Runnable> b = w.batch;
+                synchronized (b) {
+                    tasks.addAll(b);
+                    b.clear();
+                }
+            }
         } finally {
             mainLock.unlock();
         }
@@ -1848,6 +2084,88 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         return unit.convert(keepAliveTime, TimeUnit.NANOSECONDS);
     }
 
+    /**
+     * Sets the maximum number of tasks each worker thread takes from the
+     * queue when it wakes: the task it was waiting for plus up to
+     * {@code batchSize - 1} further tasks removed with {@link
+     * BlockingQueue#drainTo}.  A worker runs the tasks it has taken
+     * before returning to the queue, so batching lowers queue
+     * synchronization per task at the cost of fairness between
+     * workers.  The default of one takes tasks singly.
+     *
+     * @param batchSize the new batch size
+     * @throws IllegalArgumentException if {@code batchSize < 1}
+     * @see #getWorkerBatchSize
+     */
+    public void setWorkerBatchSize(int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException();
+        this.workerBatchSize = batchSize;
+    }
+
+    /**
+     * Returns the maximum number of tasks a worker thread takes from the
+     * queue per wakeup.
+     *
+     * @return the worker batch size
+     * @see #setWorkerBatchSize
+     */
+    public int getWorkerBatchSize() {
+        return workerBatchSize;
+    }
+
+    /**
+     * A FutureTask stamped with its creation time, so that its time in
+     * the queue can be recorded when it starts.
+     */
+    static final class TimedFutureTask<V> extends FutureTask<V> {
+        final long createdNanos = System.nanoTime();
+        TimedFutureTask(Callable<V> callable) { super(callable); }
+        TimedFutureTask(Runnable runnable, V result) { super(runnable, result); }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>While {@linkplain #setTaskTimingEnabled task timing} is
+     * enabled, the returned task also records its creation time, so
+     * that its queue wait can be measured.
+     */
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return taskTiming ? new TimedFutureTask<T>(runnable, value) :
+            super.newTaskFor(runnable, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>While {@linkplain #setTaskTimingEnabled task timing} is
+     * enabled, the returned task also records its creation time, so
+     * that its queue wait can be measured.
+     */
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return taskTiming ? new TimedFutureTask<T>(callable) :
+            super.newTaskFor(callable);
+    }
+
+    /**
+     * Records the run time of a task that started at the given time,
+     * and its queue wait if it is a TimedFutureTask.
+     */
+    private void recordTiming(Runnable task, long start) {
+        long now = System.nanoTime();
+        runNanos.add(now - start);
+        runCount.increment();
+        if (task instanceof TimedFutureTask) {
+            long w = start - ((TimedFutureTask<?>)task).createdNanos;
+            waitNanos.add(w);
+            waitCount.increment();
+            for (long m; w > (m = maxWaitNanos.get()) &&
+                     !maxWaitNanos.compareAndSet(m, w); )
+                ;
+        }
+    }
+
     /* User-level queue utilities */
 
     /**
@@ -1862,6 +2180,100 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         return workQueue;
     }
 
+    /**
+     * Enables or disables recording of task run and queue wait times.
+     * Timing is disabled by default; it costs two calls to {@link
+     * System#nanoTime} per task.  Statistics already recorded are kept;
+     * see {@link #resetTaskTiming}.
+     *
+     * @param value {@code true} to record task timing
+     */
+    public void setTaskTimingEnabled(boolean value) {
+        taskTiming = value;
+    }
+
+    /**
+     * Returns {@code true} if task run and queue wait times are being
+     * recorded.
+     *
+     * @return {@code true} if task timing is enabled
+     */
+    public boolean isTaskTimingEnabled() {
+        return taskTiming;
+    }
+
+    /**
+     * Returns the total time that timed tasks have spent waiting in the
+     * queue, from their creation by {@code submit}, {@code invokeAll},
+     * {@code invokeAny} or {@code invokeAllAsync} until a worker started
+     * them.  Tasks passed directly to {@code execute} or {@code
+     * executeAll} carry no creation time and are not included.  The
+     * value is approximate while tasks are being run.
+     *
+     * @param unit the desired time unit of the result
+     * @return the total queue wait time
+     * @see #getQueueWaitCount
+     */
+    public long getTotalQueueWaitTime(TimeUnit unit) {
+        return unit.convert(waitNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the longest time any timed task has spent waiting in the
+     * queue.
+     *
+     * @param unit the desired time unit of the result
+     * @return the maximum queue wait time
+     * @see #getTotalQueueWaitTime
+     */
+    public long getMaxQueueWaitTime(TimeUnit unit) {
+        return unit.convert(maxWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of tasks whose queue wait is included in
+     * {@link #getTotalQueueWaitTime}.
+     *
+     * @return the number of tasks with a recorded queue wait
+     */
+    public long getQueueWaitCount() {
+        return waitCount.sum();
+    }
+
+    /**
+     * Returns the total time tasks have spent running, including
+     * neither {@link #beforeExecute} nor {@link #afterExecute}, while
+     * task timing was enabled.
+     *
+     * @param unit the desired time unit of the result
+     * @return the total run time
+     * @see #getRunCount
+     */
+    public long getTotalRunTime(TimeUnit unit) {
+        return unit.convert(runNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of tasks whose run time is included in
+     * {@link #getTotalRunTime}.
+     *
+     * @return the number of tasks with a recorded run time
+     */
+    public long getRunCount() {
+        return runCount.sum();
+    }
+
+    /**
+     * Resets the task timing statistics to zero.
+     */
+    public void resetTaskTiming() {
+        runNanos.reset();
+        runCount.reset();
+        waitNanos.reset();
+        waitCount.reset();
+        maxWaitNanos.set(0L);
+    }
+
     /**
      * Removes this task from the executor's internal queue if it is
      * present, thus causing it not to be run if it has not already
@@ -1985,7 +2397,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         try {
             long n = completedTaskCount;
             for (Worker w : workers) {
-                n += w.completedTasks;
+                n += w.completedTasks + w.batchSize();
                 if (w.isLocked())
                     ++n;
             }
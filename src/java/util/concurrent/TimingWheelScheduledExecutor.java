@@ -0,0 +1,966 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link ScheduledExecutorService} that keeps delayed tasks in a
+ * hashed hierarchical timing wheel, and hands them to a separate
+ * worker {@link Executor} when they become due.
+ *
+ * <p>{@link ScheduledThreadPoolExecutor} keeps its tasks in a binary
+ * heap guarded by a single lock, so scheduling and cancellation take
+ * time logarithmic in the number of pending tasks, and every
+ * scheduling thread contends on the lock.  This class instead divides
+ * time into <em>ticks</em> of a fixed duration, and files each task
+ * under the tick in which it becomes due.  Scheduling a task pushes it
+ * onto a lock-free stack with a single compare-and-set; cancelling it
+ * does the same on a second stack.  A dedicated timer thread drains
+ * both stacks each time it wakes, links new tasks into the wheel and
+ * unlinks cancelled ones, all in constant time per task, and then
+ * dispatches the tasks due in the current tick.  Cancelled tasks are
+ * thus always removed from the wheel within a couple of ticks,
+ * without any equivalent of {@link
+ * ScheduledThreadPoolExecutor#setRemoveOnCancelPolicy}.  This makes
+ * the class well suited to large numbers of timeouts that are usually
+ * cancelled before they expire.
+ *
+ * <p>The price is resolution: a task is never run before its delay
+ * has elapsed, but may run up to one tick late, plus whatever latency
+ * the worker executor adds.  Tasks due in the same tick are
+ * dispatched in no particular order.  The tick duration and the
+ * number of slots in each level of the wheel are set on
+ * construction.  While tasks are pending, the timer thread wakes for
+ * the ticks in which some come due, when tasks are scheduled or
+ * cancelled, and once per turn of the lowest level of the wheel; it
+ * parks indefinitely otherwise.
+ *
+ * <p>Due tasks are passed to the worker executor's {@code execute}
+ * method on the timer thread, so that method should not block.  If it
+ * throws an exception, the task completes with that exception.  The
+ * worker executor is not shut down by this class.  Periodic tasks are
+ * rescheduled when each run completes, so runs of the same task never
+ * overlap.
+ *
+ * <p>Like {@code ScheduledThreadPoolExecutor} under its default
+ * policies, on {@link #shutdown} pending one-shot tasks still run when
+ * due, while periodic tasks are cancelled.  This executor terminates
+ * when the timer thread has dispatched every remaining task; tasks
+ * that are already running, or waiting in the worker executor, are
+ * not tracked.  The timer thread is started on first use, by the
+ * {@link ThreadFactory} given on construction.
+ *
+ * @since 1.8
+ */
+public class TimingWheelScheduledExecutor extends AbstractExecutorService
+        implements ScheduledExecutorService {
+
+    /*
+     * The wheel has "levels" levels of 2^bits slots each, flattened
+     * into array "heads".  Time is measured in ticks since startTime.
+     * A task due at tick d, filed while the current tick is t, goes
+     * to the lowest level k such that d - t < 2^((k+1)*bits), in slot
+     * (d >>> k*bits) & mask of that level (as in the classic Linux
+     * timer wheel).  Level 0 thus holds the tasks due within one turn
+     * of the lowest wheel, and each higher level covers 2^bits times
+     * the span of the one below.  The number of levels is chosen so
+     * that levels * bits >= 63, so every delay fits without an
+     * overflow list.
+     *
+     * On each tick t the timer thread first cascades: for each level
+     * k >= 1, as long as the low k*bits bits of t are zero, it
+     * re-files every task in slot (t >>> k*bits) & mask of level k,
+     * which moves each of them to a lower level.  It then dispatches
+     * every task in slot t & mask of level 0.  Each task is thus
+     * touched at most "levels" times in its life, and each tick costs
+     * constant time plus the tasks it moves.
+     *
+     * Slots are circular doubly-linked lists (head.prev is the tail)
+     * of WheelTasks, owned by the timer thread alone.  Each task
+     * records its slot index (or -1 if not in the wheel), so it can be
+     * unlinked directly.  Other threads never touch the wheel: they
+     * push new or rescheduled tasks onto Treiber stack "pending"
+     * (linked through nextPending) and cancelled ones onto
+     * "cancelled" (through nextCancelled).  A task is on the pending
+     * stack at most once at a time, since periodic tasks are only
+     * resubmitted after each run, and FutureTask.cancel succeeds at
+     * most once, so a single link field per stack suffices.  The
+     * timer thread detaches each stack with one swap each time it
+     * wakes, and reverses the pending one so that tasks filed in the
+     * same slot keep their submission order.  A task cancelled while
+     * still pending is simply dropped when its stack entry is drained.
+     *
+     * When the wheel and the pending stack are both empty, the timer
+     * thread sets "parked" and parks until a producer pushes a task
+     * and unparks it.  Because nothing can expire meanwhile, it then
+     * jumps the current tick straight to the present rather than
+     * stepping through the idle ticks.
+     *
+     * When the wheel is not empty, the timer thread parks until the
+     * next tick whose level-0 slot holds tasks, or the next cascade
+     * (multiple of 2^bits) if none does before it, again with "parked"
+     * set so that producers and cancellers wake it early.  The ticks
+     * passed over are then stepped through without parking.  To keep
+     * wakeups batched when tasks arrive steadily, after being woken
+     * early it next parks for a single tick without setting "parked".
+     *
+     * Lifecycle transitions, and starting the timer thread, happen
+     * under mainLock.  The run state only increases.  When the timer
+     * thread is about to exit it moves the state to TIDYING and then
+     * drains the pending stack one last time.  A producer re-reads the
+     * state after pushing, and if the state has reached TIDYING
+     * cancels and rejects its own task.  Each side writes before it
+     * reads the other's variable, so a task cannot be lost between
+     * them.
+     */
+
+    private static final int RUNNING    = 0;
+    private static final int SHUTDOWN   = 1;
+    private static final int STOP       = 2;
+    private static final int TIDYING    = 3;
+    private static final int TERMINATED = 4;
+
+    /** Default tick duration, in nanoseconds */
+    private static final long DEFAULT_TICK_NANOS = 1000L * 1000L;
+
+    /** Default number of slots per level */
+    private static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    /** Maximum number of slots per level */
+    private static final int MAXIMUM_TICKS_PER_WHEEL = 1 << 16;
+
+    /** The executor that runs due tasks */
+    private final Executor executor;
+
+    /** Factory for the timer thread */
+    private final ThreadFactory threadFactory;
+
+    /** Tick duration in nanoseconds */
+    private final long tickNanos;
+
+    /** log2 of the number of slots per level, and the slot mask */
+    private final int bits, mask;
+
+    /** Number of levels */
+    private final int levels;
+
+    /** Slot list heads, level by level; accessed only by the timer */
+    private final WheelTask<?>[] heads;
+
+    /** The nanoTime at which tick 0 began */
+    private final long startTime;
+
+    /** Number of tasks in the wheel; accessed only by the timer */
+    private long count;
+
+    /** Stack of newly submitted tasks */
+    private volatile WheelTask<?> pending;
+
+    /** Stack of cancelled tasks */
+    private volatile WheelTask<?> cancelled;
+
+    /** True while the timer thread is parked past the next tick */
+    private volatile boolean parked;
+
+    /** The run state, guarded by mainLock for writes before TIDYING */
+    private volatile int runState;
+
+    /** The timer thread, or null if not yet started */
+    private volatile Thread timer;
+
+    /** Tasks never commenced, set by the timer thread on STOP */
+    private volatile List<Runnable> unstarted;
+
+    /** Lock held on lifecycle transitions */
+    private final ReentrantLock mainLock = new ReentrantLock();
+
+    /** Released on termination */
+    private final CountDownLatch termination = new CountDownLatch(1);
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with a tick
+     * duration of one millisecond and 512 slots per level.
+     *
+     * @param executor the executor that runs due tasks
+     * @throws NullPointerException if {@code executor} is null
+     */
+    public TimingWheelScheduledExecutor(Executor executor) {
+        this(DEFAULT_TICK_NANOS, NANOSECONDS, DEFAULT_TICKS_PER_WHEEL,
+             executor, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the
+     * given tick duration and 512 slots per level.
+     *
+     * @param tickDuration the duration of a tick
+     * @param unit the time unit of the {@code tickDuration} argument
+     * @param executor the executor that runs due tasks
+     * @throws IllegalArgumentException if {@code tickDuration <= 0}
+     * @throws NullPointerException if {@code unit} or {@code executor}
+     *         is null
+     */
+    public TimingWheelScheduledExecutor(long tickDuration, TimeUnit unit,
+                                        Executor executor) {
+        this(tickDuration, unit, DEFAULT_TICKS_PER_WHEEL,
+             executor, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the
+     * given parameters.
+     *
+     * @param tickDuration the duration of a tick
+     * @param unit the time unit of the {@code tickDuration} argument
+     * @param ticksPerWheel the number of slots in each level of the
+     *        wheel, rounded up to a power of two
+     * @param executor the executor that runs due tasks
+     * @param threadFactory the factory to use to create the timer
+     *        thread
+     * @throws IllegalArgumentException if {@code tickDuration <= 0},
+     *         or {@code ticksPerWheel} is less than 2 or greater than
+     *         65536
+     * @throws NullPointerException if {@code unit}, {@code executor}
+     *         or {@code threadFactory} is null
+     */
+    public TimingWheelScheduledExecutor(long tickDuration, TimeUnit unit,
+                                        int ticksPerWheel,
+                                        Executor executor,
+                                        ThreadFactory threadFactory) {
+        if (tickDuration <= 0 || ticksPerWheel < 2 ||
+            ticksPerWheel > MAXIMUM_TICKS_PER_WHEEL)
+            throw new IllegalArgumentException();
+        if (executor == null || threadFactory == null)
+            throw new NullPointerException();
+        long nanos = unit.toNanos(tickDuration);
+        if (nanos > Long.MAX_VALUE >> 2)
+            throw new IllegalArgumentException();
+        int b = 32 - Integer.numberOfLeadingZeros(ticksPerWheel - 1);
+        this.executor = executor;
+        this.threadFactory = threadFactory;
+        this.tickNanos = nanos;
+        this.bits = b;
+        this.mask = (1 << b) - 1;
+        this.levels = (63 + b - 1) / b;
+        this.heads = new WheelTask<?>[levels << b];
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Returns the tick duration in the given time unit.
+     *
+     * @param unit the time unit of the result
+     * @return the tick duration
+     */
+    public long getTickDuration(TimeUnit unit) {
+        return unit.convert(tickNanos, NANOSECONDS);
+    }
+
+    /**
+     * Returns the executor that runs due tasks.
+     *
+     * @return the worker executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Returns the nanoTime-based trigger time of a delayed action.
+     */
+    private static long triggerTime(long delay, TimeUnit unit) {
+        return triggerTime(unit.toNanos((delay < 0) ? 0 : delay));
+    }
+
+    /**
+     * Returns the nanoTime-based trigger time of a delayed action.
+     * Delays are capped so that deadlines cannot overflow relative
+     * to startTime.
+     */
+    static long triggerTime(long delay) {
+        return System.nanoTime() +
+            ((delay < (Long.MAX_VALUE >> 2)) ? delay : (Long.MAX_VALUE >> 2));
+    }
+
+    /**
+     * Returns the first tick at or after whose start the given time
+     * has been reached.
+     */
+    private long tickOf(long time) {
+        long d = time - startTime;
+        return (d <= 0) ? 0L : (d - 1) / tickNanos + 1;
+    }
+
+    private class WheelTask<V>
+            extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        /** The time the task is enabled to execute in nanoTime units */
+        private long time;
+
+        /**
+         * Period in nanoseconds for repeating tasks.  A positive
+         * value indicates fixed-rate execution.  A negative value
+         * indicates fixed-delay execution.  A value of 0 indicates a
+         * non-repeating task.
+         */
+        private final long period;
+
+        /** Tick of time, computed when filed */
+        long deadline;
+
+        /** Index of the slot holding this task, or -1 */
+        int slot = -1;
+
+        /** Slot list links, used only by the timer thread */
+        WheelTask<?> prev, next;
+
+        /** Links in the pending and cancelled stacks */
+        WheelTask<?> nextPending, nextCancelled;
+
+        WheelTask(Runnable r, V result, long ns, long period) {
+            super(r, result);
+            this.time = ns;
+            this.period = period;
+        }
+
+        WheelTask(Callable<V> callable, long ns) {
+            super(callable);
+            this.time = ns;
+            this.period = 0;
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), NANOSECONDS);
+        }
+
+        public int compareTo(Delayed other) {
+            if (other == this) // compare zero if same object
+                return 0;
+            long diff = getDelay(NANOSECONDS) - other.getDelay(NANOSECONDS);
+            return (diff < 0) ? -1 : (diff > 0) ? 1 : 0;
+        }
+
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean c = super.cancel(mayInterruptIfRunning);
+            if (c)
+                pushCancelled(this);
+            return c;
+        }
+
+        /**
+         * Overrides FutureTask version so as to reset and resubmit if
+         * periodic.
+         */
+        public void run() {
+            if (!isPeriodic())
+                super.run();
+            else if (super.runAndReset()) {
+                long p = period;
+                if (p > 0)
+                    time += p;
+                else
+                    time = triggerTime(-p);
+                reExecutePeriodic(this);
+            }
+        }
+
+        /** Completes this task with the worker executor's exception. */
+        void fail(Throwable ex) {
+            setException(ex);
+        }
+    }
+
+    /* ---------------- Submission ---------------- */
+
+    /**
+     * Main execution method for delayed or periodic tasks.  Runs the
+     * task at once if already due, else starts the timer if
+     * necessary and pushes the task for it to file.
+     */
+    private void delayedExecute(WheelTask<?> task) {
+        if (runState != RUNNING)
+            throw new RejectedExecutionException();
+        if (task.time - System.nanoTime() <= 0L) {
+            executor.execute(task);
+            return;
+        }
+        if (timer == null)
+            startTimer();
+        pushPending(task);
+        if (runState >= TIDYING) {
+            task.cancel(false);
+            throw new RejectedExecutionException();
+        }
+    }
+
+    /**
+     * Requeues a periodic task after a run, unless shut down, in
+     * which case the task is cancelled.
+     */
+    private void reExecutePeriodic(WheelTask<?> task) {
+        if (runState == RUNNING) {
+            pushPending(task);
+            if (runState < TIDYING)
+                return;
+        }
+        task.cancel(false);
+    }
+
+    private void startTimer() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            if (runState != RUNNING)
+                throw new RejectedExecutionException();
+            if (timer == null) {
+                Thread t = threadFactory.newThread(new Runnable() {
+                        public void run() { runTimer(); }
+                    });
+                if (t == null)
+                    throw new RejectedExecutionException();
+                t.start();
+                timer = t;
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void pushPending(WheelTask<?> task) {
+        WheelTask<?> h;
+        do {
+            task.nextPending = h = pending;
+        } while (!U.compareAndSwapObject(this, PENDING, h, task));
+        Thread t;
+        if (h == null && parked && (t = timer) != null)
+            LockSupport.unpark(t);
+    }
+
+    private void pushCancelled(WheelTask<?> task) {
+        WheelTask<?> h;
+        do {
+            task.nextCancelled = h = cancelled;
+        } while (!U.compareAndSwapObject(this, CANCELLED, h, task));
+        Thread t;
+        if (h == null && parked && (t = timer) != null)
+            LockSupport.unpark(t);
+    }
+
+    /* ---------------- Timer thread ---------------- */
+
+    private void runTimer() {
+        final long tickNanos = this.tickNanos, startTime = this.startTime;
+        long tick = (System.nanoTime() - startTime) / tickNanos;
+        boolean sweptPeriodic = false;
+        boolean throttle = false; // woken early; park a single tick
+        try {
+            for (;;) {
+                int rs = runState;
+                if (rs >= STOP)
+                    break;
+                unlinkCancelled();
+                tick = filePending(tick, rs);
+                if (rs == SHUTDOWN) {
+                    if (!sweptPeriodic) {
+                        sweptPeriodic = true;
+                        cancelPeriodic();
+                        unlinkCancelled();
+                    }
+                    if (count == 0L && pending == null)
+                        break;
+                }
+                long now = System.nanoTime();
+                long current = (now - startTime) / tickNanos;
+                if (count == 0L)
+                    tick = current; // nothing can expire in between
+                while (tick < current && runState < STOP)
+                    advance(++tick);
+                if (count != 0L) {
+                    long next = throttle ? tick + 1 : nextTick(tick);
+                    long deadline = startTime + next * tickNanos;
+                    throttle = false;
+                    if (next == tick + 1)
+                        LockSupport.parkNanos(this, deadline - System.nanoTime());
+                    else {
+                        parked = true;
+                        if (pending == null && cancelled == null &&
+                            runState == rs)
+                            LockSupport.parkNanos(this, deadline -
+                                                  System.nanoTime());
+                        parked = false;
+                        throttle = deadline - System.nanoTime() > tickNanos;
+                    }
+                }
+                else if (rs == RUNNING) {
+                    parked = true;
+                    if (pending == null && runState == rs)
+                        LockSupport.park(this);
+                    parked = false;
+                }
+            }
+        } finally {
+            tidy();
+        }
+    }
+
+    /**
+     * Returns the first tick after the given one that can have work:
+     * the next one whose level-0 slot holds tasks, or else the next
+     * multiple of 2^bits, at which higher levels cascade.  Level-0
+     * slots up to that multiple hold only tasks due in those ticks.
+     */
+    private long nextTick(long tick) {
+        long end = ((tick >>> bits) + 1L) << bits;
+        for (long t = tick + 1L; t < end; ++t) {
+            if (heads[(int)(t & mask)] != null)
+                return t;
+        }
+        return end;
+    }
+
+    /**
+     * Performs a tick: cascades higher levels whose slot for this
+     * tick comes due, then dispatches the due slot of level 0.
+     */
+    private void advance(long tick) {
+        for (int k = 1; k < levels; ++k) {
+            int shift = k * bits;
+            if ((tick & ((1L << shift) - 1)) != 0L)
+                break;
+            int i = (k << bits) | (int)((tick >>> shift) & mask);
+            WheelTask<?> p = detach(i);
+            while (p != null) {
+                WheelTask<?> q = p.next;
+                p.prev = p.next = null;
+                file(p, tick);
+                p = q;
+            }
+        }
+        WheelTask<?> p = detach((int)(tick & mask));
+        while (p != null) {
+            WheelTask<?> q = p.next;
+            p.prev = p.next = null;
+            dispatch(p);
+            p = q;
+        }
+    }
+
+    /**
+     * Empties slot i, returning its tasks as a null-terminated list
+     * linked through next, with their slots cleared.
+     */
+    private WheelTask<?> detach(int i) {
+        WheelTask<?> h = heads[i];
+        if (h == null)
+            return null;
+        heads[i] = null;
+        for (WheelTask<?> p = h; p != null; p = p.next) {
+            p.slot = -1;
+            --count;
+        }
+        return h;
+    }
+
+    /**
+     * Files task p relative to the given current tick, or dispatches
+     * it if already due.
+     */
+    private void file(WheelTask<?> p, long tick) {
+        long d = p.deadline, delta = d - tick;
+        if (delta <= 0L) {
+            dispatch(p);
+            return;
+        }
+        int k = 0;
+        while (k < levels - 1 && (delta >>> ((k + 1) * bits)) != 0L)
+            ++k;
+        int i = (k << bits) | (int)((d >>> (k * bits)) & mask);
+        WheelTask<?> h = heads[i];
+        if (h == null) {
+            heads[i] = p.prev = p;
+        }
+        else {
+            WheelTask<?> t = h.prev;
+            p.prev = t;
+            t.next = p;
+            h.prev = p;
+        }
+        p.next = null;
+        p.slot = i;
+        ++count;
+    }
+
+    /** Unlinks p from its slot. */
+    private void unlink(WheelTask<?> p) {
+        int i = p.slot;
+        WheelTask<?> h = heads[i], pr = p.prev, nx = p.next;
+        if (p == h)
+            heads[i] = nx;
+        else
+            pr.next = nx;
+        if (nx != null)
+            nx.prev = pr;
+        else if (p != h)
+            h.prev = pr;
+        p.prev = p.next = null;
+        p.slot = -1;
+        --count;
+    }
+
+    /**
+     * Files all pending tasks, returning the current tick, which is
+     * resynchronized with the clock if the wheel was empty.
+     */
+    private long filePending(long tick, int rs) {
+        WheelTask<?> h = (pending == null) ? null :
+            (WheelTask<?>)U.getAndSetObject(this, PENDING, null);
+        if (h == null)
+            return tick;
+        if (count == 0L)
+            tick = Math.max(tick, (System.nanoTime() - startTime) / tickNanos);
+        WheelTask<?> r = null; // reverse into submission order
+        while (h != null) {
+            WheelTask<?> q = h.nextPending;
+            h.nextPending = r;
+            r = h;
+            h = q;
+        }
+        while (r != null) {
+            WheelTask<?> q = r.nextPending;
+            r.nextPending = null;
+            if (!r.isDone()) {
+                if (rs != RUNNING && r.isPeriodic())
+                    r.cancel(false);
+                else {
+                    r.deadline = tickOf(r.time);
+                    file(r, tick);
+                }
+            }
+            r = q;
+        }
+        return tick;
+    }
+
+    /** Unlinks all cancelled tasks still in the wheel. */
+    private void unlinkCancelled() {
+        WheelTask<?> h = (cancelled == null) ? null :
+            (WheelTask<?>)U.getAndSetObject(this, CANCELLED, null);
+        while (h != null) {
+            WheelTask<?> q = h.nextCancelled;
+            h.nextCancelled = null;
+            if (h.slot >= 0)
+                unlink(h);
+            h = q;
+        }
+    }
+
+    /** Cancels all periodic tasks in the wheel, on shutdown. */
+    private void cancelPeriodic() {
+        for (WheelTask<?> h : heads) {
+            for (WheelTask<?> p = h; p != null; p = p.next) {
+                if (p.isPeriodic())
+                    p.cancel(false);
+            }
+        }
+    }
+
+    /** Hands a due task to the worker executor. */
+    private void dispatch(WheelTask<?> p) {
+        if (!p.isDone()) {
+            try {
+                executor.execute(p);
+            } catch (Throwable ex) {
+                p.fail(ex);
+            }
+        }
+    }
+
+    /**
+     * Called on timer exit: moves to TIDYING, collects every task not
+     * yet dispatched, and terminates.  On STOP the collected tasks
+     * are returned by shutdownNow; otherwise (only tasks that raced
+     * with shutdown) they are cancelled.
+     */
+    private void tidy() {
+        boolean stop;
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            stop = runState >= STOP;
+            runState = TIDYING;
+        } finally {
+            mainLock.unlock();
+        }
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        for (int i = 0; i < heads.length; ++i) {
+            for (WheelTask<?> p = detach(i); p != null; p = p.next)
+                tasks.add(p);
+        }
+        WheelTask<?> h = (WheelTask<?>)U.getAndSetObject(this, PENDING, null);
+        for (; h != null; h = h.nextPending)
+            tasks.add(h);
+        if (!stop) {
+            for (Runnable r : tasks)
+                ((Future<?>)r).cancel(false);
+            tasks.clear();
+        }
+        unstarted = tasks;
+        runState = TERMINATED;
+        termination.countDown();
+    }
+
+    /* ---------------- ScheduledExecutorService ---------------- */
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public ScheduledFuture<?> schedule(Runnable command,
+                                       long delay,
+                                       TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        WheelTask<Void> t = new WheelTask<Void>(command, null,
+                                                triggerTime(delay, unit), 0L);
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+                                           long delay,
+                                           TimeUnit unit) {
+        if (callable == null || unit == null)
+            throw new NullPointerException();
+        WheelTask<V> t = new WheelTask<V>(callable,
+                                          triggerTime(delay, unit));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+                                                  long initialDelay,
+                                                  long period,
+                                                  TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (period <= 0)
+            throw new IllegalArgumentException();
+        WheelTask<Void> t =
+            new WheelTask<Void>(command, null,
+                                triggerTime(initialDelay, unit),
+                                unit.toNanos(period));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+                                                     long initialDelay,
+                                                     long delay,
+                                                     TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (delay <= 0)
+            throw new IllegalArgumentException();
+        WheelTask<Void> t =
+            new WheelTask<Void>(command, null,
+                                triggerTime(initialDelay, unit),
+                                unit.toNanos(-delay));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * Executes {@code command} with zero required delay, that is, by
+     * passing it directly to the worker executor.
+     *
+     * @throws RejectedExecutionException if this executor has been
+     *         shut down, or by the worker executor
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void execute(Runnable command) {
+        schedule(command, 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public Future<?> submit(Runnable task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <T> Future<T> submit(Runnable task, T result) {
+        return schedule(Executors.callable(task, result), 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    /* ---------------- Lifecycle ---------------- */
+
+    /**
+     * Initiates an orderly shutdown in which pending one-shot tasks
+     * are still run when due, but periodic tasks are cancelled and no
+     * new tasks will be accepted.  Invocation has no additional effect
+     * if already shut down.
+     *
+     * <p>This method does not wait for pending tasks to be
+     * dispatched.  Use {@link #awaitTermination awaitTermination} to
+     * do that.
+     */
+    public void shutdown() {
+        Thread t;
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            if (runState == RUNNING)
+                runState = SHUTDOWN;
+            if ((t = timer) == null)
+                terminateUnstarted();
+        } finally {
+            mainLock.unlock();
+        }
+        if (t != null)
+            LockSupport.unpark(t);
+    }
+
+    /**
+     * Attempts to stop all pending tasks, and returns a list of the
+     * tasks that were never dispatched.  These tasks are removed from
+     * the wheel upon return, but are not cancelled.
+     *
+     * <p>This method waits for the timer thread to collect the
+     * tasks, which it does within a tick, unless called from the
+     * timer thread itself (by a worker executor that runs tasks in
+     * the calling thread), in which case it returns an empty list.
+     * It does not wait for tasks already dispatched to the worker
+     * executor, and does not interrupt them.
+     *
+     * @return list of tasks that never commenced execution.  Each
+     *         element of this list is a {@link ScheduledFuture}.
+     */
+    public List<Runnable> shutdownNow() {
+        Thread t;
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            if (runState < STOP)
+                runState = STOP;
+            if ((t = timer) == null)
+                terminateUnstarted();
+        } finally {
+            mainLock.unlock();
+        }
+        if (t == null || t == Thread.currentThread())
+            return new ArrayList<Runnable>();
+        LockSupport.unpark(t);
+        boolean interrupted = false;
+        for (;;) {
+            try {
+                termination.await();
+                break;
+            } catch (InterruptedException ie) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        List<Runnable> tasks = unstarted;
+        unstarted = null;
+        return (tasks != null) ? tasks : new ArrayList<Runnable>();
+    }
+
+    /** Terminates directly when no timer thread was ever started. */
+    private void terminateUnstarted() {
+        // assert mainLock.isHeldByCurrentThread();
+        if (runState < TERMINATED) {
+            runState = TERMINATED;
+            termination.countDown();
+        }
+    }
+
+    public boolean isShutdown() {
+        return runState != RUNNING;
+    }
+
+    public boolean isTerminated() {
+        return runState == TERMINATED;
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        return termination.await(timeout, unit);
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long PENDING;
+    private static final long CANCELLED;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = TimingWheelScheduledExecutor.class;
+            PENDING = U.objectFieldOffset
+                (k.getDeclaredField("pending"));
+            CANCELLED = U.objectFieldOffset
+                (k.getDeclaredField("cancelled"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
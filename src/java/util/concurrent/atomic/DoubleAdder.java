@@ -155,15 +155,11 @@ public class DoubleAdder extends Striped64 implements Serializable {
      */
     public double sumThenReset() {
         Cell[] as = cells; Cell a;
-        double sum = Double.longBitsToDouble(base);
-        base = 0L;
+        double sum = Double.longBitsToDouble(getAndSetBase(0L));
         if (as != null) {
             for (int i = 0; i < as.length; ++i) {
-                if ((a = as[i]) != null) {
-                    long v = a.value;
-                    a.value = 0L;
-                    sum += Double.longBitsToDouble(v);
-                }
+                if ((a = as[i]) != null)
+                    sum += Double.longBitsToDouble(a.getAndSet(0L));
             }
         }
         return sum;
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.atomic;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An exponentially weighted moving average of {@code double} samples
+ * that may be added concurrently by many threads, together with the
+ * moving average of the rate at which they are added.
+ *
+ * <p>Time is divided into intervals of a fixed length.  Samples added
+ * during an interval are accumulated in a {@link DoubleAdder} and
+ * counted in a {@link LongAdder}, so that method {@link #add} scales
+ * as those classes do.  At the end of each interval, the mean of its
+ * samples, and the number of samples per unit of time, are each
+ * folded into an average that weights past intervals with a factor
+ * decaying exponentially over the time window given on construction:
+ * each average {@code a} becomes {@code a + alpha * (x - a)}, where
+ * {@code alpha = 1 - exp(-interval / window)}.  An interval without
+ * samples decays the rate towards zero, and leaves the average value
+ * unchanged.
+ *
+ * <p>Intervals are closed lazily, by the first call to {@link #add},
+ * {@link #getAverage} or {@link #getRate} after they end, so no
+ * background thread is needed.  If no call occurs for several
+ * intervals, all samples added meanwhile are attributed to the first
+ * of them.  The averages therefore trail the samples by up to one
+ * interval.
+ *
+ * <p>For example, a one-minute moving average of request latency,
+ * updated every five seconds:
+ *
+ * <pre> {@code
+ * ExponentialMovingAverage latency =
+ *     new ExponentialMovingAverage(5, 60, TimeUnit.SECONDS);
+ * latency.add(elapsedMillis);
+ * ...
+ * double avgMillis = latency.getAverage();
+ * double perSecond = latency.getRate(TimeUnit.SECONDS);}</pre>
+ *
+ * @since 1.8
+ */
+public class ExponentialMovingAverage {
+
+    /*
+     * Intervals are closed by whichever thread first notices, under
+     * spinlock "busy"; other threads that notice meanwhile carry on
+     * without waiting, since their samples are included in a later
+     * interval anyway.  The averages are only written under the lock.
+     *
+     * Samples go to one of two pairs of adders, selected by "current".
+     * An interval is closed by first switching "current" to the other
+     * pair, and then taking the sum and count of the old pair with
+     * sumThenReset, so that adds concurrent with closing go to the
+     * next interval as a whole, and the mean is not skewed however
+     * long the closing thread is descheduled between the two.  Only an
+     * add that read "current" before the switch can still reach the
+     * old pair; its sample is taken with the pair's next interval, and
+     * since add counts before it sums while intervals take the sum
+     * before the count, its value never appears in a sum without its
+     * count.  A sum taken with no count (the values of such samples
+     * counted earlier) is carried forward rather than dropped.
+     */
+
+    /** The sum and number of the samples of an interval */
+    static final class Samples {
+        final DoubleAdder sum = new DoubleAdder();
+        final LongAdder count = new LongAdder();
+    }
+
+    /** The two pairs of adders used by alternate intervals */
+    private final Samples[] samples = { new Samples(), new Samples() };
+
+    /** Index in samples of the pair of the current interval */
+    private volatile int current;
+
+    /** Interval length, in nanoseconds */
+    private final long interval;
+
+    /** Weight of each new interval */
+    private final double alpha;
+
+    /** The nanoTime at which the current interval ends */
+    private volatile long deadline;
+
+    /** Average sample value; NaN until the first sample */
+    private volatile double average = Double.NaN;
+
+    /** Average number of samples per nanosecond */
+    private volatile double rate;
+
+    /** Spinlock (locked via CAS) used when closing intervals. */
+    private volatile int busy;
+
+    /**
+     * Creates a new moving average with the given interval length and
+     * time window.
+     *
+     * @param interval the length of each interval
+     * @param window the time over which the weight of an interval
+     *        decays by a factor of {@code e}
+     * @param unit the time unit of the other arguments
+     * @throws IllegalArgumentException if {@code interval} or {@code
+     *         window} is not positive
+     * @throws NullPointerException if {@code unit} is null
+     */
+    public ExponentialMovingAverage(long interval, long window,
+                                    TimeUnit unit) {
+        if (interval <= 0L || window <= 0L)
+            throw new IllegalArgumentException();
+        long i = unit.toNanos(interval), w = unit.toNanos(window);
+        this.interval = i;
+        this.alpha = -Math.expm1(-(double)i / (double)w);
+        this.deadline = System.nanoTime() + i;
+    }
+
+    /**
+     * Adds the given sample.
+     *
+     * @param x the sample
+     */
+    public void add(double x) {
+        tickIfNecessary();
+        Samples c = samples[current];
+        c.count.increment();
+        c.sum.add(x);
+    }
+
+    /**
+     * Returns the moving average of the sample values, or {@code NaN}
+     * if no interval with samples has yet ended.
+     *
+     * @return the average sample value
+     */
+    public double getAverage() {
+        tickIfNecessary();
+        return average;
+    }
+
+    /**
+     * Returns the moving average of the number of samples added per
+     * given unit of time.
+     *
+     * @param unit the time unit of the result
+     * @return the average rate
+     */
+    public double getRate(TimeUnit unit) {
+        tickIfNecessary();
+        return rate * unit.toNanos(1L);
+    }
+
+    /**
+     * Resets both averages and discards the samples of the current
+     * interval.  This method is only effective if there are no
+     * concurrent updates.
+     */
+    public void reset() {
+        while (!U.compareAndSwapInt(this, BUSY, 0, 1))
+            Thread.yield();
+        try {
+            for (Samples c : samples) {
+                c.sum.reset();
+                c.count.reset();
+            }
+            average = Double.NaN;
+            rate = 0.0;
+            deadline = System.nanoTime() + interval;
+        } finally {
+            busy = 0;
+        }
+    }
+
+    /**
+     * Closes the current interval, and any further ones that have
+     * ended, if the current one has ended and no other thread is
+     * doing so.
+     */
+    private void tickIfNecessary() {
+        long now = System.nanoTime(), d = deadline;
+        if (now - d >= 0L && busy == 0 &&
+            U.compareAndSwapInt(this, BUSY, 0, 1)) {
+            try {
+                if (now - (d = deadline) >= 0L) {
+                    int i = current;
+                    current = i ^ 1;
+                    Samples c = samples[i];
+                    double s = c.sum.sumThenReset();
+                    long n = c.count.sumThenReset();
+                    double a = alpha, r = rate;
+                    if (n > 0L) {
+                        double mean = s / n, v = average;
+                        average = (v != v) ? mean : v + a * (mean - v);
+                    }
+                    else if (s != 0.0)
+                        samples[i ^ 1].sum.add(s);
+                    r += a * ((double)n / interval - r);
+                    long idle = (now - d) / interval; // empty intervals
+                    if (idle > 0L)
+                        r *= Math.pow(1.0 - a, (double)idle);
+                    rate = r;
+                    deadline = d + (idle + 1L) * interval;
+                }
+            } finally {
+                busy = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns a String summarizing both averages, with the rate per
+     * second.
+     *
+     * @return a String summarizing this moving average
+     */
+    public String toString() {
+        return "[average=" + getAverage() +
+            ", rate/s=" + getRate(TimeUnit.SECONDS) + "]";
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long BUSY;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            BUSY = U.objectFieldOffset
+                (ExponentialMovingAverage.class.getDeclaredField("busy"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
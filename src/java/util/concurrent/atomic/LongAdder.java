@@ -157,14 +157,11 @@ public class LongAdder extends Striped64 implements Serializable {
      */
     public long sumThenReset() {
         Cell[] as = cells; Cell a;
-        long sum = base;
-        base = 0L;
+        long sum = getAndSetBase(0L);
         if (as != null) {
             for (int i = 0; i < as.length; ++i) {
-                if ((a = as[i]) != null) {
-                    sum += a.value;
-                    a.value = 0L;
-                }
+                if ((a = as[i]) != null)
+                    sum += a.getAndSet(0L);
             }
         }
         return sum;
@@ -0,0 +1,637 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.atomic;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A histogram of {@code long} values that may be recorded
+ * concurrently by many threads, such as latencies measured in
+ * nanoseconds.  Values are counted in log-linear buckets, in the
+ * manner of HdrHistogram: values below 2<sup>p</sup>, where p is the
+ * precision given on construction, each have their own bucket, and
+ * every larger power-of-two range is divided into 2<sup>p-1</sup>
+ * buckets of equal width.  A recorded value is therefore reported
+ * with a relative error of less than 2<sup>-(p-1)</sup>, whatever its
+ * magnitude.  The default precision of 7 bits gives errors below
+ * 1.6% and 3712 buckets covering all non-negative {@code long}
+ * values.
+ *
+ * <p>Method {@link #record} is lock-free, and scales the way {@link
+ * LongAdder} does: uncontended updates go to a single array of
+ * bucket counts, and when updates contend, further arrays are
+ * created, up to the number of CPUs, with each thread hashed to one
+ * of them.  Queries are made on a {@link Snapshot}, which sums the
+ * arrays.  Like {@link LongAdder#sum}, {@link #snapshot} is not an
+ * atomic snapshot: updates that occur while it is being taken might
+ * or might not be included.  Method {@link #snapshotThenReset}
+ * atomically takes and clears each count, so that, used once per
+ * reporting interval, every recorded value is included in exactly
+ * one interval's snapshot.
+ *
+ * <p>Snapshots of histograms with the same precision and highest
+ * trackable value may be {@linkplain Snapshot#merge merged}, for
+ * example to combine per-interval or per-node histograms.
+ *
+ * <p>Each array of counts occupies {@code 8 * getBucketCount()} bytes,
+ * so a histogram under heavy contention may use that much space per
+ * CPU.  Space can be saved by reducing the precision, or by bounding
+ * the highest trackable value; larger values are then counted in the
+ * highest bucket.
+ *
+ * @since 1.8
+ */
+public class LongHistogram {
+
+    /*
+     * Striping follows Striped64, with whole bucket arrays in place
+     * of Cells: "base" takes uncontended updates, and "stripes"
+     * (power-of-two sized, at most NCPU) is created and doubled under
+     * spinlock "stripesBusy" when a CAS on the array a thread hashes
+     * to fails.  Threads are hashed by Striped64.getProbe, and
+     * rehashed with Striped64.advanceProbe on collision.  Unlike
+     * Cells, stripe arrays are not padded; contention between stripes
+     * is limited to buckets at the array ends.
+     *
+     * For precision p, with S = 2^p and H = 2^(p-1), value v < S has
+     * index v.  A larger v with highest one bit e (so p <= e <= 62)
+     * has index S + (e - p) * H + (m - H), where m = v >>> (e - p + 1)
+     * is its top p bits, in [H, S).  Indices thus increase with v, and
+     * each bucket above S - 1 spans 2^(e - p + 1) values.
+     */
+
+    /** Default precision, in bits */
+    private static final int DEFAULT_PRECISION = 7;
+
+    /** Maximum precision, in bits */
+    private static final int MAXIMUM_PRECISION = 16;
+
+    /** The precision in bits */
+    private final int precision;
+
+    /** The highest value counted in its own bucket */
+    private final long highestTrackableValue;
+
+    /** The number of buckets */
+    private final int buckets;
+
+    /** Counts for uncontended updates */
+    private final long[] base;
+
+    /** Table of stripes.  When non-null, size is a power of 2. */
+    private volatile long[][] stripes;
+
+    /** Spinlock (locked via CAS) used when resizing and/or creating stripes. */
+    private volatile int stripesBusy;
+
+    /**
+     * Creates a new histogram with a precision of 7 bits and buckets
+     * for all non-negative values.
+     */
+    public LongHistogram() {
+        this(Long.MAX_VALUE, DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates a new histogram with the given highest trackable value
+     * and precision.
+     *
+     * @param highestTrackableValue the highest value counted in its
+     *        own bucket; larger values are counted as this value
+     * @param precision the number of significant bits kept for each
+     *        value, from 1 to 16
+     * @throws IllegalArgumentException if {@code highestTrackableValue}
+     *         is less than 1, or {@code precision} is out of range
+     */
+    public LongHistogram(long highestTrackableValue, int precision) {
+        if (highestTrackableValue < 1L || precision < 1 ||
+            precision > MAXIMUM_PRECISION)
+            throw new IllegalArgumentException();
+        this.precision = precision;
+        this.highestTrackableValue = highestTrackableValue;
+        this.buckets = indexOf(highestTrackableValue, precision) + 1;
+        this.base = new long[buckets];
+    }
+
+    /**
+     * Returns the bucket index of non-negative value v.
+     */
+    static int indexOf(long v, int p) {
+        if (v < (1L << p))
+            return (int)v;
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        return (1 << p) + ((e - p) << (p - 1)) +
+            (int)((v >>> (e - p + 1)) - (1L << (p - 1)));
+    }
+
+    /**
+     * Returns the lowest value in bucket i.
+     */
+    static long lowestEquivalentValue(int i, int p) {
+        int s = 1 << p;
+        if (i < s)
+            return i;
+        int j = i - s, e = p + (j >>> (p - 1));
+        long m = (1L << (p - 1)) + (j & ((1 << (p - 1)) - 1));
+        return m << (e - p + 1);
+    }
+
+    /**
+     * Returns the highest value in bucket i.
+     */
+    static long highestEquivalentValue(int i, int p) {
+        int s = 1 << p;
+        if (i < s)
+            return i;
+        int e = p + ((i - s) >>> (p - 1));
+        return lowestEquivalentValue(i, p) + ((1L << (e - p + 1)) - 1L);
+    }
+
+    /**
+     * Returns the precision, in bits.
+     *
+     * @return the precision
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns the highest value counted in its own bucket.
+     *
+     * @return the highest trackable value
+     */
+    public long getHighestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    /**
+     * Returns the number of buckets.
+     *
+     * @return the number of buckets
+     */
+    public int getBucketCount() {
+        return buckets;
+    }
+
+    /**
+     * Records the given value.
+     *
+     * @param value the value
+     * @throws IllegalArgumentException if {@code value} is negative
+     */
+    public void record(long value) {
+        record(value, 1L);
+    }
+
+    /**
+     * Records the given value {@code count} times.
+     *
+     * @param value the value
+     * @param count the number of times to record it
+     * @throws IllegalArgumentException if {@code value} or {@code
+     *         count} is negative
+     */
+    public void record(long value, long count) {
+        if (value < 0L || count < 0L)
+            throw new IllegalArgumentException();
+        int i = (value >= highestTrackableValue) ? buckets - 1 :
+            indexOf(value, precision);
+        long[][] as; long[] a; int m;
+        if ((as = stripes) != null || !casAdd(base, i, count)) {
+            boolean uncontended = true;
+            if (as == null || (m = as.length - 1) < 0 ||
+                (a = as[Striped64.getProbe() & m]) == null ||
+                !(uncontended = casAdd(a, i, count)))
+                recordSlow(i, count, uncontended);
+        }
+    }
+
+    /**
+     * Tries once to add x to bucket i of a.
+     */
+    private static boolean casAdd(long[] a, int i, long x) {
+        long offset = ((long)i << ASHIFT) + ABASE, v;
+        return U.compareAndSwapLong(a, offset,
+                                    v = U.getLongVolatile(a, offset), v + x);
+    }
+
+    /**
+     * Handles updates involving initialization, resizing, creating
+     * new stripes, and/or contention; as in Striped64.longAccumulate.
+     *
+     * @param i the bucket index
+     * @param x the count to add
+     * @param wasUncontended false if CAS failed before call
+     */
+    private void recordSlow(int i, long x, boolean wasUncontended) {
+        int h;
+        if ((h = Striped64.getProbe()) == 0) {
+            ThreadLocalRandom.current(); // force initialization
+            h = Striped64.getProbe();
+            wasUncontended = true;
+        }
+        boolean collide = false;                // True if last slot nonempty
+        for (;;) {
+            long[][] as; long[] a; int n;
+            if ((as = stripes) != null && (n = as.length) > 0) {
+                if ((a = as[(n - 1) & h]) == null) {
+                    if (stripesBusy == 0) {       // Try to attach new stripe
+                        long[] r = new long[buckets];   // Optimistically create
+                        r[i] = x;
+                        if (stripesBusy == 0 && casStripesBusy()) {
+                            boolean created = false;
+                            try {               // Recheck under lock
+                                long[][] rs; int m, j;
+                                if ((rs = stripes) != null &&
+                                    (m = rs.length) > 0 &&
+                                    rs[j = (m - 1) & h] == null) {
+                                    rs[j] = r;
+                                    created = true;
+                                }
+                            } finally {
+                                stripesBusy = 0;
+                            }
+                            if (created)
+                                break;
+                            continue;           // Slot is now non-empty
+                        }
+                    }
+                    collide = false;
+                }
+                else if (!wasUncontended)       // CAS already known to fail
+                    wasUncontended = true;      // Continue after rehash
+                else if (casAdd(a, i, x))
+                    break;
+                else if (n >= Striped64.NCPU || stripes != as)
+                    collide = false;            // At max size or stale
+                else if (!collide)
+                    collide = true;
+                else if (stripesBusy == 0 && casStripesBusy()) {
+                    try {
+                        if (stripes == as)      // Expand table unless stale
+                            stripes = Arrays.copyOf(as, n << 1);
+                    } finally {
+                        stripesBusy = 0;
+                    }
+                    collide = false;
+                    continue;                   // Retry with expanded table
+                }
+                h = Striped64.advanceProbe(h);
+            }
+            else if (stripesBusy == 0 && stripes == as && casStripesBusy()) {
+                boolean init = false;
+                try {                           // Initialize table
+                    if (stripes == as) {
+                        long[][] rs = new long[2][];
+                        long[] r = new long[buckets];
+                        r[i] = x;
+                        rs[h & 1] = r;
+                        stripes = rs;
+                        init = true;
+                    }
+                } finally {
+                    stripesBusy = 0;
+                }
+                if (init)
+                    break;
+            }
+            else if (casAdd(base, i, x))
+                break;                          // Fall back on using base
+        }
+    }
+
+    private boolean casStripesBusy() {
+        return U.compareAndSwapInt(this, STRIPESBUSY, 0, 1);
+    }
+
+    /**
+     * Returns a snapshot of the current counts.  The returned value is
+     * <em>NOT</em> an atomic snapshot; invocation in the absence of
+     * concurrent updates returns an accurate result, but concurrent
+     * updates that occur while the snapshot is being taken might not
+     * be incorporated.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        return collect(false);
+    }
+
+    /**
+     * Equivalent in effect to {@link #snapshot} followed by {@link
+     * #reset}, except that each count is taken and cleared
+     * atomically, so that no concurrently recorded value is lost:
+     * each is included either in the returned snapshot or in a later
+     * one.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshotThenReset() {
+        return collect(true);
+    }
+
+    private Snapshot collect(boolean reset) {
+        long[] counts = new long[buckets];
+        addTo(counts, base, reset);
+        long[][] as = stripes; long[] a;
+        if (as != null) {
+            for (int j = 0; j < as.length; ++j) {
+                if ((a = as[j]) != null)
+                    addTo(counts, a, reset);
+            }
+        }
+        return new Snapshot(precision, highestTrackableValue, counts);
+    }
+
+    private static void addTo(long[] counts, long[] a, boolean reset) {
+        for (int i = 0; i < counts.length; ++i) {
+            long offset = ((long)i << ASHIFT) + ABASE;
+            counts[i] += reset ? U.getAndSetLong(a, offset, 0L) :
+                U.getLongVolatile(a, offset);
+        }
+    }
+
+    /**
+     * Resets all counts to zero.  This method may be a useful
+     * alternative to creating a new histogram, but is only effective
+     * if there are no concurrent updates.  Because this method is
+     * intrinsically racy, it should only be used when it is known
+     * that no threads are concurrently updating.
+     */
+    public void reset() {
+        clear(base);
+        long[][] as = stripes; long[] a;
+        if (as != null) {
+            for (int j = 0; j < as.length; ++j) {
+                if ((a = as[j]) != null)
+                    clear(a);
+            }
+        }
+    }
+
+    private static void clear(long[] a) {
+        for (int i = 0; i < a.length; ++i)
+            U.putLongVolatile(a, ((long)i << ASHIFT) + ABASE, 0L);
+    }
+
+    /**
+     * Returns a String summarizing a snapshot of this histogram.
+     *
+     * @return a String summarizing this histogram
+     */
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * An immutable set of bucket counts taken from a {@link
+     * LongHistogram}, supporting statistical queries.  Values reported
+     * by these queries are the lowest or highest values equivalent to
+     * a bucket, as stated by each method, and so carry the precision
+     * of the histogram.
+     *
+     * @since 1.8
+     */
+    public static final class Snapshot implements Serializable {
+        private static final long serialVersionUID = -3356125497447376553L;
+
+        /** @serial the precision in bits */
+        private final int precision;
+        /** @serial the highest trackable value */
+        private final long highestTrackableValue;
+        /** @serial the bucket counts */
+        private final long[] counts;
+        /** @serial the sum of the counts */
+        private final long totalCount;
+
+        Snapshot(int precision, long highestTrackableValue, long[] counts) {
+            long t = 0L;
+            for (long c : counts)
+                t += c;
+            this.precision = precision;
+            this.highestTrackableValue = highestTrackableValue;
+            this.counts = counts;
+            this.totalCount = t;
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return the number of recorded values
+         */
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        /**
+         * Returns the number of buckets.
+         *
+         * @return the number of buckets
+         */
+        public int getBucketCount() {
+            return counts.length;
+        }
+
+        /**
+         * Returns the number of values recorded in the given bucket.
+         *
+         * @param bucket the bucket index
+         * @return the count
+         * @throws IndexOutOfBoundsException if {@code bucket} is out of
+         *         range
+         */
+        public long getCount(int bucket) {
+            return counts[bucket];
+        }
+
+        /**
+         * Returns the lowest value counted in the given bucket.
+         *
+         * @param bucket the bucket index
+         * @return the lowest value of the bucket
+         * @throws IndexOutOfBoundsException if {@code bucket} is out of
+         *         range
+         */
+        public long getLowestValue(int bucket) {
+            if (bucket < 0 || bucket >= counts.length)
+                throw new IndexOutOfBoundsException();
+            return lowestEquivalentValue(bucket, precision);
+        }
+
+        /**
+         * Returns the highest value counted in the given bucket.
+         *
+         * @param bucket the bucket index
+         * @return the highest value of the bucket
+         * @throws IndexOutOfBoundsException if {@code bucket} is out of
+         *         range
+         */
+        public long getHighestValue(int bucket) {
+            if (bucket < 0 || bucket >= counts.length)
+                throw new IndexOutOfBoundsException();
+            return (bucket == counts.length - 1) ? Long.MAX_VALUE :
+                highestEquivalentValue(bucket, precision);
+        }
+
+        /**
+         * Returns the lowest value equivalent to the smallest recorded
+         * value, or zero if none were recorded.
+         *
+         * @return the minimum
+         */
+        public long getMin() {
+            for (int i = 0; i < counts.length; ++i) {
+                if (counts[i] != 0L)
+                    return lowestEquivalentValue(i, precision);
+            }
+            return 0L;
+        }
+
+        /**
+         * Returns the highest value equivalent to the largest recorded
+         * value, or zero if none were recorded.  Values above the
+         * highest trackable value are reported as that value.
+         *
+         * @return the maximum
+         */
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; --i) {
+                if (counts[i] != 0L)
+                    return highestOf(i);
+            }
+            return 0L;
+        }
+
+        /**
+         * Returns the mean of the recorded values, taking each as the
+         * midpoint of its bucket, or {@code NaN} if none were recorded.
+         *
+         * @return the mean
+         */
+        public double getMean() {
+            if (totalCount == 0L)
+                return Double.NaN;
+            double sum = 0.0;
+            for (int i = 0; i < counts.length; ++i) {
+                long c = counts[i];
+                if (c != 0L) {
+                    double lo = lowestEquivalentValue(i, precision);
+                    sum += c * (lo + (highestOf(i) - lo) * 0.5);
+                }
+            }
+            return sum / totalCount;
+        }
+
+        /**
+         * Returns the highest value equivalent to the value at the
+         * given percentile: the smallest recorded value such that the
+         * given percentage of all recorded values are less than or
+         * equal to it.  Returns zero if no values were recorded.
+         *
+         * @param percentile the percentile, from 0.0 to 100.0
+         * @return the value at the percentile
+         * @throws IllegalArgumentException if {@code percentile} is out
+         *         of range
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (!(percentile >= 0.0 && percentile <= 100.0))
+                throw new IllegalArgumentException();
+            long target = (long)Math.ceil(percentile / 100.0 * totalCount);
+            if (target < 1L)
+                target = 1L;
+            long seen = 0L;
+            for (int i = 0; i < counts.length; ++i) {
+                if ((seen += counts[i]) >= target)
+                    return highestOf(i);
+            }
+            return 0L;
+        }
+
+        /**
+         * Returns a new snapshot whose counts are the sums of those of
+         * this snapshot and the given one.
+         *
+         * @param other the other snapshot
+         * @return the merged snapshot
+         * @throws IllegalArgumentException if the snapshots were taken
+         *         from histograms with different precisions or highest
+         *         trackable values
+         * @throws NullPointerException if {@code other} is null
+         */
+        public Snapshot merge(Snapshot other) {
+            if (other.precision != precision ||
+                other.highestTrackableValue != highestTrackableValue)
+                throw new IllegalArgumentException();
+            long[] a = counts, b = other.counts, c = new long[a.length];
+            for (int i = 0; i < c.length; ++i)
+                c[i] = a[i] + b[i];
+            return new Snapshot(precision, highestTrackableValue, c);
+        }
+
+        /** Highest value of bucket i, capped at highestTrackableValue. */
+        private long highestOf(int i) {
+            long v = highestEquivalentValue(i, precision);
+            return (v < highestTrackableValue) ? v : highestTrackableValue;
+        }
+
+        /**
+         * Returns a String summarizing this snapshot.
+         *
+         * @return a String summarizing this snapshot
+         */
+        public String toString() {
+            return "[count=" + totalCount +
+                ", min=" + getMin() +
+                ", mean=" + getMean() +
+                ", p50=" + getValueAtPercentile(50.0) +
+                ", p99=" + getValueAtPercentile(99.0) +
+                ", max=" + getMax() + "]";
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long STRIPESBUSY;
+    private static final int ABASE;
+    private static final int ASHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = LongHistogram.class;
+            STRIPESBUSY = U.objectFieldOffset
+                (k.getDeclaredField("stripesBusy"));
+            ABASE = U.arrayBaseOffset(long[].class);
+            int scale = U.arrayIndexScale(long[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -123,6 +123,9 @@ abstract class Striped64 extends Number {
         final boolean cas(long cmp, long val) {
             return UNSAFE.compareAndSwapLong(this, valueOffset, cmp, val);
         }
+        final long getAndSet(long val) {
+            return UNSAFE.getAndSetLong(this, valueOffset, val);
+        }
 
         // Unsafe mechanics
         private static final sun.misc.Unsafe UNSAFE;
@@ -171,6 +174,13 @@ abstract class Striped64 extends Number {
         return UNSAFE.compareAndSwapLong(this, BASE, cmp, val);
     }
 
+    /**
+     * Atomically sets the base field, returning its previous value.
+     */
+    final long getAndSetBase(long val) {
+        return UNSAFE.getAndSetLong(this, BASE, val);
+    }
+
     /**
      * CASes the cellsBusy field from 0 to 1 to acquire lock.
      */
@@ -310,6 +310,19 @@ public abstract class AbstractQueuedLongSynchronizer
      */
     private volatile long state;
 
+    /**
+     * The adaptive bound on spins by a thread at the head of the
+     * queue before it parks.  Updated with plain writes, since a lost
+     * update only perturbs a heuristic.
+     */
+    private transient int spinLimit;
+
+    /**
+     * Contention counters, or null if statistics are disabled.  Its
+     * fields are final, so racy publication is safe.
+     */
+    private transient AbstractQueuedSynchronizer.Contention contention;
+
     /**
      * Returns the current value of synchronization state.
      * This operation has memory semantics of a {@code volatile} read.
@@ -353,6 +366,64 @@ public abstract class AbstractQueuedLongSynchronizer
      */
     static final long spinForTimeoutThreshold = 1000L;
 
+    /*
+     * Adaptive spinning.  A thread that reaches the front of the
+     * queue (its predecessor is head) retries tryAcquire up to
+     * spinLimit times before parking, since with short hold times
+     * the owner is likely to release within that window and a
+     * park/unpark pair costs far more.  As with adaptive monitor
+     * spinning in the VM, the limit is tuned from outcomes rather
+     * than by timing holds: it doubles (up to MAX_SPINS) when an
+     * acquire succeeds while spinning, so recently short hold times
+     * earn longer spins, and halves when a thread spins out and
+     * parks.  MIN_SPINS acts as a floor so that a lock whose hold
+     * times shorten can re-earn spinning.  Uniprocessors never spin.
+     * The per-acquire state is a local int: UNSPUN before first
+     * reaching the front, then the remaining spins, then PARKED.
+     */
+
+    /** Whether spinning can make progress */
+    private static final boolean MP =
+        Runtime.getRuntime().availableProcessors() > 1;
+
+    /** The floor of the adaptive spin limit */
+    static final int MIN_SPINS = 1 << 4;
+
+    /** The ceiling of the adaptive spin limit */
+    static final int MAX_SPINS = 1 << 10;
+
+    /** Spin state: not yet at the front of the queue */
+    static final int UNSPUN = -1;
+
+    /** Spin state: spun out at the front of the queue */
+    static final int PARKED = -2;
+
+    /**
+     * Returns the spin state following a failed tryAcquire at the
+     * front of the queue.  A positive result means spin again.
+     */
+    private int nextSpin(int spins) {
+        int s = (spins == UNSPUN) ? (MP ? Math.max(spinLimit, MIN_SPINS) : 0)
+            : spins - 1;
+        return (s > 0) ? s : PARKED;
+    }
+
+    /**
+     * Adjusts the spin limit after a queued acquire succeeds with the
+     * given final spin state.
+     */
+    private void adaptSpins(int spins) {
+        if (MP && spins != UNSPUN) {
+            int s = spinLimit, n;
+            if (spins == PARKED)
+                n = s >>> 1;
+            else
+                n = Math.min(MAX_SPINS, Math.max(s, MIN_SPINS) << 1);
+            if (n != s)
+                spinLimit = n;
+        }
+    }
+
     /**
      * Inserts node into queue, initializing if necessary. See picture above.
      * @param node the node to insert
@@ -633,16 +704,24 @@ public abstract class AbstractQueuedLongSynchronizer
      * @return {@code true} if interrupted while waiting
      */
     final boolean acquireQueued(final Node node, long arg) {
+        final AbstractQueuedSynchronizer.Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
             boolean interrupted = false;
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
-                if (p == head && tryAcquire(arg)) {
-                    setHead(node);
-                    p.next = null; // help GC
-                    failed = false;
-                    return interrupted;
+                if (p == head) {
+                    if (tryAcquire(arg)) {
+                        setHead(node);
+                        p.next = null; // help GC
+                        adaptSpins(spins);
+                        failed = false;
+                        return interrupted;
+                    }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     parkAndCheckInterrupt())
@@ -651,6 +730,8 @@ public abstract class AbstractQueuedLongSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -661,15 +742,23 @@ public abstract class AbstractQueuedLongSynchronizer
     private void doAcquireInterruptibly(long arg)
         throws InterruptedException {
         final Node node = addWaiter(Node.EXCLUSIVE);
+        final AbstractQueuedSynchronizer.Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
-                if (p == head && tryAcquire(arg)) {
-                    setHead(node);
-                    p.next = null; // help GC
-                    failed = false;
-                    return;
+                if (p == head) {
+                    if (tryAcquire(arg)) {
+                        setHead(node);
+                        p.next = null; // help GC
+                        adaptSpins(spins);
+                        failed = false;
+                        return;
+                    }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     parkAndCheckInterrupt())
@@ -678,6 +767,8 @@ public abstract class AbstractQueuedLongSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -694,15 +785,23 @@ public abstract class AbstractQueuedLongSynchronizer
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
         final Node node = addWaiter(Node.EXCLUSIVE);
+        final AbstractQueuedSynchronizer.Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
-                if (p == head && tryAcquire(arg)) {
-                    setHead(node);
-                    p.next = null; // help GC
-                    failed = false;
-                    return true;
+                if (p == head) {
+                    if (tryAcquire(arg)) {
+                        setHead(node);
+                        p.next = null; // help GC
+                        adaptSpins(spins);
+                        failed = false;
+                        return true;
+                    }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 nanosTimeout = deadline - System.nanoTime();
                 if (nanosTimeout <= 0L)
@@ -716,6 +815,8 @@ public abstract class AbstractQueuedLongSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -725,9 +826,12 @@ public abstract class AbstractQueuedLongSynchronizer
      */
     private void doAcquireShared(long arg) {
         final Node node = addWaiter(Node.SHARED);
+        final AbstractQueuedSynchronizer.Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
             boolean interrupted = false;
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
                 if (p == head) {
@@ -737,9 +841,12 @@ public abstract class AbstractQueuedLongSynchronizer
                         p.next = null; // help GC
                         if (interrupted)
                             selfInterrupt();
+                        adaptSpins(spins);
                         failed = false;
                         return;
                     }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     parkAndCheckInterrupt())
@@ -748,6 +855,8 @@ public abstract class AbstractQueuedLongSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -758,8 +867,11 @@ public abstract class AbstractQueuedLongSynchronizer
     private void doAcquireSharedInterruptibly(long arg)
         throws InterruptedException {
         final Node node = addWaiter(Node.SHARED);
+        final AbstractQueuedSynchronizer.Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
                 if (p == head) {
@@ -767,9 +879,12 @@ public abstract class AbstractQueuedLongSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        adaptSpins(spins);
                         failed = false;
                         return;
                     }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     parkAndCheckInterrupt())
@@ -778,6 +893,8 @@ public abstract class AbstractQueuedLongSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -794,8 +911,11 @@ public abstract class AbstractQueuedLongSynchronizer
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
         final Node node = addWaiter(Node.SHARED);
+        final AbstractQueuedSynchronizer.Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
                 if (p == head) {
@@ -803,9 +923,12 @@ public abstract class AbstractQueuedLongSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        adaptSpins(spins);
                         failed = false;
                         return true;
                     }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 nanosTimeout = deadline - System.nanoTime();
                 if (nanosTimeout <= 0L)
@@ -819,6 +942,8 @@ public abstract class AbstractQueuedLongSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -973,8 +1098,9 @@ public abstract class AbstractQueuedLongSynchronizer
      *        can represent anything you like.
      */
     public final void acquire(long arg) {
-        if (!tryAcquire(arg) &&
-            acquireQueued(addWaiter(Node.EXCLUSIVE), arg))
+        if (tryAcquire(arg))
+            recordAcquire();
+        else if (acquireQueued(addWaiter(Node.EXCLUSIVE), arg))
             selfInterrupt();
     }
 
@@ -996,7 +1122,9 @@ public abstract class AbstractQueuedLongSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
-        if (!tryAcquire(arg))
+        if (tryAcquire(arg))
+            recordAcquire();
+        else
             doAcquireInterruptibly(arg);
     }
 
@@ -1021,8 +1149,11 @@ public abstract class AbstractQueuedLongSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
-        return tryAcquire(arg) ||
-            doAcquireNanos(arg, nanosTimeout);
+        if (tryAcquire(arg)) {
+            recordAcquire();
+            return true;
+        }
+        return doAcquireNanos(arg, nanosTimeout);
     }
 
     /**
@@ -1057,7 +1188,9 @@ public abstract class AbstractQueuedLongSynchronizer
      *        and can represent anything you like.
      */
     public final void acquireShared(long arg) {
-        if (tryAcquireShared(arg) < 0)
+        if (tryAcquireShared(arg) >= 0)
+            recordAcquire();
+        else
             doAcquireShared(arg);
     }
 
@@ -1078,7 +1211,9 @@ public abstract class AbstractQueuedLongSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
-        if (tryAcquireShared(arg) < 0)
+        if (tryAcquireShared(arg) >= 0)
+            recordAcquire();
+        else
             doAcquireSharedInterruptibly(arg);
     }
 
@@ -1102,8 +1237,11 @@ public abstract class AbstractQueuedLongSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
-        return tryAcquireShared(arg) >= 0 ||
-            doAcquireSharedNanos(arg, nanosTimeout);
+        if (tryAcquireShared(arg) >= 0) {
+            recordAcquire();
+            return true;
+        }
+        return doAcquireSharedNanos(arg, nanosTimeout);
     }
 
     /**
@@ -1398,6 +1536,46 @@ public abstract class AbstractQueuedLongSynchronizer
     }
 
 
+    /**
+     * Enables or disables the recording of contention statistics for
+     * this synchronizer, as reported by {@link
+     * #getContentionStatistics}.  Enabling discards any previously
+     * recorded counts.  While disabled, as by default, the only cost
+     * is a read of one field per acquire.
+     *
+     * @param enabled {@code true} to record statistics
+     * @since 1.8
+     */
+    public final void setContentionStatisticsEnabled(boolean enabled) {
+        contention = enabled ? new AbstractQueuedSynchronizer.Contention() : null;
+    }
+
+    /**
+     * Returns a snapshot of the contention statistics recorded since
+     * they were last enabled, or {@code null} if they are disabled.
+     * The counters are read without blocking or synchronization, so
+     * this method is suitable for periodic sampling by monitoring
+     * agents, but a snapshot taken while threads are acquiring may
+     * be inconsistent.
+     *
+     * @return the statistics, or {@code null} if not enabled
+     * @since 1.8
+     */
+    public final AbstractQueuedSynchronizer.ContentionStatistics getContentionStatistics() {
+        AbstractQueuedSynchronizer.Contention c = contention;
+        return (c == null) ? null : c.snapshot();
+    }
+
+    /**
+     * Records an acquire that succeeded without queuing.
+     */
+    final void recordAcquire() {
+        AbstractQueuedSynchronizer.Contention c = contention;
+        if (c != null)
+            c.acquires.increment();
+    }
+
+
     // Internal support methods for Conditions
 
     /**
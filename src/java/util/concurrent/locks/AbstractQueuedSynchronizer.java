@@ -38,6 +38,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import sun.misc.Unsafe;
 
 /**
@@ -532,6 +534,19 @@ public abstract class AbstractQueuedSynchronizer
      */
     private volatile int state;
 
+    /**
+     * The adaptive bound on spins by a thread at the head of the
+     * queue before it parks.  Updated with plain writes, since a lost
+     * update only perturbs a heuristic.
+     */
+    private transient int spinLimit;
+
+    /**
+     * Contention counters, or null if statistics are disabled.  Its
+     * fields are final, so racy publication is safe.
+     */
+    private transient Contention contention;
+
     /**
      * Returns the current value of synchronization state.
      * This operation has memory semantics of a {@code volatile} read.
@@ -575,6 +590,64 @@ public abstract class AbstractQueuedSynchronizer
      */
     static final long spinForTimeoutThreshold = 1000L;
 
+    /*
+     * Adaptive spinning.  A thread that reaches the front of the
+     * queue (its predecessor is head) retries tryAcquire up to
+     * spinLimit times before parking, since with short hold times
+     * the owner is likely to release within that window and a
+     * park/unpark pair costs far more.  As with adaptive monitor
+     * spinning in the VM, the limit is tuned from outcomes rather
+     * than by timing holds: it doubles (up to MAX_SPINS) when an
+     * acquire succeeds while spinning, so recently short hold times
+     * earn longer spins, and halves when a thread spins out and
+     * parks.  MIN_SPINS acts as a floor so that a lock whose hold
+     * times shorten can re-earn spinning.  Uniprocessors never spin.
+     * The per-acquire state is a local int: UNSPUN before first
+     * reaching the front, then the remaining spins, then PARKED.
+     */
+
+    /** Whether spinning can make progress */
+    private static final boolean MP =
+        Runtime.getRuntime().availableProcessors() > 1;
+
+    /** The floor of the adaptive spin limit */
+    static final int MIN_SPINS = 1 << 4;
+
+    /** The ceiling of the adaptive spin limit */
+    static final int MAX_SPINS = 1 << 10;
+
+    /** Spin state: not yet at the front of the queue */
+    static final int UNSPUN = -1;
+
+    /** Spin state: spun out at the front of the queue */
+    static final int PARKED = -2;
+
+    /**
+     * Returns the spin state following a failed tryAcquire at the
+     * front of the queue.  A positive result means spin again.
+     */
+    private int nextSpin(int spins) {
+        int s = (spins == UNSPUN) ? (MP ? Math.max(spinLimit, MIN_SPINS) : 0)
+            : spins - 1;
+        return (s > 0) ? s : PARKED;
+    }
+
+    /**
+     * Adjusts the spin limit after a queued acquire succeeds with the
+     * given final spin state.
+     */
+    private void adaptSpins(int spins) {
+        if (MP && spins != UNSPUN) {
+            int s = spinLimit, n;
+            if (spins == PARKED)
+                n = s >>> 1;
+            else
+                n = Math.min(MAX_SPINS, Math.max(s, MIN_SPINS) << 1);
+            if (n != s)
+                spinLimit = n;
+        }
+    }
+
     /**
      * Inserts node into queue, initializing if necessary. See picture above.
      * @param node the node to insert
@@ -855,16 +928,24 @@ public abstract class AbstractQueuedSynchronizer
      * @return {@code true} if interrupted while waiting
      */
     final boolean acquireQueued(final Node node, int arg) {
+        final Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
             boolean interrupted = false;
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
-                if (p == head && tryAcquire(arg)) {
-                    setHead(node);
-                    p.next = null; // help GC
-                    failed = false;
-                    return interrupted;
+                if (p == head) {
+                    if (tryAcquire(arg)) {
+                        setHead(node);
+                        p.next = null; // help GC
+                        adaptSpins(spins);
+                        failed = false;
+                        return interrupted;
+                    }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     parkAndCheckInterrupt())
@@ -873,6 +954,8 @@ public abstract class AbstractQueuedSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -883,15 +966,23 @@ public abstract class AbstractQueuedSynchronizer
     private void doAcquireInterruptibly(int arg)
         throws InterruptedException {
         final Node node = addWaiter(Node.EXCLUSIVE);
+        final Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
-                if (p == head && tryAcquire(arg)) {
-                    setHead(node);
-                    p.next = null; // help GC
-                    failed = false;
-                    return;
+                if (p == head) {
+                    if (tryAcquire(arg)) {
+                        setHead(node);
+                        p.next = null; // help GC
+                        adaptSpins(spins);
+                        failed = false;
+                        return;
+                    }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     parkAndCheckInterrupt())
@@ -900,6 +991,8 @@ public abstract class AbstractQueuedSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -916,15 +1009,23 @@ public abstract class AbstractQueuedSynchronizer
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
         final Node node = addWaiter(Node.EXCLUSIVE);
+        final Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
-                if (p == head && tryAcquire(arg)) {
-                    setHead(node);
-                    p.next = null; // help GC
-                    failed = false;
-                    return true;
+                if (p == head) {
+                    if (tryAcquire(arg)) {
+                        setHead(node);
+                        p.next = null; // help GC
+                        adaptSpins(spins);
+                        failed = false;
+                        return true;
+                    }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 nanosTimeout = deadline - System.nanoTime();
                 if (nanosTimeout <= 0L)
@@ -938,6 +1039,8 @@ public abstract class AbstractQueuedSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -947,9 +1050,12 @@ public abstract class AbstractQueuedSynchronizer
      */
     private void doAcquireShared(int arg) {
         final Node node = addWaiter(Node.SHARED);
+        final Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
             boolean interrupted = false;
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
                 if (p == head) {
@@ -959,9 +1065,12 @@ public abstract class AbstractQueuedSynchronizer
                         p.next = null; // help GC
                         if (interrupted)
                             selfInterrupt();
+                        adaptSpins(spins);
                         failed = false;
                         return;
                     }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     parkAndCheckInterrupt())
@@ -970,6 +1079,8 @@ public abstract class AbstractQueuedSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -980,8 +1091,11 @@ public abstract class AbstractQueuedSynchronizer
     private void doAcquireSharedInterruptibly(int arg)
         throws InterruptedException {
         final Node node = addWaiter(Node.SHARED);
+        final Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
                 if (p == head) {
@@ -989,9 +1103,12 @@ public abstract class AbstractQueuedSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        adaptSpins(spins);
                         failed = false;
                         return;
                     }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     parkAndCheckInterrupt())
@@ -1000,6 +1117,8 @@ public abstract class AbstractQueuedSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -1016,8 +1135,11 @@ public abstract class AbstractQueuedSynchronizer
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
         final Node node = addWaiter(Node.SHARED);
+        final Contention stats = contention;
+        final long start = (stats == null) ? 0L : stats.enqueue();
         boolean failed = true;
         try {
+            int spins = UNSPUN;
             for (;;) {
                 final Node p = node.predecessor();
                 if (p == head) {
@@ -1025,9 +1147,12 @@ public abstract class AbstractQueuedSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        adaptSpins(spins);
                         failed = false;
                         return true;
                     }
+                    if ((spins = nextSpin(spins)) > 0)
+                        continue;
                 }
                 nanosTimeout = deadline - System.nanoTime();
                 if (nanosTimeout <= 0L)
@@ -1041,6 +1166,8 @@ public abstract class AbstractQueuedSynchronizer
         } finally {
             if (failed)
                 cancelAcquire(node);
+            if (stats != null)
+                stats.dequeue(start, !failed);
         }
     }
 
@@ -1195,8 +1322,9 @@ public abstract class AbstractQueuedSynchronizer
      *        can represent anything you like.
      */
     public final void acquire(int arg) {
-        if (!tryAcquire(arg) &&
-            acquireQueued(addWaiter(Node.EXCLUSIVE), arg))
+        if (tryAcquire(arg))
+            recordAcquire();
+        else if (acquireQueued(addWaiter(Node.EXCLUSIVE), arg))
             selfInterrupt();
     }
 
@@ -1218,7 +1346,9 @@ public abstract class AbstractQueuedSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
-        if (!tryAcquire(arg))
+        if (tryAcquire(arg))
+            recordAcquire();
+        else
             doAcquireInterruptibly(arg);
     }
 
@@ -1243,8 +1373,11 @@ public abstract class AbstractQueuedSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
-        return tryAcquire(arg) ||
-            doAcquireNanos(arg, nanosTimeout);
+        if (tryAcquire(arg)) {
+            recordAcquire();
+            return true;
+        }
+        return doAcquireNanos(arg, nanosTimeout);
     }
 
     /**
@@ -1279,7 +1412,9 @@ public abstract class AbstractQueuedSynchronizer
      *        and can represent anything you like.
      */
     public final void acquireShared(int arg) {
-        if (tryAcquireShared(arg) < 0)
+        if (tryAcquireShared(arg) >= 0)
+            recordAcquire();
+        else
             doAcquireShared(arg);
     }
 
@@ -1300,7 +1435,9 @@ public abstract class AbstractQueuedSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
-        if (tryAcquireShared(arg) < 0)
+        if (tryAcquireShared(arg) >= 0)
+            recordAcquire();
+        else
             doAcquireSharedInterruptibly(arg);
     }
 
@@ -1324,8 +1461,11 @@ public abstract class AbstractQueuedSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
-        return tryAcquireShared(arg) >= 0 ||
-            doAcquireSharedNanos(arg, nanosTimeout);
+        if (tryAcquireShared(arg) >= 0) {
+            recordAcquire();
+            return true;
+        }
+        return doAcquireSharedNanos(arg, nanosTimeout);
     }
 
     /**
@@ -1620,6 +1760,163 @@ public abstract class AbstractQueuedSynchronizer
     }
 
 
+    /**
+     * Enables or disables the recording of contention statistics for
+     * this synchronizer, as reported by {@link
+     * #getContentionStatistics}.  Enabling discards any previously
+     * recorded counts.  While disabled, as by default, the only cost
+     * is a read of one field per acquire.
+     *
+     * @param enabled {@code true} to record statistics
+     * @since 1.8
+     */
+    public final void setContentionStatisticsEnabled(boolean enabled) {
+        contention = enabled ? new Contention() : null;
+    }
+
+    /**
+     * Returns a snapshot of the contention statistics recorded since
+     * they were last enabled, or {@code null} if they are disabled.
+     * The counters are read without blocking or synchronization, so
+     * this method is suitable for periodic sampling by monitoring
+     * agents, but a snapshot taken while threads are acquiring may
+     * be inconsistent.
+     *
+     * @return the statistics, or {@code null} if not enabled
+     * @since 1.8
+     */
+    public final ContentionStatistics getContentionStatistics() {
+        Contention c = contention;
+        return (c == null) ? null : c.snapshot();
+    }
+
+    /**
+     * Records an acquire that succeeded without queuing.
+     */
+    final void recordAcquire() {
+        Contention c = contention;
+        if (c != null)
+            c.acquires.increment();
+    }
+
+    /**
+     * Contention counters.  Shared by AbstractQueuedLongSynchronizer.
+     */
+    static final class Contention {
+        final LongAdder acquires = new LongAdder();
+        final LongAdder contended = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicInteger maxQueued = new AtomicInteger();
+
+        /**
+         * Records a thread entering the queue; returns its start time.
+         */
+        long enqueue() {
+            contended.increment();
+            int n = queued.incrementAndGet(), m;
+            while (n > (m = maxQueued.get()) &&
+                   !maxQueued.compareAndSet(m, n))
+                ;
+            return System.nanoTime();
+        }
+
+        /**
+         * Records a thread leaving the queue, having acquired or not.
+         */
+        void dequeue(long start, boolean acquired) {
+            queued.decrementAndGet();
+            waitNanos.add(System.nanoTime() - start);
+            if (acquired)
+                acquires.increment();
+        }
+
+        ContentionStatistics snapshot() {
+            return new ContentionStatistics(acquires.sum(), contended.sum(),
+                                            waitNanos.sum(), queued.get(),
+                                            maxQueued.get());
+        }
+    }
+
+    /**
+     * A snapshot of the contention statistics of a synchronizer, as
+     * returned by {@link #getContentionStatistics}.  Acquires are
+     * counted by the acquire methods of this class; a synchronizer
+     * that succeeds without calling them (for example, in a {@code
+     * tryLock} implemented directly with {@link #compareAndSetState})
+     * does not count such acquisitions.  Reacquisition after a
+     * {@link ConditionObject} wait counts as a queued acquire.
+     *
+     * @since 1.8
+     */
+    public static final class ContentionStatistics {
+        private final long acquires, contended, waitNanos;
+        private final int queueLength, maxQueueLength;
+
+        ContentionStatistics(long acquires, long contended, long waitNanos,
+                             int queueLength, int maxQueueLength) {
+            this.acquires = acquires;
+            this.contended = contended;
+            this.waitNanos = waitNanos;
+            this.queueLength = queueLength;
+            this.maxQueueLength = maxQueueLength;
+        }
+
+        /**
+         * Returns the number of successful acquires, queued or not.
+         *
+         * @return the number of acquires
+         */
+        public long getAcquireCount() { return acquires; }
+
+        /**
+         * Returns the number of acquires that queued because the
+         * synchronizer was not immediately available, including those
+         * that were later cancelled by interrupt or timeout.
+         *
+         * @return the number of contended acquires
+         */
+        public long getContendedAcquireCount() { return contended; }
+
+        /**
+         * Returns the total time, in nanoseconds, that threads spent
+         * queued, including time spent spinning at the front of the
+         * queue.
+         *
+         * @return the total wait time in nanoseconds
+         */
+        public long getTotalWaitNanos() { return waitNanos; }
+
+        /**
+         * Returns the number of threads queued when the snapshot was
+         * taken.
+         *
+         * @return the number of queued threads
+         */
+        public int getQueueLength() { return queueLength; }
+
+        /**
+         * Returns the largest number of threads simultaneously queued.
+         *
+         * @return the maximum queue length
+         */
+        public int getMaxQueueLength() { return maxQueueLength; }
+
+        /**
+         * Returns a string summarizing these statistics.
+         *
+         * @return a string summarizing these statistics
+         */
+        public String toString() {
+            return "[acquires = " + acquires +
+                ", contended = " + contended +
+                ", wait nanos = " + waitNanos +
+                ", queue length = " + queueLength +
+                ", max queue length = " + maxQueueLength + "]";
+        }
+    }
+
+
     // Internal support methods for Conditions
 
     /**
@@ -34,6 +34,10 @@
  */
 
 package java.util.concurrent.locks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
 import sun.misc.Unsafe;
 
 /**
@@ -172,7 +176,7 @@ public class LockSupport {
     public static void park(Object blocker) {
         Thread t = Thread.currentThread();
         setBlocker(t, blocker);
-        UNSAFE.park(false, 0L);
+        park0(false, 0L);
         setBlocker(t, null);
     }
 
@@ -212,7 +216,7 @@ public class LockSupport {
         if (nanos > 0) {
             Thread t = Thread.currentThread();
             setBlocker(t, blocker);
-            UNSAFE.park(false, nanos);
+            park0(false, nanos);
             setBlocker(t, null);
         }
     }
@@ -253,7 +257,7 @@ public class LockSupport {
     public static void parkUntil(Object blocker, long deadline) {
         Thread t = Thread.currentThread();
         setBlocker(t, blocker);
-        UNSAFE.park(true, deadline);
+        park0(true, deadline);
         setBlocker(t, null);
     }
 
@@ -301,7 +305,7 @@ public class LockSupport {
      * for example, the interrupt status of the thread upon return.
      */
     public static void park() {
-        UNSAFE.park(false, 0L);
+        park0(false, 0L);
     }
 
     /**
@@ -335,7 +339,7 @@ public class LockSupport {
      */
     public static void parkNanos(long nanos) {
         if (nanos > 0)
-            UNSAFE.park(false, nanos);
+            park0(false, nanos);
     }
 
     /**
@@ -369,7 +373,7 @@ public class LockSupport {
      *        to wait until
      */
     public static void parkUntil(long deadline) {
-        UNSAFE.park(true, deadline);
+        park0(true, deadline);
     }
 
     /**
@@ -390,12 +394,74 @@ public class LockSupport {
         return r;
     }
 
+    /**
+     * Parks the current thread.  If it is a carrier thread of a
+     * lightweight thread-per-task executor (see
+     * Executors.newLightweightThreadPerTaskExecutor), the park is
+     * performed as a ForkJoinPool.managedBlock, so that the pool may
+     * activate or create another carrier to run other tasks while
+     * this one is blocked.  If the pool cannot compensate, because it
+     * is at its thread limit or is terminating, parks without
+     * compensation.
+     */
+    private static void park0(boolean absolute, long time) {
+        Thread t = Thread.currentThread();
+        if (t instanceof ForkJoinWorkerThread &&
+            UNSAFE.getBoolean(t, MANAGEDPARKING)) {
+            ForkJoinPool pool = ((ForkJoinWorkerThread)t).getPool();
+            try {
+                ForkJoinPool.managedBlock(new ManagedPark(pool, absolute, time));
+                return;
+            } catch (RejectedExecutionException ex) {
+                // thread limit reached; fall through
+            } catch (InterruptedException ie) {
+                return; // ManagedPark.block does not throw
+            }
+        }
+        UNSAFE.park(absolute, time);
+    }
+
+    /**
+     * A ManagedBlocker performing a single park.  managedBlock retries
+     * compensation for as long as isReleasable returns false, which
+     * rides out transient failures but would spin while the pool is
+     * terminating, when compensation can no longer succeed.  So
+     * isReleasable parks without compensation once the pool has
+     * started terminating.
+     */
+    static final class ManagedPark implements ForkJoinPool.ManagedBlocker {
+        final ForkJoinPool pool;
+        final boolean absolute;
+        final long time;
+        boolean parked;
+        ManagedPark(ForkJoinPool pool, boolean absolute, long time) {
+            this.pool = pool;
+            this.absolute = absolute;
+            this.time = time;
+        }
+        public boolean block() {
+            if (!parked) {
+                parked = true;
+                UNSAFE.park(absolute, time);
+            }
+            return true;
+        }
+        public boolean isReleasable() {
+            if (!parked && (pool.isTerminating() || pool.isTerminated())) {
+                parked = true;
+                UNSAFE.park(absolute, time);
+            }
+            return parked;
+        }
+    }
+
     // Hotspot implementation via intrinsics API
     private static final sun.misc.Unsafe UNSAFE;
     private static final long parkBlockerOffset;
     private static final long SEED;
     private static final long PROBE;
     private static final long SECONDARY;
+    private static final long MANAGEDPARKING;
     static {
         try {
             UNSAFE = sun.misc.Unsafe.getUnsafe();
@@ -408,6 +474,8 @@ public class LockSupport {
                 (tk.getDeclaredField("threadLocalRandomProbe"));
             SECONDARY = UNSAFE.objectFieldOffset
                 (tk.getDeclaredField("threadLocalRandomSecondarySeed"));
+            MANAGEDPARKING = UNSAFE.objectFieldOffset
+                (ForkJoinWorkerThread.class.getDeclaredField("managedParking"));
         } catch (Exception ex) { throw new Error(ex); }
     }
 
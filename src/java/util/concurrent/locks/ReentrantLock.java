@@ -203,8 +203,10 @@ public class ReentrantLock implements Lock, java.io.Serializable {
          * acquire on failure.
          */
         final void lock() {
-            if (compareAndSetState(0, 1))
+            if (compareAndSetState(0, 1)) {
                 setExclusiveOwnerThread(Thread.currentThread());
+                recordAcquire();
+            }
             else
                 acquire(1);
         }
@@ -745,6 +747,32 @@ public class ReentrantLock implements Lock, java.io.Serializable {
         return sync.getWaitingThreads((AbstractQueuedSynchronizer.ConditionObject)condition);
     }
 
+    /**
+     * Enables or disables the recording of contention statistics for
+     * this lock.  Enabling discards any previously recorded counts.
+     *
+     * @param enabled {@code true} to record statistics
+     * @see AbstractQueuedSynchronizer#setContentionStatisticsEnabled
+     * @since 1.8
+     */
+    public void setContentionStatisticsEnabled(boolean enabled) {
+        sync.setContentionStatisticsEnabled(enabled);
+    }
+
+    /**
+     * Returns a snapshot of this lock's contention statistics: the
+     * number of acquires, how many of them had to queue, the total
+     * time spent queued, and the maximum queue length.  Acquires by
+     * {@link #tryLock()} are not counted.
+     *
+     * @return the statistics, or {@code null} if not enabled
+     * @see AbstractQueuedSynchronizer#getContentionStatistics
+     * @since 1.8
+     */
+    public AbstractQueuedSynchronizer.ContentionStatistics getContentionStatistics() {
+        return sync.getContentionStatistics();
+    }
+
     /**
      * Returns a string identifying this lock, as well as its lock state.
      * The state, in brackets, includes either the String {@code "Unlocked"}
@@ -1471,6 +1471,33 @@ public class ReentrantReadWriteLock
         return sync.getWaitingThreads((AbstractQueuedSynchronizer.ConditionObject)condition);
     }
 
+    /**
+     * Enables or disables the recording of contention statistics for
+     * this lock, covering both the read and the write lock.  Enabling
+     * discards any previously recorded counts.
+     *
+     * @param enabled {@code true} to record statistics
+     * @see AbstractQueuedSynchronizer#setContentionStatisticsEnabled
+     * @since 1.8
+     */
+    public void setContentionStatisticsEnabled(boolean enabled) {
+        sync.setContentionStatisticsEnabled(enabled);
+    }
+
+    /**
+     * Returns a snapshot of this lock's contention statistics: the
+     * number of acquires, how many of them had to queue, the total
+     * time spent queued, and the maximum queue length.  Acquires by the
+     * {@code tryLock()} methods are not counted.
+     *
+     * @return the statistics, or {@code null} if not enabled
+     * @see AbstractQueuedSynchronizer#getContentionStatistics
+     * @since 1.8
+     */
+    public AbstractQueuedSynchronizer.ContentionStatistics getContentionStatistics() {
+        return sync.getContentionStatistics();
+    }
+
     /**
      * Returns a string identifying this lock, as well as its lock state.
      * The state, in brackets, includes the String {@code "Write locks ="}
@@ -0,0 +1,918 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.locks;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ReadWriteLock} for read-mostly workloads on many cores,
+ * with the locking semantics of {@link ReentrantReadWriteLock}.
+ *
+ * <p>{@code ReentrantReadWriteLock} counts every read hold in its
+ * single synchronization state word, so concurrent readers all
+ * compare-and-set the same cache line, and throughput falls as
+ * readers are added.  This class instead spreads the read count over
+ * an array of padded <em>reader indicator</em> slots, one or more per
+ * processor.  A reader increments the slot selected by its thread's
+ * hash code (the same per-thread probe used by {@code LongAdder}) and
+ * then checks that no writer is active.  A writer first announces
+ * itself, so that no new reader proceeds, and then waits until every
+ * slot has drained to zero.  An uncontended read acquisition thus
+ * touches one slot that is rarely shared with other threads, at the
+ * price of write acquisitions that scan all slots.  Each lock uses
+ * some hundreds of bytes per processor, so this class suits a modest
+ * number of heavily read locks rather than one lock per object.
+ *
+ * <p>This class has the following properties:
+ *
+ * <ul>
+ * <li><b>Acquisition order</b>
+ *
+ * <p>In non-fair mode (the default), readers enter whenever no writer
+ * holds or is acquiring the write lock, and writers are ordered among
+ * themselves in an unspecified way.  A writer that has announced
+ * itself waits only for the readers that entered before it.  In fair
+ * mode, writers acquire the lock in approximately arrival order, and
+ * a reader that would otherwise enter while any writer is waiting
+ * queues behind it.
+ *
+ * <li><b>Reentrancy</b>
+ *
+ * <p>Both locks are reentrant.  A thread holding the write lock may
+ * also acquire the read lock, and so downgrade by then releasing the
+ * write lock.  Upgrading from a read lock to the write lock is not
+ * possible: a reader that requests the write lock waits for itself.
+ *
+ * <li><b>Condition support</b>
+ *
+ * <p>The write lock provides a {@link Condition} implementation that
+ * behaves as {@link ReentrantReadWriteLock.WriteLock#newCondition}
+ * does; while a writer awaits, readers may enter.  The read lock does
+ * not support conditions.
+ *
+ * <li><b>Serialization</b>
+ *
+ * <p>A deserialized lock is in the unlocked state, regardless of its
+ * state when serialized.
+ * </ul>
+ *
+ * <p>Sample usage, a cache whose lookups vastly outnumber updates:
+ * <pre> {@code
+ * class Registry<K, V> {
+ *   private final Map<K, V> m = new HashMap<K, V>();
+ *   private final StripedReadWriteLock rwl = new StripedReadWriteLock();
+ *   private final Lock r = rwl.readLock();
+ *   private final Lock w = rwl.writeLock();
+ *
+ *   public V get(K key) {
+ *     r.lock();
+ *     try { return m.get(key); }
+ *     finally { r.unlock(); }
+ *   }
+ *   public V put(K key, V value) {
+ *     w.lock();
+ *     try { return m.put(key, value); }
+ *     finally { w.unlock(); }
+ *   }
+ * }}</pre>
+ *
+ * @see ReentrantReadWriteLock
+ * @see StampedLock
+ * @since 1.8
+ */
+public class StripedReadWriteLock implements ReadWriteLock, java.io.Serializable {
+    private static final long serialVersionUID = 3427152849105271943L;
+
+    /*
+     * Implementation overview.
+     *
+     * Writers are serialized by an internal ReentrantLock (mutex),
+     * which also supplies fairness, timeouts, interruption and
+     * Conditions.  The mutex holder that has completed (or is
+     * completing) write acquisition publishes itself in the volatile
+     * "writer" field.  A reader increments a slot and then reads
+     * writer; a writer sets writer and then reads each slot.  Both
+     * are volatile accesses, so at least one of them sees the other,
+     * and a reader that sees a foreign writer backs out.
+     *
+     * A reader that backs out, or that in fair mode finds writers
+     * queued, takes the slow path: it acquires the mutex, at which
+     * point writer is necessarily null, increments its slot and
+     * releases the mutex.  Slow-path readers thus queue behind
+     * writers in the mutex's own order.
+     *
+     * Each thread's read hold count, and the slot it incremented,
+     * are kept in a ThreadLocal, as in ReentrantReadWriteLock.  A
+     * thread's probe may change while it holds the read lock (other
+     * Striped64 users advance it), so releases must use the recorded
+     * slot.  Reentrant read acquisitions only bump the thread-local
+     * count and never touch a slot, which is what lets a reader
+     * re-enter while a writer is draining.
+     *
+     * A draining writer spins briefly on each nonzero slot and then
+     * parks.  A reader whose release brings a slot to zero while a
+     * foreign writer is set unparks that writer.  Spurious unparks
+     * are harmless since the writer rechecks.
+     */
+
+    /** Number of CPUS, to place bounds on sizing */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The maximum number of reader indicator slots */
+    private static final int MAX_SLOTS = 256;
+
+    /** Spins on a nonzero slot before a writer parks */
+    private static final int SPINS = (NCPU > 1) ? 1 << 7 : 0;
+
+    /**
+     * A reader indicator: the number of threads that entered the read
+     * lock through this slot and have not yet left it.
+     */
+    @sun.misc.Contended static final class Slot {
+        volatile int readers;
+    }
+
+    /**
+     * A thread's read hold count and the slot it is registered in.
+     */
+    static final class ReaderRecord {
+        int holds;
+        Slot slot;
+    }
+
+    /**
+     * ThreadLocal subclass, as in ReentrantReadWriteLock.
+     */
+    static final class ReaderRecords extends ThreadLocal<ReaderRecord> {
+        protected ReaderRecord initialValue() {
+            return new ReaderRecord();
+        }
+    }
+
+    /** Inner class providing readlock */
+    private final StripedReadWriteLock.ReadLock readerLock;
+    /** Inner class providing writelock */
+    private final StripedReadWriteLock.WriteLock writerLock;
+    /** Serializes writers and slow-path readers */
+    final ReentrantLock mutex;
+
+    /** Reader indicators; length is a power of two */
+    private transient Slot[] slots;
+    /** Per-thread read holds */
+    private transient ReaderRecords records;
+    /** The thread holding or acquiring the write lock, else null */
+    private transient volatile Thread writer;
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with
+     * default (nonfair) ordering properties.
+     */
+    public StripedReadWriteLock() {
+        this(false);
+    }
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with
+     * the given fairness policy.
+     *
+     * @param fair {@code true} if this lock should use a fair ordering policy
+     */
+    public StripedReadWriteLock(boolean fair) {
+        mutex = new ReentrantLock(fair);
+        readerLock = new ReadLock(this);
+        writerLock = new WriteLock(this);
+        initTransients();
+    }
+
+    private void initTransients() {
+        int n = 1;
+        while (n < NCPU && n < MAX_SLOTS)
+            n <<= 1;
+        Slot[] ss = new Slot[n];
+        for (int i = 0; i < n; ++i)
+            ss[i] = new Slot();
+        slots = ss;
+        records = new ReaderRecords();
+    }
+
+    public StripedReadWriteLock.WriteLock writeLock() { return writerLock; }
+    public StripedReadWriteLock.ReadLock  readLock()  { return readerLock; }
+
+    // Read-side mechanics
+
+    /**
+     * Returns the slot for the given thread, initializing its probe
+     * if necessary.
+     */
+    private Slot slotFor(Thread t) {
+        int h;
+        if ((h = U.getInt(t, PROBE)) == 0) {
+            ThreadLocalRandom.current(); // force initialization
+            h = U.getInt(t, PROBE);
+        }
+        Slot[] ss = slots;
+        return ss[h & (ss.length - 1)];
+    }
+
+    /**
+     * Moves the thread to another slot after contention, as in
+     * Striped64.advanceProbe, and returns that slot.
+     */
+    private Slot advanceSlot(Thread t) {
+        int h = U.getInt(t, PROBE);
+        h ^= h << 13;   // xorshift
+        h ^= h >>> 17;
+        h ^= h << 5;
+        U.putInt(t, PROBE, h);
+        Slot[] ss = slots;
+        return ss[h & (ss.length - 1)];
+    }
+
+    /**
+     * Registers the current thread in a slot if no other thread holds
+     * or is acquiring the write lock.
+     *
+     * @param barging true if the fairness policy is to be ignored
+     * @return true if acquired
+     */
+    private boolean tryFastRead(Thread t, ReaderRecord r, boolean barging) {
+        Thread w = writer;
+        if ((w != null && w != t) ||
+            (!barging && mutex.isFair() && w == null &&
+             mutex.hasQueuedThreads()))
+            return false;
+        Slot s = slotFor(t);
+        int c = s.readers;
+        if (!U.compareAndSwapInt(s, READERS, c, c + 1)) {
+            s = advanceSlot(t);
+            U.getAndAddInt(s, READERS, 1);
+        }
+        if ((w = writer) == null || w == t) {
+            r.slot = s;
+            r.holds = 1;
+            return true;
+        }
+        leaveSlot(s, t);
+        return false;
+    }
+
+    /**
+     * Registers the current thread in a slot while holding the mutex,
+     * which excludes other writers.
+     */
+    private void slowRead(Thread t, ReaderRecord r) {
+        try {
+            Slot s = slotFor(t);
+            U.getAndAddInt(s, READERS, 1);
+            r.slot = s;
+            r.holds = 1;
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    /**
+     * Decrements the given slot, waking a draining writer if the slot
+     * becomes empty.
+     */
+    private void leaveSlot(Slot s, Thread t) {
+        Thread w;
+        if (U.getAndAddInt(s, READERS, -1) == 1 &&
+            (w = writer) != null && w != t)
+            LockSupport.unpark(w);
+    }
+
+    final void lockRead() {
+        Thread t = Thread.currentThread();
+        ReaderRecord r = records.get();
+        if (r.holds > 0)
+            ++r.holds;
+        else if (!tryFastRead(t, r, false)) {
+            mutex.lock();
+            slowRead(t, r);
+        }
+    }
+
+    final void lockReadInterruptibly() throws InterruptedException {
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        Thread t = Thread.currentThread();
+        ReaderRecord r = records.get();
+        if (r.holds > 0)
+            ++r.holds;
+        else if (!tryFastRead(t, r, false)) {
+            mutex.lockInterruptibly();
+            slowRead(t, r);
+        }
+    }
+
+    final boolean tryLockRead() {
+        Thread t = Thread.currentThread();
+        ReaderRecord r = records.get();
+        if (r.holds > 0) {
+            ++r.holds;
+            return true;
+        }
+        return tryFastRead(t, r, true);
+    }
+
+    final boolean tryLockRead(long nanos) throws InterruptedException {
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        Thread t = Thread.currentThread();
+        ReaderRecord r = records.get();
+        if (r.holds > 0)
+            ++r.holds;
+        else if (!tryFastRead(t, r, false)) {
+            if (!mutex.tryLock(nanos, TimeUnit.NANOSECONDS))
+                return false;
+            slowRead(t, r);
+        }
+        return true;
+    }
+
+    final void unlockRead() {
+        ReaderRecord r = records.get();
+        if (r.holds <= 0)
+            throw new IllegalMonitorStateException();
+        if (--r.holds == 0) {
+            Slot s = r.slot;
+            r.slot = null;
+            leaveSlot(s, Thread.currentThread());
+        }
+    }
+
+    // Write-side mechanics
+
+    /** drain result: all slots are empty */
+    private static final int DRAINED     = 0;
+    /** drain result: the deadline elapsed */
+    private static final int TIMED_OUT   = 1;
+    /** drain result: the thread was interrupted */
+    private static final int INTERRUPTED = 2;
+
+    /**
+     * Waits until all slots are empty.  Called by the mutex holder
+     * after setting writer.  If not interruptible, an interrupt that
+     * occurs while waiting is reasserted on return.
+     *
+     * @param interruptible true if interrupts abort the wait
+     * @param deadline if nonzero, the System.nanoTime deadline
+     * @return DRAINED, TIMED_OUT, or INTERRUPTED
+     */
+    private int drain(boolean interruptible, long deadline) {
+        boolean interrupted = false;
+        int result = DRAINED;
+        outer: for (Slot s : slots) {
+            int spins = SPINS;
+            while (s.readers != 0) {
+                if (spins > 0)
+                    --spins;
+                else if (deadline == 0L)
+                    LockSupport.park(this);
+                else {
+                    long ns = deadline - System.nanoTime();
+                    if (ns <= 0L) {
+                        result = TIMED_OUT;
+                        break outer;
+                    }
+                    LockSupport.parkNanos(this, ns);
+                }
+                if (Thread.interrupted()) {
+                    if (interruptible) {
+                        result = INTERRUPTED;
+                        break outer;
+                    }
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        return result;
+    }
+
+    /**
+     * Completes write acquisition after the mutex has been acquired.
+     * Returns true if the write lock is now held; otherwise releases
+     * the mutex, and throws if interrupted.
+     */
+    private boolean acquireWrite(boolean interruptible, long deadline)
+        throws InterruptedException {
+        if (mutex.getHoldCount() > 1)
+            return true;                        // reentrant
+        writer = Thread.currentThread();
+        int result = drain(interruptible, deadline);
+        if (result == DRAINED)
+            return true;
+        writer = null;
+        mutex.unlock();
+        if (result == INTERRUPTED)
+            throw new InterruptedException();
+        return false;
+    }
+
+    final void lockWrite() {
+        mutex.lock();
+        if (mutex.getHoldCount() == 1) {
+            writer = Thread.currentThread();
+            drain(false, 0L);
+        }
+    }
+
+    final void lockWriteInterruptibly() throws InterruptedException {
+        mutex.lockInterruptibly();
+        acquireWrite(true, 0L);
+    }
+
+    final boolean tryLockWrite() {
+        if (!mutex.tryLock())
+            return false;
+        if (mutex.getHoldCount() == 1) {
+            writer = Thread.currentThread();
+            for (Slot s : slots) {
+                if (s.readers != 0) {
+                    writer = null;
+                    mutex.unlock();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    final boolean tryLockWrite(long nanos) throws InterruptedException {
+        long deadline = System.nanoTime() + nanos;
+        if (deadline == 0L)
+            deadline = 1L;
+        if (!mutex.tryLock(nanos, TimeUnit.NANOSECONDS))
+            return false;
+        return acquireWrite(true, deadline);
+    }
+
+    final void unlockWrite() {
+        if (!mutex.isHeldByCurrentThread())
+            throw new IllegalMonitorStateException();
+        if (mutex.getHoldCount() == 1)
+            writer = null;
+        mutex.unlock();
+    }
+
+    /**
+     * The read lock returned by method {@link StripedReadWriteLock#readLock}.
+     */
+    public static class ReadLock implements Lock, java.io.Serializable {
+        private static final long serialVersionUID = -3264718893570284623L;
+        private final StripedReadWriteLock lock;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected ReadLock(StripedReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            this.lock = lock;
+        }
+
+        /**
+         * Acquires the read lock, waiting if another thread holds or
+         * is acquiring the write lock.
+         */
+        public void lock() {
+            lock.lockRead();
+        }
+
+        /**
+         * Acquires the read lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            lock.lockReadInterruptibly();
+        }
+
+        /**
+         * Acquires the read lock only if the write lock is not held
+         * or being acquired by another thread at the time of
+         * invocation.  As with {@link
+         * ReentrantReadWriteLock.ReadLock#tryLock()}, this method
+         * does not honor the fairness setting.
+         *
+         * @return {@code true} if the read lock was acquired
+         */
+        public boolean tryLock() {
+            return lock.tryLockRead();
+        }
+
+        /**
+         * Acquires the read lock if the write lock is not held by
+         * another thread within the given waiting time and the
+         * current thread has not been {@linkplain Thread#interrupt
+         * interrupted}.
+         *
+         * @param timeout the time to wait for the read lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the read lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return lock.tryLockRead(unit.toNanos(timeout));
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * @throws IllegalMonitorStateException if the current thread
+         *         does not hold this lock
+         */
+        public void unlock() {
+            lock.unlockRead();
+        }
+
+        /**
+         * Throws {@code UnsupportedOperationException} because
+         * {@code ReadLocks} do not support conditions.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock state.
+         * The state, in brackets, includes the String {@code "Read locks ="}
+         * followed by the number of held read locks.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            return super.toString() +
+                "[Read locks = " + lock.getReadLockCount() + "]";
+        }
+    }
+
+    /**
+     * The write lock returned by method {@link StripedReadWriteLock#writeLock}.
+     */
+    public static class WriteLock implements Lock, java.io.Serializable {
+        private static final long serialVersionUID = 5179208231587719620L;
+        private final StripedReadWriteLock lock;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected WriteLock(StripedReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            this.lock = lock;
+        }
+
+        /**
+         * Acquires the write lock, waiting until no other thread holds
+         * the write lock and all readers have left.
+         */
+        public void lock() {
+            lock.lockWrite();
+        }
+
+        /**
+         * Acquires the write lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            lock.lockWriteInterruptibly();
+        }
+
+        /**
+         * Acquires the write lock only if it is not held by another
+         * thread and no thread holds the read lock at the time of
+         * invocation.
+         *
+         * @return {@code true} if the lock was free and was acquired
+         * by the current thread, or the write lock was already held
+         * by the current thread
+         */
+        public boolean tryLock() {
+            return lock.tryLockWrite();
+        }
+
+        /**
+         * Acquires the write lock if it is not held by another thread
+         * and all readers leave within the given waiting time, and
+         * the current thread has not been {@linkplain Thread#interrupt
+         * interrupted}.
+         *
+         * @param timeout the time to wait for the write lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return lock.tryLockWrite(unit.toNanos(timeout));
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * @throws IllegalMonitorStateException if the current thread does not
+         * hold this lock
+         */
+        public void unlock() {
+            lock.unlockWrite();
+        }
+
+        /**
+         * Returns a {@link Condition} instance for use with this
+         * {@link Lock} instance, with the same semantics as the
+         * conditions of {@link ReentrantReadWriteLock.WriteLock}.
+         * While a thread awaits, the write lock is released and other
+         * threads may acquire either lock; before returning, the
+         * awaiting thread reacquires the write lock with its former
+         * hold count.
+         *
+         * @return the Condition object
+         */
+        public Condition newCondition() {
+            return lock.new WriteCondition(lock.mutex.newCondition());
+        }
+
+        /**
+         * Queries if this write lock is held by the current thread.
+         *
+         * @return {@code true} if the current thread holds this lock and
+         *         {@code false} otherwise
+         */
+        public boolean isHeldByCurrentThread() {
+            return lock.isWriteLockedByCurrentThread();
+        }
+
+        /**
+         * Queries the number of holds on this write lock by the current
+         * thread.
+         *
+         * @return the number of holds on this lock by the current thread,
+         *         or zero if this lock is not held by the current thread
+         */
+        public int getHoldCount() {
+            return lock.getWriteHoldCount();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock
+         * state.  The state, in brackets includes either the String
+         * {@code "Unlocked"} or the String {@code "Locked by"}
+         * followed by the {@linkplain Thread#getName name} of the
+         * owning thread.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            Thread o = lock.writer;
+            return super.toString() + ((o == null) ?
+                                       "[Unlocked]" :
+                                       "[Locked by thread " + o.getName() + "]");
+        }
+    }
+
+    /**
+     * Condition of the write lock: a condition of the mutex that
+     * withdraws the writer announcement while waiting, and drains
+     * readers again after the mutex is reacquired.
+     */
+    final class WriteCondition implements Condition {
+        final Condition condition;
+        WriteCondition(Condition condition) { this.condition = condition; }
+
+        private void release() {
+            if (writer != Thread.currentThread())
+                throw new IllegalMonitorStateException();
+            writer = null;
+        }
+
+        private void reacquire() {
+            writer = Thread.currentThread();
+            drain(false, 0L);
+        }
+
+        public void await() throws InterruptedException {
+            release();
+            try {
+                condition.await();
+            } finally {
+                reacquire();
+            }
+        }
+
+        public void awaitUninterruptibly() {
+            release();
+            try {
+                condition.awaitUninterruptibly();
+            } finally {
+                reacquire();
+            }
+        }
+
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            release();
+            try {
+                return condition.awaitNanos(nanosTimeout);
+            } finally {
+                reacquire();
+            }
+        }
+
+        public boolean await(long time, TimeUnit unit)
+            throws InterruptedException {
+            release();
+            try {
+                return condition.await(time, unit);
+            } finally {
+                reacquire();
+            }
+        }
+
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            release();
+            try {
+                return condition.awaitUntil(deadline);
+            } finally {
+                reacquire();
+            }
+        }
+
+        public void signal() {
+            if (writer != Thread.currentThread())
+                throw new IllegalMonitorStateException();
+            condition.signal();
+        }
+
+        public void signalAll() {
+            if (writer != Thread.currentThread())
+                throw new IllegalMonitorStateException();
+            condition.signalAll();
+        }
+    }
+
+    // Instrumentation and status
+
+    /**
+     * Returns {@code true} if this lock has fairness set true.
+     *
+     * @return {@code true} if this lock has fairness set true
+     */
+    public final boolean isFair() {
+        return mutex.isFair();
+    }
+
+    /**
+     * Queries the number of read locks held for this lock, summed
+     * over its reader indicators.  Reentrant holds by one thread
+     * count once.  This method is designed for use in monitoring
+     * system state, not for synchronization control.
+     *
+     * @return the number of threads holding the read lock
+     */
+    public int getReadLockCount() {
+        int n = 0;
+        for (Slot s : slots)
+            n += s.readers;
+        return n;
+    }
+
+    /**
+     * Queries if the write lock is held, or being acquired, by any
+     * thread.  This method is designed for use in monitoring system
+     * state, not for synchronization control.
+     *
+     * @return {@code true} if any thread holds or is acquiring the
+     *         write lock and {@code false} otherwise
+     */
+    public boolean isWriteLocked() {
+        return writer != null;
+    }
+
+    /**
+     * Queries if the write lock is held by the current thread.
+     *
+     * @return {@code true} if the current thread holds the write lock and
+     *         {@code false} otherwise
+     */
+    public boolean isWriteLockedByCurrentThread() {
+        return writer == Thread.currentThread();
+    }
+
+    /**
+     * Queries the number of reentrant write holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the write lock by the current thread,
+     *         or zero if the write lock is not held by the current thread
+     */
+    public int getWriteHoldCount() {
+        return isWriteLockedByCurrentThread() ? mutex.getHoldCount() : 0;
+    }
+
+    /**
+     * Queries the number of reentrant read holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the read lock by the current thread,
+     *         or zero if the read lock is not held by the current thread
+     */
+    public int getReadHoldCount() {
+        return records.get().holds;
+    }
+
+    /**
+     * Queries whether any threads are waiting to acquire the write
+     * lock, or are readers queued behind a writer.
+     *
+     * @return {@code true} if there may be other threads waiting to
+     *         acquire the lock
+     */
+    public final boolean hasQueuedThreads() {
+        return mutex.hasQueuedThreads();
+    }
+
+    /**
+     * Returns a string identifying this lock, as well as its lock state.
+     * The state, in brackets, includes either the String {@code
+     * "Unlocked"} or the String {@code "Write locked by"} followed by
+     * the {@linkplain Thread#getName name} of the writing thread, and
+     * the String {@code "Read locks ="} followed by the number of
+     * held read locks.
+     *
+     * @return a string identifying this lock, as well as its lock state
+     */
+    public String toString() {
+        Thread o = writer;
+        return super.toString() +
+            ((o == null) ? "[Unlocked" : "[Write locked by " + o.getName()) +
+            ", Read locks = " + getReadLockCount() + "]";
+    }
+
+    /**
+     * Reconstitutes this lock from a stream (that is, deserializes it),
+     * in the unlocked state.
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        initTransients();
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long READERS;
+    private static final long PROBE;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            READERS = U.objectFieldOffset
+                (Slot.class.getDeclaredField("readers"));
+            PROBE = U.objectFieldOffset
+                (Thread.class.getDeclaredField("threadLocalRandomProbe"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
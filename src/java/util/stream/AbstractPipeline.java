@@ -148,6 +148,18 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     private boolean parallel;
 
+    /**
+     * The kind of operation for the purposes of {@link PipelineFusion}, or
+     * {@code PipelineFusion.NONE} if this stage cannot be fused.
+     * Effectively final at the point of linking to the next pipeline.
+     */
+    private int fusionKind;
+
+    /**
+     * The function applied by a fusible operation, if any.
+     */
+    private Object fusionFunction;
+
     /**
      * Constructor for the head of a stream pipeline.
      *
@@ -515,11 +527,55 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         Objects.requireNonNull(sink);
 
         for ( @SuppressWarnings("rawtypes") AbstractPipeline p=AbstractPipeline.this; p.depth > 0; p=p.previousStage) {
+            if (PipelineFusion.ENABLED && p.fusionKind != PipelineFusion.NONE) {
+                // Replace the run of fusible stages ending at p, if any
+                @SuppressWarnings("rawtypes")
+                AbstractPipeline first = p;
+                int n = 1;
+                while (n < PipelineFusion.MAX_STAGES && first.depth > 1 &&
+                       first.previousStage.fusionKind != PipelineFusion.NONE) {
+                    first = first.previousStage;
+                    ++n;
+                }
+                if (n >= PipelineFusion.MIN_STAGES) {
+                    int[] kinds = new int[n];
+                    Object[] functions = new Object[n];
+                    @SuppressWarnings("rawtypes")
+                    AbstractPipeline q = p;
+                    for (int i = n - 1; i >= 0; --i, q = q.previousStage) {
+                        kinds[i] = q.fusionKind;
+                        functions[i] = q.fusionFunction;
+                    }
+                    Sink<E_OUT> fused = PipelineFusion.fuse(kinds, functions, sink);
+                    if (fused != null) {
+                        sink = fused;
+                        p = first;
+                        continue;
+                    }
+                }
+            }
             sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
         }
         return (Sink<P_IN>) sink;
     }
 
+    /**
+     * Marks this stage as a stateless operation that {@link PipelineFusion}
+     * may fuse with its neighbours.  Called by the operation immediately
+     * after construction.
+     *
+     * @param kind the operation kind, one of the {@code PipelineFusion} kinds
+     * @param function the function applied by the operation, or null
+     * @return this stage
+     */
+    @SuppressWarnings("unchecked")
+    final S fusible(int kind, Object function) {
+        assert !opIsStateful();
+        this.fusionKind = kind;
+        this.fusionFunction = function;
+        return (S) this;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     final <P_IN> Spliterator<E_OUT> wrapSpliterator(Spliterator<P_IN> sourceSpliterator) {
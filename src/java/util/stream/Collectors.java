@@ -51,6 +51,7 @@ import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.function.ToDoubleFunction;
@@ -146,23 +147,34 @@ public final class Collectors {
      */
     static class CollectorImpl<T, A, R> implements Collector<T, A, R> {
         private final Supplier<A> supplier;
+        private final LongFunction<A> sizedSupplier;
         private final BiConsumer<A, T> accumulator;
         private final BinaryOperator<A> combiner;
         private final Function<A, R> finisher;
         private final Set<Characteristics> characteristics;
 
         CollectorImpl(Supplier<A> supplier,
+                      LongFunction<A> sizedSupplier,
                       BiConsumer<A, T> accumulator,
                       BinaryOperator<A> combiner,
                       Function<A,R> finisher,
                       Set<Characteristics> characteristics) {
             this.supplier = supplier;
+            this.sizedSupplier = sizedSupplier;
             this.accumulator = accumulator;
             this.combiner = combiner;
             this.finisher = finisher;
             this.characteristics = characteristics;
         }
 
+        CollectorImpl(Supplier<A> supplier,
+                      BiConsumer<A, T> accumulator,
+                      BinaryOperator<A> combiner,
+                      Function<A,R> finisher,
+                      Set<Characteristics> characteristics) {
+            this(supplier, null, accumulator, combiner, finisher, characteristics);
+        }
+
         CollectorImpl(Supplier<A> supplier,
                       BiConsumer<A, T> accumulator,
                       BinaryOperator<A> combiner,
@@ -196,6 +208,40 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Returns the function of a collector that creates a result container
+     * presized for a known number of elements, or null if the collector has
+     * none.  A reduction calls it with the exact size of each leaf, if known,
+     * in place of the collector's supplier.
+     */
+    static <A> LongFunction<A> sizedSupplier(Collector<?, A, ?> collector) {
+        return (collector instanceof CollectorImpl)
+               ? ((CollectorImpl<?, A, ?>) collector).sizedSupplier
+               : null;
+    }
+
+    /**
+     * The largest number of elements for which result containers are
+     * presized.
+     */
+    private static final long MAX_PRESIZE = 1 << 30;
+
+    /**
+     * Returns a new {@code ArrayList} able to hold {@code size} elements
+     * without resizing.
+     */
+    private static <T> List<T> sizedList(long size) {
+        return new ArrayList<>((int) Math.min(size, MAX_PRESIZE));
+    }
+
+    /**
+     * Returns a new {@code HashMap} able to hold {@code size} mappings
+     * without resizing.
+     */
+    private static <K, V> Map<K, V> sizedMap(long size) {
+        return new HashMap<>((int) Math.min(size / 0.75f + 1.0f, (float) MAX_PRESIZE));
+    }
+
     /**
      * Returns a {@code Collector} that accumulates the input elements into a
      * new {@code Collection}, in encounter order.  The {@code Collection} is
@@ -227,9 +273,10 @@ public final class Collectors {
      */
     public static <T>
     Collector<T, ?, List<T>> toList() {
-        return new CollectorImpl<>((Supplier<List<T>>) ArrayList::new, List::add,
+        return new CollectorImpl<>((Supplier<List<T>>) ArrayList::new, Collectors::sizedList,
+                                   List::add,
                                    (left, right) -> { left.addAll(right); return left; },
-                                   CH_ID);
+                                   castingIdentity(), CH_ID);
     }
 
     /**
@@ -322,6 +369,38 @@ public final class Collectors {
         };
     }
 
+    /**
+     * {@code BinaryOperator<Map>} for maps without an iteration order of
+     * interest, such as {@code HashMap}, that merges the contents of the
+     * smaller argument into the larger.  Values for duplicate keys are
+     * still merged left to right.  Parallel reductions then copy each
+     * mapping into a larger map far fewer times than when always merging
+     * right into left.
+     *
+     * @param <K> type of the map keys
+     * @param <V> type of the map values
+     * @param <M> type of the map
+     * @param mergeFunction A merge function suitable for
+     * {@link Map#merge(Object, Object, BiFunction) Map.merge()}
+     * @return a merge function for two maps
+     */
+    private static <K, V, M extends Map<K,V>>
+    BinaryOperator<M> hashMapMerger(BinaryOperator<V> mergeFunction) {
+        BinaryOperator<V> reversed = (right, left) -> mergeFunction.apply(left, right);
+        return (m1, m2) -> {
+            if (m1.size() >= m2.size()) {
+                for (Map.Entry<K,V> e : m2.entrySet())
+                    m1.merge(e.getKey(), e.getValue(), mergeFunction);
+                return m1;
+            }
+            else {
+                for (Map.Entry<K,V> e : m1.entrySet())
+                    m2.merge(e.getKey(), e.getValue(), reversed);
+                return m2;
+            }
+        };
+    }
+
     /**
      * Adapts a {@code Collector} accepting elements of type {@code U} to one
      * accepting elements of type {@code T} by applying a mapping function to
@@ -410,7 +489,7 @@ public final class Collectors {
      */
     public static <T> Collector<T, ?, Long>
     counting() {
-        return reducing(0L, e -> 1L, Long::sum);
+        return summingLong(e -> 1L);
     }
 
     /**
@@ -850,7 +929,7 @@ public final class Collectors {
     public static <T, K, A, D>
     Collector<T, ?, Map<K, D>> groupingBy(Function<? super T, ? extends K> classifier,
                                           Collector<? super T, A, D> downstream) {
-        return groupingBy(classifier, HashMap::new, downstream);
+        return groupingBy(classifier, HashMap::new, downstream, true);
     }
 
     /**
@@ -901,6 +980,19 @@ public final class Collectors {
     Collector<T, ?, M> groupingBy(Function<? super T, ? extends K> classifier,
                                   Supplier<M> mapFactory,
                                   Collector<? super T, A, D> downstream) {
+        return groupingBy(classifier, mapFactory, downstream, false);
+    }
+
+    /**
+     * Implements {@link #groupingBy(Function, Supplier, Collector)}, merging
+     * the maps of parallel reductions smaller into larger if the maps are
+     * known to be unordered.
+     */
+    private static <T, K, D, A, M extends Map<K, D>>
+    Collector<T, ?, M> groupingBy(Function<? super T, ? extends K> classifier,
+                                  Supplier<M> mapFactory,
+                                  Collector<? super T, A, D> downstream,
+                                  boolean unorderedMap) {
         Supplier<A> downstreamSupplier = downstream.supplier();
         BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
         BiConsumer<Map<K, A>, T> accumulator = (m, t) -> {
@@ -908,7 +1000,9 @@ public final class Collectors {
             A container = m.computeIfAbsent(key, k -> downstreamSupplier.get());
             downstreamAccumulator.accept(container, t);
         };
-        BinaryOperator<Map<K, A>> merger = Collectors.<K, A, Map<K, A>>mapMerger(downstream.combiner());
+        BinaryOperator<Map<K, A>> merger = unorderedMap
+            ? Collectors.<K, A, Map<K, A>>hashMapMerger(downstream.combiner())
+            : Collectors.<K, A, Map<K, A>>mapMerger(downstream.combiner());
         @SuppressWarnings("unchecked")
         Supplier<Map<K, A>> mangledFactory = (Supplier<Map<K, A>>) mapFactory;
 
@@ -1091,6 +1185,194 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Returns a concurrent {@code Collector} implementing a "group by"
+     * operation on input elements of type {@code T}, grouping elements
+     * according to a classification function, and returning the results in
+     * a {@code Map}.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p>The classification function maps elements to some key type {@code K}.
+     * The collector produces a {@code Map<K, List<T>>} whose keys are the
+     * values resulting from applying the classification function to the input
+     * elements, and whose corresponding values are {@code List}s containing the
+     * input elements which map to the associated key under the classification
+     * function.
+     *
+     * <p>There are no guarantees on the type, mutability, serializability, or
+     * thread-safety of the {@code Map} or {@code List} objects returned.
+     * @implSpec
+     * This produces a result similar to:
+     * <pre>{@code
+     *     groupingBySharded(classifier, toList());
+     * }</pre>
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a concurrent, unordered {@code Collector} implementing the group-by operation
+     *
+     * @see #groupingBySharded(Function, Collector)
+     * @see #groupingBySharded(Function, Supplier, Collector)
+     * @since 1.8
+     */
+    public static <T, K>
+    Collector<T, ?, Map<K, List<T>>>
+    groupingBySharded(Function<? super T, ? extends K> classifier) {
+        return groupingBySharded(classifier, HashMap::new, toList());
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} implementing a cascaded "group by"
+     * operation on input elements of type {@code T}, grouping elements
+     * according to a classification function, and then performing a reduction
+     * operation on the values associated with a given key using the specified
+     * downstream {@code Collector}.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p>There are no guarantees on the type, mutability, serializability, or
+     * thread-safety of the {@code Map} returned.
+     * @implSpec
+     * This produces a result similar to:
+     * <pre>{@code
+     *     groupingBySharded(classifier, HashMap::new, downstream);
+     * }</pre>
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a concurrent, unordered {@code Collector} implementing the cascaded group-by operation
+     *
+     * @see #groupingBySharded(Function)
+     * @see #groupingBySharded(Function, Supplier, Collector)
+     * @since 1.8
+     */
+    public static <T, K, A, D>
+    Collector<T, ?, Map<K, D>> groupingBySharded(Function<? super T, ? extends K> classifier,
+                                                 Collector<? super T, A, D> downstream) {
+        return groupingBySharded(classifier, HashMap::new, downstream);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} implementing a cascaded "group by"
+     * operation on input elements of type {@code T}, grouping elements
+     * according to a classification function, and then performing a reduction
+     * operation on the values associated with a given key using the specified
+     * downstream {@code Collector}.  The {@code Map} produced by the Collector
+     * is created with the supplied factory function.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p>Unlike {@link #groupingByConcurrent(Function, Supplier, Collector)},
+     * whose threads all accumulate into one {@code ConcurrentMap}, this
+     * collector's single result container holds a small power-of-two number
+     * of plain hash maps, at least twice the number of available processors.
+     * Each accumulating thread uses the map selected by its thread id, so
+     * that threads rarely contend, and the maps are merged into the map
+     * created by {@code mapFactory} once, by the finisher, combining the
+     * downstream containers of keys seen by more than one thread.  Unlike
+     * {@link #groupingBy(Function, Supplier, Collector)} no per-leaf maps are
+     * created and merged pairwise.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param <M> the type of the resulting {@code Map}
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @param mapFactory a function which, when called, produces a new empty
+     *                   {@code Map} of the desired type
+     * @return a concurrent, unordered {@code Collector} implementing the cascaded group-by operation
+     *
+     * @see #groupingBySharded(Function)
+     * @see #groupingBySharded(Function, Collector)
+     * @see #groupingByConcurrent(Function, Supplier, Collector)
+     * @since 1.8
+     */
+    public static <T, K, A, D, M extends Map<K, D>>
+    Collector<T, ?, M> groupingBySharded(Function<? super T, ? extends K> classifier,
+                                         Supplier<M> mapFactory,
+                                         Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapFactory);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        Function<K, A> newContainer = k -> downstreamSupplier.get();
+        BiConsumer<Shards<K, A>, T> accumulator = (s, t) -> {
+            K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+            Map<K, A> m = s.shard();
+            synchronized (m) {
+                downstreamAccumulator.accept(m.computeIfAbsent(key, newContainer), t);
+            }
+        };
+        BinaryOperator<Shards<K, A>> merger = (s1, s2) -> {
+            for (int i = 0; i < s1.maps.length; ++i) {
+                Map<K, A> m = s1.maps[i];
+                for (Map.Entry<K, A> e : s2.maps[i].entrySet())
+                    m.merge(e.getKey(), e.getValue(), downstreamCombiner);
+            }
+            return s1;
+        };
+        boolean identityFinish =
+            downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH);
+        @SuppressWarnings("unchecked")
+        Function<A, A> downstreamFinisher = (Function<A, A>) downstream.finisher();
+        Function<Shards<K, A>, M> finisher = s -> {
+            @SuppressWarnings("unchecked")
+            Map<K, A> intermediate = (Map<K, A>) mapFactory.get();
+            for (Map<K, A> m : s.maps) {
+                for (Map.Entry<K, A> e : m.entrySet())
+                    intermediate.merge(e.getKey(), e.getValue(), downstreamCombiner);
+            }
+            if (!identityFinish)
+                intermediate.replaceAll((k, v) -> downstreamFinisher.apply(v));
+            @SuppressWarnings("unchecked")
+            M castResult = (M) intermediate;
+            return castResult;
+        };
+        return new CollectorImpl<>(Shards::new, accumulator, merger, finisher,
+                                   CH_CONCURRENT_NOID);
+    }
+
+    /**
+     * Result container of {@link #groupingBySharded(Function, Supplier,
+     * Collector)}: hash maps, each guarded by its own monitor, selected by
+     * the thread id of the accumulating thread.
+     */
+    static final class Shards<K, A> {
+        final Map<K, A>[] maps;
+        final int shift;
+
+        @SuppressWarnings("unchecked")
+        Shards() {
+            int p = Runtime.getRuntime().availableProcessors();
+            int bits = 32 - Integer.numberOfLeadingZeros(Math.max(p, 1) * 2 - 1);
+            int n = 1 << bits;
+            Map<K, A>[] ms = (Map<K, A>[]) new Map<?, ?>[n];
+            for (int i = 0; i < n; ++i)
+                ms[i] = new HashMap<>();
+            this.maps = ms;
+            this.shift = 64 - bits;
+        }
+
+        /** Returns the map used by the current thread. */
+        Map<K, A> shard() {
+            // Fibonacci hashing spreads consecutive thread ids
+            long h = Thread.currentThread().getId() * 0x9e3779b97f4a7c15L;
+            return maps[(int) (h >>> shift)];
+        }
+    }
+
     /**
      * Returns a {@code Collector} which partitions the input elements according
      * to a {@code Predicate}, and organizes them into a
@@ -1209,7 +1491,13 @@ public final class Collectors {
     public static <T, K, U>
     Collector<T, ?, Map<K,U>> toMap(Function<? super T, ? extends K> keyMapper,
                                     Function<? super T, ? extends U> valueMapper) {
-        return toMap(keyMapper, valueMapper, throwingMerger(), HashMap::new);
+        // Keys are distinct, so presize each map for all of its elements
+        BinaryOperator<U> mergeFunction = throwingMerger();
+        BiConsumer<Map<K, U>, T> accumulator
+                = (map, element) -> map.merge(keyMapper.apply(element),
+                                              valueMapper.apply(element), mergeFunction);
+        return new CollectorImpl<>(HashMap::new, Collectors::sizedMap, accumulator,
+                                   hashMapMerger(mergeFunction), castingIdentity(), CH_ID);
     }
 
     /**
@@ -1268,7 +1556,11 @@ public final class Collectors {
     Collector<T, ?, Map<K,U>> toMap(Function<? super T, ? extends K> keyMapper,
                                     Function<? super T, ? extends U> valueMapper,
                                     BinaryOperator<U> mergeFunction) {
-        return toMap(keyMapper, valueMapper, mergeFunction, HashMap::new);
+        BiConsumer<Map<K, U>, T> accumulator
+                = (map, element) -> map.merge(keyMapper.apply(element),
+                                              valueMapper.apply(element), mergeFunction);
+        return new CollectorImpl<>(HashMap::new, accumulator,
+                                   hashMapMerger(mergeFunction), CH_ID);
     }
 
     /**
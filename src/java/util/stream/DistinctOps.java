@@ -25,13 +25,18 @@
 package java.util.stream;
 
 import java.util.HashSet;
+import java.util.IntHashSet;
 import java.util.LinkedHashSet;
+import java.util.LongHashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
 import java.util.function.IntFunction;
+import java.util.function.LongConsumer;
 
 /**
  * Factory methods for transforming streams into duplicate-free streams, using
@@ -180,4 +185,381 @@ final class DistinctOps {
             }
         };
     }
+
+    /**
+     * Appends a "distinct" operation to the provided int stream, and
+     * returns the new stream.  Elements are tracked in an {@link IntHashSet}
+     * rather than boxed into a {@code HashSet}.
+     *
+     * @param upstream an int stream
+     * @return the new stream
+     */
+    static IntPipeline<Integer> makeInt(AbstractPipeline<?, Integer, ?> upstream) {
+        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
+                                                 StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            <P_IN> Node<Integer> reduce(PipelineHelper<Integer> helper, Spliterator<P_IN> spliterator) {
+                // Encounter order is kept by each partial result, so this
+                // serves both ordered and unordered streams
+                TerminalOp<Integer, IntDistinctBuffer> reduceOp
+                        = ReduceOps.<IntDistinctBuffer>makeInt(IntDistinctBuffer::new, IntDistinctBuffer::add,
+                                                        IntDistinctBuffer::addAll);
+                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).asPrimitiveArray());
+            }
+
+            @Override
+            <P_IN> Node<Integer> opEvaluateParallel(PipelineHelper<Integer> helper,
+                                                   Spliterator<P_IN> spliterator,
+                                                   IntFunction<Integer[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                else {
+                    return reduce(helper, spliterator);
+                }
+            }
+
+            @Override
+            <P_IN> Spliterator<Integer> opEvaluateParallelLazy(PipelineHelper<Integer> helper,
+                                                              Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else {
+                    // Not lazy, barrier required
+                    return reduce(helper, spliterator).spliterator();
+                }
+            }
+
+            @Override
+            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedInt<Integer>(sink) {
+                        boolean seenAny;
+                        int lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seenAny = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seenAny = false;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(int t) {
+                            int k = t;
+                            if (!seenAny || k != lastSeen) {
+                                seenAny = true;
+                                lastSeen = k;
+                                downstream.accept(t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedInt<Integer>(sink) {
+                        IntHashSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new IntHashSet();
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(int t) {
+                            if (seen.add(t))
+                                downstream.accept(t);
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Partial result of a parallel int "distinct": the distinct
+     * elements of a segment in encounter order, and the set of them.
+     */
+    static final class IntDistinctBuffer extends SpinedBuffer.OfInt {
+        final IntHashSet seen = new IntHashSet();
+
+        void add(int t) {
+            if (seen.add(t))
+                accept(t);
+        }
+
+        IntDistinctBuffer addAll(IntDistinctBuffer right) {
+            right.forEach((IntConsumer) this::add);
+            return this;
+        }
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided long stream, and
+     * returns the new stream.  Elements are tracked in a {@link LongHashSet}
+     * rather than boxed into a {@code HashSet}.
+     *
+     * @param upstream a long stream
+     * @return the new stream
+     */
+    static LongPipeline<Long> makeLong(AbstractPipeline<?, Long, ?> upstream) {
+        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
+                                                 StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            <P_IN> Node<Long> reduce(PipelineHelper<Long> helper, Spliterator<P_IN> spliterator) {
+                // Encounter order is kept by each partial result, so this
+                // serves both ordered and unordered streams
+                TerminalOp<Long, LongDistinctBuffer> reduceOp
+                        = ReduceOps.<LongDistinctBuffer>makeLong(LongDistinctBuffer::new, LongDistinctBuffer::add,
+                                                        LongDistinctBuffer::addAll);
+                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).asPrimitiveArray());
+            }
+
+            @Override
+            <P_IN> Node<Long> opEvaluateParallel(PipelineHelper<Long> helper,
+                                                   Spliterator<P_IN> spliterator,
+                                                   IntFunction<Long[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                else {
+                    return reduce(helper, spliterator);
+                }
+            }
+
+            @Override
+            <P_IN> Spliterator<Long> opEvaluateParallelLazy(PipelineHelper<Long> helper,
+                                                              Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else {
+                    // Not lazy, barrier required
+                    return reduce(helper, spliterator).spliterator();
+                }
+            }
+
+            @Override
+            Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedLong<Long>(sink) {
+                        boolean seenAny;
+                        long lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seenAny = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seenAny = false;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(long t) {
+                            long k = t;
+                            if (!seenAny || k != lastSeen) {
+                                seenAny = true;
+                                lastSeen = k;
+                                downstream.accept(t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedLong<Long>(sink) {
+                        LongHashSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new LongHashSet();
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(long t) {
+                            if (seen.add(t))
+                                downstream.accept(t);
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Partial result of a parallel long "distinct": the distinct
+     * elements of a segment in encounter order, and the set of them.
+     */
+    static final class LongDistinctBuffer extends SpinedBuffer.OfLong {
+        final LongHashSet seen = new LongHashSet();
+
+        void add(long t) {
+            if (seen.add(t))
+                accept(t);
+        }
+
+        LongDistinctBuffer addAll(LongDistinctBuffer right) {
+            right.forEach((LongConsumer) this::add);
+            return this;
+        }
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided double stream, and
+     * returns the new stream.  Elements are tracked by their {@link
+     * Double#doubleToLongBits} representations, which is the equality used
+     * by {@link Double#equals}, in a {@link LongHashSet} rather than boxed
+     * into a {@code HashSet}.
+     *
+     * @param upstream a double stream
+     * @return the new stream
+     */
+    static DoublePipeline<Double> makeDouble(AbstractPipeline<?, Double, ?> upstream) {
+        return new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
+                                                 StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            <P_IN> Node<Double> reduce(PipelineHelper<Double> helper, Spliterator<P_IN> spliterator) {
+                // Encounter order is kept by each partial result, so this
+                // serves both ordered and unordered streams
+                TerminalOp<Double, DoubleDistinctBuffer> reduceOp
+                        = ReduceOps.<DoubleDistinctBuffer>makeDouble(DoubleDistinctBuffer::new, DoubleDistinctBuffer::add,
+                                                        DoubleDistinctBuffer::addAll);
+                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).asPrimitiveArray());
+            }
+
+            @Override
+            <P_IN> Node<Double> opEvaluateParallel(PipelineHelper<Double> helper,
+                                                   Spliterator<P_IN> spliterator,
+                                                   IntFunction<Double[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                else {
+                    return reduce(helper, spliterator);
+                }
+            }
+
+            @Override
+            <P_IN> Spliterator<Double> opEvaluateParallelLazy(PipelineHelper<Double> helper,
+                                                              Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else {
+                    // Not lazy, barrier required
+                    return reduce(helper, spliterator).spliterator();
+                }
+            }
+
+            @Override
+            Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedDouble<Double>(sink) {
+                        boolean seenAny;
+                        long lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seenAny = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seenAny = false;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(double t) {
+                            long k = Double.doubleToLongBits(t);
+                            if (!seenAny || k != lastSeen) {
+                                seenAny = true;
+                                lastSeen = k;
+                                downstream.accept(t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedDouble<Double>(sink) {
+                        LongHashSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new LongHashSet();
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(double t) {
+                            if (seen.add(Double.doubleToLongBits(t)))
+                                downstream.accept(t);
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Partial result of a parallel double "distinct": the distinct
+     * elements of a segment in encounter order, and the set of them.
+     */
+    static final class DoubleDistinctBuffer extends SpinedBuffer.OfDouble {
+        final LongHashSet seen = new LongHashSet();
+
+        void add(double t) {
+            if (seen.add(Double.doubleToLongBits(t)))
+                accept(t);
+        }
+
+        DoubleDistinctBuffer addAll(DoubleDistinctBuffer right) {
+            right.forEach((DoubleConsumer) this::add);
+            return this;
+        }
+    }
 }
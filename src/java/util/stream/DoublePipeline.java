@@ -198,7 +198,7 @@ abstract class DoublePipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.DOUBLE_MAP, mapper);
     }
 
     @Override
@@ -215,7 +215,7 @@ abstract class DoublePipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.DOUBLE_TO_OBJ, mapper);
     }
 
     @Override
@@ -232,7 +232,7 @@ abstract class DoublePipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.DOUBLE_TO_INT, mapper);
     }
 
     @Override
@@ -249,7 +249,7 @@ abstract class DoublePipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.DOUBLE_TO_LONG, mapper);
     }
 
     @Override
@@ -310,7 +310,7 @@ abstract class DoublePipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.DOUBLE_FILTER, predicate);
     }
 
     @Override
@@ -328,7 +328,7 @@ abstract class DoublePipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.DOUBLE_PEEK, action);
     }
 
     // Stateful intermediate ops from DoubleStream
@@ -359,9 +359,7 @@ abstract class DoublePipeline<E_IN>
 
     @Override
     public final DoubleStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires a double-specific map/set implementation.
-        return boxed().distinct().mapToDouble(i -> (double) i);
+        return DistinctOps.makeDouble(this);
     }
 
     // Terminal ops from DoubleStream
@@ -196,7 +196,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.INT_AS_LONG, null);
     }
 
     @Override
@@ -212,7 +212,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.INT_AS_DOUBLE, null);
     }
 
     @Override
@@ -234,7 +234,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.INT_MAP, mapper);
     }
 
     @Override
@@ -251,7 +251,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.INT_TO_OBJ, mapper);
     }
 
     @Override
@@ -268,7 +268,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.INT_TO_LONG, mapper);
     }
 
     @Override
@@ -285,7 +285,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.INT_TO_DOUBLE, mapper);
     }
 
     @Override
@@ -346,7 +346,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.INT_FILTER, predicate);
     }
 
     @Override
@@ -364,7 +364,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.INT_PEEK, action);
     }
 
     // Stateful intermediate ops from IntStream
@@ -393,9 +393,7 @@ abstract class IntPipeline<E_IN>
 
     @Override
     public final IntStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires an int-specific map/set implementation.
-        return boxed().distinct().mapToInt(i -> i);
+        return DistinctOps.makeInt(this);
     }
 
     // Terminal ops from IntStream
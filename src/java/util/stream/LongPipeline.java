@@ -193,7 +193,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.LONG_AS_DOUBLE, null);
     }
 
     @Override
@@ -215,7 +215,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.LONG_MAP, mapper);
     }
 
     @Override
@@ -232,7 +232,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.LONG_TO_OBJ, mapper);
     }
 
     @Override
@@ -249,7 +249,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.LONG_TO_INT, mapper);
     }
 
     @Override
@@ -266,7 +266,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.LONG_TO_DOUBLE, mapper);
     }
 
     @Override
@@ -327,7 +327,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.LONG_FILTER, predicate);
     }
 
     @Override
@@ -345,7 +345,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.LONG_PEEK, action);
     }
 
     // Stateful intermediate ops from LongStream
@@ -374,9 +374,7 @@ abstract class LongPipeline<E_IN>
 
     @Override
     public final LongStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires a long-specific map/set implementation.
-        return boxed().distinct().mapToLong(i -> (long) i);
+        return DistinctOps.makeLong(this);
     }
 
     // Terminal ops from LongStream
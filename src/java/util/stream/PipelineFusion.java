@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.lang.reflect.Constructor;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jdk.internal.org.objectweb.asm.ClassWriter;
+import jdk.internal.org.objectweb.asm.Label;
+import jdk.internal.org.objectweb.asm.MethodVisitor;
+import jdk.internal.org.objectweb.asm.Opcodes;
+
+/**
+ * Compiler fusing runs of stateless intermediate operations into single
+ * sinks.  Each stage of an interpreted pipeline wraps the downstream sink
+ * in its own {@link Sink.ChainedReference} or {@link Sink.ChainedInt}
+ * (etc.), so that every element passes through one virtual {@code accept}
+ * call per stage; once a few operation types are in use these call sites
+ * become megamorphic and are no longer inlined.  When fusion is enabled,
+ * {@link AbstractPipeline#wrapSink} hands each maximal run of fusible
+ * stages (map, filter, peek and the primitive conversions, on any shape)
+ * to {@link #fuse}, which returns one sink applying the whole run inside
+ * a single generated {@code accept} method before calling the downstream
+ * sink.
+ *
+ * <p>Sink classes are spun with the JDK's internal ASM library and defined
+ * as VM-anonymous classes hosted by this class, in the same way as the
+ * classes generated by {@code InnerClassLambdaMetafactory}.  Classes depend
+ * only on the shape of a run, the sequence of its operation kinds, and are
+ * cached by that shape; the functions of a particular pipeline are passed
+ * to the constructor.  Runs that cannot be fused (too short or too long,
+ * too many distinct shapes, or any failure while generating a class) are
+ * left to the interpreted sink chain.
+ *
+ * <p>Fusion is turned on or off based on whether the system property
+ * {@code java.util.stream.fusion} is considered {@code true} according to
+ * {@link Boolean#getBoolean(String)}.
+ *
+ * @since 1.8
+ */
+final class PipelineFusion {
+    private static final String FUSION_PROPERTY = "java.util.stream.fusion";
+
+    /** Is pipeline fusion enabled? */
+    static final boolean ENABLED = AccessController.doPrivileged(
+            (PrivilegedAction<Boolean>) () -> Boolean.getBoolean(FUSION_PROPERTY));
+
+    /** The minimum number of stages worth fusing. */
+    static final int MIN_STAGES = 2;
+
+    /** The maximum number of stages fused into one sink. */
+    static final int MAX_STAGES = 32;
+
+    /**
+     * The maximum number of distinct shapes for which classes are
+     * generated; further shapes are interpreted.
+     */
+    private static final int MAX_SHAPES = 512;
+
+    // Operation kinds
+
+    /** Kind of a stage that cannot be fused. */
+    static final int NONE           = 0;
+
+    static final int REF_MAP        = 1;
+    static final int REF_FILTER     = 2;
+    static final int REF_PEEK       = 3;
+    static final int REF_TO_INT     = 4;
+    static final int REF_TO_LONG    = 5;
+    static final int REF_TO_DOUBLE  = 6;
+
+    static final int INT_MAP        = 7;
+    static final int INT_FILTER     = 8;
+    static final int INT_PEEK       = 9;
+    static final int INT_TO_LONG    = 10;
+    static final int INT_TO_DOUBLE  = 11;
+    static final int INT_TO_OBJ     = 12;
+    static final int INT_AS_LONG    = 13;
+    static final int INT_AS_DOUBLE  = 14;
+
+    static final int LONG_MAP       = 15;
+    static final int LONG_FILTER    = 16;
+    static final int LONG_PEEK      = 17;
+    static final int LONG_TO_INT    = 18;
+    static final int LONG_TO_DOUBLE = 19;
+    static final int LONG_TO_OBJ    = 20;
+    static final int LONG_AS_DOUBLE = 21;
+
+    static final int DOUBLE_MAP     = 22;
+    static final int DOUBLE_FILTER  = 23;
+    static final int DOUBLE_PEEK    = 24;
+    static final int DOUBLE_TO_INT  = 25;
+    static final int DOUBLE_TO_LONG = 26;
+    static final int DOUBLE_TO_OBJ  = 27;
+
+    private static final int KINDS  = 28;
+
+    /*
+     * Per-kind descriptions: the input and output element types, as
+     * descriptor characters ('L' for references), and the functional
+     * interface and method applied, or null for the primitive widening
+     * conversions.  Filters are the "test" methods and peeks the "accept"
+     * methods; everything else maps.
+     */
+    private static final char[] IN = new char[KINDS];
+    private static final char[] OUT = new char[KINDS];
+    private static final String[] OWNER = new String[KINDS];
+    private static final String[] METHOD = new String[KINDS];
+
+    private static void kind(int k, char in, char out, String owner, String method) {
+        IN[k] = in;
+        OUT[k] = out;
+        OWNER[k] = (owner == null) ? null : "java/util/function/" + owner;
+        METHOD[k] = method;
+    }
+
+    static {
+        kind(REF_MAP,        'L', 'L', "Function",             "apply");
+        kind(REF_FILTER,     'L', 'L', "Predicate",            "test");
+        kind(REF_PEEK,       'L', 'L', "Consumer",             "accept");
+        kind(REF_TO_INT,     'L', 'I', "ToIntFunction",        "applyAsInt");
+        kind(REF_TO_LONG,    'L', 'J', "ToLongFunction",       "applyAsLong");
+        kind(REF_TO_DOUBLE,  'L', 'D', "ToDoubleFunction",     "applyAsDouble");
+        kind(INT_MAP,        'I', 'I', "IntUnaryOperator",     "applyAsInt");
+        kind(INT_FILTER,     'I', 'I', "IntPredicate",         "test");
+        kind(INT_PEEK,       'I', 'I', "IntConsumer",          "accept");
+        kind(INT_TO_LONG,    'I', 'J', "IntToLongFunction",    "applyAsLong");
+        kind(INT_TO_DOUBLE,  'I', 'D', "IntToDoubleFunction",  "applyAsDouble");
+        kind(INT_TO_OBJ,     'I', 'L', "IntFunction",          "apply");
+        kind(INT_AS_LONG,    'I', 'J', null,                   null);
+        kind(INT_AS_DOUBLE,  'I', 'D', null,                   null);
+        kind(LONG_MAP,       'J', 'J', "LongUnaryOperator",    "applyAsLong");
+        kind(LONG_FILTER,    'J', 'J', "LongPredicate",        "test");
+        kind(LONG_PEEK,      'J', 'J', "LongConsumer",         "accept");
+        kind(LONG_TO_INT,    'J', 'I', "LongToIntFunction",    "applyAsInt");
+        kind(LONG_TO_DOUBLE, 'J', 'D', "LongToDoubleFunction", "applyAsDouble");
+        kind(LONG_TO_OBJ,    'J', 'L', "LongFunction",         "apply");
+        kind(LONG_AS_DOUBLE, 'J', 'D', null,                   null);
+        kind(DOUBLE_MAP,     'D', 'D', "DoubleUnaryOperator",  "applyAsDouble");
+        kind(DOUBLE_FILTER,  'D', 'D', "DoublePredicate",      "test");
+        kind(DOUBLE_PEEK,    'D', 'D', "DoubleConsumer",       "accept");
+        kind(DOUBLE_TO_INT,  'D', 'I', "DoubleToIntFunction",  "applyAsInt");
+        kind(DOUBLE_TO_LONG, 'D', 'J', "DoubleToLongFunction", "applyAsLong");
+        kind(DOUBLE_TO_OBJ,  'D', 'L', "DoubleFunction",       "apply");
+    }
+
+    /**
+     * Generated sink constructors, or FAILED, keyed by shape: the string
+     * whose characters are the kinds of the fused stages, first to last.
+     */
+    private static final ConcurrentHashMap<String, Object> shapes =
+        new ConcurrentHashMap<>();
+
+    /** Cache entry for a shape for which generation failed. */
+    private static final Object FAILED = new Object();
+
+    /** Sequence number for names of generated classes. */
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private PipelineFusion() { }
+
+    /**
+     * Returns a single sink performing the given run of stateless
+     * operations before passing their results to {@code downstream}, or
+     * null if the run cannot be fused.
+     *
+     * @param <T> the type of elements accepted by the first operation
+     * @param kinds the kinds of the operations, first to last
+     * @param functions the function of each operation, or null for
+     *        conversions
+     * @param downstream the sink receiving the results of the last
+     *        operation
+     * @return the fused sink, or null
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Sink<T> fuse(int[] kinds, Object[] functions, Sink<?> downstream) {
+        int n = kinds.length;
+        if (n < MIN_STAGES || n > MAX_STAGES)
+            return null;
+        char[] cs = new char[n];
+        for (int i = 0; i < n; ++i)
+            cs[i] = (char) kinds[i];
+        String shape = new String(cs);
+        Object c = shapes.get(shape);
+        if (c == null) {
+            if (shapes.size() >= MAX_SHAPES)
+                return null;
+            c = generate(kinds);
+            Object p = shapes.putIfAbsent(shape, c);
+            if (p != null)
+                c = p;
+        }
+        if (c == FAILED)
+            return null;
+        try {
+            return (Sink<T>) ((Constructor<?>) c).newInstance(downstream, functions);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Generates and defines the sink class for a shape, returning its
+     * accessible constructor, or FAILED.
+     */
+    private static Object generate(int[] kinds) {
+        try {
+            byte[] bytes = spin(kinds);
+            Class<?> k = U.defineAnonymousClass(PipelineFusion.class, bytes, null);
+            Constructor<?> c = k.getDeclaredConstructors()[0];
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    c.setAccessible(true);
+                    return null;
+                }
+            });
+            return c;
+        } catch (Throwable ex) { // fall back to interpretation
+            return FAILED;
+        }
+    }
+
+    // Class generation
+
+    private static final String SINK = "java/util/stream/Sink";
+    private static final String BASE = "java/util/stream/PipelineFusion$Fused";
+    private static final String OBJECT = "java/lang/Object";
+    private static final String INIT_DESC = "(L" + SINK + ";[L" + OBJECT + ";)V";
+
+    private static String type(char c) {
+        return (c == 'L') ? "L" + OBJECT + ";" : String.valueOf(c);
+    }
+
+    private static int size(char c) {
+        return (c == 'J' || c == 'D') ? 2 : 1;
+    }
+
+    private static int load(char c) {
+        return (c == 'L') ? Opcodes.ALOAD : (c == 'I') ? Opcodes.ILOAD :
+            (c == 'J') ? Opcodes.LLOAD : Opcodes.DLOAD;
+    }
+
+    private static int store(char c) {
+        return (c == 'L') ? Opcodes.ASTORE : (c == 'I') ? Opcodes.ISTORE :
+            (c == 'J') ? Opcodes.LSTORE : Opcodes.DSTORE;
+    }
+
+    private static String baseName(char c) {
+        return BASE + ((c == 'L') ? "Reference" : (c == 'I') ? "Int" :
+                       (c == 'J') ? "Long" : "Double");
+    }
+
+    /**
+     * Returns the class file of a sink class for the given shape.  The
+     * class extends the Fused base class for the input type, has one field
+     * per function, a constructor taking the downstream sink and the array
+     * of functions, and an {@code accept} method applying the stages in
+     * turn, holding each intermediate value in a fresh local.
+     */
+    private static byte[] spin(int[] kinds) {
+        int n = kinds.length;
+        char in = IN[kinds[0]];
+        String base = baseName(in);
+        boolean sized = true;
+        for (int k : kinds) {
+            if (k <= NONE || k >= KINDS)
+                throw new IllegalArgumentException();
+            if ("test".equals(METHOD[k]))
+                sized = false;
+        }
+        String name = BASE + "$" + counter.incrementAndGet();
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS |
+                                         ClassWriter.COMPUTE_FRAMES);
+        cw.visit(Opcodes.V1_8,
+                 Opcodes.ACC_SUPER | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC,
+                 name, null, base, null);
+        for (int i = 0; i < n; ++i) {
+            String owner = OWNER[kinds[i]];
+            if (owner != null)
+                cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL,
+                              "f" + i, "L" + owner + ";", null, null).visitEnd();
+        }
+
+        MethodVisitor mv = cw.visitMethod(0, "<init>", INIT_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitInsn(sized ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, base, "<init>",
+                           "(L" + SINK + ";Z)V", false);
+        for (int i = 0; i < n; ++i) {
+            String owner = OWNER[kinds[i]];
+            if (owner != null) {
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                mv.visitLdcInsn(i);
+                mv.visitInsn(Opcodes.AALOAD);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+                mv.visitFieldInsn(Opcodes.PUTFIELD, name, "f" + i, "L" + owner + ";");
+            }
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "accept",
+                            "(" + type(in) + ")V", null, null);
+        mv.visitCode();
+        Label skip = new Label();
+        char t = in;
+        int slot = 1, next = 1 + size(in);
+        for (int i = 0; i < n; ++i) {
+            int k = kinds[i];
+            String owner = OWNER[k], method = METHOD[k];
+            char out = OUT[k];
+            if (owner == null) {
+                mv.visitVarInsn(load(t), slot);
+                mv.visitInsn((t == 'J') ? Opcodes.L2D :
+                             (out == 'J') ? Opcodes.I2L : Opcodes.I2D);
+            }
+            else {
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitFieldInsn(Opcodes.GETFIELD, name, "f" + i, "L" + owner + ";");
+                mv.visitVarInsn(load(t), slot);
+                if ("test".equals(method)) {
+                    mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, owner, method,
+                                       "(" + type(t) + ")Z", true);
+                    mv.visitJumpInsn(Opcodes.IFEQ, skip);
+                    continue;
+                }
+                else if ("accept".equals(method)) {
+                    mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, owner, method,
+                                       "(" + type(t) + ")V", true);
+                    continue;
+                }
+                mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, owner, method,
+                                   "(" + type(t) + ")" + type(out), true);
+            }
+            mv.visitVarInsn(store(out), next);
+            t = out;
+            slot = next;
+            next += size(out);
+        }
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, base, "downstream", "L" + SINK + ";");
+        mv.visitVarInsn(load(t), slot);
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, SINK, "accept",
+                           "(" + type(t) + ")V", true);
+        mv.visitLabel(skip);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    // Base classes of generated sinks
+
+    /*
+     * The generated sinks extend these, inheriting the forwarding of
+     * begin, end and cancellationRequested.  A run including a filter
+     * cannot report the size of its output.
+     */
+
+    abstract static class FusedReference extends Sink.ChainedReference<Object, Object> {
+        final boolean sized;
+        FusedReference(Sink<Object> downstream, boolean sized) {
+            super(downstream);
+            this.sized = sized;
+        }
+        @Override
+        public void begin(long size) {
+            downstream.begin(sized ? size : -1);
+        }
+    }
+
+    abstract static class FusedInt extends Sink.ChainedInt<Object> {
+        final boolean sized;
+        FusedInt(Sink<Object> downstream, boolean sized) {
+            super(downstream);
+            this.sized = sized;
+        }
+        @Override
+        public void begin(long size) {
+            downstream.begin(sized ? size : -1);
+        }
+    }
+
+    abstract static class FusedLong extends Sink.ChainedLong<Object> {
+        final boolean sized;
+        FusedLong(Sink<Object> downstream, boolean sized) {
+            super(downstream);
+            this.sized = sized;
+        }
+        @Override
+        public void begin(long size) {
+            downstream.begin(sized ? size : -1);
+        }
+    }
+
+    abstract static class FusedDouble extends Sink.ChainedDouble<Object> {
+        final boolean sized;
+        FusedDouble(Sink<Object> downstream, boolean sized) {
+            super(downstream);
+            this.sized = sized;
+        }
+        @Override
+        public void begin(long size) {
+            downstream.begin(sized ? size : -1);
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U = sun.misc.Unsafe.getUnsafe();
+}
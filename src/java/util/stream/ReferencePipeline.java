@@ -26,6 +26,7 @@ package java.util.stream;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
@@ -176,7 +177,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.REF_FILTER, predicate);
     }
 
     @Override
@@ -194,7 +195,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.REF_MAP, mapper);
     }
 
     @Override
@@ -211,7 +212,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.REF_TO_INT, mapper);
     }
 
     @Override
@@ -228,7 +229,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.REF_TO_LONG, mapper);
     }
 
     @Override
@@ -245,7 +246,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.REF_TO_DOUBLE, mapper);
     }
 
     @Override
@@ -374,7 +375,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                     }
                 };
             }
-        };
+        }.fusible(PipelineFusion.REF_PEEK, action);
     }
 
     // Stateful intermediate operations from Stream
@@ -411,6 +412,26 @@ abstract class ReferencePipeline<P_IN, P_OUT>
             return SliceOps.makeRef(this, n, -1);
     }
 
+    @Override
+    public final Stream<P_OUT> takeWhile(Predicate<? super P_OUT> predicate) {
+        return WhileOps.makeTakeWhileRef(this, predicate);
+    }
+
+    @Override
+    public final Stream<P_OUT> dropWhile(Predicate<? super P_OUT> predicate) {
+        return WhileOps.makeDropWhileRef(this, predicate);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> batch(int size) {
+        return WindowOps.makeBatch(this, size);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> window(int size, int step) {
+        return WindowOps.makeWindow(this, size, step);
+    }
+
     // Terminal operations from Stream
 
     @Override
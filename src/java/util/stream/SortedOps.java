@@ -29,6 +29,8 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.IntFunction;
 
 
@@ -153,10 +155,9 @@ final class SortedOps {
                 return helper.evaluate(spliterator, false, generator);
             }
             else {
-                // @@@ Weak two-pass parallel implementation; parallel collect, parallel sort
-                T[] flattenedData = helper.evaluate(spliterator, true, generator).asArray(generator);
-                Arrays.parallelSort(flattenedData, comparator);
-                return Nodes.node(flattenedData);
+                // Parallel collect, then per-leaf sort and parallel merge
+                return Nodes.node(sortNode(helper.evaluate(spliterator, false, generator),
+                                           comparator, generator));
             }
         }
     }
@@ -190,12 +191,8 @@ final class SortedOps {
                 return helper.evaluate(spliterator, false, generator);
             }
             else {
-                Node.OfInt n = (Node.OfInt) helper.evaluate(spliterator, true, generator);
-
-                int[] content = n.asPrimitiveArray();
-                Arrays.parallelSort(content);
-
-                return Nodes.node(content);
+                Node.OfInt n = (Node.OfInt) helper.evaluate(spliterator, false, generator);
+                return Nodes.node(sortNode(n));
             }
         }
     }
@@ -229,12 +226,8 @@ final class SortedOps {
                 return helper.evaluate(spliterator, false, generator);
             }
             else {
-                Node.OfLong n = (Node.OfLong) helper.evaluate(spliterator, true, generator);
-
-                long[] content = n.asPrimitiveArray();
-                Arrays.parallelSort(content);
-
-                return Nodes.node(content);
+                Node.OfLong n = (Node.OfLong) helper.evaluate(spliterator, false, generator);
+                return Nodes.node(sortNode(n));
             }
         }
     }
@@ -268,13 +261,749 @@ final class SortedOps {
                 return helper.evaluate(spliterator, false, generator);
             }
             else {
-                Node.OfDouble n = (Node.OfDouble) helper.evaluate(spliterator, true, generator);
+                Node.OfDouble n = (Node.OfDouble) helper.evaluate(spliterator, false, generator);
+                return Nodes.node(sortNode(n));
+            }
+        }
+    }
+
+    // Parallel sorting of evaluated nodes
+
+    /*
+     * A parallel sorted() first evaluates the upstream into a conc-tree
+     * of nodes, one leaf per leaf task of the evaluation.  Rather than
+     * flattening that tree into one array and then calling
+     * Arrays.parallelSort (a full extra copy, followed by a sort that
+     * ignores the leaf structure), the sort tasks below sort each leaf
+     * array in place and merge sibling runs pairwise up the tree.  The
+     * merge tasks follow ArraysParallelSortHelpers.Merger, which is
+     * private to java.util, generalized to runs held in two different
+     * arrays so that leaves need not be copied before merging.  A
+     * pipeline whose evaluation produced a single leaf has no runs to
+     * merge, so a large leaf is handed to Arrays.parallelSort.
+     */
+
+    /**
+     * The minimum array length below which a subtree is flattened and
+     * sorted sequentially, as in Arrays.parallelSort.
+     */
+    private static final int MIN_SORT_GRAN = 1 << 13;
+
+    /**
+     * Returns the granularity for sorting {@code n} elements: subtrees
+     * this small are sorted sequentially.
+     */
+    private static int sortGranularity(int n) {
+        int p = ForkJoinPool.getCommonPoolParallelism();
+        int g = n / (p << 2);
+        return (g <= MIN_SORT_GRAN) ? MIN_SORT_GRAN : g;
+    }
+
+    /**
+     * Returns the number of elements of a node to be sorted, checking
+     * that they fit in an array.
+     */
+    private static int sortSize(Node<?> node) {
+        long size = node.count();
+        if (size >= Nodes.MAX_ARRAY_SIZE)
+            throw new IllegalArgumentException(Nodes.BAD_SIZE);
+        return (int) size;
+    }
+
+    /**
+     * Returns true if sorting the given tree needs a workspace array in
+     * addition to the result array, that is, if some merge has an
+     * internal node as an input.
+     */
+    private static boolean needsWorkspace(Node<?> node, int gran) {
+        for (int i = 0; i < node.getChildCount(); i++) {
+            Node<?> c = node.getChild(i);
+            if (c.getChildCount() == 2 && c.count() > gran)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sorts the elements of a node produced by parallel evaluation.
+     *
+     * @return an array holding the sorted elements
+     */
+    static <T> T[] sortNode(Node<T> node, Comparator<? super T> comparator,
+                            IntFunction<T[]> generator) {
+        int n = sortSize(node), gran = sortGranularity(n);
+        if (node.getChildCount() != 2 || n <= gran) {
+            T[] a = node.asArray(generator);
+            if (n <= gran)
+                Arrays.sort(a, comparator);
+            else
+                Arrays.parallelSort(a, comparator);
+            return a;
+        }
+        T[] dst = generator.apply(n);
+        @SuppressWarnings("unchecked")
+        T[] alt = needsWorkspace(node, gran) ? (T[]) new Object[n] : null;
+        new RefSortTask<>(null, node, dst, alt, 0, gran,
+                          comparator, generator).invoke();
+        return dst;
+    }
+
+    /**
+     * Sorts the elements of a int node produced by parallel evaluation.
+     *
+     * @return an array holding the sorted elements
+     */
+    static int[] sortNode(Node.OfInt node) {
+        int n = sortSize(node), gran = sortGranularity(n);
+        if (node.getChildCount() != 2 || n <= gran) {
+            int[] a = node.asPrimitiveArray();
+            if (n <= gran)
+                Arrays.sort(a);
+            else
+                Arrays.parallelSort(a);
+            return a;
+        }
+        int[] dst = new int[n];
+        int[] alt = needsWorkspace(node, gran) ? new int[n] : null;
+        new IntSortTask(null, node, dst, alt, 0, gran).invoke();
+        return dst;
+    }
+
+    /**
+     * Sorts the elements of a long node produced by parallel evaluation.
+     *
+     * @return an array holding the sorted elements
+     */
+    static long[] sortNode(Node.OfLong node) {
+        int n = sortSize(node), gran = sortGranularity(n);
+        if (node.getChildCount() != 2 || n <= gran) {
+            long[] a = node.asPrimitiveArray();
+            if (n <= gran)
+                Arrays.sort(a);
+            else
+                Arrays.parallelSort(a);
+            return a;
+        }
+        long[] dst = new long[n];
+        long[] alt = needsWorkspace(node, gran) ? new long[n] : null;
+        new LongSortTask(null, node, dst, alt, 0, gran).invoke();
+        return dst;
+    }
+
+    /**
+     * Sorts the elements of a double node produced by parallel evaluation.
+     *
+     * @return an array holding the sorted elements
+     */
+    static double[] sortNode(Node.OfDouble node) {
+        int n = sortSize(node), gran = sortGranularity(n);
+        if (node.getChildCount() != 2 || n <= gran) {
+            double[] a = node.asPrimitiveArray();
+            if (n <= gran)
+                Arrays.sort(a);
+            else
+                Arrays.parallelSort(a);
+            return a;
+        }
+        double[] dst = new double[n];
+        double[] alt = needsWorkspace(node, gran) ? new double[n] : null;
+        new DoubleSortTask(null, node, dst, alt, 0, gran).invoke();
+        return dst;
+    }
+
+    /**
+     * Trigger for the merge of a sort task, completed when both of the
+     * task's children have completed.  As in ArraysParallelSortHelpers,
+     * the relay has no completer of its own; an exception in a child is
+     * forwarded to the sort task so that it reaches the root.
+     */
+    @SuppressWarnings("serial")
+    static final class MergeRelay extends CountedCompleter<Void> {
+        final CountedCompleter<?> task;
+        MergeRelay(CountedCompleter<?> task) {
+            super(null, 1);
+            this.task = task;
+        }
+        @Override
+        public void compute() { }
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (task instanceof RefSortTask)
+                ((RefSortTask<?>) task).merge();
+            else if (task instanceof IntSortTask)
+                ((IntSortTask) task).merge();
+            else if (task instanceof LongSortTask)
+                ((LongSortTask) task).merge();
+            else
+                ((DoubleSortTask) task).merge();
+        }
+        @Override
+        public boolean onExceptionalCompletion(Throwable ex,
+                                               CountedCompleter<?> caller) {
+            task.completeExceptionally(ex);
+            return false;
+        }
+    }
+
+    /**
+     * Parallel sort task for the conc-tree of a reference node: a leaf is
+     * sorted in place, and an internal node merges the sorted runs of
+     * its two children into its target array.  Children target the
+     * other array, so merges alternate between the result array and a
+     * single workspace array however unbalanced the tree, while leaf
+     * runs are merged straight out of the leaf arrays.  Completion of
+     * both children, signalled through a MergeRelay, starts the merge,
+     * whose completion in turn completes this task.
+     */
+    @SuppressWarnings("serial")
+    static final class RefSortTask<T> extends CountedCompleter<Void> {
+        final Node<T> node;
+        final T[] dst, alt;          // target, and the children's target
+        final int offset, gran;
+        final Comparator<? super T> comparator;
+        final IntFunction<T[]> generator;
+        RefSortTask<T> left, right;
+        T[] result;                  // sorted run on completion
+        int base;
+
+        RefSortTask(CountedCompleter<?> par, Node<T> node, T[] dst, T[] alt,
+                    int offset, int gran,
+                    Comparator<? super T> comparator, IntFunction<T[]> generator) {
+            super(par);
+            this.node = node; this.dst = dst; this.alt = alt;
+            this.offset = offset; this.gran = gran;
+            this.comparator = comparator; this.generator = generator;
+        }
+
+        @Override
+        public void compute() {
+            Node<T> n = node;
+            if (n.getChildCount() != 2 || n.count() <= gran) {
+                T[] a = n.asArray(generator);
+                Arrays.sort(a, comparator);
+                result = a;
+                base = 0;
+                tryComplete();
+            }
+            else {
+                MergeRelay relay = new MergeRelay(this);
+                Node<T> l = n.getChild(0), r = n.getChild(1);
+                left = new RefSortTask<>(relay, l, alt, dst, offset, gran,
+                                         comparator, generator);
+                right = new RefSortTask<>(relay, r, alt, dst,
+                                          offset + (int) l.count(), gran,
+                                          comparator, generator);
+                right.fork();
+                left.compute();
+            }
+        }
+
+        /** Invoked by the relay once both children have completed. */
+        void merge() {
+            RefSortTask<T> l = left, r = right;
+            left = right = null;
+            result = dst;
+            base = offset;
+            new RefMerger<>(this, l.result, l.base, (int) l.node.count(),
+                           r.result, r.base, (int) r.node.count(),
+                           dst, offset, gran, comparator).compute();
+        }
+    }
+
+    /**
+     * Merges two sorted runs, which may lie in different arrays, into
+     * a target array, splitting large merges in parallel as does
+     * {@code ArraysParallelSortHelpers}.
+     */
+    @SuppressWarnings("serial")
+    static final class RefMerger<T> extends CountedCompleter<Void> {
+        final T[] la, ra, w;
+        final int lbase, lsize, rbase, rsize, wbase, gran;
+        final Comparator<? super T> comparator;
+
+        RefMerger(CountedCompleter<?> par, T[] la, int lbase, int lsize,
+                  T[] ra, int rbase, int rsize, T[] w, int wbase, int gran,
+                  Comparator<? super T> comparator) {
+            super(par);
+            this.la = la; this.lbase = lbase; this.lsize = lsize;
+            this.ra = ra; this.rbase = rbase; this.rsize = rsize;
+            this.w = w; this.wbase = wbase; this.gran = gran;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public void compute() {
+            Comparator<? super T> c = this.comparator;
+            T[] la = this.la, ra = this.ra, w = this.w; // localize all params
+            int lb = this.lbase, ln = this.lsize, rb = this.rbase,
+                rn = this.rsize, k = this.wbase, g = this.gran;
+            for (int lh, rh;;) {  // split larger, find point in smaller
+                if (ln >= rn) {
+                    if (ln <= g)
+                        break;
+                    rh = rn;
+                    T split = la[(lh = ln >>> 1) + lb];
+                    for (int lo = 0; lo < rh; ) {
+                        int rm = (lo + rh) >>> 1;
+                        if (c.compare(split, ra[rm + rb]) <= 0)
+                            rh = rm;
+                        else
+                            lo = rm + 1;
+                    }
+                }
+                else {
+                    if (rn <= g)
+                        break;
+                    lh = ln;
+                    T split = ra[(rh = rn >>> 1) + rb];
+                    for (int lo = 0; lo < lh; ) {
+                        int lm = (lo + lh) >>> 1;
+                        if (c.compare(split, la[lm + lb]) <= 0)
+                            lh = lm;
+                        else
+                            lo = lm + 1;
+                    }
+                }
+                RefMerger<T> m = new RefMerger<>(this, la, lb + lh, ln - lh,
+                                              ra, rb + rh, rn - rh,
+                                              w, k + lh + rh, g, c);
+                rn = rh;
+                ln = lh;
+                addToPendingCount(1);
+                m.fork();
+            }
+
+            int lf = lb + ln, rf = rb + rn; // index bounds
+            while (lb < lf && rb < rf) {
+                T t, al, ar;
+                if (c.compare((al = la[lb]), (ar = ra[rb])) <= 0) {
+                    lb++; t = al;
+                }
+                else {
+                    rb++; t = ar;
+                }
+                w[k++] = t;
+            }
+            if (rb < rf)
+                System.arraycopy(ra, rb, w, k, rf - rb);
+            else if (lb < lf)
+                System.arraycopy(la, lb, w, k, lf - lb);
+
+            tryComplete();
+        }
+    }
+
+    /**
+     * Parallel sort task for the conc-tree of a int node: a leaf is
+     * sorted in place, and an internal node merges the sorted runs of
+     * its two children into its target array.  Children target the
+     * other array, so merges alternate between the result array and a
+     * single workspace array however unbalanced the tree, while leaf
+     * runs are merged straight out of the leaf arrays.  Completion of
+     * both children, signalled through a MergeRelay, starts the merge,
+     * whose completion in turn completes this task.
+     */
+    @SuppressWarnings("serial")
+    static final class IntSortTask extends CountedCompleter<Void> {
+        final Node.OfInt node;
+        final int[] dst, alt;          // target, and the children's target
+        final int offset, gran;
+        IntSortTask left, right;
+        int[] result;                  // sorted run on completion
+        int base;
+
+        IntSortTask(CountedCompleter<?> par, Node.OfInt node,
+                 int[] dst, int[] alt, int offset, int gran) {
+            super(par);
+            this.node = node; this.dst = dst; this.alt = alt;
+            this.offset = offset; this.gran = gran;
+        }
+
+        @Override
+        public void compute() {
+            Node.OfInt n = node;
+            if (n.getChildCount() != 2 || n.count() <= gran) {
+                int[] a = n.asPrimitiveArray();
+                Arrays.sort(a);
+                result = a;
+                base = 0;
+                tryComplete();
+            }
+            else {
+                MergeRelay relay = new MergeRelay(this);
+                Node.OfInt l = n.getChild(0), r = n.getChild(1);
+                left = new IntSortTask(relay, l, alt, dst, offset, gran);
+                right = new IntSortTask(relay, r, alt, dst,
+                                       offset + (int) l.count(), gran);
+                right.fork();
+                left.compute();
+            }
+        }
 
-                double[] content = n.asPrimitiveArray();
-                Arrays.parallelSort(content);
+        /** Invoked by the relay once both children have completed. */
+        void merge() {
+            IntSortTask l = left, r = right;
+            left = right = null;
+            result = dst;
+            base = offset;
+            new IntMerger(this, l.result, l.base, (int) l.node.count(),
+                           r.result, r.base, (int) r.node.count(),
+                           dst, offset, gran).compute();
+        }
+    }
+
+    /**
+     * Merges two sorted runs, which may lie in different arrays, into
+     * a target array, splitting large merges in parallel as does
+     * {@code ArraysParallelSortHelpers}.
+     */
+    @SuppressWarnings("serial")
+    static final class IntMerger extends CountedCompleter<Void> {
+        final int[] la, ra, w;
+        final int lbase, lsize, rbase, rsize, wbase, gran;
+
+        IntMerger(CountedCompleter<?> par, int[] la, int lbase, int lsize,
+                 int[] ra, int rbase, int rsize, int[] w, int wbase, int gran) {
+            super(par);
+            this.la = la; this.lbase = lbase; this.lsize = lsize;
+            this.ra = ra; this.rbase = rbase; this.rsize = rsize;
+            this.w = w; this.wbase = wbase; this.gran = gran;
+        }
 
-                return Nodes.node(content);
+        @Override
+        public void compute() {
+            int[] la = this.la, ra = this.ra, w = this.w; // localize all params
+            int lb = this.lbase, ln = this.lsize, rb = this.rbase,
+                rn = this.rsize, k = this.wbase, g = this.gran;
+            for (int lh, rh;;) {  // split larger, find point in smaller
+                if (ln >= rn) {
+                    if (ln <= g)
+                        break;
+                    rh = rn;
+                    int split = la[(lh = ln >>> 1) + lb];
+                    for (int lo = 0; lo < rh; ) {
+                        int rm = (lo + rh) >>> 1;
+                        if (split <= ra[rm + rb])
+                            rh = rm;
+                        else
+                            lo = rm + 1;
+                    }
+                }
+                else {
+                    if (rn <= g)
+                        break;
+                    lh = ln;
+                    int split = ra[(rh = rn >>> 1) + rb];
+                    for (int lo = 0; lo < lh; ) {
+                        int lm = (lo + lh) >>> 1;
+                        if (split <= la[lm + lb])
+                            lh = lm;
+                        else
+                            lo = lm + 1;
+                    }
+                }
+                IntMerger m = new IntMerger(this, la, lb + lh, ln - lh,
+                                              ra, rb + rh, rn - rh,
+                                              w, k + lh + rh, g);
+                rn = rh;
+                ln = lh;
+                addToPendingCount(1);
+                m.fork();
+            }
+
+            int lf = lb + ln, rf = rb + rn; // index bounds
+            while (lb < lf && rb < rf) {
+                int t, al, ar;
+                if ((al = la[lb]) <= (ar = ra[rb])) {
+                    lb++; t = al;
+                }
+                else {
+                    rb++; t = ar;
+                }
+                w[k++] = t;
+            }
+            if (rb < rf)
+                System.arraycopy(ra, rb, w, k, rf - rb);
+            else if (lb < lf)
+                System.arraycopy(la, lb, w, k, lf - lb);
+
+            tryComplete();
+        }
+    }
+
+    /**
+     * Parallel sort task for the conc-tree of a long node: a leaf is
+     * sorted in place, and an internal node merges the sorted runs of
+     * its two children into its target array.  Children target the
+     * other array, so merges alternate between the result array and a
+     * single workspace array however unbalanced the tree, while leaf
+     * runs are merged straight out of the leaf arrays.  Completion of
+     * both children, signalled through a MergeRelay, starts the merge,
+     * whose completion in turn completes this task.
+     */
+    @SuppressWarnings("serial")
+    static final class LongSortTask extends CountedCompleter<Void> {
+        final Node.OfLong node;
+        final long[] dst, alt;          // target, and the children's target
+        final int offset, gran;
+        LongSortTask left, right;
+        long[] result;                  // sorted run on completion
+        int base;
+
+        LongSortTask(CountedCompleter<?> par, Node.OfLong node,
+                 long[] dst, long[] alt, int offset, int gran) {
+            super(par);
+            this.node = node; this.dst = dst; this.alt = alt;
+            this.offset = offset; this.gran = gran;
+        }
+
+        @Override
+        public void compute() {
+            Node.OfLong n = node;
+            if (n.getChildCount() != 2 || n.count() <= gran) {
+                long[] a = n.asPrimitiveArray();
+                Arrays.sort(a);
+                result = a;
+                base = 0;
+                tryComplete();
             }
+            else {
+                MergeRelay relay = new MergeRelay(this);
+                Node.OfLong l = n.getChild(0), r = n.getChild(1);
+                left = new LongSortTask(relay, l, alt, dst, offset, gran);
+                right = new LongSortTask(relay, r, alt, dst,
+                                       offset + (int) l.count(), gran);
+                right.fork();
+                left.compute();
+            }
+        }
+
+        /** Invoked by the relay once both children have completed. */
+        void merge() {
+            LongSortTask l = left, r = right;
+            left = right = null;
+            result = dst;
+            base = offset;
+            new LongMerger(this, l.result, l.base, (int) l.node.count(),
+                           r.result, r.base, (int) r.node.count(),
+                           dst, offset, gran).compute();
+        }
+    }
+
+    /**
+     * Merges two sorted runs, which may lie in different arrays, into
+     * a target array, splitting large merges in parallel as does
+     * {@code ArraysParallelSortHelpers}.
+     */
+    @SuppressWarnings("serial")
+    static final class LongMerger extends CountedCompleter<Void> {
+        final long[] la, ra, w;
+        final int lbase, lsize, rbase, rsize, wbase, gran;
+
+        LongMerger(CountedCompleter<?> par, long[] la, int lbase, int lsize,
+                 long[] ra, int rbase, int rsize, long[] w, int wbase, int gran) {
+            super(par);
+            this.la = la; this.lbase = lbase; this.lsize = lsize;
+            this.ra = ra; this.rbase = rbase; this.rsize = rsize;
+            this.w = w; this.wbase = wbase; this.gran = gran;
+        }
+
+        @Override
+        public void compute() {
+            long[] la = this.la, ra = this.ra, w = this.w; // localize all params
+            int lb = this.lbase, ln = this.lsize, rb = this.rbase,
+                rn = this.rsize, k = this.wbase, g = this.gran;
+            for (int lh, rh;;) {  // split larger, find point in smaller
+                if (ln >= rn) {
+                    if (ln <= g)
+                        break;
+                    rh = rn;
+                    long split = la[(lh = ln >>> 1) + lb];
+                    for (int lo = 0; lo < rh; ) {
+                        int rm = (lo + rh) >>> 1;
+                        if (split <= ra[rm + rb])
+                            rh = rm;
+                        else
+                            lo = rm + 1;
+                    }
+                }
+                else {
+                    if (rn <= g)
+                        break;
+                    lh = ln;
+                    long split = ra[(rh = rn >>> 1) + rb];
+                    for (int lo = 0; lo < lh; ) {
+                        int lm = (lo + lh) >>> 1;
+                        if (split <= la[lm + lb])
+                            lh = lm;
+                        else
+                            lo = lm + 1;
+                    }
+                }
+                LongMerger m = new LongMerger(this, la, lb + lh, ln - lh,
+                                              ra, rb + rh, rn - rh,
+                                              w, k + lh + rh, g);
+                rn = rh;
+                ln = lh;
+                addToPendingCount(1);
+                m.fork();
+            }
+
+            int lf = lb + ln, rf = rb + rn; // index bounds
+            while (lb < lf && rb < rf) {
+                long t, al, ar;
+                if ((al = la[lb]) <= (ar = ra[rb])) {
+                    lb++; t = al;
+                }
+                else {
+                    rb++; t = ar;
+                }
+                w[k++] = t;
+            }
+            if (rb < rf)
+                System.arraycopy(ra, rb, w, k, rf - rb);
+            else if (lb < lf)
+                System.arraycopy(la, lb, w, k, lf - lb);
+
+            tryComplete();
+        }
+    }
+
+    /**
+     * Parallel sort task for the conc-tree of a double node: a leaf is
+     * sorted in place, and an internal node merges the sorted runs of
+     * its two children into its target array.  Children target the
+     * other array, so merges alternate between the result array and a
+     * single workspace array however unbalanced the tree, while leaf
+     * runs are merged straight out of the leaf arrays.  Completion of
+     * both children, signalled through a MergeRelay, starts the merge,
+     * whose completion in turn completes this task.
+     */
+    @SuppressWarnings("serial")
+    static final class DoubleSortTask extends CountedCompleter<Void> {
+        final Node.OfDouble node;
+        final double[] dst, alt;          // target, and the children's target
+        final int offset, gran;
+        DoubleSortTask left, right;
+        double[] result;                  // sorted run on completion
+        int base;
+
+        DoubleSortTask(CountedCompleter<?> par, Node.OfDouble node,
+                 double[] dst, double[] alt, int offset, int gran) {
+            super(par);
+            this.node = node; this.dst = dst; this.alt = alt;
+            this.offset = offset; this.gran = gran;
+        }
+
+        @Override
+        public void compute() {
+            Node.OfDouble n = node;
+            if (n.getChildCount() != 2 || n.count() <= gran) {
+                double[] a = n.asPrimitiveArray();
+                Arrays.sort(a);
+                result = a;
+                base = 0;
+                tryComplete();
+            }
+            else {
+                MergeRelay relay = new MergeRelay(this);
+                Node.OfDouble l = n.getChild(0), r = n.getChild(1);
+                left = new DoubleSortTask(relay, l, alt, dst, offset, gran);
+                right = new DoubleSortTask(relay, r, alt, dst,
+                                       offset + (int) l.count(), gran);
+                right.fork();
+                left.compute();
+            }
+        }
+
+        /** Invoked by the relay once both children have completed. */
+        void merge() {
+            DoubleSortTask l = left, r = right;
+            left = right = null;
+            result = dst;
+            base = offset;
+            new DoubleMerger(this, l.result, l.base, (int) l.node.count(),
+                           r.result, r.base, (int) r.node.count(),
+                           dst, offset, gran).compute();
+        }
+    }
+
+    /**
+     * Merges two sorted runs, which may lie in different arrays, into
+     * a target array, splitting large merges in parallel as does
+     * {@code ArraysParallelSortHelpers}.
+     */
+    @SuppressWarnings("serial")
+    static final class DoubleMerger extends CountedCompleter<Void> {
+        final double[] la, ra, w;
+        final int lbase, lsize, rbase, rsize, wbase, gran;
+
+        DoubleMerger(CountedCompleter<?> par, double[] la, int lbase, int lsize,
+                 double[] ra, int rbase, int rsize, double[] w, int wbase, int gran) {
+            super(par);
+            this.la = la; this.lbase = lbase; this.lsize = lsize;
+            this.ra = ra; this.rbase = rbase; this.rsize = rsize;
+            this.w = w; this.wbase = wbase; this.gran = gran;
+        }
+
+        @Override
+        public void compute() {
+            double[] la = this.la, ra = this.ra, w = this.w; // localize all params
+            int lb = this.lbase, ln = this.lsize, rb = this.rbase,
+                rn = this.rsize, k = this.wbase, g = this.gran;
+            for (int lh, rh;;) {  // split larger, find point in smaller
+                if (ln >= rn) {
+                    if (ln <= g)
+                        break;
+                    rh = rn;
+                    double split = la[(lh = ln >>> 1) + lb];
+                    for (int lo = 0; lo < rh; ) {
+                        int rm = (lo + rh) >>> 1;
+                        if (Double.compare(split, ra[rm + rb]) <= 0)
+                            rh = rm;
+                        else
+                            lo = rm + 1;
+                    }
+                }
+                else {
+                    if (rn <= g)
+                        break;
+                    lh = ln;
+                    double split = ra[(rh = rn >>> 1) + rb];
+                    for (int lo = 0; lo < lh; ) {
+                        int lm = (lo + lh) >>> 1;
+                        if (Double.compare(split, la[lm + lb]) <= 0)
+                            lh = lm;
+                        else
+                            lo = lm + 1;
+                    }
+                }
+                DoubleMerger m = new DoubleMerger(this, la, lb + lh, ln - lh,
+                                              ra, rb + rh, rn - rh,
+                                              w, k + lh + rh, g);
+                rn = rh;
+                ln = lh;
+                addToPendingCount(1);
+                m.fork();
+            }
+
+            int lf = lb + ln, rf = rb + rn; // index bounds
+            while (lb < lf && rb < rf) {
+                double t, al, ar;
+                if (Double.compare((al = la[lb]), (ar = ra[rb])) <= 0) {
+                    lb++; t = al;
+                }
+                else {
+                    rb++; t = ar;
+                }
+                w[k++] = t;
+            }
+            if (rb < rf)
+                System.arraycopy(ra, rb, w, k, rf - rb);
+            else if (lb < lf)
+                System.arraycopy(la, lb, w, k, lf - lb);
+
+            tryComplete();
         }
     }
 
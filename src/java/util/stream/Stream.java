@@ -31,6 +31,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
@@ -478,6 +479,203 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     Stream<T> skip(long n);
 
+    /**
+     * Returns, if this stream is ordered, a stream consisting of the longest
+     * prefix of elements taken from this stream that match the given
+     * predicate.  Otherwise returns, if this stream is unordered, a stream
+     * consisting of a subset of elements taken from this stream that match
+     * the given predicate.
+     *
+     * <p>If this stream is ordered then the longest prefix is a contiguous
+     * sequence of elements of this stream that match the given predicate.
+     * The first element of the sequence is the first element of this
+     * stream, and the element immediately following the last element of
+     * the sequence does not match the given predicate.
+     *
+     * <p>If this stream is unordered, and some (but not all) elements of
+     * this stream match the given predicate, then the behavior of this
+     * operation is nondeterministic; it is free to take any subset of
+     * matching elements (which includes the empty set).
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">short-circuiting
+     * stateful intermediate operation</a>.
+     *
+     * @implSpec
+     * The default implementation obtains the {@link #spliterator() spliterator}
+     * of this stream, wraps that spliterator so as to support the semantics
+     * of this operation on traversal, and returns a new stream associated
+     * with the wrapped spliterator.  The returned stream preserves the
+     * execution characteristics of this stream (namely parallel or
+     * sequential execution as per {@link #isParallel()}) but the wrapped
+     * spliterator may choose to not support splitting.  When the returned
+     * stream is closed, the close handlers for both the returned and this
+     * stream are invoked.
+     *
+     * @apiNote
+     * While {@code takeWhile()} is generally a cheap operation on sequential
+     * stream pipelines, it can be quite expensive on ordered parallel
+     * pipelines, since the operation is constrained to return not just any
+     * valid prefix, but the longest prefix of elements in the encounter
+     * order.  Ordered parallel pipelines cancel the evaluation of later
+     * parts of the stream as soon as the predicate fails on an earlier part.
+     *
+     * @param predicate a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                  <a href="package-summary.html#Statelessness">stateless</a>
+     *                  predicate to apply to elements to determine the longest
+     *                  prefix of elements.
+     * @return the new stream
+     * @since 1.8
+     */
+    default Stream<T> takeWhile(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        return StreamSupport.stream(
+                new WhileOps.UnorderedWhileSpliterator<>(spliterator(), predicate, true, true),
+                isParallel()).onClose(this::close);
+    }
+
+    /**
+     * Returns, if this stream is ordered, a stream consisting of the remaining
+     * elements of this stream after dropping the longest prefix of elements
+     * that match the given predicate.  Otherwise returns, if this stream is
+     * unordered, a stream consisting of the remaining elements of this stream
+     * after dropping a subset of elements that match the given predicate.
+     *
+     * <p>If this stream is ordered then the longest prefix is a contiguous
+     * sequence of elements of this stream that match the given predicate.
+     * The first element of the sequence is the first element of this
+     * stream, and the element immediately following the last element of
+     * the sequence does not match the given predicate.
+     *
+     * <p>If this stream is unordered, and some (but not all) elements of
+     * this stream match the given predicate, then the behavior of this
+     * operation is nondeterministic; it is free to drop any subset of
+     * matching elements (which includes the empty set).
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @implSpec
+     * The default implementation obtains the {@link #spliterator() spliterator}
+     * of this stream, wraps that spliterator so as to support the semantics
+     * of this operation on traversal, and returns a new stream associated
+     * with the wrapped spliterator.  The returned stream preserves the
+     * execution characteristics of this stream (namely parallel or
+     * sequential execution as per {@link #isParallel()}) but the wrapped
+     * spliterator may choose to not support splitting.  When the returned
+     * stream is closed, the close handlers for both the returned and this
+     * stream are invoked.
+     *
+     * @param predicate a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                  <a href="package-summary.html#Statelessness">stateless</a>
+     *                  predicate to apply to elements to determine the longest
+     *                  prefix of elements.
+     * @return the new stream
+     * @since 1.8
+     */
+    default Stream<T> dropWhile(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        return StreamSupport.stream(
+                new WhileOps.UnorderedWhileSpliterator<>(spliterator(), predicate, false, true),
+                isParallel()).onClose(this::close);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped
+     * into consecutive, non-overlapping batches of {@code size} elements,
+     * in encounter order if this stream is ordered.  Each batch is a newly
+     * allocated, modifiable {@code List}; all batches but the last contain
+     * exactly {@code size} elements, and the last contains the remaining
+     * elements.
+     *
+     * <p>Batches are produced incrementally: a sequential pipeline emits each
+     * batch downstream as soon as it is complete, and holds at most one
+     * batch at a time, so that this operation may be used on streams too
+     * long to be collected.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @implSpec
+     * The default implementation obtains the {@link #spliterator() spliterator}
+     * of this stream, wraps that spliterator so as to produce batches on
+     * traversal, and returns a new stream associated with the wrapped
+     * spliterator, preserving the execution characteristics of this stream.
+     * When the returned stream is closed, the close handlers for both the
+     * returned and this stream are invoked.
+     *
+     * @apiNote
+     * In ordered parallel pipelines whose size is known the batching
+     * spliterator splits at batch boundaries.  Otherwise parallel evaluation
+     * proceeds by buffering runs of complete batches, as for sources of
+     * unknown size.
+     *
+     * <pre>{@code
+     *     orders.stream()
+     *           .batch(500)
+     *           .forEach(repository::insertAll);
+     * }</pre>
+     *
+     * @param size the number of elements in each batch
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 1.8
+     */
+    default Stream<List<T>> batch(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Batch size must be positive: " + size);
+        return StreamSupport.stream(
+                new WindowOps.BatchSpliterator<>(spliterator(), size, null),
+                isParallel()).onClose(this::close);
+    }
+
+    /**
+     * Returns a stream consisting of the sliding windows over the elements
+     * of this stream: the {@code size} consecutive elements starting at each
+     * multiple of {@code step} in encounter order, for as long as a full
+     * window remains.  Successive windows overlap if {@code step} is less
+     * than {@code size}, and elements between windows are skipped if it is
+     * greater.  Each window is a newly allocated, modifiable {@code List}.
+     * A stream of fewer than {@code size} elements has no windows.
+     *
+     * <p>A sequential pipeline holds only the elements of the current window
+     * and emits each window downstream as soon as it is complete.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @implSpec
+     * The default implementation obtains the {@link #spliterator() spliterator}
+     * of this stream, wraps that spliterator so as to produce windows on
+     * traversal, and returns a new stream associated with the wrapped
+     * spliterator, preserving the execution characteristics of this stream.
+     * When the returned stream is closed, the close handlers for both the
+     * returned and this stream are invoked.
+     *
+     * <pre>{@code
+     *     double[] movingAverages = prices.stream()
+     *         .window(20, 1)
+     *         .mapToDouble(w -> w.stream().mapToDouble(Price::value).average().getAsDouble())
+     *         .toArray();
+     * }</pre>
+     *
+     * @param size the number of elements in each window
+     * @param step the distance between the first elements of successive
+     *        windows
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} or {@code step} is
+     *         not positive
+     * @since 1.8
+     */
+    default Stream<List<T>> window(int size, int step) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        if (step <= 0)
+            throw new IllegalArgumentException("Window step must be positive: " + step);
+        return StreamSupport.stream(
+                new WindowOps.WindowSpliterator<>(spliterator(), size, step),
+                isParallel()).onClose(this::close);
+    }
+
     /**
      * Performs an action for each element of this stream.
      *
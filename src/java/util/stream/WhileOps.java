@@ -0,0 +1,507 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Factory for instances of the takeWhile and dropWhile operations,
+ * {@link Stream#takeWhile(Predicate)} and {@link Stream#dropWhile(Predicate)}.
+ *
+ * <p>Ordered parallel pipelines are evaluated by tasks in the manner of
+ * {@link SliceOps}: a leaf that stops taking cancels all later leaves, and
+ * leaves dropping elements retain and count them so that the root can
+ * truncate the longest matching prefix.  Unordered parallel pipelines are
+ * evaluated lazily by spliterators that take or drop the matching prefix
+ * of each split, all splits stopping once one of them stops taking.
+ *
+ * @since 1.8
+ */
+final class WhileOps {
+
+    // No instances
+    private WhileOps() { }
+
+    static final int TAKE_FLAGS = StreamOpFlag.NOT_SIZED | StreamOpFlag.IS_SHORT_CIRCUIT;
+
+    static final int DROP_FLAGS = StreamOpFlag.NOT_SIZED;
+
+    @SuppressWarnings("unchecked")
+    private static <T> IntFunction<T[]> castingArray() {
+        return size -> (T[]) new Object[size];
+    }
+
+    /**
+     * Appends a "takeWhile" operation to the provided stream.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream with element type T
+     * @param predicate the predicate that returns false to halt taking
+     */
+    static <T> Stream<T> makeTakeWhileRef(AbstractPipeline<?, T, ?> upstream,
+                                          Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        return new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE, TAKE_FLAGS) {
+            @Override
+            <P_IN> Spliterator<T> opEvaluateParallelLazy(PipelineHelper<T> helper,
+                                                         Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
+                    return opEvaluateParallel(helper, spliterator, castingArray())
+                            .spliterator();
+                }
+                else {
+                    return new UnorderedWhileSpliterator<>(
+                            helper.wrapSpliterator(spliterator), predicate, true, false);
+                }
+            }
+
+            @Override
+            <P_IN> Node<T> opEvaluateParallel(PipelineHelper<T> helper,
+                                              Spliterator<P_IN> spliterator,
+                                              IntFunction<T[]> generator) {
+                return new TakeWhileTask<>(this, helper, spliterator, generator, predicate)
+                        .invoke();
+            }
+
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<T> sink) {
+                return new TakeWhileSink<>(sink, predicate);
+            }
+        };
+    }
+
+    /**
+     * Appends a "dropWhile" operation to the provided stream.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream with element type T
+     * @param predicate the predicate that returns false to halt dropping
+     */
+    static <T> Stream<T> makeDropWhileRef(AbstractPipeline<?, T, ?> upstream,
+                                          Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        return new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE, DROP_FLAGS) {
+            @Override
+            <P_IN> Spliterator<T> opEvaluateParallelLazy(PipelineHelper<T> helper,
+                                                         Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
+                    return opEvaluateParallel(helper, spliterator, castingArray())
+                            .spliterator();
+                }
+                else {
+                    return new UnorderedWhileSpliterator<>(
+                            helper.wrapSpliterator(spliterator), predicate, false, false);
+                }
+            }
+
+            @Override
+            <P_IN> Node<T> opEvaluateParallel(PipelineHelper<T> helper,
+                                              Spliterator<P_IN> spliterator,
+                                              IntFunction<T[]> generator) {
+                return new DropWhileTask<>(this, helper, spliterator, generator, predicate)
+                        .invoke();
+            }
+
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<T> sink) {
+                return new DropWhileSink<>(sink, predicate, false);
+            }
+        };
+    }
+
+    /**
+     * Sink passing on elements until the predicate first fails, then
+     * requesting cancellation.
+     */
+    static final class TakeWhileSink<T> extends Sink.ChainedReference<T, T> {
+        private final Predicate<? super T> predicate;
+        boolean take = true;
+
+        TakeWhileSink(Sink<? super T> downstream, Predicate<? super T> predicate) {
+            super(downstream);
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void begin(long size) {
+            downstream.begin(-1);
+        }
+
+        @Override
+        public void accept(T t) {
+            if (take && (take = predicate.test(t)))
+                downstream.accept(t);
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return !take || downstream.cancellationRequested();
+        }
+    }
+
+    /**
+     * Sink discarding elements until the predicate first fails.  When
+     * evaluating a non-root leaf of an ordered pipeline the elements to be
+     * dropped are instead passed on and counted, since they must be kept
+     * if some earlier leaf stopped dropping.
+     */
+    static final class DropWhileSink<T> extends Sink.ChainedReference<T, T> {
+        private final Predicate<? super T> predicate;
+        private final boolean retainAndCountDroppedElements;
+        long dropCount;
+        boolean take;
+
+        DropWhileSink(Sink<? super T> downstream, Predicate<? super T> predicate,
+                      boolean retainAndCountDroppedElements) {
+            super(downstream);
+            this.predicate = predicate;
+            this.retainAndCountDroppedElements = retainAndCountDroppedElements;
+        }
+
+        @Override
+        public void begin(long size) {
+            downstream.begin(-1);
+        }
+
+        @Override
+        public void accept(T t) {
+            boolean takeElement = take || (take = !predicate.test(t));
+            if (retainAndCountDroppedElements && !takeElement)
+                dropCount++;
+            if (retainAndCountDroppedElements || takeElement)
+                downstream.accept(t);
+        }
+    }
+
+    /**
+     * Spliterator taking or dropping the matching prefix of each split of
+     * an unordered source.  When taking, all splits stop as soon as one of
+     * them meets an element failing the predicate.  A spliterator created
+     * with {@code noSplitting} never splits, and so preserves encounter
+     * order.
+     */
+    static final class UnorderedWhileSpliterator<T> implements Spliterator<T>, Consumer<T> {
+        private final Spliterator<T> s;
+        private final Predicate<? super T> p;
+        private final boolean taking;
+        private final boolean noSplitting;
+        private final AtomicBoolean cancel;
+        private boolean dropping = true;
+        private T t;
+
+        UnorderedWhileSpliterator(Spliterator<T> s, Predicate<? super T> p,
+                                  boolean taking, boolean noSplitting) {
+            this(s, p, taking, noSplitting, new AtomicBoolean());
+        }
+
+        private UnorderedWhileSpliterator(Spliterator<T> s, Predicate<? super T> p,
+                                          boolean taking, boolean noSplitting,
+                                          AtomicBoolean cancel) {
+            this.s = s;
+            this.p = p;
+            this.taking = taking;
+            this.noSplitting = noSplitting;
+            this.cancel = cancel;
+        }
+
+        @Override
+        public void accept(T t) {
+            this.t = t;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if (taking) {
+                if (cancel.get() || !s.tryAdvance(this))
+                    return false;
+                T e = t;
+                t = null;
+                if (!p.test(e)) {
+                    cancel.set(true);
+                    return false;
+                }
+                action.accept(e);
+                return true;
+            }
+            else if (dropping) {
+                dropping = false;
+                while (s.tryAdvance(this)) {
+                    T e = t;
+                    t = null;
+                    if (!p.test(e)) {
+                        action.accept(e);
+                        return true;
+                    }
+                }
+                return false;
+            }
+            else
+                return s.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if (taking || dropping) {
+                if (!tryAdvance(action))
+                    return;
+                if (taking) {
+                    while (tryAdvance(action)) { }
+                    return;
+                }
+            }
+            s.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<T> ls;
+            if (noSplitting || (taking && cancel.get()) || (ls = s.trySplit()) == null)
+                return null;
+            return new UnorderedWhileSpliterator<>(ls, p, taking, false, cancel);
+        }
+
+        @Override
+        public long estimateSize() {
+            return s.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return -1L;
+        }
+
+        @Override
+        public int characteristics() {
+            return s.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return s.getComparator();
+        }
+    }
+
+    /**
+     * Task evaluating takeWhile in parallel.  A leaf whose predicate
+     * failed cancels all later leaves; in an ordered pipeline a node whose
+     * left child stopped taking discards the result of its right child.
+     */
+    @SuppressWarnings("serial")
+    private static final class TakeWhileTask<P_IN, P_OUT>
+            extends AbstractShortCircuitTask<P_IN, P_OUT, Node<P_OUT>, TakeWhileTask<P_IN, P_OUT>> {
+        private final AbstractPipeline<P_OUT, P_OUT, ?> op;
+        private final IntFunction<P_OUT[]> generator;
+        private final Predicate<? super P_OUT> predicate;
+        private final boolean isOrdered;
+        private long thisNodeSize;
+        // True if the predicate failed in this subtree
+        private boolean shortCircuited;
+        // True if completed, must be set after the local result
+        private volatile boolean completed;
+
+        TakeWhileTask(AbstractPipeline<P_OUT, P_OUT, ?> op,
+                      PipelineHelper<P_OUT> helper,
+                      Spliterator<P_IN> spliterator,
+                      IntFunction<P_OUT[]> generator,
+                      Predicate<? super P_OUT> predicate) {
+            super(helper, spliterator);
+            this.op = op;
+            this.generator = generator;
+            this.predicate = predicate;
+            this.isOrdered = StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags());
+        }
+
+        TakeWhileTask(TakeWhileTask<P_IN, P_OUT> parent, Spliterator<P_IN> spliterator) {
+            super(parent, spliterator);
+            this.op = parent.op;
+            this.generator = parent.generator;
+            this.predicate = parent.predicate;
+            this.isOrdered = parent.isOrdered;
+        }
+
+        @Override
+        protected TakeWhileTask<P_IN, P_OUT> makeChild(Spliterator<P_IN> spliterator) {
+            return new TakeWhileTask<>(this, spliterator);
+        }
+
+        @Override
+        protected final Node<P_OUT> getEmptyResult() {
+            return Nodes.emptyNode(op.getOutputShape());
+        }
+
+        @Override
+        protected final Node<P_OUT> doLeaf() {
+            Node.Builder<P_OUT> builder = helper.makeNodeBuilder(-1, generator);
+            TakeWhileSink<P_OUT> s = new TakeWhileSink<>(builder, predicate);
+            helper.copyIntoWithCancel(helper.wrapSink(s), spliterator);
+            if (shortCircuited = !s.take)
+                cancelLaterNodes();
+            Node<P_OUT> node = builder.build();
+            thisNodeSize = node.count();
+            return node;
+        }
+
+        @Override
+        public final void onCompletion(CountedCompleter<?> caller) {
+            if (!isLeaf()) {
+                Node<P_OUT> result;
+                shortCircuited = leftChild.shortCircuited | rightChild.shortCircuited;
+                if (isOrdered && canceled) {
+                    thisNodeSize = 0;
+                    result = getEmptyResult();
+                }
+                else if (isOrdered && leftChild.shortCircuited) {
+                    // Taking stopped on the left, so use the left result
+                    thisNodeSize = leftChild.thisNodeSize;
+                    result = leftChild.getLocalResult();
+                }
+                else {
+                    thisNodeSize = leftChild.thisNodeSize + rightChild.thisNodeSize;
+                    result = merge();
+                }
+                setLocalResult(result);
+            }
+            completed = true;
+            super.onCompletion(caller);
+        }
+
+        private Node<P_OUT> merge() {
+            if (leftChild.thisNodeSize == 0)
+                return rightChild.getLocalResult();
+            else if (rightChild.thisNodeSize == 0)
+                return leftChild.getLocalResult();
+            else
+                return Nodes.conc(op.getOutputShape(),
+                                  leftChild.getLocalResult(), rightChild.getLocalResult());
+        }
+
+        @Override
+        protected void cancel() {
+            super.cancel();
+            // Clear the result of a completed task to aid GC
+            if (isOrdered && completed)
+                setLocalResult(getEmptyResult());
+        }
+    }
+
+    /**
+     * Task evaluating dropWhile in parallel.  In an ordered pipeline each
+     * non-root leaf retains the elements it would drop and records how many
+     * lead its result; the root then truncates the longest dropped prefix
+     * of the whole result.
+     */
+    @SuppressWarnings("serial")
+    private static final class DropWhileTask<P_IN, P_OUT>
+            extends AbstractTask<P_IN, P_OUT, Node<P_OUT>, DropWhileTask<P_IN, P_OUT>> {
+        private final AbstractPipeline<P_OUT, P_OUT, ?> op;
+        private final IntFunction<P_OUT[]> generator;
+        private final Predicate<? super P_OUT> predicate;
+        private final boolean isOrdered;
+        private long thisNodeSize;
+        // The number of leading elements of the local result to be dropped
+        private long index;
+
+        DropWhileTask(AbstractPipeline<P_OUT, P_OUT, ?> op,
+                      PipelineHelper<P_OUT> helper,
+                      Spliterator<P_IN> spliterator,
+                      IntFunction<P_OUT[]> generator,
+                      Predicate<? super P_OUT> predicate) {
+            super(helper, spliterator);
+            this.op = op;
+            this.generator = generator;
+            this.predicate = predicate;
+            this.isOrdered = StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags());
+        }
+
+        DropWhileTask(DropWhileTask<P_IN, P_OUT> parent, Spliterator<P_IN> spliterator) {
+            super(parent, spliterator);
+            this.op = parent.op;
+            this.generator = parent.generator;
+            this.predicate = parent.predicate;
+            this.isOrdered = parent.isOrdered;
+        }
+
+        @Override
+        protected DropWhileTask<P_IN, P_OUT> makeChild(Spliterator<P_IN> spliterator) {
+            return new DropWhileTask<>(this, spliterator);
+        }
+
+        @Override
+        protected final Node<P_OUT> doLeaf() {
+            Node.Builder<P_OUT> builder = helper.makeNodeBuilder(-1, generator);
+            // A root leaf is not merged, so need not retain dropped elements
+            DropWhileSink<P_OUT> s = new DropWhileSink<>(builder, predicate,
+                                                         isOrdered && !isRoot());
+            helper.wrapAndCopyInto(s, spliterator);
+            Node<P_OUT> node = builder.build();
+            thisNodeSize = node.count();
+            index = s.dropCount;
+            return node;
+        }
+
+        @Override
+        public final void onCompletion(CountedCompleter<?> caller) {
+            if (!isLeaf()) {
+                if (isOrdered) {
+                    index = leftChild.index;
+                    // Dropping continues into the right child only if the
+                    // left child dropped everything
+                    if (index == leftChild.thisNodeSize)
+                        index += rightChild.index;
+                }
+                thisNodeSize = leftChild.thisNodeSize + rightChild.thisNodeSize;
+                Node<P_OUT> result = merge();
+                setLocalResult(isRoot() ? doTruncate(result) : result);
+            }
+            super.onCompletion(caller);
+        }
+
+        private Node<P_OUT> merge() {
+            if (leftChild.thisNodeSize == 0)
+                return rightChild.getLocalResult();
+            else if (rightChild.thisNodeSize == 0)
+                return leftChild.getLocalResult();
+            else
+                return Nodes.conc(op.getOutputShape(),
+                                  leftChild.getLocalResult(), rightChild.getLocalResult());
+        }
+
+        private Node<P_OUT> doTruncate(Node<P_OUT> input) {
+            return isOrdered
+                   ? input.truncate(index, input.count(), generator)
+                   : input;
+        }
+    }
+}
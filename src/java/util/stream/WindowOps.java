@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Factory for instances of the batching and sliding-window operations,
+ * {@link Stream#batch(int)} and {@link Stream#window(int, int)}.
+ *
+ * <p>Sequentially both operations are pure sinks holding at most one batch
+ * or window, which is emitted downstream as soon as it is complete, so
+ * that memory use is bounded by the batch or window size regardless of
+ * the length of the stream.  In parallel they are evaluated lazily through
+ * the spliterators below: a batch spliterator over a {@code SUBSIZED}
+ * upstream splits its source at batch boundaries, moving the few elements
+ * needed to complete the last batch of the prefix across the split, and
+ * otherwise both spliterators split by buffering a run of complete
+ * batches or windows, as {@link Spliterators.AbstractSpliterator} does.
+ *
+ * @since 1.8
+ */
+final class WindowOps {
+
+    // No instances
+    private WindowOps() { }
+
+    /**
+     * The largest initial capacity of a batch list, so that a large
+     * batch size over a short stream does not allocate needlessly.
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1 << 10;
+
+    /**
+     * The number of upstream elements added to each successive buffered
+     * split, as in {@code Spliterators.AbstractSpliterator}.
+     */
+    private static final int BATCH_UNIT = 1 << 10;
+
+    /** The maximum number of batches or windows in one buffered split. */
+    private static final int MAX_BATCH = 1 << 25;
+
+    private static final int FLAGS = StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT |
+                                     StreamOpFlag.NOT_SIZED;
+
+    /**
+     * Returns the upstream helper passed to the parallel evaluation of an
+     * operation whose element type differs from its input type.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> PipelineHelper<T> upstream(PipelineHelper<?> helper) {
+        return (PipelineHelper<T>) helper;
+    }
+
+    /**
+     * Appends a "batch" operation to the provided stream.
+     *
+     * @param <T> the type of the input elements
+     * @param upstream a reference stream with element type T
+     * @param size the number of elements in each batch but the last
+     * @throws IllegalArgumentException if {@code size} is not positive
+     */
+    static <T> Stream<List<T>> makeBatch(AbstractPipeline<?, T, ?> upstream, int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Batch size must be positive: " + size);
+
+        return new ReferencePipeline.StatefulOp<T, List<T>>(upstream, StreamShape.REFERENCE,
+                                                            FLAGS) {
+            @Override
+            <P_IN> Spliterator<List<T>> opEvaluateParallelLazy(PipelineHelper<List<T>> helper,
+                                                               Spliterator<P_IN> spliterator) {
+                return new BatchSpliterator<>(WindowOps.<T>upstream(helper).wrapSpliterator(spliterator),
+                                              size, null);
+            }
+
+            @Override
+            <P_IN> Node<List<T>> opEvaluateParallel(PipelineHelper<List<T>> helper,
+                                                    Spliterator<P_IN> spliterator,
+                                                    IntFunction<List<T>[]> generator) {
+                // Collect using this pipeline, which is empty and therefore
+                // can be used with the batching spliterator
+                return Nodes.collect(this, opEvaluateParallelLazy(helper, spliterator),
+                                     true, generator);
+            }
+
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<List<T>> sink) {
+                return new Sink.ChainedReference<T, List<T>>(sink) {
+                    ArrayList<T> batch;
+
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(T t) {
+                        ArrayList<T> b = batch;
+                        if (b == null)
+                            batch = b = new ArrayList<>(Math.min(size, MAX_INITIAL_CAPACITY));
+                        b.add(t);
+                        if (b.size() == size) {
+                            batch = null;
+                            downstream.accept(b);
+                        }
+                    }
+
+                    @Override
+                    public void end() {
+                        ArrayList<T> b = batch;
+                        if (b != null) {
+                            batch = null;
+                            downstream.accept(b);
+                        }
+                        downstream.end();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Appends a "window" operation to the provided stream.
+     *
+     * @param <T> the type of the input elements
+     * @param upstream a reference stream with element type T
+     * @param size the number of elements in each window
+     * @param step the distance between the first elements of successive
+     *        windows
+     * @throws IllegalArgumentException if {@code size} or {@code step} is
+     *         not positive
+     */
+    static <T> Stream<List<T>> makeWindow(AbstractPipeline<?, T, ?> upstream,
+                                          int size, int step) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        if (step <= 0)
+            throw new IllegalArgumentException("Window step must be positive: " + step);
+
+        return new ReferencePipeline.StatefulOp<T, List<T>>(upstream, StreamShape.REFERENCE,
+                                                            FLAGS) {
+            @Override
+            <P_IN> Spliterator<List<T>> opEvaluateParallelLazy(PipelineHelper<List<T>> helper,
+                                                               Spliterator<P_IN> spliterator) {
+                return new WindowSpliterator<>(WindowOps.<T>upstream(helper).wrapSpliterator(spliterator),
+                                               size, step);
+            }
+
+            @Override
+            <P_IN> Node<List<T>> opEvaluateParallel(PipelineHelper<List<T>> helper,
+                                                    Spliterator<P_IN> spliterator,
+                                                    IntFunction<List<T>[]> generator) {
+                return Nodes.collect(this, opEvaluateParallelLazy(helper, spliterator),
+                                     true, generator);
+            }
+
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<List<T>> sink) {
+                return new Sink.ChainedReference<T, List<T>>(sink) {
+                    final Window<T> window = new Window<>(size, step);
+
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(T t) {
+                        List<T> w = window.add(t);
+                        if (w != null)
+                            downstream.accept(w);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * The state of a sliding window: a ring buffer of the last
+     * {@code size} elements, and the number of elements to skip before
+     * the next window starts when the step exceeds the size.
+     */
+    static final class Window<T> {
+        final int size, step;
+        Object[] ring;  // allocated on first use
+        int head, count;
+        long skip;
+
+        Window(int size, int step) {
+            this.size = size;
+            this.step = step;
+        }
+
+        /**
+         * Adds an element, returning the window it completes, if any.
+         */
+        @SuppressWarnings("unchecked")
+        List<T> add(T t) {
+            if (skip > 0) {
+                --skip;
+                return null;
+            }
+            Object[] r = ring;
+            if (r == null)
+                ring = r = new Object[size];
+            int i = head + count;
+            r[i >= size ? i - size : i] = t;
+            if (++count < size)
+                return null;
+            ArrayList<T> w = new ArrayList<>(size);
+            for (int j = 0, k = head; j < size; ++j) {
+                w.add((T) r[k]);
+                if (++k == size)
+                    k = 0;
+            }
+            if (step >= size) {
+                Arrays.fill(r, null);
+                head = count = 0;
+                skip = (long) step - size;
+            }
+            else {
+                for (int j = 0; j < step; ++j) {
+                    r[head] = null;
+                    if (++head == size)
+                        head = 0;
+                }
+                count -= step;
+            }
+            return w;
+        }
+    }
+
+    /**
+     * Spliterator of batches or windows over an element spliterator,
+     * splitting by buffering complete batches or windows.
+     */
+    abstract static class ChunkSpliterator<T> implements Spliterator<List<T>> {
+        final Spliterator<T> source;
+        final int width;     // the number of elements per chunk
+        int batch;           // buffered split size
+
+        ChunkSpliterator(Spliterator<T> source, int width) {
+            this.source = source;
+            this.width = width;
+        }
+
+        @Override
+        public Spliterator<List<T>> trySplit() {
+            HoldingConsumer<T> holder = new HoldingConsumer<>();
+            long s = estimateSize();
+            if (s > 1 && tryAdvance(holder)) {
+                int n = batch + Math.max(1, BATCH_UNIT / width);
+                if (n > s)
+                    n = (int) s;
+                if (n > MAX_BATCH)
+                    n = MAX_BATCH;
+                Object[] a = new Object[n];
+                int j = 0;
+                do { a[j] = holder.value; } while (++j < n && tryAdvance(holder));
+                batch = j;
+                return Spliterators.spliterator(a, 0, j, characteristics());
+            }
+            return null;
+        }
+
+        @Override
+        public int characteristics() {
+            return (source.characteristics() & Spliterator.ORDERED) | Spliterator.NONNULL;
+        }
+
+        @Override
+        public Comparator<? super List<T>> getComparator() {
+            throw new IllegalStateException();
+        }
+    }
+
+    static final class HoldingConsumer<T> implements Consumer<List<T>> {
+        List<T> value;
+
+        @Override
+        public void accept(List<T> value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Spliterator of batches.  A spliterator created by splitting may own
+     * a carry: the elements taken from its suffix that complete its last
+     * batch.
+     */
+    static final class BatchSpliterator<T> extends ChunkSpliterator<T> {
+        private ArrayList<T> carry;
+
+        BatchSpliterator(Spliterator<T> source, int size, ArrayList<T> carry) {
+            super(source, size);
+            this.carry = carry;
+        }
+
+        @Override
+        public Spliterator<List<T>> trySplit() {
+            if (!source.hasCharacteristics(Spliterator.SUBSIZED))
+                return super.trySplit();
+            Spliterator<T> prefix = source.trySplit();
+            if (prefix == null)
+                return null;
+            long k = prefix.getExactSizeIfKnown();
+            if (k < 0) { // not sized after all, so count the prefix
+                ArrayList<T> buf = new ArrayList<>();
+                prefix.forEachRemaining(buf::add);
+                prefix = buf.spliterator();
+                k = buf.size();
+            }
+            int r = (int) (k % width);
+            ArrayList<T> c = null;
+            if (r != 0) {
+                c = new ArrayList<>(width - r);
+                for (int i = r; i < width && source.tryAdvance(c::add); ++i) { }
+                if (c.size() < width - r && carry != null) {
+                    // This spliterator is exhausted, so its carry ends the prefix
+                    c.addAll(carry);
+                    carry = null;
+                }
+            }
+            return new BatchSpliterator<>(prefix, width, c);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            Objects.requireNonNull(action);
+            ArrayList<T> b = new ArrayList<>(Math.min(width, MAX_INITIAL_CAPACITY));
+            while (b.size() < width && source.tryAdvance(b::add)) { }
+            if (b.size() < width && carry != null) {
+                b.addAll(carry);
+                carry = null;
+            }
+            if (b.isEmpty())
+                return false;
+            action.accept(b);
+            return true;
+        }
+
+        @Override
+        public long estimateSize() {
+            long s = source.estimateSize();
+            if (s == Long.MAX_VALUE)
+                return s;
+            if (carry != null)
+                s += carry.size();
+            return (s + width - 1) / width;
+        }
+    }
+
+    /**
+     * Spliterator of sliding windows.
+     */
+    static final class WindowSpliterator<T> extends ChunkSpliterator<T> {
+        private final Window<T> window;
+        private List<T> next;
+
+        WindowSpliterator(Spliterator<T> source, int size, int step) {
+            super(source, size);
+            this.window = new Window<>(size, step);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            Objects.requireNonNull(action);
+            Consumer<T> adder = t -> next = window.add(t);
+            while (next == null && source.tryAdvance(adder)) { }
+            List<T> w = next;
+            if (w == null)
+                return false;
+            next = null;
+            action.accept(w);
+            return true;
+        }
+
+        @Override
+        public long estimateSize() {
+            long s = source.estimateSize();
+            return (s == Long.MAX_VALUE) ? s : s / window.step + 1;
+        }
+    }
+}
@@ -25,7 +25,9 @@
 
 package java.util.zip;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import sun.nio.ch.DirectBuffer;
 
 /**
@@ -44,6 +46,20 @@ class Adler32 implements Checksum {
 
     private int adler = 1;
 
+    /*
+     * Updates of fewer bytes than this are computed in Java, avoiding the
+     * cost of a native call.
+     */
+    private static final int JAVA_UPDATE_LIMIT = 256;
+
+    private static final int BASE = 65521;  // largest prime smaller than 65536
+
+    /*
+     * The largest n such that 255n(n+1)/2 + (n+1)(BASE-1) fits in a
+     * signed int, so that sums of n bytes need no reduction.
+     */
+    private static final int NMAX = 3854;
+
     /**
      * Creates a new Adler32 object.
      */
@@ -75,7 +91,7 @@ class Adler32 implements Checksum {
         if (off < 0 || len < 0 || off > b.length - len) {
             throw new ArrayIndexOutOfBoundsException();
         }
-        adler = updateBytes(adler, b, off, len);
+        adler = updateArray(adler, b, off, len);
     }
 
     /**
@@ -84,7 +100,7 @@ class Adler32 implements Checksum {
      * @param b the byte array to update the checksum with
      */
     public void update(byte[] b) {
-        adler = updateBytes(adler, b, 0, b.length);
+        adler = updateArray(adler, b, 0, b.length);
     }
 
 
@@ -111,11 +127,14 @@ class Adler32 implements Checksum {
         if (buffer instanceof DirectBuffer) {
             adler = updateByteBuffer(adler, ((DirectBuffer)buffer).address(), pos, rem);
         } else if (buffer.hasArray()) {
-            adler = updateBytes(adler, buffer.array(), pos + buffer.arrayOffset(), rem);
+            adler = updateArray(adler, buffer.array(), pos + buffer.arrayOffset(), rem);
         } else {
-            byte[] b = new byte[rem];
-            buffer.get(b);
-            adler = updateBytes(adler, b, 0, b.length);
+            byte[] b = new byte[Math.min(rem, 4096)];
+            while (buffer.hasRemaining()) {
+                int n = Math.min(buffer.remaining(), b.length);
+                buffer.get(b, 0, n);
+                adler = updateArray(adler, b, 0, n);
+            }
         }
         buffer.position(limit);
     }
@@ -134,6 +153,72 @@ class Adler32 implements Checksum {
         return (long)adler & 0xffffffffL;
     }
 
+    /**
+     * Returns the Adler-32 checksum of the concatenation of two sequences
+     * of bytes, given the checksum of each and the length of the second,
+     * as zlib's {@code adler32_combine} does. This allows the checksum of
+     * a large input to be computed from those of its parts, computed
+     * separately.
+     *
+     * @param adler1 the checksum of the first sequence
+     * @param adler2 the checksum of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the checksum of the first sequence followed by the second
+     * @throws IllegalArgumentException if {@code len2} is negative
+     * @since 1.8
+     */
+    public static long combine(long adler1, long adler2, long len2) {
+        if (len2 < 0)
+            throw new IllegalArgumentException("negative length");
+        long rem = len2 % BASE;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (rem * sum1) % BASE;
+        sum1 += (adler2 & 0xffff) + BASE - 1;
+        sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + BASE - rem;
+        if (sum1 >= BASE) sum1 -= BASE;
+        if (sum1 >= BASE) sum1 -= BASE;
+        if (sum2 >= ((long)BASE << 1)) sum2 -= ((long)BASE << 1);
+        if (sum2 >= BASE) sum2 -= BASE;
+        return sum1 | (sum2 << 16);
+    }
+
+    /**
+     * Returns the Adler-32 checksum of the content of the file of the
+     * given channel, from position zero to its current size. Segments of
+     * the file are mapped into memory and their checksums computed in
+     * parallel in the {@link java.util.concurrent.ForkJoinPool#commonPool()
+     * common pool}, then combined. The position of the channel is not
+     * changed.
+     *
+     * @param channel the file channel, which must be open for reading
+     * @return the Adler-32 checksum of the file
+     * @throws java.nio.channels.NonReadableChannelException
+     *         if the channel was not opened for reading
+     * @throws IOException if an I/O error occurs
+     * @since 1.8
+     */
+    public static long checksum(FileChannel channel) throws IOException {
+        return ChecksumTask.checksum(channel, Adler32::new, Adler32::combine);
+    }
+
+    private static int updateArray(int adler, byte[] b, int off, int len) {
+        if (len >= JAVA_UPDATE_LIMIT)
+            return updateBytes(adler, b, off, len);
+        int s1 = adler & 0xffff;
+        int s2 = adler >>> 16;
+        while (len > 0) {
+            int n = Math.min(len, NMAX);
+            len -= n;
+            for (int end = off + n; off < end; off++) {
+                s1 += b[off] & 0xff;
+                s2 += s1;
+            }
+            s1 %= BASE;
+            s2 %= BASE;
+        }
+        return (s2 << 16) | s1;
+    }
+
     private native static int update(int adler, int b);
     private native static int updateBytes(int adler, byte[] b, int off,
                                           int len);
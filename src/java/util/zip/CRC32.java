@@ -25,7 +25,11 @@
 
 package java.util.zip;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import sun.misc.Unsafe;
 import sun.nio.ch.DirectBuffer;
 
 /**
@@ -41,6 +45,14 @@ public
 class CRC32 implements Checksum {
     private int crc;
 
+    /*
+     * Updates of fewer bytes than this are computed in Java, avoiding the
+     * cost of a native call.
+     */
+    private static final int JAVA_UPDATE_LIMIT = 64;
+
+    private static final int[] TABLES = slicingTables(0xedb88320);
+
     /**
      * Creates a new CRC32 object.
      */
@@ -73,7 +85,7 @@ class CRC32 implements Checksum {
         if (off < 0 || len < 0 || off > b.length - len) {
             throw new ArrayIndexOutOfBoundsException();
         }
-        crc = updateBytes(crc, b, off, len);
+        crc = updateArray(crc, b, off, len);
     }
 
     /**
@@ -82,7 +94,7 @@ class CRC32 implements Checksum {
      * @param b the array of bytes to update the checksum with
      */
     public void update(byte[] b) {
-        crc = updateBytes(crc, b, 0, b.length);
+        crc = updateArray(crc, b, 0, b.length);
     }
 
     /**
@@ -106,13 +118,20 @@ class CRC32 implements Checksum {
         if (rem <= 0)
             return;
         if (buffer instanceof DirectBuffer) {
-            crc = updateByteBuffer(crc, ((DirectBuffer)buffer).address(), pos, rem);
+            long addr = ((DirectBuffer)buffer).address();
+            if (rem < JAVA_UPDATE_LIMIT)
+                crc = updateSlicing(TABLES, crc, null, addr + pos, rem);
+            else
+                crc = updateByteBuffer(crc, addr, pos, rem);
         } else if (buffer.hasArray()) {
-            crc = updateBytes(crc, buffer.array(), pos + buffer.arrayOffset(), rem);
+            crc = updateArray(crc, buffer.array(), pos + buffer.arrayOffset(), rem);
         } else {
-            byte[] b = new byte[rem];
-            buffer.get(b);
-            crc = updateBytes(crc, b, 0, b.length);
+            byte[] b = new byte[Math.min(rem, 4096)];
+            while (buffer.hasRemaining()) {
+                int n = Math.min(buffer.remaining(), b.length);
+                buffer.get(b, 0, n);
+                crc = updateArray(crc, b, 0, n);
+            }
         }
         buffer.position(limit);
     }
@@ -131,6 +150,163 @@ class CRC32 implements Checksum {
         return (long)crc & 0xffffffffL;
     }
 
+    /**
+     * Returns the CRC-32 of the concatenation of two sequences of bytes,
+     * given the CRC-32 of each and the length of the second, as zlib's
+     * {@code crc32_combine} does. This allows the CRC-32 of a large
+     * input to be computed from those of its parts, computed separately.
+     * The first CRC-32 is advanced over {@code len2} zero bytes by
+     * repeated squaring of the operator for one zero bit, taking
+     * O(log len2) steps.
+     *
+     * @param crc1 the CRC-32 of the first sequence
+     * @param crc2 the CRC-32 of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the CRC-32 of the first sequence followed by the second
+     * @throws IllegalArgumentException if {@code len2} is negative
+     * @since 1.8
+     */
+    public static long combine(long crc1, long crc2, long len2) {
+        return combine(0xedb88320, crc1, crc2, len2);
+    }
+
+    /**
+     * Returns the CRC-32 of the content of the file of the given channel,
+     * from position zero to its current size. Segments of the file are
+     * mapped into memory and their CRC-32s computed in parallel in the
+     * {@link java.util.concurrent.ForkJoinPool#commonPool() common pool},
+     * then combined. The position of the channel is not changed.
+     *
+     * @param channel the file channel, which must be open for reading
+     * @return the CRC-32 of the file
+     * @throws java.nio.channels.NonReadableChannelException
+     *         if the channel was not opened for reading
+     * @throws IOException if an I/O error occurs
+     * @since 1.8
+     */
+    public static long checksum(FileChannel channel) throws IOException {
+        return ChecksumTask.checksum(channel, CRC32::new, CRC32::combine);
+    }
+
+    /**
+     * Combines two CRCs of the given reflected 32-bit polynomial.
+     */
+    static long combine(int poly, long crc1, long crc2, long len2) {
+        if (len2 < 0)
+            throw new IllegalArgumentException("negative length");
+        if (len2 == 0)
+            return crc1;
+        int[] even = new int[32];    // even-power-of-two zeros operator
+        int[] odd = new int[32];     // odd-power-of-two zeros operator
+
+        // put operator for one zero bit in odd
+        odd[0] = poly;
+        for (int n = 1, row = 1; n < 32; n++, row <<= 1)
+            odd[n] = row;
+
+        // put operator for two zero bits in even, four zero bits in odd
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+
+        // apply len2 zeros to crc1 (first square puts the operator for
+        // one zero byte, eight zero bits, in even)
+        int c = (int)crc1;
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0)
+                c = gf2MatrixTimes(even, c);
+            len2 >>>= 1;
+            if (len2 == 0)
+                break;
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0)
+                c = gf2MatrixTimes(odd, c);
+            len2 >>>= 1;
+        } while (len2 != 0);
+        return ((long)c ^ crc2) & 0xffffffffL;
+    }
+
+    private static int gf2MatrixTimes(int[] mat, int vec) {
+        int sum = 0;
+        for (int i = 0; vec != 0; i++, vec >>>= 1) {
+            if ((vec & 1) != 0)
+                sum ^= mat[i];
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(int[] square, int[] mat) {
+        for (int n = 0; n < 32; n++)
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+    }
+
+    private static int updateArray(int crc, byte[] b, int off, int len) {
+        if (len < JAVA_UPDATE_LIMIT)
+            return updateSlicing(TABLES, crc, b,
+                                 Unsafe.ARRAY_BYTE_BASE_OFFSET + off, len);
+        return updateBytes(crc, b, off, len);
+    }
+
+    /**
+     * Returns the lookup tables for the slicing-by-8 computation of a CRC
+     * of the given reflected 32-bit polynomial: eight tables of 256
+     * entries, where entry n of table k is the CRC of byte n followed by
+     * k zero bytes.
+     */
+    static int[] slicingTables(int poly) {
+        int[] t = new int[8 * 256];
+        for (int n = 0; n < 256; n++) {
+            int c = n;
+            for (int k = 0; k < 8; k++)
+                c = ((c & 1) != 0) ? (c >>> 1) ^ poly : c >>> 1;
+            t[n] = c;
+        }
+        for (int n = 0; n < 256; n++) {
+            int c = t[n];
+            for (int k = 1; k < 8; k++) {
+                c = t[c & 0xff] ^ (c >>> 8);
+                t[(k << 8) + n] = c;
+            }
+        }
+        return t;
+    }
+
+    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
+    private static final boolean BIG_ENDIAN =
+        ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    /**
+     * Updates a CRC with the given tables over the len bytes at the given
+     * address, eight aligned bytes at a time, processing each eight as
+     * two little-endian ints. The caller checks the bounds.
+     */
+    static int updateSlicing(int[] t, int crc, Object base, long addr, int len) {
+        int c = ~crc;
+        long end = addr + len;
+        for (; addr < end && (addr & 7) != 0; addr++)
+            c = t[(c ^ UNSAFE.getByte(base, addr)) & 0xff] ^ (c >>> 8);
+        for (; addr <= end - 8; addr += 8) {
+            int lo = UNSAFE.getInt(base, addr);
+            int hi = UNSAFE.getInt(base, addr + 4);
+            if (BIG_ENDIAN) {
+                lo = Integer.reverseBytes(lo);
+                hi = Integer.reverseBytes(hi);
+            }
+            lo ^= c;
+            c = t[(7 << 8) + (lo & 0xff)] ^
+                t[(6 << 8) + ((lo >>> 8) & 0xff)] ^
+                t[(5 << 8) + ((lo >>> 16) & 0xff)] ^
+                t[(4 << 8) + (lo >>> 24)] ^
+                t[(3 << 8) + (hi & 0xff)] ^
+                t[(2 << 8) + ((hi >>> 8) & 0xff)] ^
+                t[(1 << 8) + ((hi >>> 16) & 0xff)] ^
+                t[hi >>> 24];
+        }
+        for (; addr < end; addr++)
+            c = t[(c ^ UNSAFE.getByte(base, addr)) & 0xff] ^ (c >>> 8);
+        return ~c;
+    }
+
     private native static int update(int crc, int b);
     private native static int updateBytes(int crc, byte[] b, int off, int len);
 
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import sun.misc.Unsafe;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * A class that can be used to compute the CRC-32C of a data stream.
+ *
+ * <p> CRC-32C is defined in <a href="http://www.ietf.org/rfc/rfc3720.txt">RFC
+ * 3720</a>: Internet Small Computer Systems Interface (iSCSI). It uses the
+ * Castagnoli polynomial, which has better error detection properties than
+ * that of {@link CRC32}, and is used by iSCSI, SCTP, ext4 and others.
+ * The checksum is computed in Java, eight bytes at a time.
+ *
+ * <p> Passing a {@code null} argument to a method in this class will cause
+ * a {@link NullPointerException} to be thrown.
+ *
+ * @see         Checksum
+ * @since 1.8
+ */
+public
+final class CRC32C implements Checksum {
+
+    /*
+     * The reflected Castagnoli polynomial, 0x1EDC6F41.
+     */
+    private static final int CRC32C_POLY = 0x82f63b78;
+
+    private static final int[] TABLES = CRC32.slicingTables(CRC32C_POLY);
+
+    private int crc;
+
+    /**
+     * Creates a new CRC32C object.
+     */
+    public CRC32C() {
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified byte (the low
+     * eight bits of the argument b).
+     *
+     * @param b the byte to update the checksum with
+     */
+    public void update(int b) {
+        int c = ~crc;
+        crc = ~(TABLES[(c ^ b) & 0xff] ^ (c >>> 8));
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified array of bytes.
+     *
+     * @throws  ArrayIndexOutOfBoundsException
+     *          if {@code off} is negative, or {@code len} is negative,
+     *          or {@code off+len} is greater than the length of the
+     *          array {@code b}
+     */
+    public void update(byte[] b, int off, int len) {
+        if (b == null) {
+            throw new NullPointerException();
+        }
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        crc = CRC32.updateSlicing(TABLES, crc, b,
+                                  Unsafe.ARRAY_BYTE_BASE_OFFSET + off, len);
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified array of bytes.
+     *
+     * @param b the array of bytes to update the checksum with
+     */
+    public void update(byte[] b) {
+        crc = CRC32.updateSlicing(TABLES, crc, b,
+                                  Unsafe.ARRAY_BYTE_BASE_OFFSET, b.length);
+    }
+
+    /**
+     * Updates the checksum with the bytes from the specified buffer.
+     *
+     * The checksum is updated using
+     * buffer.{@link java.nio.Buffer#remaining() remaining()}
+     * bytes starting at
+     * buffer.{@link java.nio.Buffer#position() position()}
+     * Upon return, the buffer's position will
+     * be updated to its limit; its limit will not have been changed.
+     *
+     * @param buffer the ByteBuffer to update the checksum with
+     */
+    public void update(ByteBuffer buffer) {
+        int pos = buffer.position();
+        int limit = buffer.limit();
+        assert (pos <= limit);
+        int rem = limit - pos;
+        if (rem <= 0)
+            return;
+        if (buffer instanceof DirectBuffer) {
+            crc = CRC32.updateSlicing(TABLES, crc, null,
+                                      ((DirectBuffer)buffer).address() + pos, rem);
+        } else if (buffer.hasArray()) {
+            crc = CRC32.updateSlicing(TABLES, crc, buffer.array(),
+                                      Unsafe.ARRAY_BYTE_BASE_OFFSET +
+                                      buffer.arrayOffset() + pos, rem);
+        } else {
+            byte[] b = new byte[Math.min(rem, 4096)];
+            while (buffer.hasRemaining()) {
+                int n = Math.min(buffer.remaining(), b.length);
+                buffer.get(b, 0, n);
+                crc = CRC32.updateSlicing(TABLES, crc, b,
+                                          Unsafe.ARRAY_BYTE_BASE_OFFSET, n);
+            }
+        }
+        buffer.position(limit);
+    }
+
+    /**
+     * Resets CRC-32C to initial value.
+     */
+    public void reset() {
+        crc = 0;
+    }
+
+    /**
+     * Returns CRC-32C value.
+     */
+    public long getValue() {
+        return (long)crc & 0xffffffffL;
+    }
+
+    /**
+     * Returns the CRC-32C of the concatenation of two sequences of bytes,
+     * given the CRC-32C of each and the length of the second.
+     *
+     * @param crc1 the CRC-32C of the first sequence
+     * @param crc2 the CRC-32C of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the CRC-32C of the first sequence followed by the second
+     * @throws IllegalArgumentException if {@code len2} is negative
+     * @see CRC32#combine(long, long, long)
+     */
+    public static long combine(long crc1, long crc2, long len2) {
+        return CRC32.combine(CRC32C_POLY, crc1, crc2, len2);
+    }
+
+    /**
+     * Returns the CRC-32C of the content of the file of the given channel,
+     * from position zero to its current size. Segments of the file are
+     * mapped into memory and their CRC-32Cs computed in parallel in the
+     * {@link java.util.concurrent.ForkJoinPool#commonPool() common pool},
+     * then combined. The position of the channel is not changed.
+     *
+     * @param channel the file channel, which must be open for reading
+     * @return the CRC-32C of the file
+     * @throws java.nio.channels.NonReadableChannelException
+     *         if the channel was not opened for reading
+     * @throws IOException if an I/O error occurs
+     */
+    public static long checksum(FileChannel channel) throws IOException {
+        return ChecksumTask.checksum(channel, CRC32C::new, CRC32C::combine);
+    }
+}
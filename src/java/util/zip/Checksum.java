@@ -25,6 +25,8 @@
 
 package java.util.zip;
 
+import java.nio.ByteBuffer;
+
 /**
  * An interface representing a data checksum.
  *
@@ -47,6 +49,43 @@ interface Checksum {
      */
     public void update(byte[] b, int off, int len);
 
+    /**
+     * Updates the current checksum with the bytes from the specified buffer.
+     *
+     * The checksum is updated using
+     * buffer.{@link java.nio.Buffer#remaining() remaining()}
+     * bytes starting at
+     * buffer.{@link java.nio.Buffer#position() position()}
+     * Upon return, the buffer's position will be updated to its
+     * limit; its limit will not have been changed.
+     *
+     * @implSpec The default implementation passes the contents of the
+     * buffer's backing array to {@link #update(byte[], int, int)} if it
+     * has one, and otherwise copies the bytes into a temporary array a
+     * chunk at a time.
+     *
+     * @param buffer the ByteBuffer to update the checksum with
+     * @since 1.8
+     */
+    default public void update(ByteBuffer buffer) {
+        int pos = buffer.position();
+        int limit = buffer.limit();
+        int rem = limit - pos;
+        if (rem <= 0)
+            return;
+        if (buffer.hasArray()) {
+            update(buffer.array(), pos + buffer.arrayOffset(), rem);
+        } else {
+            byte[] b = new byte[Math.min(rem, 4096)];
+            while (buffer.hasRemaining()) {
+                int n = Math.min(buffer.remaining(), b.length);
+                buffer.get(b, 0, n);
+                update(b, 0, n);
+            }
+        }
+        buffer.position(limit);
+    }
+
     /**
      * Returns the current checksum value.
      * @return the current checksum value
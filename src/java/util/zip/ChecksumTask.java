@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import sun.misc.Cleaner;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * A task computing the checksum of a region of a file, by splitting it
+ * into segments whose checksums are computed in parallel from mappings
+ * of the file, and combined.
+ */
+@SuppressWarnings("serial")
+final class ChecksumTask extends RecursiveTask<Long> {
+
+    /**
+     * Combines the checksums of two adjacent sequences of bytes.
+     */
+    interface Combiner {
+        long combine(long sum1, long sum2, long len2);
+    }
+
+    /*
+     * The size of the segments mapped and checksummed by a single task.
+     */
+    private static final long SEGMENT_SIZE = 8L << 20;
+
+    private final FileChannel channel;
+    private final Supplier<? extends Checksum> factory;
+    private final Combiner combiner;
+    private final long position;
+    private final long size;
+
+    private ChecksumTask(FileChannel channel,
+                         Supplier<? extends Checksum> factory,
+                         Combiner combiner, long position, long size) {
+        this.channel = channel;
+        this.factory = factory;
+        this.combiner = combiner;
+        this.position = position;
+        this.size = size;
+    }
+
+    /**
+     * Returns the checksum of the content of the file of the given
+     * channel, computed in the common pool.
+     */
+    static long checksum(FileChannel channel,
+                         Supplier<? extends Checksum> factory,
+                         Combiner combiner) throws IOException {
+        long size = channel.size();
+        if (size <= SEGMENT_SIZE)
+            return segmentChecksum(channel, factory.get(), 0, size);
+        try {
+            return new ChecksumTask(channel, factory, combiner, 0, size).invoke();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    protected Long compute() {
+        if (size <= SEGMENT_SIZE) {
+            try {
+                return segmentChecksum(channel, factory.get(), position, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        // split at a segment boundary
+        long half = ((size >>> 1) + SEGMENT_SIZE - 1) & -SEGMENT_SIZE;
+        ChecksumTask right = new ChecksumTask(channel, factory, combiner,
+                                              position + half, size - half);
+        right.fork();
+        long sum1 = new ChecksumTask(channel, factory, combiner,
+                                     position, half).compute();
+        long sum2 = right.join();
+        return combiner.combine(sum1, sum2, size - half);
+    }
+
+    private static long segmentChecksum(FileChannel channel, Checksum sum,
+                                        long position, long size)
+        throws IOException
+    {
+        if (size > 0) {
+            MappedByteBuffer mbb =
+                channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            try {
+                sum.update(mbb);
+            } finally {
+                Cleaner cl = ((DirectBuffer)mbb).cleaner();
+                if (cl != null)
+                    cl.clean();
+            }
+        }
+        return sum.getValue();
+    }
+}
@@ -81,6 +81,7 @@ class Deflater {
     private boolean finish, finished;
     private long bytesRead;
     private long bytesWritten;
+    private boolean pooled;     // kept idle by a DeflaterPool
 
     /**
      * Compression method for the deflate algorithm (the only one currently
@@ -168,7 +169,7 @@ class Deflater {
     public Deflater(int level, boolean nowrap) {
         this.level = level;
         this.strategy = DEFAULT_STRATEGY;
-        this.zsRef = new ZStreamRef(init(level, DEFAULT_STRATEGY, nowrap));
+        this.zsRef = new ZStreamRef(init(level, DEFAULT_STRATEGY, nowrap), true);
     }
 
     /**
@@ -559,6 +560,24 @@ class Deflater {
             throw new NullPointerException("Deflater has been closed");
     }
 
+    boolean ended() {
+        synchronized (zsRef) {
+            return zsRef.address() == 0;
+        }
+    }
+
+    /**
+     * Sets whether this Deflater is kept idle by a DeflaterPool, returning the
+     * previous setting.
+     */
+    boolean setPooled(boolean pooled) {
+        synchronized (zsRef) {
+            boolean p = this.pooled;
+            this.pooled = pooled;
+            return p;
+        }
+    }
+
     private static native void initIDs();
     private native static long init(int level, int strategy, boolean nowrap);
     private native static void setDictionary(long addr, byte[] b, int off, int len);
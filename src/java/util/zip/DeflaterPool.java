@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+/**
+ * A pool of {@link Deflater} instances, for reuse instead of allocating
+ * and ending the native zlib state of a Deflater for each compression.
+ *
+ * <p> {@link #borrow} returns a Deflater, which {@link #release} resets,
+ * restoring the pool's compression level and the default strategy, and
+ * keeps for later use. Each thread may cache one released Deflater, taken
+ * again by its next borrow without synchronization; beyond that, up to a
+ * maximum number of idle Deflaters are kept in a list shared by all
+ * threads, and further ones are ended.
+ *
+ * <p> {@link #getMXBean} returns counts of borrowed, created and
+ * discarded Deflaters, and an estimate of the native memory held by all
+ * Inflaters and Deflaters not yet ended.
+ *
+ * @see InflaterPool
+ * @since 1.8
+ */
+public final class DeflaterPool extends ZStreamPool<Deflater> {
+
+    private final int level;
+    private final boolean nowrap;
+
+    /**
+     * Creates a new pool of Deflaters.
+     *
+     * @param level the compression level (0-9), or {@link
+     *        Deflater#DEFAULT_COMPRESSION}
+     * @param nowrap if true then the Deflaters use GZIP compatible
+     *        compression, as by {@link Deflater#Deflater(int, boolean)}
+     * @param maxIdle the maximum number of idle Deflaters shared by all
+     *        threads
+     * @param perThread if true then each thread also caches one idle
+     *        Deflater
+     * @throws IllegalArgumentException if the compression level is
+     *         invalid or {@code maxIdle} is negative
+     */
+    public DeflaterPool(int level, boolean nowrap, int maxIdle, boolean perThread) {
+        super(maxIdle, perThread);
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION)
+            throw new IllegalArgumentException("invalid compression level");
+        this.level = level;
+        this.nowrap = nowrap;
+    }
+
+    /**
+     * Returns the compression level of the Deflaters of this pool.
+     *
+     * @return the compression level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns whether the Deflaters of this pool are created with the
+     * 'nowrap' option.
+     *
+     * @return true if the Deflaters use GZIP compatible compression
+     */
+    public boolean isNowrap() {
+        return nowrap;
+    }
+
+    Deflater create() {
+        return new Deflater(level, nowrap);
+    }
+
+    boolean ended(Deflater def) {
+        return def.ended();
+    }
+
+    boolean setPooled(Deflater def, boolean pooled) {
+        return def.setPooled(pooled);
+    }
+
+    void reset(Deflater def) {
+        def.reset();
+        def.setLevel(level);
+        def.setStrategy(Deflater.DEFAULT_STRATEGY);
+    }
+
+    void end(Deflater def) {
+        def.end();
+    }
+}
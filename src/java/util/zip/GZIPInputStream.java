@@ -91,6 +91,42 @@ class GZIPInputStream extends InflaterInputStream {
         this(in, 512);
     }
 
+    /**
+     * Creates a new input stream with the specified buffer size, and a
+     * decompressor borrowed from the given pool. The decompressor is
+     * released to the pool when the stream is closed.
+     * @param in the input stream
+     * @param size the input buffer size
+     * @param pool the pool to borrow the decompressor from, whose
+     *             decompressors use the 'nowrap' option
+     *
+     * @exception ZipException if a GZIP format error has occurred or the
+     *                         compression method used is unsupported
+     * @exception IOException if an I/O error has occurred
+     * @exception IllegalArgumentException if {@code size <= 0}, or the
+     *                         pool's decompressors do not use the 'nowrap'
+     *                         option
+     * @exception IllegalStateException if the pool has been closed
+     * @since 1.8
+     */
+    public GZIPInputStream(InputStream in, int size, InflaterPool pool)
+        throws IOException
+    {
+        super(in, checkNowrap(pool), size);
+        try {
+            readHeader(in);
+        } catch (Throwable t) {
+            pool.release(inf);
+            throw t;
+        }
+    }
+
+    private static InflaterPool checkNowrap(InflaterPool pool) {
+        if (!pool.isNowrap())
+            throw new IllegalArgumentException("Inflater pool is not nowrap");
+        return pool;
+    }
+
     /**
      * Reads uncompressed data into an array of bytes. If <code>len</code> is not
      * zero, the method will block until some input can be decompressed; otherwise,
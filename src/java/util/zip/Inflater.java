@@ -80,6 +80,7 @@ class Inflater {
     private boolean needDict;
     private long bytesRead;
     private long bytesWritten;
+    private boolean pooled;     // kept idle by a InflaterPool
 
     private static final byte[] defaultBuf = new byte[0];
 
@@ -100,7 +101,7 @@ class Inflater {
      * @param nowrap if true then support GZIP compatible compression
      */
     public Inflater(boolean nowrap) {
-        zsRef = new ZStreamRef(init(nowrap));
+        zsRef = new ZStreamRef(init(nowrap), false);
     }
 
     /**
@@ -395,6 +396,18 @@ class Inflater {
         }
     }
 
+    /**
+     * Sets whether this Inflater is kept idle by a InflaterPool, returning the
+     * previous setting.
+     */
+    boolean setPooled(boolean pooled) {
+        synchronized (zsRef) {
+            boolean p = this.pooled;
+            this.pooled = pooled;
+            return p;
+        }
+    }
+
     private native static void initIDs();
     private native static long init(boolean nowrap);
     private native static void setDictionary(long addr, byte[] b, int off,
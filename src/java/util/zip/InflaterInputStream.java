@@ -109,6 +109,33 @@ class InflaterInputStream extends FilterInputStream {
         usesDefaultInflater = true;
     }
 
+    // the pool the decompressor was borrowed from, if any
+    InflaterPool pool;
+
+    /**
+     * Creates a new input stream with a decompressor borrowed from the
+     * given pool, and the specified buffer size. The decompressor is
+     * released to the pool when the stream is closed.
+     * @param in the input stream
+     * @param pool the pool to borrow the decompressor from
+     * @param size the input buffer size
+     * @exception IllegalArgumentException if {@code size <= 0}
+     * @exception IllegalStateException if the pool has been closed
+     * @since 1.8
+     */
+    public InflaterInputStream(InputStream in, InflaterPool pool, int size) {
+        super(in);
+        if (in == null || pool == null) {
+            throw new NullPointerException();
+        } else if (size <= 0) {
+            throw new IllegalArgumentException("buffer size <= 0");
+        }
+        buf = new byte[size];
+        // borrow last, so that a failed constructor never holds one
+        this.inf = pool.borrow();
+        this.pool = pool;
+    }
+
     private byte[] singleByteBuf = new byte[1];
 
     /**
@@ -224,6 +251,8 @@ class InflaterInputStream extends FilterInputStream {
         if (!closed) {
             if (usesDefaultInflater)
                 inf.end();
+            else if (pool != null)
+                pool.release(inf);
             in.close();
             closed = true;
         }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+/**
+ * A pool of {@link Inflater} instances, for reuse instead of allocating
+ * and ending the native zlib state of an Inflater for each decompression.
+ *
+ * <p> {@link #borrow} returns an Inflater, which {@link #release} resets
+ * and keeps for later use. Each thread may cache one released Inflater,
+ * taken again by its next borrow without synchronization; beyond that, up
+ * to a maximum number of idle Inflaters are kept in a list shared by all
+ * threads, and further ones are ended. {@link InflaterInputStream},
+ * {@link GZIPInputStream} and {@link ZipFile} can be given a pool to
+ * borrow their Inflaters from.
+ *
+ * <pre> {@code
+ * InflaterPool pool = new InflaterPool(true, 16, true);
+ * try (InputStream in = new GZIPInputStream(src, 8192, pool)) {
+ *     ...
+ * }}</pre>
+ *
+ * <p> {@link #getMXBean} returns counts of borrowed, created and
+ * discarded Inflaters, and an estimate of the native memory held by all
+ * Inflaters and Deflaters not yet ended.
+ *
+ * @see DeflaterPool
+ * @since 1.8
+ */
+public final class InflaterPool extends ZStreamPool<Inflater> {
+
+    private final boolean nowrap;
+
+    /**
+     * Creates a new pool of Inflaters.
+     *
+     * @param nowrap if true then the Inflaters support GZIP compatible
+     *        compression, as by {@link Inflater#Inflater(boolean)}
+     * @param maxIdle the maximum number of idle Inflaters shared by all
+     *        threads
+     * @param perThread if true then each thread also caches one idle
+     *        Inflater
+     * @throws IllegalArgumentException if {@code maxIdle} is negative
+     */
+    public InflaterPool(boolean nowrap, int maxIdle, boolean perThread) {
+        super(maxIdle, perThread);
+        this.nowrap = nowrap;
+    }
+
+    /**
+     * Returns whether the Inflaters of this pool are created with the
+     * 'nowrap' option.
+     *
+     * @return true if the Inflaters support GZIP compatible compression
+     */
+    public boolean isNowrap() {
+        return nowrap;
+    }
+
+    Inflater create() {
+        return new Inflater(nowrap);
+    }
+
+    boolean ended(Inflater inf) {
+        return inf.ended();
+    }
+
+    boolean setPooled(Inflater inf, boolean pooled) {
+        return inf.setPooled(pooled);
+    }
+
+    void reset(Inflater inf) {
+        inf.reset();
+    }
+
+    void end(Inflater inf) {
+        inf.end();
+    }
+}
@@ -0,0 +1,849 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.zip.ZipConstants64.*;
+
+/**
+ * This class is used to read entries from a zip file mapped into memory.
+ * Unlike {@link ZipFile}, which reads the central directory and entry data
+ * through the native zip library, this class parses the mapped file in
+ * Java.
+ *
+ * <p> Opening a {@code MappedZipFile} maps the file with {@link
+ * FileChannel#map FileChannel.map} and indexes the entry names of the
+ * central directory by hash. No {@link ZipEntry} is created until one is
+ * looked up by {@link #getEntry getEntry} or reached by iteration, and no
+ * file descriptor is held once the file is mapped. The data of an entry
+ * stored without compression may be obtained as a read-only slice of the
+ * mapping by {@link #getByteBuffer getByteBuffer}, without copying. The
+ * {@code Inflater}s used for compressed entries, and their input buffers,
+ * are reused between streams.
+ *
+ * <p> The mapping is released when neither this object nor any buffer
+ * returned by {@code getByteBuffer} is reachable any longer, rather than
+ * when this zip file is closed. Files larger than {@code Integer.MAX_VALUE}
+ * bytes cannot be mapped as a whole, and are rejected with a {@code
+ * ZipException}.
+ *
+ * <p> Unless otherwise noted, passing a <tt>null</tt> argument to a constructor
+ * or method in this class will cause a {@link NullPointerException} to be
+ * thrown.
+ *
+ * @see ZipFile
+ * @since 1.8
+ */
+public class MappedZipFile implements ZipConstants, Closeable {
+    private final String name;      // zip file name
+    private final ByteBuffer map;   // the mapped file, little-endian
+    private final long locpos;      // position of the zip file data proper
+    private final int total;        // total number of entries
+    private final int[] entryPos;   // position of the CEN header of each entry
+    private final int[] entryHash;  // hash of the name bytes of each entry
+    private final int[] table;      // open addressing index: entry + 1, or 0
+    private final int commentPos;   // position and length of zip file comment
+    private final int commentLen;
+    private final ZipCoder zc;
+    private volatile boolean closeRequested = false;
+
+    private static final int STORED = ZipEntry.STORED;
+    private static final int DEFLATED = ZipEntry.DEFLATED;
+
+    /** Size of the input buffer paired with each pooled Inflater */
+    private static final int INPUT_BUFFER_SIZE = 8192;
+
+    /**
+     * Opens a zip file for reading.
+     *
+     * @param name the name of the zip file
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     * @throws SecurityException if a security manager exists and its
+     *         <code>checkRead</code> method doesn't allow read access to the file.
+     */
+    public MappedZipFile(String name) throws IOException {
+        this(new File(name), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens a zip file for reading.
+     *
+     * @param file the ZIP file to be opened for reading
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     * @throws SecurityException if a security manager exists and its
+     *         <code>checkRead</code> method doesn't allow read access to the file.
+     */
+    public MappedZipFile(File file) throws IOException {
+        this(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens a zip file for reading, using the specified charset to decode
+     * the entry names and comments that are not encoded in UTF-8, as
+     * {@link ZipFile#ZipFile(File, Charset)} does.
+     *
+     * @param file the ZIP file to be opened for reading
+     * @param charset the {@linkplain java.nio.charset.Charset charset} to
+     *        be used to decode the ZIP entry name and comment that are not
+     *        encoded by using UTF-8 encoding (indicated by entry's general
+     *        purpose flag).
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     * @throws SecurityException if a security manager exists and its
+     *         <code>checkRead</code> method doesn't allow read access to the file.
+     */
+    public MappedZipFile(File file, Charset charset) throws IOException {
+        if (charset == null)
+            throw new NullPointerException("charset is null");
+        String name = file.getPath();
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkRead(name);
+        }
+        ByteBuffer map;
+        try (FileChannel ch = FileChannel.open(file.toPath(),
+                                               StandardOpenOption.READ)) {
+            long len = ch.size();
+            if (len == 0)
+                throw new ZipException("zip file is empty");
+            if (len > Integer.MAX_VALUE)
+                throw new ZipException("zip file too large to map");
+            map = ch.map(FileChannel.MapMode.READ_ONLY, 0, len);
+        }
+        map.order(ByteOrder.LITTLE_ENDIAN);
+        this.name = name;
+        this.map = map;
+        this.zc = ZipCoder.get(charset);
+
+        // locate the END header, and the ZIP64 END header if there is one
+        int end = findEND(map);
+        int endpos = end;
+        long cenlen = get32(map, end + ENDSIZ);
+        long cenoff = get32(map, end + ENDOFF);
+        long count = get16(map, end + ENDTOT);
+        if (cenlen == ZIP64_MAGICVAL || cenoff == ZIP64_MAGICVAL ||
+            count == ZIP64_MAGICCOUNT) {
+            int loc = end - ZIP64_LOCHDR;
+            if (loc >= 0 && get32(map, loc) == ZIP64_LOCSIG) {
+                long z = get64(map, loc + ZIP64_LOCOFF);
+                if (z < 0 || z > loc - ZIP64_ENDHDR ||
+                    get32(map, (int)z) != ZIP64_ENDSIG)
+                    throw new ZipException("invalid zip64 END header");
+                endpos = (int)z;
+                cenlen = get64(map, endpos + ZIP64_ENDSIZ);
+                cenoff = get64(map, endpos + ZIP64_ENDOFF);
+                count = get64(map, endpos + ZIP64_ENDTOT);
+            }
+        }
+        if (cenlen < 0 || cenlen > endpos)
+            throw new ZipException("invalid END header (bad central directory size)");
+        int cenpos = endpos - (int)cenlen;
+        if (cenoff < 0 || cenoff > cenpos)
+            throw new ZipException("invalid END header (bad central directory offset)");
+        this.locpos = cenpos - cenoff;
+        this.commentPos = end + ENDHDR;
+        this.commentLen = Math.min(get16(map, end + ENDCOM),
+                                   map.limit() - commentPos);
+
+        // read the CEN headers, relying on the size of the central
+        // directory rather than on the count of entries in the END header
+        int n = 0;
+        int[] pos = new int[(int)Math.min(Math.max(count, 16), cenlen / CENHDR + 1)];
+        int[] hash = new int[pos.length];
+        for (int p = cenpos, cenend = endpos; p < cenend; ) {
+            if (p > cenend - CENHDR || get32(map, p) != CENSIG)
+                throw new ZipException("invalid CEN header (bad signature)");
+            int method = get16(map, p + CENHOW);
+            int nlen = get16(map, p + CENNAM);
+            int next = p + CENHDR + nlen + get16(map, p + CENEXT) +
+                get16(map, p + CENCOM);
+            if (next > cenend)
+                throw new ZipException("invalid CEN header (bad header size)");
+            if ((get16(map, p + CENFLG) & 1) != 0)
+                throw new ZipException("invalid CEN header (encrypted entry)");
+            if (method != STORED && method != DEFLATED)
+                throw new ZipException("invalid CEN header (bad compression method)");
+            if (n == pos.length) {
+                pos = Arrays.copyOf(pos, n << 1);
+                hash = Arrays.copyOf(hash, n << 1);
+            }
+            int h = 0;
+            for (int i = p + CENHDR, e = i + nlen; i < e; ++i)
+                h = 31 * h + map.get(i);
+            pos[n] = p;
+            hash[n++] = h;
+            p = next;
+        }
+        this.total = n;
+        this.entryPos = pos;
+        this.entryHash = hash;
+
+        // index the names; of entries with the same name, the last wins,
+        // as with the native zip library
+        int cap = Integer.highestOneBit(Math.max(n, 8) - 1) << 2;
+        int[] tab = new int[cap];
+        int mask = cap - 1;
+        for (int e = 0; e < n; ++e) {
+            int h = hash[e], i = spread(h) & mask, k;
+            while ((k = tab[i]) != 0 &&
+                   (hash[k - 1] != h || !sameName(pos[k - 1], pos[e])))
+                i = (i + 1) & mask;
+            tab[i] = e + 1;
+        }
+        this.table = tab;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the position of the END header of the mapped file.
+     */
+    private static int findEND(ByteBuffer map) throws ZipException {
+        int len = map.limit();
+        int minpos = Math.max(0, len - ENDHDR - 0xFFFF);
+        for (int p = len - ENDHDR; p >= minpos; --p) {
+            if (map.get(p) == (byte)'P' && get32(map, p) == ENDSIG &&
+                p + ENDHDR + get16(map, p + ENDCOM) <= len)
+                return p;
+        }
+        throw new ZipException("zip END header not found");
+    }
+
+    private static int get16(ByteBuffer b, int pos) {
+        return Short.toUnsignedInt(b.getShort(pos));
+    }
+
+    private static long get32(ByteBuffer b, int pos) {
+        return Integer.toUnsignedLong(b.getInt(pos));
+    }
+
+    private static long get64(ByteBuffer b, int pos) {
+        return b.getLong(pos);
+    }
+
+    /**
+     * Returns true if the CEN headers at the given positions have the
+     * same name.
+     */
+    private boolean sameName(int p, int q) {
+        ByteBuffer map = this.map;
+        int len = get16(map, p + CENNAM);
+        if (len != get16(map, q + CENNAM))
+            return false;
+        for (int i = 0; i < len; ++i) {
+            if (map.get(p + CENHDR + i) != map.get(q + CENHDR + i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the entry with the given name, also trying the
+     * name followed by a slash if {@code addSlash} is true, or -1 if not
+     * found.
+     */
+    private int lookup(byte[] bname, boolean addSlash) {
+        int len = bname.length;
+        int h = 0;
+        for (byte b : bname)
+            h = 31 * h + b;
+        int e = lookup(bname, len, h, false);
+        if (e < 0 && addSlash && (len == 0 || bname[len - 1] != '/'))
+            e = lookup(bname, len, 31 * h + '/', true);
+        return e;
+    }
+
+    private int lookup(byte[] bname, int len, int h, boolean slash) {
+        ByteBuffer map = this.map;
+        int[] tab = table;
+        int mask = tab.length - 1;
+        for (int i = spread(h) & mask, k; (k = tab[i]) != 0; i = (i + 1) & mask) {
+            int e = k - 1;
+            if (entryHash[e] != h)
+                continue;
+            int p = entryPos[e];
+            if (get16(map, p + CENNAM) != (slash ? len + 1 : len))
+                continue;
+            int j = 0;
+            for (p += CENHDR; j < len && map.get(p + j) == bname[j]; ++j)
+                ;
+            if (j == len && (!slash || map.get(p + j) == '/'))
+                return e;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the given field of the CEN header at the given position,
+     * one of CENLEN, CENSIZ or CENOFF, reading it from the ZIP64 extra
+     * field when the header holds the magic value.
+     */
+    private long cenLong(int pos, int field) {
+        ByteBuffer map = this.map;
+        long v = get32(map, pos + field);
+        if (v != ZIP64_MAGICVAL)
+            return v;
+        int p = pos + CENHDR + get16(map, pos + CENNAM);
+        int end = p + get16(map, pos + CENEXT);
+        while (p + 4 <= end) {
+            int tag = get16(map, p);
+            int sz = get16(map, p + 2);
+            p += 4;
+            if (p + sz > end)
+                break;
+            if (tag == EXTID_ZIP64) {
+                // fields are present in this order, only where magic in CEN
+                int[] fields = { CENLEN, CENSIZ, CENOFF };
+                for (int f : fields) {
+                    if (get32(map, pos + f) == ZIP64_MAGICVAL) {
+                        if (sz < 8)
+                            break;
+                        if (f == field)
+                            return get64(map, p);
+                        p += 8;
+                        sz -= 8;
+                    }
+                }
+                break;
+            }
+            p += sz;
+        }
+        return v;
+    }
+
+    private byte[] bytes(int pos, int len) {
+        byte[] b = new byte[len];
+        ByteBuffer bb = map.duplicate();
+        bb.position(pos);
+        bb.get(b);
+        return b;
+    }
+
+    private String decode(int pos, int len, int flag) {
+        byte[] b = bytes(pos, len);
+        synchronized (zc) {
+            if (!zc.isUTF8() && (flag & EFS) != 0)
+                return zc.toStringUTF8(b, len);
+            return zc.toString(b, len);
+        }
+    }
+
+    /**
+     * Returns the zip file comment, or null if none.
+     *
+     * @return the comment string for the zip file, or null if none
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public String getComment() {
+        ensureOpen();
+        if (commentLen == 0)
+            return null;
+        return decode(commentPos, commentLen, 0);
+    }
+
+    /**
+     * Returns the zip file entry for the specified name, or null
+     * if not found. As with {@link ZipFile#getEntry ZipFile.getEntry},
+     * if there is no entry of the given name, an entry of that name
+     * followed by a slash '/' is looked for.
+     *
+     * @param name the name of the entry
+     * @return the zip file entry, or null if not found
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public ZipEntry getEntry(String name) {
+        if (name == null) {
+            throw new NullPointerException("name");
+        }
+        ensureOpen();
+        byte[] bname;
+        synchronized (zc) {
+            bname = zc.getBytes(name);
+        }
+        int e = lookup(bname, true);
+        if (e < 0)
+            return null;
+        // the name found has a trailing slash added unless equal length
+        int nlen = get16(map, entryPos[e] + CENNAM);
+        return getZipEntry(nlen == bname.length ? name : null, e);
+    }
+
+    /**
+     * Returns the index of the entry with the name of the given entry, or
+     * -1 if there is none.
+     */
+    private int lookup(ZipEntry entry) {
+        byte[] bname;
+        synchronized (zc) {
+            if (!zc.isUTF8() && (entry.flag & EFS) != 0)
+                bname = zc.getBytesUTF8(entry.name);
+            else
+                bname = zc.getBytes(entry.name);
+        }
+        return lookup(bname, false);
+    }
+
+    /**
+     * Returns the data of the entry with the given CEN header position, as
+     * a slice of the mapping.
+     */
+    private ByteBuffer data(int pos) throws ZipException {
+        ByteBuffer map = this.map;
+        long loc = locpos + cenLong(pos, CENOFF);
+        if (loc < 0 || loc > map.limit() - LOCHDR ||
+            get32(map, (int)loc) != LOCSIG)
+            throw new ZipException("invalid LOC header (bad signature)");
+        int l = (int)loc;
+        long start = loc + LOCHDR + get16(map, l + LOCNAM) + get16(map, l + LOCEXT);
+        long csize = cenLong(pos, CENSIZ);
+        if (csize < 0 || start + csize > map.limit())
+            throw new ZipException("invalid LOC header (bad entry size)");
+        ByteBuffer bb = map.duplicate();
+        bb.limit((int)(start + csize));
+        bb.position((int)start);
+        return bb.slice();
+    }
+
+    /**
+     * Returns an input stream for reading the contents of the specified
+     * zip file entry.
+     *
+     * <p> Closing this ZIP file will, in turn, close all input
+     * streams that have been returned by invocations of this method.
+     *
+     * @param entry the zip file entry
+     * @return the input stream for reading the contents of the specified
+     * zip file entry, or null if there is no such entry
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public InputStream getInputStream(ZipEntry entry) throws IOException {
+        if (entry == null) {
+            throw new NullPointerException("entry");
+        }
+        ensureOpen();
+        int e = lookup(entry);
+        if (e < 0)
+            return null;
+        int pos = entryPos[e];
+        ByteBuffer data = data(pos);
+        switch (get16(map, pos + CENHOW)) {
+        case STORED:
+            return new MappedInputStream(data);
+        case DEFLATED:
+            return new MappedInflaterInputStream(data, cenLong(pos, CENLEN));
+        default:
+            throw new ZipException("invalid compression method");
+        }
+    }
+
+    /**
+     * Returns the contents of the specified zip file entry as a buffer.
+     * For an entry stored without compression, the buffer returned is a
+     * read-only slice of the mapped file, and remains valid after this zip
+     * file is closed. For a compressed entry, it is a new buffer holding
+     * the inflated contents.
+     *
+     * @param entry the zip file entry
+     * @return a buffer with the contents of the specified zip file entry,
+     * positioned at zero, or null if there is no such entry
+     * @throws ZipException if a ZIP format error has occurred, or the
+     *         entry is compressed and larger than a buffer can hold
+     * @throws IOException if an I/O error has occurred
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public ByteBuffer getByteBuffer(ZipEntry entry) throws IOException {
+        if (entry == null) {
+            throw new NullPointerException("entry");
+        }
+        ensureOpen();
+        int e = lookup(entry);
+        if (e < 0)
+            return null;
+        int pos = entryPos[e];
+        ByteBuffer data = data(pos);
+        switch (get16(map, pos + CENHOW)) {
+        case STORED:
+            return data;
+        case DEFLATED:
+            long size = cenLong(pos, CENLEN);
+            if (size > Integer.MAX_VALUE - 8)
+                throw new ZipException("entry too large to inflate into a buffer");
+            byte[] b = new byte[(int)size];
+            try (MappedInflaterInputStream in =
+                 new MappedInflaterInputStream(data, size)) {
+                int n = 0, r = 0;
+                while (n < b.length && (r = in.read(b, n, b.length - n)) > 0)
+                    n += r;
+                if (n < b.length || (r = in.read()) != -1)
+                    throw new ZipException("invalid entry size (expected " +
+                                           size + ")");
+            }
+            return ByteBuffer.wrap(b);
+        default:
+            throw new ZipException("invalid compression method");
+        }
+    }
+
+    /**
+     * An Inflater and its input buffer, reused between streams.
+     */
+    private static final class PooledInflater {
+        final Inflater inf = new Inflater(true);
+        final byte[] buf = new byte[INPUT_BUFFER_SIZE];
+    }
+
+    // List of available Inflaters, with their buffers, for decompression
+    private final Deque<PooledInflater> inflaterCache = new ArrayDeque<>();
+
+    /*
+     * Gets an inflater from the list of available inflaters or allocates
+     * a new one.
+     */
+    private PooledInflater getInflater() {
+        PooledInflater pi;
+        synchronized (inflaterCache) {
+            while (null != (pi = inflaterCache.poll())) {
+                if (false == pi.inf.ended()) {
+                    return pi;
+                }
+            }
+        }
+        return new PooledInflater();
+    }
+
+    /*
+     * Releases the specified inflater to the list of available inflaters,
+     * or ends it if this zip file is closed.
+     */
+    private void releaseInflater(PooledInflater pi) {
+        Inflater inf = pi.inf;
+        if (false == inf.ended()) {
+            inf.reset();
+            synchronized (inflaterCache) {
+                if (!closeRequested) {
+                    inflaterCache.add(pi);
+                    return;
+                }
+            }
+            inf.end();
+        }
+    }
+
+    /*
+     * Input stream over the data of a stored entry.
+     */
+    private class MappedInputStream extends InputStream {
+        private final ByteBuffer data;
+        private volatile boolean closeRequested = false;
+
+        MappedInputStream(ByteBuffer data) {
+            this.data = data;
+        }
+
+        private void ensureOpen() throws IOException {
+            if (closeRequested)
+                throw new IOException("Stream closed");
+            ensureOpenOrZipException();
+        }
+
+        public int read() throws IOException {
+            ensureOpen();
+            return data.hasRemaining() ? Byte.toUnsignedInt(data.get()) : -1;
+        }
+
+        public int read(byte b[], int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off)
+                throw new IndexOutOfBoundsException();
+            ensureOpen();
+            if (len == 0)
+                return 0;
+            int n = Math.min(len, data.remaining());
+            if (n == 0)
+                return -1;
+            data.get(b, off, n);
+            return n;
+        }
+
+        public long skip(long n) throws IOException {
+            ensureOpen();
+            if (n <= 0)
+                return 0;
+            int k = (int)Math.min(n, data.remaining());
+            data.position(data.position() + k);
+            return k;
+        }
+
+        public int available() {
+            return closeRequested ? 0 : data.remaining();
+        }
+
+        public void close() {
+            closeRequested = true;
+        }
+    }
+
+    /*
+     * Input stream inflating the data of a compressed entry, feeding the
+     * Inflater from the mapping through the buffer pooled with it.
+     */
+    private class MappedInflaterInputStream extends InputStream {
+        private final ByteBuffer data;
+        private final long size;
+        private PooledInflater pi;
+        private boolean eof = false;    // dummy byte supplied
+        private byte[] singleByteBuf;
+
+        MappedInflaterInputStream(ByteBuffer data, long size) {
+            this.data = data;
+            this.size = size;
+            this.pi = getInflater();
+        }
+
+        private Inflater ensureOpen() throws IOException {
+            PooledInflater p = pi;
+            if (p == null)
+                throw new IOException("Stream closed");
+            ensureOpenOrZipException();
+            return p.inf;
+        }
+
+        public int read() throws IOException {
+            byte[] b = singleByteBuf;
+            if (b == null)
+                singleByteBuf = b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : Byte.toUnsignedInt(b[0]);
+        }
+
+        public int read(byte b[], int off, int len) throws IOException {
+            Inflater inf = ensureOpen();
+            if (off < 0 || len < 0 || len > b.length - off)
+                throw new IndexOutOfBoundsException();
+            if (len == 0)
+                return 0;
+            try {
+                int n;
+                while ((n = inf.inflate(b, off, len)) == 0) {
+                    if (inf.finished() || inf.needsDictionary())
+                        return -1;
+                    if (inf.needsInput())
+                        fill(inf);
+                }
+                return n;
+            } catch (DataFormatException e) {
+                String s = e.getMessage();
+                throw new ZipException(s != null ? s : "Invalid ZLIB data format");
+            }
+        }
+
+        // Supplies an extra "dummy" byte at the end of the data, as
+        // required when using the "nowrap" Inflater option.
+        private void fill(Inflater inf) throws IOException {
+            if (eof)
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            byte[] buf = pi.buf;
+            int n = Math.min(data.remaining(), buf.length);
+            if (n == 0) {
+                buf[0] = 0;
+                n = 1;
+                eof = true;
+            } else {
+                data.get(buf, 0, n);
+            }
+            inf.setInput(buf, 0, n);
+        }
+
+        public int available() throws IOException {
+            PooledInflater p = pi;
+            if (p == null)
+                return 0;
+            long avail = size - p.inf.getBytesWritten();
+            return (avail > (long) Integer.MAX_VALUE ?
+                    Integer.MAX_VALUE : (int) avail);
+        }
+
+        public void close() {
+            PooledInflater p = pi;
+            if (p != null) {
+                pi = null;
+                releaseInflater(p);
+            }
+        }
+    }
+
+    /**
+     * Returns the path name of the ZIP file.
+     * @return the path name of the ZIP file
+     */
+    public String getName() {
+        return name;
+    }
+
+    private class ZipEntryIterator implements Enumeration<ZipEntry>, Iterator<ZipEntry> {
+        private int i = 0;
+
+        public ZipEntryIterator() {
+            ensureOpen();
+        }
+
+        public boolean hasMoreElements() {
+            return hasNext();
+        }
+
+        public boolean hasNext() {
+            ensureOpen();
+            return i < total;
+        }
+
+        public ZipEntry nextElement() {
+            return next();
+        }
+
+        public ZipEntry next() {
+            ensureOpen();
+            if (i >= total) {
+                throw new NoSuchElementException();
+            }
+            return getZipEntry(null, i++);
+        }
+    }
+
+    /**
+     * Returns an enumeration of the ZIP file entries.
+     * @return an enumeration of the ZIP file entries
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public Enumeration<? extends ZipEntry> entries() {
+        return new ZipEntryIterator();
+    }
+
+    /**
+     * Return an ordered {@code Stream} over the ZIP file entries.
+     * Entries appear in the {@code Stream} in the order they appear in
+     * the central directory of the ZIP file.
+     *
+     * @return an ordered {@code Stream} of entries in this ZIP file
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public Stream<? extends ZipEntry> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(
+                new ZipEntryIterator(), size(),
+                Spliterator.ORDERED | Spliterator.DISTINCT |
+                        Spliterator.IMMUTABLE | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Creates the ZipEntry for the entry of the given index, with the
+     * given name, or the name in its CEN header if null.
+     */
+    private ZipEntry getZipEntry(String name, int index) {
+        ByteBuffer map = this.map;
+        int pos = entryPos[index];
+        int nlen = get16(map, pos + CENNAM);
+        int elen = get16(map, pos + CENEXT);
+        int clen = get16(map, pos + CENCOM);
+        ZipEntry e = new ZipEntry();
+        e.flag = get16(map, pos + CENFLG);  // get the flag first
+        e.name = (name != null) ? name : decode(pos + CENHDR, nlen, e.flag);
+        e.xdostime = get32(map, pos + CENTIM);
+        e.crc = get32(map, pos + CENCRC);
+        e.size = cenLong(pos, CENLEN);
+        e.csize = cenLong(pos, CENSIZ);
+        e.method = get16(map, pos + CENHOW);
+        if (elen != 0)
+            e.setExtra0(bytes(pos + CENHDR + nlen, elen), false);
+        if (clen != 0)
+            e.comment = decode(pos + CENHDR + nlen + elen, clen, e.flag);
+        return e;
+    }
+
+    /**
+     * Returns the number of entries in the ZIP file.
+     * @return the number of entries in the ZIP file
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public int size() {
+        ensureOpen();
+        return total;
+    }
+
+    /**
+     * Closes the ZIP file.
+     * <p> Closing this ZIP file will close all of the input streams
+     * previously returned by invocations of the {@link #getInputStream
+     * getInputStream} method. Buffers returned by {@link #getByteBuffer
+     * getByteBuffer} remain valid.
+     */
+    public void close() {
+        if (closeRequested)
+            return;
+        synchronized (inflaterCache) {
+            closeRequested = true;
+            PooledInflater pi;
+            while (null != (pi = inflaterCache.poll())) {
+                pi.inf.end();
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (closeRequested) {
+            throw new IllegalStateException("zip file closed");
+        }
+    }
+
+    private void ensureOpenOrZipException() throws IOException {
+        if (closeRequested) {
+            throw new ZipException("ZipFile closed");
+        }
+    }
+}
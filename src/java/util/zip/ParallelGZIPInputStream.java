@@ -0,0 +1,612 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.zip.ParallelGZIPOutputStream.*;
+
+/**
+ * This class implements a stream filter for reading compressed data in
+ * the GZIP file format, decompressing members of a multi-member stream
+ * concurrently.
+ *
+ * <p> Like {@link GZIPInputStream}, this stream reads all the members of a
+ * GZIP stream in turn. Members whose header carries the extra field
+ * written by a {@link ParallelGZIPOutputStream} with independent blocks,
+ * giving the size of the member, are read ahead and decompressed by tasks
+ * run by the given {@link Executor}, a bounded number at a time. Other
+ * members are decompressed on the reading thread as they are read, as by
+ * {@code GZIPInputStream}, once the members ahead of them are consumed.
+ *
+ * @see GZIPInputStream
+ * @see ParallelGZIPOutputStream
+ * @since 1.8
+ */
+public
+class ParallelGZIPInputStream extends FilterInputStream {
+    /*
+     * File header flags.
+     */
+    private final static int FHCRC      = 2;    // Header CRC
+    private final static int FNAME      = 8;    // File name
+    private final static int FCOMMENT   = 16;   // File comment
+
+    /*
+     * Trailer size in bytes.
+     */
+    private final static int TRAILER_SIZE = 8;
+
+    private final Executor executor;
+    private final int maxPending;
+
+    // members being decompressed, in order
+    private final Deque<Member> pending = new ArrayDeque<>();
+
+    // Inflaters available for reuse by the decompression tasks
+    private final Deque<Inflater> inflaterCache = new ArrayDeque<>();
+
+    private final byte[] buf;   // input buffer
+    private int pos, lim;       // unread input in buf
+
+    private byte[] block;       // decompressed member being read
+    private int blockPos;
+
+    private boolean haveHeader; // header of the next member has been read
+    private int bodySize;       // its size less the header, or -1 if unknown
+    private boolean inflating;  // it is being inflated on this thread
+    private Inflater inf;       // inflater for such members
+    private final CRC32 crc = new CRC32();
+
+    private boolean closed;
+    private byte[] singleByteBuf;
+
+    /**
+     * Creates a new input stream with a default input buffer size,
+     * decompressing on the given executor.
+     *
+     * @param in the input stream
+     * @param executor the executor to run decompression tasks
+     * @exception ZipException if a GZIP format error has occurred or the
+     *                         compression method used is unsupported
+     * @exception IOException if an I/O error has occurred
+     */
+    public ParallelGZIPInputStream(InputStream in, Executor executor)
+        throws IOException
+    {
+        this(in, executor, 8192);
+    }
+
+    /**
+     * Creates a new input stream with the specified input buffer size,
+     * decompressing on the given executor. At most twice as many members
+     * as there are available processors are read ahead at a time.
+     *
+     * @param in the input stream
+     * @param executor the executor to run decompression tasks
+     * @param size the input buffer size
+     * @exception ZipException if a GZIP format error has occurred or the
+     *                         compression method used is unsupported
+     * @exception IOException if an I/O error has occurred
+     * @exception IllegalArgumentException if {@code size <= 0}
+     */
+    public ParallelGZIPInputStream(InputStream in, Executor executor, int size)
+        throws IOException
+    {
+        super(in);
+        if (in == null || executor == null)
+            throw new NullPointerException();
+        if (size <= 0)
+            throw new IllegalArgumentException("buffer size <= 0");
+        this.executor = executor;
+        this.maxPending = Math.max(2, 2 * Runtime.getRuntime().availableProcessors());
+        this.buf = new byte[size];
+        readHeader();
+    }
+
+    /**
+     * Check to make sure that this stream has not been closed
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Reads a byte of uncompressed data. This method will block until
+     * enough input is available for decompression.
+     * @return the byte read, or -1 if end of compressed input is reached
+     * @exception IOException if an I/O error has occurred
+     */
+    public int read() throws IOException {
+        byte[] b = singleByteBuf;
+        if (b == null)
+            singleByteBuf = b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : Byte.toUnsignedInt(b[0]);
+    }
+
+    /**
+     * Reads uncompressed data into an array of bytes. If <code>len</code> is not
+     * zero, the method will block until some input can be decompressed; otherwise,
+     * no bytes are read and <code>0</code> is returned.
+     * @param b the buffer into which the data is read
+     * @param off the start offset in the destination array <code>b</code>
+     * @param len the maximum number of bytes read
+     * @return  the actual number of bytes read, or -1 if the end of the
+     *          compressed input stream is reached
+     *
+     * @exception  NullPointerException If <code>b</code> is <code>null</code>.
+     * @exception  IndexOutOfBoundsException If <code>off</code> is negative,
+     * <code>len</code> is negative, or <code>len</code> is greater than
+     * <code>b.length - off</code>
+     * @exception ZipException if the compressed input data is corrupt.
+     * @exception IOException if an I/O error has occurred.
+     */
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        for (;;) {
+            byte[] blk = block;
+            if (blk != null && blockPos < blk.length) {
+                int n = Math.min(len, blk.length - blockPos);
+                System.arraycopy(blk, blockPos, b, off, n);
+                blockPos += n;
+                return n;
+            }
+            schedule();
+            if (!pending.isEmpty()) {
+                block = await(pending.peek());
+                blockPos = 0;
+                pending.poll();
+            } else if (haveHeader) {
+                int n = inflate(b, off, len);
+                if (n > 0)
+                    return n;
+            } else {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes that can be read without blocking.
+     *
+     * @return the number of decompressed bytes available
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public int available() throws IOException {
+        ensureOpen();
+        byte[] blk = block;
+        return (blk == null) ? 0 : blk.length - blockPos;
+    }
+
+    /**
+     * Skips specified number of bytes of uncompressed data.
+     * @param n the number of bytes to skip
+     * @return the actual number of bytes skipped.
+     * @exception IOException if an I/O error has occurred
+     * @exception IllegalArgumentException if {@code n < 0}
+     */
+    public long skip(long n) throws IOException {
+        if (n < 0) {
+            throw new IllegalArgumentException("negative skip length");
+        }
+        ensureOpen();
+        long total = 0;
+        byte[] tmp = null;
+        while (total < n) {
+            byte[] blk = block;
+            if (blk != null && blockPos < blk.length) {
+                int k = (int)Math.min(n - total, blk.length - blockPos);
+                blockPos += k;
+                total += k;
+                continue;
+            }
+            if (tmp == null)
+                tmp = new byte[512];
+            int k = read(tmp, 0, (int)Math.min(n - total, tmp.length));
+            if (k == -1)
+                break;
+            total += k;
+        }
+        return total;
+    }
+
+    /**
+     * Returns false. This stream does not support the <code>mark</code>
+     * and <code>reset</code> methods.
+     * @return  a <code>boolean</code> indicating if this stream type supports
+     *          the <code>mark</code> and <code>reset</code> methods.
+     */
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Does nothing.
+     * @param  readlimit   the maximum limit of bytes that can be read before
+     *                      the mark position becomes invalid.
+     */
+    public synchronized void mark(int readlimit) {
+    }
+
+    /**
+     * Throws an <code>IOException</code>, as mark and reset are not
+     * supported.
+     * @exception  IOException  always.
+     */
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * Closes this input stream and releases any system resources associated
+     * with the stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            Member m;
+            while ((m = pending.poll()) != null)
+                m.task.cancel(false);
+            if (inf != null)
+                inf.end();
+            synchronized (inflaterCache) {
+                Inflater i;
+                while ((i = inflaterCache.poll()) != null)
+                    i.end();
+            }
+            block = null;
+            in.close();
+        }
+    }
+
+    /**
+     * Reads ahead the members of known size following those pending, and
+     * submits them for decompression.
+     */
+    private void schedule() throws IOException {
+        while (haveHeader && bodySize >= 0 && pending.size() < maxPending) {
+            byte[] body = new byte[bodySize];
+            readFully(body);
+            Member m = new Member(body);
+            try {
+                executor.execute(m.task);
+            } catch (RejectedExecutionException ree) {
+                // decompress on this thread rather than lose the member
+                m.task.run();
+            }
+            pending.add(m);
+            nextHeader();
+        }
+    }
+
+    /**
+     * Inflates data of a member of unknown size on this thread, returning
+     * the number of bytes inflated, or 0 at the end of the member.
+     */
+    private int inflate(byte[] b, int off, int len) throws IOException {
+        Inflater inf = this.inf;
+        if (inf == null)
+            this.inf = inf = new Inflater(true);
+        if (!inflating) {
+            inf.reset();
+            crc.reset();
+            inflating = true;
+        }
+        try {
+            for (;;) {
+                int n = inf.inflate(b, off, len);
+                if (n > 0) {
+                    crc.update(b, off, n);
+                    return n;
+                }
+                if (inf.finished()) {
+                    pos = lim - inf.getRemaining();
+                    long crcValue = crc.getValue();
+                    // Uses left-to-right evaluation order
+                    if ((readUInt() != crcValue) ||
+                        // rfc1952; ISIZE is the input size modulo 2^32
+                        (readUInt() != (inf.getBytesWritten() & 0xffffffffL)))
+                        throw new ZipException("Corrupt GZIP trailer");
+                    inflating = false;
+                    nextHeader();
+                    return 0;
+                }
+                if (inf.needsDictionary())
+                    throw new ZipException("Corrupt GZIP data");
+                if (inf.needsInput()) {
+                    if (pos == lim && !fill())
+                        throw new EOFException("Unexpected end of ZLIB input stream");
+                    inf.setInput(buf, pos, lim - pos);
+                    pos = lim;
+                }
+            }
+        } catch (DataFormatException e) {
+            String s = e.getMessage();
+            throw new ZipException(s != null ? s : "Invalid ZLIB data format");
+        }
+    }
+
+    /**
+     * Waits for the given member to be decompressed.
+     */
+    private static byte[] await(Member m) throws IOException {
+        try {
+            return m.task.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof IOException)
+                throw (IOException)cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            if (cause instanceof Error)
+                throw (Error)cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /*
+     * Reads the header of the member following the current one, if there
+     * is any. As in GZIPInputStream, data following the last member that
+     * is not a valid header is ignored.
+     */
+    private void nextHeader() throws IOException {
+        haveHeader = false;
+        if (pos == lim && !fill())
+            return;
+        try {
+            readHeader();
+        } catch (IOException ignore) {
+            haveHeader = false;
+        }
+    }
+
+    /*
+     * Reads GZIP member header, noting the size of the member if given
+     * by its extra field.
+     */
+    private void readHeader() throws IOException {
+        crc.reset();
+        // Check header magic
+        if (readUShort() != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        // Check compression method
+        if (readUByte() != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        // Read flags
+        int flg = readUByte();
+        // Skip MTIME, XFL, and OS fields
+        for (int i = 0; i < 6; i++)
+            readUByte();
+        int n = 2 + 2 + 6;
+        long memberSize = 0;
+        // Read optional extra field, looking for the member size
+        if ((flg & FEXTRA) == FEXTRA) {
+            int m = readUShort();
+            n += m + 2;
+            while (m >= 4) {
+                int id = readUShort();
+                int sz = readUShort();
+                m -= 4;
+                if (id == BLOCK_SUBFIELD_ID && sz == BLOCK_SUBFIELD_LEN && m >= sz) {
+                    memberSize = readUInt();
+                } else {
+                    for (int i = 0; i < sz && i < m; i++)
+                        readUByte();
+                }
+                m -= Math.min(sz, m);
+            }
+            while (m-- > 0)
+                readUByte();
+        }
+        // Skip optional file name
+        if ((flg & FNAME) == FNAME) {
+            do {
+                n++;
+            } while (readUByte() != 0);
+        }
+        // Skip optional file comment
+        if ((flg & FCOMMENT) == FCOMMENT) {
+            do {
+                n++;
+            } while (readUByte() != 0);
+        }
+        // Check optional header CRC
+        if ((flg & FHCRC) == FHCRC) {
+            int v = (int)crc.getValue() & 0xffff;
+            if (readUShort() != v) {
+                throw new ZipException("Corrupt GZIP header");
+            }
+            n += 2;
+        }
+        crc.reset();
+        haveHeader = true;
+        bodySize = (memberSize > n + TRAILER_SIZE &&
+                    memberSize - n <= Integer.MAX_VALUE - 8)
+            ? (int)(memberSize - n) : -1;
+    }
+
+    /*
+     * Refills the input buffer, returning false at the end of input.
+     */
+    private boolean fill() throws IOException {
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0)
+            return false;
+        pos = 0;
+        lim = n;
+        return true;
+    }
+
+    private void readFully(byte[] b) throws IOException {
+        int off = 0, len = b.length;
+        int n = Math.min(len, lim - pos);
+        System.arraycopy(buf, pos, b, 0, n);
+        pos += n;
+        off += n;
+        while (off < len) {
+            int k = in.read(b, off, len - off);
+            if (k < 0)
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            off += k;
+        }
+    }
+
+    /*
+     * Reads unsigned integer in Intel byte order.
+     */
+    private long readUInt() throws IOException {
+        long s = readUShort();
+        return ((long)readUShort() << 16) | s;
+    }
+
+    /*
+     * Reads unsigned short in Intel byte order.
+     */
+    private int readUShort() throws IOException {
+        int b = readUByte();
+        return (readUByte() << 8) | b;
+    }
+
+    /*
+     * Reads unsigned byte, adding it to the header CRC.
+     */
+    private int readUByte() throws IOException {
+        if (pos == lim && !fill())
+            throw new EOFException();
+        int b = Byte.toUnsignedInt(buf[pos++]);
+        crc.update(b);
+        return b;
+    }
+
+    /*
+     * Gets an inflater from the list of available inflaters or allocates
+     * a new one.
+     */
+    private Inflater getInflater() {
+        Inflater inf;
+        synchronized (inflaterCache) {
+            inf = inflaterCache.poll();
+        }
+        return (inf != null) ? inf : new Inflater(true);
+    }
+
+    /*
+     * Releases the specified inflater to the list of available inflaters,
+     * or ends it if the stream is closed.
+     */
+    private void releaseInflater(Inflater inf) {
+        inf.reset();
+        synchronized (inflaterCache) {
+            if (!closed) {
+                inflaterCache.add(inf);
+                return;
+            }
+        }
+        inf.end();
+    }
+
+    /**
+     * The decompression of a member of known size, from its data and
+     * trailer, checking its CRC-32 and size.
+     */
+    private final class Member implements Callable<byte[]> {
+        final FutureTask<byte[]> task = new FutureTask<>(this);
+        final byte[] body;
+
+        Member(byte[] body) {
+            this.body = body;
+        }
+
+        public byte[] call() throws IOException {
+            byte[] body = this.body;
+            int n = body.length - TRAILER_SIZE;
+            long crcValue = get32(body, n);
+            long isize = get32(body, n + 4);
+            if (isize > Integer.MAX_VALUE - 8)
+                throw new ZipException("GZIP member too large");
+            byte[] b = new byte[(int)isize];
+            Inflater inf = getInflater();
+            try {
+                inf.setInput(body, 0, body.length);
+                int len = 0;
+                while (len < b.length) {
+                    int k = inf.inflate(b, len, b.length - len);
+                    if (k == 0 && (inf.finished() || inf.needsInput() ||
+                                   inf.needsDictionary()))
+                        break;
+                    len += k;
+                }
+                // the stream must end exactly at the size in the trailer
+                if (!inf.finished() && inf.inflate(new byte[1]) != 0)
+                    len = -1;
+                if (len != b.length || !inf.finished() ||
+                    inf.getRemaining() != TRAILER_SIZE)
+                    throw new ZipException("Corrupt GZIP trailer");
+            } catch (DataFormatException e) {
+                String s = e.getMessage();
+                throw new ZipException(s != null ? s : "Invalid ZLIB data format");
+            } finally {
+                releaseInflater(inf);
+            }
+            CRC32 c = new CRC32();
+            c.update(b, 0, b.length);
+            if (c.getValue() != crcValue)
+                throw new ZipException("Corrupt GZIP trailer");
+            return b;
+        }
+    }
+
+    private static long get32(byte[] b, int off) {
+        return (Byte.toUnsignedInt(b[off]) |
+                (Byte.toUnsignedInt(b[off + 1]) << 8) |
+                (Byte.toUnsignedInt(b[off + 2]) << 16) |
+                ((long)Byte.toUnsignedInt(b[off + 3]) << 24));
+    }
+}
@@ -0,0 +1,493 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * This class implements a stream filter for writing compressed data in
+ * the GZIP file format, compressing blocks of the data concurrently.
+ *
+ * <p> Data written to the stream is divided into blocks of a fixed size,
+ * each of which is compressed by a task run by the given {@link Executor},
+ * while the stream goes on collecting the next blocks. Compressed blocks
+ * are written to the underlying stream in order, so that at most a bounded
+ * number of blocks are pending at a time.
+ *
+ * <p> By default, each block is compressed with the last 32K bytes of the
+ * preceding block as a preset dictionary, and is ended with a {@link
+ * Deflater#SYNC_FLUSH sync flush} so that the compressed blocks concatenate
+ * to a single deflate stream. The output is then a single GZIP member, with
+ * a CRC-32 combined from the CRC-32s of the blocks, readable by {@link
+ * GZIPInputStream}, at a compression ratio close to that of a {@link
+ * GZIPOutputStream}.
+ *
+ * <p> With <em>independent blocks</em>, each block is instead written as a
+ * separate GZIP member, compressed without a dictionary. The header of each
+ * member has an extra field giving the size of the member, so that a {@link
+ * ParallelGZIPInputStream} can locate the members and decompress them
+ * concurrently. The output remains readable by any GZIP reader that
+ * supports multiple members, such as {@code GZIPInputStream}.
+ *
+ * @see GZIPOutputStream
+ * @see ParallelGZIPInputStream
+ * @since 1.8
+ */
+public
+class ParallelGZIPOutputStream extends FilterOutputStream {
+    /*
+     * GZIP header magic number.
+     */
+    final static int GZIP_MAGIC = 0x8b1f;
+
+    /*
+     * File header flags.
+     */
+    final static int FEXTRA = 4;    // Extra field
+
+    /*
+     * Subfield ID, "PB", of the extra field holding the size of a member
+     * written as an independent block, and the length of its data.
+     */
+    final static int BLOCK_SUBFIELD_ID = 'P' | ('B' << 8);
+    final static int BLOCK_SUBFIELD_LEN = 4;
+
+    /*
+     * Header size of a member written as an independent block.
+     */
+    final static int BLOCK_HEADER_SIZE = 10 + 2 + 4 + BLOCK_SUBFIELD_LEN;
+
+    /*
+     * Trailer size in bytes.
+     */
+    private final static int TRAILER_SIZE = 8;
+
+    /*
+     * Size of the dictionary a block is primed with.
+     */
+    private final static int DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * The default block size, in bytes.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private final Executor executor;
+    private final int level;
+    private final boolean independent;
+    private final int maxPending;
+
+    // blocks being compressed, in the order they are written out
+    private final Deque<Block> pending = new ArrayDeque<>();
+
+    // Deflaters available for reuse by the compression tasks
+    private final Deque<Deflater> deflaterCache = new ArrayDeque<>();
+
+    private byte[] buf;         // block being filled
+    private int count;          // number of bytes in buf
+    private byte[] prev;        // previous block, for its dictionary
+    private int prevCount;
+    private long crc;           // combined CRC-32 of the blocks written out
+    private long total;         // number of bytes in the blocks written out
+    private boolean started;    // some block has been submitted
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * Creates a new output stream with the default block size and
+     * compression level, compressing on the given executor into a single
+     * GZIP member.
+     *
+     * @param out the output stream
+     * @param executor the executor to run compression tasks
+     * @exception IOException If an I/O error has occurred.
+     */
+    public ParallelGZIPOutputStream(OutputStream out, Executor executor)
+        throws IOException
+    {
+        this(out, executor, DEFAULT_BLOCK_SIZE,
+             Deflater.DEFAULT_COMPRESSION, false);
+    }
+
+    /**
+     * Creates a new output stream with the specified block size,
+     * compression level and block mode, compressing on the given executor.
+     * At most twice as many blocks as there are available processors are
+     * pending at a time.
+     *
+     * @param out the output stream
+     * @param executor the executor to run compression tasks
+     * @param blockSize the size of the blocks compressed by each task
+     * @param level the compression level (0-9), or {@link
+     *        Deflater#DEFAULT_COMPRESSION}
+     * @param independentBlocks if {@code true}, write each block as a
+     *        separate GZIP member, compressed without a dictionary, that
+     *        can be decompressed independently of the others
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if {@code blockSize <= 0} or
+     *            the compression level is invalid
+     */
+    public ParallelGZIPOutputStream(OutputStream out, Executor executor,
+                                    int blockSize, int level,
+                                    boolean independentBlocks)
+        throws IOException
+    {
+        super(out);
+        if (executor == null)
+            throw new NullPointerException();
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("buffer size <= 0");
+        // validates the level
+        deflaterCache.add(new Deflater(level, true));
+        this.executor = executor;
+        this.level = level;
+        this.independent = independentBlocks;
+        this.maxPending = Math.max(2, 2 * Runtime.getRuntime().availableProcessors());
+        this.buf = new byte[blockSize];
+        if (!independent)
+            writeHeader();
+    }
+
+    /**
+     * Writes a byte to the compressed output stream. This method will
+     * block until the byte can be written.
+     * @param b the byte to be written
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void write(int b) throws IOException {
+        ensureOpen();
+        buf[count++] = (byte)b;
+        if (count == buf.length)
+            submit(false);
+    }
+
+    /**
+     * Writes an array of bytes to the compressed output stream. This
+     * method will block until all the bytes are written.
+     * @param b the data to be written
+     * @param off the start offset of the data
+     * @param len the length of the data
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void write(byte[] b, int off, int len)
+        throws IOException
+    {
+        ensureOpen();
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            int n = Math.min(len, buf.length - count);
+            System.arraycopy(b, off, buf, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == buf.length)
+                submit(false);
+        }
+    }
+
+    /**
+     * Flushes the compressed output stream. Data collected for the current
+     * block is compressed as a block of its own, and all pending blocks are
+     * written out, before the underlying stream is flushed.
+     *
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        if (!finished) {
+            if (count > 0)
+                submit(false);
+            while (!pending.isEmpty())
+                writeBlock();
+        }
+        out.flush();
+    }
+
+    /**
+     * Finishes writing compressed data to the output stream without closing
+     * the underlying stream. Use this method when applying multiple filters
+     * in succession to the same output stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void finish() throws IOException {
+        ensureOpen();
+        if (!finished) {
+            if (!independent || count > 0 || !started)
+                submit(true);
+            while (!pending.isEmpty())
+                writeBlock();
+            finished = true;
+            if (!independent) {
+                byte[] trailer = new byte[TRAILER_SIZE];
+                writeInt((int)crc, trailer, 0);
+                writeInt((int)total, trailer, 4);
+                out.write(trailer);
+            }
+        }
+    }
+
+    /**
+     * Writes remaining compressed data to the output stream and closes the
+     * underlying stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                closed = true;
+                synchronized (deflaterCache) {
+                    Deflater def;
+                    while ((def = deflaterCache.poll()) != null)
+                        def.end();
+                }
+                out.close();
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+    }
+
+    /**
+     * Submits the current block for compression, writing out blocks
+     * while too many are pending.
+     */
+    private void submit(boolean last) throws IOException {
+        if (finished)
+            throw new IOException("write beyond end of stream");
+        byte[] dict = independent ? null : prev;
+        Block block = new Block(buf, count, dict, prevCount, last);
+        try {
+            executor.execute(block.task);
+        } catch (RejectedExecutionException ree) {
+            // compress in the caller rather than lose the block
+            block.task.run();
+        }
+        started = true;
+        pending.add(block);
+        prev = buf;
+        prevCount = count;
+        buf = new byte[buf.length];
+        count = 0;
+        while (pending.size() > maxPending ||
+               (!pending.isEmpty() && pending.peek().task.isDone()))
+            writeBlock();
+    }
+
+    /**
+     * Waits for the first pending block to be compressed, and writes it
+     * out.
+     */
+    private void writeBlock() throws IOException {
+        Block block = pending.peek();
+        byte[] data;
+        try {
+            data = block.task.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof IOException)
+                throw (IOException)cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            if (cause instanceof Error)
+                throw (Error)cause;
+            throw new IOException(cause);
+        }
+        pending.poll();
+        out.write(data, 0, block.size);
+        crc = CRC32.combine(crc, block.crc, block.count);
+        total += block.count;
+    }
+
+    /*
+     * Writes GZIP member header.
+     */
+    private void writeHeader() throws IOException {
+        out.write(new byte[] {
+                      (byte) GZIP_MAGIC,        // Magic number (short)
+                      (byte)(GZIP_MAGIC >> 8),  // Magic number (short)
+                      Deflater.DEFLATED,        // Compression method (CM)
+                      0,                        // Flags (FLG)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Extra flags (XFLG)
+                      0                         // Operating system (OS)
+                  });
+    }
+
+    /*
+     * Writes the header of a member written as an independent block.
+     */
+    private static void writeBlockHeader(byte[] b, int memberSize) {
+        b[0] = (byte) GZIP_MAGIC;
+        b[1] = (byte)(GZIP_MAGIC >> 8);
+        b[2] = Deflater.DEFLATED;
+        b[3] = FEXTRA;
+        // MTIME, XFLG and OS are zero
+        writeShort(2 + 2 + BLOCK_SUBFIELD_LEN, b, 10);    // XLEN
+        writeShort(BLOCK_SUBFIELD_ID, b, 12);             // SI1, SI2
+        writeShort(BLOCK_SUBFIELD_LEN, b, 14);            // LEN
+        writeInt(memberSize, b, 16);
+    }
+
+    /*
+     * Writes integer in Intel byte order to a byte array, starting at a
+     * given offset.
+     */
+    private static void writeInt(int i, byte[] buf, int offset) {
+        writeShort(i & 0xffff, buf, offset);
+        writeShort((i >> 16) & 0xffff, buf, offset + 2);
+    }
+
+    /*
+     * Writes short integer in Intel byte order to a byte array, starting
+     * at a given offset
+     */
+    private static void writeShort(int s, byte[] buf, int offset) {
+        buf[offset] = (byte)(s & 0xff);
+        buf[offset + 1] = (byte)((s >> 8) & 0xff);
+    }
+
+    /*
+     * Gets a deflater from the list of available deflaters or allocates
+     * a new one.
+     */
+    private Deflater getDeflater() {
+        Deflater def;
+        synchronized (deflaterCache) {
+            def = deflaterCache.poll();
+        }
+        return (def != null) ? def : new Deflater(level, true);
+    }
+
+    /*
+     * Releases the specified deflater to the list of available deflaters,
+     * or ends it if the stream is closed.
+     */
+    private void releaseDeflater(Deflater def) {
+        def.reset();
+        synchronized (deflaterCache) {
+            if (!closed) {
+                deflaterCache.add(def);
+                return;
+            }
+        }
+        def.end();
+    }
+
+    /**
+     * The compression of a block, producing its compressed form and
+     * computing its CRC-32. The compressed form of the last block of a
+     * single member is finished; that of other blocks ends with a sync
+     * flush. An independent block is compressed into a complete member.
+     */
+    private final class Block implements Callable<byte[]> {
+        final FutureTask<byte[]> task = new FutureTask<>(this);
+        final byte[] data;      // uncompressed data
+        final int count;        // uncompressed size
+        final byte[] dict;      // previous block, or null
+        final int dictCount;
+        final boolean last;
+        int size;               // compressed size, set by call
+        long crc;               // CRC-32, set by call
+
+        Block(byte[] data, int count, byte[] dict, int dictCount, boolean last) {
+            this.data = data;
+            this.count = count;
+            this.dict = dict;
+            this.dictCount = dictCount;
+            this.last = last;
+        }
+
+        public byte[] call() {
+            CRC32 c = new CRC32();
+            c.update(data, 0, count);
+            crc = c.getValue();
+
+            Deflater def = getDeflater();
+            try {
+                int off = independent ? BLOCK_HEADER_SIZE : 0;
+                byte[] b = new byte[off + count + (count >> 10) + 64];
+                if (dict != null && dictCount > 0) {
+                    int n = Math.min(dictCount, DICTIONARY_SIZE);
+                    def.setDictionary(dict, dictCount - n, n);
+                }
+                def.setInput(data, 0, count);
+                int len = off;
+                if (last || independent) {
+                    def.finish();
+                    while (!def.finished()) {
+                        if (len == b.length)
+                            b = Arrays.copyOf(b, b.length << 1);
+                        len += def.deflate(b, len, b.length - len);
+                    }
+                } else {
+                    // deflate until the flush leaves room in the output
+                    do {
+                        if (len == b.length)
+                            b = Arrays.copyOf(b, b.length << 1);
+                        len += def.deflate(b, len, b.length - len,
+                                           Deflater.SYNC_FLUSH);
+                    } while (len == b.length);
+                }
+                if (independent) {
+                    if (b.length - len < TRAILER_SIZE)
+                        b = Arrays.copyOf(b, len + TRAILER_SIZE);
+                    writeInt((int)crc, b, len);
+                    writeInt(count, b, len + 4);
+                    len += TRAILER_SIZE;
+                    writeBlockHeader(b, len);
+                }
+                size = len;
+                return b;
+            } finally {
+                releaseDeflater(def);
+            }
+        }
+    }
+}
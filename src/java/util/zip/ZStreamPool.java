@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The common implementation of {@link InflaterPool} and {@link
+ * DeflaterPool}: a per-thread slot in front of a bounded shared list of
+ * idle instances, reset when released.
+ */
+abstract class ZStreamPool<T> {
+
+    /**
+     * The per-thread cached instance.
+     */
+    static final class Slot<T> {
+        T value;
+    }
+
+    private final int maxIdle;
+    private final ThreadLocal<Slot<T>> local;   // null if not per-thread
+
+    // List of idle instances, with at most maxIdle elements
+    private final Deque<T> idle = new ArrayDeque<>();
+    private volatile boolean closed;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder createCount = new LongAdder();
+    private final LongAdder discardCount = new LongAdder();
+
+    ZStreamPool(int maxIdle, boolean perThread) {
+        if (maxIdle < 0)
+            throw new IllegalArgumentException("maxIdle < 0");
+        this.maxIdle = maxIdle;
+        this.local = perThread ? ThreadLocal.withInitial(Slot::new) : null;
+    }
+
+    abstract T create();
+    abstract boolean ended(T z);
+    abstract boolean setPooled(T z, boolean pooled);
+    abstract void reset(T z);
+    abstract void end(T z);
+
+    /**
+     * Returns an instance from the pool, first from the one cached by the
+     * current thread, if any, then from the idle instances, otherwise a
+     * new one. It should be given back by {@link #release} when no
+     * longer used.
+     *
+     * @return an instance ready for use
+     * @throws IllegalStateException if this pool has been closed
+     */
+    public T borrow() {
+        if (closed) {
+            endLocal();
+            throw new IllegalStateException("Pool closed");
+        }
+        borrowCount.increment();
+        T z;
+        if (local != null) {
+            Slot<T> slot = local.get();
+            if ((z = slot.value) != null) {
+                slot.value = null;
+                setPooled(z, false);
+                return z;
+            }
+        }
+        synchronized (idle) {
+            z = idle.poll();
+        }
+        if (z != null) {
+            setPooled(z, false);
+        } else {
+            createCount.increment();
+            z = create();
+        }
+        return z;
+    }
+
+    /**
+     * Resets the given instance, which must no longer be used by the
+     * caller, and keeps it for reuse: in the current thread's slot if that
+     * is empty, otherwise with the idle instances if there are fewer than
+     * the maximum. Otherwise, or if this pool has been closed, the
+     * instance is ended. An instance already ended, or already released
+     * and not borrowed again since, is ignored, so that releasing it twice
+     * does not let two borrowers share it.
+     *
+     * @param z the instance to release
+     * @throws NullPointerException if {@code z} is null
+     */
+    public void release(T z) {
+        Objects.requireNonNull(z);
+        if (ended(z) || setPooled(z, true))
+            return;
+        if (!closed) {
+            reset(z);
+            if (local != null) {
+                Slot<T> slot = local.get();
+                if (slot.value == null) {
+                    slot.value = z;
+                    return;
+                }
+            }
+            synchronized (idle) {
+                if (!closed && idle.size() < maxIdle) {
+                    idle.add(z);
+                    return;
+                }
+            }
+        }
+        discardCount.increment();
+        end(z);
+        if (closed)
+            endLocal();
+    }
+
+    /**
+     * Closes this pool, ending its idle instances and the one cached by
+     * the current thread. Instances cached by other threads are ended
+     * when those threads next use this pool, or when they are garbage
+     * collected. Instances released after closing are ended.
+     */
+    public void close() {
+        synchronized (idle) {
+            closed = true;
+            T z;
+            while ((z = idle.poll()) != null)
+                end(z);
+        }
+        endLocal();
+    }
+
+    /**
+     * Ends the instance cached by the current thread, if any.
+     */
+    private void endLocal() {
+        if (local != null) {
+            T z = local.get().value;
+            local.remove();
+            if (z != null)
+                end(z);
+        }
+    }
+
+    /**
+     * Returns a management interface for this pool, which also reports
+     * the native memory held by all the open Inflaters and Deflaters.
+     *
+     * @return the management interface for this pool
+     */
+    public ZlibPoolMXBean getMXBean() {
+        return new PoolMXBean(this);
+    }
+
+    /**
+     * The ZlibPoolMXBean returned by getMXBean.
+     */
+    static final class PoolMXBean implements ZlibPoolMXBean {
+        final ZStreamPool<?> pool;
+        PoolMXBean(ZStreamPool<?> pool) { this.pool = pool; }
+        public int getMaxIdle() { return pool.maxIdle; }
+        public int getIdleCount() {
+            synchronized (pool.idle) {
+                return pool.idle.size();
+            }
+        }
+        public long getBorrowCount() { return pool.borrowCount.sum(); }
+        public long getCreateCount() { return pool.createCount.sum(); }
+        public long getDiscardCount() { return pool.discardCount.sum(); }
+        public boolean isClosed() { return pool.closed; }
+        public long getOpenInflaterCount() {
+            return ZStreamRef.openInflaterCount();
+        }
+        public long getOpenDeflaterCount() {
+            return ZStreamRef.openDeflaterCount();
+        }
+        public long getNativeMemoryUsed() {
+            return ZStreamRef.nativeMemoryUsed();
+        }
+    }
+}
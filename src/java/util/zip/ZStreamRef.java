@@ -25,22 +25,66 @@
 
 package java.util.zip;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * A reference to the native zlib's z_stream structure.
  */
 
 class ZStreamRef {
 
+    /*
+     * Estimates of the native memory held by an open z_stream, from the
+     * memory usage documented in zlib's zconf.h for the default window
+     * size and memory level: 1 << 15 bytes of window for inflate, and
+     * (1 << 17) + (1 << 17) bytes of window and hash tables for deflate,
+     * each plus a few kilobytes of state.
+     */
+    static final long INFLATE_NATIVE_SIZE = (1 << 15) + (7 << 10);
+    static final long DEFLATE_NATIVE_SIZE = (1 << 17) + (1 << 17) + (6 << 10);
+
+    // counts of the z_streams not yet ended
+    private static final AtomicLong openInflaters = new AtomicLong();
+    private static final AtomicLong openDeflaters = new AtomicLong();
+
     private volatile long address;
-    ZStreamRef (long address) {
+    private final boolean deflate;
+
+    ZStreamRef (long address, boolean deflate) {
         this.address = address;
+        this.deflate = deflate;
+        (deflate ? openDeflaters : openInflaters).incrementAndGet();
     }
 
     long address() {
         return address;
     }
 
+    /**
+     * Clears the address, when the z_stream is ended. Callers hold the
+     * lock on this reference.
+     */
     void clear() {
-        address = 0;
+        if (address != 0) {
+            address = 0;
+            (deflate ? openDeflaters : openInflaters).decrementAndGet();
+        }
+    }
+
+    static long openInflaterCount() {
+        return openInflaters.get();
+    }
+
+    static long openDeflaterCount() {
+        return openDeflaters.get();
+    }
+
+    /**
+     * Returns an estimate of the native memory held by the z_streams of
+     * all the Inflaters and Deflaters not yet ended.
+     */
+    static long nativeMemoryUsed() {
+        return openInflaters.get() * INFLATE_NATIVE_SIZE +
+               openDeflaters.get() * DEFLATE_NATIVE_SIZE;
     }
 }
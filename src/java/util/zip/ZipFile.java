@@ -205,6 +205,49 @@ class ZipFile implements ZipConstants, Closeable {
      */
     public ZipFile(File file, int mode, Charset charset) throws IOException
     {
+        this(file, mode, charset, null);
+    }
+
+    /**
+     * Opens a new <code>ZipFile</code> to read from the specified
+     * <code>File</code> object in the specified mode, borrowing the
+     * decompressors of its entries' input streams from the given pool.
+     * Otherwise this is as by {@link #ZipFile(File, int, Charset)}.
+     *
+     * @param file the ZIP file to be opened for reading
+     * @param mode the mode in which the file is to be opened
+     * @param charset
+     *        the {@linkplain java.nio.charset.Charset charset} to
+     *        be used to decode the ZIP entry name and comment that are not
+     *        encoded by using UTF-8 encoding (indicated by entry's general
+     *        purpose flag).
+     * @param pool the pool to borrow decompressors from, whose
+     *        decompressors use the 'nowrap' option, or {@code null} to use
+     *        decompressors cached by this ZIP file
+     *
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     *
+     * @throws SecurityException
+     *         if a security manager exists and its <code>checkRead</code>
+     *         method doesn't allow read access to the file,or its
+     *         <code>checkDelete</code> method doesn't allow deleting the
+     *         file when the <tt>OPEN_DELETE</tt> flag is set
+     *
+     * @throws IllegalArgumentException if the <tt>mode</tt> argument is
+     *         invalid, or the pool's decompressors do not use the 'nowrap'
+     *         option
+     *
+     * @see SecurityManager#checkRead(java.lang.String)
+     *
+     * @since 1.8
+     */
+    public ZipFile(File file, int mode, Charset charset, InflaterPool pool)
+        throws IOException
+    {
+        if (pool != null && !pool.isNowrap())
+            throw new IllegalArgumentException("Inflater pool is not nowrap");
+        this.inflaterPool = pool;
         if (((mode & OPEN_READ) == 0) ||
             ((mode & ~(OPEN_READ | OPEN_DELETE)) != 0)) {
             throw new IllegalArgumentException("Illegal mode: 0x"+
@@ -458,6 +501,8 @@ class ZipFile implements ZipConstants, Closeable {
      * a new one.
      */
     private Inflater getInflater() {
+        if (inflaterPool != null)
+            return inflaterPool.borrow();
         Inflater inf;
         synchronized (inflaterCache) {
             while (null != (inf = inflaterCache.poll())) {
@@ -473,7 +518,9 @@ class ZipFile implements ZipConstants, Closeable {
      * Releases the specified inflater to the list of available inflaters.
      */
     private void releaseInflater(Inflater inf) {
-        if (false == inf.ended()) {
+        if (inflaterPool != null) {
+            inflaterPool.release(inf);
+        } else if (false == inf.ended()) {
             inf.reset();
             synchronized (inflaterCache) {
                 inflaterCache.add(inf);
@@ -484,6 +531,9 @@ class ZipFile implements ZipConstants, Closeable {
     // List of available Inflater objects for decompression
     private Deque<Inflater> inflaterCache = new ArrayDeque<>();
 
+    // Pool to borrow Inflaters from instead, if not null
+    private final InflaterPool inflaterPool;
+
     /**
      * Returns the path name of the ZIP file.
      * @return the path name of the ZIP file
@@ -637,7 +687,11 @@ class ZipFile implements ZipConstants, Closeable {
                         e.getKey().close();
                         Inflater inf = e.getValue();
                         if (inf != null) {
-                            inf.end();
+                            // pooled inflaters go back to the pool
+                            if (inflaterPool != null)
+                                inflaterPool.release(inf);
+                            else
+                                inf.end();
                         }
                     }
                 }
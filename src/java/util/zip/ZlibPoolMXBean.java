@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+/**
+ * The management interface of an {@link InflaterPool} or {@link
+ * DeflaterPool}, obtained from its {@code getMXBean} method. Counts are
+ * cumulative since the pool was created. The counts of open Inflaters
+ * and Deflaters, and the estimate of the native memory they hold, cover
+ * all those not yet ended in the virtual machine, pooled or not.
+ *
+ * <p>An instance may be registered with the platform {@code
+ * MBeanServer}, for example:
+ *
+ * <pre> {@code
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(
+ *     pool.getMXBean(),
+ *     new ObjectName("java.util.zip:type=InflaterPool,name=gzip"));
+ * }</pre>
+ *
+ * @since 1.8
+ */
+public interface ZlibPoolMXBean {
+
+    /**
+     * @return the maximum number of idle instances shared by all threads
+     */
+    int getMaxIdle();
+
+    /**
+     * @return the number of idle instances shared by all threads, not
+     *         counting those cached by each thread
+     */
+    int getIdleCount();
+
+    /**
+     * @return the number of instances borrowed from the pool
+     */
+    long getBorrowCount();
+
+    /**
+     * @return the number of instances created because none was idle
+     */
+    long getCreateCount();
+
+    /**
+     * @return the number of released instances ended because the pool
+     *         was full or closed
+     */
+    long getDiscardCount();
+
+    /**
+     * @return {@code true} if the pool has been closed
+     */
+    boolean isClosed();
+
+    /**
+     * @return the number of Inflaters in the virtual machine not yet ended
+     */
+    long getOpenInflaterCount();
+
+    /**
+     * @return the number of Deflaters in the virtual machine not yet ended
+     */
+    long getOpenDeflaterCount();
+
+    /**
+     * @return an estimate in bytes of the native zlib memory held by
+     *         the Inflaters and Deflaters not yet ended, from the memory
+     *         use documented by zlib for the default window size and
+     *         memory level
+     */
+    long getNativeMemoryUsed();
+}
@@ -0,0 +1,267 @@
+package test.AbstractQueuedSynchronizer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.AbstractQueuedLongSynchronizer;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer.ContentionStatistics;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AbstractQueuedSynchronizer / AbstractQueuedLongSynchronizer 的竞争统计
+ * 与自适应自旋的检查：
+ * 1. 未启用时 getContentionStatistics 返回 null；无竞争的 lock 只计 acquire
+ * 2. 锁被持有时 THREADS 个线程排队：快照里队列长度、最大队列长度、
+ *    contended 都等于 THREADS；放锁后全部获取，队列长度回到 0，等待时间 > 0
+ * 3. 超时与中断取消的排队计入 contended，不计入 acquire
+ * 4. AQS 与 AQLS 上的互斥计数器：THREADS 个线程各加 OPS 次，结果正确，
+ *    acquire 计数恰为 THREADS*OPS，结束后队列为空
+ * 5. 共享模式(闩锁)：等待者全部计入 contended，释放后全部获取
+ * 6. 自旋后退回 park：持锁 HOLD_MILLIS 期间排队者的 CPU 时间远小于等待时间；
+ *    每次都 park 的交接之后自旋上限减半到 0
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final int THREADS = 4;
+    static final int OPS = 20000;
+    static final long HOLD_MILLIS = 200;
+
+    public static void main(String[] args) throws Exception {
+        uncontended();
+        queued();
+        cancelled();
+        counter(new Mutex());
+        counter(new LongMutex());
+        shared();
+        spinThenPark(new Mutex());
+        spinThenPark(new LongMutex());
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    /** A non-reentrant lock on AQS or AQLS, for the common tests */
+    interface Lock {
+        void lock();
+        void unlock();
+        void setStats(boolean enabled);
+        ContentionStatistics stats();
+        int spinLimit() throws Exception;
+    }
+
+    static int spinLimit(Object sync, Class<?> c) throws Exception {
+        Field f = c.getDeclaredField("spinLimit");
+        f.setAccessible(true);
+        return f.getInt(sync);
+    }
+
+    static final class Mutex extends AbstractQueuedSynchronizer implements Lock {
+        protected boolean tryAcquire(int arg) { return compareAndSetState(0, 1); }
+        protected boolean tryRelease(int arg) { setState(0); return true; }
+        public void lock() { acquire(1); }
+        public void unlock() { release(1); }
+        public void setStats(boolean enabled) { setContentionStatisticsEnabled(enabled); }
+        public ContentionStatistics stats() { return getContentionStatistics(); }
+        public int spinLimit() throws Exception {
+            return Test.spinLimit(this, AbstractQueuedSynchronizer.class);
+        }
+    }
+
+    static final class LongMutex extends AbstractQueuedLongSynchronizer implements Lock {
+        protected boolean tryAcquire(long arg) { return compareAndSetState(0L, 1L); }
+        protected boolean tryRelease(long arg) { setState(0L); return true; }
+        public void lock() { acquire(1L); }
+        public void unlock() { release(1L); }
+        public void setStats(boolean enabled) { setContentionStatisticsEnabled(enabled); }
+        public ContentionStatistics stats() { return getContentionStatistics(); }
+        public int spinLimit() throws Exception {
+            return Test.spinLimit(this, AbstractQueuedLongSynchronizer.class);
+        }
+    }
+
+    static final class Latch extends AbstractQueuedSynchronizer {
+        protected int tryAcquireShared(int arg) { return (getState() != 0) ? 1 : -1; }
+        protected boolean tryReleaseShared(int arg) { setState(1); return true; }
+    }
+
+    static Thread start(Runnable r) {
+        Thread t = new Thread(r);
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    static void awaitQueued(ReentrantLock lock, int n) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (lock.getQueueLength() < n) {
+            check(System.nanoTime() < deadline, "threads did not queue");
+            Thread.sleep(1);
+        }
+    }
+
+    static void uncontended() {
+        ReentrantLock lock = new ReentrantLock();
+        check(lock.getContentionStatistics() == null, "statistics before enabling");
+        lock.setContentionStatisticsEnabled(true);
+        for (int i = 0; i < 100; i++) {
+            lock.lock();
+            lock.unlock();
+        }
+        ContentionStatistics s = lock.getContentionStatistics();
+        check(s.getAcquireCount() == 100 && s.getContendedAcquireCount() == 0 &&
+              s.getQueueLength() == 0 && s.getMaxQueueLength() == 0, "uncontended " + s);
+        lock.setContentionStatisticsEnabled(true);
+        check(lock.getContentionStatistics().getAcquireCount() == 0, "enabling did not reset");
+        lock.setContentionStatisticsEnabled(false);
+        check(lock.getContentionStatistics() == null, "statistics after disabling");
+    }
+
+    static void queued() throws Exception {
+        for (boolean fair : new boolean[] { false, true }) {
+            ReentrantLock lock = new ReentrantLock(fair);
+            lock.setContentionStatisticsEnabled(true);
+            lock.lock();
+            Thread[] ts = new Thread[THREADS];
+            for (int i = 0; i < THREADS; i++)
+                ts[i] = start(() -> { lock.lock(); lock.unlock(); });
+            awaitQueued(lock, THREADS);
+            ContentionStatistics s = lock.getContentionStatistics();
+            check(s.getQueueLength() == THREADS && s.getMaxQueueLength() == THREADS &&
+                  s.getContendedAcquireCount() == THREADS && s.getAcquireCount() == 1,
+                  "while queued " + s);
+            lock.unlock();
+            for (Thread t : ts)
+                t.join(10000);
+            s = lock.getContentionStatistics();
+            check(s.getQueueLength() == 0 && s.getMaxQueueLength() == THREADS &&
+                  s.getAcquireCount() == 1 + THREADS && s.getTotalWaitNanos() > 0,
+                  "after release " + s);
+        }
+    }
+
+    static void cancelled() throws Exception {
+        ReentrantLock lock = new ReentrantLock();
+        lock.setContentionStatisticsEnabled(true);
+        lock.lock();
+        boolean[] acquired = new boolean[2];
+        Thread timed = start(() -> {
+            try {
+                acquired[0] = lock.tryLock(50, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                acquired[0] = true;
+            }
+        });
+        timed.join(10000);
+        Thread interrupted = start(() -> {
+            try {
+                lock.lockInterruptibly();
+                acquired[1] = true;
+            } catch (InterruptedException expected) {
+            }
+        });
+        awaitQueued(lock, 1);
+        interrupted.interrupt();
+        interrupted.join(10000);
+        check(!timed.isAlive() && !interrupted.isAlive(), "cancelled waiter stuck");
+        check(!acquired[0] && !acquired[1], "acquired a held lock");
+        ContentionStatistics s = lock.getContentionStatistics();
+        check(s.getContendedAcquireCount() == 2 && s.getAcquireCount() == 1 &&
+              s.getQueueLength() == 0, "after cancellation " + s);
+        lock.unlock();
+    }
+
+    static void counter(Lock lock) throws Exception {
+        lock.setStats(true);
+        long[] count = new long[1];
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            start(() -> {
+                for (int i = 0; i < OPS; i++) {
+                    lock.lock();
+                    try {
+                        count[0]++;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        check(done.await(60, TimeUnit.SECONDS), "counter timed out");
+        lock.lock();
+        long c = count[0];
+        lock.unlock();
+        check(c == (long)THREADS * OPS, lock.getClass().getSimpleName() + " count " + c);
+        ContentionStatistics s = lock.stats();
+        check(s.getAcquireCount() == (long)THREADS * OPS + 1 && s.getQueueLength() == 0 &&
+              s.getContendedAcquireCount() <= s.getAcquireCount() &&
+              s.getMaxQueueLength() <= THREADS,
+              lock.getClass().getSimpleName() + " " + s);
+        int limit = lock.spinLimit();
+        check(limit >= 0 && limit <= 1024, "spin limit " + limit);
+    }
+
+    static void shared() throws Exception {
+        Latch latch = new Latch();
+        latch.setContentionStatisticsEnabled(true);
+        Thread[] ts = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++)
+            ts[i] = start(() -> latch.acquireShared(1));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (latch.getQueueLength() < THREADS) {
+            check(System.nanoTime() < deadline, "threads did not queue");
+            Thread.sleep(1);
+        }
+        latch.releaseShared(1);
+        for (Thread t : ts)
+            t.join(10000);
+        ContentionStatistics s = latch.getContentionStatistics();
+        check(s.getContendedAcquireCount() == THREADS && s.getAcquireCount() == THREADS &&
+              s.getQueueLength() == 0 && s.getMaxQueueLength() == THREADS, "latch " + s);
+    }
+
+    static void spinThenPark(Lock lock) throws Exception {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        AtomicLong cpu = new AtomicLong();
+        for (int round = 0; round < 12; round++) {
+            lock.lock();
+            CountDownLatch started = new CountDownLatch(1);
+            Thread waiter = start(() -> {
+                started.countDown();
+                lock.lock();
+                lock.unlock();
+            });
+            started.await();
+            Thread.sleep(HOLD_MILLIS / 4);
+            lock.unlock();
+            waiter.join(10000);
+            check(!waiter.isAlive(), "waiter stuck");
+            if (round == 0) {
+                // a long hold: the waiter must park rather than spin
+                lock.lock();
+                Thread w2 = start(() -> {
+                    long c0 = mx.getCurrentThreadCpuTime();
+                    lock.lock();
+                    cpu.set(mx.getCurrentThreadCpuTime() - c0);
+                    lock.unlock();
+                });
+                Thread.sleep(HOLD_MILLIS);
+                lock.unlock();
+                w2.join(10000);
+                check(!w2.isAlive(), "waiter stuck");
+                check(cpu.get() < TimeUnit.MILLISECONDS.toNanos(HOLD_MILLIS) / 4,
+                      "waiter used " + cpu.get() / 1000000 + "ms CPU in a " +
+                      HOLD_MILLIS + "ms wait");
+            }
+        }
+        check(lock.spinLimit() == 0, "spin limit " + lock.spinLimit() +
+              " after waiters parked on every handoff");
+    }
+}
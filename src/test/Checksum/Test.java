@@ -0,0 +1,148 @@
+package test.Checksum;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * CRC32 / CRC32C / Adler32 的检查：
+ * 1. 已知值："123456789" 的 CRC-32C 为 e3069283，CRC-32 为 cbf43926，
+ *    Adler-32 为 091e01de；update(int)、数组、堆内与直接 ByteBuffer 结果一致
+ * 2. combine：任意切分点两段的校验和合并后等于整段直接计算的结果
+ * 3. checksum(FileChannel)：文件大小在 8MB 分段边界附近(含 0 字节与多段)，
+ *    结果等于直接计算，且不改变通道的位置
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final long SEGMENT = 8L << 20;
+    static final byte[] CHECK = "123456789".getBytes();
+
+    interface Combiner {
+        long combine(long sum1, long sum2, long len2);
+    }
+
+    interface FileSum {
+        long checksum(FileChannel ch) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        knownAnswers();
+        Random rnd = new Random(7);
+        byte[] data = new byte[(1 << 20) + 3];
+        rnd.nextBytes(data);
+        combine("CRC32", CRC32::new, CRC32::combine, data, rnd);
+        combine("CRC32C", CRC32C::new, CRC32C::combine, data, rnd);
+        combine("Adler32", Adler32::new, Adler32::combine, data, rnd);
+        fileChecksums();
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    static long sum(Supplier<? extends Checksum> f, byte[] b, int off, int len) {
+        Checksum c = f.get();
+        c.update(b, off, len);
+        return c.getValue();
+    }
+
+    static void knownAnswer(String name, Supplier<? extends Checksum> f, long expected) {
+        check(sum(f, CHECK, 0, CHECK.length) == expected,
+              name + " of 123456789: " + Long.toHexString(sum(f, CHECK, 0, CHECK.length)));
+        Checksum c = f.get();
+        for (byte b : CHECK)
+            c.update(b);
+        check(c.getValue() == expected, name + " by update(int)");
+        c.reset();
+        ByteBuffer heap = ByteBuffer.allocate(CHECK.length + 2);
+        heap.put((byte)1).put(CHECK).flip();
+        heap.get();
+        c.update(heap);
+        check(c.getValue() == expected && !heap.hasRemaining(), name + " of a heap buffer");
+        c.reset();
+        ByteBuffer direct = ByteBuffer.allocateDirect(CHECK.length);
+        direct.put(CHECK).flip();
+        c.update(direct);
+        check(c.getValue() == expected && !direct.hasRemaining(), name + " of a direct buffer");
+        byte[] padded = new byte[CHECK.length + 5];
+        System.arraycopy(CHECK, 0, padded, 3, CHECK.length);
+        check(sum(f, padded, 3, CHECK.length) == expected, name + " with an offset");
+    }
+
+    static void knownAnswers() {
+        knownAnswer("CRC32C", CRC32C::new, 0xe3069283L);
+        knownAnswer("CRC32", CRC32::new, 0xcbf43926L);
+        knownAnswer("Adler32", Adler32::new, 0x091e01deL);
+        check(new CRC32C().getValue() == 0L, "CRC32C of nothing");
+    }
+
+    static void combine(String name, Supplier<? extends Checksum> f,
+                        Combiner combiner, byte[] data, Random rnd) {
+        int[] lengths = { 0, 1, 2, 7, 9, 100, 4096, 65537, data.length };
+        for (int len : lengths) {
+            long whole = sum(f, data, 0, len);
+            int[] cuts = { 0, len, len / 2, rnd.nextInt(len + 1), rnd.nextInt(len + 1) };
+            for (int cut : cuts) {
+                long a = sum(f, data, 0, cut), b = sum(f, data, cut, len - cut);
+                check(combiner.combine(a, b, len - cut) == whole,
+                      name + ".combine, length " + len + ", cut at " + cut);
+            }
+        }
+        try {
+            combiner.combine(0, 0, -1);
+            throw new AssertionError(name + ".combine accepted a negative length");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    static void fileChecksums() throws Exception {
+        long[] sizes = { 0, 1, SEGMENT - 1, SEGMENT, SEGMENT + 1,
+                         2 * SEGMENT + 12345, 3 * SEGMENT };
+        File f = File.createTempFile("checksum", ".bin");
+        f.deleteOnExit();
+        Random rnd = new Random(11);
+        byte[] buf = new byte[1 << 16];
+        for (long size : sizes) {
+            CRC32 crc = new CRC32();
+            CRC32C crcc = new CRC32C();
+            Adler32 adler = new Adler32();
+            try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+                raf.setLength(0);
+                for (long n = 0; n < size; ) {
+                    int k = (int)Math.min(buf.length, size - n);
+                    rnd.nextBytes(buf);
+                    raf.write(buf, 0, k);
+                    crc.update(buf, 0, k);
+                    crcc.update(buf, 0, k);
+                    adler.update(buf, 0, k);
+                    n += k;
+                }
+            }
+            fileChecksum("CRC32", f, size, CRC32::checksum, crc.getValue());
+            fileChecksum("CRC32C", f, size, CRC32C::checksum, crcc.getValue());
+            fileChecksum("Adler32", f, size, Adler32::checksum, adler.getValue());
+        }
+        f.delete();
+    }
+
+    static void fileChecksum(String name, File f, long size, FileSum fs,
+                             long expected) throws Exception {
+        try (FileChannel ch = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            ch.position(size / 3);
+            long sum = fs.checksum(ch);
+            check(sum == expected, name + ".checksum of " + size + " bytes: " +
+                  Long.toHexString(sum) + ", expected " + Long.toHexString(expected));
+            check(ch.position() == size / 3, name + ".checksum moved the position");
+        }
+    }
+}
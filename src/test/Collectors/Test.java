@@ -0,0 +1,78 @@
+package test.Collectors;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Collectors 并行收集吞吐量对比：
+ * 1. 分组计数：groupingBy(counting()) / groupingByConcurrent / groupingBySharded，
+ *    另加一个用 reducing(0L, e -> 1L, Long::sum) 的旧 counting 写法，看装箱的开销
+ * 2. 键唯一的 toMap：两参数版本(按叶子任务的精确大小预分配 HashMap，小表并入大表)
+ *    对比四参数版本 toMap(k, v, merger, HashMap::new)(不预分配，总是右表并入左表)
+ * 3. 分组的键个数分别取 1000(键少、竞争集中)和 1000000(键多、合并开销大)
+ * 并行度从 4 翻倍到 64，每个并行度用一个独立的 ForkJoinPool 执行，输出每次收集的耗时(ms)。
+ */
+public class Test {
+    static final int N = 4_000_000;
+    static final int ROUNDS = 5;
+    static final int MIN_THREADS = 4, MAX_THREADS = 64;
+
+    static final List<Integer> data =
+        IntStream.range(0, N).map(i -> i * 0x9E3779B9 >>> 1).boxed().collect(Collectors.toList());
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-40s", "threads");
+        for (int p = MIN_THREADS; p <= MAX_THREADS; p <<= 1)
+            System.out.printf("%9d", p);
+        System.out.println();
+        for (int keys : new int[] { 1000, 1_000_000 }) {
+            Function<Integer, Integer> key = x -> x % keys;
+            row("groupingBy(reducing counting) k=" + keys,
+                Collectors.groupingBy(key, Collectors.reducing(0L, e -> 1L, Long::sum)));
+            row("groupingBy(counting) k=" + keys,
+                Collectors.groupingBy(key, Collectors.counting()));
+            row("groupingByConcurrent k=" + keys,
+                Collectors.groupingByConcurrent(key, Collectors.counting()));
+            row("groupingBySharded k=" + keys,
+                Collectors.groupingBySharded(key, Collectors.counting()));
+        }
+        BinaryOperator<Integer> throwing = (u, v) -> { throw new IllegalStateException(); };
+        row("toMap(k, v, merger, HashMap::new)",
+            Collectors.toMap(x -> x, x -> x, throwing, HashMap::new));
+        row("toMap(k, v) presized", Collectors.toMap(x -> x, x -> x));
+    }
+
+    static void row(String name, Collector<Integer, ?, ? extends Map<?, ?>> c) throws Exception {
+        System.out.printf("%-40s", name);
+        for (int p = MIN_THREADS; p <= MAX_THREADS; p <<= 1)
+            System.out.printf("%9.1f", run(c, p));
+        System.out.println();
+    }
+
+    /** 返回 ROUNDS 轮中最快一轮的耗时，单位 ms(先预热一轮) */
+    static double run(Collector<Integer, ?, ? extends Map<?, ?>> c, int threads) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long best = Long.MAX_VALUE;
+            for (int r = 0; r <= ROUNDS; r++) {
+                long t = System.nanoTime();
+                Map<?, ?> m = pool.submit(() -> data.parallelStream().collect(c)).get();
+                long d = System.nanoTime() - t;
+                if (m.isEmpty())
+                    throw new AssertionError();
+                if (r > 0)
+                    best = Math.min(best, d);
+            }
+            return best / 1e6;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package test.CompactHashMap;
+
+import java.util.Arrays;
+import java.util.CompactHashMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 从空表开始不断 put，记录每一次 put 的耗时，比较扩容期间的尾延迟(p99/p99.9/max)。
+ * HashMap/LinkedHashMap 在 resize() 里一次性 rehash 整个 table，
+ * CompactHashMap 把 rehash 分摊到之后的每次 put 上。
+ * 运行时建议加 -Xmx8g -XX:+UseParallelGC，避免把 GC 停顿算进 put 延迟。
+ */
+public class Test {
+    static final int N = 1 << 21;
+    static final int WARMUP = 2, MEASURE = 3;
+
+    public static void main(String[] args) {
+        Integer[] keys = new Integer[N];
+        for (int i = 0; i < N; i++)
+            keys[i] = i * 0x9E3779B9;
+        long[] lat = new long[N];
+        for (int kind = 0; kind < 3; kind++) {
+            long[] all = new long[N * MEASURE];
+            for (int it = 0; it < WARMUP + MEASURE; it++) {
+                fill(newMap(kind), keys, lat);
+                if (it >= WARMUP)
+                    System.arraycopy(lat, 0, all, (it - WARMUP) * N, N);
+            }
+            report(kind == 0 ? "HashMap" : kind == 1 ? "LinkedHashMap" : "CompactHashMap", all);
+        }
+    }
+
+    static Map<Integer, Integer> newMap(int kind) {
+        return kind == 0 ? new HashMap<>() :
+               kind == 1 ? new LinkedHashMap<>() : new CompactHashMap<>();
+    }
+
+    static void fill(Map<Integer, Integer> m, Integer[] keys, long[] lat) {
+        for (int i = 0; i < keys.length; i++) {
+            long t0 = System.nanoTime();
+            m.put(keys[i], keys[i]);
+            lat[i] = System.nanoTime() - t0;
+        }
+        if (m.size() != keys.length) throw new AssertionError();
+    }
+
+    // 百分位都包含 System.nanoTime() 本身的开销(约 20ns)
+    static void report(String name, long[] lat) {
+        long total = 0;
+        for (long l : lat) total += l;
+        Arrays.sort(lat);
+        System.out.printf("%-15s mean %6.1f ns  p50 %6d ns  p99 %6d ns  p99.9 %8d ns  max %10d ns%n",
+                name, (double) total / lat.length,
+                lat[(int) (lat.length * 0.50)], lat[(int) (lat.length * 0.99)],
+                lat[(int) (lat.length * 0.999)], lat[lat.length - 1]);
+    }
+}
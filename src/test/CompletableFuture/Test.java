@@ -0,0 +1,197 @@
+package test.CompletableFuture;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * CompletableFuture 每个阶段的分配量(字节/阶段)与耗时(ns/阶段)对比：
+ * 1. 链长分别取 20 和 40，逐个 thenApply 构造(每阶段一个 UniApply + 一个 CompletableFuture)
+ *    对比 chain().thenApply(...)...toCompletableFuture()(整条链只有一个 UniChain + 一个 CompletableFuture)
+ * 2. 源 future 分别在挂链之前完成(直接执行)和之后完成(先入栈，再由 postComplete 触发)
+ * 3. 每个请求都在线程池上执行的情形：thenApplyAsync(fn, pool) 逐跳提交，
+ *    对比 pinnedTo(pool) 之后的 thenApply(完成对象本身就是提交的任务)
+ * 4. 一次完成 1000 个 future：逐个 complete 对比 completeAll，只统计完成本身，
+ *    挂依赖不计入；另外检查 completeAll 的依赖动作执行时所有 future 都已完成
+ * 分配量用 com.sun.management.ThreadMXBean.getThreadAllocatedBytes 统计当前线程，
+ * 第 3 项跨线程，只输出耗时。
+ */
+public class Test {
+    static final int REQUESTS = 200_000;
+    static final int ROUNDS = 5;
+    static final int BATCHES = 100;
+
+    static final com.sun.management.ThreadMXBean mx =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    // 结果保持在 Integer 缓存范围内，避免装箱分配干扰统计
+    static final Function<Integer, Integer> inc = x -> (x + 1) & 127;
+    static int sink;
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-36s%12s%12s%n", "", "B/stage", "ns/stage");
+        for (int len : new int[] { 20, 40 }) {
+            for (boolean pre : new boolean[] { true, false }) {
+                String when = pre ? " done" : " pending";
+                final boolean p = pre;
+                row("thenApply x" + len + when, () -> stages(len, p));
+                row("chain().thenApply x" + len + when, () -> chained(len, p));
+            }
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        int len = 20, n = REQUESTS / 20;
+        time("thenApplyAsync(pool) x" + len, (long) n * len, () -> {
+            for (int i = 0; i < n; ++i) {
+                CompletableFuture<Integer> f = CompletableFuture.completedFuture(i & 127);
+                for (int j = 0; j < len; ++j)
+                    f = f.thenApplyAsync(inc, pool);
+                sink += f.join();
+            }
+        });
+        time("pinnedTo(pool).thenApply x" + len, (long) n * len, () -> {
+            for (int i = 0; i < n; ++i) {
+                CompletableFuture<Integer> f =
+                    CompletableFuture.completedFuture(i & 127).pinnedTo(pool);
+                for (int j = 0; j < len; ++j)
+                    f = f.thenApply(inc);
+                sink += f.join();
+            }
+        });
+        pool.shutdown();
+        checkCompleteAll(1000);
+        completion("complete() x1000", 1000, false);
+        completion("completeAll() x1000", 1000, true);
+    }
+
+    /** 逐个 thenApply，返回完成的阶段数 */
+    static long stages(int len, boolean pre) {
+        for (int i = 0; i < REQUESTS / len; ++i) {
+            CompletableFuture<Integer> src = new CompletableFuture<>();
+            if (pre) src.complete(i & 127);
+            CompletableFuture<Integer> f = src;
+            for (int j = 0; j < len; ++j)
+                f = f.thenApply(inc);
+            if (!pre) src.complete(i & 127);
+            sink += f.join();
+        }
+        return (long) (REQUESTS / len) * len;
+    }
+
+    /** 同样的链用 chain() 融合成一个阶段 */
+    static long chained(int len, boolean pre) {
+        for (int i = 0; i < REQUESTS / len; ++i) {
+            CompletableFuture<Integer> src = new CompletableFuture<>();
+            if (pre) src.complete(i & 127);
+            CompletableFuture.Chain<Integer> c = src.chain();
+            for (int j = 0; j < len; ++j)
+                c = c.thenApply(inc);
+            CompletableFuture<Integer> f = c.toCompletableFuture();
+            if (!pre) src.complete(i & 127);
+            sink += f.join();
+        }
+        return (long) (REQUESTS / len) * len;
+    }
+
+    /**
+     * 每轮先挂好 BATCHES 批、每批 n 个带依赖的 future，再计时完成它们：
+     * 逐个 complete 或每批一次 completeAll。输出最好一轮的 字节/个 和 ns/个
+     */
+    static void completion(String name, int n, boolean all) {
+        long tid = Thread.currentThread().getId();
+        double bestBytes = Double.MAX_VALUE, bestNs = Double.MAX_VALUE;
+        for (int r = 0; r <= ROUNDS; ++r) {    // 第 0 轮预热
+            List<List<CompletableFuture<Integer>>> bs = new ArrayList<>(BATCHES);
+            for (int i = 0; i < BATCHES; ++i)
+                bs.add(batch(n));
+            long b0 = mx.getThreadAllocatedBytes(tid), t0 = System.nanoTime();
+            for (List<CompletableFuture<Integer>> fs : bs) {
+                if (all)
+                    CompletableFuture.completeAll(fs, 1);
+                else
+                    for (CompletableFuture<Integer> f : fs)
+                        f.complete(1);
+            }
+            long t1 = System.nanoTime(), b1 = mx.getThreadAllocatedBytes(tid);
+            if (r > 0) {
+                long units = (long) BATCHES * n;
+                bestBytes = Math.min(bestBytes, (double) (b1 - b0) / units);
+                bestNs = Math.min(bestNs, (double) (t1 - t0) / units);
+            }
+        }
+        System.out.printf("%-36s%12.1f%12.1f%n", name, bestBytes, bestNs);
+    }
+
+    /**
+     * completeAll 的返回值只计本次完成的 future；每个依赖动作(包括嵌套的)
+     * 都执行一次，且执行时所有 future 都已完成
+     */
+    static void checkCompleteAll(int n) {
+        List<CompletableFuture<Integer>> fs = new ArrayList<>(n);
+        int[] fired = new int[1];
+        boolean[] early = new boolean[1];
+        for (int i = 0; i < n; ++i) {
+            CompletableFuture<Integer> f = new CompletableFuture<>();
+            f.thenAccept(x -> {
+                if (x == 1)    // 由 completeAll 触发
+                    for (CompletableFuture<Integer> g : fs)
+                        if (!g.isDone())
+                            early[0] = true;
+                fired[0]++;
+            });
+            f.thenApply(x -> x + 1).thenAccept(x -> fired[0]++);
+            fs.add(f);
+        }
+        fs.get(0).complete(0);
+        int count = CompletableFuture.completeAll(fs, 1);
+        if (count != n - 1)
+            throw new AssertionError("completed " + count + ", expected " + (n - 1));
+        if (fired[0] != 2 * n)
+            throw new AssertionError("fired " + fired[0] + ", expected " + 2 * n);
+        if (early[0])
+            throw new AssertionError("dependent ran before all futures completed");
+        if (fs.get(0).join() != 0 || fs.get(n - 1).join() != 1)
+            throw new AssertionError("wrong results");
+    }
+
+    static List<CompletableFuture<Integer>> batch(int n) {
+        List<CompletableFuture<Integer>> fs = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            CompletableFuture<Integer> f = new CompletableFuture<>();
+            f.thenAccept(x -> sink += x);
+            fs.add(f);
+        }
+        return fs;
+    }
+
+    interface Work { long run() throws Exception; }
+    interface Body { void run() throws Exception; }
+
+    /** 输出 ROUNDS 轮中最好一轮的 字节/单位 和 ns/单位(先预热一轮) */
+    static void row(String name, Work w) throws Exception {
+        long tid = Thread.currentThread().getId();
+        double bestBytes = Double.MAX_VALUE, bestNs = Double.MAX_VALUE;
+        w.run();
+        for (int r = 0; r < ROUNDS; ++r) {
+            long b0 = mx.getThreadAllocatedBytes(tid), t0 = System.nanoTime();
+            long units = w.run();
+            long t1 = System.nanoTime(), b1 = mx.getThreadAllocatedBytes(tid);
+            bestBytes = Math.min(bestBytes, (double) (b1 - b0) / units);
+            bestNs = Math.min(bestNs, (double) (t1 - t0) / units);
+        }
+        System.out.printf("%-36s%12.1f%12.1f%n", name, bestBytes, bestNs);
+    }
+
+    static void time(String name, long units, Body b) throws Exception {
+        double best = Double.MAX_VALUE;
+        b.run();
+        for (int r = 0; r < ROUNDS; ++r) {
+            long t0 = System.nanoTime();
+            b.run();
+            best = Math.min(best, (double) (System.nanoTime() - t0) / units);
+        }
+        System.out.printf("%-36s%12s%12.1f%n", name, "-", best);
+    }
+}
@@ -0,0 +1,198 @@
+package test.ConcurrentArrayBlockingQueue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConcurrentArrayBlockingQueue 的 BlockingQueue 约定检查，对照 ArrayBlockingQueue：
+ * 1. 中间删除(remove(Object)、Iterator.remove)后容量立即归还：
+ *    size() + remainingCapacity() == capacity，offer / 限时 offer / put 都能成功
+ * 2. 删除后剩余元素保持 FIFO 顺序，迭代器不重复、不遗漏
+ * 3. 多生产者、多消费者并发运行时另有线程不断 remove，检查元素不丢不重
+ * 三种模式(多对多、单生产者、单消费者)都跑一遍，出错时抛 AssertionError。
+ */
+public class Test {
+    static final int STRESS_ITEMS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        for (int mode = 0; mode < 3; mode++) {
+            removeThenOffer(mode);
+            interiorRemove(mode);
+            iteratorRemove(mode);
+        }
+        removeThenOffer(new ArrayBlockingQueue<>(1));
+        stress(false);
+        stress(true);
+        System.out.println("OK");
+    }
+
+    static BlockingQueue<Integer> queue(int capacity, int mode) {
+        return new ConcurrentArrayBlockingQueue<>(capacity, mode == 1, mode == 2);
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    static void checkCapacity(BlockingQueue<Integer> q, int capacity) {
+        check(q.size() + q.remainingCapacity() == capacity,
+              "size " + q.size() + " + remaining " + q.remainingCapacity() + " != " + capacity);
+    }
+
+    // 容量为 1：put("a"); remove("a") 之后必须还能放进新元素
+    static void removeThenOffer(int mode) throws Exception {
+        removeThenOffer(queue(1, mode));
+    }
+
+    static void removeThenOffer(BlockingQueue<Integer> q) throws Exception {
+        q.put(1);
+        check(q.remove(1), "remove");
+        check(q.isEmpty() && q.size() == 0, "empty after remove");
+        check(q.remainingCapacity() == 1, "remainingCapacity " + q.remainingCapacity());
+        check(q.offer(2), "offer after remove");
+        check(q.remove(2), "remove again");
+        check(q.offer(3, 100, TimeUnit.MILLISECONDS), "timed offer after remove");
+        check(q.remove(3), "remove third");
+        Thread t = new Thread(() -> {
+            try { q.put(4); } catch (InterruptedException e) { }
+        });
+        t.start();
+        t.join(5000);
+        check(!t.isAlive(), "put blocked on an empty queue");
+        check(q.poll() == 4 && q.poll() == null, "put element");
+    }
+
+    // 从中间、队首、队尾删除，剩余元素顺序不变，空出的槽位可以继续插入
+    static void interiorRemove(int mode) throws Exception {
+        int cap = 7;
+        for (int round = 0; round < 20; round++) {
+            BlockingQueue<Integer> q = queue(cap, mode);
+            List<Integer> ref = new ArrayList<>();
+            for (int i = 0; i < round % cap; i++) {   // 让队首绕到数组中间
+                q.put(-1);
+                q.poll();
+            }
+            int next = 0;
+            for (int i = 0; i < cap; i++) {
+                q.put(next);
+                ref.add(next++);
+            }
+            check(!q.offer(99), "full");
+            for (Integer r : new Integer[] { 3, 0, 6, 1 }) {
+                check(q.remove(r), "remove " + r);
+                ref.remove(r);
+                checkCapacity(q, cap);
+                check(q.offer(next), "offer after remove " + r);
+                ref.add(next++);
+                checkCapacity(q, cap);
+            }
+            check(!q.remove(3), "removed twice");
+            check(Arrays.equals(q.toArray(), ref.toArray()), "order " + q + " " + ref);
+            for (Integer r : ref)
+                check(q.poll().equals(r), "poll order");
+            check(q.poll() == null, "drained");
+        }
+    }
+
+    static void iteratorRemove(int mode) throws Exception {
+        int cap = 10;
+        BlockingQueue<Integer> q = queue(cap, mode);
+        for (int i = 0; i < cap; i++)
+            q.put(i);
+        List<Integer> seen = new ArrayList<>();
+        for (Iterator<Integer> it = q.iterator(); it.hasNext(); ) {
+            Integer x = it.next();
+            seen.add(x);
+            if ((x & 1) == 1)
+                it.remove();
+        }
+        check(seen.size() == cap, "iterator saw " + seen);
+        for (int i = 0; i < cap; i++)
+            check(seen.get(i) == i, "iterator order " + seen);
+        check(q.size() == cap / 2, "size after iterator remove");
+        checkCapacity(q, cap);
+        for (int i = 0; i < cap / 2; i++)
+            check(q.offer(100 + i), "offer after iterator remove");
+        check(!q.offer(200), "full again");
+        for (int i = 0; i < cap; i += 2)
+            check(q.poll() == i, "poll after iterator remove");
+    }
+
+    // 生产者放入 0..STRESS_ITEMS-1，消费者取出，另一个线程随机删除；
+    // 每个元素必须恰好被取出或删除一次
+    static void stress(boolean singleConsumer) throws Exception {
+        int producers = 2, consumers = singleConsumer ? 1 : 2;
+        BlockingQueue<Integer> q = new ConcurrentArrayBlockingQueue<>(16, false, singleConsumer);
+        byte[] hits = new byte[STRESS_ITEMS];
+        AtomicLong done = new AtomicLong();
+        CountDownLatch finished = new CountDownLatch(producers + consumers + (singleConsumer ? 0 : 1));
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int first = p;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = first; i < STRESS_ITEMS; i += producers)
+                        q.put(i);
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                finished.countDown();
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (done.get() < STRESS_ITEMS) {
+                        Integer x = q.poll(10, TimeUnit.MILLISECONDS);
+                        if (x != null)
+                            record(hits, x, done);
+                        // 单消费者模式下 remove 也只能由消费者线程调用
+                        if (singleConsumer && x != null && (x % 7) == 0) {
+                            Integer y = x + 1;
+                            if (q.remove(y))
+                                record(hits, y, done);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                finished.countDown();
+            }));
+        }
+        if (!singleConsumer) {
+            threads.add(new Thread(() -> {
+                java.util.Random r = new java.util.Random(1);
+                while (done.get() < STRESS_ITEMS) {
+                    Integer y = r.nextInt(STRESS_ITEMS);
+                    if (q.remove(y))
+                        record(hits, y, done);
+                }
+                finished.countDown();
+            }));
+        }
+        long t0 = System.nanoTime();
+        for (Thread t : threads)
+            t.start();
+        check(finished.await(120, TimeUnit.SECONDS), "stress timed out, done=" + done.get());
+        for (int i = 0; i < STRESS_ITEMS; i++)
+            check(hits[i] == 1, "element " + i + " seen " + hits[i] + " times");
+        System.out.printf("stress(singleConsumer=%b): %d ms%n", singleConsumer,
+                          (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    static void record(byte[] hits, int x, AtomicLong done) {
+        synchronized (hits) {
+            hits[x]++;
+        }
+        done.incrementAndGet();
+    }
+}
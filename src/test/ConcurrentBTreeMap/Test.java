@@ -0,0 +1,92 @@
+package test.ConcurrentBTreeMap;
+
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentBTreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * TreeMap / ConcurrentSkipListMap / ConcurrentBTreeMap 的对比：
+ * 1. 单线程插入 N 个随机 long key 的吞吐量
+ * 2. 多线程并发插入(TreeMap 不参与)
+ * 3. subMap 范围扫描：随机选起点，每次遍历 SCAN 个 entry
+ * 运行时建议加 -Xmx4g -XX:+UseParallelGC。
+ */
+public class Test {
+    static final int N = 1 << 20;
+    static final int SCAN = 1000, SCANS = 4000;
+    static final int THREADS = 4;
+    static final int WARMUP = 3, MEASURE = 3;
+
+    public static void main(String[] args) throws Exception {
+        Long[] keys = new Long[N];
+        Random r = new Random(42);
+        for (int i = 0; i < N; i++)
+            keys[i] = r.nextLong() >>> 8;   // 时间戳风格的正数 key
+        for (int kind = 0; kind < 3; kind++) {
+            long insert = 0, parallel = 0, scan = 0, sink = 0;
+            for (int it = 0; it < WARMUP + MEASURE; it++) {
+                long t0 = System.nanoTime();
+                NavigableMap<Long, Long> m = fill(kind, keys);
+                long t1 = System.nanoTime();
+                if (kind != 0)
+                    parallelFill(kind, keys);
+                long t2 = System.nanoTime();
+                sink += scan(m, keys);
+                long t3 = System.nanoTime();
+                if (it >= WARMUP) {
+                    insert += t1 - t0;
+                    parallel += t2 - t1;
+                    scan += t3 - t2;
+                }
+            }
+            System.out.printf("%-22s insert %6.2f Mops/s   %d-thread insert %6.2f Mops/s   scan %7.2f Mentries/s   (%d)%n",
+                    kind == 0 ? "TreeMap" : kind == 1 ? "ConcurrentSkipListMap" : "ConcurrentBTreeMap",
+                    N * 1e3 * MEASURE / insert, THREADS,
+                    kind == 0 ? Double.NaN : N * 1e3 * MEASURE / parallel,
+                    (double) SCAN * SCANS * 1e3 * MEASURE / scan, sink);
+        }
+    }
+
+    static NavigableMap<Long, Long> newMap(int kind) {
+        return kind == 0 ? new TreeMap<>() :
+               kind == 1 ? new ConcurrentSkipListMap<>() : new ConcurrentBTreeMap<>();
+    }
+
+    static NavigableMap<Long, Long> fill(int kind, Long[] keys) {
+        NavigableMap<Long, Long> m = newMap(kind);
+        for (Long k : keys) m.put(k, k);
+        return m;
+    }
+
+    // 每个线程插入 keys 的一个交错子集
+    static void parallelFill(int kind, Long[] keys) throws InterruptedException {
+        NavigableMap<Long, Long> m = newMap(kind);
+        Thread[] ts = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final int id = t;
+            ts[t] = new Thread(() -> {
+                for (int i = id; i < keys.length; i += THREADS)
+                    m.put(keys[i], keys[i]);
+            });
+            ts[t].start();
+        }
+        for (Thread t : ts) t.join();
+        if (m.size() != keys.length) throw new AssertionError(m.size());
+    }
+
+    static long scan(NavigableMap<Long, Long> m, Long[] keys) {
+        long s = 0;
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        for (int i = 0; i < SCANS; i++) {
+            int n = 0;
+            for (Long v : m.tailMap(keys[r.nextInt(keys.length)], true).values()) {
+                s += v;
+                if (++n == SCAN) break;
+            }
+        }
+        return s;
+    }
+}
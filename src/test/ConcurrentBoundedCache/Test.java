@@ -0,0 +1,159 @@
+package test.ConcurrentBoundedCache;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentBoundedCache;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ConcurrentBoundedCache 的检查：
+ * 1. 容量：插入远多于 maximumSize 的键，cleanUp 后大小不超过上限，驱逐计数相符
+ * 2. 频率：反复访问的热键在一次性扫描大量冷键后大部分仍然保留(W-TinyLFU)
+ * 3. 权重：weightedSize 不超过 maximumWeight
+ * 4. 过期：用手动 ticker 推进时间，过期条目对 get、containsKey、
+ *    containsValue、entrySet().contains 一律不可见，cleanUp 后计入过期数
+ * 5. 并发：THREADS 个线程在少量键上混合 put/get/remove/containsKey，
+ *    读到的值必须属于该键；结束后 containsKey 与 get 一致，大小不超过上限
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final int THREADS = 4;
+    static final int OPS = 200000;
+
+    public static void main(String[] args) throws Exception {
+        bound();
+        frequency();
+        weight();
+        expiry();
+        concurrent();
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    static void bound() {
+        ConcurrentBoundedCache<Integer,Integer> c =
+            ConcurrentBoundedCache.<Integer,Integer>newBuilder()
+                .maximumSize(100).executor(Runnable::run).build();
+        for (int i = 0; i < 1000; i++)
+            c.put(i, i);
+        c.cleanUp();
+        check(c.size() <= 100, "size " + c.size());
+        check(c.stats().evictionCount() == 1000 - c.size(),
+              "evictions " + c.stats().evictionCount() + ", size " + c.size());
+        for (Map.Entry<Integer,Integer> e : c.entrySet())
+            check(e.getKey().equals(e.getValue()), "wrong value");
+    }
+
+    static void frequency() {
+        ConcurrentBoundedCache<Integer,Integer> c =
+            ConcurrentBoundedCache.<Integer,Integer>newBuilder()
+                .maximumSize(100).executor(Runnable::run).build();
+        for (int i = 0; i < 50; i++)
+            c.put(i, i);
+        for (int r = 0; r < 20; r++) {
+            for (int i = 0; i < 50; i++)
+                c.get(i);
+            c.cleanUp();
+        }
+        for (int i = 1000; i < 20000; i++)
+            c.put(i, i);
+        c.cleanUp();
+        int kept = 0;
+        for (int i = 0; i < 50; i++) {
+            if (c.containsKey(i))
+                kept++;
+        }
+        check(kept >= 40, "only " + kept + " of 50 hot keys survived a scan");
+    }
+
+    static void weight() {
+        ConcurrentBoundedCache<Integer,String> c =
+            ConcurrentBoundedCache.<Integer,String>newBuilder()
+                .maximumWeight(1000, (k, v) -> v.length())
+                .executor(Runnable::run).build();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            sb.setLength(0);
+            for (int j = i % 37; j >= 0; j--)
+                sb.append('x');
+            c.put(i, sb.toString());
+        }
+        c.cleanUp();
+        check(c.weightedSize() <= 1000, "weighted size " + c.weightedSize());
+        long w = 0;
+        for (String v : c.values())
+            w += v.length();
+        check(w == c.weightedSize(), "weight " + w + ", weightedSize " + c.weightedSize());
+    }
+
+    static void expiry() {
+        AtomicLong time = new AtomicLong();
+        ConcurrentBoundedCache<String,String> c =
+            ConcurrentBoundedCache.<String,String>newBuilder()
+                .expireAfterWrite(10, TimeUnit.NANOSECONDS)
+                .ticker(time::get).executor(Runnable::run).build();
+        c.put("a", "1");
+        c.put("b", "2");
+        time.addAndGet(5);
+        check("1".equals(c.get("a")) && c.containsKey("a"), "expired early");
+        time.addAndGet(5);
+        check(c.get("a") == null, "get of an expired entry");
+        check(!c.containsKey("b"), "containsKey of an expired entry");
+        check(!c.containsValue("2"), "containsValue of an expired entry");
+        check(!c.entrySet().contains(new AbstractMap.SimpleEntry<>("b", "2")),
+              "entrySet contains an expired entry");
+        check(c.remove("b") == null, "remove returned an expired value");
+        c.put("c", "3");
+        check("3".equals(c.get("c")), "new entry after expiry");
+        c.cleanUp();
+        check(c.stats().expirationCount() >= 1, "no expiration counted");
+        check(c.size() == 1, "size after cleanUp " + c.size());
+    }
+
+    static void concurrent() throws Exception {
+        ConcurrentBoundedCache<Integer,Integer> c =
+            ConcurrentBoundedCache.<Integer,Integer>newBuilder()
+                .maximumSize(32).build();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(() -> {
+                try {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPS; i++) {
+                        int k = rnd.nextInt(64);
+                        int op = rnd.nextInt(8);
+                        Integer v;
+                        if (op == 0)
+                            c.put(k, k * 1000 + rnd.nextInt(1000));
+                        else if (op == 1)
+                            v = c.remove(k);
+                        else if (op == 2)
+                            c.containsKey(k);
+                        else if ((v = c.get(k)) != null && v / 1000 != k)
+                            throw new AssertionError("value " + v + " for key " + k);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        check(done.await(60, TimeUnit.SECONDS), "concurrent operations timed out");
+        if (failure.get() != null)
+            throw new AssertionError(failure.get());
+        c.cleanUp();
+        check(c.size() <= 32, "size " + c.size());
+        for (int k = 0; k < 64; k++)
+            check(c.containsKey(k) == (c.get(k) != null), "containsKey and get disagree on " + k);
+    }
+}
@@ -0,0 +1,138 @@
+package test.Executors;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * newLightweightThreadPerTaskExecutor 的检查：
+ * 1. 大量任务阻塞在同一个 CountDownLatch 上，并行度为 1 时也都能开始、完成
+ * 2. 4 个线程同时提交共 64 个任务，每个任务先 countDown 再 await 同一个
+ *    CountDownLatch(64)：补偿一时失败时 park 不能不经补偿就挂起，否则
+ *    等待中的任务占满并行度，后提交的任务得不到运行，重复 ROUNDS 轮
+ * 3. shutdownNow 期间继续 park 的任务：线程池已在终止(队列 qlock < 0)，
+ *    无法补偿线程，此时 park 必须真正挂起线程，而不是在 tryCompensate 上空转。
+ *    用线程 CPU 时间判断：park 总时长 PARK_MILLIS，CPU 时间应远小于它。
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final int BLOCKED_TASKS = 500;
+    static final long PARK_MILLIS = 500;
+    static final int SUBMITTERS = 4;
+    static final int BARRIER_TASKS = 64;
+    static final int ROUNDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        blockedTasks();
+        for (int r = 0; r < ROUNDS; ++r)
+            concurrentSubmitters(r);
+        parkDuringShutdownNow();
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    static void blockedTasks() throws Exception {
+        ExecutorService ex = Executors.newLightweightThreadPerTaskExecutor();
+        CountDownLatch started = new CountDownLatch(BLOCKED_TASKS);
+        CountDownLatch gate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(BLOCKED_TASKS);
+        for (int i = 0; i < BLOCKED_TASKS; i++) {
+            ex.execute(() -> {
+                started.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                done.countDown();
+            });
+        }
+        check(started.await(60, TimeUnit.SECONDS), "not all tasks started: " + started.getCount());
+        gate.countDown();
+        check(done.await(60, TimeUnit.SECONDS), "not all tasks completed: " + done.getCount());
+        ex.shutdown();
+        check(ex.awaitTermination(60, TimeUnit.SECONDS), "not terminated");
+    }
+
+    static void concurrentSubmitters(int round) throws Exception {
+        ExecutorService ex = Executors.newLightweightThreadPerTaskExecutor();
+        CountDownLatch arrived = new CountDownLatch(BARRIER_TASKS);
+        CountDownLatch done = new CountDownLatch(BARRIER_TASKS);
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] submitters = new Thread[SUBMITTERS];
+        for (int i = 0; i < SUBMITTERS; ++i) {
+            submitters[i] = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                for (int j = 0; j < BARRIER_TASKS / SUBMITTERS; ++j) {
+                    ex.execute(() -> {
+                        arrived.countDown();
+                        try {
+                            arrived.await();
+                        } catch (InterruptedException e) {
+                            throw new AssertionError(e);
+                        }
+                        done.countDown();
+                    });
+                }
+            });
+            submitters[i].start();
+        }
+        go.countDown();
+        for (Thread t : submitters)
+            t.join();
+        check(done.await(30, TimeUnit.SECONDS),
+              "round " + round + ": barrier tasks hung, " + arrived.getCount() + " not arrived");
+        ex.shutdown();
+        check(ex.awaitTermination(30, TimeUnit.SECONDS), "round " + round + ": not terminated");
+    }
+
+    // 任务在 shutdownNow 之后反复清掉中断状态并 parkNanos，总共 PARK_MILLIS 毫秒
+    static void parkDuringShutdownNow() throws Exception {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        check(mx.isCurrentThreadCpuTimeSupported(), "thread CPU time not supported");
+        ExecutorService ex = Executors.newLightweightThreadPerTaskExecutor();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch shutDown = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicLong cpu = new AtomicLong(-1);
+        ex.execute(() -> {
+            running.countDown();
+            try {
+                shutDown.await();
+            } catch (InterruptedException ignore) {
+            }
+            long cpu0 = mx.getCurrentThreadCpuTime();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PARK_MILLIS);
+            long left;
+            while ((left = deadline - System.nanoTime()) > 0) {
+                Thread.interrupted();          // shutdownNow 中断了工作线程
+                LockSupport.parkNanos(Math.min(left, TimeUnit.MILLISECONDS.toNanos(50)));
+            }
+            cpu.set(mx.getCurrentThreadCpuTime() - cpu0);
+            finished.countDown();
+        });
+        check(running.await(10, TimeUnit.SECONDS), "task did not start");
+        List<Runnable> pending = ex.shutdownNow();
+        shutDown.countDown();
+        check(finished.await(30, TimeUnit.SECONDS), "task did not finish");
+        long cpuMillis = TimeUnit.NANOSECONDS.toMillis(cpu.get());
+        System.out.printf("park %d ms during shutdownNow: %d ms CPU (%d pending)%n",
+                          PARK_MILLIS, cpuMillis, pending.size());
+        check(cpuMillis < PARK_MILLIS / 4, "busy-spun while parked: " + cpuMillis + " ms CPU");
+        check(ex.awaitTermination(30, TimeUnit.SECONDS), "not terminated");
+    }
+}
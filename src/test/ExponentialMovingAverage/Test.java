@@ -0,0 +1,125 @@
+package test.ExponentialMovingAverage;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.ExponentialMovingAverage;
+
+/**
+ * ExponentialMovingAverage 的检查：
+ * 1. 第一个区间结束前平均值为 NaN；样本恒为同一个值时平均值恰好等于它
+ * 2. 速率：一个区间内加入 N 个样本，区间结束后速率为 alpha * N / 区间长度，
+ *    之后的空闲区间使速率按 (1 - alpha) 衰减，平均值不变
+ * 3. 并发：THREADS 个线程不停加入 1.0，区间长度 1ms，读线程不停读取，重复 ROUNDS 轮。
+ *    关闭区间的线程在取和与取个数之间被挂起时，期间加入的样本也不能
+ *    只进其中一个，否则某个区间的均值会远离 1.0(例如几千)；平均值应始终
+ *    接近 1.0，只有少数跨越区间关闭的样本会计数与求和分在两个区间
+ * 4. reset 与构造参数检查
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final int THREADS = 4;
+    static final long RUN_MILLIS = 1000;
+    static final int ROUNDS = 4;
+
+    public static void main(String[] args) throws Exception {
+        constant();
+        rate();
+        for (int r = 0; r < ROUNDS; r++)
+            concurrent();
+        resetAndArguments();
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    static void constant() throws Exception {
+        ExponentialMovingAverage ema =
+            new ExponentialMovingAverage(20, 100, TimeUnit.MILLISECONDS);
+        check(Double.isNaN(ema.getAverage()), "average before any interval ended");
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        while (System.nanoTime() - end < 0L) {
+            ema.add(2.5);
+            Thread.sleep(1);
+        }
+        Thread.sleep(25);
+        check(ema.getAverage() == 2.5, "average of a constant: " + ema.getAverage());
+    }
+
+    static void rate() throws Exception {
+        long interval = 200;
+        ExponentialMovingAverage ema =
+            new ExponentialMovingAverage(interval, 1000, TimeUnit.MILLISECONDS);
+        double alpha = -Math.expm1(-(double)interval / 1000);
+        int n = 1000;
+        for (int i = 0; i < n; i++)
+            ema.add(i);
+        Thread.sleep(interval + interval / 2);
+        // the first interval has closed, maybe followed by an empty one
+        double r = ema.getRate(TimeUnit.SECONDS);
+        double first = alpha * n * 1000.0 / interval;
+        check(Math.abs(r - first) < 1e-6 * first ||
+              Math.abs(r - first * (1 - alpha)) < 1e-6 * first,
+              "rate " + r + ", expected " + first);
+        check(ema.getAverage() == (n - 1) / 2.0, "average " + ema.getAverage());
+        Thread.sleep(3 * interval);
+        double later = ema.getRate(TimeUnit.SECONDS);
+        check(later < r * (1 - alpha) * (1 - alpha) * 1.000001,
+              "rate did not decay: " + later + " after " + r);
+        check(ema.getAverage() == (n - 1) / 2.0, "average changed by empty intervals");
+        check(Math.abs(ema.getRate(TimeUnit.MILLISECONDS) * 1000 -
+                       ema.getRate(TimeUnit.SECONDS)) < 1e-9 * later + 1e-12,
+              "rate units");
+    }
+
+    static void concurrent() throws Exception {
+        ExponentialMovingAverage ema =
+            new ExponentialMovingAverage(1, 20, TimeUnit.MILLISECONDS);
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RUN_MILLIS);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(() -> {
+                while (System.nanoTime() - end < 0L)
+                    ema.add(1.0);
+                done.countDown();
+            }).start();
+        }
+        double max = 0.0;
+        while (done.getCount() > 0) {
+            double a = ema.getAverage();
+            if (a > max)
+                max = a;
+            Thread.yield();
+        }
+        Thread.sleep(5);
+        double a = ema.getAverage();
+        // a sample straddling a close may still be counted in one
+        // interval and summed in a later one, but only a few of them
+        check(max < 1.1, "average " + max + " of samples all 1.0");
+        check(a > 0.95 && a < 1.05, "final average " + a);
+        check(ema.getRate(TimeUnit.SECONDS) > 0.0, "no rate");
+    }
+
+    static void resetAndArguments() throws Exception {
+        ExponentialMovingAverage ema =
+            new ExponentialMovingAverage(1, 10, TimeUnit.MILLISECONDS);
+        ema.add(3.0);
+        Thread.sleep(3);
+        check(ema.getAverage() == 3.0, "average before reset");
+        ema.reset();
+        check(Double.isNaN(ema.getAverage()), "average after reset");
+        check(ema.getRate(TimeUnit.SECONDS) == 0.0, "rate after reset");
+        try {
+            new ExponentialMovingAverage(0, 10, TimeUnit.SECONDS);
+            throw new AssertionError("zero interval accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new ExponentialMovingAverage(1, -1, TimeUnit.SECONDS);
+            throw new AssertionError("negative window accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package test.Files;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Files.walk 的 PARALLEL 模式与顺序遍历对比：
+ * 1. 带 PRESERVE_ORDER 时，对事件 Spliterator 先 tryAdvance 进入 d0 再 trySplit，
+ *    前缀 + 后缀的顺序必须与顺序遍历一致(根目录下 d0、d1 各 10 个文件)
+ * 2. 随机目录树上随机交替 tryAdvance/trySplit，按前缀、后缀的顺序拼接，同样与顺序遍历一致
+ * 3. 并行流 collect：带 PRESERVE_ORDER 时顺序一致，不带时元素集合一致
+ * 4. estimateSize 来自尚未访问的目录项，不是 Long.MAX_VALUE 折半：
+ *    开始时不小于根目录的项数，拆分后两部分都是有限值，走完后为 0
+ * 5. 走完的拆分 walker 立即从 FileTreeIterator.splits 中移除，不必等到 close
+ * 事件 Spliterator 是包内的 FileTreeIterator.spliterator()，用反射取得。
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final int TRIALS = 200;
+
+    static Constructor<?> iteratorCtor;
+    static Method spliterator, file;
+    static Field splits;
+
+    public static void main(String[] args) throws Exception {
+        Class<?> c = Class.forName("java.nio.file.FileTreeIterator");
+        iteratorCtor = c.getDeclaredConstructor(Path.class, int.class, FileVisitOption[].class);
+        iteratorCtor.setAccessible(true);
+        spliterator = c.getDeclaredMethod("spliterator");
+        spliterator.setAccessible(true);
+        splits = c.getDeclaredField("splits");
+        splits.setAccessible(true);
+        file = Class.forName("java.nio.file.FileTreeWalker$Event").getDeclaredMethod("file");
+        file.setAccessible(true);
+
+        Path dir = Files.createTempDirectory("walk");
+        try {
+            Path flat = Files.createDirectory(dir.resolve("flat"));
+            for (int d = 0; d < 2; ++d) {
+                Path sub = Files.createDirectory(flat.resolve("d" + d));
+                for (int f = 0; f < 10; ++f)
+                    Files.createFile(sub.resolve("f" + f));
+            }
+            splitAfterAdvance(flat);
+
+            Path deep = Files.createDirectory(dir.resolve("deep"));
+            Random rnd = new Random(42);
+            tree(deep, 0, rnd);
+            for (int t = 0; t < TRIALS; ++t)
+                randomSplits(deep, new Random(t));
+            parallelStreams(deep);
+        } finally {
+            try (Stream<Path> s = Files.walk(dir)) {
+                for (Path p : s.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+                    Files.delete(p);
+            }
+        }
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    /** 随机目录树：每层 0~5 个文件、0~3 个子目录，最深 4 层 */
+    static void tree(Path dir, int depth, Random rnd) throws IOException {
+        for (int i = rnd.nextInt(6); i > 0; --i)
+            Files.createFile(dir.resolve("f" + i));
+        if (depth < 4) {
+            for (int i = rnd.nextInt(4); i > 0; --i)
+                tree(Files.createDirectory(dir.resolve("d" + i)), depth + 1, rnd);
+        }
+    }
+
+    static List<Path> sequential(Path root) throws IOException {
+        try (Stream<Path> s = Files.walk(root)) {
+            return s.collect(Collectors.toList());
+        }
+    }
+
+    static AutoCloseable iterator(Path root, FileVisitOption... options) throws Exception {
+        return (AutoCloseable) iteratorCtor.newInstance(root, Integer.MAX_VALUE, options);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Spliterator<Object> events(AutoCloseable it) throws Exception {
+        return (Spliterator<Object>) spliterator.invoke(it);
+    }
+
+    static boolean advance(Spliterator<Object> s, List<Path> out) {
+        return s.tryAdvance(ev -> {
+            try {
+                out.add((Path) file.invoke(ev));
+            } catch (ReflectiveOperationException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    static void drain(Spliterator<Object> s, List<Path> out) {
+        while (advance(s, out))
+            ;
+    }
+
+    static void splitAfterAdvance(Path root) throws Exception {
+        List<Path> expected = sequential(root), actual = new ArrayList<>();
+        try (AutoCloseable it = iterator(root, FileVisitOption.PARALLEL,
+                                         FileVisitOption.PRESERVE_ORDER)) {
+            Spliterator<Object> s = events(it);
+            long est = s.estimateSize();
+            check(est >= 3 && est < Long.MAX_VALUE, "initial estimate " + est);
+            // root、d0、d0 下的第一个文件
+            for (int i = 0; i < 3; ++i)
+                check(advance(s, actual), "walk ended early");
+            // 还剩 d0 下 9 个文件和 d1
+            est = s.estimateSize();
+            check(est >= 10 && est < Long.MAX_VALUE, "estimate inside d0 " + est);
+            Spliterator<Object> prefix = s.trySplit();
+            check(prefix != null, "cannot split after advancing into d0");
+            check(prefix.estimateSize() > 0 && s.estimateSize() > 0 &&
+                  prefix.estimateSize() + s.estimateSize() <= est,
+                  "estimates after split " + prefix.estimateSize() + " + " + s.estimateSize());
+            drain(prefix, actual);
+            drain(s, actual);
+            check(prefix.estimateSize() == 0 && s.estimateSize() == 0, "estimate after the walk");
+            check(((Collection<?>) splits.get(it)).isEmpty(), "finished split retained");
+        }
+        check(actual.equals(expected), "split after advance: " + actual + " != " + expected);
+    }
+
+    /** 随机前进 0~3 步后尝试拆分，递归处理前缀再处理后缀 */
+    static void walk(Spliterator<Object> s, Random rnd, List<Path> out) {
+        for (int i = rnd.nextInt(4); i > 0; --i) {
+            if (!advance(s, out))
+                return;
+        }
+        Spliterator<Object> prefix = s.trySplit();
+        if (prefix != null)
+            check(prefix.estimateSize() < Long.MAX_VALUE && s.estimateSize() < Long.MAX_VALUE,
+                  "unbounded estimate after split");
+        if (prefix != null)
+            walk(prefix, rnd, out);
+        if (prefix != null || rnd.nextBoolean())
+            walk(s, rnd, out);
+        else
+            drain(s, out);
+    }
+
+    static void randomSplits(Path root, Random rnd) throws Exception {
+        List<Path> expected = sequential(root), actual = new ArrayList<>();
+        try (AutoCloseable it = iterator(root, FileVisitOption.PARALLEL,
+                                         FileVisitOption.PRESERVE_ORDER)) {
+            Spliterator<Object> s = events(it);
+            walk(s, rnd, actual);
+            check(s.estimateSize() == 0, "estimate after the walk " + s.estimateSize());
+            check(((Collection<?>) splits.get(it)).isEmpty(), "finished splits retained");
+        }
+        check(actual.equals(expected), "random splits: " + actual + " != " + expected);
+    }
+
+    static void parallelStreams(Path root) throws IOException {
+        List<Path> expected = sequential(root);
+        try (Stream<Path> s = Files.walk(root, FileVisitOption.PARALLEL,
+                                         FileVisitOption.PRESERVE_ORDER)) {
+            check(s.parallel().collect(Collectors.toList()).equals(expected),
+                  "ordered parallel stream");
+        }
+        try (Stream<Path> s = Files.walk(root, FileVisitOption.PARALLEL)) {
+            List<Path> l = s.parallel().collect(Collectors.toList());
+            check(l.size() == expected.size() && new HashSet<>(l).equals(new HashSet<>(expected)),
+                  "unordered parallel stream");
+        }
+    }
+}
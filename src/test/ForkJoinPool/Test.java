@@ -0,0 +1,124 @@
+package test.ForkJoinPool;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPoolMXBean;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * ForkJoinPool 统计计数(getStatistics/getMXBean)的检查。计数只在系统属性
+ * java.util.concurrent.ForkJoinPool.statistics 为 true 时维护，
+ * main 在 ForkJoinPool 类初始化之前设置它：
+ * 1. 两轮递归任务(中间停顿让 worker park)跑完后窃取尝试、成功、空扫描、
+ *    park、unpark 都有计数，成功不多于尝试
+ * 2. 同一次 getStatistics 里池级合计不小于各 worker 之和
+ * 3. MXBean 在快照有效期内连续读取的属性彼此一致，过期后重新取快照
+ * 4. MXBean 注册到平台 MBeanServer 后可以一次 getAttributes 读出全部属性
+ * 5. 池关闭后 worker 退出，计数仍保留在合计里
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final int PARALLELISM = 4;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.util.concurrent.ForkJoinPool.statistics", "true");
+        ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+        // Two rounds, each followed by a pause in which idle workers
+        // park, so that the second round has parked workers to wake
+        for (int r = 0; r < 2; r++) {
+            check(pool.invoke(new Fib(24)) == 46368, "wrong result");
+            Thread.sleep(100);
+        }
+        counters(pool);
+        mxbean(pool);
+        register(pool);
+        ForkJoinPool.Statistics before = pool.getStatistics();
+        pool.shutdown();
+        check(pool.awaitTermination(10, TimeUnit.SECONDS), "not terminated");
+        ForkJoinPool.Statistics after = pool.getStatistics();
+        check(after.getWorkers().isEmpty(), "workers after termination");
+        check(after.getStealSuccessCount() >= before.getStealSuccessCount() &&
+              after.getParkCount() >= before.getParkCount(),
+              "retired counts lost: " + before + " -> " + after);
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    static final class Fib extends RecursiveTask<Integer> {
+        final int n;
+        Fib(int n) { this.n = n; }
+        protected Integer compute() {
+            if (n <= 1)
+                return n;
+            Fib f1 = new Fib(n - 1);
+            f1.fork();
+            return new Fib(n - 2).compute() + f1.join();
+        }
+    }
+
+    static void counters(ForkJoinPool pool) {
+        ForkJoinPool.Statistics s = pool.getStatistics();
+        check(s.getStealAttemptCount() > 0, "no steal attempts: " + s);
+        check(s.getStealSuccessCount() > 0, "no steals: " + s);
+        check(s.getStealSuccessCount() <= s.getStealAttemptCount(), "more steals than attempts: " + s);
+        check(s.getScanMissCount() > 0, "no scan misses: " + s);
+        check(s.getParkCount() > 0, "no parks: " + s);
+        check(s.getUnparkCount() > 0, "no unparks: " + s);
+        check(s.getExternalSubmitSlowPathCount() > 0, "no slow submit: " + s);
+        long attempts = 0, steals = 0, misses = 0, parks = 0;
+        for (ForkJoinPool.WorkerStatistics w : s.getWorkers()) {
+            attempts += w.getStealAttemptCount();
+            steals += w.getStealSuccessCount();
+            misses += w.getScanMissCount();
+            parks += w.getParkCount();
+        }
+        check(!s.getWorkers().isEmpty() && s.getWorkers().size() <= s.getPoolSize(),
+              s.getWorkers().size() + " workers, pool size " + s.getPoolSize());
+        check(attempts <= s.getStealAttemptCount() && steals <= s.getStealSuccessCount() &&
+              misses <= s.getScanMissCount() && parks <= s.getParkCount(),
+              "worker counts exceed totals: " + s);
+    }
+
+    static void mxbean(ForkJoinPool pool) throws Exception {
+        ForkJoinPoolMXBean bean = pool.getMXBean();
+        long steals = bean.getStealSuccessCount();
+        long attempts = bean.getStealAttemptCount();
+        pool.invoke(new Fib(20));
+        // Still within the snapshot interval: the same values
+        check(bean.getStealSuccessCount() == steals, "snapshot retaken early");
+        check(bean.getStealAttemptCount() == attempts, "attempts from another snapshot");
+        Thread.sleep(200);
+        check(bean.getStealSuccessCount() > steals, "snapshot not retaken");
+        check(bean.getParallelism() == PARALLELISM, "parallelism " + bean.getParallelism());
+        check(!bean.isShutdown(), "shut down");
+    }
+
+    static void register(ForkJoinPool pool) throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("java.util.concurrent:type=ForkJoinPool,name=test");
+        server.registerMBean(pool.getMXBean(), name);
+        try {
+            String[] names = { "Parallelism", "StealAttemptCount", "StealSuccessCount",
+                               "ParkCount", "UnparkCount", "Shutdown" };
+            AttributeList list = server.getAttributes(name, names);
+            check(list.size() == names.length, "attributes " + list);
+            for (Attribute a : list.asList()) {
+                if (a.getName().equals("Parallelism"))
+                    check(Integer.valueOf(PARALLELISM).equals(a.getValue()), "Parallelism " + a.getValue());
+                else if (a.getName().equals("StealSuccessCount"))
+                    check(((Long)a.getValue()) > 0, "StealSuccessCount " + a.getValue());
+            }
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package test.InflaterPool;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.DeflaterPool;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.InflaterPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import java.util.zip.ZlibPoolMXBean;
+
+/**
+ * InflaterPool / DeflaterPool 及使用它们的流的检查：
+ * 1. 复用：每线程槽位与共享空闲列表，borrow/create/discard 计数
+ * 2. 重复 release 同一个实例：之后两次 borrow 不能拿到同一个实例
+ * 3. maxIdle 上限：多出的实例被 end，计入 discard
+ * 4. 先 close 池再 release：实例被 end，之后 borrow 抛 IllegalStateException
+ * 5. InflaterInputStream、GZIPInputStream 借池中的 Inflater，
+ *    关闭时归还，构造失败时不占用(或归还)
+ * 6. ZipFile 关闭时，仍打开的条目流的 Inflater 归还给池而不是被 end
+ * 7. MXBean 的打开个数与本机内存估计随 end 减少
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final byte[] DATA = data();
+
+    public static void main(String[] args) throws Exception {
+        counters();
+        reuse();
+        doubleRelease();
+        maxIdle();
+        closeThenRelease();
+        deflaterPool();
+        inflaterInputStream();
+        gzipInputStream();
+        failingConstructors();
+        zipFile();
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    static byte[] data() {
+        byte[] b = new byte[50000];
+        for (int i = 0; i < b.length; i++)
+            b[i] = (byte)(i % 251 ^ i / 1000);
+        return b;
+    }
+
+    static boolean isEnded(Inflater inf) {
+        try {
+            inf.getAdler();
+            return false;
+        } catch (NullPointerException e) {
+            return true;
+        }
+    }
+
+    static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        byte[] b = new byte[777];
+        int n;
+        while ((n = in.read(b)) != -1)
+            bos.write(b, 0, n);
+        return bos.toByteArray();
+    }
+
+    static void counters() {
+        InflaterPool pool = new InflaterPool(true, 4, false);
+        ZlibPoolMXBean mx = pool.getMXBean();
+        long open = mx.getOpenInflaterCount();
+        long mem = mx.getNativeMemoryUsed();
+        Inflater[] a = new Inflater[6];
+        for (int i = 0; i < a.length; i++)
+            a[i] = pool.borrow();
+        check(mx.getOpenInflaterCount() == open + 6, "open count after borrow");
+        check(mx.getNativeMemoryUsed() > mem, "native memory after borrow");
+        for (Inflater inf : a)
+            pool.release(inf);
+        check(mx.getOpenInflaterCount() == open + 4, "open count after release");
+        pool.close();
+        check(mx.getOpenInflaterCount() == open, "open count after close");
+        check(mx.getNativeMemoryUsed() == mem, "native memory after close");
+        check(mx.isClosed(), "closed");
+    }
+
+    static void reuse() {
+        InflaterPool pool = new InflaterPool(true, 4, true);
+        ZlibPoolMXBean mx = pool.getMXBean();
+        Inflater a = pool.borrow();
+        pool.release(a);
+        check(pool.borrow() == a, "per-thread slot not reused");
+        Inflater b = pool.borrow();
+        check(b != a, "same instance borrowed twice");
+        pool.release(a);        // to the slot
+        pool.release(b);        // to the idle list
+        check(mx.getIdleCount() == 1, "idle count " + mx.getIdleCount());
+        check(pool.borrow() == a && pool.borrow() == b, "not reused in order");
+        check(mx.getBorrowCount() == 5, "borrow count " + mx.getBorrowCount());
+        check(mx.getCreateCount() == 2, "create count " + mx.getCreateCount());
+        check(mx.getDiscardCount() == 0, "discard count " + mx.getDiscardCount());
+        pool.close();
+    }
+
+    static void doubleRelease() {
+        for (boolean perThread : new boolean[] { false, true }) {
+            InflaterPool pool = new InflaterPool(true, 4, perThread);
+            Inflater a = pool.borrow();
+            pool.release(a);
+            pool.release(a);
+            Inflater x = pool.borrow(), y = pool.borrow();
+            check(x != y, "double release shared an instance, perThread " + perThread);
+            check(!isEnded(x) && !isEnded(y), "borrowed an ended instance");
+            // released again after being borrowed again is fine
+            pool.release(x);
+            check(pool.borrow() == x, "not reused after borrow and release");
+            pool.close();
+        }
+    }
+
+    static void maxIdle() {
+        InflaterPool pool = new InflaterPool(true, 2, false);
+        ZlibPoolMXBean mx = pool.getMXBean();
+        check(mx.getMaxIdle() == 2, "maxIdle");
+        List<Inflater> l = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            l.add(pool.borrow());
+        for (Inflater inf : l)
+            pool.release(inf);
+        check(mx.getIdleCount() == 2, "idle count " + mx.getIdleCount());
+        check(mx.getDiscardCount() == 3, "discard count " + mx.getDiscardCount());
+        check(!isEnded(l.get(0)) && !isEnded(l.get(1)), "kept instance ended");
+        check(isEnded(l.get(2)) && isEnded(l.get(3)) && isEnded(l.get(4)),
+              "discarded instance not ended");
+        pool.close();
+        check(isEnded(l.get(0)) && isEnded(l.get(1)), "idle instance not ended by close");
+    }
+
+    static void closeThenRelease() {
+        InflaterPool pool = new InflaterPool(true, 2, true);
+        ZlibPoolMXBean mx = pool.getMXBean();
+        Inflater a = pool.borrow();
+        pool.close();
+        pool.release(a);
+        check(isEnded(a), "released after close but not ended");
+        check(mx.getDiscardCount() == 1, "discard count " + mx.getDiscardCount());
+        try {
+            pool.borrow();
+            throw new AssertionError("borrow after close");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    static void deflaterPool() {
+        DeflaterPool pool = new DeflaterPool(Deflater.BEST_SPEED, false, 1, true);
+        ZlibPoolMXBean mx = pool.getMXBean();
+        Deflater d = pool.borrow();
+        pool.release(d);
+        pool.release(d);
+        Deflater x = pool.borrow(), y = pool.borrow();
+        check(x == d && y != d, "deflater double release");
+        // a reused deflater compresses like a new one
+        byte[] out = new byte[DATA.length + 100];
+        x.setInput(DATA);
+        x.finish();
+        int n = x.deflate(out);
+        pool.release(x);
+        Deflater z = pool.borrow();
+        check(z == x, "deflater not reused");
+        z.setInput(DATA);
+        z.finish();
+        byte[] out2 = new byte[out.length];
+        check(z.deflate(out2) == n && Arrays.equals(out, out2), "reset deflater differs");
+        check(mx.getCreateCount() == 2, "deflater create count " + mx.getCreateCount());
+        pool.release(z);
+        pool.release(y);
+        pool.close();
+    }
+
+    static void inflaterInputStream() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bos)) {
+            out.write(DATA);
+        }
+        byte[] z = bos.toByteArray();
+        InflaterPool pool = new InflaterPool(false, 2, false);
+        ZlibPoolMXBean mx = pool.getMXBean();
+        for (int i = 0; i < 10; i++) {
+            InputStream in = new InflaterInputStream(new ByteArrayInputStream(z), pool, 512);
+            check(Arrays.equals(readAll(in), DATA), "InflaterInputStream data");
+            in.close();
+            in.close();
+        }
+        check(mx.getCreateCount() == 1, "InflaterInputStream create count " + mx.getCreateCount());
+        check(mx.getIdleCount() == 1, "InflaterInputStream idle count " + mx.getIdleCount());
+        pool.close();
+    }
+
+    static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bos)) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+
+    static void gzipInputStream() throws IOException {
+        byte[] gz = gzip(DATA);
+        InflaterPool pool = new InflaterPool(true, 2, true);
+        ZlibPoolMXBean mx = pool.getMXBean();
+        for (int i = 0; i < 10; i++) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gz), 512, pool)) {
+                check(Arrays.equals(readAll(in), DATA), "GZIPInputStream data");
+            }
+        }
+        check(mx.getCreateCount() == 1, "GZIPInputStream create count " + mx.getCreateCount());
+        pool.close();
+    }
+
+    static void failingConstructors() throws IOException {
+        InflaterPool pool = new InflaterPool(true, 2, false);
+        ZlibPoolMXBean mx = pool.getMXBean();
+        try {
+            new InflaterInputStream(new ByteArrayInputStream(DATA), pool, 0);
+            throw new AssertionError("size 0 accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        check(mx.getBorrowCount() == 0, "borrowed by a failed InflaterInputStream");
+        try {
+            new GZIPInputStream(new ByteArrayInputStream(DATA), 512, pool);
+            throw new AssertionError("not GZIP data accepted");
+        } catch (ZipException expected) {
+        }
+        check(mx.getBorrowCount() == 1, "borrow count " + mx.getBorrowCount());
+        check(mx.getIdleCount() == 1, "failed GZIPInputStream kept its inflater");
+        try {
+            new GZIPInputStream(new ByteArrayInputStream(gzip(DATA)), 512,
+                                new InflaterPool(false, 2, false));
+            throw new AssertionError("pool without nowrap accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        pool.close();
+    }
+
+    static void zipFile() throws IOException {
+        File f = File.createTempFile("pool", ".zip");
+        f.deleteOnExit();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(f))) {
+            for (int i = 0; i < 4; i++) {
+                out.putNextEntry(new ZipEntry("e" + i));
+                out.write(DATA);
+                out.closeEntry();
+            }
+        }
+        InflaterPool pool = new InflaterPool(true, 8, false);
+        ZlibPoolMXBean mx = pool.getMXBean();
+        ZipFile zf = new ZipFile(f, ZipFile.OPEN_READ, StandardCharsets.UTF_8, pool);
+        try (InputStream in = zf.getInputStream(zf.getEntry("e0"))) {
+            check(Arrays.equals(readAll(in), DATA), "ZipFile entry data");
+        }
+        // left open: closing the ZipFile gives their inflaters back
+        InputStream in1 = zf.getInputStream(zf.getEntry("e1"));
+        InputStream in2 = zf.getInputStream(zf.getEntry("e2"));
+        in1.read();
+        zf.close();
+        check(mx.getCreateCount() == 2, "ZipFile create count " + mx.getCreateCount());
+        check(mx.getIdleCount() == 2, "ZipFile idle count " + mx.getIdleCount());
+        check(mx.getDiscardCount() == 0, "ZipFile discard count " + mx.getDiscardCount());
+        in1.close();
+        in2.close();
+        check(mx.getIdleCount() == 2, "entry stream released twice");
+        Inflater a = pool.borrow(), b = pool.borrow();
+        check(!isEnded(a) && !isEnded(b), "inflater ended by ZipFile.close");
+        pool.release(a);
+        pool.release(b);
+        pool.close();
+    }
+}
@@ -0,0 +1,142 @@
+package test.LongHistogram;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongHistogram;
+
+/**
+ * LongHistogram 的检查：
+ * 1. 分桶：相邻桶首尾相接，每个值落在 [最低等价值, 最高等价值] 内，
+ *    且桶宽不超过值的 2^-(p-1)；超过 highestTrackableValue 的值记为它
+ * 2. 统计：记录 1..N 后的总数、最小、最大、平均与百分位在精度之内
+ * 3. merge 与 record(value, count)、参数检查
+ * 4. 并发：THREADS 个线程同时记录，另一线程不停 snapshotThenReset，
+ *    所有快照的总数之和等于记录的次数
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final int THREADS = 4;
+    static final int RECORDS = 200000;
+
+    public static void main(String[] args) throws Exception {
+        buckets(new LongHistogram());
+        buckets(new LongHistogram(100000, 3));
+        buckets(new LongHistogram(1, 1));
+        statistics();
+        mergeAndArguments();
+        concurrent();
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    static void checkValue(LongHistogram h, long v) {
+        h.record(v);
+        LongHistogram.Snapshot s = h.snapshotThenReset();
+        long w = Math.min(v, h.getHighestTrackableValue());
+        long lo = s.getMin(), hi = s.getMax();
+        check(s.getTotalCount() == 1, "count of " + v);
+        check(lo <= w && w <= hi, v + " not in [" + lo + ", " + hi + "]");
+        check(hi - lo <= w >>> (h.getPrecision() - 1),
+              "bucket [" + lo + ", " + hi + "] too wide for " + v);
+    }
+
+    static void buckets(LongHistogram h) {
+        LongHistogram.Snapshot s = h.snapshot();
+        int n = s.getBucketCount();
+        check(n == h.getBucketCount(), "bucket count");
+        check(s.getLowestValue(0) == 0L, "first bucket");
+        for (int i = 1; i < n; i++)
+            check(s.getLowestValue(i) == s.getHighestValue(i - 1) + 1,
+                  "gap before bucket " + i);
+        check(s.getHighestValue(n - 1) >= h.getHighestTrackableValue(), "last bucket");
+        for (long v = 0; v < 5000; v++)
+            checkValue(h, v);
+        for (int e = 1; e < 63; e++) {
+            long p = 1L << e;
+            checkValue(h, p - 1);
+            checkValue(h, p);
+            checkValue(h, p + 1);
+            checkValue(h, p + (p >>> 1) + 3);
+        }
+        checkValue(h, Long.MAX_VALUE);
+    }
+
+    static void statistics() {
+        LongHistogram h = new LongHistogram();
+        int n = 100000;
+        for (int v = 1; v <= n; v++)
+            h.record(v);
+        LongHistogram.Snapshot s = h.snapshot();
+        double err = 1.0 / (1 << (h.getPrecision() - 1));
+        check(s.getTotalCount() == n, "total count");
+        check(s.getMin() == 1, "min " + s.getMin());
+        check(s.getMax() >= n && s.getMax() <= n * (1 + err), "max " + s.getMax());
+        check(Math.abs(s.getMean() - (n + 1) / 2.0) < err * n, "mean " + s.getMean());
+        for (double p : new double[] { 0.0, 1.0, 50.0, 90.0, 99.0, 99.9, 100.0 }) {
+            long exact = Math.max(1L, (long)Math.ceil(p / 100.0 * n));
+            long v = s.getValueAtPercentile(p);
+            check(v >= exact && v <= exact * (1 + err) + 1,
+                  "p" + p + " = " + v + ", exact " + exact);
+        }
+        check(Double.isNaN(new LongHistogram().snapshot().getMean()), "mean of nothing");
+        h.reset();
+        check(h.snapshot().getTotalCount() == 0, "count after reset");
+    }
+
+    static void mergeAndArguments() {
+        LongHistogram a = new LongHistogram(1000, 5), b = new LongHistogram(1000, 5);
+        a.record(10, 3);
+        b.record(20, 4);
+        b.record(5000);
+        LongHistogram.Snapshot m = a.snapshot().merge(b.snapshot());
+        check(m.getTotalCount() == 8, "merged count " + m.getTotalCount());
+        check(m.getMin() <= 10 && m.getMax() == 1000, "merged range");
+        try {
+            a.snapshot().merge(new LongHistogram(1000, 6).snapshot());
+            throw new AssertionError("merged different precisions");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            a.record(-1);
+            throw new AssertionError("negative value accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            a.record(1, -1);
+            throw new AssertionError("negative count accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new LongHistogram(100, 17);
+            throw new AssertionError("precision 17 accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    static void concurrent() throws Exception {
+        LongHistogram h = new LongHistogram();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            final int seed = t;
+            new Thread(() -> {
+                long v = seed;
+                for (int i = 0; i < RECORDS; i++) {
+                    h.record(v & 0xfffff);
+                    v = v * 6364136223846793005L + 1442695040888963407L;
+                }
+                done.countDown();
+            }).start();
+        }
+        long total = 0;
+        while (done.getCount() > 0) {
+            total += h.snapshotThenReset().getTotalCount();
+            Thread.yield();
+        }
+        total += h.snapshotThenReset().getTotalCount();
+        check(total == (long)THREADS * RECORDS,
+              "recorded " + (long)THREADS * RECORDS + ", snapshots total " + total);
+    }
+}
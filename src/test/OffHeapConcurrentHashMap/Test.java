@@ -0,0 +1,138 @@
+package test.OffHeapConcurrentHashMap;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.OffHeapConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * OffHeapConcurrentHashMap 的检查：
+ * 1. 值变长到放不下原记录时 put/replace 换用新记录，旧值、新值都正确，
+ *    同一个 bin 里的其他键不受影响(初始容量 1，所有键落在少数 bin 里)
+ * 2. putIfAbsent、条件 replace 失败时不改值，也不留下多余记录：
+ *    反复变长、变短多轮后 offHeapMemory 不再增长
+ * 3. 并发：THREADS 个线程在少量键上混合 put/replace/remove，值长度随机，
+ *    读到的值必须属于该键；结束后 mappingCount 与遍历结果一致
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final int THREADS = 4;
+    static final int OPS = 100000;
+    static final int KEYS = 32;
+
+    public static void main(String[] args) throws Exception {
+        grow();
+        noLeak();
+        concurrent();
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    static String value(int k, int len) {
+        StringBuilder sb = new StringBuilder().append(k).append(':');
+        while (sb.length() < len)
+            sb.append('v');
+        return sb.toString();
+    }
+
+    static OffHeapConcurrentHashMap<String,String> newMap() {
+        return new OffHeapConcurrentHashMap<>(
+            OffHeapConcurrentHashMap.stringCodec(),
+            OffHeapConcurrentHashMap.stringCodec(), 1);
+    }
+
+    static void grow() {
+        OffHeapConcurrentHashMap<String,String> m = newMap();
+        for (int k = 0; k < KEYS; k++)
+            check(m.put("k" + k, value(k, 4)) == null, "put into empty map");
+        for (int len = 8; len <= 512; len <<= 1) {
+            for (int k = 0; k < KEYS; k++) {
+                String old = value(k, len >> 1), v = value(k, len);
+                if ((k & 1) == 0)
+                    check(old.equals(m.put("k" + k, v)), "put old value");
+                else
+                    check(old.equals(m.replace("k" + k, v)), "replace old value");
+            }
+            for (int k = 0; k < KEYS; k++)
+                check(value(k, len).equals(m.get("k" + k)), "value after growing to " + len);
+        }
+        for (int k = 0; k < KEYS; k++) {
+            String v = value(k, 512), w = value(k, 2048);
+            check(m.putIfAbsent("k" + k, w).equals(v), "putIfAbsent on present key");
+            check(!m.replace("k" + k, w, v), "replace with wrong expected value");
+            check(m.replace("k" + k, v, w), "replace with expected value");
+            check(w.equals(m.get("k" + k)), "value after conditional replace");
+        }
+        check(m.mappingCount() == KEYS, "mappingCount " + m.mappingCount());
+    }
+
+    static void noLeak() {
+        OffHeapConcurrentHashMap<String,String> m = newMap();
+        long reserved = 0L;
+        for (int round = 0; round < 50; round++) {
+            for (int len = 8; len <= 1024; len <<= 1) {
+                for (int k = 0; k < KEYS; k++) {
+                    m.put("k" + k, value(k, len));
+                    m.replace("k" + k, value(k, len), value(k, len));
+                    m.putIfAbsent("k" + k, value(k, len * 2));
+                }
+            }
+            for (int k = 0; k < KEYS; k++)
+                m.remove("k" + k);
+            if (round == 0)
+                reserved = m.offHeapMemory();
+            else
+                check(m.offHeapMemory() == reserved,
+                      "reserved " + m.offHeapMemory() + " after round " + round +
+                      ", " + reserved + " after the first");
+        }
+        check(m.isEmpty(), "map not empty");
+    }
+
+    static void concurrent() throws Exception {
+        OffHeapConcurrentHashMap<String,String> m = newMap();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            Thread th = new Thread(() -> {
+                try {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPS; i++) {
+                        int k = rnd.nextInt(KEYS);
+                        String key = "k" + k, v = value(k, 4 << rnd.nextInt(8));
+                        int op = rnd.nextInt(4);
+                        if (op == 0)
+                            m.put(key, v);
+                        else if (op == 1)
+                            m.replace(key, v);
+                        else if (op == 2)
+                            m.remove(key);
+                        else if ((v = m.get(key)) != null &&
+                                 !v.startsWith(k + ":"))
+                            throw new AssertionError("value " + v + " for " + key);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            });
+            th.setDaemon(true);
+            th.start();
+        }
+        check(done.await(60, TimeUnit.SECONDS), "concurrent operations timed out");
+        if (failure.get() != null)
+            throw new AssertionError(failure.get());
+        long n = 0;
+        for (String k : m.keySet()) {
+            check(m.get(k).startsWith(k.substring(1) + ":"), "value for " + k);
+            n++;
+        }
+        check(n == m.mappingCount(), "mappingCount " + m.mappingCount() + ", " + n + " keys");
+    }
+}
@@ -0,0 +1,171 @@
+package test.ParallelGZIP;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ParallelGZIPInputStream;
+import java.util.zip.ParallelGZIPOutputStream;
+
+/**
+ * ParallelGZIPOutputStream / ParallelGZIPInputStream 的往返检查：
+ * 1. 单 member 与独立块两种模式，各种长度(含块大小的整数倍)，
+ *    GZIPInputStream 与 ParallelGZIPInputStream 都能读回原数据
+ * 2. 空输入：finish 后得到合法的 GZIP 流，读回 0 字节
+ * 3. 多 member 拼接：两种模式的输出与 GZIPOutputStream 的输出首尾相接，
+ *    两种输入流都能依次读完全部 member
+ * 4. 执行器拒绝任务：被拒绝的块/member 在调用线程上完成，
+ *    不能丢块、不能在 close 时卡死，后续写入也不能出错
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final int BLOCK_SIZE = 4096;
+    static final int[] LENGTHS = { 1, 100, BLOCK_SIZE - 1, BLOCK_SIZE,
+                                   BLOCK_SIZE + 1, 10 * BLOCK_SIZE,
+                                   100 * BLOCK_SIZE + 17 };
+
+    public static void main(String[] args) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (boolean independent : new boolean[] { false, true }) {
+                for (int len : LENGTHS)
+                    roundTrip(pool, data(len), independent);
+                empty(pool, independent);
+                rejecting(independent);
+            }
+            concatenated(pool);
+        } finally {
+            pool.shutdown();
+        }
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    /*
+     * Compressible data: runs of random words.
+     */
+    static byte[] data(int len) {
+        Random rnd = new Random(len);
+        byte[] b = new byte[len];
+        for (int i = 0; i < len; ) {
+            int run = Math.min(len - i, 1 + rnd.nextInt(64));
+            byte v = (byte)rnd.nextInt(16);
+            for (int j = 0; j < run; j++)
+                b[i++] = v;
+        }
+        return b;
+    }
+
+    static byte[] compress(Executor ex, byte[] data, boolean independent)
+        throws IOException
+    {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = new ParallelGZIPOutputStream(
+                 bos, ex, BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION, independent)) {
+            // mix single-byte and array writes
+            int i = 0;
+            for (; i < data.length && i < 10; i++)
+                out.write(data[i]);
+            out.write(data, i, data.length - i);
+        }
+        return bos.toByteArray();
+    }
+
+    static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        byte[] b = new byte[1000];
+        try (InputStream is = in) {
+            int n;
+            while ((n = is.read(b)) != -1)
+                bos.write(b, 0, n);
+        }
+        return bos.toByteArray();
+    }
+
+    static void checkReadBack(Executor ex, byte[] gz, byte[] expected,
+                              String what) throws IOException {
+        check(Arrays.equals(readAll(new GZIPInputStream(
+                  new ByteArrayInputStream(gz))), expected),
+              what + ": GZIPInputStream");
+        check(Arrays.equals(readAll(new ParallelGZIPInputStream(
+                  new ByteArrayInputStream(gz), ex)), expected),
+              what + ": ParallelGZIPInputStream");
+    }
+
+    static void roundTrip(Executor ex, byte[] data, boolean independent)
+        throws IOException
+    {
+        checkReadBack(ex, compress(ex, data, independent), data,
+                      "length " + data.length + ", independent " + independent);
+    }
+
+    static void empty(Executor ex, boolean independent) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new ParallelGZIPOutputStream(bos, ex, BLOCK_SIZE,
+                                     Deflater.DEFAULT_COMPRESSION,
+                                     independent).close();
+        checkReadBack(ex, bos.toByteArray(), new byte[0],
+                      "empty, independent " + independent);
+    }
+
+    static void concatenated(Executor ex) throws IOException {
+        byte[] a = data(3 * BLOCK_SIZE + 5);
+        byte[] b = data(7 * BLOCK_SIZE);
+        byte[] c = data(1234);
+        ByteArrayOutputStream gz = new ByteArrayOutputStream();
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        gz.write(compress(ex, a, false));
+        all.write(a);
+        gz.write(compress(ex, b, true));
+        all.write(b);
+        try (GZIPOutputStream out = new GZIPOutputStream(gz)) {
+            out.write(c);
+        }
+        all.write(c);
+        checkReadBack(ex, gz.toByteArray(), all.toByteArray(), "concatenated");
+    }
+
+    /*
+     * An executor that runs every other task on a new thread and rejects
+     * the others.
+     */
+    static void rejecting(boolean independent) throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Executor ex = r -> {
+            if ((calls.getAndIncrement() & 1) == 0) {
+                new Thread(r).start();
+            } else {
+                rejected.incrementAndGet();
+                throw new RejectedExecutionException();
+            }
+        };
+        byte[] data = data(20 * BLOCK_SIZE + 3);
+        byte[] gz = compress(ex, data, independent);
+        check(rejected.get() > 0, "no task rejected on compression");
+        int before = rejected.get();
+        checkReadBack(ex, gz, data, "rejecting executor, independent " + independent);
+        if (independent)
+            check(rejected.get() > before, "no task rejected on decompression");
+
+        // an executor rejecting everything still produces the same data
+        Executor none = r -> { throw new RejectedExecutionException(); };
+        checkReadBack(none, compress(none, data, independent), data,
+                      "always rejecting executor, independent " + independent);
+    }
+}
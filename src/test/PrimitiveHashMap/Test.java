@@ -0,0 +1,114 @@
+package test.PrimitiveHashMap;
+
+import java.util.HashMap;
+import java.util.LongObjectHashMap;
+import java.util.LongLongHashMap;
+
+/**
+ * HashMap<Long,V> 与 LongObjectHashMap / LongLongHashMap 的对比：
+ * 占用内存(footprint)以及 put/get 吞吐量。
+ * 第二组 key 的 Long.hashCode 全部相同，HashMap 的桶会树化成 TreeNode。
+ * 按 JMH 的方式先预热再测量，运行时建议加 -Xmx4g -XX:+UseParallelGC。
+ */
+public class Test {
+    static final int N = 1 << 19;
+    static final int WARMUP = 5, MEASURE = 5;
+
+    public static void main(String[] args) {
+        long[] plain = new long[N], colliding = new long[N];
+        for (int i = 0; i < N; i++) {
+            plain[i] = i * 0x9E3779B97F4A7C15L;
+            colliding[i] = ((long)i << 32) | i; // (int)(k ^ k>>>32) == 0
+        }
+        run("random keys", plain);
+        run("colliding keys (TreeNode bins)", colliding);
+    }
+
+    static void run(String name, long[] keys) {
+        System.out.println("== " + name + ", n=" + keys.length);
+        System.out.printf("footprint  HashMap=%d B/entry  LongObjectHashMap=%d B/entry  LongLongHashMap=%d B/entry%n",
+                footprint(keys, 0) / keys.length,
+                footprint(keys, 1) / keys.length,
+                footprint(keys, 2) / keys.length);
+        for (int kind = 0; kind < 3; kind++) {
+            long put = 0, get = 0, sink = 0;
+            for (int it = 0; it < WARMUP + MEASURE; it++) {
+                long t0 = System.nanoTime();
+                Object m = fill(keys, kind);
+                long t1 = System.nanoTime();
+                sink += lookup(m, keys, kind);
+                long t2 = System.nanoTime();
+                if (it >= WARMUP) {
+                    put += t1 - t0;
+                    get += t2 - t1;
+                }
+            }
+            System.out.printf("%-18s put %7.2f Mops/s   get %7.2f Mops/s   (%d)%n",
+                    kind == 0 ? "HashMap" : kind == 1 ? "LongObjectHashMap" : "LongLongHashMap",
+                    keys.length * 1e3 * MEASURE / put,
+                    keys.length * 1e3 * MEASURE / get, sink);
+        }
+    }
+
+    static Object fill(long[] keys, int kind) {
+        if (kind == 0) {
+            HashMap<Long, Long> m = new HashMap<>();
+            for (long k : keys) m.put(k, k);
+            return m;
+        } else if (kind == 1) {
+            LongObjectHashMap<Long> m = new LongObjectHashMap<>();
+            for (long k : keys) m.put(k, k);
+            return m;
+        } else {
+            LongLongHashMap m = new LongLongHashMap();
+            for (long k : keys) m.put(k, k);
+            return m;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static long lookup(Object o, long[] keys, int kind) {
+        long s = 0;
+        if (kind == 0) {
+            HashMap<Long, Long> m = (HashMap<Long, Long>) o;
+            for (long k : keys) s += m.get(k);
+        } else if (kind == 1) {
+            LongObjectHashMap<Long> m = (LongObjectHashMap<Long>) o;
+            for (long k : keys) s += m.get(k);
+        } else {
+            LongLongHashMap m = (LongLongHashMap) o;
+            for (long k : keys) s += m.get(k);
+        }
+        return s;
+    }
+
+    // 值对象在三种实现中都要分配(HashMap/LongObjectHashMap 存 Long)，这里只统计 map 本身
+    static long footprint(long[] keys, int kind) {
+        Long[] values = new Long[keys.length];
+        for (int i = 0; i < keys.length; i++) values[i] = keys[i];
+        long before = usedMemory();
+        Object m;
+        if (kind == 0) {
+            HashMap<Long, Long> h = new HashMap<>();
+            for (int i = 0; i < keys.length; i++) h.put(keys[i], values[i]);
+            m = h;
+        } else if (kind == 1) {
+            LongObjectHashMap<Long> h = new LongObjectHashMap<>();
+            for (int i = 0; i < keys.length; i++) h.put(keys[i], values[i]);
+            m = h;
+        } else {
+            LongLongHashMap h = new LongLongHashMap();
+            for (long k : keys) h.put(k, k);
+            m = h;
+        }
+        long after = usedMemory();
+        if (m.hashCode() == 42 && values.length == 0) System.out.println();
+        return after - before;
+    }
+
+    static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,126 @@
+package test.StripedReadWriteLock;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.locks.StripedReadWriteLock;
+
+/**
+ * ReentrantReadWriteLock / StampedLock / StripedReadWriteLock 的读锁扩展性对比：
+ * 1. 读线程数从 1 翻倍到 128，每个读线程循环 lock -> 读一个共享数组 -> unlock
+ * 2. 可选一个写线程，每隔 WRITE_PAUSE 微秒拿一次写锁(参数 args[0] = "w")
+ * 3. StampedLock 分别测悲观读锁和乐观读(tryOptimisticRead + validate)
+ * 输出每种锁在各线程数下的读吞吐量(M次/s)。
+ * 运行时建议加 -XX:-RestrictContended，让 @Contended 的读者槽位真正独占缓存行。
+ */
+public class Test {
+    static final int MAX_READERS = 128;
+    static final long RUN_MILLIS = 1000;
+    static final long WRITE_PAUSE = 100;   // 微秒
+    static final String[] NAMES = {
+        "ReentrantReadWriteLock", "StampedLock(read)", "StampedLock(optimistic)", "StripedReadWriteLock"
+    };
+
+    static final long[] data = new long[8];
+    static volatile boolean stop;
+    static volatile long sink;
+
+    public static void main(String[] args) throws Exception {
+        boolean writer = args.length > 0 && args[0].equals("w");
+        System.out.printf("%-24s", "readers");
+        for (int n = 1; n <= MAX_READERS; n <<= 1)
+            System.out.printf("%9d", n);
+        System.out.println(writer ? "   (1 writer)" : "");
+        for (int kind = 0; kind < NAMES.length; kind++) {
+            System.out.printf("%-24s", NAMES[kind]);
+            run(kind, 1, writer);                  // 预热
+            for (int n = 1; n <= MAX_READERS; n <<= 1)
+                System.out.printf("%9.2f", run(kind, n, writer));
+            System.out.println();
+        }
+    }
+
+    /** 返回读吞吐量，单位 M次/s */
+    static double run(final int kind, int readers, boolean withWriter) throws Exception {
+        final ReentrantReadWriteLock rrwl = new ReentrantReadWriteLock();
+        final StampedLock sl = new StampedLock();
+        final StripedReadWriteLock srwl = new StripedReadWriteLock();
+        final LongAdder reads = new LongAdder();
+        final CountDownLatch start = new CountDownLatch(1);
+        stop = false;
+        Thread[] ts = new Thread[readers + (withWriter ? 1 : 0)];
+        for (int i = 0; i < readers; i++) {
+            ts[i] = new Thread(() -> {
+                await(start);
+                long n = 0, s = 0;
+                while (!stop) {
+                    for (int k = 0; k < 1000; k++) {
+                        s += read(kind, rrwl, sl, srwl);
+                    }
+                    n += 1000;
+                }
+                reads.add(n);
+                sink += s;
+            });
+        }
+        if (withWriter) {
+            ts[readers] = new Thread(() -> {
+                await(start);
+                Lock w = kind == 0 ? rrwl.writeLock() :
+                         kind == 3 ? srwl.writeLock() : sl.asWriteLock();
+                while (!stop) {
+                    w.lock();
+                    try {
+                        for (int k = 0; k < data.length; k++)
+                            data[k]++;
+                    } finally {
+                        w.unlock();
+                    }
+                    long until = System.nanoTime() + WRITE_PAUSE * 1000;
+                    while (System.nanoTime() < until && !stop) ;
+                }
+            });
+        }
+        for (Thread t : ts) t.start();
+        long t0 = System.nanoTime();
+        start.countDown();
+        Thread.sleep(RUN_MILLIS);
+        stop = true;
+        for (Thread t : ts) t.join();
+        long elapsed = System.nanoTime() - t0;
+        return reads.sum() * 1e3 / elapsed;
+    }
+
+    static long read(int kind, ReentrantReadWriteLock rrwl, StampedLock sl, StripedReadWriteLock srwl) {
+        switch (kind) {
+            case 0: {
+                ReentrantReadWriteLock.ReadLock r = rrwl.readLock();
+                r.lock();
+                try { return data[0] + data[7]; } finally { r.unlock(); }
+            }
+            case 1: {
+                long stamp = sl.readLock();
+                try { return data[0] + data[7]; } finally { sl.unlockRead(stamp); }
+            }
+            case 2: {
+                long stamp = sl.tryOptimisticRead();
+                long v = data[0] + data[7];
+                if (sl.validate(stamp))
+                    return v;
+                stamp = sl.readLock();
+                try { return data[0] + data[7]; } finally { sl.unlockRead(stamp); }
+            }
+            default: {
+                StripedReadWriteLock.ReadLock r = srwl.readLock();
+                r.lock();
+                try { return data[0] + data[7]; } finally { r.unlock(); }
+            }
+        }
+    }
+
+    static void await(CountDownLatch l) {
+        try { l.await(); } catch (InterruptedException e) { throw new RuntimeException(e); }
+    }
+}
@@ -0,0 +1,122 @@
+package test.ThreadPoolExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ThreadPoolExecutor 批量取任务(setWorkerBatchSize)的检查：
+ * 1. 单个工作线程一次取走 BATCH 个任务，在第一个任务阻塞期间
+ *    getTaskCount 仍计入批里未开始的任务，shutdownNow 返回批里和队列里
+ *    的全部任务，且这些任务都不会再运行
+ * 2. executeAll 批量提交的任务全部运行，getCompletedTaskCount 与之相符
+ * 3. 批里第一个任务抛异常使工作线程异常退出，同时另一个线程调用
+ *    shutdownNow：剩余任务要么运行过，要么出现在 shutdownNow 的返回值里，
+ *    不会被放回已停止的队列后丢失，重复 ROUNDS 轮
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final int BATCH = 8;
+    static final int TASKS = 20;
+    static final int ROUNDS = 500;
+
+    public static void main(String[] args) throws Exception {
+        countAndDrain();
+        executeAll();
+        abruptExitDuringShutdownNow();
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    static ThreadPoolExecutor newPool(int threads) {
+        ThreadPoolExecutor p = new ThreadPoolExecutor(
+            threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<Runnable>(), r -> {
+                Thread t = new Thread(r);
+                t.setDaemon(true);
+                t.setUncaughtExceptionHandler((th, e) -> { });
+                return t;
+            });
+        p.setWorkerBatchSize(BATCH);
+        return p;
+    }
+
+    static void countAndDrain() throws Exception {
+        ThreadPoolExecutor p = newPool(1);
+        CountDownLatch started = new CountDownLatch(1), release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        // Queue everything before the worker starts so that its first
+        // wakeup takes the blocker and a full batch behind it
+        p.getQueue().add(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        for (int i = 0; i < TASKS; i++)
+            p.getQueue().add(ran::incrementAndGet);
+        p.prestartAllCoreThreads();
+        check(started.await(10, TimeUnit.SECONDS), "blocker did not start");
+        check(p.getQueue().size() == TASKS - (BATCH - 1),
+              "queue size " + p.getQueue().size());
+        check(p.getTaskCount() == TASKS + 1, "task count " + p.getTaskCount());
+        List<Runnable> left = p.shutdownNow();
+        check(left.size() == TASKS, "shutdownNow returned " + left.size());
+        release.countDown();
+        check(p.awaitTermination(10, TimeUnit.SECONDS), "not terminated");
+        check(ran.get() == 0, ran.get() + " drained tasks ran");
+    }
+
+    static void executeAll() throws Exception {
+        ThreadPoolExecutor p = newPool(2);
+        AtomicInteger ran = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 10 * TASKS; i++)
+            tasks.add(ran::incrementAndGet);
+        for (int r = 0; r < 5; r++)
+            p.executeAll(tasks);
+        p.shutdown();
+        check(p.awaitTermination(10, TimeUnit.SECONDS), "not terminated");
+        check(ran.get() == 50 * TASKS, "ran " + ran.get());
+        check(p.getCompletedTaskCount() == 50 * TASKS,
+              "completed " + p.getCompletedTaskCount());
+        check(p.getTaskCount() == 50 * TASKS, "task count " + p.getTaskCount());
+    }
+
+    static void abruptExitDuringShutdownNow() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            ThreadPoolExecutor p = newPool(1);
+            CountDownLatch started = new CountDownLatch(1), release = new CountDownLatch(1);
+            AtomicInteger ran = new AtomicInteger();
+            p.getQueue().add(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+                throw new RuntimeException("abrupt exit");
+            });
+            for (int i = 0; i < TASKS; i++)
+                p.getQueue().add(ran::incrementAndGet);
+            p.prestartAllCoreThreads();
+            check(started.await(10, TimeUnit.SECONDS), "blocker did not start");
+            release.countDown();
+            if ((round & 1) != 0)
+                Thread.yield();
+            List<Runnable> left = p.shutdownNow();
+            check(p.awaitTermination(10, TimeUnit.SECONDS), "not terminated");
+            int lost = TASKS - ran.get() - left.size();
+            check(lost == 0, "round " + round + ": " + lost + " tasks neither ran nor returned, " +
+                  p.getQueue().size() + " left in the queue");
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package test.TimingWheelScheduledExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimingWheelScheduledExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TimingWheelScheduledExecutor 的检查(tick 为 1ms)：
+ * 1. 顺序与精度：随机延迟的任务不早于到期时间运行，迟到不超过 LATE_MILLIS，
+ *    到期 tick 相差 2 个以上的任务按到期先后运行；另有跨越多层轮的长延迟任务
+ * 2. 取消：在轮中和仍在 pending 栈上时取消的任务都不会运行
+ * 3. shutdown：周期任务被取消、不再运行，已排定的一次性任务照常到期运行，
+ *    之后执行器终止
+ * 4. shutdownNow：返回全部未派发的任务(含周期任务)，它们没有被取消
+ * 5. 空闲 tick：只有一个 IDLE_MILLIS 后才到期的任务时，计时线程不应每个
+ *    tick 都醒来，用计时线程的 CPU 时间判断
+ * 出错时抛 AssertionError。
+ */
+public class Test {
+    static final int TASKS = 2000;
+    static final int MAX_DELAY_MILLIS = 300;
+    static final long LATE_MILLIS = 200;
+    static final long IDLE_MILLIS = 2000;
+
+    public static void main(String[] args) throws Exception {
+        ordering();
+        longDelays();
+        cancellation();
+        shutdownPeriodic();
+        shutdownNow();
+        idleTicks();
+        System.out.println("OK");
+    }
+
+    static void check(boolean b, String what) {
+        if (!b)
+            throw new AssertionError(what);
+    }
+
+    static Thread daemon(Runnable r) {
+        Thread t = new Thread(r);
+        t.setDaemon(true);
+        return t;
+    }
+
+    static TimingWheelScheduledExecutor newExecutor(Executor worker) {
+        return new TimingWheelScheduledExecutor(1, TimeUnit.MILLISECONDS, 512,
+                                                worker, Test::daemon);
+    }
+
+    static void ordering() throws Exception {
+        // run on the timer thread, so run order is dispatch order
+        TimingWheelScheduledExecutor ex = newExecutor(Runnable::run);
+        Random rnd = new Random(42);
+        // the executor reads the clock between dueLo and dueHi
+        long[] dueLo = new long[TASKS], dueHi = new long[TASKS];
+        long[] ran = new long[TASKS];
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            final int id = i;
+            long delay = TimeUnit.MILLISECONDS.toNanos(1 + rnd.nextInt(MAX_DELAY_MILLIS));
+            dueLo[i] = System.nanoTime() + delay;
+            ex.schedule(() -> {
+                ran[id] = System.nanoTime();
+                order.add(id);
+                done.countDown();
+            }, delay, TimeUnit.NANOSECONDS);
+            dueHi[i] = System.nanoTime() + delay;
+        }
+        check(done.await(10, TimeUnit.SECONDS), "not all tasks ran: " + done.getCount());
+        long tick = TimeUnit.MILLISECONDS.toNanos(1);
+        for (int i = 0; i < TASKS; i++) {
+            check(ran[i] - dueLo[i] >= 0L, "task " + i + " ran early");
+            check(ran[i] - dueHi[i] <= TimeUnit.MILLISECONDS.toNanos(LATE_MILLIS),
+                  "task " + i + " ran " + (ran[i] - dueHi[i]) / 1000000 + " ms late");
+        }
+        for (int k = 1; k < TASKS; k++) {
+            int a = order.get(k - 1), b = order.get(k);
+            check(dueLo[a] - dueHi[b] < 2 * tick,
+                  "task due " + (dueLo[a] - dueHi[b]) / 1000 + " us later ran first");
+        }
+        ex.shutdown();
+        check(ex.awaitTermination(10, TimeUnit.SECONDS), "not terminated");
+    }
+
+    /*
+     * Delays beyond the lowest wheel (512 ticks) are cascaded down.
+     */
+    static void longDelays() throws Exception {
+        TimingWheelScheduledExecutor ex =
+            new TimingWheelScheduledExecutor(1, TimeUnit.MILLISECONDS, 8,
+                                             Runnable::run, Test::daemon);
+        long[] delays = { 7, 9, 64, 65, 300, 513, 700 };
+        CountDownLatch done = new CountDownLatch(delays.length);
+        long start = System.nanoTime();
+        long[] ran = new long[delays.length];
+        for (int i = 0; i < delays.length; i++) {
+            final int id = i;
+            ex.schedule(() -> { ran[id] = System.nanoTime(); done.countDown(); },
+                        delays[i], TimeUnit.MILLISECONDS);
+        }
+        check(done.await(10, TimeUnit.SECONDS), "long delays not run");
+        for (int i = 0; i < delays.length; i++) {
+            long ms = TimeUnit.NANOSECONDS.toMillis(ran[i] - start);
+            check(ms >= delays[i] && ms <= delays[i] + LATE_MILLIS,
+                  "delay " + delays[i] + " ms ran after " + ms + " ms");
+        }
+        ex.shutdown();
+        check(ex.awaitTermination(10, TimeUnit.SECONDS), "not terminated");
+    }
+
+    static void cancellation() throws Exception {
+        TimingWheelScheduledExecutor ex = newExecutor(Runnable::run);
+        AtomicInteger wrong = new AtomicInteger();
+        List<ScheduledFuture<?>> keep = new ArrayList<>();
+        List<ScheduledFuture<?>> cancel = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            boolean c = (i & 1) != 0;
+            ScheduledFuture<?> f = ex.schedule(() -> {
+                if (c)
+                    wrong.incrementAndGet();
+            }, 20 + i % 100, TimeUnit.MILLISECONDS);
+            if (c && (i & 2) != 0)
+                f.cancel(false);    // probably still pending
+            (c ? cancel : keep).add(f);
+        }
+        Thread.sleep(5);
+        for (ScheduledFuture<?> f : cancel)
+            f.cancel(false);        // probably in the wheel
+        for (ScheduledFuture<?> f : keep)
+            f.get(10, TimeUnit.SECONDS);
+        Thread.sleep(50);
+        check(wrong.get() == 0, wrong.get() + " cancelled tasks ran");
+        for (ScheduledFuture<?> f : cancel)
+            check(f.isCancelled(), "not cancelled");
+        ex.shutdown();
+        check(ex.awaitTermination(10, TimeUnit.SECONDS), "not terminated");
+    }
+
+    static void shutdownPeriodic() throws Exception {
+        TimingWheelScheduledExecutor ex = newExecutor(Runnable::run);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(3);
+        ScheduledFuture<?> periodic = ex.scheduleAtFixedRate(() -> {
+            runs.incrementAndGet();
+            started.countDown();
+        }, 5, 5, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> delayed = ex.scheduleWithFixedDelay(
+            runs::incrementAndGet, 1, 1, TimeUnit.HOURS);
+        check(started.await(10, TimeUnit.SECONDS), "periodic task not run");
+        CountDownLatch oneShot = new CountDownLatch(1);
+        ScheduledFuture<?> f = ex.schedule(oneShot::countDown, 100, TimeUnit.MILLISECONDS);
+        ex.shutdown();
+        check(ex.isShutdown(), "not shut down");
+        try {
+            ex.schedule(() -> { }, 1, TimeUnit.MILLISECONDS);
+            throw new AssertionError("accepted after shutdown");
+        } catch (java.util.concurrent.RejectedExecutionException expected) {
+        }
+        check(ex.awaitTermination(10, TimeUnit.SECONDS), "not terminated");
+        check(oneShot.getCount() == 0 && f.isDone() && !f.isCancelled(),
+              "one-shot task not run after shutdown");
+        check(periodic.isCancelled() && delayed.isCancelled(),
+              "periodic task not cancelled on shutdown");
+        int n = runs.get();
+        Thread.sleep(30);
+        check(runs.get() == n, "periodic task ran after termination");
+    }
+
+    static void shutdownNow() throws Exception {
+        TimingWheelScheduledExecutor ex = newExecutor(Runnable::run);
+        HashSet<Object> futures = new HashSet<>();
+        for (int i = 0; i < 10; i++)
+            futures.add(ex.schedule(() -> { }, 10 + i, TimeUnit.SECONDS));
+        futures.add(ex.scheduleAtFixedRate(() -> { }, 1, 1, TimeUnit.HOURS));
+        ScheduledFuture<?> cancelled = ex.schedule(() -> { }, 5, TimeUnit.SECONDS);
+        cancelled.cancel(false);
+        Thread.sleep(20);   // let the timer file them
+        futures.add(ex.schedule(() -> { }, 20, TimeUnit.SECONDS)); // maybe pending
+        List<Runnable> l = ex.shutdownNow();
+        check(ex.awaitTermination(10, TimeUnit.SECONDS), "not terminated");
+        check(l.size() == futures.size(), "shutdownNow returned " + l.size() +
+              " tasks, expected " + futures.size());
+        check(futures.containsAll(l), "unexpected task returned");
+        for (Runnable r : l)
+            check(!((ScheduledFuture<?>)r).isDone(), "returned task is done");
+    }
+
+    static void idleTicks() throws Exception {
+        Thread[] timer = new Thread[1];
+        ThreadFactory tf = r -> timer[0] = daemon(r);
+        TimingWheelScheduledExecutor ex =
+            new TimingWheelScheduledExecutor(1, TimeUnit.MILLISECONDS, 512,
+                                             Runnable::run, tf);
+        CountDownLatch done = new CountDownLatch(1);
+        ex.schedule(done::countDown, IDLE_MILLIS, TimeUnit.MILLISECONDS);
+        Thread.sleep(100);
+        ThreadMXBean tmx = ManagementFactory.getThreadMXBean();
+        long id = timer[0].getId();
+        long cpu0 = tmx.getThreadCpuTime(id);
+        Thread.sleep(IDLE_MILLIS / 2);
+        long cpu = tmx.getThreadCpuTime(id) - cpu0;
+        System.out.println("timer CPU over " + IDLE_MILLIS / 2 + " ms: " +
+                           cpu / 1000 + " us");
+        // waking every tick costs tens of ms of CPU per 1000 ticks
+        check(cpu < TimeUnit.MILLISECONDS.toNanos(5),
+              "timer thread woke every tick: " + cpu / 1000 + " us CPU");
+        check(done.await(10, TimeUnit.SECONDS), "idle task not run");
+        ex.shutdown();
+        check(ex.awaitTermination(10, TimeUnit.SECONDS), "not terminated");
+    }
+}
@@ -0,0 +1,153 @@
+package test.ZipFile;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.MappedZipFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * ZipFile(native) 与 MappedZipFile(映射文件 + Java 解析中央目录) 对比：
+ * 1. 打开 + 关闭全部 jar(模拟启动时的类路径扫描)
+ * 2. 按名字查找全部条目(getEntry)
+ * 3. 遍历全部条目(entries)
+ * 4. 读出全部条目的内容(getInputStream)
+ * 参数为要测试的 jar/zip 文件；不给参数时在临时目录生成 JARS 个 jar，
+ * 每个 ENTRIES 个条目，压缩与不压缩各半。
+ */
+public class Test {
+    static final int JARS = 100;
+    static final int ENTRIES = 400;
+    static final int ROUNDS = 5;
+    static long sink;
+
+    interface Zip extends AutoCloseable {
+        ZipEntry getEntry(String name);
+        Enumeration<? extends ZipEntry> entries();
+        InputStream getInputStream(ZipEntry e) throws IOException;
+        void close() throws IOException;
+    }
+
+    interface Opener {
+        Zip open(File f) throws IOException;
+    }
+
+    static Zip zipFile(File f) throws IOException {
+        ZipFile z = new ZipFile(f);
+        return new Zip() {
+            public ZipEntry getEntry(String name) { return z.getEntry(name); }
+            public Enumeration<? extends ZipEntry> entries() { return z.entries(); }
+            public InputStream getInputStream(ZipEntry e) throws IOException { return z.getInputStream(e); }
+            public void close() throws IOException { z.close(); }
+        };
+    }
+
+    static Zip mappedZipFile(File f) throws IOException {
+        MappedZipFile z = new MappedZipFile(f);
+        return new Zip() {
+            public ZipEntry getEntry(String name) { return z.getEntry(name); }
+            public Enumeration<? extends ZipEntry> entries() { return z.entries(); }
+            public InputStream getInputStream(ZipEntry e) throws IOException { return z.getInputStream(e); }
+            public void close() { z.close(); }
+        };
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<File> files = new ArrayList<>();
+        if (args.length > 0) {
+            for (String a : args)
+                files.add(new File(a));
+        } else {
+            File dir = new File(System.getProperty("java.io.tmpdir"), "zipbench");
+            dir.mkdirs();
+            Random r = new Random(42);
+            for (int i = 0; i < JARS; ++i)
+                files.add(generate(new File(dir, "lib" + i + ".jar"), r));
+        }
+        List<List<String>> names = new ArrayList<>();
+        for (File f : files) {
+            List<String> l = new ArrayList<>();
+            try (ZipFile z = new ZipFile(f)) {
+                for (Enumeration<? extends ZipEntry> e = z.entries(); e.hasMoreElements(); )
+                    l.add(e.nextElement().getName());
+            }
+            names.add(l);
+        }
+
+        System.out.printf("%-16s%14s%14s%14s%14s%n", "", "open(ms)", "lookup(ms)", "iterate(ms)", "read(ms)");
+        for (int round = 0; round < ROUNDS; ++round) {
+            run("ZipFile", Test::zipFile, files, names);
+            run("MappedZipFile", Test::mappedZipFile, files, names);
+        }
+    }
+
+    static void run(String label, Opener opener, List<File> files,
+                    List<List<String>> names) throws Exception {
+        // 1. 打开 + 关闭
+        long t0 = System.nanoTime();
+        for (File f : files)
+            opener.open(f).close();
+        long t1 = System.nanoTime();
+
+        // 2~4 在一次打开上依次进行
+        long lookup = 0, iterate = 0, read = 0;
+        byte[] buf = new byte[8192];
+        for (int i = 0; i < files.size(); ++i) {
+            try (Zip z = opener.open(files.get(i))) {
+                long s = System.nanoTime();
+                for (String n : names.get(i))
+                    if (z.getEntry(n) != null) ++sink;
+                long s1 = System.nanoTime();
+                List<ZipEntry> es = new ArrayList<>();
+                for (Enumeration<? extends ZipEntry> e = z.entries(); e.hasMoreElements(); )
+                    es.add(e.nextElement());
+                long s2 = System.nanoTime();
+                for (ZipEntry e : es) {
+                    try (InputStream in = z.getInputStream(e)) {
+                        for (int n; (n = in.read(buf)) > 0; )
+                            sink += n;
+                    }
+                }
+                long s3 = System.nanoTime();
+                lookup += s1 - s;
+                iterate += s2 - s1;
+                read += s3 - s2;
+            }
+        }
+        System.out.printf("%-16s%14.2f%14.2f%14.2f%14.2f%n", label,
+                          (t1 - t0) / 1e6, lookup / 1e6, iterate / 1e6, read / 1e6);
+    }
+
+    /** 生成一个类似类库 jar 的文件：目录层次 + 一半 STORED、一半 DEFLATED 的条目 */
+    static File generate(File f, Random r) throws IOException {
+        if (f.exists())
+            return f;
+        try (ZipOutputStream zo = new ZipOutputStream(new FileOutputStream(f))) {
+            for (int i = 0; i < ENTRIES; ++i) {
+                ZipEntry e = new ZipEntry("com/example/pkg" + (i % 20) + "/Class" + i + ".class");
+                byte[] d = new byte[200 + r.nextInt(4000)];
+                for (int j = 0; j < d.length; ++j)
+                    d[j] = (byte) (r.nextInt(16) + 'A');
+                if ((i & 1) == 0) {
+                    CRC32 crc = new CRC32();
+                    crc.update(d);
+                    e.setMethod(ZipEntry.STORED);
+                    e.setSize(d.length);
+                    e.setCrc(crc.getValue());
+                }
+                zo.putNextEntry(e);
+                zo.write(d);
+                zo.closeEntry();
+            }
+        }
+        return f;
+    }
+}